@@ -358,8 +358,19 @@ public class IoTDBConfigNodeSnapshotIT {
     assertEquals(TSStatusCode.SUCCESS_STATUS.getStatusCode(), client.createCQ(req2).getCode());
 
     Set<TCQEntry> result = new HashSet<>();
-    result.add(new TCQEntry("testCq1", sql1, CQState.ACTIVE.getType()));
-    result.add(new TCQEntry("testCq2", sql2, CQState.ACTIVE.getType()));
+    result.add(toCQEntry(req1));
+    result.add(toCQEntry(req2));
     return result;
   }
+
+  private TCQEntry toCQEntry(TCreateCQReq req) {
+    return new TCQEntry(req.getCqId(), req.getSql(), CQState.ACTIVE.getType())
+        .setQueryBody(req.getQueryBody())
+        .setEveryInterval(req.getEveryInterval())
+        .setBoundaryTime(req.getBoundaryTime())
+        .setStartTimeOffset(req.getStartTimeOffset())
+        .setEndTimeOffset(req.getEndTimeOffset())
+        .setZoneId(req.getZoneId())
+        .setUsername(req.getUsername());
+  }
 }
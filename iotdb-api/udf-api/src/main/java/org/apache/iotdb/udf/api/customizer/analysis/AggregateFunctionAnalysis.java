@@ -25,10 +25,12 @@ import org.apache.iotdb.udf.api.type.Type;
 public class AggregateFunctionAnalysis implements FunctionAnalysis {
   private final Type outputDataType;
   private final boolean removable;
+  private final boolean batchInput;
 
-  private AggregateFunctionAnalysis(Type outputDataType, boolean removable) {
+  private AggregateFunctionAnalysis(Type outputDataType, boolean removable, boolean batchInput) {
     this.outputDataType = outputDataType;
     this.removable = removable;
+    this.batchInput = batchInput;
   }
 
   public Type getOutputDataType() {
@@ -39,9 +41,14 @@ public class AggregateFunctionAnalysis implements FunctionAnalysis {
     return removable;
   }
 
+  public boolean isBatchInput() {
+    return batchInput;
+  }
+
   public static class Builder {
     private Type outputDataType;
     private boolean removable = false;
+    private boolean batchInput = false;
 
     public Builder outputDataType(Type outputDataType) {
       this.outputDataType = outputDataType;
@@ -53,12 +60,22 @@ public class AggregateFunctionAnalysis implements FunctionAnalysis {
       return this;
     }
 
+    /**
+     * Whether the function implements the columnar {@code addInput(State, Column[], int[], int)}
+     * and {@code addInput(State[], Column[], int[], int)}. If true, the engine calls them instead
+     * of the row-by-row {@code addInput(State, Record)}.
+     */
+    public Builder batchInput(boolean batchInput) {
+      this.batchInput = batchInput;
+      return this;
+    }
+
     public AggregateFunctionAnalysis build() throws IllegalArgumentException {
       if (outputDataType == null) {
         throw new IllegalArgumentException(
             UdfApiMessages.AGGREGATE_FUNCTION_ANALYSIS_OUTPUT_DATA_TYPE_NOT_SET);
       }
-      return new AggregateFunctionAnalysis(outputDataType, removable);
+      return new AggregateFunctionAnalysis(outputDataType, removable, batchInput);
     }
   }
 }
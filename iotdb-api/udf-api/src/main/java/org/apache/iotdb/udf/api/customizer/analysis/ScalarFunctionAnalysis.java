@@ -25,29 +25,46 @@ import org.apache.iotdb.udf.api.type.Type;
 public class ScalarFunctionAnalysis implements FunctionAnalysis {
 
   private final Type outputDataType;
+  private final boolean batchEvaluable;
 
-  private ScalarFunctionAnalysis(Type outputDataType) {
+  private ScalarFunctionAnalysis(Type outputDataType, boolean batchEvaluable) {
     this.outputDataType = outputDataType;
+    this.batchEvaluable = batchEvaluable;
   }
 
   public Type getOutputDataType() {
     return outputDataType;
   }
 
+  public boolean isBatchEvaluable() {
+    return batchEvaluable;
+  }
+
   public static class Builder {
     private Type outputDataType;
+    private boolean batchEvaluable = false;
 
     public Builder outputDataType(Type outputDataType) {
       this.outputDataType = outputDataType;
       return this;
     }
 
+    /**
+     * Whether the function implements the columnar {@code evaluate(Column[], boolean[],
+     * ColumnBuilder)}. If true, the engine calls it instead of the row-by-row {@code
+     * evaluate(Record)}.
+     */
+    public Builder batchEvaluable(boolean batchEvaluable) {
+      this.batchEvaluable = batchEvaluable;
+      return this;
+    }
+
     public ScalarFunctionAnalysis build() throws IllegalArgumentException {
       if (outputDataType == null) {
         throw new IllegalArgumentException(
             UdfApiMessages.SCALAR_FUNCTION_ANALYSIS_OUTPUT_DATA_TYPE_NOT_SET);
       }
-      return new ScalarFunctionAnalysis(outputDataType);
+      return new ScalarFunctionAnalysis(outputDataType, batchEvaluable);
     }
   }
 }
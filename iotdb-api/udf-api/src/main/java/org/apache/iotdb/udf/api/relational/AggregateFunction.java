@@ -28,6 +28,8 @@ import org.apache.iotdb.udf.api.exception.UDFException;
 import org.apache.iotdb.udf.api.relational.access.Record;
 import org.apache.iotdb.udf.api.utils.ResultValue;
 
+import org.apache.tsfile.block.column.Column;
+
 public interface AggregateFunction extends SQLFunction {
 
   /**
@@ -90,6 +92,67 @@ public interface AggregateFunction extends SQLFunction {
    */
   void addInput(State state, Record input);
 
+  /**
+   * Columnar variant of {@link #addInput(State, Record)}, it is only called when {@linkplain
+   * AggregateFunctionAnalysis.Builder#batchInput(boolean)} is set to true.
+   *
+   * @param state state to be updated
+   * @param columns original input data columns, all of them have the same position count
+   * @param selectedPositions positions of the rows to be added, null means all positions
+   * @param selectedPositionCount number of valid elements in selectedPositions, or the position
+   *     count of the columns if selectedPositions is null
+   * @throws UnsupportedOperationException if the user does not override this method
+   */
+  default void addInput(
+      State state, Column[] columns, int[] selectedPositions, int selectedPositionCount) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Grouped variant of {@link #addInput(State, Column[], int[], int)}, the row at position {@code
+   * p} is added to {@code states[p]}. The default implementation adds the selected rows one by one.
+   *
+   * @param states state of each position, the element of a position not selected may be null
+   * @param columns original input data columns, all of them have the same position count
+   * @param selectedPositions positions of the rows to be added, null means all positions
+   * @param selectedPositionCount number of valid elements in selectedPositions, or the position
+   *     count of the columns if selectedPositions is null
+   */
+  default void addInput(
+      State[] states, Column[] columns, int[] selectedPositions, int selectedPositionCount) {
+    int[] position = new int[1];
+    for (int i = 0; i < selectedPositionCount; i++) {
+      position[0] = selectedPositions == null ? i : selectedPositions[i];
+      addInput(states[position[0]], columns, position, 1);
+    }
+  }
+
+  /**
+   * Same as {@link #addInput(State, Column[], int[], int)} with access to {@link IoTDBLocal} for
+   * embedded queries.
+   */
+  default void addInput(
+      State state,
+      Column[] columns,
+      int[] selectedPositions,
+      int selectedPositionCount,
+      IoTDBLocal local) {
+    addInput(state, columns, selectedPositions, selectedPositionCount);
+  }
+
+  /**
+   * Same as {@link #addInput(State[], Column[], int[], int)} with access to {@link IoTDBLocal} for
+   * embedded queries.
+   */
+  default void addInput(
+      State[] states,
+      Column[] columns,
+      int[] selectedPositions,
+      int selectedPositionCount,
+      IoTDBLocal local) {
+    addInput(states, columns, selectedPositions, selectedPositionCount);
+  }
+
   /**
    * Merge two state in execution engine.
    *
@@ -26,6 +26,9 @@ import org.apache.iotdb.udf.api.exception.UDFArgumentNotValidException;
 import org.apache.iotdb.udf.api.exception.UDFException;
 import org.apache.iotdb.udf.api.relational.access.Record;
 
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+
 public interface ScalarFunction extends SQLFunction {
   /**
    * In this method, the user need to do the following things:
@@ -77,6 +80,33 @@ public interface ScalarFunction extends SQLFunction {
     return evaluate(input);
   }
 
+  /**
+   * Columnar variant of {@link #evaluate(Record)}, it is only called when {@linkplain
+   * ScalarFunctionAnalysis.Builder#batchEvaluable(boolean)} is set to true. Exactly one value (or
+   * null) must be appended to the builder for every position of the input columns, the positions
+   * not selected should be appended as null.
+   *
+   * @param columns original input data columns, all of them have the same position count
+   * @param selection whether each position is selected, null means all positions are selected
+   * @param builder used to collect the output values
+   * @throws UDFException the user can throw errors if necessary
+   * @throws UnsupportedOperationException if the user does not override this method
+   */
+  default void evaluate(Column[] columns, boolean[] selection, ColumnBuilder builder)
+      throws UDFException {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Same as {@link #evaluate(Column[], boolean[], ColumnBuilder)} with access to {@link
+   * IoTDBLocal} for embedded queries.
+   */
+  default void evaluate(
+      Column[] columns, boolean[] selection, ColumnBuilder builder, IoTDBLocal local)
+      throws UDFException {
+    evaluate(columns, selection, builder);
+  }
+
   /** This method is mainly used to release the resources used in the ScalarFunction. */
   default void beforeDestroy() {
     // do nothing
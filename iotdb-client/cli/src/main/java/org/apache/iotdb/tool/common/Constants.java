@@ -88,7 +88,7 @@ public class Constants {
   public static final String FILE_TYPE_DESC_EXPORT =
       "Export file type ?You can choose tsfile)、csv) or sql).(required)";
   public static final String FILE_TYPE_DESC_IMPORT =
-      "Types of imported files: csv, sql, tsfile.(required)";
+      "Types of imported files: csv, sql, tsfile, parquet (table model only).(required)";
 
   public static final String TIME_FORMAT_ARGS = "tf";
   public static final String TIME_FORMAT_NAME = "time_format";
@@ -180,6 +180,7 @@ public class Constants {
   public static final String TXT_SUFFIXS = "txt";
   public static final String SQL_SUFFIXS = "sql";
   public static final String TSFILE_SUFFIXS = "tsfile";
+  public static final String PARQUET_SUFFIXS = "parquet";
 
   public static final String TSFILEDB_CLI_DIVIDE = "-------------------";
   public static final String COLON = ": ";
@@ -59,6 +59,8 @@ public abstract class AbstractImportData extends AbstractDataTool implements Run
           file = new File(filePath);
           if (file.getName().endsWith(Constants.SQL_SUFFIXS)) {
             importFromSqlFile(file);
+          } else if (Constants.PARQUET_SUFFIXS.equalsIgnoreCase(fileType)) {
+            importFromParquetFile(file);
           } else {
             importFromCsvFile(file);
           }
@@ -103,6 +105,11 @@ public abstract class AbstractImportData extends AbstractDataTool implements Run
 
   protected abstract void importFromCsvFile(File file);
 
+  protected void importFromParquetFile(File file) {
+    ioTPrinter.println(
+        String.format("[%s] - Importing parquet files is not supported", file.getName()));
+  }
+
   protected void processSuccessFile(String file) {
     loadFileSuccessfulNum.increment();
     if (fileType.equalsIgnoreCase(Constants.TSFILE_SUFFIXS)) {
@@ -134,7 +134,8 @@ public class ImportData extends AbstractDataTool {
         // print help info according to file type
         if (Constants.TSFILE_SUFFIXS.equalsIgnoreCase(fileType)) {
           printHelpOptions(null, Constants.IMPORT_CLI_PREFIX, hf, tsFileOptions, null, null, false);
-        } else if (Constants.CSV_SUFFIXS.equalsIgnoreCase(fileType)) {
+        } else if (Constants.CSV_SUFFIXS.equalsIgnoreCase(fileType)
+            || Constants.PARQUET_SUFFIXS.equalsIgnoreCase(fileType)) {
           printHelpOptions(null, Constants.IMPORT_CLI_PREFIX, hf, null, csvOptions, null, false);
         } else if (Constants.SQL_SUFFIXS.equalsIgnoreCase(fileType)) {
           printHelpOptions(null, Constants.IMPORT_CLI_PREFIX, hf, null, null, sqlOptions, false);
@@ -174,7 +175,8 @@ public class ImportData extends AbstractDataTool {
                 null, Constants.IMPORT_CLI_PREFIX, hf, tsFileOptions, null, null, false);
             System.exit(Constants.CODE_ERROR);
           }
-        } else if (Constants.CSV_SUFFIXS.equalsIgnoreCase(fileType)) {
+        } else if (Constants.CSV_SUFFIXS.equalsIgnoreCase(fileType)
+            || Constants.PARQUET_SUFFIXS.equalsIgnoreCase(fileType)) {
           try {
             commandLine = parser.parse(csvOptions, args);
           } catch (ParseException e) {
@@ -330,8 +332,13 @@ public class ImportData extends AbstractDataTool {
       successOperation = ImportTsFileOperation.getOperation(onSuccess, isSuccessDirEqualsSourceDir);
       failOperation = ImportTsFileOperation.getOperation(onFail, isFailDirEqualsSourceDir);
     }
+    if (sqlDialectTree && Constants.PARQUET_SUFFIXS.equalsIgnoreCase(fileType)) {
+      ioTPrinter.println("Importing parquet files is only supported in table model");
+      System.exit(Constants.CODE_ERROR);
+    }
     if (!sqlDialectTree
-        && Constants.CSV_SUFFIXS.equalsIgnoreCase(fileType)
+        && (Constants.CSV_SUFFIXS.equalsIgnoreCase(fileType)
+            || Constants.PARQUET_SUFFIXS.equalsIgnoreCase(fileType))
         && StringUtils.isBlank(table)) {
       ioTPrinter.println(
           CliMessages.MESSAGE_INVALID_ARGS_REQUIRED_VALUES_FOR_OPTION_TABLE_NOT_PROVIDED_4BC3FCFA);
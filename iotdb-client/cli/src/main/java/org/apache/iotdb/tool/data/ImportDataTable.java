@@ -21,9 +21,13 @@ package org.apache.iotdb.tool.data;
 
 import org.apache.iotdb.cli.i18n.CliMessages;
 import org.apache.iotdb.cli.utils.IoTPrinter;
+import org.apache.iotdb.commons.queryengine.utils.DateTimeUtils;
 import org.apache.iotdb.isession.ITableSession;
 import org.apache.iotdb.isession.SessionDataSet;
 import org.apache.iotdb.isession.pool.ITableSessionPool;
+import org.apache.iotdb.parquet.ParquetColumn;
+import org.apache.iotdb.parquet.ParquetColumnData;
+import org.apache.iotdb.parquet.ParquetFileReader;
 import org.apache.iotdb.rpc.IoTDBConnectionException;
 import org.apache.iotdb.rpc.StatementExecutionException;
 import org.apache.iotdb.rpc.UrlUtils;
@@ -33,6 +37,7 @@ import org.apache.iotdb.tool.tsfile.ImportTsFileScanTool;
 
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
+import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.enums.ColumnCategory;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.external.commons.collections4.CollectionUtils;
@@ -49,12 +54,14 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -66,6 +73,7 @@ public class ImportDataTable extends AbstractImportData {
   private static ITableSessionPool sessionPool;
   private static Map<String, TSDataType> dataTypes = new HashMap<>();
   private static Map<String, ColumnCategory> columnCategory = new HashMap<>();
+  private static String tableTimeColumn = null;
 
   private static final Pattern DB_FROM_SQL_PATTERN;
 
@@ -112,7 +120,8 @@ public class ImportDataTable extends AbstractImportData {
           ioTPrinter.println(String.format(Constants.TARGET_DATABASE_NOT_EXIST_MSG, database));
           System.exit(1);
         }
-        if (Constants.CSV_SUFFIXS.equals(fileType)) {
+        if (Constants.CSV_SUFFIXS.equals(fileType)
+            || Constants.PARQUET_SUFFIXS.equalsIgnoreCase(fileType)) {
           if (StringUtils.isNotBlank(table)) {
             sessionDataSet = session.executeQueryStatement("show tables");
             List<String> tables = new ArrayList<>();
@@ -132,6 +141,8 @@ public class ImportDataTable extends AbstractImportData {
               if (!timeColumn.equalsIgnoreCase(category)) {
                 dataTypes.put(columnName, getType(rowRecord.getField(1).getStringValue()));
                 columnCategory.put(columnName, getColumnCategory(category));
+              } else {
+                tableTimeColumn = columnName;
               }
             }
           } else {
@@ -285,6 +296,170 @@ public class ImportDataTable extends AbstractImportData {
     }
   }
 
+  /**
+   * Import a flat Parquet file into the target table. The columns are matched with the table by
+   * name ignoring case and only the matched columns are decoded, the row groups are converted into
+   * tablets one by one so that the whole file is never held in memory.
+   */
+  @Override
+  protected void importFromParquetFile(File file) {
+    if (!file.getName().endsWith(Constants.PARQUET_SUFFIXS)) {
+      ioTPrinter.println("The file name must end with \"parquet\"!");
+      return;
+    }
+    try (ParquetFileReader reader = new ParquetFileReader(file)) {
+      Map<String, String> tableColumnNames = new HashMap<>();
+      dataTypes.keySet().forEach(name -> tableColumnNames.put(name.toLowerCase(), name));
+      String targetTimeColumn = tableTimeColumn == null ? timeColumn : tableTimeColumn;
+
+      List<ParquetColumn> parquetColumns = reader.getColumns();
+      int timeColumnIndex = -1;
+      List<Integer> fieldColumnIndexes = new ArrayList<>();
+      List<String> headNames = new ArrayList<>();
+      List<TSDataType> columnTypes = new ArrayList<>();
+      List<ColumnCategory> columnCategorys = new ArrayList<>();
+      for (int i = 0; i < parquetColumns.size(); i++) {
+        ParquetColumn parquetColumn = parquetColumns.get(i);
+        String name = parquetColumn.getName();
+        if (name.equalsIgnoreCase(targetTimeColumn)) {
+          if (parquetColumn.getDataType() != TSDataType.TIMESTAMP
+              && parquetColumn.getDataType() != TSDataType.INT64) {
+            ioTPrinter.printf(
+                "[%s] - The type of time column '%s' must be TIMESTAMP or INT64, but is %s%n",
+                file.getName(), name, parquetColumn.getDataType());
+            return;
+          }
+          timeColumnIndex = i;
+          continue;
+        }
+        String tableColumnName = tableColumnNames.get(name.toLowerCase());
+        if (tableColumnName == null) {
+          ioTPrinter.printf(
+              "[%s] - Column '%s' does not exist in the target table, skipped%n",
+              file.getName(), name);
+          continue;
+        }
+        TSDataType targetType = dataTypes.get(tableColumnName);
+        if (!canConvertParquetType(parquetColumn.getDataType(), targetType)) {
+          ioTPrinter.printf(
+              "[%s] - Column '%s' of type %s can't be imported into a %s column%n",
+              file.getName(), name, parquetColumn.getDataType(), targetType);
+          return;
+        }
+        fieldColumnIndexes.add(i);
+        headNames.add(tableColumnName);
+        columnTypes.add(targetType);
+        columnCategorys.add(columnCategory.get(tableColumnName));
+      }
+      if (timeColumnIndex < 0) {
+        ioTPrinter.printf(
+            "[%s] - The parquet file must contain the time column `%s`!%n",
+            file.getName(), targetTimeColumn);
+        return;
+      }
+
+      int[] columnIndexes = new int[fieldColumnIndexes.size() + 1];
+      columnIndexes[0] = timeColumnIndex;
+      for (int i = 0; i < fieldColumnIndexes.size(); i++) {
+        columnIndexes[i + 1] = fieldColumnIndexes.get(i);
+      }
+      TimeUnit targetTimeUnit =
+          DateTimeUtils.timestampPrecisionStringToTimeUnit(timestampPrecision);
+      Tablet tablet = new Tablet(table, headNames, columnTypes, columnCategorys, batchPointSize);
+      for (int rowGroup = 0; rowGroup < reader.getRowGroupCount(); rowGroup++) {
+        ParquetColumnData[] columnData = reader.readRowGroup(rowGroup, columnIndexes);
+        ParquetColumnData timeData = columnData[0];
+        TimeUnit sourceTimeUnit = timeData.getColumn().getTimeUnit();
+        for (int row = 0; row < timeData.getSize(); row++) {
+          if (timeData.isNull(row)) {
+            continue;
+          }
+          int rowSize = tablet.getRowSize();
+          long time = timeData.getLong(row);
+          tablet.addTimestamp(
+              rowSize,
+              sourceTimeUnit == null ? time : targetTimeUnit.convert(time, sourceTimeUnit));
+          for (int i = 0; i < headNames.size(); i++) {
+            ParquetColumnData data = columnData[i + 1];
+            if (!data.isNull(row)) {
+              tablet.addValue(
+                  headNames.get(i), rowSize, getParquetValue(data, row, columnTypes.get(i)));
+            }
+          }
+          if (tablet.getRowSize() >= batchPointSize) {
+            writeAndEmptyDataSet(tablet, 3);
+            tablet.reset();
+          }
+        }
+      }
+      if (tablet.getRowSize() > 0) {
+        writeAndEmptyDataSet(tablet, 3);
+      }
+      processSuccessFile();
+    } catch (IOException e) {
+      ioTPrinter.println("Parquet file read exception because: " + e.getMessage());
+    }
+  }
+
+  private static boolean canConvertParquetType(TSDataType sourceType, TSDataType targetType) {
+    if (sourceType == targetType) {
+      return true;
+    }
+    switch (sourceType) {
+      case INT32:
+        return targetType == TSDataType.INT64
+            || targetType == TSDataType.FLOAT
+            || targetType == TSDataType.DOUBLE;
+      case INT64:
+        return targetType == TSDataType.DOUBLE || targetType == TSDataType.TIMESTAMP;
+      case FLOAT:
+        return targetType == TSDataType.DOUBLE;
+      case TIMESTAMP:
+        return targetType == TSDataType.INT64;
+      case TEXT:
+      case STRING:
+        return targetType == TSDataType.TEXT || targetType == TSDataType.STRING;
+      default:
+        return false;
+    }
+  }
+
+  private static Object getParquetValue(ParquetColumnData data, int row, TSDataType targetType) {
+    switch (targetType) {
+      case BOOLEAN:
+        return data.getBoolean(row);
+      case INT32:
+        return data.getInt(row);
+      case INT64:
+      case TIMESTAMP:
+        return data.getLong(row);
+      case FLOAT:
+        return data.getColumn().getDataType() == TSDataType.INT32
+            ? (float) data.getInt(row)
+            : data.getFloat(row);
+      case DOUBLE:
+        switch (data.getColumn().getDataType()) {
+          case INT32:
+            return (double) data.getInt(row);
+          case INT64:
+            return (double) data.getLong(row);
+          case FLOAT:
+            return (double) data.getFloat(row);
+          default:
+            return data.getDouble(row);
+        }
+      case DATE:
+        return LocalDate.ofEpochDay(data.getInt(row));
+      case TEXT:
+      case STRING:
+        return data.getBinary(row).getStringValue(TSFileConfig.STRING_CHARSET);
+      case BLOB:
+        return data.getBinary(row);
+      default:
+        return null;
+    }
+  }
+
   protected void writeData(
       List<String> headerNames, List<CSVRecord> records, String failedFilePath) {
     Map<String, TSDataType> headerTypeMap = new HashMap<>();
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tool.data;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Checks the assembled CLI distribution instead of the test class path, which also contains
+ * iotdb-server. Every IoTDB class referenced by the Parquet import and by the Parquet codec must be
+ * found in the jars of lib, otherwise the import fails with a NoClassDefFoundError at runtime.
+ */
+public class ImportDataTablePackagingIT {
+
+  private static final Pattern IOTDB_CLASS_NAME = Pattern.compile("org/apache/iotdb/[\\w/$]+");
+
+  private static final String IMPORT_DATA_TABLE_CLASS =
+      ImportDataTable.class.getName().replace('.', '/') + ".class";
+  private static final String PARQUET_CODEC_PACKAGE = "org/apache/iotdb/parquet/";
+
+  @Test
+  public void testParquetImportClassesArePackaged() throws IOException {
+    final List<File> libJars = findLibJars();
+    final List<URL> urls = new ArrayList<>();
+    for (final File jar : libJars) {
+      urls.add(jar.toURI().toURL());
+    }
+
+    final Set<String> missingClasses = new TreeSet<>();
+    boolean foundImportDataTable = false;
+    boolean foundParquetCodec = false;
+    try (final URLClassLoader libClassLoader =
+        new URLClassLoader(urls.toArray(new URL[0]), ClassLoader.getPlatformClassLoader())) {
+      for (final File jar : libJars) {
+        try (final JarFile jarFile = new JarFile(jar)) {
+          final Enumeration<JarEntry> entries = jarFile.entries();
+          while (entries.hasMoreElements()) {
+            final JarEntry entry = entries.nextElement();
+            final String name = entry.getName();
+            final boolean isImportDataTable = name.equals(IMPORT_DATA_TABLE_CLASS);
+            final boolean isParquetCodec =
+                name.startsWith(PARQUET_CODEC_PACKAGE) && name.endsWith(".class");
+            if (!isImportDataTable && !isParquetCodec) {
+              continue;
+            }
+            foundImportDataTable |= isImportDataTable;
+            foundParquetCodec |= isParquetCodec;
+            try (final InputStream in = jarFile.getInputStream(entry)) {
+              for (final String referenced : readReferencedIoTDBClasses(in)) {
+                if (libClassLoader.getResource(referenced + ".class") == null) {
+                  missingClasses.add(referenced + " (referenced by " + name + ")");
+                }
+              }
+            }
+          }
+        }
+      }
+    }
+
+    Assert.assertTrue(IMPORT_DATA_TABLE_CLASS + " is not packaged", foundImportDataTable);
+    Assert.assertTrue("The Parquet codec is not packaged", foundParquetCodec);
+    Assert.assertTrue("Classes missing in lib: " + missingClasses, missingClasses.isEmpty());
+  }
+
+  private static List<File> findLibJars() {
+    final File[] distributions = new File("target").listFiles(File::isDirectory);
+    Assert.assertNotNull("target does not exist, run the package phase first", distributions);
+    for (final File distribution : distributions) {
+      final File[] jars =
+          new File(distribution, "lib").listFiles((dir, name) -> name.endsWith(".jar"));
+      if (jars != null && jars.length > 0) {
+        return List.of(jars);
+      }
+    }
+    Assert.fail("No assembled CLI distribution with a lib directory in target");
+    return null;
+  }
+
+  /** Collects the IoTDB class names in the UTF-8 entries of the constant pool of a class file. */
+  private static Set<String> readReferencedIoTDBClasses(final InputStream classFile)
+      throws IOException {
+    final DataInputStream in =
+        new DataInputStream(new ByteArrayInputStream(classFile.readAllBytes()));
+    // magic, minor version and major version
+    in.skipBytes(8);
+    final int constantPoolCount = in.readUnsignedShort();
+    final Set<String> classNames = new TreeSet<>();
+    for (int i = 1; i < constantPoolCount; i++) {
+      final int tag = in.readUnsignedByte();
+      switch (tag) {
+        case 1:
+          final Matcher matcher = IOTDB_CLASS_NAME.matcher(in.readUTF());
+          while (matcher.find()) {
+            classNames.add(matcher.group());
+          }
+          break;
+        case 7:
+        case 8:
+        case 16:
+        case 19:
+        case 20:
+          in.skipBytes(2);
+          break;
+        case 15:
+          in.skipBytes(3);
+          break;
+        case 3:
+        case 4:
+        case 9:
+        case 10:
+        case 11:
+        case 12:
+        case 17:
+        case 18:
+          in.skipBytes(4);
+          break;
+        case 5:
+        case 6:
+          // long and double take two entries of the constant pool
+          in.skipBytes(8);
+          i++;
+          break;
+        default:
+          throw new IOException("Unknown constant pool tag " + tag);
+      }
+    }
+    return classNames;
+  }
+}
@@ -310,6 +310,7 @@ public enum TSStatusCode {
   PIPE_PUSH_META_TIMEOUT(1813),
   PIPE_PUSH_META_NOT_ENOUGH_MEMORY(1814),
   PIPE_RECEIVER_PARALLEL_OR_USER_CONFLICT_EXCEPTION(1815),
+  PIPE_TRANSFER_FILE_ALREADY_RECEIVED(1816),
 
   // Subscription
   SUBSCRIPTION_VERSION_ERROR(1900),
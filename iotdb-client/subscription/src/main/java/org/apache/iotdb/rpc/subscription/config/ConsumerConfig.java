@@ -21,6 +21,7 @@ package org.apache.iotdb.rpc.subscription.config;
 
 import org.apache.iotdb.pipe.api.customizer.parameter.PipeParameters;
 
+import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.utils.PublicBAOS;
 import org.apache.tsfile.utils.ReadWriteIOUtils;
 
@@ -28,16 +29,26 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Collections;
+import java.util.Locale;
 import java.util.Map;
 
 public class ConsumerConfig extends PipeParameters {
 
+  /** Parsed once, because it is read for every polled response. */
+  private final CompressionType compressionType;
+
   public ConsumerConfig() {
     super(Collections.emptyMap());
+    this.compressionType = CompressionType.UNCOMPRESSED;
   }
 
   public ConsumerConfig(Map<String, String> attributes) {
     super(attributes);
+    this.compressionType =
+        parseCompressionType(
+            getStringOrDefault(
+                ConsumerConstant.COMPRESSION_TYPE_KEY,
+                ConsumerConstant.COMPRESSION_TYPE_DEFAULT_VALUE));
   }
 
   /////////////////////////////// de/ser ///////////////////////////////
@@ -106,6 +117,23 @@ public class ConsumerConfig extends PipeParameters {
         ConsumerConstant.CONNECTION_TIMEOUT_MS_DEFAULT_VALUE);
   }
 
+  public CompressionType getCompressionType() {
+    return compressionType;
+  }
+
+  /**
+   * Parse the compression type case-insensitively.
+   *
+   * @return {@link CompressionType#UNCOMPRESSED} if the value is not a valid compression type
+   */
+  public static CompressionType parseCompressionType(final String compressionType) {
+    try {
+      return CompressionType.valueOf(compressionType.trim().toUpperCase(Locale.ROOT));
+    } catch (final IllegalArgumentException | NullPointerException e) {
+      return CompressionType.UNCOMPRESSED;
+    }
+  }
+
   public void setConsumerId(final String consumerId) {
     attributes.put(ConsumerConstant.CONSUMER_ID_KEY, consumerId);
   }
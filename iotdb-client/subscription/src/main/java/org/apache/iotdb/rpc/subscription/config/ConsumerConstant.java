@@ -66,6 +66,9 @@ public class ConsumerConstant {
   public static final String MAX_POLL_PARALLELISM_KEY = "max-poll-parallelism";
   public static final int MAX_POLL_PARALLELISM_DEFAULT_VALUE = 1;
 
+  public static final String COMPRESSION_TYPE_KEY = "compression-type";
+  public static final String COMPRESSION_TYPE_DEFAULT_VALUE = "UNCOMPRESSED";
+
   /////////////////////////////// pull consumer ///////////////////////////////
 
   public static final String AUTO_COMMIT_KEY = "auto-commit";
@@ -19,8 +19,12 @@
 
 package org.apache.iotdb.rpc.subscription.payload.poll;
 
+import org.apache.iotdb.rpc.subscription.exception.SubscriptionRuntimeNonCriticalException;
 import org.apache.iotdb.rpc.subscription.i18n.SubscriptionMessages;
 
+import org.apache.tsfile.compress.ICompressor;
+import org.apache.tsfile.compress.IUnCompressor;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.utils.PublicBAOS;
 import org.apache.tsfile.utils.ReadWriteIOUtils;
 import org.slf4j.Logger;
@@ -29,6 +33,7 @@ import org.slf4j.LoggerFactory;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Locale;
@@ -39,6 +44,13 @@ public class SubscriptionPollResponse {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(SubscriptionPollResponse.class);
 
+  /** Responses smaller than this are sent as they are even if the consumer asks for compression. */
+  private static final int COMPRESSION_MIN_SIZE_IN_BYTES = 1024;
+
+  /** Size of the response type, the compression type and the uncompressed size. */
+  private static final int COMPRESSION_HEADER_SIZE_IN_BYTES =
+      Short.BYTES + Byte.BYTES + Integer.BYTES;
+
   private final short responseType;
 
   private final SubscriptionPollPayload payload;
@@ -107,6 +119,81 @@ public class SubscriptionPollResponse {
     }
   }
 
+  /**
+   * Serialize the response through a stream reused by the caller, so that the growth of the
+   * stream is paid only once instead of for every response. The returned buffer is an exact-sized
+   * copy which does not share memory with the stream.
+   */
+  public static ByteBuffer serialize(
+      final SubscriptionPollResponse response, final PublicBAOS reusableOutputStream)
+      throws IOException {
+    reusableOutputStream.reset();
+    final DataOutputStream outputStream = new DataOutputStream(reusableOutputStream);
+    response.serialize(outputStream);
+    outputStream.flush();
+    return ByteBuffer.wrap(
+        Arrays.copyOf(reusableOutputStream.getBuf(), reusableOutputStream.size()));
+  }
+
+  /**
+   * Wrap a serialized response into a {@link SubscriptionPollResponseType#COMPRESSED} envelope.
+   *
+   * @return the original buffer if the response is too small or does not get smaller
+   */
+  public static ByteBuffer compress(
+      final ByteBuffer serializedResponse, final CompressionType compressionType)
+      throws IOException {
+    final int size = serializedResponse.remaining();
+    if (compressionType == CompressionType.UNCOMPRESSED
+        || size < COMPRESSION_MIN_SIZE_IN_BYTES
+        || !serializedResponse.hasArray()) {
+      return serializedResponse;
+    }
+
+    final byte[] compressed =
+        ICompressor.getCompressor(compressionType)
+            .compress(
+                serializedResponse.array(),
+                serializedResponse.arrayOffset() + serializedResponse.position(),
+                size);
+    if (COMPRESSION_HEADER_SIZE_IN_BYTES + compressed.length >= size) {
+      return serializedResponse;
+    }
+
+    final ByteBuffer envelope =
+        ByteBuffer.allocate(COMPRESSION_HEADER_SIZE_IN_BYTES + compressed.length);
+    envelope.putShort(SubscriptionPollResponseType.COMPRESSED.getType());
+    envelope.put(compressionType.serialize());
+    envelope.putInt(size);
+    envelope.put(compressed);
+    envelope.flip();
+    return envelope;
+  }
+
+  private static ByteBuffer decompress(final ByteBuffer buffer) {
+    final CompressionType compressionType =
+        CompressionType.deserialize(ReadWriteIOUtils.readByte(buffer));
+    final byte[] uncompressed = new byte[ReadWriteIOUtils.readInt(buffer)];
+    final byte[] compressed;
+    final int offset;
+    if (buffer.hasArray()) {
+      compressed = buffer.array();
+      offset = buffer.arrayOffset() + buffer.position();
+    } else {
+      compressed = new byte[buffer.remaining()];
+      buffer.duplicate().get(compressed);
+      offset = 0;
+    }
+    try {
+      IUnCompressor.getUnCompressor(compressionType)
+          .uncompress(compressed, offset, buffer.remaining(), uncompressed, 0);
+    } catch (final IOException e) {
+      throw new SubscriptionRuntimeNonCriticalException(e.getMessage(), e);
+    }
+    buffer.position(buffer.limit());
+    return ByteBuffer.wrap(uncompressed);
+  }
+
   private void serialize(final DataOutputStream stream) throws IOException {
     ReadWriteIOUtils.write(responseType, stream);
     payload.serialize(stream);
@@ -117,6 +204,10 @@ public class SubscriptionPollResponse {
 
   public static SubscriptionPollResponse deserialize(final ByteBuffer buffer) {
     final short responseType = ReadWriteIOUtils.readShort(buffer);
+    if (responseType == SubscriptionPollResponseType.COMPRESSED.getType()) {
+      return deserialize(decompress(buffer));
+    }
+
     SubscriptionPollPayload payload = null;
     if (SubscriptionPollResponseType.isValidatedResponseType(responseType)) {
       switch (SubscriptionPollResponseType.valueOf(responseType)) {
@@ -40,6 +40,12 @@ public enum SubscriptionPollResponseType {
    * computation even when a region is idle (no new data).
    */
   WATERMARK((short) 7),
+
+  /**
+   * Envelope of another serialized response compressed as the consumer requested, it never appears
+   * as the type of a deserialized {@link SubscriptionPollResponse}.
+   */
+  COMPRESSED((short) 8),
   ;
 
   private final short type;
@@ -21,6 +21,7 @@ package org.apache.iotdb.session.subscription.consumer.base;
 
 import org.apache.iotdb.common.rpc.thrift.TEndPoint;
 import org.apache.iotdb.isession.SessionConfig;
+import org.apache.iotdb.rpc.subscription.config.ConsumerConfig;
 import org.apache.iotdb.rpc.subscription.config.ConsumerConstant;
 import org.apache.iotdb.rpc.subscription.config.TopicConfig;
 import org.apache.iotdb.rpc.subscription.exception.SubscriptionConnectionException;
@@ -56,6 +57,7 @@ import org.apache.iotdb.session.subscription.util.PollTimer;
 import org.apache.iotdb.session.subscription.util.RandomStringGenerator;
 import org.apache.iotdb.session.util.SessionUtils;
 
+import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.write.record.Tablet;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -133,6 +135,7 @@ abstract class AbstractSubscriptionConsumer implements AutoCloseable {
   private final int thriftMaxFrameSize;
   private final int connectionTimeoutInMs;
   private final int maxPollParallelism;
+  private final CompressionType compressionType;
 
   /**
    * The latest watermark timestamp received from the server. Updated when WATERMARK events are
@@ -234,6 +237,7 @@ abstract class AbstractSubscriptionConsumer implements AutoCloseable {
     this.thriftMaxFrameSize = builder.thriftMaxFrameSize;
     this.connectionTimeoutInMs = builder.connectionTimeoutInMs;
     this.maxPollParallelism = builder.maxPollParallelism;
+    this.compressionType = builder.compressionType;
   }
 
   protected AbstractSubscriptionConsumer(
@@ -290,7 +294,13 @@ abstract class AbstractSubscriptionConsumer implements AutoCloseable {
                 (Integer)
                     properties.getOrDefault(
                         ConsumerConstant.MAX_POLL_PARALLELISM_KEY,
-                        ConsumerConstant.MAX_POLL_PARALLELISM_DEFAULT_VALUE)));
+                        ConsumerConstant.MAX_POLL_PARALLELISM_DEFAULT_VALUE))
+            .compressionType(
+                ConsumerConfig.parseCompressionType(
+                    (String)
+                        properties.getOrDefault(
+                            ConsumerConstant.COMPRESSION_TYPE_KEY,
+                            ConsumerConstant.COMPRESSION_TYPE_DEFAULT_VALUE))));
   }
 
   /////////////////////////////// open & close ///////////////////////////////
@@ -558,6 +568,7 @@ abstract class AbstractSubscriptionConsumer implements AutoCloseable {
             this.thriftMaxFrameSize,
             this.heartbeatIntervalMs,
             this.connectionTimeoutInMs);
+    provider.setCompressionType(this.compressionType);
     try {
       provider.handshake();
     } catch (final Exception e) {
@@ -2168,6 +2179,7 @@ abstract class AbstractSubscriptionConsumer implements AutoCloseable {
     result.put("thriftMaxFrameSize", String.valueOf(thriftMaxFrameSize));
     result.put("connectionTimeoutInMs", String.valueOf(connectionTimeoutInMs));
     result.put("maxPollParallelism", String.valueOf(maxPollParallelism));
+    result.put("compressionType", String.valueOf(compressionType));
     result.put("subscribedTopics", subscribedTopics.toString());
     return result;
   }
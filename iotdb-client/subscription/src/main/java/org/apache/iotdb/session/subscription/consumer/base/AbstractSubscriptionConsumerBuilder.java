@@ -25,6 +25,7 @@ import org.apache.iotdb.rpc.subscription.i18n.SubscriptionMessages;
 import org.apache.iotdb.session.subscription.util.IdentifierUtils;
 
 import org.apache.thrift.annotation.Nullable;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
 
 import java.util.List;
 import java.util.Objects;
@@ -54,6 +55,8 @@ public class AbstractSubscriptionConsumerBuilder {
   protected int thriftMaxFrameSize = SessionConfig.DEFAULT_MAX_FRAME_SIZE;
   protected int connectionTimeoutInMs = SessionConfig.DEFAULT_CONNECTION_TIMEOUT_MS;
   protected int maxPollParallelism = ConsumerConstant.MAX_POLL_PARALLELISM_DEFAULT_VALUE;
+  protected CompressionType compressionType =
+      CompressionType.valueOf(ConsumerConstant.COMPRESSION_TYPE_DEFAULT_VALUE);
 
   public AbstractSubscriptionConsumerBuilder host(final String host) {
     this.host = host;
@@ -178,4 +181,15 @@ public class AbstractSubscriptionConsumerBuilder {
     this.maxPollParallelism = Math.max(maxPollParallelism, 1);
     return this;
   }
+
+  /**
+   * The compression the server applies to the tablets polled by this consumer, trading server CPU
+   * for network bandwidth. Servers which do not support it send the tablets uncompressed.
+   */
+  public AbstractSubscriptionConsumerBuilder compressionType(
+      final CompressionType compressionType) {
+    this.compressionType =
+        Objects.nonNull(compressionType) ? compressionType : CompressionType.UNCOMPRESSED;
+    return this;
+  }
 }
@@ -60,6 +60,7 @@ import org.apache.iotdb.session.subscription.SubscriptionSessionConnection;
 import org.apache.iotdb.session.subscription.SubscriptionSessionWrapper;
 
 import org.apache.thrift.TException;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -101,6 +102,7 @@ public abstract class AbstractSubscriptionProvider {
   private final String encryptedPassword;
   private final long heartbeatIntervalMs;
   private final int connectionTimeoutInMs;
+  private CompressionType compressionType = CompressionType.UNCOMPRESSED;
 
   protected abstract AbstractSessionBuilder constructSubscriptionSessionBuilder(
       final String host,
@@ -145,6 +147,10 @@ public abstract class AbstractSubscriptionProvider {
     this.connectionTimeoutInMs = connectionTimeoutInMs;
   }
 
+  void setCompressionType(final CompressionType compressionType) {
+    this.compressionType = compressionType;
+  }
+
   SubscriptionSessionConnection getSessionConnection() throws IoTDBConnectionException {
     return session.getSessionConnection();
   }
@@ -206,6 +212,7 @@ public abstract class AbstractSubscriptionProvider {
         ConsumerConstant.HEARTBEAT_INTERVAL_MS_KEY, String.valueOf(heartbeatIntervalMs));
     consumerAttributes.put(
         ConsumerConstant.CONNECTION_TIMEOUT_MS_KEY, String.valueOf(connectionTimeoutInMs));
+    consumerAttributes.put(ConsumerConstant.COMPRESSION_TYPE_KEY, compressionType.name());
 
     final PipeSubscribeHandshakeResp resp =
         handshake(new ConsumerConfig(consumerAttributes)); // throw SubscriptionException
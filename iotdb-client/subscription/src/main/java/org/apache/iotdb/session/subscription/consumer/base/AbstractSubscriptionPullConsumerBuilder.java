@@ -21,6 +21,8 @@ package org.apache.iotdb.session.subscription.consumer.base;
 
 import org.apache.iotdb.rpc.subscription.config.ConsumerConstant;
 
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+
 import java.util.List;
 
 public class AbstractSubscriptionPullConsumerBuilder extends AbstractSubscriptionConsumerBuilder {
@@ -121,6 +123,13 @@ public class AbstractSubscriptionPullConsumerBuilder extends AbstractSubscriptio
     return this;
   }
 
+  @Override
+  public AbstractSubscriptionPullConsumerBuilder compressionType(
+      final CompressionType compressionType) {
+    super.compressionType(compressionType);
+    return this;
+  }
+
   public AbstractSubscriptionPullConsumerBuilder autoCommit(final boolean autoCommit) {
     this.autoCommit = autoCommit;
     return this;
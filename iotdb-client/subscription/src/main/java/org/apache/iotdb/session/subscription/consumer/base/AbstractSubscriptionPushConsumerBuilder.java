@@ -24,6 +24,8 @@ import org.apache.iotdb.session.subscription.consumer.AckStrategy;
 import org.apache.iotdb.session.subscription.consumer.ConsumeListener;
 import org.apache.iotdb.session.subscription.consumer.ConsumeResult;
 
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+
 import java.util.List;
 
 public class AbstractSubscriptionPushConsumerBuilder extends AbstractSubscriptionConsumerBuilder {
@@ -127,6 +129,13 @@ public class AbstractSubscriptionPushConsumerBuilder extends AbstractSubscriptio
     return this;
   }
 
+  @Override
+  public AbstractSubscriptionPushConsumerBuilder compressionType(
+      final CompressionType compressionType) {
+    super.compressionType(compressionType);
+    return this;
+  }
+
   public AbstractSubscriptionPushConsumerBuilder ackStrategy(final AckStrategy ackStrategy) {
     this.ackStrategy = ackStrategy;
     return this;
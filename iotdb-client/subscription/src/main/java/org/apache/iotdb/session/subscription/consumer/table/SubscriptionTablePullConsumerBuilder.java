@@ -22,6 +22,8 @@ package org.apache.iotdb.session.subscription.consumer.table;
 import org.apache.iotdb.session.subscription.consumer.ISubscriptionTablePullConsumer;
 import org.apache.iotdb.session.subscription.consumer.base.AbstractSubscriptionPullConsumerBuilder;
 
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+
 import java.util.List;
 
 public class SubscriptionTablePullConsumerBuilder extends AbstractSubscriptionPullConsumerBuilder {
@@ -136,6 +138,13 @@ public class SubscriptionTablePullConsumerBuilder extends AbstractSubscriptionPu
     return this;
   }
 
+  @Override
+  public SubscriptionTablePullConsumerBuilder compressionType(
+      final CompressionType compressionType) {
+    super.compressionType(compressionType);
+    return this;
+  }
+
   @Override
   public SubscriptionTablePullConsumerBuilder autoCommit(final boolean autoCommit) {
     super.autoCommit(autoCommit);
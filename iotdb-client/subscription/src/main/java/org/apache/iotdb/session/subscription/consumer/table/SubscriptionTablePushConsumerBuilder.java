@@ -24,6 +24,8 @@ import org.apache.iotdb.session.subscription.consumer.ConsumeListener;
 import org.apache.iotdb.session.subscription.consumer.ISubscriptionTablePushConsumer;
 import org.apache.iotdb.session.subscription.consumer.base.AbstractSubscriptionPushConsumerBuilder;
 
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+
 import java.util.List;
 
 public class SubscriptionTablePushConsumerBuilder extends AbstractSubscriptionPushConsumerBuilder {
@@ -138,6 +140,13 @@ public class SubscriptionTablePushConsumerBuilder extends AbstractSubscriptionPu
     return this;
   }
 
+  @Override
+  public SubscriptionTablePushConsumerBuilder compressionType(
+      final CompressionType compressionType) {
+    super.compressionType(compressionType);
+    return this;
+  }
+
   @Override
   public SubscriptionTablePushConsumerBuilder ackStrategy(final AckStrategy ackStrategy) {
     super.ackStrategy(ackStrategy);
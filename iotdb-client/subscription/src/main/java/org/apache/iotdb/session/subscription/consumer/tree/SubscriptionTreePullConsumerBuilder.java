@@ -22,6 +22,8 @@ package org.apache.iotdb.session.subscription.consumer.tree;
 import org.apache.iotdb.session.subscription.consumer.ISubscriptionTreePullConsumer;
 import org.apache.iotdb.session.subscription.consumer.base.AbstractSubscriptionPullConsumerBuilder;
 
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+
 import java.util.List;
 
 public class SubscriptionTreePullConsumerBuilder extends AbstractSubscriptionPullConsumerBuilder {
@@ -136,6 +138,13 @@ public class SubscriptionTreePullConsumerBuilder extends AbstractSubscriptionPul
     return this;
   }
 
+  @Override
+  public SubscriptionTreePullConsumerBuilder compressionType(
+      final CompressionType compressionType) {
+    super.compressionType(compressionType);
+    return this;
+  }
+
   @Override
   public SubscriptionTreePullConsumerBuilder autoCommit(final boolean autoCommit) {
     super.autoCommit(autoCommit);
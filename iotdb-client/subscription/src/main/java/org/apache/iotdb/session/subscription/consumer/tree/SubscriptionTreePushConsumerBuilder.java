@@ -24,6 +24,8 @@ import org.apache.iotdb.session.subscription.consumer.ConsumeListener;
 import org.apache.iotdb.session.subscription.consumer.ISubscriptionTreePushConsumer;
 import org.apache.iotdb.session.subscription.consumer.base.AbstractSubscriptionPushConsumerBuilder;
 
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+
 import java.util.List;
 
 public class SubscriptionTreePushConsumerBuilder extends AbstractSubscriptionPushConsumerBuilder {
@@ -138,6 +140,13 @@ public class SubscriptionTreePushConsumerBuilder extends AbstractSubscriptionPus
     return this;
   }
 
+  @Override
+  public SubscriptionTreePushConsumerBuilder compressionType(
+      final CompressionType compressionType) {
+    super.compressionType(compressionType);
+    return this;
+  }
+
   @Override
   public SubscriptionTreePushConsumerBuilder ackStrategy(final AckStrategy ackStrategy) {
     super.ackStrategy(ackStrategy);
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.rpc.subscription.config;
+
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+public class ConsumerConfigTest {
+
+  @Test
+  public void testCompressionType() {
+    Assert.assertEquals(CompressionType.UNCOMPRESSED, new ConsumerConfig().getCompressionType());
+    Assert.assertEquals(
+        CompressionType.LZ4,
+        new ConsumerConfig(Collections.singletonMap(ConsumerConstant.COMPRESSION_TYPE_KEY, " lz4"))
+            .getCompressionType());
+    Assert.assertEquals(
+        CompressionType.UNCOMPRESSED,
+        new ConsumerConfig(
+                Collections.singletonMap(ConsumerConstant.COMPRESSION_TYPE_KEY, "unknown"))
+            .getCompressionType());
+  }
+
+  @Test
+  public void testParseCompressionType() {
+    Assert.assertEquals(CompressionType.ZSTD, ConsumerConfig.parseCompressionType("Zstd"));
+    Assert.assertEquals(CompressionType.UNCOMPRESSED, ConsumerConfig.parseCompressionType("zip"));
+    Assert.assertEquals(CompressionType.UNCOMPRESSED, ConsumerConfig.parseCompressionType(null));
+  }
+}
@@ -19,8 +19,13 @@
 
 package org.apache.iotdb.rpc.subscription.payload.poll;
 
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.utils.PublicBAOS;
 import org.apache.tsfile.utils.ReadWriteIOUtils;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
 import org.junit.Test;
 
 import java.io.DataOutputStream;
@@ -28,9 +33,12 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class SubscriptionPollResponseTest {
@@ -122,6 +130,73 @@ public class SubscriptionPollResponseTest {
     assertFalse(response.getTimeSelectedByTable().get("root.sg").get("table1"));
   }
 
+  @Test
+  public void testCompressedRoundTrip() throws IOException {
+    final SubscriptionPollResponse response = createTabletsResponse(1000);
+    final ByteBuffer serialized = SubscriptionPollResponse.serialize(response);
+    final int serializedSize = serialized.remaining();
+
+    final ByteBuffer compressed =
+        SubscriptionPollResponse.compress(serialized, CompressionType.LZ4);
+    assertTrue(compressed.remaining() < serializedSize);
+    assertEquals(
+        SubscriptionPollResponseType.COMPRESSED.getType(), compressed.duplicate().getShort());
+
+    final SubscriptionPollResponse parsed = SubscriptionPollResponse.deserialize(compressed);
+    assertEquals(SubscriptionPollResponseType.TABLETS.getType(), parsed.getResponseType());
+    assertEquals(response.getPayload(), parsed.getPayload());
+    assertEquals(response.getCommitContext(), parsed.getCommitContext());
+  }
+
+  @Test
+  public void testSmallResponseIsNotCompressed() throws IOException {
+    final ByteBuffer serialized =
+        SubscriptionPollResponse.serialize(
+            new SubscriptionPollResponse(
+                SubscriptionPollResponseType.TABLETS.getType(),
+                new TabletsPayload(Collections.emptyMap(), 0),
+                new SubscriptionCommitContext(1, 2, "topic", "group", 3L)));
+
+    assertSame(serialized, SubscriptionPollResponse.compress(serialized, CompressionType.LZ4));
+  }
+
+  @Test
+  public void testSerializeWithReusableOutputStream() throws IOException {
+    final PublicBAOS reusableOutputStream = new PublicBAOS();
+    final SubscriptionPollResponse large = createTabletsResponse(1000);
+    final SubscriptionPollResponse small = createTabletsResponse(1);
+
+    final ByteBuffer largeBuffer = SubscriptionPollResponse.serialize(large, reusableOutputStream);
+    final ByteBuffer smallBuffer = SubscriptionPollResponse.serialize(small, reusableOutputStream);
+
+    // the buffers are exact-sized and not overwritten by the reuse of the stream
+    assertEquals(largeBuffer.remaining(), largeBuffer.capacity());
+    assertEquals(smallBuffer.remaining(), smallBuffer.capacity());
+    assertEquals(
+        large.getPayload(), SubscriptionPollResponse.deserialize(largeBuffer).getPayload());
+    assertEquals(
+        small.getPayload(), SubscriptionPollResponse.deserialize(smallBuffer).getPayload());
+  }
+
+  private static SubscriptionPollResponse createTabletsResponse(final int rowCount) {
+    final List<IMeasurementSchema> schemas =
+        Collections.singletonList(new MeasurementSchema("s1", TSDataType.INT64));
+    final Tablet tablet = new Tablet("root.sg.d1", schemas, rowCount);
+    final long[] timestamps = new long[rowCount];
+    final long[] values = (long[]) tablet.getValues()[0];
+    for (int i = 0; i < rowCount; i++) {
+      timestamps[i] = i;
+      values[i] = i % 10;
+    }
+    tablet.setTimestamps(timestamps);
+    tablet.setRowSize(rowCount);
+    return new SubscriptionPollResponse(
+        SubscriptionPollResponseType.TABLETS.getType(),
+        new TabletsPayload(
+            Collections.singletonMap("root.sg", Collections.singletonList(tablet)), 1),
+        new SubscriptionCommitContext(1, 2, "topic", "group", 3L));
+  }
+
   private static ByteBuffer serializeWithoutTimeSelected(
       final short responseType,
       final SubscriptionPollPayload payload,
@@ -388,6 +388,7 @@ public class AccumulatorFactory {
         new FunctionArguments(
             UDFDataTypeTransformer.transformToUDFDataTypeList(inputDataTypes), inputAttributes);
     return new GroupedUserDefinedAggregateAccumulator(
+        aggregateFunction.analyze(functionArguments),
         aggregateFunction,
         functionArguments,
         inputDataTypes.stream().map(TypeFactory::getType).collect(Collectors.toList()),
@@ -111,6 +111,20 @@ public class UserDefinedAggregateFunctionAccumulator implements TableAccumulator
   @Override
   public void addInput(Column[] arguments, AggregationMask mask) {
     initIfNeeded();
+    if (analysis.isBatchInput()) {
+      if (mask.isSelectAll()) {
+        aggregateFunction.addInput(
+            state, arguments, null, arguments[0].getPositionCount(), ioTDBLocal);
+      } else if (!mask.isSelectNone()) {
+        aggregateFunction.addInput(
+            state,
+            arguments,
+            mask.getSelectedPositions(),
+            mask.getSelectedPositionCount(),
+            ioTDBLocal);
+      }
+      return;
+    }
     RecordIterator iterator =
         mask.isSelectAll()
             ? new RecordIterator(
@@ -27,6 +27,7 @@ import org.apache.iotdb.calc.i18n.CalcMessages;
 import org.apache.iotdb.commons.exception.IoTDBRuntimeException;
 import org.apache.iotdb.udf.api.IoTDBLocal;
 import org.apache.iotdb.udf.api.State;
+import org.apache.iotdb.udf.api.customizer.analysis.AggregateFunctionAnalysis;
 import org.apache.iotdb.udf.api.customizer.parameter.FunctionArguments;
 import org.apache.iotdb.udf.api.exception.UDFException;
 import org.apache.iotdb.udf.api.relational.AggregateFunction;
@@ -51,6 +52,7 @@ public class GroupedUserDefinedAggregateAccumulator implements GroupedAccumulato
 
   private static final long INSTANCE_SIZE =
       RamUsageEstimator.shallowSizeOfInstance(GroupedUserDefinedAggregateAccumulator.class);
+  private final AggregateFunctionAnalysis analysis;
   private final AggregateFunction aggregateFunction;
   private final FunctionArguments functionArguments;
   private final ObjectBigArray<State> stateArray;
@@ -59,11 +61,13 @@ public class GroupedUserDefinedAggregateAccumulator implements GroupedAccumulato
   private boolean init = false;
 
   public GroupedUserDefinedAggregateAccumulator(
+      AggregateFunctionAnalysis analysis,
       AggregateFunction aggregateFunction,
       FunctionArguments functionArguments,
       List<Type> inputDataTypes,
       IoTDBLocal ioTDBLocal) {
     checkArgument(ioTDBLocal != null, "IoTDBLocal must not be null for UDAF");
+    this.analysis = analysis;
     this.aggregateFunction = aggregateFunction;
     this.functionArguments = functionArguments;
     this.stateArray = new ObjectBigArray<>();
@@ -105,6 +109,10 @@ public class GroupedUserDefinedAggregateAccumulator implements GroupedAccumulato
   @Override
   public void addInput(int[] groupIds, Column[] arguments, AggregationMask mask) {
     initIfNeeded();
+    if (analysis.isBatchInput()) {
+      addInputBatch(groupIds, arguments, mask);
+      return;
+    }
     RecordIterator iterator =
         mask.isSelectAll()
             ? new RecordIterator(
@@ -130,6 +138,29 @@ public class GroupedUserDefinedAggregateAccumulator implements GroupedAccumulato
     }
   }
 
+  private void addInputBatch(int[] groupIds, Column[] arguments, AggregationMask mask) {
+    if (mask.isSelectNone()) {
+      return;
+    }
+    int positionCount = arguments[0].getPositionCount();
+    State[] states = new State[positionCount];
+    if (mask.isSelectAll()) {
+      for (int i = 0; i < positionCount; i++) {
+        states[i] = getOrCreateState(groupIds[i]);
+      }
+      aggregateFunction.addInput(states, arguments, null, positionCount, ioTDBLocal);
+    } else {
+      int[] selectedPositions = mask.getSelectedPositions();
+      int selectedPositionCount = mask.getSelectedPositionCount();
+      for (int i = 0; i < selectedPositionCount; i++) {
+        int position = selectedPositions[i];
+        states[position] = getOrCreateState(groupIds[position]);
+      }
+      aggregateFunction.addInput(
+          states, arguments, selectedPositions, selectedPositionCount, ioTDBLocal);
+    }
+  }
+
   @Override
   public void addIntermediate(int[] groupIds, Column argument) {
     initIfNeeded();
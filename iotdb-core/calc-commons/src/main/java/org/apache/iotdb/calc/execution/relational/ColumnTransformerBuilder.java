@@ -1493,7 +1493,12 @@ public class ColumnTransformerBuilder
         Type returnType =
             UDFDataTypeTransformer.transformUDFDataTypeToReadType(analysis.getOutputDataType());
         return new UserDefineScalarFunctionTransformer(
-            returnType, scalarFunction, childrenColumnTransformer, parameters, context);
+            returnType,
+            scalarFunction,
+            childrenColumnTransformer,
+            parameters,
+            analysis.isBatchEvaluable(),
+            context);
       }
     }
     throw new IllegalArgumentException(
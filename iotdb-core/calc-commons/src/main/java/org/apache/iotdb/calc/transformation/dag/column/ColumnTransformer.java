@@ -55,6 +55,10 @@ public abstract class ColumnTransformer {
     referenceCount++;
   }
 
+  public int getReferenceCount() {
+    return referenceCount;
+  }
+
   public void initializeColumnCache(Column column) {
     columnCache.cacheColumn(column, referenceCount);
   }
@@ -20,6 +20,7 @@
 package org.apache.iotdb.calc.transformation.dag.column.binary;
 
 import org.apache.iotdb.calc.transformation.dag.column.ColumnTransformer;
+import org.apache.iotdb.calc.transformation.dag.column.fused.FusedColumnKernel;
 
 import org.apache.tsfile.block.column.Column;
 import org.apache.tsfile.block.column.ColumnBuilder;
@@ -31,6 +32,11 @@ public abstract class BinaryColumnTransformer extends ColumnTransformer {
 
   protected final ColumnTransformer rightTransformer;
 
+  private boolean isKernelCompiled = false;
+
+  // null if the tree rooted at this transformer can not be fused
+  private FusedColumnKernel fusedKernel;
+
   protected BinaryColumnTransformer(
       Type returnType, ColumnTransformer leftTransformer, ColumnTransformer rightTransformer) {
     super(returnType);
@@ -41,6 +47,11 @@ public abstract class BinaryColumnTransformer extends ColumnTransformer {
 
   @Override
   public void evaluate() {
+    FusedColumnKernel kernel = getFusedKernel();
+    if (kernel != null) {
+      initializeColumnCache(kernel.evaluate(null));
+      return;
+    }
     leftTransformer.tryEvaluate();
     rightTransformer.tryEvaluate();
     // attention: get positionCount before calling getColumn
@@ -55,6 +66,13 @@ public abstract class BinaryColumnTransformer extends ColumnTransformer {
 
   @Override
   public void evaluateWithSelection(boolean[] selection) {
+    FusedColumnKernel kernel = getFusedKernel();
+    if (kernel != null) {
+      initializeColumnCache(kernel.evaluate(selection));
+      this.leftTransformer.clearCache();
+      this.rightTransformer.clearCache();
+      return;
+    }
     leftTransformer.evaluateWithSelection(selection);
     // attention: get positionCount before calling getColumn
     int positionCount = leftTransformer.getColumnCachePositionCount();
@@ -71,6 +89,18 @@ public abstract class BinaryColumnTransformer extends ColumnTransformer {
     this.rightTransformer.clearCache();
   }
 
+  /**
+   * The kernel is compiled at the first evaluation instead of construction, when the reference
+   * counts of the whole transformer tree are settled.
+   */
+  private FusedColumnKernel getFusedKernel() {
+    if (!isKernelCompiled) {
+      fusedKernel = FusedColumnKernel.compile(this);
+      isKernelCompiled = true;
+    }
+    return fusedKernel;
+  }
+
   protected abstract void doTransform(
       Column leftColumn, Column rightColumn, ColumnBuilder builder, int positionCount);
 
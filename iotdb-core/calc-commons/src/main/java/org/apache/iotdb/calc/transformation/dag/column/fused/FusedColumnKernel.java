@@ -0,0 +1,485 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.calc.transformation.dag.column.fused;
+
+import org.apache.iotdb.calc.transformation.dag.column.ColumnTransformer;
+import org.apache.iotdb.calc.transformation.dag.column.binary.ArithmeticAdditionColumnTransformer;
+import org.apache.iotdb.calc.transformation.dag.column.binary.ArithmeticDivisionColumnTransformer;
+import org.apache.iotdb.calc.transformation.dag.column.binary.ArithmeticModuloColumnTransformer;
+import org.apache.iotdb.calc.transformation.dag.column.binary.ArithmeticMultiplicationColumnTransformer;
+import org.apache.iotdb.calc.transformation.dag.column.binary.ArithmeticSubtractionColumnTransformer;
+import org.apache.iotdb.calc.transformation.dag.column.binary.BinaryColumnTransformer;
+import org.apache.iotdb.calc.transformation.dag.column.binary.CompareEqualToColumnTransformer;
+import org.apache.iotdb.calc.transformation.dag.column.binary.CompareGreaterEqualColumnTransformer;
+import org.apache.iotdb.calc.transformation.dag.column.binary.CompareGreaterThanColumnTransformer;
+import org.apache.iotdb.calc.transformation.dag.column.binary.CompareLessEqualColumnTransformer;
+import org.apache.iotdb.calc.transformation.dag.column.binary.CompareLessThanColumnTransformer;
+import org.apache.iotdb.calc.transformation.dag.column.binary.CompareNonEqualColumnTransformer;
+import org.apache.iotdb.calc.transformation.dag.column.unary.ArithmeticNegationColumnTransformer;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.read.common.block.column.BooleanColumn;
+import org.apache.tsfile.read.common.block.column.DoubleColumn;
+import org.apache.tsfile.read.common.block.column.FloatColumn;
+import org.apache.tsfile.read.common.block.column.IntColumn;
+import org.apache.tsfile.read.common.block.column.LongColumn;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.read.common.type.Type;
+import org.apache.tsfile.read.common.type.TypeEnum;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.apache.iotdb.calc.plan.relational.metadata.CommonMetadataUtils.isNumericType;
+
+/**
+ * A numeric expression tree made of arithmetic operators, optionally topped by a comparison,
+ * compiled into a flat program. Instead of building one intermediate column per operator through
+ * per-row virtual calls, the program evaluates the whole tree operator by operator in tight loops
+ * over primitive arrays, and computes the null flags of the result once from the inputs, since all
+ * the fused operators return null if and only if one of their operands is null.
+ *
+ * <p>The subtrees which can not be fused, e.g. functions or shared common subexpressions, are
+ * evaluated as inputs of the kernel by the interpreter as usual.
+ */
+public class FusedColumnKernel {
+
+  private static final byte ADD = 0;
+  private static final byte SUBTRACT = 1;
+  private static final byte MULTIPLY = 2;
+  private static final byte DIVIDE = 3;
+  private static final byte MODULO = 4;
+  private static final byte NEGATE = 5;
+
+  private static final byte EQUAL = 0;
+  private static final byte NON_EQUAL = 1;
+  private static final byte GREATER_THAN = 2;
+  private static final byte GREATER_EQUAL = 3;
+  private static final byte LESS_THAN = 4;
+  private static final byte LESS_EQUAL = 5;
+
+  /** The kernel is worthwhile only if it saves at least one intermediate column. */
+  private static final int MIN_FUSED_OPERATOR_NUM = 2;
+
+  private final ColumnTransformer[] inputs;
+
+  // the instructions, the register of the i-th instruction is inputs.length + i
+  private final byte[] opcodes;
+  private final int[] leftRegisters;
+  private final int[] rightRegisters;
+  private final TypeEnum[] resultTypes;
+
+  // the comparison of the root, -1 if the root is an arithmetic operator
+  private final byte compareOpcode;
+  private final int compareLeftRegister;
+  private final int compareRightRegister;
+
+  private final TypeEnum returnType;
+
+  private double[][] registers = new double[0][];
+
+  private FusedColumnKernel(Builder builder, byte compareOpcode, int left, int right) {
+    this.inputs = builder.inputs.toArray(new ColumnTransformer[0]);
+    int instructionNum = builder.opcodes.size();
+    this.opcodes = new byte[instructionNum];
+    this.leftRegisters = new int[instructionNum];
+    this.rightRegisters = new int[instructionNum];
+    this.resultTypes = new TypeEnum[instructionNum];
+    for (int i = 0; i < instructionNum; i++) {
+      opcodes[i] = builder.opcodes.get(i);
+      leftRegisters[i] = getRegister(builder.leftRegisters.get(i));
+      rightRegisters[i] = opcodes[i] == NEGATE ? -1 : getRegister(builder.rightRegisters.get(i));
+      resultTypes[i] = builder.resultTypes.get(i);
+    }
+    this.compareOpcode = compareOpcode;
+    this.compareLeftRegister = compareOpcode < 0 ? -1 : getRegister(left);
+    this.compareRightRegister = compareOpcode < 0 ? -1 : getRegister(right);
+    this.returnType = compareOpcode < 0 ? resultTypes[instructionNum - 1] : TypeEnum.BOOLEAN;
+  }
+
+  /** Convert the operand id assigned by {@link Builder} to the index of the register. */
+  private int getRegister(int operandId) {
+    return operandId >= 0 ? operandId : inputs.length - 1 - operandId;
+  }
+
+  /**
+   * Compile the tree rooted at the given transformer. It should be called after the whole
+   * transformer tree is built, because whether a subtree is shared is decided by its reference
+   * count.
+   *
+   * @return null if the tree can not be fused
+   */
+  public static FusedColumnKernel compile(ColumnTransformer root) {
+    if (!(root instanceof BinaryColumnTransformer)) {
+      return null;
+    }
+    BinaryColumnTransformer binaryRoot = (BinaryColumnTransformer) root;
+    Builder builder = new Builder();
+    byte compareOpcode = getCompareOpcode(root);
+    if (compareOpcode >= 0) {
+      int left = builder.visit(binaryRoot.getLeftTransformer(), false);
+      int right = builder.visit(binaryRoot.getRightTransformer(), false);
+      return builder.isFusible && builder.opcodes.size() + 1 >= MIN_FUSED_OPERATOR_NUM
+          ? new FusedColumnKernel(builder, compareOpcode, left, right)
+          : null;
+    }
+    builder.visit(root, true);
+    return builder.isFusible && builder.opcodes.size() >= MIN_FUSED_OPERATOR_NUM
+        ? new FusedColumnKernel(builder, (byte) -1, -1, -1)
+        : null;
+  }
+
+  /**
+   * Evaluate the inputs and the fused tree.
+   *
+   * @param selection null if all the positions are selected
+   */
+  public Column evaluate(boolean[] selection) {
+    Column[] inputColumns = new Column[inputs.length];
+    for (int i = 0; i < inputs.length; i++) {
+      if (selection == null) {
+        inputs[i].tryEvaluate();
+      } else {
+        inputs[i].evaluateWithSelection(selection);
+      }
+      inputColumns[i] = inputs[i].getColumn();
+    }
+    int positionCount = inputColumns[0].getPositionCount();
+    ensureRegisters(positionCount);
+
+    boolean[] isNull = new boolean[positionCount];
+    boolean mayHaveNull = false;
+    if (selection != null) {
+      for (int i = 0; i < positionCount; i++) {
+        isNull[i] = !selection[i];
+      }
+      mayHaveNull = true;
+    }
+    for (int i = 0; i < inputs.length; i++) {
+      mayHaveNull |=
+          loadInput(inputs[i].getType(), inputColumns[i], registers[i], isNull, positionCount);
+    }
+    for (int i = 0; i < opcodes.length; i++) {
+      execute(i, positionCount);
+    }
+
+    Optional<boolean[]> nullFlags = mayHaveNull ? Optional.of(isNull) : Optional.empty();
+    if (compareOpcode >= 0) {
+      return new BooleanColumn(
+          positionCount,
+          nullFlags,
+          compare(
+              registers[compareLeftRegister],
+              registers[compareRightRegister],
+              isNull,
+              positionCount));
+    }
+    return buildResultColumn(registers[registers.length - 1], nullFlags, positionCount);
+  }
+
+  private void ensureRegisters(int positionCount) {
+    int registerNum = inputs.length + opcodes.length;
+    if (registers.length == registerNum && registers[0].length >= positionCount) {
+      return;
+    }
+    registers = new double[registerNum][positionCount];
+  }
+
+  /**
+   * Load the values of an input column into the register and mark its null positions.
+   *
+   * @return whether the column may have null values
+   */
+  private static boolean loadInput(
+      Type type, Column column, double[] register, boolean[] isNull, int positionCount) {
+    if (column instanceof RunLengthEncodedColumn) {
+      Column value = ((RunLengthEncodedColumn) column).getValue();
+      if (value.isNull(0)) {
+        Arrays.fill(isNull, 0, positionCount, true);
+        return true;
+      }
+      Arrays.fill(register, 0, positionCount, type.getDouble(value, 0));
+      return false;
+    }
+
+    switch (type.getTypeEnum()) {
+      case INT32:
+        for (int i = 0; i < positionCount; i++) {
+          register[i] = column.getInt(i);
+        }
+        break;
+      case INT64:
+        for (int i = 0; i < positionCount; i++) {
+          register[i] = column.getLong(i);
+        }
+        break;
+      case FLOAT:
+        for (int i = 0; i < positionCount; i++) {
+          register[i] = column.getFloat(i);
+        }
+        break;
+      case DOUBLE:
+        for (int i = 0; i < positionCount; i++) {
+          register[i] = column.getDouble(i);
+        }
+        break;
+      default:
+        for (int i = 0; i < positionCount; i++) {
+          if (!column.isNull(i)) {
+            register[i] = type.getDouble(column, i);
+          }
+        }
+    }
+
+    if (!column.mayHaveNull()) {
+      return false;
+    }
+    for (int i = 0; i < positionCount; i++) {
+      isNull[i] |= column.isNull(i);
+    }
+    return true;
+  }
+
+  private void execute(int instruction, int positionCount) {
+    double[] left = registers[leftRegisters[instruction]];
+    double[] right = opcodes[instruction] == NEGATE ? null : registers[rightRegisters[instruction]];
+    double[] result = registers[inputs.length + instruction];
+    switch (opcodes[instruction]) {
+      case ADD:
+        for (int i = 0; i < positionCount; i++) {
+          result[i] = left[i] + right[i];
+        }
+        break;
+      case SUBTRACT:
+        for (int i = 0; i < positionCount; i++) {
+          result[i] = left[i] - right[i];
+        }
+        break;
+      case MULTIPLY:
+        for (int i = 0; i < positionCount; i++) {
+          result[i] = left[i] * right[i];
+        }
+        break;
+      case DIVIDE:
+        for (int i = 0; i < positionCount; i++) {
+          result[i] = left[i] / right[i];
+        }
+        break;
+      case MODULO:
+        for (int i = 0; i < positionCount; i++) {
+          result[i] = left[i] % right[i];
+        }
+        break;
+      case NEGATE:
+        for (int i = 0; i < positionCount; i++) {
+          result[i] = -left[i];
+        }
+        break;
+      default:
+        throw new IllegalStateException();
+    }
+    narrow(result, resultTypes[instruction], positionCount);
+  }
+
+  /** Keep the same precision as writing the intermediate result into a column of its type. */
+  private static void narrow(double[] values, TypeEnum type, int positionCount) {
+    switch (type) {
+      case INT32:
+        for (int i = 0; i < positionCount; i++) {
+          values[i] = (int) values[i];
+        }
+        break;
+      case INT64:
+        for (int i = 0; i < positionCount; i++) {
+          values[i] = (long) values[i];
+        }
+        break;
+      case FLOAT:
+        for (int i = 0; i < positionCount; i++) {
+          values[i] = (float) values[i];
+        }
+        break;
+      default:
+        // DOUBLE
+    }
+  }
+
+  private boolean[] compare(double[] left, double[] right, boolean[] isNull, int positionCount) {
+    boolean[] result = new boolean[positionCount];
+    for (int i = 0; i < positionCount; i++) {
+      if (isNull[i] || Double.isNaN(left[i]) || Double.isNaN(right[i])) {
+        continue;
+      }
+      int flag = Double.compare(left[i], right[i]);
+      switch (compareOpcode) {
+        case EQUAL:
+          result[i] = flag == 0;
+          break;
+        case NON_EQUAL:
+          result[i] = flag != 0;
+          break;
+        case GREATER_THAN:
+          result[i] = flag > 0;
+          break;
+        case GREATER_EQUAL:
+          result[i] = flag >= 0;
+          break;
+        case LESS_THAN:
+          result[i] = flag < 0;
+          break;
+        default:
+          result[i] = flag <= 0;
+      }
+    }
+    return result;
+  }
+
+  private Column buildResultColumn(
+      double[] values, Optional<boolean[]> nullFlags, int positionCount) {
+    switch (returnType) {
+      case INT32:
+        int[] intValues = new int[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+          intValues[i] = (int) values[i];
+        }
+        return new IntColumn(positionCount, nullFlags, intValues);
+      case INT64:
+        long[] longValues = new long[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+          longValues[i] = (long) values[i];
+        }
+        return new LongColumn(positionCount, nullFlags, longValues);
+      case FLOAT:
+        float[] floatValues = new float[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+          floatValues[i] = (float) values[i];
+        }
+        return new FloatColumn(positionCount, nullFlags, floatValues);
+      default:
+        return new DoubleColumn(positionCount, nullFlags, Arrays.copyOf(values, positionCount));
+    }
+  }
+
+  private static byte getCompareOpcode(ColumnTransformer transformer) {
+    Class<?> clazz = transformer.getClass();
+    if (clazz == CompareEqualToColumnTransformer.class) {
+      return EQUAL;
+    } else if (clazz == CompareNonEqualColumnTransformer.class) {
+      return NON_EQUAL;
+    } else if (clazz == CompareGreaterThanColumnTransformer.class) {
+      return GREATER_THAN;
+    } else if (clazz == CompareGreaterEqualColumnTransformer.class) {
+      return GREATER_EQUAL;
+    } else if (clazz == CompareLessThanColumnTransformer.class) {
+      return LESS_THAN;
+    } else if (clazz == CompareLessEqualColumnTransformer.class) {
+      return LESS_EQUAL;
+    }
+    return -1;
+  }
+
+  private static byte getArithmeticOpcode(ColumnTransformer transformer) {
+    // subclasses with their own semantics, e.g. the long division, are not fused
+    Class<?> clazz = transformer.getClass();
+    if (clazz == ArithmeticAdditionColumnTransformer.class) {
+      return ADD;
+    } else if (clazz == ArithmeticSubtractionColumnTransformer.class) {
+      return SUBTRACT;
+    } else if (clazz == ArithmeticMultiplicationColumnTransformer.class) {
+      return MULTIPLY;
+    } else if (clazz == ArithmeticDivisionColumnTransformer.class) {
+      return DIVIDE;
+    } else if (clazz == ArithmeticModuloColumnTransformer.class) {
+      return MODULO;
+    } else if (clazz == ArithmeticNegationColumnTransformer.class) {
+      return NEGATE;
+    }
+    return -1;
+  }
+
+  private static boolean isFusibleResultType(Type type) {
+    if (type == null) {
+      return false;
+    }
+    switch (type.getTypeEnum()) {
+      case INT32:
+      case INT64:
+      case FLOAT:
+      case DOUBLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static class Builder {
+
+    private final List<ColumnTransformer> inputs = new ArrayList<>();
+    private final List<Byte> opcodes = new ArrayList<>();
+    private final List<Integer> leftRegisters = new ArrayList<>();
+    private final List<Integer> rightRegisters = new ArrayList<>();
+    private final List<TypeEnum> resultTypes = new ArrayList<>();
+    private boolean isFusible = true;
+
+    /**
+     * Emit the instructions of the subtree in post order.
+     *
+     * @return the operand id of the result of the subtree, the index of the input if it is not
+     *     negative, otherwise -1 minus the index of the instruction
+     */
+    private int visit(ColumnTransformer transformer, boolean isRoot) {
+      byte opcode = getArithmeticOpcode(transformer);
+      // a subtree referenced by others should be evaluated and cached by itself
+      if (opcode < 0
+          || !isFusibleResultType(transformer.getType())
+          || (!isRoot && transformer.getReferenceCount() != 1)) {
+        return addInput(transformer);
+      }
+
+      int left;
+      int right = -1;
+      if (opcode == NEGATE) {
+        left =
+            visit(
+                ((ArithmeticNegationColumnTransformer) transformer).getChildColumnTransformer(),
+                false);
+      } else {
+        left = visit(((BinaryColumnTransformer) transformer).getLeftTransformer(), false);
+        right = visit(((BinaryColumnTransformer) transformer).getRightTransformer(), false);
+      }
+      opcodes.add(opcode);
+      leftRegisters.add(left);
+      rightRegisters.add(right);
+      resultTypes.add(transformer.getType().getTypeEnum());
+      return -1 - (opcodes.size() - 1);
+    }
+
+    private int addInput(ColumnTransformer transformer) {
+      Type type = transformer.getType();
+      if (type == null || !isNumericType(type)) {
+        isFusible = false;
+      }
+      inputs.add(transformer);
+      return inputs.size() - 1;
+    }
+  }
+}
@@ -47,6 +47,7 @@ public class UserDefineScalarFunctionTransformer extends MultiColumnTransformer
   private final FunctionArguments parameters;
   private final List<Type> inputTypes;
   private final IoTDBLocal ioTDBLocal;
+  private final boolean batchEvaluable;
   private boolean init = false;
 
   public UserDefineScalarFunctionTransformer(
@@ -54,10 +55,12 @@ public class UserDefineScalarFunctionTransformer extends MultiColumnTransformer
       ScalarFunction scalarFunction,
       List<ColumnTransformer> childrenTransformers,
       FunctionArguments parameters,
+      boolean batchEvaluable,
       ColumnTransformerBuilder.Context context) {
     super(returnType, childrenTransformers);
     this.scalarFunction = scalarFunction;
     this.parameters = parameters;
+    this.batchEvaluable = batchEvaluable;
     this.ioTDBLocal =
         IoTDBLocalFactory.createIoTDBLocal(
             context.getIoTDBLocalFactory(),
@@ -85,6 +88,10 @@ public class UserDefineScalarFunctionTransformer extends MultiColumnTransformer
   protected void doTransform(
       List<Column> childrenColumns, ColumnBuilder builder, int positionCount) {
     initIfNeeded();
+    if (batchEvaluable) {
+      evaluateBatch(childrenColumns, builder, null);
+      return;
+    }
     RecordIterator iterator = new RecordIterator(childrenColumns, inputTypes, positionCount);
     while (iterator.hasNext()) {
       try {
@@ -107,12 +114,16 @@ public class UserDefineScalarFunctionTransformer extends MultiColumnTransformer
   protected void doTransform(
       List<Column> childrenColumns, ColumnBuilder builder, int positionCount, boolean[] selection) {
     initIfNeeded();
+    if (batchEvaluable) {
+      evaluateBatch(childrenColumns, builder, selection);
+      return;
+    }
     RecordIterator iterator = new RecordIterator(childrenColumns, inputTypes, positionCount);
     int i = 0;
     while (iterator.hasNext()) {
       try {
         Record input = iterator.next();
-        if (selection[i++]) {
+        if (!selection[i++]) {
           builder.appendNull();
           continue;
         }
@@ -131,6 +142,19 @@ public class UserDefineScalarFunctionTransformer extends MultiColumnTransformer
     }
   }
 
+  private void evaluateBatch(
+      List<Column> childrenColumns, ColumnBuilder builder, boolean[] selection) {
+    try {
+      scalarFunction.evaluate(
+          childrenColumns.toArray(new Column[0]), selection, builder, ioTDBLocal);
+    } catch (Exception e) {
+      throw new RuntimeException(
+          CalcMessages.EXCEPTION_ERROR_OCCURS_EVALUATING_USER_DEFINED_SCALAR_FUNCTION_05903C18
+              + scalarFunction.getClass().getName(),
+          e);
+    }
+  }
+
   @Override
   public void close() {
     // ensure beforeStart was called
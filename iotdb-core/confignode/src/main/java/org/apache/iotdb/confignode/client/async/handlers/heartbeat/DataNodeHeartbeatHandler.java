@@ -27,6 +27,7 @@ import org.apache.iotdb.commons.cluster.NodeType;
 import org.apache.iotdb.commons.cluster.RegionStatus;
 import org.apache.iotdb.confignode.conf.ConfigNodeConfig;
 import org.apache.iotdb.confignode.conf.ConfigNodeDescriptor;
+import org.apache.iotdb.confignode.manager.cq.CQManager;
 import org.apache.iotdb.confignode.manager.lease.DataNodeContactTracker;
 import org.apache.iotdb.confignode.manager.load.LoadManager;
 import org.apache.iotdb.confignode.manager.load.cache.consensus.ConsensusGroupHeartbeatSample;
@@ -63,6 +64,8 @@ public class DataNodeHeartbeatHandler implements AsyncMethodCallback<TDataNodeHe
 
   private final PipeRuntimeCoordinator pipeRuntimeCoordinator;
 
+  private final CQManager cqManager;
+
   public DataNodeHeartbeatHandler(
       int nodeId,
       LoadManager loadManager,
@@ -71,7 +74,8 @@ public class DataNodeHeartbeatHandler implements AsyncMethodCallback<TDataNodeHe
       Map<Integer, Long> regionDisk,
       Consumer<Map<Integer, Long>> seriesUsageRespProcess,
       Consumer<Map<Integer, Long>> deviceUsageRespProcess,
-      PipeRuntimeCoordinator pipeRuntimeCoordinator) {
+      PipeRuntimeCoordinator pipeRuntimeCoordinator,
+      CQManager cqManager) {
 
     this.nodeId = nodeId;
     this.loadManager = loadManager;
@@ -81,6 +85,7 @@ public class DataNodeHeartbeatHandler implements AsyncMethodCallback<TDataNodeHe
     this.seriesUsageRespProcess = seriesUsageRespProcess;
     this.deviceUsageRespProcess = deviceUsageRespProcess;
     this.pipeRuntimeCoordinator = pipeRuntimeCoordinator;
+    this.cqManager = cqManager;
   }
 
   @Override
@@ -91,6 +96,7 @@ public class DataNodeHeartbeatHandler implements AsyncMethodCallback<TDataNodeHe
     cachePipeHeartbeat(heartbeatResp);
     cacheConfirmedConfigNodeEndPoints(heartbeatResp);
     cacheRegionSizeSamples(heartbeatResp);
+    cacheIncrementalCQIds(heartbeatResp);
   }
 
   private void cacheNodeHeartbeatSample(TDataNodeHeartbeatResp heartbeatResp) {
@@ -215,11 +221,21 @@ public class DataNodeHeartbeatHandler implements AsyncMethodCallback<TDataNodeHe
     }
   }
 
+  private void cacheIncrementalCQIds(TDataNodeHeartbeatResp heartbeatResp) {
+    cqManager.updateIncrementalCQIds(
+        nodeId,
+        heartbeatResp.isSetIncrementalCQIds()
+            ? heartbeatResp.getIncrementalCQIds()
+            : Collections.emptySet());
+  }
+
   @Override
   public void onError(Exception e) {
     if (ThriftClient.isConnectionBroken(e)) {
       loadManager.forceUpdateNodeCache(
           NodeType.DataNode, nodeId, new NodeHeartbeatSample(NodeStatus.Unknown));
+      // the DataNode may restart without the maintained queries
+      cqManager.updateIncrementalCQIds(nodeId, Collections.emptySet());
     }
     loadManager.getLoadCache().resetHeartbeatProcessing(nodeId);
   }
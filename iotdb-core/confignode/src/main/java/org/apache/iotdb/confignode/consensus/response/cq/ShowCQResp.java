@@ -45,11 +45,22 @@ public class ShowCQResp implements DataSet {
     return new TShowCQResp(
         status,
         cqList.stream()
-            .map(entry -> new TCQEntry(entry.getCqId(), entry.getSql(), entry.getState().getType()))
+            .map(ShowCQResp::convertToRpcCQEntry)
             .sorted(Comparator.comparing(entry -> entry.cqId))
             .collect(Collectors.toList()));
   }
 
+  private static TCQEntry convertToRpcCQEntry(CQInfo.CQEntry entry) {
+    return new TCQEntry(entry.getCqId(), entry.getSql(), entry.getState().getType())
+        .setQueryBody(entry.getQueryBody())
+        .setEveryInterval(entry.getEveryInterval())
+        .setBoundaryTime(entry.getBoundaryTime())
+        .setStartTimeOffset(entry.getStartTimeOffset())
+        .setEndTimeOffset(entry.getEndTimeOffset())
+        .setZoneId(entry.getZoneId())
+        .setUsername(entry.getUsername());
+  }
+
   public List<CQInfo.CQEntry> getCqList() {
     return cqList;
   }
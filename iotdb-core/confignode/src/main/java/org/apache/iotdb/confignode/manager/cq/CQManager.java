@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.confignode.manager.cq;
 
+import org.apache.iotdb.common.rpc.thrift.TDataNodeConfiguration;
 import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.commons.concurrent.ThreadName;
@@ -43,6 +44,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
@@ -63,12 +65,16 @@ public class CQManager {
   // Key: CQ id. Value: the local task and the metadata token it owns.
   private final ConcurrentMap<String, LocallyScheduledCQ> locallyScheduledCQs;
 
+  // Key: DataNode id. Value: the CQs maintained incrementally by it, reported by heartbeat.
+  private final ConcurrentMap<Integer, Set<String>> dataNodeIncrementalCQIds;
+
   private ScheduledExecutorService executor;
 
   public CQManager(ConfigManager configManager) {
     this.configManager = configManager;
     this.lock = new ReentrantReadWriteLock();
     this.locallyScheduledCQs = new ConcurrentHashMap<>();
+    this.dataNodeIncrementalCQIds = new ConcurrentHashMap<>();
     this.executor =
         IoTDBThreadPoolFactory.newScheduledThreadPool(
             CONF.getCqSubmitThread(), ThreadName.CQ_SCHEDULER.getName());
@@ -116,6 +122,31 @@ public class CQManager {
     }
   }
 
+  public void updateIncrementalCQIds(int dataNodeId, Set<String> cqIds) {
+    dataNodeIncrementalCQIds.put(dataNodeId, cqIds);
+  }
+
+  /**
+   * Whether every registered DataNode reports to maintain the CQ incrementally. Each DataNode
+   * computes by query the windows written before it started to maintain the CQ, so the scheduled
+   * executions can be skipped only then, while a DataNode which is down or has not reported yet
+   * keeps them running.
+   */
+  public boolean isMaintainedIncrementally(String cqId) {
+    List<TDataNodeConfiguration> dataNodes =
+        configManager.getNodeManager().getRegisteredDataNodes();
+    if (dataNodes.isEmpty()) {
+      return false;
+    }
+    for (TDataNodeConfiguration dataNode : dataNodes) {
+      Set<String> cqIds = dataNodeIncrementalCQIds.get(dataNode.getLocation().getDataNodeId());
+      if (cqIds == null || !cqIds.contains(cqId)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   public ScheduledExecutorService getExecutor() {
     ScheduledExecutorService res;
     lock.readLock().lock();
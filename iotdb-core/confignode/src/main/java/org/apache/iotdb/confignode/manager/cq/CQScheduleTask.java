@@ -200,7 +200,9 @@ public class CQScheduleTask implements Runnable {
           endTime,
           System.currentTimeMillis() * FACTOR);
       TExecuteCQ executeCQReq =
-          new TExecuteCQ(queryBody, startTime, endTime, everyInterval, zoneId, cqId, username);
+          new TExecuteCQ(queryBody, startTime, endTime, everyInterval, zoneId, cqId, username)
+              .setMaintainedIncrementally(
+                  configManager.getCQManager().isMaintainedIncrementally(cqId));
       try {
         AsyncDataNodeInternalServiceClient client =
             CnToDnInternalServiceAsyncRequestManager.getInstance()
@@ -283,7 +283,8 @@ public class HeartbeatService {
               configManager.getClusterQuotaManager().getRegionDisk(),
               configManager.getClusterSchemaManager()::updateTimeSeriesUsage,
               configManager.getClusterSchemaManager()::updateDeviceUsage,
-              configManager.getPipeManager().getPipeRuntimeCoordinator());
+              configManager.getPipeManager().getPipeRuntimeCoordinator(),
+              configManager.getCQManager());
       configManager.getClusterQuotaManager().updateSpaceQuotaUsage();
       addConfigNodeLocationsToReq(dataNodeId, heartbeatReq);
       if (contactTracker.hasDeliveredCurrentFenceThreshold(dataNodeId)) {
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.confignode.manager.cq;
+
+import org.apache.iotdb.common.rpc.thrift.TDataNodeConfiguration;
+import org.apache.iotdb.common.rpc.thrift.TDataNodeLocation;
+import org.apache.iotdb.confignode.manager.ConfigManager;
+import org.apache.iotdb.confignode.manager.node.NodeManager;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+public class CQManagerTest {
+
+  private CQManager cqManager;
+
+  @Before
+  public void setUp() {
+    ConfigManager configManager = Mockito.mock(ConfigManager.class);
+    NodeManager nodeManager = Mockito.mock(NodeManager.class);
+    Mockito.when(configManager.getNodeManager()).thenReturn(nodeManager);
+    Mockito.when(nodeManager.getRegisteredDataNodes())
+        .thenReturn(Arrays.asList(createDataNode(1), createDataNode(2)));
+    cqManager = new CQManager(configManager);
+  }
+
+  @After
+  public void tearDown() {
+    cqManager.stopCQScheduler();
+  }
+
+  private static TDataNodeConfiguration createDataNode(int dataNodeId) {
+    return new TDataNodeConfiguration()
+        .setLocation(new TDataNodeLocation().setDataNodeId(dataNodeId));
+  }
+
+  @Test
+  public void testMaintainedIncrementallyByEveryDataNode() {
+    // no DataNode has reported the query yet
+    Assert.assertFalse(cqManager.isMaintainedIncrementally("cq1"));
+
+    cqManager.updateIncrementalCQIds(1, new HashSet<>(Arrays.asList("cq1", "cq2")));
+    Assert.assertFalse(cqManager.isMaintainedIncrementally("cq1"));
+
+    cqManager.updateIncrementalCQIds(2, Collections.singleton("cq1"));
+    Assert.assertTrue(cqManager.isMaintainedIncrementally("cq1"));
+    Assert.assertFalse(cqManager.isMaintainedIncrementally("cq2"));
+
+    // e.g. the DataNode restarts and has not registered the query again
+    cqManager.updateIncrementalCQIds(2, Collections.emptySet());
+    Assert.assertFalse(cqManager.isMaintainedIncrementally("cq1"));
+  }
+}
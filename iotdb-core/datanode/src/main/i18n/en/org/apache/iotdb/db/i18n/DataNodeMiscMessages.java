@@ -971,6 +971,26 @@ public final class DataNodeMiscMessages {
   public static final String ERROR_UPDATING_TRIGGER_INFO =
       "Meet error when updating trigger information:";
 
+  // ---------------------------------------------------------------------------
+  // cq – IncrementalContinuousQueryManager
+  // ---------------------------------------------------------------------------
+  public static final String INCREMENTAL_CQ_MAINTAINER_STARTED =
+      "Incremental-CQ-Maintainer is successfully started.";
+  public static final String INCREMENTAL_CQ_MAINTAINER_STOPPED =
+      "Incremental-CQ-Maintainer is successfully stopped.";
+  public static final String FAILED_TO_GET_CQ_LIST =
+      "Failed to get the continuous queries from ConfigNode, status: {}";
+  public static final String START_MAINTAINING_CQ_INCREMENTALLY =
+      "Start to maintain continuous query {} incrementally";
+  public static final String STOP_MAINTAINING_CQ_INCREMENTALLY =
+      "Stop maintaining continuous query {} incrementally";
+  public static final String FAILED_TO_WRITE_INCREMENTAL_CQ_RESULTS =
+      "Failed to write the results of continuous query {}, status: {}";
+  public static final String FAILED_TO_EXECUTE_CQ_TIME_RANGE =
+      "Failed to execute continuous query {} over [{}, {}), status: {}";
+  public static final String ERROR_MAINTAINING_INCREMENTAL_CQ =
+      "Meet error when maintaining continuous queries incrementally:";
+
   // ---------------------------------------------------------------------------
   // trigger – TriggerFireVisitor
   // ---------------------------------------------------------------------------
@@ -1517,5 +1537,4 @@ public final class DataNodeMiscMessages {
           + "original configuration: {}.";
   public static final String MISC_EXCEPTION_FAILED_TO_RESOLVE_CANONICAL_PATH_FOR_ACTIVE_LOAD_LISTENING_DIRECTORY_S_ARG_0E6A508E =
       "Failed to resolve canonical path for active load listening directory %s: %s";
-
 }
@@ -941,6 +941,16 @@ public final class DataNodePipeMessages {
   public static final String RECEIVED_A_ACK_MESSAGE_FROM = "Received a ack message from {}:{}";
   public static final String RECEIVED_A_BIND_MESSAGE_FROM = "Received a bind message from {}:{}";
   public static final String REDIRECT_FILE_POSITION_TO = "Redirect file position to {}.";
+  public static final String TSFILE_ALREADY_RECEIVED_SKIP_TRANSFERRING =
+      "File {} has been received by the receiver before, skip transferring it.";
+  public static final String RESUME_TRANSFERRING_TSFILE_FROM_POSITION =
+      "Resume transferring file {} from position {}.";
+  public static final String FAILED_TO_COMPUTE_TSFILE_DIGEST =
+      "Failed to compute the digest of file {}, transfer it from the beginning.";
+  public static final String RECEIVER_NOT_SUPPORT_TSFILE_DIGEST_NEGOTIATION =
+      "The receiver does not support negotiating the digest of files, status {}. Files will be transferred from the beginning.";
+  public static final String FAILED_TO_NEGOTIATE_TSFILE_DIGEST =
+      "Failed to negotiate the digest of file {} with the receiver, status {}. Transfer it from the beginning.";
   public static final String REDIRECT_TO_POSITION_IN_TRANSFERRING_TSFILE =
       "Redirect to position {} in transferring tsFile {}.";
   public static final String NETWORK_FAILED_TO_RECEIVE_TSFILE_STATUS =
@@ -2588,4 +2598,12 @@ public final class DataNodePipeMessages {
       "Topic config for %s is unavailable during consensus subscription setup";
   public static final String LOG_FAILED_TO_RELEASE_TSFILE_PARSER_MEMORY_FOR_PIPE_ARG_CREATION_TIME_ARG_IN_DATAREGION_ARG_BECAUSE_NO_RESERVATION_EXISTS_BB8321C0 =
       "Failed to release TsFile parser memory for Pipe {} (creation time {}) in DataRegion {} because no reservation exists.";
+  public static final String FAILED_TO_CREATE_REWRITTEN_TSFILE_DIR =
+      "Failed to create the dir %s for the rewritten tsfiles.";
+  public static final String REWROTE_TSFILE_WITH_CHUNK_PASSTHROUGH =
+      "Rewrote tsfile {} by chunk passthrough, {} chunks copied and {} chunks decoded.";
+  public static final String FAILED_TO_REWRITE_TSFILE_WITH_CHUNK_PASSTHROUGH =
+      "Failed to rewrite tsfile {} by chunk passthrough, fall back to parsing it into tablets.";
+  public static final String FAILED_TO_DISCARD_REWRITTEN_TSFILE =
+      "Failed to discard the abandoned rewritten tsfile of {}, it is left in the rewritten dir.";
 }
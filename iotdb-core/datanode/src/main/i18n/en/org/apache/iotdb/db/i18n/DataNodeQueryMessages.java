@@ -1523,6 +1523,8 @@ public final class DataNodeQueryMessages {
       "[SkipExecute]";
   public static final String SKIP_EXECUTE_AFTER_LOGICAL_PLAN =
       "[SkipExecute After LogicalPlan]";
+  public static final String SKIP_EXECUTE_BY_QUERY_RESULT_CACHE =
+      "[SkipExecute By QueryResultCache]";
   public static final String RESULT_HANDLE_FINISHED =
       "[ResultHandleFinished]";
 
@@ -2424,6 +2426,10 @@ public final class DataNodeQueryMessages {
       "Note that the syntax for 'set configuration' in the tree model is not exactly the same as that in the table model.";
   public static final String UNSUPPORTED_COPY_TO_FORMAT_S_SUPPORTED_FORMATS_S =
       "Unsupported COPY TO format '%s'. Supported formats: %s";
+  public static final String COPY_TO_OPTIONS_S_ARE_ONLY_SUPPORTED_BY_TSFILE_FORMAT =
+      "COPY TO options %s are only supported by the TSFILE format";
+  public static final String DATA_TYPE_S_OF_COLUMN_S_IS_NOT_SUPPORTED_BY_PARQUET_FORMAT =
+      "Data type %s of column %s is not supported by the PARQUET format";
   public static final String EXCEPTION_DUPLICATE_TAG_COLUMN_IN_TAGS_CLAUSE_ARG_61FD5422 =
       "Duplicate tag column in TAGS clause: %s";
   public static final String EXCEPTION_DUPLICATE_OPTION_IN_COPY_TO_STATEMENT_ARG_99CFE09F =
@@ -3816,5 +3822,7 @@ public final class DataNodeQueryMessages {
   public static final String EXCEPTION_VISIBLEALIASES_IS_NULL_630B27F1 = "visibleAliases is null";
   public static final String EXCEPTION_HAS_NO_PERMISSION_TO_EXECUTE_ARG_BECAUSE_ONLY_THE_SUPERUSER_CAN_ALTER_HIM_HERSELF_C5902893 =
       "Has no permission to execute %s, because only the superuser can alter him/herself.";
+  public static final String FAILED_TO_EXPORT_QUERY_TRACE_SPANS = "Failed to export query trace spans to {}";
+  public static final String QUERY_TRACE_SPANS_DROPPED = "{} query trace spans are dropped because the export is too slow";
 
 }
@@ -32,6 +32,8 @@ public final class StorageEngineMessages {
   public static final String STORAGE_ENGINE_FAILED_TO_SET_UP = "Storage engine failed to set up.";
   public static final String SEQ_MEMTABLE_FLUSH_CHECK_THREAD_STARTED = "start sequence memtable timed flush check thread successfully.";
   public static final String UNSEQ_MEMTABLE_FLUSH_CHECK_THREAD_STARTED = "start unsequence memtable timed flush check thread successfully.";
+  public static final String TIER_MIGRATION_CHECK_THREAD_STARTED =
+      "Tier migration check thread started";
   public static final String STILL_NOT_EXIT_AFTER_30S = "{} still doesn't exit after 30s";
   public static final String START_CLOSING_ALL_DB_PROCESSOR = "Start closing all database processor";
   public static final String START_FORCE_CLOSING_ALL_DB_PROCESSOR = "Start force closing all database processor";
@@ -442,6 +444,23 @@ public final class StorageEngineMessages {
   public static final String END_OF_STREAM_REACHED = "The end of stream has been reached";
   public static final String V012_FILE_TIME_INDEX_SHOULD_NEVER_APPEAR = "V012_FILE_TIME_INDEX should never appear";
   public static final String INVALID_ORDINAL = "Invalid ordinal";
+  public static final String FAILED_TO_GENERATE_ROLLUP_INDEX = "Failed to generate rollup index for {}";
+  public static final String FAILED_TO_LOAD_ROLLUP_INDEX = "Failed to load rollup index {}";
+  public static final String FAILED_TO_DELETE_ROLLUP_INDEX = "Failed to delete rollup index {}";
+  public static final String FAILED_TO_SORT_TVLIST_IN_BACKGROUND = "Failed to sort the handed over TVList in background, it will be sorted by its readers";
+  public static final String UNSUPPORTED_ROLLUP_INDEX_VERSION = "Unsupported rollup index version %s";
+  public static final String TSFILE_MIGRATED_ACROSS_TIERS =
+      "TsFile {} is migrated from tier {} to tier {}, cost {} ms";
+  public static final String FAILED_TO_MIGRATE_TSFILE =
+      "Failed to migrate TsFile {} from tier {} to tier {}";
+  public static final String NO_SPACE_FOR_TIER_MIGRATION =
+      "No space left on tier {} to migrate TsFile {}";
+  public static final String SKIP_MIGRATING_TSFILE_READ_BY_QUERIES =
+      "Skip migrating TsFile {} because it is read by queries for too long";
+  public static final String FAILED_TO_DELETE_FILE_OF_TIER_MIGRATION =
+      "Failed to delete {} of the tier migration";
+  public static final String DELETE_PARTIAL_FILE_OF_TIER_MIGRATION =
+      "Delete {} left by an interrupted tier migration";
 
   // ======================== DataRegion Utils ========================
 
@@ -488,6 +507,9 @@ public final class StorageEngineMessages {
   public static final String REDUCE_MEMORY_USAGE_TO_NEGATIVE = "{} has reduce memory usage to negative";
   public static final String FORCE_ALLOCATE_INTERRUPTED = "forceAllocate: interrupted while waiting for available memory";
   public static final String LOAD_ALLOCATED_MEMORY_BLOCK = "Load: Allocated MemoryBlock from query engine, size: {}";
+  public static final String LOAD_SPLIT_TSFILE_IN_PARALLEL = "Load: Split TsFile {} into {} chunk group ranges in parallel.";
+  public static final String LOAD_FALLBACK_TO_SPLIT_TSFILE_SEQUENTIALLY = "Load: Not enough memory to split TsFile {} in parallel, fallback to split it sequentially. Detail: {}";
+  public static final String CONSUME_SPLIT_TSFILE_DATA_ERROR = "Consume split TsFile data error, TsFile: %s, chunk group range offset: %d, tsFileData: %s";
   public static final String RELEASE_DATA_CACHE_MEMORY_BLOCK = "Release Data Cache Memory Block {}";
   public static final String START_DATA_TYPE_CONVERSION_DOT = "Start data type conversion for LoadTsFileStatement: {}.";
   public static final String START_DATA_TYPE_CONVERSION = "Start data type conversion for LoadTsFileStatement: {}";
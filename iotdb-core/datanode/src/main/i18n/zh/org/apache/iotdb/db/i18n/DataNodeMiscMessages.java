@@ -969,6 +969,18 @@ public final class DataNodeMiscMessages {
   public static final String ERROR_UPDATING_TRIGGER_INFO =
       "更新触发器信息时遇到错误：";
 
+  // ---------------------------------------------------------------------------
+  // cq – IncrementalContinuousQueryManager
+  // ---------------------------------------------------------------------------
+  public static final String INCREMENTAL_CQ_MAINTAINER_STARTED = "Incremental-CQ-Maintainer 已成功启动。";
+  public static final String INCREMENTAL_CQ_MAINTAINER_STOPPED = "Incremental-CQ-Maintainer 已成功停止。";
+  public static final String FAILED_TO_GET_CQ_LIST = "从 ConfigNode 获取连续查询失败，状态：{}";
+  public static final String START_MAINTAINING_CQ_INCREMENTALLY = "开始增量维护连续查询 {}";
+  public static final String STOP_MAINTAINING_CQ_INCREMENTALLY = "停止增量维护连续查询 {}";
+  public static final String FAILED_TO_WRITE_INCREMENTAL_CQ_RESULTS = "写入连续查询 {} 的结果失败，状态：{}";
+  public static final String FAILED_TO_EXECUTE_CQ_TIME_RANGE = "执行连续查询 {} 于 [{}, {}) 失败，状态：{}";
+  public static final String ERROR_MAINTAINING_INCREMENTAL_CQ = "增量维护连续查询时出错：";
+
   // ---------------------------------------------------------------------------
   // trigger – TriggerFireVisitor
   // ---------------------------------------------------------------------------
@@ -1493,5 +1505,4 @@ public final class DataNodeMiscMessages {
       "跳过设置 {} 为 {}，因为无法解析其 canonical 路径：{}。继续使用原配置：{}。";
   public static final String MISC_EXCEPTION_FAILED_TO_RESOLVE_CANONICAL_PATH_FOR_ACTIVE_LOAD_LISTENING_DIRECTORY_S_ARG_0E6A508E =
       "无法解析 Active Load 监听目录 %s 的 canonical 路径：%s";
-
 }
@@ -888,6 +888,12 @@ public final class DataNodePipeMessages {
   public static final String RECEIVED_A_ACK_MESSAGE_FROM = "从 {}:{} 收到 ack 消息";
   public static final String RECEIVED_A_BIND_MESSAGE_FROM = "从 {}:{} 收到 bind 消息";
   public static final String REDIRECT_FILE_POSITION_TO = "重定向 file position 到 {}。";
+  public static final String TSFILE_ALREADY_RECEIVED_SKIP_TRANSFERRING = "文件 {} 此前已被接收端接收，跳过传输。";
+  public static final String RESUME_TRANSFERRING_TSFILE_FROM_POSITION = "恢复传输文件 {}，起始位置 {}。";
+  public static final String FAILED_TO_COMPUTE_TSFILE_DIGEST = "计算文件 {} 的摘要失败，从头开始传输。";
+  public static final String RECEIVER_NOT_SUPPORT_TSFILE_DIGEST_NEGOTIATION =
+      "接收端不支持协商文件摘要，状态 {}。文件将从头开始传输。";
+  public static final String FAILED_TO_NEGOTIATE_TSFILE_DIGEST = "与接收端协商文件 {} 的摘要失败，状态 {}。从头开始传输。";
   public static final String REDIRECT_TO_POSITION_IN_TRANSFERRING_TSFILE =
       "重定向到 position {}，正在传输的 TsFile 为 {}。";
   public static final String NETWORK_FAILED_TO_RECEIVE_TSFILE_STATUS =
@@ -2416,4 +2422,11 @@ public final class DataNodePipeMessages {
       "共识订阅设置期间 topic %s 的配置不可用";
   public static final String LOG_FAILED_TO_RELEASE_TSFILE_PARSER_MEMORY_FOR_PIPE_ARG_CREATION_TIME_ARG_IN_DATAREGION_ARG_BECAUSE_NO_RESERVATION_EXISTS_BB8321C0 =
       "无法释放 Pipe {}（创建时间 {}）在 DataRegion {} 中的 TsFile 解析器内存，因为不存在对应的预留。";
+  public static final String FAILED_TO_CREATE_REWRITTEN_TSFILE_DIR = "创建重写 TsFile 的目录 %s 失败。";
+  public static final String REWROTE_TSFILE_WITH_CHUNK_PASSTHROUGH =
+      "已通过 chunk 透传重写 TsFile {}，直接拷贝 {} 个 chunk，解码 {} 个 chunk。";
+  public static final String FAILED_TO_REWRITE_TSFILE_WITH_CHUNK_PASSTHROUGH =
+      "通过 chunk 透传重写 TsFile {} 失败，回退为解析成 tablet。";
+  public static final String FAILED_TO_DISCARD_REWRITTEN_TSFILE =
+      "丢弃 {} 被放弃的重写 tsfile 失败，该文件残留在重写目录中。";
 }
@@ -1504,6 +1504,7 @@ public final class DataNodeQueryMessages {
       "[跳过执行]";
   public static final String SKIP_EXECUTE_AFTER_LOGICAL_PLAN =
       "[逻辑计划后跳过执行]";
+  public static final String SKIP_EXECUTE_BY_QUERY_RESULT_CACHE = "[命中查询结果缓存跳过执行]";
   public static final String RESULT_HANDLE_FINISHED =
       "[结果句柄已完成]";
 
@@ -2799,6 +2800,10 @@ public final class DataNodeQueryMessages {
   public static final String UNSUPPORTED_COPY_TO_FORMAT_S_SUPPORTED_FORMATS_S =
 
       "不支持 COPY_TO 格式 '%s'。支持的格式：%s";
+  public static final String COPY_TO_OPTIONS_S_ARE_ONLY_SUPPORTED_BY_TSFILE_FORMAT =
+      "COPY TO 选项 %s 仅支持 TSFILE 格式";
+  public static final String DATA_TYPE_S_OF_COLUMN_S_IS_NOT_SUPPORTED_BY_PARQUET_FORMAT =
+      "PARQUET 格式不支持列 %2$s 的数据类型 %1$s";
   public static final String EXCEPTION_DUPLICATE_TAG_COLUMN_IN_TAGS_CLAUSE_ARG_61FD5422 =
       "TAGS 子句中存在重复的 TAG 列：%s";
   public static final String EXCEPTION_DUPLICATE_OPTION_IN_COPY_TO_STATEMENT_ARG_99CFE09F =
@@ -4573,5 +4578,7 @@ public final class DataNodeQueryMessages {
   public static final String EXCEPTION_VISIBLEALIASES_IS_NULL_630B27F1 = "visibleAliases 不能为空";
   public static final String EXCEPTION_HAS_NO_PERMISSION_TO_EXECUTE_ARG_BECAUSE_ONLY_THE_SUPERUSER_CAN_ALTER_HIM_HERSELF_C5902893 =
       "无权执行 %s，因为只有超级用户可以修改其自身。";
+  public static final String FAILED_TO_EXPORT_QUERY_TRACE_SPANS = "导出查询追踪 span 到 {} 失败";
+  public static final String QUERY_TRACE_SPANS_DROPPED = "由于导出过慢，已丢弃 {} 个查询追踪 span";
 
 }
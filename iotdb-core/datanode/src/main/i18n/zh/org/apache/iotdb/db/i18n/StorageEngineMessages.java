@@ -32,6 +32,7 @@ public final class StorageEngineMessages {
   public static final String STORAGE_ENGINE_FAILED_TO_SET_UP = "存储引擎启动失败。";
   public static final String SEQ_MEMTABLE_FLUSH_CHECK_THREAD_STARTED = "顺序 memtable 定时 flush 检查线程启动成功。";
   public static final String UNSEQ_MEMTABLE_FLUSH_CHECK_THREAD_STARTED = "乱序 memtable 定时 flush 检查线程启动成功。";
+  public static final String TIER_MIGRATION_CHECK_THREAD_STARTED = "分层迁移检查线程已启动";
   public static final String STILL_NOT_EXIT_AFTER_30S = "{} 在 30 秒后仍未退出";
   public static final String START_CLOSING_ALL_DB_PROCESSOR = "开始关闭所有数据库处理器";
   public static final String START_FORCE_CLOSING_ALL_DB_PROCESSOR = "开始强制关闭所有数据库处理器";
@@ -442,6 +443,17 @@ public final class StorageEngineMessages {
   public static final String END_OF_STREAM_REACHED = "已到达流的末尾";
   public static final String V012_FILE_TIME_INDEX_SHOULD_NEVER_APPEAR = "V012_FILE_TIME_INDEX 不应出现";
   public static final String INVALID_ORDINAL = "无效的序号";
+  public static final String FAILED_TO_GENERATE_ROLLUP_INDEX = "为 {} 生成 rollup 索引失败";
+  public static final String FAILED_TO_LOAD_ROLLUP_INDEX = "加载 rollup 索引 {} 失败";
+  public static final String FAILED_TO_DELETE_ROLLUP_INDEX = "删除 rollup 索引 {} 失败";
+  public static final String FAILED_TO_SORT_TVLIST_IN_BACKGROUND = "后台排序移交的 TVList 失败，将由读取方进行排序";
+  public static final String UNSUPPORTED_ROLLUP_INDEX_VERSION = "不支持的 rollup 索引版本 %s";
+  public static final String TSFILE_MIGRATED_ACROSS_TIERS = "TsFile {} 已从第 {} 层迁移到第 {} 层，耗时 {} ms";
+  public static final String FAILED_TO_MIGRATE_TSFILE = "将 TsFile {} 从第 {} 层迁移到第 {} 层失败";
+  public static final String NO_SPACE_FOR_TIER_MIGRATION = "第 {} 层没有剩余空间，无法迁移 TsFile {}";
+  public static final String SKIP_MIGRATING_TSFILE_READ_BY_QUERIES = "TsFile {} 被查询读取时间过长，跳过迁移";
+  public static final String FAILED_TO_DELETE_FILE_OF_TIER_MIGRATION = "删除分层迁移的文件 {} 失败";
+  public static final String DELETE_PARTIAL_FILE_OF_TIER_MIGRATION = "删除被中断的分层迁移遗留的文件 {}";
 
   // ======================== DataRegion Utils ========================
 
@@ -488,6 +500,9 @@ public final class StorageEngineMessages {
   public static final String REDUCE_MEMORY_USAGE_TO_NEGATIVE = "{} 的内存使用量已降为负数";
   public static final String FORCE_ALLOCATE_INTERRUPTED = "forceAllocate: 等待可用内存时被中断";
   public static final String LOAD_ALLOCATED_MEMORY_BLOCK = "Load: 从查询引擎分配内存块，大小: {}";
+  public static final String LOAD_SPLIT_TSFILE_IN_PARALLEL = "Load: 将 TsFile {} 划分为 {} 个 chunk group 区间并行拆分。";
+  public static final String LOAD_FALLBACK_TO_SPLIT_TSFILE_SEQUENTIALLY = "Load: 内存不足，无法并行拆分 TsFile {}，回退为顺序拆分。详情：{}";
+  public static final String CONSUME_SPLIT_TSFILE_DATA_ERROR = "消费拆分的 TsFile 数据出错，TsFile：%s，chunk group 区间偏移量：%d，tsFileData：%s";
   public static final String RELEASE_DATA_CACHE_MEMORY_BLOCK = "释放数据缓存内存块 {}";
   public static final String START_DATA_TYPE_CONVERSION_DOT = "开始对 LoadTsFileStatement: {} 进行数据类型转换。";
   public static final String START_DATA_TYPE_CONVERSION = "开始对 LoadTsFileStatement: {} 进行数据类型转换";
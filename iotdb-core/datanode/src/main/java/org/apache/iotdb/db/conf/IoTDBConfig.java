@@ -71,6 +71,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
@@ -317,6 +318,25 @@ public class IoTDBConfig {
   /** Strategy of multiple directories. */
   private String multiDirStrategyClassName = null;
 
+  /**
+   * Whether to migrate the closed TsFiles across storage tiers in background. Cold files are moved
+   * down after their tier TTL and re-heated files are promoted back. Only works with more than one
+   * tier of data directories.
+   */
+  private boolean enableTierMigration = true;
+
+  /** The interval of checking the TsFiles to migrate across storage tiers. */
+  private long tierMigrationCheckIntervalInMs = 60_000L;
+
+  /** The max throughput of copying TsFiles across storage tiers. */
+  private int tierMigrationThroughputMbPerSec = 16;
+
+  /**
+   * The decayed read count of a TsFile reaching this threshold is hot, and it is promoted to the
+   * upper tier. The count is halved in every check interval.
+   */
+  private int tierMigrationHotFileReadThreshold = 64;
+
   private String ratisDataRegionSnapshotDir =
       IoTDBConstant.DN_DEFAULT_DATA_DIR
           + File.separator
@@ -351,6 +371,12 @@ public class IoTDBConfig {
 
   private int degreeOfParallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
 
+  /**
+   * The minimum number of devices scanned by one pipeline when a table scan of one region is split
+   * into parallel pipelines. When <= 0, the table scan is never split.
+   */
+  private int minDevicesPerTableScanPipeline = 0;
+
   private int mergeThresholdOfExplainAnalyze = 10;
 
   /** How many queries can be concurrently executed. When <= 0, use 1000. */
@@ -437,6 +463,43 @@ public class IoTDBConfig {
    */
   private int tvListSortThreshold = 0;
 
+  /**
+   * Databases whose data regions use the background sort memtable, in which the working TVLists
+   * are handed over without sorting and sorted by background threads.
+   */
+  private Set<String> backgroundSortMemTableDatabases = Collections.emptySet();
+
+  /**
+   * the threshold when working TVList is handed over in the background sort memtable, used when
+   * tvListSortThreshold is 0
+   */
+  private int backgroundSortMemTableHandoverThreshold = 8192;
+
+  /** The number of threads sorting the TVLists handed over in the background sort memtables */
+  private int memTableSortThreadCount = 2;
+
+  /**
+   * Whether the queries on the working memtable read sealed TVList segments instead of cloning or
+   * sorting the working TVList being written.
+   */
+  private boolean enableMemTableSnapshotRead = false;
+
+  /** The minimum number of rows of a working TVList to be sealed for the memtable snapshot read */
+  private int memTableSnapshotReadSealThreshold = 4096;
+
+  /**
+   * Whether the memory control flush chooses the working memtables of all the data regions by the
+   * memory freed per flush cost instead of by memory size only.
+   */
+  private boolean enableCostBasedFlushSelection = false;
+
+  /**
+   * An unsequence TsFile smaller than this is kept open after its memtable is flushed by memory
+   * control, so that the following flushes of the same time partition are appended to it. 0 means
+   * every flush closes the file. Unit: byte
+   */
+  private long unseqFlushCoalesceFileSize = 0;
+
   /** Enable streaming query mem chunk */
   private boolean streamingQueryMemChunk = true;
 
@@ -528,6 +591,12 @@ public class IoTDBConfig {
    */
   private volatile int innerCompactionCandidateFileNum = 30;
 
+  /**
+   * Whether to collect the read amplification of the queries on each time partition, and schedule
+   * and execute the compaction of the partitions with the most extra file reads first.
+   */
+  private boolean enableQueryAwareCompaction = false;
+
   /** The max candidate file num in one cross space compaction task */
   private volatile int fileLimitPerCrossTask = 500;
 
@@ -575,10 +644,18 @@ public class IoTDBConfig {
 
   /**
    * The number of sub compaction threads to be set up to perform compaction. Currently only works
-   * for nonAligned data in cross space compaction and unseq inner space compaction.
+   * for nonAligned data in cross space compaction and unseq inner space compaction, and for aligned
+   * devices in inner space compaction, see {@link #enableParallelAlignedDeviceCompaction}.
    */
   private int subCompactionTaskNum = 4;
 
+  /**
+   * Whether to compact aligned devices in parallel in fast inner space compaction. At most
+   * subCompactionTaskNum devices are compacted at the same time and their chunk groups are written
+   * into the target file in the order of devices.
+   */
+  private boolean enableParallelAlignedDeviceCompaction = false;
+
   /** The number of threads to be set up to select compaction task. */
   private int compactionScheduleThreadNum = 4;
 
@@ -590,6 +667,33 @@ public class IoTDBConfig {
    */
   private volatile boolean enableTopKRuntimeFilter = true;
 
+  /**
+   * The bucket interval of the rollup index generated for sequence TsFiles during flush and
+   * compaction. Non-positive value means the rollup index is disabled.
+   */
+  private long rollupIndexIntervalInMs = 0;
+
+  /**
+   * The max memory of the query result cache, which is allocated from the coordinator memory.
+   * Non-positive value means the query result cache is disabled.
+   */
+  private long queryResultCacheSizeInBytes = 0;
+
+  /** The max time a cached query result can be served after it is computed. */
+  private long queryResultCacheExpireTimeInMs = 60_000L;
+
+  /**
+   * The max number of analyses cached for one prepared statement, each for a different set of
+   * parameter types. Non-positive value means the analyses of prepared statements are not cached.
+   */
+  private int preparedStatementPlanCacheSize = 0;
+
+  /**
+   * Whether the eligible aggregate continuous queries are maintained incrementally by the region
+   * leaders from the written data, instead of being re-executed on every tick.
+   */
+  private boolean continuousQueryIncrementalModeEnabled = false;
+
   /** The size of candidate compaction task queue. */
   private int candidateCompactionTaskQueueSize = 50;
 
@@ -717,6 +821,24 @@ public class IoTDBConfig {
   /** The limit of compaction read operation can reach per second. When <= 0, no limit. */
   private int compactionReadOperationPerSec = 0;
 
+  /**
+   * The limit of compaction read throughput of each data dir per second. When <= 0, no limit. unit:
+   * megabyte
+   */
+  private int compactionReadThroughputMbPerSecPerDisk = 0;
+
+  /**
+   * The size of the sequential read-ahead of compaction readers, the reads smaller than this are
+   * served from a buffer filled by one large read. When <= 0, no read-ahead. unit: byte
+   */
+  private int compactionReadAheadSize = 0;
+
+  /**
+   * Compaction backs off on a data dir whose average read latency exceeds this, to leave the disk
+   * to the queries. When <= 0, never back off. unit: ms
+   */
+  private long compactionReadBackoffLatencyThresholdInMs = 0;
+
   /**
    * How many thread will be set up to perform compaction, 10 by default. Set to 1 when less than or
    * equal to 0.
@@ -848,6 +970,15 @@ public class IoTDBConfig {
   /** time window threshold for record of history queries. Unit: minute */
   private int queryCostStatWindow = 0;
 
+  /** The ratio of queries to be traced, 0 means query tracing is disabled. */
+  private volatile double queryTraceSampleRatio = 0;
+
+  /** The max number of finished query trace spans retained in memory of each DataNode. */
+  private int queryTraceRetainedSpanNum = 10000;
+
+  /** The directory to export query trace spans in OpenTelemetry format, empty means disabled. */
+  private String queryTraceExportDir = "";
+
   private int patternMatchingThreshold = 1000000;
 
   /**
@@ -1013,6 +1144,13 @@ public class IoTDBConfig {
   /** Policy of DataNodeSchemaCache eviction */
   private String dataNodeSchemaCacheEvictionPolicy = "FIFO";
 
+  /**
+   * The max number of insertTablet shapes (device, measurements and data types) remembered by one
+   * session, whose validated schema and partition are reused by the following insertTablet of the
+   * same shape. Non-positive value means the shapes are not remembered.
+   */
+  private int insertTabletShapeCacheSize = 0;
+
   /**
    * Threshold for cache size in mayEvict. When cache size exceeds this threshold, the system will
    * compute total memory in each eviction iteration to ensure accurate memory management.
@@ -1164,6 +1302,13 @@ public class IoTDBConfig {
 
   private int loadTsFileSpiltPartitionMaxSize = 10;
 
+  /**
+   * The number of threads splitting the chunk groups of one TsFile in parallel when it needs to be
+   * decoded in LOAD. 1 means the TsFile is split sequentially.
+   */
+  private int loadTsFileSplitParallelism =
+      Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+
   /**
    * The threshold for splitting statement when loading multiple TsFiles. When the number of TsFiles
    * exceeds this threshold, the statement will be split into multiple sub-statements for batch
@@ -1914,6 +2059,38 @@ public class IoTDBConfig {
     this.multiDirStrategyClassName = multiDirStrategyClassName;
   }
 
+  public boolean isEnableTierMigration() {
+    return enableTierMigration;
+  }
+
+  public void setEnableTierMigration(boolean enableTierMigration) {
+    this.enableTierMigration = enableTierMigration;
+  }
+
+  public long getTierMigrationCheckIntervalInMs() {
+    return tierMigrationCheckIntervalInMs;
+  }
+
+  public void setTierMigrationCheckIntervalInMs(long tierMigrationCheckIntervalInMs) {
+    this.tierMigrationCheckIntervalInMs = tierMigrationCheckIntervalInMs;
+  }
+
+  public int getTierMigrationThroughputMbPerSec() {
+    return tierMigrationThroughputMbPerSec;
+  }
+
+  public void setTierMigrationThroughputMbPerSec(int tierMigrationThroughputMbPerSec) {
+    this.tierMigrationThroughputMbPerSec = tierMigrationThroughputMbPerSec;
+  }
+
+  public int getTierMigrationHotFileReadThreshold() {
+    return tierMigrationHotFileReadThreshold;
+  }
+
+  public void setTierMigrationHotFileReadThreshold(int tierMigrationHotFileReadThreshold) {
+    this.tierMigrationHotFileReadThreshold = tierMigrationHotFileReadThreshold;
+  }
+
   public void checkMultiDirStrategyClassName() {
     confirmMultiDirStrategy();
     for (String multiDirStrategy : CLUSTER_ALLOWED_MULTI_DIR_STRATEGIES) {
@@ -1965,6 +2142,14 @@ public class IoTDBConfig {
     return degreeOfParallelism;
   }
 
+  public int getMinDevicesPerTableScanPipeline() {
+    return minDevicesPerTableScanPipeline;
+  }
+
+  public void setMinDevicesPerTableScanPipeline(int minDevicesPerTableScanPipeline) {
+    this.minDevicesPerTableScanPipeline = minDevicesPerTableScanPipeline;
+  }
+
   public void setMergeThresholdOfExplainAnalyze(int mergeThresholdOfExplainAnalyze) {
     this.mergeThresholdOfExplainAnalyze = mergeThresholdOfExplainAnalyze;
   }
@@ -2341,6 +2526,32 @@ public class IoTDBConfig {
     this.compactionWriteThroughputMbPerSec = compactionWriteThroughputMbPerSec;
   }
 
+  public int getCompactionReadThroughputMbPerSecPerDisk() {
+    return compactionReadThroughputMbPerSecPerDisk;
+  }
+
+  public void setCompactionReadThroughputMbPerSecPerDisk(
+      int compactionReadThroughputMbPerSecPerDisk) {
+    this.compactionReadThroughputMbPerSecPerDisk = compactionReadThroughputMbPerSecPerDisk;
+  }
+
+  public int getCompactionReadAheadSize() {
+    return compactionReadAheadSize;
+  }
+
+  public void setCompactionReadAheadSize(int compactionReadAheadSize) {
+    this.compactionReadAheadSize = compactionReadAheadSize;
+  }
+
+  public long getCompactionReadBackoffLatencyThresholdInMs() {
+    return compactionReadBackoffLatencyThresholdInMs;
+  }
+
+  public void setCompactionReadBackoffLatencyThresholdInMs(
+      long compactionReadBackoffLatencyThresholdInMs) {
+    this.compactionReadBackoffLatencyThresholdInMs = compactionReadBackoffLatencyThresholdInMs;
+  }
+
   public int getCompactionReadThroughputMbPerSec() {
     return compactionReadThroughputMbPerSec;
   }
@@ -2461,6 +2672,63 @@ public class IoTDBConfig {
     this.tvListSortThreshold = tvListSortThreshold;
   }
 
+  public Set<String> getBackgroundSortMemTableDatabases() {
+    return backgroundSortMemTableDatabases;
+  }
+
+  public void setBackgroundSortMemTableDatabases(Set<String> backgroundSortMemTableDatabases) {
+    this.backgroundSortMemTableDatabases = backgroundSortMemTableDatabases;
+  }
+
+  public int getBackgroundSortMemTableHandoverThreshold() {
+    return backgroundSortMemTableHandoverThreshold;
+  }
+
+  public void setBackgroundSortMemTableHandoverThreshold(
+      int backgroundSortMemTableHandoverThreshold) {
+    this.backgroundSortMemTableHandoverThreshold = backgroundSortMemTableHandoverThreshold;
+  }
+
+  public int getMemTableSortThreadCount() {
+    return memTableSortThreadCount;
+  }
+
+  public void setMemTableSortThreadCount(int memTableSortThreadCount) {
+    this.memTableSortThreadCount = memTableSortThreadCount;
+  }
+
+  public boolean isEnableMemTableSnapshotRead() {
+    return enableMemTableSnapshotRead;
+  }
+
+  public void setEnableMemTableSnapshotRead(boolean enableMemTableSnapshotRead) {
+    this.enableMemTableSnapshotRead = enableMemTableSnapshotRead;
+  }
+
+  public int getMemTableSnapshotReadSealThreshold() {
+    return memTableSnapshotReadSealThreshold;
+  }
+
+  public void setMemTableSnapshotReadSealThreshold(int memTableSnapshotReadSealThreshold) {
+    this.memTableSnapshotReadSealThreshold = memTableSnapshotReadSealThreshold;
+  }
+
+  public boolean isEnableCostBasedFlushSelection() {
+    return enableCostBasedFlushSelection;
+  }
+
+  public void setEnableCostBasedFlushSelection(boolean enableCostBasedFlushSelection) {
+    this.enableCostBasedFlushSelection = enableCostBasedFlushSelection;
+  }
+
+  public long getUnseqFlushCoalesceFileSize() {
+    return unseqFlushCoalesceFileSize;
+  }
+
+  public void setUnseqFlushCoalesceFileSize(long unseqFlushCoalesceFileSize) {
+    this.unseqFlushCoalesceFileSize = unseqFlushCoalesceFileSize;
+  }
+
   public boolean isStreamingQueryMemChunk() {
     return streamingQueryMemChunk;
   }
@@ -2881,6 +3149,30 @@ public class IoTDBConfig {
     this.slowQueryThreshold = slowQueryThreshold;
   }
 
+  public double getQueryTraceSampleRatio() {
+    return queryTraceSampleRatio;
+  }
+
+  public void setQueryTraceSampleRatio(double queryTraceSampleRatio) {
+    this.queryTraceSampleRatio = queryTraceSampleRatio;
+  }
+
+  public int getQueryTraceRetainedSpanNum() {
+    return queryTraceRetainedSpanNum;
+  }
+
+  public void setQueryTraceRetainedSpanNum(int queryTraceRetainedSpanNum) {
+    this.queryTraceRetainedSpanNum = queryTraceRetainedSpanNum;
+  }
+
+  public String getQueryTraceExportDir() {
+    return queryTraceExportDir;
+  }
+
+  public void setQueryTraceExportDir(String queryTraceExportDir) {
+    this.queryTraceExportDir = queryTraceExportDir;
+  }
+
   public int getQueryCostStatWindow() {
     return queryCostStatWindow;
   }
@@ -3179,6 +3471,14 @@ public class IoTDBConfig {
     this.innerCompactionCandidateFileNum = innerCompactionCandidateFileNum;
   }
 
+  public boolean isEnableQueryAwareCompaction() {
+    return enableQueryAwareCompaction;
+  }
+
+  public void setEnableQueryAwareCompaction(boolean enableQueryAwareCompaction) {
+    this.enableQueryAwareCompaction = enableQueryAwareCompaction;
+  }
+
   public int getFileLimitPerCrossTask() {
     return fileLimitPerCrossTask;
   }
@@ -3215,6 +3515,15 @@ public class IoTDBConfig {
     this.subCompactionTaskNum = subCompactionTaskNum;
   }
 
+  public boolean isEnableParallelAlignedDeviceCompaction() {
+    return enableParallelAlignedDeviceCompaction;
+  }
+
+  public void setEnableParallelAlignedDeviceCompaction(
+      boolean enableParallelAlignedDeviceCompaction) {
+    this.enableParallelAlignedDeviceCompaction = enableParallelAlignedDeviceCompaction;
+  }
+
   public int getCompactionScheduleThreadNum() {
     return compactionScheduleThreadNum;
   }
@@ -3566,6 +3875,14 @@ public class IoTDBConfig {
     this.dataNodeSchemaCacheEvictionPolicy = dataNodeSchemaCacheEvictionPolicy;
   }
 
+  public int getInsertTabletShapeCacheSize() {
+    return insertTabletShapeCacheSize;
+  }
+
+  public void setInsertTabletShapeCacheSize(int insertTabletShapeCacheSize) {
+    this.insertTabletShapeCacheSize = insertTabletShapeCacheSize;
+  }
+
   public int getCacheEvictionMemoryComputationThreshold() {
     return cacheEvictionMemoryComputationThreshold;
   }
@@ -4350,6 +4667,14 @@ public class IoTDBConfig {
     return loadTsFileSpiltPartitionMaxSize;
   }
 
+  public int getLoadTsFileSplitParallelism() {
+    return loadTsFileSplitParallelism;
+  }
+
+  public void setLoadTsFileSplitParallelism(int loadTsFileSplitParallelism) {
+    this.loadTsFileSplitParallelism = loadTsFileSplitParallelism;
+  }
+
   public void setLoadTsFileSpiltPartitionMaxSize(int loadTsFileSpiltPartitionMaxSize) {
     if (loadTsFileSpiltPartitionMaxSize <= 0) {
       throw new IllegalArgumentException(
@@ -4511,6 +4836,47 @@ public class IoTDBConfig {
     this.enableTopKRuntimeFilter = enableTopKRuntimeFilter;
   }
 
+  public long getRollupIndexIntervalInMs() {
+    return rollupIndexIntervalInMs;
+  }
+
+  public void setRollupIndexIntervalInMs(long rollupIndexIntervalInMs) {
+    this.rollupIndexIntervalInMs = rollupIndexIntervalInMs;
+  }
+
+  public long getQueryResultCacheSizeInBytes() {
+    return queryResultCacheSizeInBytes;
+  }
+
+  public void setQueryResultCacheSizeInBytes(long queryResultCacheSizeInBytes) {
+    this.queryResultCacheSizeInBytes = queryResultCacheSizeInBytes;
+  }
+
+  public long getQueryResultCacheExpireTimeInMs() {
+    return queryResultCacheExpireTimeInMs;
+  }
+
+  public void setQueryResultCacheExpireTimeInMs(long queryResultCacheExpireTimeInMs) {
+    this.queryResultCacheExpireTimeInMs = queryResultCacheExpireTimeInMs;
+  }
+
+  public int getPreparedStatementPlanCacheSize() {
+    return preparedStatementPlanCacheSize;
+  }
+
+  public void setPreparedStatementPlanCacheSize(int preparedStatementPlanCacheSize) {
+    this.preparedStatementPlanCacheSize = preparedStatementPlanCacheSize;
+  }
+
+  public boolean isContinuousQueryIncrementalModeEnabled() {
+    return continuousQueryIncrementalModeEnabled;
+  }
+
+  public void setContinuousQueryIncrementalModeEnabled(
+      boolean continuousQueryIncrementalModeEnabled) {
+    this.continuousQueryIncrementalModeEnabled = continuousQueryIncrementalModeEnabled;
+  }
+
   public long getInnerCompactionTaskSelectionModsFileThreshold() {
     return innerCompactionTaskSelectionModsFileThreshold;
   }
@@ -101,6 +101,7 @@ import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.function.LongConsumer;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 public class IoTDBDescriptor {
 
@@ -382,6 +383,38 @@ public class IoTDBDescriptor {
       throw e;
     }
 
+    conf.setEnableTierMigration(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_tier_migration", Boolean.toString(conf.isEnableTierMigration()))));
+
+    long tierMigrationCheckIntervalInMs =
+        Long.parseLong(
+            properties.getProperty(
+                "tier_migration_check_interval_in_ms",
+                Long.toString(conf.getTierMigrationCheckIntervalInMs())));
+    if (tierMigrationCheckIntervalInMs > 0) {
+      conf.setTierMigrationCheckIntervalInMs(tierMigrationCheckIntervalInMs);
+    }
+
+    int tierMigrationThroughputMbPerSec =
+        Integer.parseInt(
+            properties.getProperty(
+                "tier_migration_throughput_mb_per_sec",
+                Integer.toString(conf.getTierMigrationThroughputMbPerSec())));
+    if (tierMigrationThroughputMbPerSec > 0) {
+      conf.setTierMigrationThroughputMbPerSec(tierMigrationThroughputMbPerSec);
+    }
+
+    int tierMigrationHotFileReadThreshold =
+        Integer.parseInt(
+            properties.getProperty(
+                "tier_migration_hot_file_read_threshold",
+                Integer.toString(conf.getTierMigrationHotFileReadThreshold())));
+    if (tierMigrationHotFileReadThreshold > 0) {
+      conf.setTierMigrationHotFileReadThreshold(tierMigrationHotFileReadThreshold);
+    }
+
     conf.setBatchSize(
         Integer.parseInt(
             properties.getProperty("batch_size", Integer.toString(conf.getBatchSize()))));
@@ -396,6 +429,52 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "tvlist_sort_threshold", Integer.toString(conf.getTvListSortThreshold()))));
 
+    conf.setBackgroundSortMemTableDatabases(
+        Arrays.stream(properties.getProperty("background_sort_memtable_databases", "").split(","))
+            .map(String::trim)
+            .filter(database -> !database.isEmpty())
+            .collect(Collectors.toSet()));
+
+    conf.setBackgroundSortMemTableHandoverThreshold(
+        Integer.parseInt(
+            properties.getProperty(
+                "background_sort_memtable_handover_threshold",
+                Integer.toString(conf.getBackgroundSortMemTableHandoverThreshold()))));
+
+    int memTableSortThreadCount =
+        Integer.parseInt(
+            properties.getProperty(
+                "memtable_sort_thread_count", Integer.toString(conf.getMemTableSortThreadCount())));
+    if (memTableSortThreadCount > 0) {
+      conf.setMemTableSortThreadCount(memTableSortThreadCount);
+    }
+
+    conf.setEnableMemTableSnapshotRead(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_memtable_snapshot_read",
+                Boolean.toString(conf.isEnableMemTableSnapshotRead()))));
+    int memTableSnapshotReadSealThreshold =
+        Integer.parseInt(
+            properties.getProperty(
+                "memtable_snapshot_read_seal_threshold",
+                Integer.toString(conf.getMemTableSnapshotReadSealThreshold())));
+    if (memTableSnapshotReadSealThreshold > 0) {
+      conf.setMemTableSnapshotReadSealThreshold(memTableSnapshotReadSealThreshold);
+    }
+
+    conf.setEnableCostBasedFlushSelection(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_cost_based_flush_selection",
+                Boolean.toString(conf.isEnableCostBasedFlushSelection()))));
+
+    conf.setUnseqFlushCoalesceFileSize(
+        Long.parseLong(
+            properties.getProperty(
+                "unseq_flush_coalesce_file_size_in_byte",
+                Long.toString(conf.getUnseqFlushCoalesceFileSize()))));
+
     conf.setCheckPeriodWhenInsertBlocked(
         Integer.parseInt(
             properties.getProperty(
@@ -492,6 +571,12 @@ public class IoTDBDescriptor {
     subtaskNum = subtaskNum <= 0 ? 1 : subtaskNum;
     conf.setSubCompactionTaskNum(subtaskNum);
 
+    conf.setEnableParallelAlignedDeviceCompaction(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_parallel_aligned_device_compaction",
+                Boolean.toString(conf.isEnableParallelAlignedDeviceCompaction()))));
+
     int compactionScheduleThreadNum =
         Integer.parseInt(
             properties.getProperty(
@@ -554,6 +639,12 @@ public class IoTDBDescriptor {
       conf.setDegreeOfParallelism(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
     }
 
+    conf.setMinDevicesPerTableScanPipeline(
+        Integer.parseInt(
+            properties.getProperty(
+                "min_devices_per_table_scan_pipeline",
+                Integer.toString(conf.getMinDevicesPerTableScanPipeline()))));
+
     conf.setMergeThresholdOfExplainAnalyze(
         Integer.parseInt(
             properties.getProperty(
@@ -668,6 +759,12 @@ public class IoTDBDescriptor {
                 "inner_compaction_candidate_file_num",
                 Integer.toString(conf.getInnerCompactionCandidateFileNum()))));
 
+    conf.setEnableQueryAwareCompaction(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_query_aware_compaction",
+                Boolean.toString(conf.isEnableQueryAwareCompaction()))));
+
     conf.setFileLimitPerCrossTask(
         Integer.parseInt(
             properties.getProperty(
@@ -704,6 +801,24 @@ public class IoTDBDescriptor {
                 "compaction_read_operation_per_sec",
                 Integer.toString(conf.getCompactionReadOperationPerSec()))));
 
+    conf.setCompactionReadThroughputMbPerSecPerDisk(
+        Integer.parseInt(
+            properties.getProperty(
+                "compaction_read_throughput_mb_per_sec_per_disk",
+                Integer.toString(conf.getCompactionReadThroughputMbPerSecPerDisk()))));
+
+    conf.setCompactionReadAheadSize(
+        Integer.parseInt(
+            properties.getProperty(
+                "compaction_read_ahead_size_in_byte",
+                Integer.toString(conf.getCompactionReadAheadSize()))));
+
+    conf.setCompactionReadBackoffLatencyThresholdInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "compaction_read_backoff_latency_threshold_in_ms",
+                Long.toString(conf.getCompactionReadBackoffLatencyThresholdInMs()))));
+
     conf.setEnableTsFileValidation(
         Boolean.parseBoolean(
             properties.getProperty(
@@ -714,6 +829,35 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "enable_topk_runtime_filter", String.valueOf(conf.isEnableTopKRuntimeFilter()))));
 
+    conf.setRollupIndexIntervalInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "rollup_index_interval_in_ms", String.valueOf(conf.getRollupIndexIntervalInMs()))));
+
+    conf.setQueryResultCacheSizeInBytes(
+        Long.parseLong(
+            properties.getProperty(
+                "query_result_cache_size_in_bytes",
+                String.valueOf(conf.getQueryResultCacheSizeInBytes()))));
+
+    conf.setQueryResultCacheExpireTimeInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "query_result_cache_expire_time_in_ms",
+                String.valueOf(conf.getQueryResultCacheExpireTimeInMs()))));
+
+    conf.setPreparedStatementPlanCacheSize(
+        Integer.parseInt(
+            properties.getProperty(
+                "prepared_statement_plan_cache_size",
+                String.valueOf(conf.getPreparedStatementPlanCacheSize()))));
+
+    conf.setContinuousQueryIncrementalModeEnabled(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "continuous_query_incremental_mode_enabled",
+                String.valueOf(conf.isContinuousQueryIncrementalModeEnabled()))));
+
     conf.setCandidateCompactionTaskQueueSize(
         Integer.parseInt(
             properties.getProperty(
@@ -830,6 +974,20 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "slow_query_threshold", String.valueOf(conf.getSlowQueryThreshold()))));
 
+    conf.setQueryTraceSampleRatio(
+        Double.parseDouble(
+            properties.getProperty(
+                "query_trace_sample_ratio", String.valueOf(conf.getQueryTraceSampleRatio()))));
+
+    conf.setQueryTraceRetainedSpanNum(
+        Integer.parseInt(
+            properties.getProperty(
+                "query_trace_retained_span_num",
+                String.valueOf(conf.getQueryTraceRetainedSpanNum()))));
+
+    conf.setQueryTraceExportDir(
+        properties.getProperty("query_trace_export_dir", conf.getQueryTraceExportDir()).trim());
+
     conf.setQueryCostStatWindow(
         Integer.parseInt(
             properties.getProperty(
@@ -1104,6 +1262,12 @@ public class IoTDBDescriptor {
         properties.getProperty(
             "datanode_schema_cache_eviction_policy", conf.getDataNodeSchemaCacheEvictionPolicy()));
 
+    conf.setInsertTabletShapeCacheSize(
+        Integer.parseInt(
+            properties.getProperty(
+                "insert_tablet_shape_cache_size",
+                String.valueOf(conf.getInsertTabletShapeCacheSize()))));
+
     conf.setCacheEvictionMemoryComputationThreshold(
         Integer.parseInt(
             properties.getProperty(
@@ -2192,6 +2356,13 @@ public class IoTDBDescriptor {
               properties.getProperty(
                   "slow_query_threshold",
                   ConfigurationFileUtils.getConfigurationDefaultValue("slow_query_threshold"))));
+      // update query_trace_sample_ratio
+      conf.setQueryTraceSampleRatio(
+          Double.parseDouble(
+              properties.getProperty(
+                  "query_trace_sample_ratio",
+                  ConfigurationFileUtils.getConfigurationDefaultValue(
+                      "query_trace_sample_ratio"))));
       // update query_cost_stat_window
       conf.setQueryCostStatWindow(
           Integer.parseInt(
@@ -2753,6 +2924,16 @@ public class IoTDBDescriptor {
                 "load_tsfile_split_partition_max_size",
                 Integer.toString(conf.getLoadTsFileSpiltPartitionMaxSize()))));
 
+    conf.setLoadTsFileSplitParallelism(
+        Integer.parseInt(
+            properties.getProperty(
+                "load_tsfile_split_parallelism",
+                Integer.toString(conf.getLoadTsFileSplitParallelism()))));
+    if (conf.getLoadTsFileSplitParallelism() <= 0) {
+      conf.setLoadTsFileSplitParallelism(
+          Math.max(1, Runtime.getRuntime().availableProcessors() / 4));
+    }
+
     conf.setLoadTsFileStatementSplitThreshold(
         Integer.parseInt(
             properties.getProperty(
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.cq;
+
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.commons.conf.IoTDBConstant.ClientVersion;
+import org.apache.iotdb.db.protocol.session.IClientSession;
+import org.apache.iotdb.db.protocol.session.InternalClientSession;
+import org.apache.iotdb.db.protocol.session.SessionManager;
+import org.apache.iotdb.db.protocol.thrift.OperationType;
+import org.apache.iotdb.db.queryengine.plan.Coordinator;
+import org.apache.iotdb.db.queryengine.plan.analyze.ClusterPartitionFetcher;
+import org.apache.iotdb.db.queryengine.plan.analyze.schema.ClusterSchemaFetcher;
+import org.apache.iotdb.db.queryengine.plan.execution.ExecutionResult;
+import org.apache.iotdb.db.queryengine.plan.execution.IQueryExecution;
+import org.apache.iotdb.db.queryengine.plan.expression.Expression;
+import org.apache.iotdb.db.queryengine.plan.expression.binary.GreaterEqualExpression;
+import org.apache.iotdb.db.queryengine.plan.expression.binary.LessThanExpression;
+import org.apache.iotdb.db.queryengine.plan.expression.binary.LogicAndExpression;
+import org.apache.iotdb.db.queryengine.plan.expression.leaf.ConstantOperand;
+import org.apache.iotdb.db.queryengine.plan.expression.leaf.TimestampOperand;
+import org.apache.iotdb.db.queryengine.plan.parser.StatementGenerator;
+import org.apache.iotdb.db.queryengine.plan.statement.component.WhereCondition;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.QueryStatement;
+import org.apache.iotdb.db.utils.SetThreadName;
+import org.apache.iotdb.mpp.rpc.thrift.TExecuteCQ;
+import org.apache.iotdb.rpc.RpcUtils;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+
+import java.time.ZoneId;
+import java.util.Optional;
+
+import static org.apache.iotdb.db.utils.ErrorHandlingUtils.onQueryException;
+
+/** Executes the query body of a continuous query over one time range. */
+public class ContinuousQueryExecutor {
+
+  private static final SessionManager SESSION_MANAGER = SessionManager.getInstance();
+
+  private static final Coordinator COORDINATOR = Coordinator.getInstance();
+
+  private ContinuousQueryExecutor() {
+    // util class
+  }
+
+  public static TSStatus execute(TExecuteCQ req) {
+    IClientSession session = new InternalClientSession(req.cqId);
+
+    SESSION_MANAGER.registerSession(session);
+
+    SESSION_MANAGER.supplySession(
+        session,
+        // TODO: User the real userId
+        -1,
+        req.getUsername(),
+        ZoneId.of(req.getZoneId()),
+        ClientVersion.V_1_0);
+
+    String executedSQL = req.queryBody;
+
+    try {
+      QueryStatement s =
+          (QueryStatement) StatementGenerator.createStatement(req.queryBody, session.getZoneId());
+      if (s == null) {
+        return RpcUtils.getStatus(
+            TSStatusCode.SQL_PARSE_ERROR, "This operation type is not supported");
+      }
+
+      // 1. Add time filter in where
+      Expression timeFilter =
+          new LogicAndExpression(
+              new GreaterEqualExpression(
+                  new TimestampOperand(),
+                  new ConstantOperand(TSDataType.INT64, String.valueOf(req.startTime))),
+              new LessThanExpression(
+                  new TimestampOperand(),
+                  new ConstantOperand(TSDataType.INT64, String.valueOf(req.endTime))));
+      if (s.getWhereCondition() != null) {
+        s.getWhereCondition()
+            .setPredicate(new LogicAndExpression(timeFilter, s.getWhereCondition().getPredicate()));
+      } else {
+        s.setWhereCondition(new WhereCondition(timeFilter));
+      }
+
+      // 2. Add time range in group by time
+      if (s.getGroupByTimeComponent() != null) {
+        s.getGroupByTimeComponent().setStartTime(req.startTime);
+        s.getGroupByTimeComponent().setEndTime(req.endTime);
+        s.getGroupByTimeComponent().setLeftCRightO(true);
+      }
+      executedSQL = String.join(" ", s.constructFormattedSQL().split("\n")).replaceAll(" +", " ");
+
+      long queryId =
+          SESSION_MANAGER.requestQueryId(session, SESSION_MANAGER.requestStatementId(session));
+      // Create and cache dataset
+      ExecutionResult result =
+          COORDINATOR.executeForTreeModel(
+              s,
+              queryId,
+              SESSION_MANAGER.getSessionInfo(session),
+              executedSQL,
+              ClusterPartitionFetcher.getInstance(),
+              ClusterSchemaFetcher.getInstance(),
+              req.getTimeout(),
+              false,
+              false);
+
+      if (result.status.code != TSStatusCode.SUCCESS_STATUS.getStatusCode()
+          && result.status.code != TSStatusCode.REDIRECTION_RECOMMEND.getStatusCode()) {
+        return result.status;
+      }
+
+      IQueryExecution queryExecution = COORDINATOR.getQueryExecution(queryId);
+
+      try (SetThreadName threadName = new SetThreadName(result.queryId.getId())) {
+        if (queryExecution != null) {
+          // Consume up all the result
+          while (true) {
+            Optional<TsBlock> optionalTsBlock = queryExecution.getBatchResult();
+            if (!optionalTsBlock.isPresent()) {
+              break;
+            }
+          }
+        }
+        return result.status;
+      }
+    } catch (Exception e) {
+      return onQueryException(e, "\"" + executedSQL + "\". " + OperationType.EXECUTE_STATEMENT);
+    } finally {
+      SESSION_MANAGER.closeSession(session, COORDINATOR::cleanupQueryExecution);
+      SESSION_MANAGER.removeCurrSession();
+    }
+  }
+}
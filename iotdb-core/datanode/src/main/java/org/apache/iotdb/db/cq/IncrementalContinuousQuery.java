@@ -0,0 +1,638 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.cq;
+
+import org.apache.iotdb.common.rpc.thrift.TAggregationType;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.queryengine.common.SessionInfo;
+import org.apache.iotdb.commons.utils.TimePartitionUtils;
+import org.apache.iotdb.confignode.rpc.thrift.TCQEntry;
+import org.apache.iotdb.db.protocol.client.DataNodeInternalClient;
+import org.apache.iotdb.db.queryengine.plan.analyze.SelectIntoUtils;
+import org.apache.iotdb.db.queryengine.plan.expression.Expression;
+import org.apache.iotdb.db.queryengine.plan.expression.leaf.TimeSeriesOperand;
+import org.apache.iotdb.db.queryengine.plan.expression.multi.FunctionExpression;
+import org.apache.iotdb.db.queryengine.plan.parser.StatementGenerator;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertRowNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertTabletNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.AggregationDescriptor;
+import org.apache.iotdb.db.queryengine.plan.statement.Statement;
+import org.apache.iotdb.db.queryengine.plan.statement.component.GroupByTimeComponent;
+import org.apache.iotdb.db.queryengine.plan.statement.component.IntoComponent;
+import org.apache.iotdb.db.queryengine.plan.statement.component.ResultColumn;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowStatement;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.QueryStatement;
+import org.apache.iotdb.mpp.rpc.thrift.TExecuteCQ;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.BitMap;
+import org.apache.tsfile.utils.TimeDuration;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * A continuous query whose windows are maintained from the written points instead of being
+ * computed by query on every execution. Only the aggregations over single series with tumbling
+ * windows are eligible, see {@link #tryCreate}.
+ *
+ * <p>Every data region led by this DataNode keeps the partial results of the windows which may be
+ * computed again by the scheduled executions. A window is written to the target series once it is
+ * closed and whenever it is changed later. The windows which can not be maintained from the points
+ * of one region, e.g. the ones written before the maintenance started, changed by deletion or
+ * receiving a point not later than the points folded before, are computed by query over their time
+ * range instead.
+ */
+public class IncrementalContinuousQuery {
+
+  private final String cqId;
+  private final String sql;
+  private final String queryBody;
+  private final long everyInterval;
+  private final long boundaryTime;
+  private final long startTimeOffset;
+  private final long endTimeOffset;
+  private final String zoneId;
+  private final String username;
+
+  /** The length of the windows. */
+  private final long interval;
+
+  /** The start time of every window is origin + k * interval. */
+  private final long origin;
+
+  private final TAggregationType[] aggregationTypes;
+  private final List<PartialPath> sourcePaths;
+  private final PartialPath[] targetDevices;
+  private final String[] targetMeasurements;
+  private final boolean[] isTargetAligned;
+
+  /** Source device -> source measurement -> indexes of the result columns aggregating it. */
+  private final Map<String, Map<String, List<Integer>>> sourceColumnIndexes;
+
+  private final Map<Integer, RegionState> regionStates = new ConcurrentHashMap<>();
+
+  /** The start time of the windows to be computed by query. */
+  private final NavigableSet<Long> windowsToQuery = new ConcurrentSkipListSet<>();
+
+  private DataNodeInternalClient client;
+
+  private IncrementalContinuousQuery(
+      TCQEntry entry,
+      long interval,
+      TAggregationType[] aggregationTypes,
+      List<PartialPath> sourcePaths,
+      PartialPath[] targetDevices,
+      String[] targetMeasurements,
+      boolean[] isTargetAligned) {
+    this.cqId = entry.getCqId();
+    this.sql = entry.getSql();
+    this.queryBody = entry.getQueryBody();
+    this.everyInterval = entry.getEveryInterval();
+    this.boundaryTime = entry.getBoundaryTime();
+    this.startTimeOffset = entry.getStartTimeOffset();
+    this.endTimeOffset = entry.getEndTimeOffset();
+    this.zoneId = entry.getZoneId();
+    this.username = entry.getUsername();
+    this.interval = interval;
+    this.origin = Math.floorMod(boundaryTime - startTimeOffset, interval);
+    this.aggregationTypes = aggregationTypes;
+    this.sourcePaths = sourcePaths;
+    this.targetDevices = targetDevices;
+    this.targetMeasurements = targetMeasurements;
+    this.isTargetAligned = isTargetAligned;
+    this.sourceColumnIndexes = new HashMap<>();
+    for (int i = 0; i < sourcePaths.size(); i++) {
+      PartialPath sourcePath = sourcePaths.get(i);
+      sourceColumnIndexes
+          .computeIfAbsent(sourcePath.getDevicePath().getFullPath(), k -> new HashMap<>())
+          .computeIfAbsent(sourcePath.getMeasurement(), k -> new ArrayList<>())
+          .add(i);
+    }
+  }
+
+  /**
+   * Create the incremental form of a continuous query.
+   *
+   * @return null if the query is not eligible, it is executed as usual then
+   */
+  public static IncrementalContinuousQuery tryCreate(TCQEntry entry) {
+    if (!entry.isSetQueryBody() || !entry.isSetZoneId() || entry.getEveryInterval() <= 0) {
+      return null;
+    }
+    Statement statement;
+    try {
+      statement =
+          StatementGenerator.createStatement(entry.getQueryBody(), ZoneId.of(entry.getZoneId()));
+    } catch (Exception e) {
+      return null;
+    }
+    if (!(statement instanceof QueryStatement) || !isEligible((QueryStatement) statement)) {
+      return null;
+    }
+    QueryStatement queryStatement = (QueryStatement) statement;
+
+    long interval = queryStatement.getGroupByTimeComponent().getInterval().nonMonthDuration;
+    long lookbackLength = entry.getStartTimeOffset() - entry.getEndTimeOffset();
+    if (interval <= 0
+        || entry.getEveryInterval() % interval != 0
+        || lookbackLength <= 0
+        || lookbackLength % interval != 0) {
+      // the scheduled executions would produce windows off the grid of the previous ones
+      return null;
+    }
+
+    List<ResultColumn> resultColumns = queryStatement.getSelectComponent().getResultColumns();
+    List<Expression> expressions = new ArrayList<>();
+    for (ResultColumn resultColumn : resultColumns) {
+      expressions.add(resultColumn.getExpression());
+    }
+    IntoComponent intoComponent = queryStatement.getIntoComponent();
+    try {
+      intoComponent.validate(expressions);
+    } catch (Exception e) {
+      return null;
+    }
+
+    PartialPath prefixPath = queryStatement.getFromComponent().getPrefixPaths().get(0);
+    int columnCount = resultColumns.size();
+    TAggregationType[] aggregationTypes = new TAggregationType[columnCount];
+    List<PartialPath> sourcePaths = new ArrayList<>();
+    PartialPath[] targetDevices = new PartialPath[columnCount];
+    String[] targetMeasurements = new String[columnCount];
+    boolean[] isTargetAligned = new boolean[columnCount];
+    IntoComponent.IntoPathIterator intoPathIterator = intoComponent.getIntoPathIterator();
+    for (int i = 0; i < columnCount; i++) {
+      ResultColumn resultColumn = resultColumns.get(i);
+      if (resultColumn.hasAlias()
+          || !(resultColumn.getExpression() instanceof FunctionExpression)) {
+        return null;
+      }
+      FunctionExpression functionExpression = (FunctionExpression) resultColumn.getExpression();
+      if (!functionExpression.getFunctionAttributes().isEmpty()
+          || functionExpression.getExpressions().size() != 1
+          || !(functionExpression.getExpressions().get(0) instanceof TimeSeriesOperand)) {
+        return null;
+      }
+      TAggregationType aggregationType =
+          AggregationDescriptor.getAggregationTypeByFuncName(
+              functionExpression.getFunctionName());
+      if (!PartialAggregation.isSupported(aggregationType)) {
+        return null;
+      }
+      PartialPath sourcePath =
+          prefixPath.concatPath(
+              ((TimeSeriesOperand) functionExpression.getExpressions().get(0)).getPath());
+      if (sourcePath.hasWildcard()) {
+        return null;
+      }
+      PartialPath targetPath =
+          SelectIntoUtils.constructTargetPathWithoutPlaceHolder(
+              intoPathIterator.getDeviceTemplate(), intoPathIterator.getMeasurementTemplate());
+      aggregationTypes[i] = aggregationType;
+      sourcePaths.add(sourcePath);
+      targetDevices[i] = targetPath.getDevicePath();
+      targetMeasurements[i] = targetPath.getMeasurement();
+      isTargetAligned[i] = intoPathIterator.isAlignedDevice();
+      intoPathIterator.next();
+    }
+    return new IncrementalContinuousQuery(
+        entry,
+        interval,
+        aggregationTypes,
+        sourcePaths,
+        targetDevices,
+        targetMeasurements,
+        isTargetAligned);
+  }
+
+  private static boolean isEligible(QueryStatement statement) {
+    if (!statement.isSelectInto()
+        || statement.isAlignByDevice()
+        || !statement.isGroupByTime()
+        || statement.getGroupByComponent() != null
+        || statement.isGroupByLevel()
+        || statement.isGroupByTag()
+        || statement.isOutputEndTime()
+        || statement.isLastQuery()
+        || statement.hasWhere()
+        || statement.hasHaving()
+        || statement.hasFill()
+        || statement.hasOrderBy()
+        || statement.hasLimit()
+        || statement.hasOffset()
+        || statement.getSeriesLimit() != 0
+        || statement.getSeriesOffset() != 0
+        || statement.getIntoComponent().isDeviceExistPlaceholder()
+        || statement.getIntoComponent().isMeasurementsExistPlaceholder()
+        || statement.getFromComponent().getPrefixPaths().size() != 1
+        || statement.getFromComponent().getPrefixPaths().get(0).hasWildcard()) {
+      return false;
+    }
+    GroupByTimeComponent groupByTimeComponent = statement.getGroupByTimeComponent();
+    TimeDuration interval = groupByTimeComponent.getInterval();
+    TimeDuration slidingStep = groupByTimeComponent.getSlidingStep();
+    return !interval.containsMonth()
+        && (slidingStep == null
+            || (!slidingStep.containsMonth()
+                && slidingStep.nonMonthDuration == interval.nonMonthDuration));
+  }
+
+  public String getCqId() {
+    return cqId;
+  }
+
+  /** Whether this is the incremental form of the given definition. */
+  public boolean isDefinedBy(TCQEntry entry) {
+    return cqId.equals(entry.getCqId())
+        && sql.equals(entry.getSql())
+        && boundaryTime == entry.getBoundaryTime();
+  }
+
+  public Set<String> getSourceDevices() {
+    return sourceColumnIndexes.keySet();
+  }
+
+  public boolean isAffectedBy(Collection<? extends PartialPath> pathPatterns) {
+    for (PartialPath pathPattern : pathPatterns) {
+      for (PartialPath sourcePath : sourcePaths) {
+        if (pathPattern.matchFullPath(sourcePath)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  long getWindowStartTime(long time) {
+    return time - Math.floorMod(time - origin, interval);
+  }
+
+  /** A closed window will not receive any point from the scheduled executions' point of view. */
+  private boolean isClosed(long windowStartTime, long now) {
+    return windowStartTime + interval + endTimeOffset <= now;
+  }
+
+  /** An expired window will never be computed again by the scheduled executions. */
+  private boolean isExpired(long windowStartTime, long now) {
+    return windowStartTime + startTimeOffset < now;
+  }
+
+  /** A window spanning time partitions may be written to more than one region. */
+  private boolean isCrossingTimePartitions(long windowStartTime) {
+    return TimePartitionUtils.getTimePartitionId(windowStartTime)
+        != TimePartitionUtils.getTimePartitionId(windowStartTime + interval - 1);
+  }
+
+  /** Fold the points of a row or a tablet of a source device written to the region. */
+  public void fold(int regionId, InsertNode insertNode, long now) {
+    Map<String, List<Integer>> measurementColumnIndexes =
+        sourceColumnIndexes.get(insertNode.getTargetPath().getFullPath());
+    if (measurementColumnIndexes == null) {
+      return;
+    }
+    String[] measurements = insertNode.getMeasurements();
+    TSDataType[] dataTypes = insertNode.getDataTypes();
+    RegionState regionState = regionStates.computeIfAbsent(regionId, k -> new RegionState(now));
+    synchronized (regionState) {
+      for (int i = 0; i < measurements.length; i++) {
+        // the measurement is null if it failed to be written
+        List<Integer> columnIndexes =
+            measurements[i] == null ? null : measurementColumnIndexes.get(measurements[i]);
+        if (columnIndexes == null || dataTypes[i] == null) {
+          continue;
+        }
+        TSDataType dataType = dataTypes[i];
+        boolean isSupportedValueType = PartialAggregation.isSupportedValueType(dataType);
+        if (insertNode instanceof InsertRowNode) {
+          InsertRowNode insertRowNode = (InsertRowNode) insertNode;
+          Object value = insertRowNode.getValues()[i];
+          if (value != null) {
+            fold(
+                regionState,
+                columnIndexes,
+                insertRowNode.getTime(),
+                dataType,
+                isSupportedValueType ? value : null,
+                now);
+          }
+        } else if (insertNode instanceof InsertTabletNode) {
+          InsertTabletNode insertTabletNode = (InsertTabletNode) insertNode;
+          long[] times = insertTabletNode.getTimes();
+          Object column = insertTabletNode.getColumns()[i];
+          BitMap bitMap =
+              insertTabletNode.getBitMaps() == null ? null : insertTabletNode.getBitMaps()[i];
+          for (int row = 0; row < insertTabletNode.getRowCount(); row++) {
+            if (bitMap != null && bitMap.isMarked(row)) {
+              continue;
+            }
+            fold(
+                regionState,
+                columnIndexes,
+                times[row],
+                dataType,
+                isSupportedValueType ? getValue(column, dataType, row) : null,
+                now);
+          }
+        }
+      }
+    }
+  }
+
+  private static Object getValue(Object column, TSDataType dataType, int row) {
+    switch (dataType) {
+      case BOOLEAN:
+        return ((boolean[]) column)[row];
+      case INT32:
+        return ((int[]) column)[row];
+      case INT64:
+        return ((long[]) column)[row];
+      case FLOAT:
+        return ((float[]) column)[row];
+      case DOUBLE:
+        return ((double[]) column)[row];
+      default:
+        return null;
+    }
+  }
+
+  private void fold(
+      RegionState regionState,
+      List<Integer> columnIndexes,
+      long time,
+      TSDataType dataType,
+      Object value,
+      long now) {
+    long windowStartTime = getWindowStartTime(time);
+    if (isExpired(windowStartTime, now)) {
+      return;
+    }
+    if (windowStartTime < regionState.activationTime
+        || isCrossingTimePartitions(windowStartTime)) {
+      // the region may hold points of the window which are not folded
+      windowsToQuery.add(windowStartTime);
+      return;
+    }
+    WindowState windowState =
+        regionState.windows.computeIfAbsent(
+            windowStartTime, k -> new WindowState(aggregationTypes.length));
+    if (windowState.isQueryBacked) {
+      windowsToQuery.add(windowStartTime);
+      return;
+    }
+    // the columns aggregating the same series share the first index as the series slot
+    int seriesIndex = columnIndexes.get(0);
+    if (time <= windowState.lastFoldedTimes[seriesIndex]) {
+      // the point may overwrite a folded one, e.g. written again by a retry, which would be
+      // counted twice, so the window is computed by query from the stored points instead
+      windowState.isQueryBacked = true;
+      windowsToQuery.add(windowStartTime);
+      return;
+    }
+    windowState.lastFoldedTimes[seriesIndex] = time;
+    for (int columnIndex : columnIndexes) {
+      if (!windowState.getPartialAggregation(columnIndex, aggregationTypes[columnIndex])
+          .update(time, dataType, value)) {
+        windowState.isQueryBacked = true;
+        windowsToQuery.add(windowStartTime);
+        return;
+      }
+    }
+    windowState.isDirty = true;
+  }
+
+  /**
+   * Mark the windows overlapping [startTime, endTime] whose points may have been changed without
+   * being folded, they are computed by query once closed.
+   */
+  public void markWindowsToQuery(long startTime, long endTime, long now) {
+    if (startTime > endTime) {
+      return;
+    }
+    long lastWindowStartTime = getWindowStartTime(Math.min(endTime, now));
+    for (long windowStartTime = getWindowStartTime(Math.max(startTime, now - startTimeOffset));
+        windowStartTime <= lastWindowStartTime;
+        windowStartTime += interval) {
+      if (!isExpired(windowStartTime, now)) {
+        windowsToQuery.add(windowStartTime);
+      }
+    }
+    // the windows ahead of now may have been folded
+    long firstWindowStartTime =
+        startTime < Long.MIN_VALUE + interval ? Long.MIN_VALUE : getWindowStartTime(startTime);
+    for (RegionState regionState : regionStates.values()) {
+      synchronized (regionState) {
+        for (Map.Entry<Long, WindowState> entry :
+            regionState.windows.subMap(firstWindowStartTime, true, endTime, true).entrySet()) {
+          entry.getValue().isQueryBacked = true;
+          windowsToQuery.add(entry.getKey());
+        }
+      }
+    }
+  }
+
+  /**
+   * Forget the partial results of a region, e.g. when this DataNode becomes the leader of it, the
+   * points written before are not known.
+   */
+  public void resetRegion(int regionId, long now) {
+    regionStates.remove(regionId);
+    markWindowsToQuery(Long.MIN_VALUE, Long.MAX_VALUE, now);
+  }
+
+  /**
+   * Collect the rows of the closed windows changed since the last collection. The partial results
+   * of the regions not led by this DataNode any more and of the expired windows are dropped.
+   */
+  public List<InsertRowStatement> collectResults(Set<Integer> leaderRegionIds, long now) {
+    regionStates.keySet().retainAll(leaderRegionIds);
+    List<InsertRowStatement> results = new ArrayList<>();
+    for (RegionState regionState : regionStates.values()) {
+      synchronized (regionState) {
+        Iterator<Map.Entry<Long, WindowState>> iterator =
+            regionState.windows.entrySet().iterator();
+        while (iterator.hasNext()) {
+          Map.Entry<Long, WindowState> entry = iterator.next();
+          long windowStartTime = entry.getKey();
+          if (!isClosed(windowStartTime, now)) {
+            break;
+          }
+          WindowState windowState = entry.getValue();
+          if (windowState.isDirty
+              && !windowState.isQueryBacked
+              && !windowsToQuery.contains(windowStartTime)) {
+            constructResults(windowStartTime, windowState, results);
+            windowState.isDirty = false;
+          }
+          if (isExpired(windowStartTime, now)) {
+            iterator.remove();
+          }
+        }
+      }
+    }
+    return results;
+  }
+
+  private void constructResults(
+      long windowStartTime, WindowState windowState, List<InsertRowStatement> results) {
+    Map<PartialPath, List<Integer>> targetDeviceColumnIndexes = new LinkedHashMap<>();
+    for (int i = 0; i < windowState.partialAggregations.length; i++) {
+      PartialAggregation partialAggregation = windowState.partialAggregations[i];
+      if (partialAggregation != null && !partialAggregation.isEmpty()) {
+        targetDeviceColumnIndexes
+            .computeIfAbsent(targetDevices[i], k -> new ArrayList<>())
+            .add(i);
+      }
+    }
+    for (Map.Entry<PartialPath, List<Integer>> entry : targetDeviceColumnIndexes.entrySet()) {
+      List<Integer> columnIndexes = entry.getValue();
+      String[] measurements = new String[columnIndexes.size()];
+      TSDataType[] dataTypes = new TSDataType[columnIndexes.size()];
+      Object[] values = new Object[columnIndexes.size()];
+      for (int i = 0; i < columnIndexes.size(); i++) {
+        int columnIndex = columnIndexes.get(i);
+        PartialAggregation partialAggregation = windowState.partialAggregations[columnIndex];
+        measurements[i] = targetMeasurements[columnIndex];
+        dataTypes[i] = partialAggregation.getOutputDataType();
+        values[i] = partialAggregation.getResult();
+      }
+      InsertRowStatement insertRowStatement = new InsertRowStatement();
+      insertRowStatement.setDevicePath(entry.getKey());
+      insertRowStatement.setTime(windowStartTime);
+      insertRowStatement.setMeasurements(measurements);
+      insertRowStatement.setDataTypes(dataTypes);
+      insertRowStatement.setValues(values);
+      insertRowStatement.setAligned(isTargetAligned[columnIndexes.get(0)]);
+      insertRowStatement.setNeedInferType(false);
+      results.add(insertRowStatement);
+    }
+  }
+
+  /**
+   * Poll the closed windows to be computed by query, the adjacent windows are merged into one
+   * time range.
+   *
+   * @return the time ranges as [startTime, endTime)
+   */
+  public List<long[]> pollTimeRangesToQuery(long now) {
+    List<long[]> timeRanges = new ArrayList<>();
+    Iterator<Long> iterator = windowsToQuery.iterator();
+    while (iterator.hasNext()) {
+      long windowStartTime = iterator.next();
+      if (!isClosed(windowStartTime, now)) {
+        break;
+      }
+      iterator.remove();
+      if (isExpired(windowStartTime, now)) {
+        continue;
+      }
+      long[] lastTimeRange = timeRanges.isEmpty() ? null : timeRanges.get(timeRanges.size() - 1);
+      if (lastTimeRange != null && lastTimeRange[1] == windowStartTime) {
+        lastTimeRange[1] = windowStartTime + interval;
+      } else {
+        timeRanges.add(new long[] {windowStartTime, windowStartTime + interval});
+      }
+    }
+    return timeRanges;
+  }
+
+  /** Compute the windows in [startTime, endTime) by query again later. */
+  public void requeue(long startTime, long endTime) {
+    for (long windowStartTime = getWindowStartTime(startTime);
+        windowStartTime < endTime;
+        windowStartTime += interval) {
+      windowsToQuery.add(windowStartTime);
+    }
+  }
+
+  public TExecuteCQ toExecuteCQReq(long startTime, long endTime) {
+    return new TExecuteCQ(queryBody, startTime, endTime, everyInterval, zoneId, cqId, username);
+  }
+
+  public DataNodeInternalClient getClient() {
+    if (client == null) {
+      client = new DataNodeInternalClient(new SessionInfo(0, username, ZoneId.of(zoneId)));
+    }
+    return client;
+  }
+
+  public void close() {
+    if (client != null) {
+      client.close();
+      client = null;
+    }
+  }
+
+  private static class RegionState {
+
+    /** The windows starting before it may hold points written before the state is created. */
+    private final long activationTime;
+
+    private final TreeMap<Long, WindowState> windows = new TreeMap<>();
+
+    private RegionState(long activationTime) {
+      this.activationTime = activationTime;
+    }
+  }
+
+  private static class WindowState {
+
+    private final PartialAggregation[] partialAggregations;
+
+    /**
+     * The time of the last point folded for each source series, indexed by the first column
+     * aggregating the series. Only the points after it are folded.
+     */
+    private final long[] lastFoldedTimes;
+
+    /** Whether the window is changed since it was written to the target series. */
+    private boolean isDirty;
+
+    /** Whether the window can only be computed by query. */
+    private boolean isQueryBacked;
+
+    private WindowState(int columnCount) {
+      this.partialAggregations = new PartialAggregation[columnCount];
+      this.lastFoldedTimes = new long[columnCount];
+      Arrays.fill(lastFoldedTimes, Long.MIN_VALUE);
+    }
+
+    private PartialAggregation getPartialAggregation(
+        int columnIndex, TAggregationType aggregationType) {
+      if (partialAggregations[columnIndex] == null) {
+        partialAggregations[columnIndex] = new PartialAggregation(aggregationType);
+      }
+      return partialAggregations[columnIndex];
+    }
+  }
+}
@@ -0,0 +1,417 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.cq;
+
+import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.commons.client.IClientManager;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.concurrent.threadpool.ScheduledExecutorUtil;
+import org.apache.iotdb.commons.consensus.ConfigRegionId;
+import org.apache.iotdb.commons.consensus.ConsensusGroupId;
+import org.apache.iotdb.commons.consensus.DataRegionId;
+import org.apache.iotdb.commons.cq.CQState;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.service.IService;
+import org.apache.iotdb.commons.service.ServiceType;
+import org.apache.iotdb.commons.utils.CommonDateTimeUtils;
+import org.apache.iotdb.confignode.rpc.thrift.TCQEntry;
+import org.apache.iotdb.confignode.rpc.thrift.TShowCQResp;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.consensus.DataRegionConsensusImpl;
+import org.apache.iotdb.db.i18n.DataNodeMiscMessages;
+import org.apache.iotdb.db.protocol.client.ConfigNodeClient;
+import org.apache.iotdb.db.protocol.client.ConfigNodeClientManager;
+import org.apache.iotdb.db.protocol.client.ConfigNodeInfo;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.pipe.PipeEnrichedInsertNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertMultiTabletsNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertRowNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertRowsNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertRowsOfOneDeviceNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertTabletNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.RelationalInsertRowNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.RelationalInsertRowsNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.RelationalInsertTabletNode;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowStatement;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowsStatement;
+import org.apache.iotdb.db.storageengine.StorageEngine;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maintains the eligible continuous queries incrementally on the data region leaders of this
+ * DataNode, see {@link IncrementalContinuousQuery}. The maintained queries are reported to the
+ * ConfigNode by heartbeat, which lets a scheduled execution be skipped only if every DataNode
+ * maintains the query.
+ */
+public class IncrementalContinuousQueryManager implements IService {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(IncrementalContinuousQueryManager.class);
+
+  private static final IClientManager<ConfigRegionId, ConfigNodeClient> CONFIG_NODE_CLIENT_MANAGER =
+      ConfigNodeClientManager.getInstance();
+
+  private static final long MAINTAIN_INTERVAL_IN_MS = 5_000L;
+
+  private final boolean isEnabled;
+
+  private final Map<String, IncrementalContinuousQuery> queries = new ConcurrentHashMap<>();
+
+  /** CQ id -> sql of the queries which are not eligible, to avoid parsing them repeatedly. */
+  private final Map<String, String> ineligibleQueries = new HashMap<>();
+
+  /** Source device -> the maintained queries reading it, replaced on every synchronization. */
+  private volatile Map<String, List<IncrementalContinuousQuery>> sourceDeviceQueries =
+      Collections.emptyMap();
+
+  private Set<Integer> leaderRegionIds = Collections.emptySet();
+
+  private ScheduledExecutorService maintainExecutor;
+
+  private Future<?> maintainFuture;
+
+  private IncrementalContinuousQueryManager() {
+    this.isEnabled =
+        IoTDBDescriptor.getInstance().getConfig().isContinuousQueryIncrementalModeEnabled();
+  }
+
+  public static IncrementalContinuousQueryManager getInstance() {
+    return IncrementalContinuousQueryManagerHolder.INSTANCE;
+  }
+
+  public boolean isEnabled() {
+    return isEnabled;
+  }
+
+  /**
+   * Whether the query is maintained by this DataNode. The windows written before it started to be
+   * maintained are computed by query here, so once the ConfigNode has seen every DataNode report
+   * the query, the scheduled executions are covered.
+   */
+  public boolean isMaintained(String cqId) {
+    return queries.containsKey(cqId);
+  }
+
+  /** The ids of the maintained queries, reported to the ConfigNode by heartbeat. */
+  public Set<String> getMaintainedCqIds() {
+    return new HashSet<>(queries.keySet());
+  }
+
+  /** Called by the data region leader after the insertion is written. */
+  public void onInsert(ConsensusGroupId regionId, InsertNode insertNode, TSStatus status) {
+    if (sourceDeviceQueries.isEmpty()) {
+      return;
+    }
+    onInsert(
+        regionId.getId(),
+        insertNode instanceof PipeEnrichedInsertNode
+            ? ((PipeEnrichedInsertNode) insertNode).getInsertNode()
+            : insertNode,
+        status.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode(),
+        CommonDateTimeUtils.currentTime());
+  }
+
+  private void onInsert(int regionId, InsertNode insertNode, boolean isSucceeded, long now) {
+    if (insertNode instanceof RelationalInsertRowNode
+        || insertNode instanceof RelationalInsertRowsNode
+        || insertNode instanceof RelationalInsertTabletNode) {
+      return;
+    }
+    if (insertNode instanceof InsertRowsNode) {
+      for (InsertRowNode insertRowNode : ((InsertRowsNode) insertNode).getInsertRowNodeList()) {
+        onInsert(regionId, insertRowNode, isSucceeded, now);
+      }
+    } else if (insertNode instanceof InsertRowsOfOneDeviceNode) {
+      for (InsertRowNode insertRowNode :
+          ((InsertRowsOfOneDeviceNode) insertNode).getInsertRowNodeList()) {
+        onInsert(regionId, insertRowNode, isSucceeded, now);
+      }
+    } else if (insertNode instanceof InsertMultiTabletsNode) {
+      for (InsertTabletNode insertTabletNode :
+          ((InsertMultiTabletsNode) insertNode).getInsertTabletNodeList()) {
+        onInsert(regionId, insertTabletNode, isSucceeded, now);
+      }
+    } else if (insertNode instanceof InsertRowNode || insertNode instanceof InsertTabletNode) {
+      List<IncrementalContinuousQuery> queryList =
+          sourceDeviceQueries.get(insertNode.getTargetPath().getFullPath());
+      if (queryList == null) {
+        return;
+      }
+      for (IncrementalContinuousQuery query : queryList) {
+        if (isSucceeded) {
+          query.fold(regionId, insertNode, now);
+        } else {
+          // the insertion may be written partially
+          markWindowsToQuery(query, insertNode, now);
+        }
+      }
+    }
+  }
+
+  private static void markWindowsToQuery(
+      IncrementalContinuousQuery query, InsertNode insertNode, long now) {
+    if (insertNode instanceof InsertRowNode) {
+      long time = ((InsertRowNode) insertNode).getTime();
+      query.markWindowsToQuery(time, time, now);
+      return;
+    }
+    InsertTabletNode insertTabletNode = (InsertTabletNode) insertNode;
+    long minTime = Long.MAX_VALUE;
+    long maxTime = Long.MIN_VALUE;
+    for (int i = 0; i < insertTabletNode.getRowCount(); i++) {
+      minTime = Math.min(minTime, insertTabletNode.getTimes()[i]);
+      maxTime = Math.max(maxTime, insertTabletNode.getTimes()[i]);
+    }
+    query.markWindowsToQuery(minTime, maxTime, now);
+  }
+
+  /** Called after the series matching the patterns are deleted in [startTime, endTime]. */
+  public void onDelete(
+      Collection<? extends PartialPath> pathPatterns, long startTime, long endTime) {
+    if (queries.isEmpty()) {
+      return;
+    }
+    long now = CommonDateTimeUtils.currentTime();
+    for (IncrementalContinuousQuery query : queries.values()) {
+      if (query.isAffectedBy(pathPatterns)) {
+        query.markWindowsToQuery(startTime, endTime, now);
+      }
+    }
+  }
+
+  /** Called after a TsFile is loaded into the data region. */
+  public void onTsFileLoaded(DataRegionId regionId, TsFileResource resource) {
+    if (sourceDeviceQueries.isEmpty()
+        || !DataRegionConsensusImpl.getInstance().isLeader(regionId)) {
+      return;
+    }
+    long now = CommonDateTimeUtils.currentTime();
+    for (IDeviceID deviceID : resource.getDevices()) {
+      List<IncrementalContinuousQuery> queryList = sourceDeviceQueries.get(deviceID.toString());
+      if (queryList == null) {
+        continue;
+      }
+      long startTime = resource.getStartTime(deviceID).orElse(resource.getFileStartTime());
+      long endTime = resource.getEndTime(deviceID).orElse(resource.getFileEndTime());
+      for (IncrementalContinuousQuery query : queryList) {
+        query.markWindowsToQuery(startTime, endTime, now);
+      }
+    }
+  }
+
+  private void maintain() {
+    try {
+      long now = CommonDateTimeUtils.currentTime();
+      synchronizeQueries(now);
+      updateLeaderRegions(now);
+      for (IncrementalContinuousQuery query : queries.values()) {
+        writeResults(query, now);
+        executeQueries(query, now);
+      }
+    } catch (Exception e) {
+      LOGGER.warn(DataNodeMiscMessages.ERROR_MAINTAINING_INCREMENTAL_CQ, e);
+    }
+  }
+
+  private void synchronizeQueries(long now) throws Exception {
+    List<TCQEntry> entries;
+    try (ConfigNodeClient client =
+        CONFIG_NODE_CLIENT_MANAGER.borrowClient(ConfigNodeInfo.CONFIG_REGION_ID)) {
+      TShowCQResp showCQResp = client.showCQ();
+      if (showCQResp.getStatus().getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+        LOGGER.warn(DataNodeMiscMessages.FAILED_TO_GET_CQ_LIST, showCQResp.getStatus());
+        return;
+      }
+      entries = showCQResp.getCqList();
+    }
+
+    Set<String> activeCqIds = new HashSet<>();
+    for (TCQEntry entry : entries) {
+      if (entry.getState() != CQState.ACTIVE.getType()) {
+        continue;
+      }
+      activeCqIds.add(entry.getCqId());
+      IncrementalContinuousQuery query = queries.get(entry.getCqId());
+      if (query != null && query.isDefinedBy(entry)) {
+        continue;
+      }
+      if (query != null) {
+        // the query is dropped and created again with the same id
+        unregister(query);
+      } else if (entry.getSql().equals(ineligibleQueries.get(entry.getCqId()))) {
+        continue;
+      }
+      query = IncrementalContinuousQuery.tryCreate(entry);
+      if (query == null) {
+        ineligibleQueries.put(entry.getCqId(), entry.getSql());
+        continue;
+      }
+      ineligibleQueries.remove(entry.getCqId());
+      // the windows computed by the next executions may hold points written before
+      query.markWindowsToQuery(Long.MIN_VALUE, Long.MAX_VALUE, now);
+      queries.put(query.getCqId(), query);
+      LOGGER.info(DataNodeMiscMessages.START_MAINTAINING_CQ_INCREMENTALLY, query.getCqId());
+    }
+    ineligibleQueries.keySet().retainAll(activeCqIds);
+    Iterator<IncrementalContinuousQuery> iterator = queries.values().iterator();
+    while (iterator.hasNext()) {
+      IncrementalContinuousQuery query = iterator.next();
+      if (!activeCqIds.contains(query.getCqId())) {
+        iterator.remove();
+        query.close();
+        LOGGER.info(DataNodeMiscMessages.STOP_MAINTAINING_CQ_INCREMENTALLY, query.getCqId());
+      }
+    }
+
+    Map<String, List<IncrementalContinuousQuery>> newSourceDeviceQueries = new HashMap<>();
+    for (IncrementalContinuousQuery query : queries.values()) {
+      for (String sourceDevice : query.getSourceDevices()) {
+        newSourceDeviceQueries.computeIfAbsent(sourceDevice, k -> new ArrayList<>()).add(query);
+      }
+    }
+    sourceDeviceQueries = newSourceDeviceQueries;
+  }
+
+  private void unregister(IncrementalContinuousQuery query) {
+    queries.remove(query.getCqId());
+    query.close();
+    LOGGER.info(DataNodeMiscMessages.STOP_MAINTAINING_CQ_INCREMENTALLY, query.getCqId());
+  }
+
+  private void updateLeaderRegions(long now) {
+    Set<Integer> currentLeaderRegionIds = new HashSet<>();
+    for (DataRegionId regionId : StorageEngine.getInstance().getAllDataRegionIds()) {
+      if (DataRegionConsensusImpl.getInstance().isLeader(regionId)) {
+        currentLeaderRegionIds.add(regionId.getId());
+      }
+    }
+    for (int regionId : currentLeaderRegionIds) {
+      if (!leaderRegionIds.contains(regionId)) {
+        // the points written by the previous leader are not folded here
+        for (IncrementalContinuousQuery query : queries.values()) {
+          query.resetRegion(regionId, now);
+        }
+      }
+    }
+    leaderRegionIds = currentLeaderRegionIds;
+  }
+
+  private void writeResults(IncrementalContinuousQuery query, long now) {
+    List<InsertRowStatement> results = query.collectResults(leaderRegionIds, now);
+    if (results.isEmpty()) {
+      return;
+    }
+    InsertRowsStatement insertRowsStatement = new InsertRowsStatement();
+    insertRowsStatement.setInsertRowStatementList(results);
+    TSStatus status = query.getClient().insertRows(insertRowsStatement);
+    if (status.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+      LOGGER.warn(
+          DataNodeMiscMessages.FAILED_TO_WRITE_INCREMENTAL_CQ_RESULTS, query.getCqId(), status);
+      for (InsertRowStatement result : results) {
+        query.requeue(result.getTime(), result.getTime() + 1);
+      }
+    }
+  }
+
+  private void executeQueries(IncrementalContinuousQuery query, long now) {
+    for (long[] timeRange : query.pollTimeRangesToQuery(now)) {
+      TSStatus status =
+          ContinuousQueryExecutor.execute(query.toExecuteCQReq(timeRange[0], timeRange[1]));
+      if (status.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+        LOGGER.warn(
+            DataNodeMiscMessages.FAILED_TO_EXECUTE_CQ_TIME_RANGE,
+            query.getCqId(),
+            timeRange[0],
+            timeRange[1],
+            status);
+        query.requeue(timeRange[0], timeRange[1]);
+      }
+    }
+  }
+
+  public void clear() {
+    queries.values().forEach(IncrementalContinuousQuery::close);
+    queries.clear();
+    ineligibleQueries.clear();
+    sourceDeviceQueries = Collections.emptyMap();
+    leaderRegionIds = Collections.emptySet();
+  }
+
+  /////////////////////////////// IService ///////////////////////////////
+
+  @Override
+  public void start() {
+    if (!isEnabled || maintainExecutor != null) {
+      return;
+    }
+    maintainExecutor =
+        IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+            ThreadName.INCREMENTAL_CQ_MAINTAINER.getName());
+    maintainFuture =
+        ScheduledExecutorUtil.safelyScheduleWithFixedDelay(
+            maintainExecutor, this::maintain, 0, MAINTAIN_INTERVAL_IN_MS, TimeUnit.MILLISECONDS);
+    LOGGER.info(DataNodeMiscMessages.INCREMENTAL_CQ_MAINTAINER_STARTED);
+  }
+
+  @Override
+  public void stop() {
+    if (maintainExecutor == null) {
+      return;
+    }
+    maintainFuture.cancel(false);
+    maintainExecutor.shutdownNow();
+    maintainFuture = null;
+    maintainExecutor = null;
+    clear();
+    LOGGER.info(DataNodeMiscMessages.INCREMENTAL_CQ_MAINTAINER_STOPPED);
+  }
+
+  @Override
+  public ServiceType getID() {
+    return ServiceType.CONTINUOUS_QUERY_SERVICE;
+  }
+
+  private static class IncrementalContinuousQueryManagerHolder {
+    private static final IncrementalContinuousQueryManager INSTANCE =
+        new IncrementalContinuousQueryManager();
+
+    private IncrementalContinuousQueryManagerHolder() {}
+  }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.cq;
+
+import org.apache.iotdb.common.rpc.thrift.TAggregationType;
+
+import org.apache.tsfile.enums.TSDataType;
+
+/**
+ * The mergeable intermediate result of one aggregation over the points of one window written to
+ * one region. The points must be folded in ascending time order without duplicated timestamps,
+ * since a point overwriting a folded one can not be taken back.
+ */
+public class PartialAggregation {
+
+  private final TAggregationType aggregationType;
+
+  /** The data type of the source series, null before the first point is folded. */
+  private TSDataType dataType;
+
+  private long count;
+  private double sum;
+  private long minTime = Long.MAX_VALUE;
+  private long maxTime = Long.MIN_VALUE;
+  private Object minValue;
+  private Object maxValue;
+  private Object firstValue;
+  private Object lastValue;
+
+  public PartialAggregation(TAggregationType aggregationType) {
+    this.aggregationType = aggregationType;
+  }
+
+  public static boolean isSupported(TAggregationType aggregationType) {
+    switch (aggregationType) {
+      case COUNT:
+      case SUM:
+      case AVG:
+      case MIN_VALUE:
+      case MAX_VALUE:
+      case FIRST_VALUE:
+      case LAST_VALUE:
+      case MIN_TIME:
+      case MAX_TIME:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /** Whether the values of the data type can be folded by {@link #update}. */
+  public static boolean isSupportedValueType(TSDataType dataType) {
+    switch (dataType) {
+      case BOOLEAN:
+      case INT32:
+      case INT64:
+      case FLOAT:
+      case DOUBLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static boolean isNumeric(TSDataType dataType) {
+    return dataType != TSDataType.BOOLEAN && isSupportedValueType(dataType);
+  }
+
+  /**
+   * Fold one point into the partial result.
+   *
+   * @param value the boxed value, may be null if the data type is not supported
+   * @return false if the point can not be folded, the window must be computed by query then
+   */
+  public boolean update(long time, TSDataType dataType, Object value) {
+    if (this.dataType != null && this.dataType != dataType) {
+      return false;
+    }
+    switch (aggregationType) {
+      case COUNT:
+      case MIN_TIME:
+      case MAX_TIME:
+        break;
+      case FIRST_VALUE:
+      case LAST_VALUE:
+        if (value == null) {
+          return false;
+        }
+        break;
+      default:
+        if (value == null || !isNumeric(dataType)) {
+          return false;
+        }
+    }
+    this.dataType = dataType;
+    count++;
+    if (time <= minTime) {
+      minTime = time;
+      firstValue = value;
+    }
+    if (time >= maxTime) {
+      maxTime = time;
+      lastValue = value;
+    }
+    if (isNumeric(dataType) && value != null) {
+      sum += ((Number) value).doubleValue();
+      if (minValue == null || compare(value, minValue) < 0) {
+        minValue = value;
+      }
+      if (maxValue == null || compare(value, maxValue) > 0) {
+        maxValue = value;
+      }
+    }
+    return true;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static int compare(Object value, Object another) {
+    return ((Comparable<Object>) value).compareTo(another);
+  }
+
+  public boolean isEmpty() {
+    return count == 0;
+  }
+
+  public TSDataType getOutputDataType() {
+    switch (aggregationType) {
+      case COUNT:
+      case MIN_TIME:
+      case MAX_TIME:
+        return TSDataType.INT64;
+      case SUM:
+      case AVG:
+        return TSDataType.DOUBLE;
+      default:
+        return dataType;
+    }
+  }
+
+  /** The final result of the aggregation, the partial result must not be empty. */
+  public Object getResult() {
+    switch (aggregationType) {
+      case COUNT:
+        return count;
+      case SUM:
+        return sum;
+      case AVG:
+        return sum / count;
+      case MIN_VALUE:
+        return minValue;
+      case MAX_VALUE:
+        return maxValue;
+      case FIRST_VALUE:
+        return firstValue;
+      case LAST_VALUE:
+        return lastValue;
+      case MIN_TIME:
+        return minTime;
+      case MAX_TIME:
+        return maxTime;
+      default:
+        throw new UnsupportedOperationException(aggregationType.name());
+    }
+  }
+}
@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.pipe.agent.receiver;
 
 import org.apache.iotdb.commons.pipe.receiver.IoTDBReceiverAgent;
+import org.apache.iotdb.commons.pipe.receiver.PipeReceiverResumableFileManager;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.pipe.receiver.protocol.airgap.IoTDBAirGapReceiverAgent;
 import org.apache.iotdb.db.pipe.receiver.protocol.iotconsensusv2.IoTConsensusV2ReceiverAgent;
@@ -32,6 +33,8 @@ import java.util.Arrays;
 /** {@link PipeDataNodeReceiverAgent} is the entry point of all pipe receivers' logic. */
 public class PipeDataNodeReceiverAgent {
 
+  private static final String RECEIVED_FILE_DIGEST_DIR_NAME = "received_file_digests";
+
   private final IoTDBDataNodeReceiverAgent thriftAgent;
   private final IoTDBAirGapReceiverAgent airGapAgent;
   private final IoTDBLegacyPipeReceiverAgent legacyAgent;
@@ -73,4 +76,19 @@ public class PipeDataNodeReceiverAgent {
         .map(File::new)
         .forEach(IoTDBReceiverAgent::cleanPipeReceiverDir);
   }
+
+  /**
+   * The received file digests are kept out of the receiver file dirs, which are cleaned at startup,
+   * so that a file loaded before the restart is not sent again.
+   */
+  public void loadReceivedFileDigests() {
+    PipeReceiverResumableFileManager.getInstance()
+        .setReceivedDigestDir(
+            new File(
+                IoTDBDescriptor.getInstance().getConfig().getSystemDir()
+                    + File.separator
+                    + "pipe"
+                    + File.separator
+                    + RECEIVED_FILE_DIGEST_DIR_NAME));
+  }
 }
@@ -89,6 +89,7 @@ public class PipeDataNodeRuntimeAgent implements IService {
 
     // Clean receiver file dir
     PipeDataNodeAgent.receiver().cleanPipeReceiverDirs();
+    PipeDataNodeAgent.receiver().loadReceivedFileDigests();
 
     PipeAgentLauncher.launchPipePluginAgent(resourcesInformationHolder);
     simpleProgressIndexAssigner.start();
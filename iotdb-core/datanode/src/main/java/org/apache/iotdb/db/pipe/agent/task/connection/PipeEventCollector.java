@@ -46,6 +46,8 @@ import org.apache.iotdb.pipe.api.exception.PipeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Objects;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class PipeEventCollector implements EventCollector {
@@ -67,6 +69,7 @@ public class PipeEventCollector implements EventCollector {
   private final AtomicInteger collectInvocationCount = new AtomicInteger(0);
   private boolean hasNoGeneratedEvent = true;
   private boolean isFailedToIncreaseReferenceCount = false;
+  private boolean isWaitingForRewriting = false;
 
   public PipeEventCollector(
       final UnboundedBlockingPendingQueue<Event> pendingQueue,
@@ -147,6 +150,12 @@ public class PipeEventCollector implements EventCollector {
       return;
     }
 
+    if (!forceTabletFormat
+        && sourceEvent.canRewriteWithChunkPassthrough()
+        && rewriteAndCollectEvent(sourceEvent)) {
+      return;
+    }
+
     sourceEvent.consumeTabletInsertionEventsWithRetry(
         this::collectParsedRawTableEvent, "PipeEventCollector::parseAndCollectEvent");
     sourceEvent.close();
@@ -156,6 +165,53 @@ public class PipeEventCollector implements EventCollector {
     }
   }
 
+  /**
+   * Apply the pattern and time range of the event by rewriting its tsFile, so that the filtered
+   * data can still be transferred as a tsFile. The rewriting runs in the background, and the
+   * collector is marked as waiting until it is done so that the event is processed again later.
+   *
+   * @return {@code false} if the rewriting fails and the event should be parsed instead
+   */
+  private boolean rewriteAndCollectEvent(final PipeTsFileInsertionEvent sourceEvent) {
+    final Future<PipeTsFileInsertionEvent> future =
+        sourceEvent.rewriteWithChunkPassthroughInBackground();
+    if (Objects.isNull(future) || !future.isDone()) {
+      isWaitingForRewriting = true;
+      return true;
+    }
+
+    final PipeTsFileInsertionEvent rewrittenEvent;
+    try {
+      rewrittenEvent = sourceEvent.takeRewrittenEvent();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new PipeException(e.getMessage(), e);
+    } catch (final Exception e) {
+      LOGGER.warn(
+          DataNodePipeMessages.FAILED_TO_REWRITE_TSFILE_WITH_CHUNK_PASSTHROUGH,
+          sourceEvent.getTsFile(),
+          e);
+      return false;
+    }
+
+    if (Objects.nonNull(rewrittenEvent)) {
+      hasNoGeneratedEvent = false;
+      // The rewritten tsFile is deleted when the rewritten event is released
+      collectEvent(rewrittenEvent);
+    }
+    sourceEvent.close();
+    if (sourceEvent.isGeneratedByHistoricalExtractor()) {
+      if (Objects.nonNull(rewrittenEvent)) {
+        PipeTerminateEvent.markHistoricalTsFileUnsplit(
+            sourceEvent.getPipeName(), sourceEvent.getCreationTime(), regionId);
+      } else {
+        PipeTerminateEvent.markHistoricalTsFileSplit(
+            sourceEvent.getPipeName(), sourceEvent.getCreationTime(), regionId);
+      }
+    }
+    return true;
+  }
+
   public static boolean canSkipParsing4TsFileEvent(final PipeTsFileInsertionEvent sourceEvent) {
     return !sourceEvent.shouldParseTimeOrPattern()
         || (sourceEvent.isTableModelEvent()
@@ -269,6 +325,7 @@ public class PipeEventCollector implements EventCollector {
     collectInvocationCount.set(0);
     hasNoGeneratedEvent = true;
     isFailedToIncreaseReferenceCount = false;
+    isWaitingForRewriting = false;
   }
 
   public long getCollectInvocationCount() {
@@ -286,4 +343,8 @@ public class PipeEventCollector implements EventCollector {
   public boolean isFailedToIncreaseReferenceCount() {
     return isFailedToIncreaseReferenceCount;
   }
+
+  public boolean isWaitingForRewriting() {
+    return isWaitingForRewriting;
+  }
 }
@@ -211,6 +211,12 @@ public class PipeProcessorSubtask extends PipeReportableSubtask {
         }
       }
 
+      // The tsFile of the event is being rewritten in the background, keep the event as the last
+      // event and process it again later instead of holding the processor thread
+      if (outputEventCollector.isWaitingForRewriting()) {
+        return false;
+      }
+
       final boolean shouldReport =
           !isClosed.get()
               // If an event does not generate any events except itself at this stage, it is divided
@@ -22,6 +22,9 @@ package org.apache.iotdb.db.pipe.event.common.tsfile;
 import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.commons.audit.UserEntity;
 import org.apache.iotdb.commons.auth.entity.PrivilegeType;
+import org.apache.iotdb.commons.concurrent.IoTThreadFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.concurrent.threadpool.WrappedThreadPoolExecutor;
 import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.commons.consensus.index.ProgressIndex;
 import org.apache.iotdb.commons.consensus.index.impl.MinimumProgressIndex;
@@ -36,7 +39,9 @@ import org.apache.iotdb.commons.pipe.datastructure.pattern.TreePattern;
 import org.apache.iotdb.commons.pipe.resource.log.PipeLogger;
 import org.apache.iotdb.commons.pipe.resource.ref.PipePhantomReferenceManager.PipeEventResource;
 import org.apache.iotdb.commons.queryengine.plan.relational.metadata.QualifiedObjectName;
+import org.apache.iotdb.commons.utils.FileUtils;
 import org.apache.iotdb.db.auth.AuthorityChecker;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.i18n.DataNodePipeMessages;
 import org.apache.iotdb.db.pipe.event.ReferenceTrackableEvent;
 import org.apache.iotdb.db.pipe.event.common.PipeInsertionEvent;
@@ -44,6 +49,7 @@ import org.apache.iotdb.db.pipe.event.common.tablet.PipeRawTabletInsertionEvent;
 import org.apache.iotdb.db.pipe.event.common.tsfile.aggregator.TsFileInsertionPointCounter;
 import org.apache.iotdb.db.pipe.event.common.tsfile.parser.TsFileInsertionEventParser;
 import org.apache.iotdb.db.pipe.event.common.tsfile.parser.TsFileInsertionEventParserProvider;
+import org.apache.iotdb.db.pipe.event.common.tsfile.rewriter.TsFileChunkPassthroughRewriter;
 import org.apache.iotdb.db.pipe.metric.overview.PipeDataNodeSinglePipeMetrics;
 import org.apache.iotdb.db.pipe.resource.PipeDataNodeResourceManager;
 import org.apache.iotdb.db.pipe.resource.memory.PipeMemoryManager;
@@ -70,6 +76,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -80,6 +92,11 @@ public class PipeTsFileInsertionEvent extends PipeInsertionEvent
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PipeTsFileInsertionEvent.class);
 
+  private static final AtomicLong REWRITTEN_TSFILE_ID_GENERATOR = new AtomicLong(0);
+
+  // The concurrent rewritings are also bounded by the tsFile parser memory they reserve
+  private static final ExecutorService REWRITE_EXECUTOR = createRewriteExecutor();
+
   private final TsFileResource resource;
   private final String dataRegionId;
   private File tsFile;
@@ -123,6 +140,12 @@ public class PipeTsFileInsertionEvent extends PipeInsertionEvent
   // This is set to check the tsFile paths by privilege
   private Map<IDeviceID, String[]> treeSchemaMap;
 
+  // The rewriting of the tsFile in the background, null if not started or taken by the collector
+  private final AtomicReference<Future<PipeTsFileInsertionEvent>> rewriteFuture =
+      new AtomicReference<>();
+  // True if the tsFile is rewritten by pipe, it is owned by this event and deleted on release
+  private boolean isRewritten = false;
+
   public PipeTsFileInsertionEvent(
       final Boolean isTableModelEvent,
       final String databaseNameFromDataRegion,
@@ -407,9 +430,12 @@ public class PipeTsFileInsertionEvent extends PipeInsertionEvent
     final String pipeTsFileResourcePipeName =
         PipeTsFileResourceManager.getPipeTsFileResourcePipeName(pipeName, creationTime);
     try {
-      tsFile =
-          PipeDataNodeResourceManager.tsfile()
-              .increaseFileReference(tsFile, true, pipeTsFileResourcePipeName);
+      // The rewritten tsFile is not shared with others, so there is no need to hard-link it
+      if (!isRewritten) {
+        tsFile =
+            PipeDataNodeResourceManager.tsfile()
+                .increaseFileReference(tsFile, true, pipeTsFileResourcePipeName);
+      }
       if (isWithMod) {
         modFile =
             PipeDataNodeResourceManager.tsfile()
@@ -438,8 +464,12 @@ public class PipeTsFileInsertionEvent extends PipeInsertionEvent
     final String pipeTsFileResourcePipeName =
         PipeTsFileResourceManager.getPipeTsFileResourcePipeName(pipeName, creationTime);
     try {
-      PipeDataNodeResourceManager.tsfile()
-          .decreaseFileReference(tsFile, pipeTsFileResourcePipeName);
+      if (isRewritten) {
+        FileUtils.deleteFileIfExist(tsFile);
+      } else {
+        PipeDataNodeResourceManager.tsfile()
+            .decreaseFileReference(tsFile, pipeTsFileResourcePipeName);
+      }
       if (isWithMod) {
         PipeDataNodeResourceManager.tsfile()
             .decreaseFileReference(modFile, pipeTsFileResourcePipeName);
@@ -763,6 +793,189 @@ public class PipeTsFileInsertionEvent extends PipeInsertionEvent
 
   /////////////////////////// TsFileInsertionEvent ///////////////////////////
 
+  /**
+   * Whether the pattern and time range of this event can be applied by rewriting the tsFile with
+   * {@link TsFileChunkPassthroughRewriter} instead of parsing it into tablets. Only tree model
+   * events without privilege filtering are supported.
+   */
+  public boolean canRewriteWithChunkPassthrough() {
+    return PipeConfig.getInstance().isPipeTsFileChunkPassthroughEnabled()
+        && Objects.nonNull(resource)
+        && Objects.nonNull(treePattern)
+        && !isTableModelEvent()
+        && !shouldParse4Privilege;
+  }
+
+  /**
+   * Start {@link #rewriteWithChunkPassthrough()} in the background if it is not started, so that
+   * the processor thread is not held by the rewriting. The memory of a tsFile parser is reserved
+   * until the rewriting is done, because the boundary chunks are decoded the same way.
+   *
+   * @return the rewriting, or {@code null} if it can not be started for now due to memory
+   */
+  public Future<PipeTsFileInsertionEvent> rewriteWithChunkPassthroughInBackground() {
+    final Future<PipeTsFileInsertionEvent> runningFuture = rewriteFuture.get();
+    if (Objects.nonNull(runningFuture)) {
+      return runningFuture;
+    }
+    if (!tryReserveTsFileParserMemory(PipeDataNodeResourceManager.memory())) {
+      return null;
+    }
+
+    final Future<PipeTsFileInsertionEvent> future;
+    try {
+      future =
+          REWRITE_EXECUTOR.submit(
+              () -> {
+                try {
+                  return rewriteWithChunkPassthrough();
+                } finally {
+                  releaseTsFileParserMemoryIfReserved();
+                }
+              });
+    } catch (final RejectedExecutionException e) {
+      releaseTsFileParserMemoryIfReserved();
+      return null;
+    }
+    rewriteFuture.set(future);
+    return future;
+  }
+
+  /**
+   * Take the result of the finished rewriting. The caller is responsible for the returned event,
+   * whose rewritten tsFile is deleted when the event is released.
+   *
+   * @return {@code null} if no data of the tsFile is left after filtering
+   * @throws ExecutionException if the rewriting fails
+   */
+  public PipeTsFileInsertionEvent takeRewrittenEvent()
+      throws ExecutionException, InterruptedException {
+    final Future<PipeTsFileInsertionEvent> future = rewriteFuture.getAndSet(null);
+    return Objects.nonNull(future) ? future.get() : null;
+  }
+
+  /**
+   * Abandon the rewriting which is not taken, the rewritten tsFile is deleted once it is done.
+   *
+   * @return {@code true} if the rewriting is still running, and it releases the reserved memory
+   *     itself when it is done
+   */
+  private boolean abandonRewriting() {
+    final Future<PipeTsFileInsertionEvent> future = rewriteFuture.getAndSet(null);
+    if (Objects.isNull(future) || future.cancel(false)) {
+      return false;
+    }
+    if (future.isDone()) {
+      discardRewrittenEvent(future);
+      return false;
+    }
+    try {
+      REWRITE_EXECUTOR.submit(() -> discardRewrittenEvent(future));
+    } catch (final RejectedExecutionException e) {
+      LOGGER.warn(DataNodePipeMessages.FAILED_TO_DISCARD_REWRITTEN_TSFILE, tsFile, e);
+    }
+    return true;
+  }
+
+  private static void discardRewrittenEvent(final Future<PipeTsFileInsertionEvent> future) {
+    try {
+      final PipeTsFileInsertionEvent rewrittenEvent = future.get();
+      if (Objects.nonNull(rewrittenEvent)) {
+        FileUtils.deleteFileIfExist(rewrittenEvent.getTsFile());
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (final Exception ignored) {
+      // The rewriting failed, there is nothing to discard
+    }
+  }
+
+  private static ExecutorService createRewriteExecutor() {
+    final int threadCount = IoTDBDescriptor.getInstance().getConfig().getPipeTaskThreadCount();
+    final WrappedThreadPoolExecutor executor =
+        new WrappedThreadPoolExecutor(
+            threadCount,
+            threadCount,
+            60L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            new IoTThreadFactory(ThreadName.PIPE_TSFILE_REWRITE_POOL.getName()),
+            ThreadName.PIPE_TSFILE_REWRITE_POOL.getName());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  /**
+   * Rewrite the tsFile into a new tsFile containing only the data matching the pattern and the
+   * time range of this event, and wrap it as a new event whose progress is reported on behalf of
+   * this event. The rewritten tsFile is owned by the new event and deleted when it is released.
+   *
+   * @return {@code null} if no data of the tsFile is left after filtering
+   */
+  public PipeTsFileInsertionEvent rewriteWithChunkPassthrough() throws IOException {
+    final File rewrittenTsFileDir = PipeTsFileResourceManager.getRewrittenTsFileDir(tsFile);
+    if (!rewrittenTsFileDir.exists() && !rewrittenTsFileDir.mkdirs()) {
+      throw new IOException(
+          String.format(
+              DataNodePipeMessages.FAILED_TO_CREATE_REWRITTEN_TSFILE_DIR, rewrittenTsFileDir));
+    }
+    final File rewrittenTsFile =
+        new File(
+            rewrittenTsFileDir,
+            REWRITTEN_TSFILE_ID_GENERATOR.incrementAndGet()
+                + IoTDBConstant.FILE_NAME_SEPARATOR
+                + tsFile.getName());
+
+    final TsFileChunkPassthroughRewriter rewriter =
+        new TsFileChunkPassthroughRewriter(
+            tsFile, isWithMod, treePattern, startTime, endTime, rewrittenTsFile);
+    final TsFileResource rewrittenResource = rewriter.rewrite();
+    LOGGER.debug(
+        DataNodePipeMessages.REWROTE_TSFILE_WITH_CHUNK_PASSTHROUGH,
+        tsFile,
+        rewriter.getCopiedChunkCount(),
+        rewriter.getDecodedChunkCount());
+    if (Objects.isNull(rewrittenResource)) {
+      return null;
+    }
+    rewrittenResource.setProgressIndex(forceGetProgressIndex());
+    rewrittenResource.setGeneratedByPipe(isGeneratedByPipe);
+
+    final PipeTsFileInsertionEvent rewrittenEvent =
+        new PipeTsFileInsertionEvent(
+                getRawIsTableModelEvent(),
+                getSourceDatabaseNameFromDataRegion(),
+                rewrittenResource,
+                rewrittenTsFile,
+                false,
+                isLoaded,
+                isGeneratedByHistoricalExtractor,
+                tableNames,
+                pipeName,
+                creationTime,
+                pipeTaskMeta,
+                treePattern,
+                tablePattern,
+                userId,
+                userName,
+                cliHostname,
+                skipIfNoPrivileges,
+                startTime,
+                endTime,
+                true)
+            .setShouldReportGeneratedEventsOnCommit(shouldReportGeneratedEventsOnCommit);
+    rewrittenEvent.isRewritten = true;
+    rewrittenEvent.skipParsingPattern();
+    rewrittenEvent.skipParsingTime();
+    rewrittenEvent.addOnCommittedHook(
+        () -> {
+          if (rewrittenEvent.shouldReportOnCommit) {
+            eliminateProgressIndex();
+          }
+        });
+    return rewrittenEvent;
+  }
+
   @FunctionalInterface
   public interface TabletInsertionEventConsumer {
     void consume(final PipeRawTabletInsertionEvent event) throws IllegalPathException;
@@ -1102,6 +1315,7 @@ public class PipeTsFileInsertionEvent extends PipeInsertionEvent
   /** Release the resource of {@link TsFileInsertionEventParser}. */
   @Override
   public void close() {
+    final boolean isRewriting = abandonRewriting();
     cancelTsFileParserMemoryReservationIfPending();
     tabletInsertionEventIterator.set(null);
     releaseParsedTabletEvent(pendingTabletInsertionEvent.getAndSet(null));
@@ -1115,7 +1329,9 @@ public class PipeTsFileInsertionEvent extends PipeInsertionEvent
           }
           return null;
         });
-    releaseTsFileParserMemoryIfReserved();
+    if (!isRewriting) {
+      releaseTsFileParserMemoryIfReserved();
+    }
   }
 
   /////////////////////////// Object ///////////////////////////
@@ -1154,6 +1370,7 @@ public class PipeTsFileInsertionEvent extends PipeInsertionEvent
         this.creationTime,
         this.dataRegionId,
         this.tsFile,
+        this.isRewritten,
         this.isWithMod,
         this.modFile,
         this.sharedModFile,
@@ -1165,6 +1382,7 @@ public class PipeTsFileInsertionEvent extends PipeInsertionEvent
   private static class PipeTsFileInsertionEventResource extends PipeEventResource {
 
     private final File tsFile;
+    private final boolean isRewritten;
     private final boolean isWithMod;
     private final File modFile;
     private final File sharedModFile; // unused now
@@ -1182,6 +1400,7 @@ public class PipeTsFileInsertionEvent extends PipeInsertionEvent
         final long creationTime,
         final String dataRegionId,
         final File tsFile,
+        final boolean isRewritten,
         final boolean isWithMod,
         final File modFile,
         final File sharedModFile,
@@ -1193,6 +1412,7 @@ public class PipeTsFileInsertionEvent extends PipeInsertionEvent
       this.creationTime = creationTime;
       this.dataRegionId = dataRegionId;
       this.tsFile = tsFile;
+      this.isRewritten = isRewritten;
       this.isWithMod = isWithMod;
       this.modFile = modFile;
       this.sharedModFile = sharedModFile;
@@ -1210,8 +1430,12 @@ public class PipeTsFileInsertionEvent extends PipeInsertionEvent
         final String pipeTsFileResourcePipeName =
             PipeTsFileResourceManager.getPipeTsFileResourcePipeName(pipeName, creationTime);
         // decrease reference count
-        PipeDataNodeResourceManager.tsfile()
-            .decreaseFileReference(tsFile, pipeTsFileResourcePipeName);
+        if (isRewritten) {
+          FileUtils.deleteFileIfExist(tsFile);
+        } else {
+          PipeDataNodeResourceManager.tsfile()
+              .decreaseFileReference(tsFile, pipeTsFileResourcePipeName);
+        }
         if (isWithMod) {
           PipeDataNodeResourceManager.tsfile()
               .decreaseFileReference(modFile, pipeTsFileResourcePipeName);
@@ -0,0 +1,520 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.pipe.event.common.tsfile.rewriter;
+
+import org.apache.iotdb.commons.path.PatternTreeMap;
+import org.apache.iotdb.commons.pipe.datastructure.pattern.TreePattern;
+import org.apache.iotdb.db.pipe.event.common.tsfile.parser.util.ModsOperationUtil;
+import org.apache.iotdb.db.pipe.event.common.tsfile.parser.util.ModsOperationUtil.ModsInfo;
+import org.apache.iotdb.db.storageengine.dataregion.modification.ModEntry;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
+import org.apache.iotdb.db.utils.datastructure.PatternTreeMapFactory;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.header.ChunkHeader;
+import org.apache.tsfile.file.metadata.AbstractAlignedChunkMetadata;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.TsFileDeviceIterator;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.BatchData;
+import org.apache.tsfile.read.common.Chunk;
+import org.apache.tsfile.read.reader.IPageReader;
+import org.apache.tsfile.read.reader.chunk.AlignedChunkReader;
+import org.apache.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.tsfile.utils.Pair;
+import org.apache.tsfile.utils.TsPrimitiveType;
+import org.apache.tsfile.write.chunk.AlignedChunkWriterImpl;
+import org.apache.tsfile.write.chunk.ChunkWriterImpl;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.apache.tsfile.write.writer.TsFileIOWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rewrites a tree model TsFile into a new TsFile that only contains the data matching the pattern
+ * and the time range of a pipe, with the mods applied. The chunks lying inside the time range and
+ * not touched by any mod are copied byte-for-byte, only the chunks straddling the boundaries of the
+ * time range or the mods are decoded and encoded again. An aligned chunk is also decoded when only
+ * some of its value columns are selected, so that no all-null row is left in the target.
+ */
+public class TsFileChunkPassthroughRewriter {
+
+  private final File sourceTsFile;
+  private final File targetTsFile;
+  private final TreePattern treePattern;
+  private final long startTime;
+  private final long endTime;
+
+  private final PatternTreeMap<ModEntry, PatternTreeMapFactory.ModsSerializer> modifications;
+
+  private TsFileResource targetResource;
+  private boolean isChunkGroupStarted;
+
+  private int copiedChunkCount = 0;
+  private int decodedChunkCount = 0;
+
+  public TsFileChunkPassthroughRewriter(
+      final File sourceTsFile,
+      final boolean isWithMod,
+      final TreePattern treePattern,
+      final long startTime,
+      final long endTime,
+      final File targetTsFile) {
+    this.sourceTsFile = sourceTsFile;
+    this.targetTsFile = targetTsFile;
+    this.treePattern = treePattern;
+    this.startTime = startTime;
+    this.endTime = endTime;
+
+    this.modifications =
+        isWithMod
+            ? ModsOperationUtil.loadModificationsFromTsFile(sourceTsFile)
+            : PatternTreeMapFactory.getModsPatternTreeMap();
+  }
+
+  /**
+   * Rewrite the source TsFile into the target TsFile.
+   *
+   * @return the resource of the target TsFile, or {@code null} if no data is left after filtering,
+   *     in which case the target TsFile is not kept
+   * @throws IOException if the source TsFile can not be read or the target TsFile can not be
+   *     written, the target TsFile is not kept either
+   */
+  public TsFileResource rewrite() throws IOException {
+    targetResource = new TsFileResource(targetTsFile);
+    boolean hasData = false;
+    try {
+      try (final TsFileSequenceReader reader =
+              new TsFileSequenceReader(sourceTsFile.getPath(), true, true);
+          final TsFileIOWriter writer = new TsFileIOWriter(targetTsFile)) {
+        final TsFileDeviceIterator deviceIterator = reader.getAllDevicesIteratorWithIsAligned();
+        while (deviceIterator.hasNext()) {
+          final Pair<IDeviceID, Boolean> deviceIsAlignedPair = deviceIterator.next();
+          final IDeviceID deviceID = deviceIsAlignedPair.getLeft();
+          if (!treePattern.mayOverlapWithDevice(deviceID)) {
+            continue;
+          }
+
+          isChunkGroupStarted = false;
+          if (Boolean.TRUE.equals(deviceIsAlignedPair.getRight())) {
+            rewriteAlignedDevice(reader, writer, deviceID);
+          } else {
+            rewriteNonAlignedDevice(reader, writer, deviceIterator, deviceID);
+          }
+          if (isChunkGroupStarted) {
+            writer.endChunkGroup();
+            hasData = true;
+          }
+        }
+        writer.endFile();
+      }
+    } catch (final IOException | RuntimeException e) {
+      Files.deleteIfExists(targetTsFile.toPath());
+      throw e;
+    }
+
+    if (!hasData) {
+      Files.deleteIfExists(targetTsFile.toPath());
+      return null;
+    }
+    targetResource.setStatus(TsFileResourceStatus.NORMAL);
+    return targetResource;
+  }
+
+  public int getCopiedChunkCount() {
+    return copiedChunkCount;
+  }
+
+  public int getDecodedChunkCount() {
+    return decodedChunkCount;
+  }
+
+  /////////////////////////////// Non-aligned ///////////////////////////////
+
+  private void rewriteNonAlignedDevice(
+      final TsFileSequenceReader reader,
+      final TsFileIOWriter writer,
+      final TsFileDeviceIterator deviceIterator,
+      final IDeviceID deviceID)
+      throws IOException {
+    final List<TimeseriesMetadata> timeseriesMetadataList = new ArrayList<>();
+    reader.getDeviceTimeseriesMetadata(
+        timeseriesMetadataList,
+        deviceIterator.getFirstMeasurementNodeOfCurrentDevice(),
+        Collections.emptySet(),
+        true,
+        null);
+
+    for (final TimeseriesMetadata timeseriesMetadata : timeseriesMetadataList) {
+      final String measurement = timeseriesMetadata.getMeasurementId();
+      if (!treePattern.matchesMeasurement(deviceID, measurement)) {
+        continue;
+      }
+
+      final List<ModEntry> mods = getSortedMods(deviceID, measurement);
+      for (final IChunkMetadata chunkMetadata : timeseriesMetadata.getChunkMetadataList()) {
+        final long chunkStartTime = chunkMetadata.getStartTime();
+        final long chunkEndTime = chunkMetadata.getEndTime();
+        if (!isOverlappedWithTimeRange(chunkStartTime, chunkEndTime)
+            || ModsOperationUtil.isAllDeletedByMods(
+                deviceID, measurement, chunkStartTime, chunkEndTime, modifications)) {
+          continue;
+        }
+
+        final Chunk chunk = reader.readMemChunk((ChunkMetadata) chunkMetadata);
+        if (isCoveredByTimeRange(chunkStartTime, chunkEndTime)
+            && !isOverlappedWithMods(mods, chunkStartTime, chunkEndTime)) {
+          startChunkGroupIfNecessary(writer, deviceID);
+          writer.writeChunk(chunk, (ChunkMetadata) chunkMetadata);
+          updateResource(deviceID, chunkStartTime, chunkEndTime);
+          ++copiedChunkCount;
+          continue;
+        }
+
+        decodeAndRewriteNonAlignedChunk(writer, deviceID, chunk, mods);
+        ++decodedChunkCount;
+      }
+    }
+  }
+
+  private void decodeAndRewriteNonAlignedChunk(
+      final TsFileIOWriter writer,
+      final IDeviceID deviceID,
+      final Chunk chunk,
+      final List<ModEntry> mods)
+      throws IOException {
+    final ChunkHeader chunkHeader = chunk.getHeader();
+    final TSDataType dataType = chunkHeader.getDataType();
+    final ChunkWriterImpl chunkWriter = new ChunkWriterImpl(getMeasurementSchema(chunkHeader));
+    // the chunks of the same series may overlap in unsequence files, so the index of the mods is
+    // only kept within one chunk
+    final ModsInfo modsInfo = new ModsInfo(mods, 0);
+
+    long minTime = Long.MAX_VALUE;
+    long maxTime = Long.MIN_VALUE;
+    for (final IPageReader pageReader : new ChunkReader(chunk).loadPageReaderList()) {
+      final BatchData batchData = pageReader.getAllSatisfiedPageData();
+      while (batchData.hasCurrent()) {
+        final long time = batchData.currentTime();
+        if (isCoveredByTimeRange(time, time) && !ModsOperationUtil.isDelete(time, modsInfo)) {
+          writeValue(chunkWriter, dataType, time, batchData);
+          minTime = Math.min(minTime, time);
+          maxTime = Math.max(maxTime, time);
+        }
+        batchData.next();
+      }
+    }
+
+    if (chunkWriter.isEmpty()) {
+      return;
+    }
+    startChunkGroupIfNecessary(writer, deviceID);
+    chunkWriter.writeToFileWriter(writer);
+    updateResource(deviceID, minTime, maxTime);
+  }
+
+  ///////////////////////////////// Aligned /////////////////////////////////
+
+  private void rewriteAlignedDevice(
+      final TsFileSequenceReader reader, final TsFileIOWriter writer, final IDeviceID deviceID)
+      throws IOException {
+    final List<AbstractAlignedChunkMetadata> alignedChunkMetadataList =
+        reader.getAlignedChunkMetadata(deviceID, false);
+
+    // all the rewritten aligned chunks of the device share the same value columns, the missing
+    // columns are filled with empty value chunks
+    final Map<String, IChunkMetadata> selectedColumns = new LinkedHashMap<>();
+    for (final AbstractAlignedChunkMetadata alignedChunkMetadata : alignedChunkMetadataList) {
+      for (final IChunkMetadata valueChunkMetadata :
+          alignedChunkMetadata.getValueChunkMetadataList()) {
+        if (valueChunkMetadata != null
+            && treePattern.matchesMeasurement(deviceID, valueChunkMetadata.getMeasurementUid())) {
+          selectedColumns.putIfAbsent(valueChunkMetadata.getMeasurementUid(), valueChunkMetadata);
+        }
+      }
+    }
+    if (selectedColumns.isEmpty()) {
+      return;
+    }
+
+    final List<String> columnNames = new ArrayList<>(selectedColumns.keySet());
+    final List<List<ModEntry>> columnMods = new ArrayList<>(columnNames.size());
+    for (final String columnName : columnNames) {
+      columnMods.add(getSortedMods(deviceID, columnName));
+    }
+    final Map<String, IMeasurementSchema> columnSchemas = new HashMap<>();
+
+    for (final AbstractAlignedChunkMetadata alignedChunkMetadata : alignedChunkMetadataList) {
+      final long chunkStartTime = alignedChunkMetadata.getStartTime();
+      final long chunkEndTime = alignedChunkMetadata.getEndTime();
+      if (!isOverlappedWithTimeRange(chunkStartTime, chunkEndTime)) {
+        continue;
+      }
+
+      final IChunkMetadata[] valueChunkMetadatas = new IChunkMetadata[columnNames.size()];
+      boolean hasSelectedColumn = false;
+      // the time chunk can only be copied when no value column is dropped, otherwise the rows
+      // only having values in the dropped columns would be copied as all-null rows
+      boolean hasDroppedColumn = false;
+      boolean isOverlappedWithMods = false;
+      for (final IChunkMetadata valueChunkMetadata :
+          alignedChunkMetadata.getValueChunkMetadataList()) {
+        if (valueChunkMetadata == null) {
+          continue;
+        }
+        final int index = columnNames.indexOf(valueChunkMetadata.getMeasurementUid());
+        if (index < 0
+            || ModsOperationUtil.isAllDeletedByMods(
+                deviceID,
+                valueChunkMetadata.getMeasurementUid(),
+                valueChunkMetadata.getStartTime(),
+                valueChunkMetadata.getEndTime(),
+                modifications)) {
+          hasDroppedColumn = true;
+          continue;
+        }
+        valueChunkMetadatas[index] = valueChunkMetadata;
+        hasSelectedColumn = true;
+        isOverlappedWithMods |=
+            isOverlappedWithMods(
+                columnMods.get(index),
+                valueChunkMetadata.getStartTime(),
+                valueChunkMetadata.getEndTime());
+      }
+      if (!hasSelectedColumn) {
+        continue;
+      }
+
+      final ChunkMetadata timeChunkMetadata =
+          (ChunkMetadata) alignedChunkMetadata.getTimeChunkMetadata();
+      final Chunk timeChunk = reader.readMemChunk(timeChunkMetadata);
+      final Chunk[] valueChunks = new Chunk[columnNames.size()];
+      for (int i = 0; i < valueChunkMetadatas.length; ++i) {
+        if (valueChunkMetadatas[i] != null) {
+          valueChunks[i] = reader.readMemChunk((ChunkMetadata) valueChunkMetadatas[i]);
+          columnSchemas.putIfAbsent(
+              columnNames.get(i), getMeasurementSchema(valueChunks[i].getHeader()));
+        }
+      }
+
+      if (isCoveredByTimeRange(chunkStartTime, chunkEndTime)
+          && !isOverlappedWithMods
+          && !hasDroppedColumn) {
+        startChunkGroupIfNecessary(writer, deviceID);
+        writer.writeChunk(timeChunk, timeChunkMetadata);
+        for (int i = 0; i < valueChunks.length; ++i) {
+          if (valueChunks[i] != null) {
+            writer.writeChunk(valueChunks[i], (ChunkMetadata) valueChunkMetadatas[i]);
+            continue;
+          }
+          final IMeasurementSchema schema =
+              getColumnSchema(reader, columnNames.get(i), selectedColumns, columnSchemas);
+          writer.writeEmptyValueChunk(
+              schema.getMeasurementName(),
+              schema.getCompressor(),
+              schema.getType(),
+              schema.getEncodingType(),
+              Statistics.getStatsByType(schema.getType()));
+        }
+        updateResource(deviceID, chunkStartTime, chunkEndTime);
+        ++copiedChunkCount;
+        continue;
+      }
+
+      final List<IMeasurementSchema> schemaList = new ArrayList<>(columnNames.size());
+      for (final String columnName : columnNames) {
+        schemaList.add(getColumnSchema(reader, columnName, selectedColumns, columnSchemas));
+      }
+      decodeAndRewriteAlignedChunk(
+          writer, deviceID, timeChunk, valueChunks, schemaList, columnMods);
+      ++decodedChunkCount;
+    }
+  }
+
+  private void decodeAndRewriteAlignedChunk(
+      final TsFileIOWriter writer,
+      final IDeviceID deviceID,
+      final Chunk timeChunk,
+      final Chunk[] valueChunks,
+      final List<IMeasurementSchema> schemaList,
+      final List<List<ModEntry>> columnMods)
+      throws IOException {
+    // the reader only accepts the existing value chunks, so keep the mapping to the columns
+    final List<Chunk> existingValueChunks = new ArrayList<>();
+    final List<Integer> existingColumnIndexes = new ArrayList<>();
+    final ModsInfo[] modsInfos = new ModsInfo[valueChunks.length];
+    for (int i = 0; i < valueChunks.length; ++i) {
+      if (valueChunks[i] != null) {
+        existingValueChunks.add(valueChunks[i]);
+        existingColumnIndexes.add(i);
+      }
+      modsInfos[i] = new ModsInfo(columnMods.get(i), 0);
+    }
+
+    final AlignedChunkWriterImpl chunkWriter =
+        new AlignedChunkWriterImpl(getMeasurementSchema(timeChunk.getHeader()), schemaList);
+
+    long minTime = Long.MAX_VALUE;
+    long maxTime = Long.MIN_VALUE;
+    for (final IPageReader pageReader :
+        new AlignedChunkReader(timeChunk, existingValueChunks, null).loadPageReaderList()) {
+      final BatchData batchData = pageReader.getAllSatisfiedPageData();
+      while (batchData.hasCurrent()) {
+        final long time = batchData.currentTime();
+        if (isCoveredByTimeRange(time, time)) {
+          final TsPrimitiveType[] vector = batchData.getVector();
+          final TsPrimitiveType[] row = new TsPrimitiveType[valueChunks.length];
+          boolean isAllNull = true;
+          for (int i = 0; i < vector.length; ++i) {
+            final int columnIndex = existingColumnIndexes.get(i);
+            if (vector[i] != null && !ModsOperationUtil.isDelete(time, modsInfos[columnIndex])) {
+              row[columnIndex] = vector[i];
+              isAllNull = false;
+            }
+          }
+          if (!isAllNull) {
+            chunkWriter.write(time, row);
+            minTime = Math.min(minTime, time);
+            maxTime = Math.max(maxTime, time);
+          }
+        }
+        batchData.next();
+      }
+    }
+
+    if (chunkWriter.isEmpty()) {
+      return;
+    }
+    startChunkGroupIfNecessary(writer, deviceID);
+    chunkWriter.writeToFileWriter(writer);
+    updateResource(deviceID, minTime, maxTime);
+  }
+
+  private IMeasurementSchema getColumnSchema(
+      final TsFileSequenceReader reader,
+      final String columnName,
+      final Map<String, IChunkMetadata> selectedColumns,
+      final Map<String, IMeasurementSchema> columnSchemas)
+      throws IOException {
+    IMeasurementSchema schema = columnSchemas.get(columnName);
+    if (schema == null) {
+      schema =
+          getMeasurementSchema(
+              reader.readMemChunk((ChunkMetadata) selectedColumns.get(columnName)).getHeader());
+      columnSchemas.put(columnName, schema);
+    }
+    return schema;
+  }
+
+  ////////////////////////////////// Utils //////////////////////////////////
+
+  private void startChunkGroupIfNecessary(final TsFileIOWriter writer, final IDeviceID deviceID)
+      throws IOException {
+    if (!isChunkGroupStarted) {
+      writer.startChunkGroup(deviceID);
+      isChunkGroupStarted = true;
+    }
+  }
+
+  private void updateResource(final IDeviceID deviceID, final long minTime, final long maxTime) {
+    targetResource.updateStartTime(deviceID, minTime);
+    targetResource.updateEndTime(deviceID, maxTime);
+  }
+
+  private List<ModEntry> getSortedMods(final IDeviceID deviceID, final String measurement) {
+    return ModsOperationUtil.initializeMeasurementMods(
+            deviceID, Collections.singletonList(measurement), modifications)
+        .get(0)
+        .getMods();
+  }
+
+  private boolean isCoveredByTimeRange(final long minTime, final long maxTime) {
+    return startTime <= minTime && maxTime <= endTime;
+  }
+
+  private boolean isOverlappedWithTimeRange(final long minTime, final long maxTime) {
+    return minTime <= endTime && startTime <= maxTime;
+  }
+
+  private static boolean isOverlappedWithMods(
+      final List<ModEntry> mods, final long minTime, final long maxTime) {
+    for (final ModEntry mod : mods) {
+      if (mod.getTimeRange().getMin() <= maxTime && minTime <= mod.getTimeRange().getMax()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static MeasurementSchema getMeasurementSchema(final ChunkHeader chunkHeader) {
+    return new MeasurementSchema(
+        chunkHeader.getMeasurementID(),
+        chunkHeader.getDataType(),
+        chunkHeader.getEncodingType(),
+        chunkHeader.getCompressionType());
+  }
+
+  private static void writeValue(
+      final ChunkWriterImpl chunkWriter,
+      final TSDataType dataType,
+      final long time,
+      final BatchData batchData) {
+    switch (dataType) {
+      case BOOLEAN:
+        chunkWriter.write(time, batchData.getBoolean());
+        break;
+      case INT32:
+      case DATE:
+        chunkWriter.write(time, batchData.getInt());
+        break;
+      case INT64:
+      case TIMESTAMP:
+        chunkWriter.write(time, batchData.getLong());
+        break;
+      case FLOAT:
+        chunkWriter.write(time, batchData.getFloat());
+        break;
+      case DOUBLE:
+        chunkWriter.write(time, batchData.getDouble());
+        break;
+      case TEXT:
+      case STRING:
+      case BLOB:
+      case OBJECT:
+        chunkWriter.write(time, batchData.getBinary());
+        break;
+      default:
+        throw new UnsupportedOperationException(dataType.name());
+    }
+  }
+}
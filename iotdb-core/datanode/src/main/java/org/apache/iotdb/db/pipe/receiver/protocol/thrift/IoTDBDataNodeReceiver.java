@@ -78,6 +78,7 @@ import org.apache.iotdb.db.pipe.sink.payload.evolvable.request.PipeTransferTable
 import org.apache.iotdb.db.pipe.sink.payload.evolvable.request.PipeTransferTabletInsertNodeReqV2;
 import org.apache.iotdb.db.pipe.sink.payload.evolvable.request.PipeTransferTabletRawReq;
 import org.apache.iotdb.db.pipe.sink.payload.evolvable.request.PipeTransferTabletRawReqV2;
+import org.apache.iotdb.db.pipe.sink.payload.evolvable.request.PipeTransferTsFileDigestReq;
 import org.apache.iotdb.db.pipe.sink.payload.evolvable.request.PipeTransferTsFilePieceReq;
 import org.apache.iotdb.db.pipe.sink.payload.evolvable.request.PipeTransferTsFilePieceWithModReq;
 import org.apache.iotdb.db.pipe.sink.payload.evolvable.request.PipeTransferTsFileSealReq;
@@ -333,6 +334,8 @@ public class IoTDBDataNodeReceiver extends IoTDBFileReceiver {
                     .recordTransferTabletBatchV2Timer(System.nanoTime() - startTime);
               }
             }
+          case TRANSFER_TS_FILE_DIGEST:
+            return handleTransferFileDigest(PipeTransferTsFileDigestReq.fromTPipeTransferReq(req));
           case TRANSFER_TS_FILE_PIECE:
             {
               try {
@@ -563,6 +566,7 @@ public class IoTDBDataNodeReceiver extends IoTDBFileReceiver {
       case TRANSFER_TABLET_BINARY_V2:
       case TRANSFER_TABLET_BATCH:
       case TRANSFER_TABLET_BATCH_V2:
+      case TRANSFER_TS_FILE_DIGEST:
       case TRANSFER_TS_FILE_PIECE:
       case TRANSFER_TS_FILE_SEAL:
       case TRANSFER_TS_FILE_PIECE_WITH_MOD:
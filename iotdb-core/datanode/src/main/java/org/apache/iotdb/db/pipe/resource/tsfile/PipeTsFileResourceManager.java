@@ -47,6 +47,8 @@ public class PipeTsFileResourceManager {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PipeTsFileResourceManager.class);
 
+  private static final String REWRITTEN_TSFILE_DIR_NAME = "__rewritten";
+
   // This is used to hold the assigner pinned tsFiles.
   // Also, it is used to provide metadata cache of the tsFile, and is shared by all the pipe's
   // tsFiles.
@@ -189,6 +191,15 @@ public class PipeTsFileResourceManager {
     }
   }
 
+  /**
+   * Get the directory to place the TsFiles rewritten from the given file by pipe. The directory
+   * lies under the pipe hardlink dir of the same disk, so that the rewritten files left by a crash
+   * are cleaned up together with the other pipe files on restart.
+   */
+  public static File getRewrittenTsFileDir(final File file) throws IOException {
+    return new File(getPipeTsFileDirPath(file, null), REWRITTEN_TSFILE_DIR_NAME);
+  }
+
   private static String getPipeTsFileDirPath(File file, final @Nullable String pipeName)
       throws IOException {
     while (!file.getName().equals(IoTDBConstant.SEQUENCE_FOLDER_NAME)
@@ -150,6 +150,8 @@ public class IoTDBDataRegionAsyncSink extends IoTDBSink implements PipeSinkWithS
 
   private boolean enableSendTsFileLimit;
   private volatile boolean isConnectionException;
+  // Turned off once the receiver is found to be an older version which can not handle the digest
+  private volatile boolean isTsFileDigestNegotiationSupported = true;
 
   @Override
   public void validate(final PipeParameterValidator validator) throws Exception {
@@ -841,6 +843,16 @@ public class IoTDBDataRegionAsyncSink extends IoTDBSink implements PipeSinkWithS
     return enableSendTsFileLimit;
   }
 
+  public boolean isTsFileDigestNegotiationEnabled() {
+    return isTsFileDigestNegotiationSupported
+        && PipeConfig.getInstance().isPipeSinkTsFileDigestNegotiationEnabled();
+  }
+
+  public void disableTsFileDigestNegotiation(final TSStatus status) {
+    isTsFileDigestNegotiationSupported = false;
+    LOGGER.info(DataNodePipeMessages.RECEIVER_NOT_SUPPORT_TSFILE_DIGEST_NEGOTIATION, status);
+  }
+
   public void waitIfReceiverRetryIsBackedOff(final TEndPoint endPoint) {
     final String endPointKey = format(endPoint);
     if (Objects.isNull(endPointKey)) {
@@ -34,10 +34,12 @@ import org.apache.iotdb.db.pipe.resource.PipeDataNodeResourceManager;
 import org.apache.iotdb.db.pipe.resource.memory.PipeMemoryManager;
 import org.apache.iotdb.db.pipe.resource.memory.PipeTsFileMemoryBlock;
 import org.apache.iotdb.db.pipe.sink.client.IoTDBDataNodeAsyncClientManager;
+import org.apache.iotdb.db.pipe.sink.payload.evolvable.request.PipeTransferTsFileDigestReq;
 import org.apache.iotdb.db.pipe.sink.payload.evolvable.request.PipeTransferTsFilePieceReq;
 import org.apache.iotdb.db.pipe.sink.payload.evolvable.request.PipeTransferTsFilePieceWithModReq;
 import org.apache.iotdb.db.pipe.sink.payload.evolvable.request.PipeTransferTsFileSealWithModReq;
 import org.apache.iotdb.db.pipe.sink.protocol.thrift.async.IoTDBDataRegionAsyncSink;
+import org.apache.iotdb.db.pipe.sink.util.cacher.TsFileDigestCacher;
 import org.apache.iotdb.pipe.api.exception.PipeConnectionException;
 import org.apache.iotdb.pipe.api.exception.PipeException;
 import org.apache.iotdb.rpc.TSStatusCode;
@@ -91,6 +93,10 @@ public class PipeTransferTsFileHandler extends PipeTransferTrackableHandler {
 
   private final AtomicBoolean isSealSignalSent;
 
+  // Only a single TsFile without mods is negotiated, the batched files are temporary
+  private boolean shouldNegotiateDigest;
+  private final AtomicBoolean isDigestNegotiating;
+
   private IoTDBDataNodeAsyncClientManager clientManager;
 
   public PipeTransferTsFileHandler(
@@ -137,6 +143,10 @@ public class PipeTransferTsFileHandler extends PipeTransferTrackableHandler {
     position = 0;
 
     isSealSignalSent = new AtomicBoolean(false);
+
+    shouldNegotiateDigest =
+        !transferMod && events.size() == 1 && events.get(0) instanceof PipeTsFileInsertionEvent;
+    isDigestNegotiating = new AtomicBoolean(false);
   }
 
   public File getTsFile() {
@@ -179,6 +189,13 @@ public class PipeTransferTsFileHandler extends PipeTransferTrackableHandler {
     client.setShouldReturnSelf(false);
     client.setTimeoutDynamically(clientManager.getConnectionTimeout());
 
+    if (shouldNegotiateDigest) {
+      shouldNegotiateDigest = false;
+      if (tryNegotiateDigest(client)) {
+        return;
+      }
+    }
+
     final int readLength = readNextFilePiece(reader, readBuffer);
 
     if (readLength == -1) {
@@ -253,6 +270,46 @@ public class PipeTransferTsFileHandler extends PipeTransferTrackableHandler {
     position += readLength;
   }
 
+  /**
+   * Send the digest of the TsFile before its pieces, so that the file received before can be
+   * skipped and the partially received file can be resumed.
+   *
+   * @return {@code true} if the digest request is sent
+   */
+  private boolean tryNegotiateDigest(final AsyncPipeDataTransferServiceClient client)
+      throws TException, IOException {
+    if (!sink.isTsFileDigestNegotiationEnabled()) {
+      return false;
+    }
+
+    final String digest;
+    try {
+      digest = TsFileDigestCacher.getDigest(tsFile, dataBaseName);
+    } catch (final IOException e) {
+      LOGGER.warn(DataNodePipeMessages.FAILED_TO_COMPUTE_TSFILE_DIGEST, tsFile, e);
+      return false;
+    }
+
+    final TPipeTransferReq req =
+        sink.compressIfNeeded(
+            PipeTransferTsFileDigestReq.toTPipeTransferReq(
+                tsFile.getName(),
+                tsFile.length(),
+                digest,
+                TsFileDigestCacher.getScope(events.get(0))));
+    pipeName2WeightMap.forEach(
+        (pipePair, weight) ->
+            sink.rateLimitIfNeeded(
+                pipePair.getLeft(),
+                pipePair.getRight(),
+                client.getEndPoint(),
+                (long) (req.getBody().length * weight)));
+
+    isDigestNegotiating.set(true);
+    tryTransfer(client, req);
+    return true;
+  }
+
   protected int readNextFilePiece(final RandomAccessFile reader, final byte[] readBuffer)
       throws IOException {
     final int readLength = reader.read(readBuffer);
@@ -301,49 +358,43 @@ public class PipeTransferTsFileHandler extends PipeTransferTrackableHandler {
         return false;
       }
 
-      try {
-        if (reader != null) {
-          reader.close();
-        }
+      onTransferCompleted();
+      return true;
+    }
 
-        // Delete current file when using tsFile as batch
-        if (events.stream().anyMatch(event -> !(event instanceof PipeTsFileInsertionEvent))) {
-          RetryUtils.retryOnException(
-              () -> {
-                FileUtils.delete(currentFile);
-                return null;
-              });
-        }
-      } catch (final IOException e) {
-        LOGGER.warn(DataNodePipeMessages.FAILED_TO_CLOSE_FILE_READER_OR_DELETE_1, e);
-      } finally {
-        final int referenceCount = eventsReferenceCount.decrementAndGet();
-        if (referenceCount <= 0) {
-          events.forEach(
-              event ->
-                  event.decreaseReferenceCount(PipeTransferTsFileHandler.class.getName(), true));
+    if (isDigestNegotiating.compareAndSet(true, false)) {
+      try {
+        final PipeTransferFilePieceResp resp =
+            PipeTransferFilePieceResp.fromTPipeTransferResp(response);
+        final TSStatus status = resp.getStatus();
+
+        if (status.getCode()
+            == TSStatusCode.PIPE_TRANSFER_FILE_ALREADY_RECEIVED.getStatusCode()) {
+          LOGGER.info(DataNodePipeMessages.TSFILE_ALREADY_RECEIVED_SKIP_TRANSFERRING, tsFile);
+          onTransferCompleted();
+          return true;
         }
 
-        if (events.size() <= 1 || LOGGER.isDebugEnabled()) {
-          LOGGER.info(
-              DataNodePipeMessages.SUCCESSFULLY_TRANSFERRED_FILE_COMMITTER_KEY_COMMIT_ID,
-              tsFile,
-              events.stream().map(EnrichedEvent::getCommitterKey).collect(Collectors.toList()),
-              events.stream().map(EnrichedEvent::getCommitIds).collect(Collectors.toList()),
-              referenceCount);
+        if (status.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+          if (resp.getEndWritingOffset() > 0 && resp.getEndWritingOffset() <= tsFile.length()) {
+            position = resp.getEndWritingOffset();
+            reader.seek(position);
+            LOGGER.info(
+                DataNodePipeMessages.RESUME_TRANSFERRING_TSFILE_FROM_POSITION, tsFile, position);
+          }
+        } else if (status.getCode() == TSStatusCode.PIPE_TYPE_ERROR.getStatusCode()) {
+          sink.disableTsFileDigestNegotiation(status);
         } else {
-          LOGGER.info(
-              DataNodePipeMessages
-                  .SUCCESSFULLY_TRANSFERRED_FILE_BATCHED_TABLEINSERTIONEVENTS_REFERENCE_COUNT,
-              tsFile,
-              referenceCount);
+          LOGGER.warn(DataNodePipeMessages.FAILED_TO_NEGOTIATE_TSFILE_DIGEST, tsFile, status);
         }
 
-        releaseReadBufferMemoryBlock();
-        returnClientIfNecessary();
+        transfer(clientManager, client);
+      } catch (final Exception e) {
+        onError(e);
+        return false;
       }
 
-      return true;
+      return false; // due to file pieces and seal transfer not yet completed
     }
 
     // If the isSealSignalSent is false, then the response must be a PipeTransferFilePieceResp
@@ -377,6 +428,50 @@ public class PipeTransferTsFileHandler extends PipeTransferTrackableHandler {
     return false; // due to seal transfer not yet completed
   }
 
+  private void onTransferCompleted() {
+    try {
+      if (reader != null) {
+        reader.close();
+      }
+
+      // Delete current file when using tsFile as batch
+      if (events.stream().anyMatch(event -> !(event instanceof PipeTsFileInsertionEvent))) {
+        RetryUtils.retryOnException(
+            () -> {
+              FileUtils.delete(currentFile);
+              return null;
+            });
+      }
+    } catch (final IOException e) {
+      LOGGER.warn(DataNodePipeMessages.FAILED_TO_CLOSE_FILE_READER_OR_DELETE_1, e);
+    } finally {
+      final int referenceCount = eventsReferenceCount.decrementAndGet();
+      if (referenceCount <= 0) {
+        events.forEach(
+            event ->
+                event.decreaseReferenceCount(PipeTransferTsFileHandler.class.getName(), true));
+      }
+
+      if (events.size() <= 1 || LOGGER.isDebugEnabled()) {
+        LOGGER.info(
+            DataNodePipeMessages.SUCCESSFULLY_TRANSFERRED_FILE_COMMITTER_KEY_COMMIT_ID,
+            tsFile,
+            events.stream().map(EnrichedEvent::getCommitterKey).collect(Collectors.toList()),
+            events.stream().map(EnrichedEvent::getCommitIds).collect(Collectors.toList()),
+            referenceCount);
+      } else {
+        LOGGER.info(
+            DataNodePipeMessages
+                .SUCCESSFULLY_TRANSFERRED_FILE_BATCHED_TABLEINSERTIONEVENTS_REFERENCE_COUNT,
+            tsFile,
+            referenceCount);
+      }
+
+      releaseReadBufferMemoryBlock();
+      returnClientIfNecessary();
+    }
+  }
+
   @Override
   public void onError(final Exception exception) {
     try {
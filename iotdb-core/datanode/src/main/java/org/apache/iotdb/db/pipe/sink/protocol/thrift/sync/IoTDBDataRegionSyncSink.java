@@ -48,10 +48,12 @@ import org.apache.iotdb.db.pipe.sink.payload.evolvable.batch.PipeTransferBatchRe
 import org.apache.iotdb.db.pipe.sink.payload.evolvable.request.PipeTransferPlanNodeReq;
 import org.apache.iotdb.db.pipe.sink.payload.evolvable.request.PipeTransferTabletInsertNodeReqV2;
 import org.apache.iotdb.db.pipe.sink.payload.evolvable.request.PipeTransferTabletRawReqV2;
+import org.apache.iotdb.db.pipe.sink.payload.evolvable.request.PipeTransferTsFileDigestReq;
 import org.apache.iotdb.db.pipe.sink.payload.evolvable.request.PipeTransferTsFilePieceReq;
 import org.apache.iotdb.db.pipe.sink.payload.evolvable.request.PipeTransferTsFilePieceWithModReq;
 import org.apache.iotdb.db.pipe.sink.payload.evolvable.request.PipeTransferTsFileSealWithModReq;
 import org.apache.iotdb.db.pipe.sink.util.cacher.LeaderCacheUtils;
+import org.apache.iotdb.db.pipe.sink.util.cacher.TsFileDigestCacher;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertNode;
 import org.apache.iotdb.metrics.type.Histogram;
 import org.apache.iotdb.pipe.api.annotation.TableModel;
@@ -93,9 +95,14 @@ public class IoTDBDataRegionSyncSink extends IoTDBDataNodeSyncSink {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(IoTDBDataRegionSyncSink.class);
 
+  private static final long TSFILE_ALREADY_RECEIVED = -1;
+
   private PipeTransferBatchReqBuilder tabletBatchBuilder;
   private boolean enableSendTsFileLimit;
 
+  // Turned off once the receiver is found to be an older version which can not handle the digest
+  private volatile boolean isTsFileDigestNegotiationSupported = true;
+
   @Override
   public void customize(
       final PipeParameters parameters, final PipeConnectorRuntimeConfiguration configuration)
@@ -353,7 +360,7 @@ public class IoTDBDataRegionSyncSink extends IoTDBDataNodeSyncSink {
 
     try {
       for (final Pair<String, File> dbTsFile : dbTsFilePairs) {
-        doTransfer(pipe2WeightMap, dbTsFile.right, null, dbTsFile.left);
+        doTransfer(pipe2WeightMap, dbTsFile.right, null, dbTsFile.left, null);
       }
     } finally {
       for (final Pair<String, File> dbTsFile : dbTsFilePairs) {
@@ -522,7 +529,8 @@ public class IoTDBDataRegionSyncSink extends IoTDBDataNodeSyncSink {
           pipeTsFileInsertionEvent.isWithMod() ? pipeTsFileInsertionEvent.getModFile() : null,
           pipeTsFileInsertionEvent.isTableModelEvent()
               ? pipeTsFileInsertionEvent.getTableModelDatabaseName()
-              : pipeTsFileInsertionEvent.getTreeModelDatabaseName());
+              : pipeTsFileInsertionEvent.getTreeModelDatabaseName(),
+          TsFileDigestCacher.getScope(pipeTsFileInsertionEvent));
     } finally {
       pipeTsFileInsertionEvent.decreaseReferenceCount(
           IoTDBDataRegionSyncSink.class.getName(), false);
@@ -533,7 +541,8 @@ public class IoTDBDataRegionSyncSink extends IoTDBDataNodeSyncSink {
       final Map<Pair<String, Long>, Double> pipeName2WeightMap,
       final File tsFile,
       final File modFile,
-      final String dataBaseName)
+      final String dataBaseName,
+      final String digestScope)
       throws PipeException, IOException {
 
     final Pair<IoTDBSyncClient, Boolean> clientAndStatus = clientManager.getClient();
@@ -577,7 +586,16 @@ public class IoTDBDataRegionSyncSink extends IoTDBDataNodeSyncSink {
             e);
       }
     } else {
-      transferFilePieces(pipeName2WeightMap, tsFile, clientAndStatus, false);
+      final long startPosition =
+          Objects.nonNull(digestScope)
+              ? negotiateTsFileDigest(
+                  pipeName2WeightMap, tsFile, dataBaseName, digestScope, clientAndStatus)
+              : 0;
+      if (startPosition == TSFILE_ALREADY_RECEIVED) {
+        LOGGER.info(DataNodePipeMessages.TSFILE_ALREADY_RECEIVED_SKIP_TRANSFERRING, tsFile);
+        return;
+      }
+      transferFilePieces(pipeName2WeightMap, tsFile, clientAndStatus, false, startPosition);
 
       // 2. Transfer file seal signal without mod, which means the file is transferred completely
       try {
@@ -624,6 +642,82 @@ public class IoTDBDataRegionSyncSink extends IoTDBDataNodeSyncSink {
     LOGGER.info(DataNodePipeMessages.SUCCESSFULLY_TRANSFERRED_FILE, tsFile);
   }
 
+  /**
+   * Tell the receiver the digest of the TsFile before transferring its pieces, so that the file
+   * received before can be skipped and the partially received file can be resumed.
+   *
+   * @return the position to start transferring from, or {@link #TSFILE_ALREADY_RECEIVED}
+   */
+  private long negotiateTsFileDigest(
+      final Map<Pair<String, Long>, Double> pipeName2WeightMap,
+      final File tsFile,
+      final String dataBaseName,
+      final String digestScope,
+      final Pair<IoTDBSyncClient, Boolean> clientAndStatus)
+      throws PipeException {
+    if (!isTsFileDigestNegotiationSupported
+        || !PipeConfig.getInstance().isPipeSinkTsFileDigestNegotiationEnabled()) {
+      return 0;
+    }
+
+    final String digest;
+    try {
+      digest = TsFileDigestCacher.getDigest(tsFile, dataBaseName);
+    } catch (final IOException e) {
+      LOGGER.warn(DataNodePipeMessages.FAILED_TO_COMPUTE_TSFILE_DIGEST, tsFile, e);
+      return 0;
+    }
+
+    final PipeTransferFilePieceResp resp;
+    try {
+      final TPipeTransferReq req =
+          compressIfNeeded(
+              PipeTransferTsFileDigestReq.toTPipeTransferReq(
+                  tsFile.getName(), tsFile.length(), digest, digestScope));
+      pipeName2WeightMap.forEach(
+          (pipePair, weight) ->
+              rateLimitIfNeeded(
+                  pipePair.getLeft(),
+                  pipePair.getRight(),
+                  clientAndStatus.getLeft().getEndPoint(),
+                  (long) (req.getBody().length * weight)));
+      resp =
+          PipeTransferFilePieceResp.fromTPipeTransferResp(
+              clientAndStatus.getLeft().pipeTransfer(req));
+    } catch (final Exception e) {
+      clientAndStatus.setRight(false);
+      throw new PipeConnectionException(
+          String.format(
+              DataNodePipeMessages
+                  .PIPE_EXCEPTION_NETWORK_ERROR_WHEN_TRANSFER_FILE_S_BECAUSE_S_3C673B7A,
+              tsFile,
+              e.getMessage()),
+          e);
+    }
+
+    final TSStatus status = resp.getStatus();
+    if (status.getCode() == TSStatusCode.PIPE_TRANSFER_FILE_ALREADY_RECEIVED.getStatusCode()) {
+      return TSFILE_ALREADY_RECEIVED;
+    }
+    if (status.getCode() == TSStatusCode.PIPE_TYPE_ERROR.getStatusCode()) {
+      isTsFileDigestNegotiationSupported = false;
+      LOGGER.info(DataNodePipeMessages.RECEIVER_NOT_SUPPORT_TSFILE_DIGEST_NEGOTIATION, status);
+      return 0;
+    }
+    if (status.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+      LOGGER.warn(DataNodePipeMessages.FAILED_TO_NEGOTIATE_TSFILE_DIGEST, tsFile, status);
+      return 0;
+    }
+
+    final long startPosition = resp.getEndWritingOffset();
+    if (startPosition <= 0 || startPosition > tsFile.length()) {
+      return 0;
+    }
+    LOGGER.info(
+        DataNodePipeMessages.RESUME_TRANSFERRING_TSFILE_FROM_POSITION, tsFile, startPosition);
+    return startPosition;
+  }
+
   @Override
   protected void transferFilePieces(
       final Map<Pair<String, Long>, Double> pipe2WeightMap,
@@ -631,13 +725,24 @@ public class IoTDBDataRegionSyncSink extends IoTDBDataNodeSyncSink {
       final Pair<IoTDBSyncClient, Boolean> clientAndStatus,
       final boolean isMultiFile)
       throws PipeException, IOException {
+    transferFilePieces(pipe2WeightMap, file, clientAndStatus, isMultiFile, 0);
+  }
+
+  private void transferFilePieces(
+      final Map<Pair<String, Long>, Double> pipe2WeightMap,
+      final File file,
+      final Pair<IoTDBSyncClient, Boolean> clientAndStatus,
+      final boolean isMultiFile,
+      final long startPosition)
+      throws PipeException, IOException {
     final int readFileBufferSize = getReadFileBufferSize(file);
     try (final PipeTsFileMemoryBlock ignored =
             PipeDataNodeResourceManager.memory()
                 .forceAllocateForTsFileWithRetry(readFileBufferSize);
         final RandomAccessFile reader = new RandomAccessFile(file, "r")) {
       final byte[] readBuffer = new byte[readFileBufferSize];
-      long position = 0;
+      long position = startPosition;
+      reader.seek(startPosition);
       int readLength;
       while ((readLength = readNextFilePiece(reader, readBuffer)) != -1) {
         position =
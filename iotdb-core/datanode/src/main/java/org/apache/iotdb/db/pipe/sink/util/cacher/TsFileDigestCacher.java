@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.sink.util.cacher;
+
+import org.apache.iotdb.commons.pipe.event.EnrichedEvent;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Computes the content digest of the TsFiles to be transferred, which is used to negotiate with the
+ * receiver whether a file can be skipped or resumed. The digests are cached by the path, length and
+ * modification time of the file, so that a file retried after a broken transfer is not read twice.
+ */
+public class TsFileDigestCacher {
+
+  private static final String DIGEST_ALGORITHM = "SHA-256";
+  private static final int READ_BUFFER_SIZE = 64 * 1024;
+  private static final int MAX_CACHED_DIGEST_COUNT = 4096;
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private static final Cache<String, String> DIGEST_CACHE =
+      Caffeine.newBuilder().maximumSize(MAX_CACHED_DIGEST_COUNT).build();
+
+  private TsFileDigestCacher() {
+    // Do nothing
+  }
+
+  /**
+   * Get the digest of the file to be loaded into the database. The same file loaded into different
+   * databases are different for the receiver, so the database name is mixed into the digest.
+   */
+  public static String getDigest(final File file, final String dataBaseName) throws IOException {
+    final String key = file.getAbsolutePath() + '#' + file.length() + '#' + file.lastModified();
+    String contentDigest = DIGEST_CACHE.getIfPresent(key);
+    if (contentDigest == null) {
+      contentDigest = computeDigest(file);
+      DIGEST_CACHE.put(key, contentDigest);
+    }
+    if (dataBaseName == null) {
+      return contentDigest;
+    }
+
+    final MessageDigest messageDigest = newMessageDigest();
+    messageDigest.update((contentDigest + '#' + dataBaseName).getBytes(StandardCharsets.UTF_8));
+    return toHexString(messageDigest.digest());
+  }
+
+  /**
+   * Get the scope of the digests of the event. The receiver keeps the digests of different pipes
+   * and regions apart, and a pipe created again with the same name starts from an empty scope.
+   */
+  public static String getScope(final EnrichedEvent event) {
+    return event.getPipeName() + '_' + event.getCreationTime() + '_' + event.getRegionId();
+  }
+
+  public static String computeDigest(final File file) throws IOException {
+    final MessageDigest messageDigest = newMessageDigest();
+    final byte[] buffer = new byte[READ_BUFFER_SIZE];
+    try (final InputStream inputStream = Files.newInputStream(file.toPath())) {
+      int readLength;
+      while ((readLength = inputStream.read(buffer)) != -1) {
+        messageDigest.update(buffer, 0, readLength);
+      }
+    }
+    return toHexString(messageDigest.digest());
+  }
+
+  private static MessageDigest newMessageDigest() throws IOException {
+    try {
+      return MessageDigest.getInstance(DIGEST_ALGORITHM);
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IOException(e);
+    }
+  }
+
+  private static String toHexString(final byte[] bytes) {
+    final char[] hex = new char[bytes.length * 2];
+    for (int i = 0; i < bytes.length; i++) {
+      hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+      hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+    }
+    return new String(hex);
+  }
+}
@@ -58,6 +58,8 @@ public class CachedSchemaPatternMatcher implements PipeDataRegionMatcher {
 
   protected final ReentrantReadWriteLock lock;
   protected final Set<PipeRealtimeDataRegionSource> sources;
+  // Narrow down the sources to check when the caches are missed
+  protected final SchemaPatternIndex patternIndex;
 
   // Use full cache to avoid queue stuck and block insertion
   protected final Map<IDeviceID, Set<PipeRealtimeDataRegionSource>> deviceToSourcesCache;
@@ -70,6 +72,7 @@ public class CachedSchemaPatternMatcher implements PipeDataRegionMatcher {
     // iterated by {@link #assignToSource}, at the same time the sources may be added or
     // removed by {@link #register} and {@link #deregister}.
     this.sources = new CopyOnWriteArraySet<>();
+    this.patternIndex = new SchemaPatternIndex();
     this.deviceToSourcesCache = new ConcurrentHashMap<>();
     this.databaseAndTableToSourcesCache = new ConcurrentHashMap<>();
   }
@@ -79,6 +82,7 @@ public class CachedSchemaPatternMatcher implements PipeDataRegionMatcher {
     lock.writeLock().lock();
     try {
       sources.add(source);
+      patternIndex.add(source);
       deviceToSourcesCache.clear();
       databaseAndTableToSourcesCache.clear();
     } finally {
@@ -91,6 +95,7 @@ public class CachedSchemaPatternMatcher implements PipeDataRegionMatcher {
     lock.writeLock().lock();
     try {
       sources.remove(source);
+      patternIndex.remove(source);
       deviceToSourcesCache.clear();
       databaseAndTableToSourcesCache.clear();
     } finally {
@@ -254,7 +259,7 @@ public class CachedSchemaPatternMatcher implements PipeDataRegionMatcher {
   protected Set<PipeRealtimeDataRegionSource> filterSourcesByDevice(final IDeviceID device) {
     final Set<PipeRealtimeDataRegionSource> filteredSources = new HashSet<>();
 
-    for (final PipeRealtimeDataRegionSource source : sources) {
+    for (final PipeRealtimeDataRegionSource source : patternIndex.getTreeCandidates(device)) {
       // Return if the source only extract deletion
       if (!source.shouldExtractInsertion()) {
         continue;
@@ -297,7 +302,10 @@ public class CachedSchemaPatternMatcher implements PipeDataRegionMatcher {
       final Pair<String, IDeviceID> databaseNameAndTableName) {
     final Set<PipeRealtimeDataRegionSource> filteredSources = new HashSet<>();
 
-    for (final PipeRealtimeDataRegionSource source : sources) {
+    for (final PipeRealtimeDataRegionSource source :
+        patternIndex.getTableCandidates(
+            databaseNameAndTableName.getLeft(),
+            databaseNameAndTableName.getRight().getTableName())) {
       // Return if the source only extract deletion
       if (!source.shouldExtractInsertion()) {
         continue;
@@ -340,6 +348,7 @@ public class CachedSchemaPatternMatcher implements PipeDataRegionMatcher {
     lock.writeLock().lock();
     try {
       sources.clear();
+      patternIndex.clear();
       deviceToSourcesCache.clear();
       databaseAndTableToSourcesCache.clear();
     } finally {
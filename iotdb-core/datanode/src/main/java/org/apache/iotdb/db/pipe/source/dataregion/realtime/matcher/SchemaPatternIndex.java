@@ -0,0 +1,382 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.pipe.source.dataregion.realtime.matcher;
+
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.pipe.datastructure.pattern.IoTDBTreePattern;
+import org.apache.iotdb.commons.pipe.datastructure.pattern.PrefixTreePattern;
+import org.apache.iotdb.commons.pipe.datastructure.pattern.TablePattern;
+import org.apache.iotdb.commons.pipe.datastructure.pattern.TreePattern;
+import org.apache.iotdb.commons.pipe.datastructure.pattern.UnionIoTDBTreePattern;
+import org.apache.iotdb.db.pipe.source.dataregion.realtime.PipeRealtimeDataRegionSource;
+
+import org.apache.tsfile.common.constant.TsFileConstant;
+import org.apache.tsfile.file.metadata.IDeviceID;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * An index over the patterns of all the {@link PipeRealtimeDataRegionSource}s registered in a
+ * {@link CachedSchemaPatternMatcher}, so that the candidate sources of a device can be found in
+ * one traversal instead of checking every source's pattern.
+ *
+ * <p>Tree patterns are merged into a trie keyed by their leading literal nodes. A pattern is put
+ * under the node of its longest wildcard-free prefix, and a trailing node like "d1*" (or the last
+ * node of a {@link PrefixTreePattern}, which is matched by string prefix) is kept as a prefix entry
+ * of that node. Table patterns are grouped by their database and table names if they are plain
+ * names rather than regular expressions.
+ *
+ * <p>The index only narrows down the sources: it may return sources that do not match, and the
+ * caller shall check them precisely. It never misses a matched source. Patterns that can not be
+ * indexed are always returned as candidates.
+ *
+ * <p>This class is not thread-safe, it is guarded by the lock of {@link
+ * CachedSchemaPatternMatcher}.
+ */
+public class SchemaPatternIndex {
+
+  private static final String ANY_NAME = "*";
+
+  private static final Pattern PLAIN_NAME_PATTERN = Pattern.compile("[A-Za-z0-9_]+");
+
+  // Tree model
+  private final TrieNode treeRoot = new TrieNode();
+  private final Map<PipeRealtimeDataRegionSource, List<PatternKey>> sourceToTreeKeys =
+      new HashMap<>();
+  private final Set<PipeRealtimeDataRegionSource> unindexedTreeSources = new HashSet<>();
+
+  // Table model, database name (or any) -> table name (or any) -> sources
+  private final Map<String, Map<String, Set<PipeRealtimeDataRegionSource>>>
+      databaseToTableToSources = new HashMap<>();
+  private final Map<PipeRealtimeDataRegionSource, String[]> sourceToTableKey = new HashMap<>();
+
+  public void add(final PipeRealtimeDataRegionSource source) {
+    // Sources only extracting deletion will never be matched by data
+    if (!source.shouldExtractInsertion()) {
+      return;
+    }
+    addTreeSource(source);
+    addTableSource(source);
+  }
+
+  public void remove(final PipeRealtimeDataRegionSource source) {
+    unindexedTreeSources.remove(source);
+    final List<PatternKey> treeKeys = sourceToTreeKeys.remove(source);
+    if (Objects.nonNull(treeKeys)) {
+      for (final PatternKey key : treeKeys) {
+        treeRoot.remove(key, 0, source);
+      }
+    }
+
+    final String[] tableKey = sourceToTableKey.remove(source);
+    if (Objects.nonNull(tableKey)) {
+      final Map<String, Set<PipeRealtimeDataRegionSource>> tableToSources =
+          databaseToTableToSources.get(tableKey[0]);
+      final Set<PipeRealtimeDataRegionSource> sources = tableToSources.get(tableKey[1]);
+      sources.remove(source);
+      if (sources.isEmpty()) {
+        tableToSources.remove(tableKey[1]);
+        if (tableToSources.isEmpty()) {
+          databaseToTableToSources.remove(tableKey[0]);
+        }
+      }
+    }
+  }
+
+  public void clear() {
+    treeRoot.clear();
+    sourceToTreeKeys.clear();
+    unindexedTreeSources.clear();
+    databaseToTableToSources.clear();
+    sourceToTableKey.clear();
+  }
+
+  /////////////////////////////// Tree model ///////////////////////////////
+
+  private void addTreeSource(final PipeRealtimeDataRegionSource source) {
+    final TreePattern treePattern = source.getTreePattern();
+    if (Objects.nonNull(treePattern) && !treePattern.isTreeModelDataAllowedToBeCaptured()) {
+      return;
+    }
+
+    final List<PatternKey> keys = parseTreePatternKeys(treePattern);
+    if (Objects.isNull(keys)) {
+      unindexedTreeSources.add(source);
+      return;
+    }
+    for (final PatternKey key : keys) {
+      treeRoot.add(key, 0, source);
+    }
+    sourceToTreeKeys.put(source, keys);
+  }
+
+  /**
+   * Get the sources whose tree pattern may overlap with the device.
+   *
+   * @return a superset of the sources whose tree pattern overlaps with the device
+   */
+  public Set<PipeRealtimeDataRegionSource> getTreeCandidates(final IDeviceID device) {
+    final Set<PipeRealtimeDataRegionSource> candidates = new HashSet<>(unindexedTreeSources);
+
+    final String deviceString = device.toString();
+    if (deviceString.contains(TsFileConstant.BACK_QUOTE_STRING)) {
+      // The nodes can not be split simply, give up the index
+      candidates.addAll(sourceToTreeKeys.keySet());
+      return candidates;
+    }
+
+    final String[] deviceNodes = deviceString.split(TsFileConstant.PATH_SEPARATER_NO_REGEX, -1);
+    TrieNode node = treeRoot;
+    candidates.addAll(node.sources);
+    for (int i = 0; i < deviceNodes.length; i++) {
+      final String deviceNode = deviceNodes[i];
+
+      // Prefix entries whose prefix is a prefix of the device node
+      for (int length = 0;
+          !node.prefixToSources.isEmpty() && length <= deviceNode.length();
+          length++) {
+        final Set<PipeRealtimeDataRegionSource> sources =
+            node.prefixToSources.get(deviceNode.substring(0, length));
+        if (Objects.nonNull(sources)) {
+          candidates.addAll(sources);
+        }
+      }
+
+      if (i == deviceNodes.length - 1) {
+        // The patterns longer than the device may overlap with the device. Since a prefix pattern
+        // is matched by string, e.g. "root.db.d1" overlaps with "root.db.d", the nodes starting
+        // with the last device node are also taken into account.
+        final String upperBound = deviceNode + Character.MAX_VALUE;
+        node.prefixToSources
+            .subMap(deviceNode, true, upperBound, false)
+            .values()
+            .forEach(candidates::addAll);
+        node.children
+            .subMap(deviceNode, true, upperBound, false)
+            .values()
+            .forEach(child -> child.collectAll(candidates));
+        break;
+      }
+
+      node = node.children.get(deviceNode);
+      if (Objects.isNull(node)) {
+        break;
+      }
+      candidates.addAll(node.sources);
+    }
+    return candidates;
+  }
+
+  /**
+   * Parse the keys of a tree pattern in the trie.
+   *
+   * @return {@code null} if the pattern can not be indexed
+   */
+  private static List<PatternKey> parseTreePatternKeys(final TreePattern treePattern) {
+    if (treePattern instanceof PrefixTreePattern) {
+      final String pattern = treePattern.getPattern();
+      if (pattern.contains(TsFileConstant.BACK_QUOTE_STRING)) {
+        return null;
+      }
+      // The last node is matched by string prefix, e.g. "root.db.d" matches "root.db.d1"
+      final String[] nodes = pattern.split(TsFileConstant.PATH_SEPARATER_NO_REGEX, -1);
+      return Collections.singletonList(
+          new PatternKey(
+              Arrays.copyOfRange(nodes, 0, nodes.length - 1), nodes[nodes.length - 1]));
+    }
+    if (treePattern instanceof IoTDBTreePattern) {
+      return Collections.singletonList(
+          parsePathPatternKey(treePattern.getBaseInclusionPaths().get(0)));
+    }
+    if (treePattern instanceof UnionIoTDBTreePattern) {
+      final List<PatternKey> keys = new ArrayList<>();
+      for (final IoTDBTreePattern pattern : ((UnionIoTDBTreePattern) treePattern).getPatterns()) {
+        keys.add(parsePathPatternKey(pattern.getBaseInclusionPaths().get(0)));
+      }
+      return keys;
+    }
+    // Null pattern matches everything, and exclusion patterns are not indexed for simplicity
+    return null;
+  }
+
+  private static PatternKey parsePathPatternKey(final PartialPath path) {
+    final String[] nodes = path.getNodes();
+    final List<String> literalNodes = new ArrayList<>();
+    String prefix = null;
+    for (final String node : nodes) {
+      if (node.contains(TsFileConstant.BACK_QUOTE_STRING)) {
+        break;
+      }
+      final int wildcardIndex = node.indexOf('*');
+      if (wildcardIndex >= 0) {
+        // "d1*" can be indexed by the prefix "d1", while "*", "**" and "d*1" can not
+        if (wildcardIndex > 0 && wildcardIndex == node.length() - 1) {
+          prefix = node.substring(0, wildcardIndex);
+        }
+        break;
+      }
+      literalNodes.add(node);
+    }
+    return new PatternKey(literalNodes.toArray(new String[0]), prefix);
+  }
+
+  /////////////////////////////// Table model ///////////////////////////////
+
+  private void addTableSource(final PipeRealtimeDataRegionSource source) {
+    final TablePattern tablePattern = source.getTablePattern();
+    if (Objects.nonNull(tablePattern) && !tablePattern.isTableModelDataAllowedToBeCaptured()) {
+      return;
+    }
+
+    final String[] key =
+        Objects.isNull(tablePattern)
+            ? new String[] {ANY_NAME, ANY_NAME}
+            : new String[] {
+              toIndexName(tablePattern.getDatabasePattern()),
+              toIndexName(tablePattern.getTablePattern())
+            };
+    databaseToTableToSources
+        .computeIfAbsent(key[0], k -> new HashMap<>())
+        .computeIfAbsent(key[1], k -> new HashSet<>())
+        .add(source);
+    sourceToTableKey.put(source, key);
+  }
+
+  /**
+   * Get the sources whose table pattern may match the table.
+   *
+   * @return a superset of the sources whose table pattern matches the table
+   */
+  public Set<PipeRealtimeDataRegionSource> getTableCandidates(
+      final String databaseName, final String tableName) {
+    final Set<PipeRealtimeDataRegionSource> candidates = new HashSet<>();
+    collectTableCandidates(databaseToTableToSources.get(databaseName), tableName, candidates);
+    collectTableCandidates(databaseToTableToSources.get(ANY_NAME), tableName, candidates);
+    return candidates;
+  }
+
+  private static void collectTableCandidates(
+      final Map<String, Set<PipeRealtimeDataRegionSource>> tableToSources,
+      final String tableName,
+      final Set<PipeRealtimeDataRegionSource> candidates) {
+    if (Objects.isNull(tableToSources)) {
+      return;
+    }
+    final Set<PipeRealtimeDataRegionSource> sources = tableToSources.get(tableName);
+    if (Objects.nonNull(sources)) {
+      candidates.addAll(sources);
+    }
+    final Set<PipeRealtimeDataRegionSource> anyTableSources = tableToSources.get(ANY_NAME);
+    if (Objects.nonNull(anyTableSources)) {
+      candidates.addAll(anyTableSources);
+    }
+  }
+
+  /** A plain name is matched by equality, other regular expressions are indexed as any. */
+  private static String toIndexName(final String regex) {
+    return PLAIN_NAME_PATTERN.matcher(regex).matches() ? regex : ANY_NAME;
+  }
+
+  /////////////////////////////// Trie ///////////////////////////////
+
+  /** The literal leading nodes of a tree pattern, with an optional prefix of the next node. */
+  private static class PatternKey {
+
+    private final String[] nodes;
+    private final String prefix;
+
+    private PatternKey(final String[] nodes, final String prefix) {
+      this.nodes = nodes;
+      this.prefix = prefix;
+    }
+  }
+
+  private static class TrieNode {
+
+    private final TreeMap<String, TrieNode> children = new TreeMap<>();
+
+    // Sources whose key ends at this node
+    private final Set<PipeRealtimeDataRegionSource> sources = new HashSet<>();
+
+    // Sources whose key ends with a prefix of the child node, by the prefix
+    private final TreeMap<String, Set<PipeRealtimeDataRegionSource>> prefixToSources =
+        new TreeMap<>();
+
+    private void add(
+        final PatternKey key, final int depth, final PipeRealtimeDataRegionSource source) {
+      if (depth < key.nodes.length) {
+        children.computeIfAbsent(key.nodes[depth], k -> new TrieNode()).add(key, depth + 1, source);
+      } else if (Objects.nonNull(key.prefix)) {
+        prefixToSources.computeIfAbsent(key.prefix, k -> new HashSet<>()).add(source);
+      } else {
+        sources.add(source);
+      }
+    }
+
+    private void remove(
+        final PatternKey key, final int depth, final PipeRealtimeDataRegionSource source) {
+      if (depth < key.nodes.length) {
+        final TrieNode child = children.get(key.nodes[depth]);
+        if (Objects.nonNull(child)) {
+          child.remove(key, depth + 1, source);
+          if (child.isEmpty()) {
+            children.remove(key.nodes[depth]);
+          }
+        }
+      } else if (Objects.nonNull(key.prefix)) {
+        final Set<PipeRealtimeDataRegionSource> prefixSources = prefixToSources.get(key.prefix);
+        if (Objects.nonNull(prefixSources)) {
+          prefixSources.remove(source);
+          if (prefixSources.isEmpty()) {
+            prefixToSources.remove(key.prefix);
+          }
+        }
+      } else {
+        sources.remove(source);
+      }
+    }
+
+    private void collectAll(final Set<PipeRealtimeDataRegionSource> candidates) {
+      candidates.addAll(sources);
+      prefixToSources.values().forEach(candidates::addAll);
+      children.values().forEach(child -> child.collectAll(candidates));
+    }
+
+    private boolean isEmpty() {
+      return children.isEmpty() && sources.isEmpty() && prefixToSources.isEmpty();
+    }
+
+    private void clear() {
+      children.clear();
+      sources.clear();
+      prefixToSources.clear();
+    }
+  }
+}
@@ -43,6 +43,7 @@ import org.apache.iotdb.db.queryengine.plan.relational.security.TreeAccessCheckC
 import org.apache.iotdb.db.queryengine.plan.relational.sql.parser.SqlParser;
 import org.apache.iotdb.db.queryengine.plan.statement.StatementType;
 import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertMultiTabletsStatement;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowsStatement;
 import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertTabletStatement;
 import org.apache.iotdb.db.utils.CommonUtils;
 import org.apache.iotdb.rpc.TSStatusCode;
@@ -129,6 +130,34 @@ public class DataNodeInternalClient {
     }
   }
 
+  public TSStatus insertRows(InsertRowsStatement statement) {
+    try {
+      // permission check
+      TSStatus status =
+          AuthorityChecker.checkAuthority(
+              statement,
+              new TreeAccessCheckContext(
+                  session.getUserId(), session.getUsername(), session.getClientAddress()));
+      if (status.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+        return status;
+      }
+      // call the coordinator
+      long queryId = SESSION_MANAGER.requestQueryId();
+      ExecutionResult result =
+          COORDINATOR.executeForTreeModel(
+              statement,
+              queryId,
+              SESSION_MANAGER.getSessionInfo(session),
+              "",
+              partitionFetcher,
+              schemaFetcher);
+      return result.status;
+    } catch (final Exception e) {
+      return onQueryException(
+          e, OperationType.INSERT_RECORDS.getName(), TSStatusCode.EXECUTE_STATEMENT_ERROR);
+    }
+  }
+
   public TSStatus insertRelationalTablet(InsertTabletStatement statement) {
     long startTime = System.nanoTime();
     try {
@@ -26,6 +26,7 @@ import org.apache.iotdb.commons.queryengine.common.SqlDialect;
 import org.apache.iotdb.commons.utils.CommonDateTimeUtils;
 import org.apache.iotdb.commons.utils.PathUtils;
 import org.apache.iotdb.db.i18n.DataNodeMiscMessages;
+import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.InsertTabletShapeCache;
 import org.apache.iotdb.rpc.subscription.annotation.TableModel;
 import org.apache.iotdb.service.rpc.thrift.TSConnectionInfo;
 import org.apache.iotdb.service.rpc.thrift.TSConnectionType;
@@ -61,6 +62,9 @@ public abstract class IClientSession {
 
   private long lastActiveTime = CommonDateTimeUtils.currentTime();
 
+  @Nullable
+  private final InsertTabletShapeCache insertTabletShapeCache = InsertTabletShapeCache.create();
+
   public abstract String getClientAddress();
 
   public abstract int getClientPort();
@@ -229,6 +233,14 @@ public abstract class IClientSession {
    */
   public abstract Set<String> getPreparedStatementNames();
 
+  /**
+   * @return null if the shapes of insertTablet are not remembered
+   */
+  @Nullable
+  public InsertTabletShapeCache getInsertTabletShapeCache() {
+    return insertTabletShapeCache;
+  }
+
   public long getLastActiveTime() {
     return lastActiveTime;
   }
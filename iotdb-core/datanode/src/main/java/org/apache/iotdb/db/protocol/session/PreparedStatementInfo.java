@@ -21,6 +21,7 @@ package org.apache.iotdb.db.protocol.session;
 
 import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.Statement;
 import org.apache.iotdb.db.i18n.DataNodeMiscMessages;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.PreparedPlanCache;
 
 import java.util.Objects;
 
@@ -36,6 +37,8 @@ public class PreparedStatementInfo {
   private final Statement sql; // Cached AST (contains Parameter nodes)
   private final long createTime;
   private final long memorySizeInBytes; // Memory size allocated for this PreparedStatement
+  // Cached analyses of EXECUTE, null if disabled or the statement is not cacheable
+  private final PreparedPlanCache planCache;
 
   public PreparedStatementInfo(String statementName, Statement sql, long memorySizeInBytes) {
     this.statementName =
@@ -44,6 +47,7 @@ public class PreparedStatementInfo {
     this.sql = requireNonNull(sql, DataNodeMiscMessages.EXCEPTION_SQL_IS_NULL_BEDB2B7A);
     this.createTime = System.currentTimeMillis();
     this.memorySizeInBytes = memorySizeInBytes;
+    this.planCache = PreparedPlanCache.create(sql);
   }
 
   public PreparedStatementInfo(
@@ -54,6 +58,7 @@ public class PreparedStatementInfo {
     this.sql = requireNonNull(sql, DataNodeMiscMessages.EXCEPTION_SQL_IS_NULL_BEDB2B7A);
     this.createTime = createTime;
     this.memorySizeInBytes = memorySizeInBytes;
+    this.planCache = PreparedPlanCache.create(sql);
   }
 
   public String getStatementName() {
@@ -72,6 +77,10 @@ public class PreparedStatementInfo {
     return memorySizeInBytes;
   }
 
+  public PreparedPlanCache getPlanCache() {
+    return planCache;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -2757,6 +2757,7 @@ public class ClientRPCServiceImpl implements IClientRPCServiceWithHandler {
         if (status.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
           return status;
         }
+        statement.setShapeCache(clientSession.getInsertTabletShapeCache());
       }
 
       quota =
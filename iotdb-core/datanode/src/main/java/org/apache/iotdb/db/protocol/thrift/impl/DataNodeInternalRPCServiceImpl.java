@@ -59,7 +59,6 @@ import org.apache.iotdb.commons.concurrent.threadpool.WrappedThreadPoolExecutor;
 import org.apache.iotdb.commons.conf.CommonConfig;
 import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.conf.ConfigurationFileUtils;
-import org.apache.iotdb.commons.conf.IoTDBConstant.ClientVersion;
 import org.apache.iotdb.commons.consensus.ConsensusGroupId;
 import org.apache.iotdb.commons.consensus.DataRegionId;
 import org.apache.iotdb.commons.consensus.SchemaRegionId;
@@ -116,6 +115,8 @@ import org.apache.iotdb.db.auth.LoginLockManager;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.consensus.DataRegionConsensusImpl;
 import org.apache.iotdb.db.consensus.SchemaRegionConsensusImpl;
+import org.apache.iotdb.db.cq.ContinuousQueryExecutor;
+import org.apache.iotdb.db.cq.IncrementalContinuousQueryManager;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.i18n.DataNodeMiscMessages;
 import org.apache.iotdb.db.i18n.DataNodeSchemaMessages;
@@ -129,8 +130,6 @@ import org.apache.iotdb.db.protocol.client.dn.DataNodeIntraHeartbeatManager;
 import org.apache.iotdb.db.protocol.client.dn.DataNodeMPPServiceAsyncRequestManager;
 import org.apache.iotdb.db.protocol.client.dn.DnToDnInternalServiceAsyncRequestManager;
 import org.apache.iotdb.db.protocol.client.dn.DnToDnRequestType;
-import org.apache.iotdb.db.protocol.session.IClientSession;
-import org.apache.iotdb.db.protocol.session.InternalClientSession;
 import org.apache.iotdb.db.protocol.session.SessionManager;
 import org.apache.iotdb.db.protocol.thrift.OperationType;
 import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
@@ -154,12 +153,6 @@ import org.apache.iotdb.db.queryengine.plan.analyze.schema.ClusterSchemaFetcher;
 import org.apache.iotdb.db.queryengine.plan.analyze.schema.ISchemaFetcher;
 import org.apache.iotdb.db.queryengine.plan.execution.ExecutionResult;
 import org.apache.iotdb.db.queryengine.plan.execution.IQueryExecution;
-import org.apache.iotdb.db.queryengine.plan.expression.Expression;
-import org.apache.iotdb.db.queryengine.plan.expression.binary.GreaterEqualExpression;
-import org.apache.iotdb.db.queryengine.plan.expression.binary.LessThanExpression;
-import org.apache.iotdb.db.queryengine.plan.expression.binary.LogicAndExpression;
-import org.apache.iotdb.db.queryengine.plan.expression.leaf.ConstantOperand;
-import org.apache.iotdb.db.queryengine.plan.expression.leaf.TimestampOperand;
 import org.apache.iotdb.db.queryengine.plan.parser.StatementGenerator;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.FragmentInstance;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.load.LoadTsFilePieceNode;
@@ -190,9 +183,7 @@ import org.apache.iotdb.db.queryengine.plan.relational.planner.node.schema.Table
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.schema.TableSchemaQueryWriteVisitor;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.DeleteDevice;
 import org.apache.iotdb.db.queryengine.plan.scheduler.load.LoadTsFileScheduler;
-import org.apache.iotdb.db.queryengine.plan.statement.component.WhereCondition;
 import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowStatement;
-import org.apache.iotdb.db.queryengine.plan.statement.crud.QueryStatement;
 import org.apache.iotdb.db.schemaengine.SchemaEngine;
 import org.apache.iotdb.db.schemaengine.lease.MetadataLeaseManager;
 import org.apache.iotdb.db.schemaengine.schemaregion.ISchemaRegion;
@@ -356,7 +347,6 @@ import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.exception.NotImplementedException;
 import org.apache.tsfile.external.commons.lang3.StringUtils;
 import org.apache.tsfile.read.common.TimeRange;
-import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.utils.Pair;
 import org.apache.tsfile.utils.PublicBAOS;
 import org.apache.tsfile.utils.RamUsageEstimator;
@@ -407,7 +397,6 @@ import static org.apache.iotdb.commons.conf.IoTDBConstant.MULTI_LEVEL_PATH_WILDC
 import static org.apache.iotdb.db.queryengine.plan.statement.metadata.AlterTimeSeriesStatement.AlterType.SET_DATA_TYPE;
 import static org.apache.iotdb.db.service.RegionMigrateService.REGION_MIGRATE_PROCESS;
 import static org.apache.iotdb.db.utils.ErrorHandlingUtils.onIoTDBException;
-import static org.apache.iotdb.db.utils.ErrorHandlingUtils.onQueryException;
 
 public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface {
   private static final Logger LOGGER =
@@ -1757,93 +1746,13 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
 
   @Override
   public TSStatus executeCQ(TExecuteCQ req) {
-
-    IClientSession session = new InternalClientSession(req.cqId);
-
-    SESSION_MANAGER.registerSession(session);
-
-    SESSION_MANAGER.supplySession(
-        session,
-        // TODO: User the real userId
-        -1,
-        req.getUsername(),
-        ZoneId.of(req.getZoneId()),
-        ClientVersion.V_1_0);
-
-    String executedSQL = req.queryBody;
-
-    try {
-      QueryStatement s =
-          (QueryStatement) StatementGenerator.createStatement(req.queryBody, session.getZoneId());
-      if (s == null) {
-        return RpcUtils.getStatus(
-            TSStatusCode.SQL_PARSE_ERROR, "This operation type is not supported");
-      }
-
-      // 1. Add time filter in where
-      Expression timeFilter =
-          new LogicAndExpression(
-              new GreaterEqualExpression(
-                  new TimestampOperand(),
-                  new ConstantOperand(TSDataType.INT64, String.valueOf(req.startTime))),
-              new LessThanExpression(
-                  new TimestampOperand(),
-                  new ConstantOperand(TSDataType.INT64, String.valueOf(req.endTime))));
-      if (s.getWhereCondition() != null) {
-        s.getWhereCondition()
-            .setPredicate(new LogicAndExpression(timeFilter, s.getWhereCondition().getPredicate()));
-      } else {
-        s.setWhereCondition(new WhereCondition(timeFilter));
-      }
-
-      // 2. Add time range in group by time
-      if (s.getGroupByTimeComponent() != null) {
-        s.getGroupByTimeComponent().setStartTime(req.startTime);
-        s.getGroupByTimeComponent().setEndTime(req.endTime);
-        s.getGroupByTimeComponent().setLeftCRightO(true);
-      }
-      executedSQL = String.join(" ", s.constructFormattedSQL().split("\n")).replaceAll(" +", " ");
-
-      long queryId =
-          SESSION_MANAGER.requestQueryId(session, SESSION_MANAGER.requestStatementId(session));
-      // Create and cache dataset
-      ExecutionResult result =
-          COORDINATOR.executeForTreeModel(
-              s,
-              queryId,
-              SESSION_MANAGER.getSessionInfo(session),
-              executedSQL,
-              partitionFetcher,
-              schemaFetcher,
-              req.getTimeout(),
-              false,
-              false);
-
-      if (result.status.code != TSStatusCode.SUCCESS_STATUS.getStatusCode()
-          && result.status.code != TSStatusCode.REDIRECTION_RECOMMEND.getStatusCode()) {
-        return result.status;
-      }
-
-      IQueryExecution queryExecution = COORDINATOR.getQueryExecution(queryId);
-
-      try (SetThreadName threadName = new SetThreadName(result.queryId.getId())) {
-        if (queryExecution != null) {
-          // Consume up all the result
-          while (true) {
-            Optional<TsBlock> optionalTsBlock = queryExecution.getBatchResult();
-            if (!optionalTsBlock.isPresent()) {
-              break;
-            }
-          }
-        }
-        return result.status;
-      }
-    } catch (Exception e) {
-      return onQueryException(e, "\"" + executedSQL + "\". " + OperationType.EXECUTE_STATEMENT);
-    } finally {
-      SESSION_MANAGER.closeSession(session, COORDINATOR::cleanupQueryExecution);
-      SESSION_MANAGER.removeCurrSession();
+    if (req.isMaintainedIncrementally()
+        && IncrementalContinuousQueryManager.getInstance().isMaintained(req.cqId)) {
+      // every DataNode has reported the query to the ConfigNode, the result of the time range is
+      // maintained incrementally by the region leaders
+      return RpcUtils.SUCCESS_STATUS;
     }
+    return ContinuousQueryExecutor.execute(req);
   }
 
   @Override
@@ -2352,6 +2261,11 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
           .forEach((key, value) -> regionRawDataSize.put(Integer.parseInt(key), value.getLeft()));
       resp.setDataRegionRawDataSize(regionRawDataSize);
     }
+    IncrementalContinuousQueryManager incrementalCQManager =
+        IncrementalContinuousQueryManager.getInstance();
+    if (incrementalCQManager.isEnabled()) {
+      resp.setIncrementalCQIds(incrementalCQManager.getMaintainedCqIds());
+    }
     AuthorityChecker.getAuthorityFetcher().refreshToken();
     resp.setHeartbeatTimestamp(req.getHeartbeatTimestamp());
     resp.setStatus(commonConfig.getNodeStatus().getStatus());
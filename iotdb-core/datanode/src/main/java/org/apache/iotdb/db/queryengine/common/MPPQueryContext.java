@@ -50,6 +50,7 @@ import org.apache.iotdb.db.queryengine.plan.planner.memory.NotThreadSafeMemoryRe
 import org.apache.iotdb.db.queryengine.plan.relational.function.tvf.read_tsfile.ExternalTsFileQueryResource;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.ExplainOutputFormat;
 import org.apache.iotdb.db.queryengine.statistics.QueryPlanStatistics;
+import org.apache.iotdb.db.queryengine.trace.QueryTrace;
 
 import com.google.common.collect.ImmutableList;
 import org.apache.tsfile.read.filter.basic.Filter;
@@ -132,6 +133,9 @@ public class MPPQueryContext implements IAuditEntity {
 
   private QueryPlanStatistics queryPlanStatistics = null;
 
+  // not null only if this query is sampled by QueryTracer
+  private QueryTrace queryTrace = null;
+
   // To avoid query front-end from consuming too much memory, it needs to reserve memory when
   // constructing some Expression and PlanNode.
   private final MemoryReservationManager memoryReservationManager;
@@ -892,6 +896,14 @@ public class MPPQueryContext implements IAuditEntity {
     this.debug = debug;
   }
 
+  public QueryTrace getQueryTrace() {
+    return queryTrace;
+  }
+
+  public void setQueryTrace(QueryTrace queryTrace) {
+    this.queryTrace = queryTrace;
+  }
+
   public boolean isInnerTriggeredQuery() {
     return innerTriggeredQuery;
   }
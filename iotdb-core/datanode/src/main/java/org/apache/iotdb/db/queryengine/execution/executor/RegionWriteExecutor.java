@@ -40,6 +40,7 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.consensus.DataRegionConsensusImpl;
 import org.apache.iotdb.db.consensus.SchemaRegionConsensusImpl;
+import org.apache.iotdb.db.cq.IncrementalContinuousQueryManager;
 import org.apache.iotdb.db.exception.metadata.MeasurementAlreadyExistException;
 import org.apache.iotdb.db.exception.metadata.SchemaQuotaExceededException;
 import org.apache.iotdb.db.i18n.DataNodeQueryMessages;
@@ -318,6 +319,7 @@ public class RegionWriteExecutor {
         final long startWriteTime = System.nanoTime();
         status = dataRegionConsensus.write(groupId, insertNode);
         PERFORMANCE_OVERVIEW_METRICS.recordScheduleStorageCost(System.nanoTime() - startWriteTime);
+        IncrementalContinuousQueryManager.getInstance().onInsert(groupId, insertNode, status);
 
         // fire Trigger after the insertion
         startTime = System.nanoTime();
@@ -355,7 +357,10 @@ public class RegionWriteExecutor {
       // require write lock on data region.
       context.getRegionWriteValidationRWLock().writeLock().lock();
       try {
-        return PlanVisitor.super.visitDeleteData(node, context);
+        final RegionExecutionResult result = PlanVisitor.super.visitDeleteData(node, context);
+        IncrementalContinuousQueryManager.getInstance()
+            .onDelete(node.getPathList(), node.getDeleteStartTime(), node.getDeleteEndTime());
+        return result;
       } finally {
         context.getRegionWriteValidationRWLock().writeLock().unlock();
       }
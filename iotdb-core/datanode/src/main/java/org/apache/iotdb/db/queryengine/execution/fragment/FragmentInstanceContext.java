@@ -49,6 +49,9 @@ import org.apache.iotdb.db.queryengine.plan.planner.memory.ThreadSafeMemoryReser
 import org.apache.iotdb.db.queryengine.plan.planner.plan.TimePredicate;
 import org.apache.iotdb.db.queryengine.plan.relational.function.tvf.read_tsfile.ExternalTsFileQueryDataSource;
 import org.apache.iotdb.db.queryengine.plan.relational.function.tvf.read_tsfile.ExternalTsFileQueryResource;
+import org.apache.iotdb.db.queryengine.trace.QueryTrace;
+import org.apache.iotdb.db.queryengine.trace.QueryTraceSpan;
+import org.apache.iotdb.db.queryengine.trace.QueryTracer;
 import org.apache.iotdb.db.storageengine.StorageEngine;
 import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
 import org.apache.iotdb.db.storageengine.dataregion.IDataRegionForQuery;
@@ -184,6 +187,9 @@ public class FragmentInstanceContext extends QueryContext {
   private long closedUnseqFileNum = 0;
   private boolean highestPriority = false;
 
+  // not null only if the query of this fragment instance is traced
+  private QueryTraceSpan traceSpan = null;
+
   public static FragmentInstanceContext createFragmentInstanceContext(
       FragmentInstanceId id,
       FragmentInstanceStateMachine stateMachine,
@@ -1233,6 +1239,55 @@ public class FragmentInstanceContext extends QueryContext {
 
     SeriesScanCostMetricSet.getInstance()
         .updatePageReaderMemoryUsage(getQueryStatistics().getPageReaderMaxUsedMemorySize().get());
+
+    finishTraceSpan();
+  }
+
+  /** Trace this fragment instance as a child of the span of its query on the coordinator. */
+  public synchronized void startTraceSpan(long parentSpanId) {
+    if (parentSpanId == QueryTraceSpan.NO_PARENT_SPAN_ID) {
+      return;
+    }
+    traceSpan =
+        new QueryTraceSpan(id.getQueryId().getId(), parentSpanId, QueryTrace.FRAGMENT_INSTANCE);
+    traceSpan.setAttribute("fragment_instance_id", id.getFullId());
+    traceSpan.setAttribute("datanode_id", QueryId.getDataNodeId());
+    if (dataRegion != null) {
+      traceSpan.setAttribute("data_region", dataRegion.getDataRegionIdString());
+    }
+  }
+
+  private void finishTraceSpan() {
+    if (traceSpan == null) {
+      return;
+    }
+    QueryStatistics statistics = getQueryStatistics();
+    traceSpan.setAttribute("state", stateMachine.getState().toString());
+    traceSpan.setAttribute("ready_queued_time_ns", readyQueueTime.get());
+    // mostly the time waiting for the upstream exchange or the downstream consumer
+    traceSpan.setAttribute("blocked_time_ns", blockQueueTime.get());
+    traceSpan.setAttribute("init_query_data_source_cost_ns", initQueryDataSourceCost);
+    traceSpan.setAttribute("closed_seq_file_num", closedSeqFileNum);
+    traceSpan.setAttribute("closed_unseq_file_num", closedUnseqFileNum);
+    traceSpan.setAttribute(
+        "load_timeseries_metadata_from_disk_count",
+        statistics.getLoadTimeSeriesMetadataFromDiskCount().get());
+    traceSpan.setAttribute(
+        "load_timeseries_metadata_from_disk_time_ns",
+        statistics.getLoadTimeSeriesMetadataFromDiskTime().get());
+    traceSpan.setAttribute(
+        "load_chunk_from_disk_count", statistics.getLoadChunkFromDiskCount().get());
+    traceSpan.setAttribute(
+        "load_chunk_actual_io_size", statistics.getLoadChunkActualIOSize().get());
+    traceSpan.setAttribute(
+        "decode_page_time_ns",
+        statistics.getPageReadersDecodeAlignedDiskTime().get()
+            + statistics.getPageReadersDecodeAlignedMemTime().get()
+            + statistics.getPageReadersDecodeNonAlignedDiskTime().get()
+            + statistics.getPageReadersDecodeNonAlignedMemTime().get());
+    traceSpan.end();
+    QueryTracer.getInstance().record(traceSpan);
+    traceSpan = null;
   }
 
   private void releaseDataNodeQueryContext() {
@@ -174,6 +174,7 @@ public class FragmentInstanceManager {
                         });
                 rejectIfRepeatedDispatch(contextCreated[0], instanceId);
                 context.setHighestPriority(instance.isHighestPriority());
+                context.startTraceSpan(instance.getTraceParentSpanId());
 
                 try {
                   List<PipelineDriverFactory> driverFactories =
@@ -319,6 +320,7 @@ public class FragmentInstanceManager {
                       });
               rejectIfRepeatedDispatch(contextCreated[0], instanceId);
               context.setHighestPriority(instance.isHighestPriority());
+              context.startTraceSpan(instance.getTraceParentSpanId());
 
               try {
                 List<PipelineDriverFactory> driverFactories =
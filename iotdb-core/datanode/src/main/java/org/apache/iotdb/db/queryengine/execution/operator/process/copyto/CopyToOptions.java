@@ -23,12 +23,14 @@ import org.apache.iotdb.commons.exception.SemanticException;
 import org.apache.iotdb.commons.queryengine.plan.relational.planner.Symbol;
 import org.apache.iotdb.commons.schema.column.ColumnHeader;
 import org.apache.iotdb.db.i18n.DataNodeQueryMessages;
+import org.apache.iotdb.db.queryengine.execution.operator.process.copyto.parquet.CopyToParquetOptions;
 import org.apache.iotdb.db.queryengine.execution.operator.process.copyto.tsfile.CopyToTsFileOptions;
 import org.apache.iotdb.db.queryengine.plan.relational.analyzer.Analysis;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.RelationPlan;
 
 import org.apache.tsfile.utils.Accountable;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -109,6 +111,8 @@ public interface CopyToOptions extends Accountable {
   enum Format {
     /** TsFile format output. */
     TSFILE,
+    /** Flat Parquet file output, every column of the query result becomes a Parquet column. */
+    PARQUET,
   }
 
   class Builder {
@@ -149,11 +153,33 @@ public interface CopyToOptions extends Accountable {
 
     public CopyToOptions build() {
       switch (format) {
+        case PARQUET:
+          checkTsFileOnlyOptionsAbsent();
+          return new CopyToParquetOptions(memoryThreshold);
         case TSFILE:
         default:
           return new CopyToTsFileOptions(
               targetTableName, targetTimeColumn, targetTagColumns, memoryThreshold);
       }
     }
+
+    private void checkTsFileOnlyOptionsAbsent() {
+      List<String> tsFileOnlyOptions = new ArrayList<>();
+      if (targetTableName != null) {
+        tsFileOnlyOptions.add("TABLE");
+      }
+      if (targetTimeColumn != null) {
+        tsFileOnlyOptions.add("TIME");
+      }
+      if (targetTagColumns != null) {
+        tsFileOnlyOptions.add("TAGS");
+      }
+      if (!tsFileOnlyOptions.isEmpty()) {
+        throw new SemanticException(
+            String.format(
+                DataNodeQueryMessages.COPY_TO_OPTIONS_S_ARE_ONLY_SUPPORTED_BY_TSFILE_FORMAT,
+                tsFileOnlyOptions));
+      }
+    }
   }
 }
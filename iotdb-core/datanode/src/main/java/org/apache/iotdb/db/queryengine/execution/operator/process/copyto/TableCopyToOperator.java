@@ -26,6 +26,8 @@ import org.apache.iotdb.commons.queryengine.execution.MemoryEstimationHelper;
 import org.apache.iotdb.commons.schema.column.ColumnHeader;
 import org.apache.iotdb.db.i18n.DataNodeQueryMessages;
 import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.execution.operator.process.copyto.parquet.CopyToParquetOptions;
+import org.apache.iotdb.db.queryengine.execution.operator.process.copyto.parquet.ParquetFormatCopyToWriter;
 import org.apache.iotdb.db.queryengine.execution.operator.process.copyto.tsfile.CopyToTsFileOptions;
 import org.apache.iotdb.db.queryengine.execution.operator.process.copyto.tsfile.TsFileFormatCopyToWriter;
 import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
@@ -121,6 +123,14 @@ public class TableCopyToOperator implements ProcessOperator {
     }
     this.targetFile = createTargetFile(targetFilePath);
     switch (options.getFormat()) {
+      case PARQUET:
+        this.writer =
+            new ParquetFormatCopyToWriter(
+                this.targetFile,
+                (CopyToParquetOptions) options,
+                innerQueryColumnHeaders,
+                columnIndex2TsBlockColumnIndex);
+        break;
       case TSFILE:
       default:
         this.writer =
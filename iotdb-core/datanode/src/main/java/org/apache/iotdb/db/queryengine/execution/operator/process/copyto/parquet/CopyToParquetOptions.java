@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.process.copyto.parquet;
+
+import org.apache.iotdb.commons.exception.SemanticException;
+import org.apache.iotdb.commons.queryengine.plan.relational.planner.Symbol;
+import org.apache.iotdb.commons.schema.column.ColumnHeader;
+import org.apache.iotdb.commons.schema.column.ColumnHeaderConstant;
+import org.apache.iotdb.db.i18n.DataNodeQueryMessages;
+import org.apache.iotdb.db.queryengine.execution.operator.process.copyto.CopyToOptions;
+import org.apache.iotdb.db.queryengine.plan.relational.analyzer.Analysis;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.RelationPlan;
+
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Options of exporting the query result as a flat Parquet file. Every column of the query result
+ * becomes an optional column of the file, the rows are buffered and written as a row group when
+ * the buffered size reaches the memory threshold.
+ */
+public class CopyToParquetOptions implements CopyToOptions {
+
+  private static final long SHALLOW_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(CopyToParquetOptions.class);
+
+  private static final List<Symbol> OUTPUT_SYMBOLS =
+      ColumnHeaderConstant.COPY_TO_PARQUET_COLUMN_HEADERS.stream()
+          .map(column -> new Symbol(column.getColumnName()))
+          .collect(Collectors.toList());
+
+  private final long targetMemoryThreshold;
+
+  public CopyToParquetOptions(long targetMemoryThreshold) {
+    this.targetMemoryThreshold = targetMemoryThreshold;
+  }
+
+  @Override
+  public Format getFormat() {
+    return Format.PARQUET;
+  }
+
+  @Override
+  public void infer(
+      Analysis analysis, RelationPlan queryRelationPlan, List<ColumnHeader> columnHeaders) {
+    // the schema of the file is exactly the schema of the query result
+  }
+
+  @Override
+  public void check(List<ColumnHeader> columnHeaders) {
+    Set<String> columns = new HashSet<>(columnHeaders.size());
+    for (ColumnHeader columnHeader : columnHeaders) {
+      switch (columnHeader.getColumnType()) {
+        case BOOLEAN:
+        case INT32:
+        case INT64:
+        case FLOAT:
+        case DOUBLE:
+        case TEXT:
+        case STRING:
+        case BLOB:
+        case DATE:
+        case TIMESTAMP:
+          break;
+        default:
+          throw new SemanticException(
+              String.format(
+                  DataNodeQueryMessages.DATA_TYPE_S_OF_COLUMN_S_IS_NOT_SUPPORTED_BY_PARQUET_FORMAT,
+                  columnHeader.getColumnType(),
+                  columnHeader.getColumnName()));
+      }
+      columns.add(columnHeader.getColumnName());
+    }
+    if (columns.size() != columnHeaders.size()) {
+      throw new SemanticException(DataNodeQueryMessages.DUPLICATE_COLUMN_NAMES_IN_QUERY_DATASET);
+    }
+  }
+
+  @Override
+  public List<ColumnHeader> getRespColumnHeaders() {
+    return ColumnHeaderConstant.COPY_TO_PARQUET_COLUMN_HEADERS;
+  }
+
+  @Override
+  public List<Symbol> getOutputSymbols() {
+    return OUTPUT_SYMBOLS;
+  }
+
+  @Override
+  public List<String> getOutputColumnNames() {
+    return ColumnHeaderConstant.COPY_TO_PARQUET_COLUMN_HEADERS.stream()
+        .map(ColumnHeader::getColumnName)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public long estimatedMaxRamBytesInWrite() {
+    return targetMemoryThreshold;
+  }
+
+  public long getTargetMemoryThreshold() {
+    return targetMemoryThreshold;
+  }
+
+  @Override
+  public String toString() {
+    return "("
+        // FORMAT
+        + "\nFORMAT "
+        + getFormat().name()
+        // MEMORY
+        + "\nMEMORY_THRESHOLD "
+        + targetMemoryThreshold
+        + ")";
+  }
+
+  @Override
+  public long ramBytesUsed() {
+    return SHALLOW_SIZE;
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.process.copyto.parquet;
+
+import org.apache.iotdb.commons.queryengine.utils.TimestampPrecisionUtils;
+import org.apache.iotdb.commons.schema.column.ColumnHeader;
+import org.apache.iotdb.commons.schema.column.ColumnHeaderConstant;
+import org.apache.iotdb.db.queryengine.execution.operator.process.copyto.IFormatCopyToWriter;
+import org.apache.iotdb.parquet.ParquetColumn;
+import org.apache.iotdb.parquet.ParquetFileWriter;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.utils.Binary;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the query result into a Parquet file. The rows are buffered column by column and written
+ * as a row group whenever the buffered size reaches the memory threshold, so the memory usage does
+ * not grow with the size of the result.
+ */
+public class ParquetFormatCopyToWriter implements IFormatCopyToWriter {
+
+  private static final CompressionType COMPRESSION_TYPE = CompressionType.SNAPPY;
+
+  private final File targetFile;
+  private final long memoryThreshold;
+  private final List<ParquetColumn> columns;
+  private final TSDataType[] dataTypes;
+  private final int[] columnIndex2TsBlockColumnIndex;
+
+  private ParquetFileWriter parquetFileWriter;
+  private long rowCount = 0;
+
+  public ParquetFormatCopyToWriter(
+      File file,
+      CopyToParquetOptions copyToOptions,
+      List<ColumnHeader> innerQueryDatasetHeader,
+      int[] columnIndex2TsBlockColumnIndex)
+      throws IOException {
+    this.targetFile = file;
+    this.memoryThreshold = copyToOptions.getTargetMemoryThreshold();
+    this.columnIndex2TsBlockColumnIndex = columnIndex2TsBlockColumnIndex;
+    this.columns = new ArrayList<>(innerQueryDatasetHeader.size());
+    this.dataTypes = new TSDataType[innerQueryDatasetHeader.size()];
+    for (int i = 0; i < innerQueryDatasetHeader.size(); i++) {
+      ColumnHeader columnHeader = innerQueryDatasetHeader.get(i);
+      dataTypes[i] = columnHeader.getColumnType();
+      columns.add(
+          ParquetColumn.of(
+              columnHeader.getColumnName(),
+              dataTypes[i],
+              true,
+              TimestampPrecisionUtils.currPrecision));
+    }
+  }
+
+  @Override
+  public void write(TsBlock tsBlock) throws Exception {
+    if (parquetFileWriter == null) {
+      parquetFileWriter = new ParquetFileWriter(targetFile, columns, COMPRESSION_TYPE);
+    }
+    int positionCount = tsBlock.getPositionCount();
+    for (int i = 0; i < dataTypes.length; i++) {
+      writeColumn(
+          parquetFileWriter.getColumnWriter(i),
+          dataTypes[i],
+          tsBlock.getColumn(columnIndex2TsBlockColumnIndex[i]),
+          positionCount);
+    }
+    parquetFileWriter.endRows(positionCount);
+    if (parquetFileWriter.getBufferedSizeInBytes() >= memoryThreshold) {
+      parquetFileWriter.flushRowGroup();
+    }
+  }
+
+  private static void writeColumn(
+      ParquetFileWriter.ColumnWriter columnWriter,
+      TSDataType dataType,
+      Column column,
+      int positionCount) {
+    for (int position = 0; position < positionCount; position++) {
+      if (column.isNull(position)) {
+        columnWriter.writeNull();
+        continue;
+      }
+      switch (dataType) {
+        case BOOLEAN:
+          columnWriter.writeBoolean(column.getBoolean(position));
+          break;
+        case INT32:
+        case DATE:
+          columnWriter.writeInt(column.getInt(position));
+          break;
+        case INT64:
+        case TIMESTAMP:
+          columnWriter.writeLong(column.getLong(position));
+          break;
+        case FLOAT:
+          columnWriter.writeFloat(column.getFloat(position));
+          break;
+        case DOUBLE:
+          columnWriter.writeDouble(column.getDouble(position));
+          break;
+        case TEXT:
+        case STRING:
+        case BLOB:
+          columnWriter.writeBinary(column.getBinary(position));
+          break;
+        default:
+          throw new UnsupportedOperationException(dataType.name());
+      }
+    }
+  }
+
+  @Override
+  public void seal() throws Exception {
+    if (parquetFileWriter == null) {
+      return;
+    }
+    try {
+      parquetFileWriter.close();
+      rowCount = parquetFileWriter.getRowCount();
+    } finally {
+      parquetFileWriter = null;
+    }
+  }
+
+  @Override
+  public TsBlock buildResultTsBlock() {
+    TsBlockBuilder builder =
+        TsBlockBuilder.withMaxTsBlockSize(
+            1024,
+            ColumnHeaderConstant.COPY_TO_PARQUET_COLUMN_HEADERS.stream()
+                .map(ColumnHeader::getColumnType)
+                .collect(Collectors.toList()));
+    builder.getTimeColumnBuilder().writeLong(0);
+    builder.getValueColumnBuilders()[0].writeBinary(
+        new Binary(rowCount > 0 ? targetFile.getAbsolutePath() : "", TSFileConfig.STRING_CHARSET));
+    builder.getValueColumnBuilders()[1].writeLong(rowCount);
+    builder.getValueColumnBuilders()[2].writeLong(targetFile.length());
+    builder.declarePosition();
+    return builder.build();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (parquetFileWriter == null) {
+      return;
+    }
+    try {
+      parquetFileWriter.close();
+    } finally {
+      parquetFileWriter = null;
+    }
+  }
+}
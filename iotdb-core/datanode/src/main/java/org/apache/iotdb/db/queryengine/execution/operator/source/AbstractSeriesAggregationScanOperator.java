@@ -25,6 +25,7 @@ import org.apache.iotdb.db.queryengine.execution.aggregation.TreeAggregator;
 import org.apache.iotdb.db.queryengine.execution.aggregation.timerangeiterator.ITimeRangeIterator;
 import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.GroupByTimeParameter;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.rollup.RollupIndexManager;
 
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.statistics.Statistics;
@@ -72,6 +73,9 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
   /** Some special data types(like BLOB) cannot use statistics. */
   protected final boolean canUseStatistics;
 
+  /** Whole time windows of GROUP BY TIME can be answered by the rollup index of sealed files. */
+  private final boolean canUseRollupIndex;
+
   @SuppressWarnings("squid:S107")
   protected AbstractSeriesAggregationScanOperator(
       PlanNodeId sourceId,
@@ -99,6 +103,8 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
     this.maxReturnSize = maxReturnSize;
     this.outputEndTime = outputEndTime;
     this.canUseStatistics = canUseStatistics;
+    this.canUseRollupIndex =
+        isGroupByQuery && canUseStatistics && RollupIndexManager.getInstance().isEnabled();
   }
 
   @Override
@@ -182,6 +188,16 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
         return Optional.of(true);
       }
 
+      // the file kept by the previous time window should be tried with rollup index before it is
+      // unpacked into chunks
+      if (canUseRollupIndex
+          && !seriesScanUtil.hasNextPage()
+          && seriesScanUtil.hasCachedFileOnly()
+          && readAndCalcFromFile()) {
+        updateResultTsBlock();
+        return Optional.of(true);
+      }
+
       // only when all the page data has been consumed, we need to read the chunk data
       if (!seriesScanUtil.hasNextPage() && readAndCalcFromChunk()) {
         updateResultTsBlock();
@@ -307,6 +323,18 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
             continue;
           }
         }
+        // calc from rollup index
+        if (canUseRollupIndex) {
+          Optional<Boolean> fileConsumed = calcFromRollupIndex(fileTimeStatistics);
+          if (fileConsumed.isPresent()) {
+            if (!fileConsumed.get()) {
+              // keep current file for the next time window
+              return true;
+            }
+            seriesScanUtil.skipCurrentFile();
+            continue;
+          }
+        }
       }
 
       // read chunk
@@ -318,6 +346,28 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
     return false;
   }
 
+  /**
+   * Calculate the part of current file in current time window from its rollup index.
+   *
+   * @return Optional.empty() if the rollup index can not be used, otherwise whether all the data of
+   *     current file has been consumed
+   */
+  @SuppressWarnings("squid:S3740")
+  private Optional<Boolean> calcFromRollupIndex(Statistics fileTimeStatistics) {
+    Statistics[] rollupStatistics = seriesScanUtil.currentFileRollupStatistics(curTimeRange);
+    if (rollupStatistics == null) {
+      return Optional.empty();
+    }
+    if (rollupStatistics[0] != null) {
+      calcFromStatistics(
+          rollupStatistics[0], Arrays.copyOfRange(rollupStatistics, 1, rollupStatistics.length));
+    }
+    return Optional.of(
+        ascending
+            ? fileTimeStatistics.getEndTime() <= curTimeRange.getMax()
+            : fileTimeStatistics.getStartTime() >= curTimeRange.getMin());
+  }
+
   @SuppressWarnings({"squid:S3776", "squid:S135", "squid:S3740"})
   protected boolean readAndCalcFromChunk() throws IOException {
     // start stopwatch
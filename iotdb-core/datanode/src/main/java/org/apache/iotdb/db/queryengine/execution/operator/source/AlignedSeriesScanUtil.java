@@ -28,10 +28,14 @@ import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.AlignedPr
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.DescPriorityMergeReader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.PriorityMergeReader;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.rollup.RollupIndex;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.rollup.RollupIndex.SeriesRollup;
 
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.AbstractAlignedTimeSeriesMetadata;
 import org.apache.tsfile.file.metadata.IMetadata;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.common.TimeRange;
 import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.read.reader.IPointReader;
 import org.apache.tsfile.write.schema.IMeasurementSchema;
@@ -109,6 +113,33 @@ public class AlignedSeriesScanUtil extends SeriesScanUtil {
     return dataTypes;
   }
 
+  @Override
+  @SuppressWarnings("squid:S3740")
+  protected Statistics[] getRollupStatistics(RollupIndex rollupIndex, TimeRange timeRange) {
+    SeriesRollup timeRollup = rollupIndex.getSeriesRollup(getDeviceID(), RollupIndex.TIME_COLUMN);
+    if (timeRollup == null) {
+      return null;
+    }
+    List<String> measurementList = ((AlignedFullPath) seriesPath).getMeasurementList();
+    Statistics[] statistics = new Statistics[measurementList.size() + 1];
+    statistics[0] = timeRollup.merge(timeRange.getMin(), timeRange.getMax());
+    for (int i = 0; i < measurementList.size(); i++) {
+      SeriesRollup valueRollup = rollupIndex.getSeriesRollup(getDeviceID(), measurementList.get(i));
+      if (valueRollup == null) {
+        if (currentFileStatistics(i) != null) {
+          // the series is not rolled up, e.g. TEXT series
+          return null;
+        }
+        continue;
+      }
+      if (valueRollup.getDataType() != dataTypes.get(i)) {
+        return null;
+      }
+      statistics[i + 1] = valueRollup.merge(timeRange.getMin(), timeRange.getMax());
+    }
+    return statistics;
+  }
+
   @Override
   protected IPointReader getPointReader(TsBlock tsBlock) {
     return tsBlock.getTsBlockAlignedRowIterator();
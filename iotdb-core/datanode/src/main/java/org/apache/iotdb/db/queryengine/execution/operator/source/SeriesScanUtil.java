@@ -43,6 +43,9 @@ import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.MergeRead
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.NoDataPointReader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.PriorityMergeReader;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.rollup.RollupIndex;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.rollup.RollupIndex.SeriesRollup;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.rollup.RollupIndexManager;
 import org.apache.iotdb.db.utils.CommonUtils;
 import org.apache.iotdb.db.utils.SchemaUtils;
 import org.apache.iotdb.db.utils.datastructure.MemPointIterator;
@@ -88,8 +91,10 @@ import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.PriorityQueue;
@@ -125,6 +130,8 @@ public class SeriesScanUtil implements Accountable {
   private ITimeSeriesMetadata firstTimeSeriesMetadata;
   private final List<ITimeSeriesMetadata> seqTimeSeriesMetadata;
   private final PriorityQueue<ITimeSeriesMetadata> unSeqTimeSeriesMetadata;
+  // source file of the cached seq TimeSeriesMetadata, only used when rollup index is enabled
+  private final Map<ITimeSeriesMetadata, TsFileResource> seqFileResourceMap;
 
   // chunk cache
   private IChunkMetadata firstChunkMetadata;
@@ -186,6 +193,7 @@ public class SeriesScanUtil implements Accountable {
 
     // init TimeSeriesMetadata materializer
     this.seqTimeSeriesMetadata = new LinkedList<>();
+    this.seqFileResourceMap = new IdentityHashMap<>();
     this.unSeqTimeSeriesMetadata =
         new PriorityQueue<>(
             orderUtils.comparingLong(
@@ -379,7 +387,49 @@ public class SeriesScanUtil implements Accountable {
     return firstTimeSeriesMetadata.getMeasurementStatistics(index).orElse(null);
   }
 
+  /**
+   * Whether the current file is cached but not unpacked yet, i.e. there is no cached chunk or page.
+   */
+  public boolean hasCachedFileOnly() {
+    return firstTimeSeriesMetadata != null
+        && firstChunkMetadata == null
+        && cachedChunkMetadata.isEmpty();
+  }
+
+  /**
+   * Get the statistics of the current file in the time range from its rollup index. It should be
+   * called only when {@link #canUseCurrentFileStatistics()} returns true.
+   *
+   * @return null if the rollup index can not answer the time range, otherwise the time statistics
+   *     followed by the statistics of each sub sensor, which are null if there is no data in the
+   *     time range
+   */
+  @SuppressWarnings("squid:S3740")
+  public Statistics[] currentFileRollupStatistics(TimeRange timeRange) {
+    TsFileResource resource = seqFileResourceMap.get(firstTimeSeriesMetadata);
+    if (resource == null) {
+      return null;
+    }
+    RollupIndex rollupIndex = RollupIndexManager.getInstance().getRollupIndex(resource);
+    if (!rollupIndex.isAligned(timeRange.getMin(), timeRange.getMax())) {
+      return null;
+    }
+    return getRollupStatistics(rollupIndex, timeRange);
+  }
+
+  @SuppressWarnings("squid:S3740")
+  protected Statistics[] getRollupStatistics(RollupIndex rollupIndex, TimeRange timeRange) {
+    SeriesRollup seriesRollup =
+        rollupIndex.getSeriesRollup(deviceID, ((NonAlignedFullPath) seriesPath).getMeasurement());
+    if (seriesRollup == null || seriesRollup.getDataType() != dataType) {
+      return null;
+    }
+    Statistics statistics = seriesRollup.merge(timeRange.getMin(), timeRange.getMax());
+    return new Statistics[] {statistics, statistics};
+  }
+
   public void skipCurrentFile() {
+    seqFileResourceMap.remove(firstTimeSeriesMetadata);
     firstTimeSeriesMetadata = null;
   }
 
@@ -528,6 +578,7 @@ public class SeriesScanUtil implements Accountable {
   }
 
   protected void unpackOneTimeSeriesMetadata(ITimeSeriesMetadata timeSeriesMetadata) {
+    seqFileResourceMap.remove(timeSeriesMetadata);
     List<IChunkMetadata> chunkMetadataList =
         FileLoaderUtils.loadChunkMetadataList(timeSeriesMetadata);
     chunkMetadataList.forEach(chunkMetadata -> chunkMetadata.setSeq(timeSeriesMetadata.isSeq()));
@@ -2016,12 +2067,15 @@ public class SeriesScanUtil implements Accountable {
   }
 
   private Optional<ITimeSeriesMetadata> unpackSeqTsFileResource() throws IOException {
-    ITimeSeriesMetadata timeseriesMetadata =
-        loadTimeSeriesMetadata(orderUtils.getNextSeqFileResource(true), true);
+    TsFileResource resource = orderUtils.getNextSeqFileResource(true);
+    ITimeSeriesMetadata timeseriesMetadata = loadTimeSeriesMetadata(resource, true);
     // skip if data type is mismatched which may be caused by delete
     if (timeseriesMetadata != null && timeseriesMetadata.typeMatch(getTsDataTypeList())) {
       timeseriesMetadata.setSeq(true);
       seqTimeSeriesMetadata.add(timeseriesMetadata);
+      if (RollupIndexManager.getInstance().isEnabled()) {
+        seqFileResourceMap.put(timeseriesMetadata, resource);
+      }
       return Optional.of(timeseriesMetadata);
     } else {
       return Optional.empty();
@@ -2056,6 +2110,10 @@ public class SeriesScanUtil implements Accountable {
     return Collections.singletonList(dataType);
   }
 
+  protected IDeviceID getDeviceID() {
+    return deviceID;
+  }
+
   protected IPointReader getPointReader(TsBlock tsBlock) {
     return tsBlock.getTsBlockSingleColumnIterator();
   }
@@ -90,6 +90,8 @@ import org.apache.iotdb.db.queryengine.plan.relational.function.DataNodeTableBui
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.InformationSchemaTableScanNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TableDiskUsageInformationSchemaTableScanNode;
 import org.apache.iotdb.db.queryengine.plan.relational.security.AccessControl;
+import org.apache.iotdb.db.queryengine.trace.QueryTraceSpan;
+import org.apache.iotdb.db.queryengine.trace.QueryTracer;
 import org.apache.iotdb.db.relational.grammar.sql.RelationalSqlKeywords;
 import org.apache.iotdb.db.schemaengine.table.InformationSchemaUtils;
 import org.apache.iotdb.db.schemaengine.table.TableColumnMetadataUtil;
@@ -102,6 +104,7 @@ import org.apache.iotdb.db.utils.MathUtils;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.rpc.TSStatusCode;
 
+import com.google.gson.Gson;
 import org.apache.thrift.TException;
 import org.apache.tsfile.block.column.ColumnBuilder;
 import org.apache.tsfile.common.conf.TSFileConfig;
@@ -241,6 +244,8 @@ public class InformationSchemaContentSupplierFactory {
           return new QueriesCostsHistogramSupplier(dataTypes, userEntity);
         case InformationSchema.SERVICES:
           return new ServicesSupplier(dataTypes, userEntity);
+        case InformationSchema.QUERY_TRACES:
+          return new QueryTracesSupplier(dataTypes, userEntity);
         default:
           throw new UnsupportedOperationException(DataNodeQueryMessages.UNKNOWN_TABLE + tableName);
       }
@@ -1817,4 +1822,48 @@ public class InformationSchemaContentSupplierFactory {
       return nextConsumedIndex < 61;
     }
   }
+
+  private static class QueryTracesSupplier extends TsBlockSupplier {
+    private static final Gson GSON = new Gson();
+    private int nextConsumedIndex;
+    private final List<QueryTraceSpan> spans;
+
+    private QueryTracesSupplier(final List<TSDataType> dataTypes, final UserEntity userEntity) {
+      super(dataTypes);
+      accessControl.checkUserGlobalSysPrivilege(userEntity);
+      spans = QueryTracer.getInstance().getRetainedSpans();
+    }
+
+    @Override
+    protected void constructLine() {
+      final QueryTraceSpan span = spans.get(nextConsumedIndex);
+      columnBuilders[0].writeBinary(BytesUtils.valueOf(span.getQueryId()));
+      columnBuilders[1].writeBinary(
+          BytesUtils.valueOf(QueryTraceSpan.toHexSpanId(span.getSpanId())));
+      if (span.getParentSpanId() == QueryTraceSpan.NO_PARENT_SPAN_ID) {
+        columnBuilders[2].appendNull();
+      } else {
+        columnBuilders[2].writeBinary(
+            BytesUtils.valueOf(QueryTraceSpan.toHexSpanId(span.getParentSpanId())));
+      }
+      columnBuilders[3].writeBinary(BytesUtils.valueOf(span.getName()));
+      columnBuilders[4].writeInt(QueryId.getDataNodeId());
+      columnBuilders[5].writeLong(
+          TimestampPrecisionUtils.convertToCurrPrecision(
+              span.getStartTimeInNs(), TimeUnit.NANOSECONDS));
+      columnBuilders[6].writeLong(
+          TimestampPrecisionUtils.convertToCurrPrecision(
+              span.getEndTimeInNs(), TimeUnit.NANOSECONDS));
+      // in seconds, the same as current_queries
+      columnBuilders[7].writeFloat(span.getDurationInNs() / 1_000_000_000f);
+      columnBuilders[8].writeBinary(BytesUtils.valueOf(GSON.toJson(span.getAttributes())));
+      resultBuilder.declarePosition();
+      nextConsumedIndex++;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return nextConsumedIndex < spans.size();
+    }
+  }
 }
@@ -87,6 +87,9 @@ public class DriverScheduler implements IDriverScheduler, IService {
   private final ITaskScheduler scheduler;
 
   private final AtomicInteger nextDriverTaskHandleId = new AtomicInteger(0);
+
+  /** The number of tasks in RUNNING status, each of which occupies a worker thread. */
+  private final AtomicInteger runningTaskCount = new AtomicInteger(0);
   private IMPPDataExchangeManager blockManager;
 
   private static final int QUERY_MAX_CAPACITY = config.getMaxAllowedConcurrentQueries();
@@ -360,6 +363,7 @@ public class DriverScheduler implements IDriverScheduler, IService {
             break;
           case RUNNING:
             task.setStatus(DriverTaskStatus.ABORTED);
+            runningTaskCount.decrementAndGet();
             readyQueue.decreaseReservedSize(task);
             break;
           case FINISHED:
@@ -426,6 +430,14 @@ public class DriverScheduler implements IDriverScheduler, IService {
     return readyQueue.size();
   }
 
+  /**
+   * The number of worker threads which are neither running a task nor claimed by the tasks waiting
+   * in ready queue.
+   */
+  public int getIdleWorkerThreadNum() {
+    return (int) Math.max(0, WORKER_THREAD_NUM - runningTaskCount.get() - readyQueue.size());
+  }
+
   public long getReadyQueueReservedTaskCount() {
     return readyQueue.getReservedSize();
   }
@@ -510,6 +522,7 @@ public class DriverScheduler implements IDriverScheduler, IService {
         }
 
         task.setStatus(DriverTaskStatus.RUNNING);
+        runningTaskCount.incrementAndGet();
         long readyQueuedTime = System.nanoTime() - task.getLastEnterReadyQueueTime();
         task.getDriver()
             .getDriverContext()
@@ -530,6 +543,7 @@ public class DriverScheduler implements IDriverScheduler, IService {
         }
         task.updateSchedulePriority(context);
         task.setStatus(DriverTaskStatus.READY);
+        runningTaskCount.decrementAndGet();
         task.setLastEnterReadyQueueTime(System.nanoTime());
         readyQueue.repush(task);
       } finally {
@@ -546,6 +560,7 @@ public class DriverScheduler implements IDriverScheduler, IService {
         }
         task.updateSchedulePriority(context);
         task.setStatus(DriverTaskStatus.BLOCKED);
+        runningTaskCount.decrementAndGet();
         task.setLastEnterBlockQueueTime(System.nanoTime());
         blockedTasks.add(task);
       } finally {
@@ -562,6 +577,7 @@ public class DriverScheduler implements IDriverScheduler, IService {
         }
         task.updateSchedulePriority(context);
         task.setStatus(DriverTaskStatus.FINISHED);
+        runningTaskCount.decrementAndGet();
         readyQueue.decreaseReservedSize(task);
       } finally {
         task.unlock();
@@ -69,6 +69,7 @@ import org.apache.iotdb.db.queryengine.plan.planner.LocalExecutionPlanner;
 import org.apache.iotdb.db.queryengine.plan.planner.TreeModelPlanner;
 import org.apache.iotdb.db.queryengine.plan.relational.metadata.Metadata;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.PlannerContext;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.PreparedPlanCache;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.TableModelPlanner;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations.DataNodeLocationSupplierFactory;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations.DistributedOptimizeFactory;
@@ -667,7 +668,8 @@ public class Coordinator {
             dataNodeLocationSupplier,
             Collections.emptyList(),
             Collections.emptyMap(),
-            typeManager);
+            typeManager,
+            null);
     return new QueryExecution(tableModelPlanner, queryContext, executor);
   }
 
@@ -765,6 +767,7 @@ public class Coordinator {
         statement;
     List<Expression> parameters = Collections.emptyList();
     Map<NodeRef<Parameter>, Expression> parameterLookup = Collections.emptyMap();
+    PreparedPlanCache planCache = null;
 
     // Unwrap Explain/ExplainAnalyze to check for inner Execute/ExecuteImmediate
     org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.Statement innerStatement =
@@ -801,6 +804,7 @@ public class Coordinator {
                 resolvedSql, explainAnalyze.isVerbose(), explainAnalyze.getOutputFormat());
       } else {
         statementToUse = resolvedSql;
+        planCache = preparedInfo.getPlanCache();
       }
 
     } else if (innerStatement instanceof ExecuteImmediate) {
@@ -849,7 +853,8 @@ public class Coordinator {
             dataNodeLocationSupplier,
             parameters,
             parameterLookup,
-            typeManager);
+            typeManager,
+            planCache);
     return new QueryExecution(tableModelPlanner, queryContext, executor);
   }
 
@@ -62,6 +62,7 @@ import org.apache.iotdb.db.queryengine.common.schematree.IMeasurementSchemaInfo;
 import org.apache.iotdb.db.queryengine.common.schematree.ISchemaTree;
 import org.apache.iotdb.db.queryengine.execution.operator.window.WindowType;
 import org.apache.iotdb.db.queryengine.metric.QueryPlanCostMetricSet;
+import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.InsertTabletShapeCache;
 import org.apache.iotdb.db.queryengine.plan.analyze.load.LoadTsFileAnalyzer;
 import org.apache.iotdb.db.queryengine.plan.analyze.lock.DataNodeSchemaLockManager;
 import org.apache.iotdb.db.queryengine.plan.analyze.lock.SchemaLockType;
@@ -2824,6 +2825,32 @@ public class AnalyzeVisitor extends StatementVisitor<Analysis, MPPQueryContext>
   public Analysis visitInsertTablet(
       InsertTabletStatement insertTabletStatement, MPPQueryContext context) {
     Analysis analysis = new Analysis();
+    InsertTabletShapeCache shapeCache = insertTabletStatement.getShapeCache();
+    if (shapeCache != null) {
+      InsertTabletShapeCache.Lookup shape = shapeCache.lookup(insertTabletStatement);
+      InsertBaseStatement realStatement =
+          AnalyzeUtils.analyzeInsert(
+              context,
+              insertTabletStatement,
+              () ->
+                  shape.validateSchema(
+                      insertTabletStatement,
+                      context,
+                      () ->
+                          SchemaValidator.validate(schemaFetcher, insertTabletStatement, context)),
+              (dataPartitionQueryParams, userName) ->
+                  shape.queryDataPartition(
+                      dataPartitionQueryParams,
+                      userName,
+                      partitionFetcher::getOrCreateDataPartition),
+              AnalyzeUtils::computeTreeDataPartitionParams,
+              analysis,
+              true);
+      if (realStatement == insertTabletStatement && !analysis.isFailed()) {
+        shape.update(insertTabletStatement, analysis.getDataPartitionInfo());
+      }
+      return analysis;
+    }
     AnalyzeUtils.analyzeInsert(
         context,
         insertTabletStatement,
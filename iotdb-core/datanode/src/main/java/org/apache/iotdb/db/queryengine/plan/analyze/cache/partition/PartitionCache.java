@@ -112,6 +112,9 @@ public class PartitionCache {
   /** the latest time when groupIdToReplicaSetMap updated. */
   private final AtomicLong latestUpdateTime = new AtomicLong(0);
 
+  /** advanced whenever any cached partition or replica set is updated or invalidated */
+  private final AtomicLong version = new AtomicLong(0);
+
   /** TConsensusGroupId -> TRegionReplicaSet */
   private final Map<TConsensusGroupId, TRegionReplicaSet> groupIdToReplicaSetMap = new HashMap<>();
 
@@ -576,6 +579,7 @@ public class PartitionCache {
     databaseCacheLock.writeLock().lock();
     try {
       databaseCache.clear();
+      version.incrementAndGet();
     } finally {
       databaseCacheLock.writeLock().unlock();
     }
@@ -681,6 +685,7 @@ public class PartitionCache {
       if (result) {
         groupIdToReplicaSetMap.clear();
         groupIdToReplicaSetMap.putAll(map);
+        version.incrementAndGet();
       }
       return result;
     } finally {
@@ -693,6 +698,7 @@ public class PartitionCache {
     regionReplicaSetLock.writeLock().lock();
     try {
       groupIdToReplicaSetMap.clear();
+      version.incrementAndGet();
     } finally {
       regionReplicaSetLock.writeLock().unlock();
     }
@@ -846,6 +852,7 @@ public class PartitionCache {
             result.getSchemaPartitionMap();
         seriesPartitionSlotTConsensusGroupIdMap.putAll(entry1.getValue());
       }
+      version.incrementAndGet();
     } finally {
       schemaPartitionCacheLock.writeLock().unlock();
     }
@@ -856,6 +863,7 @@ public class PartitionCache {
     schemaPartitionCacheLock.writeLock().lock();
     try {
       schemaPartitionCache.invalidateAll();
+      version.incrementAndGet();
     } finally {
       schemaPartitionCacheLock.writeLock().unlock();
     }
@@ -1077,6 +1085,7 @@ public class PartitionCache {
           }
         }
       }
+      version.incrementAndGet();
     } finally {
       dataPartitionCacheLock.writeLock().unlock();
     }
@@ -1087,6 +1096,7 @@ public class PartitionCache {
     dataPartitionCacheLock.writeLock().lock();
     try {
       dataPartitionCache.invalidateAll();
+      version.incrementAndGet();
     } finally {
       dataPartitionCacheLock.writeLock().unlock();
     }
@@ -1094,6 +1104,15 @@ public class PartitionCache {
 
   // endregion
 
+  /**
+   * The version of the cached partitions, it changes whenever a partition or replica set is
+   * updated or invalidated, so anything planned with the partitions of an older version may be
+   * stale.
+   */
+  public long getVersion() {
+    return version.get();
+  }
+
   public void invalidAllCache() {
     if (logger.isDebugEnabled()) {
       logger.debug(DataNodeQueryMessages.PARTITION_CACHE_INVALID);
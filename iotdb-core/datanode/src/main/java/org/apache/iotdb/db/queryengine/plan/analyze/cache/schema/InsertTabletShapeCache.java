@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.analyze.cache.schema;
+
+import org.apache.iotdb.calc.exception.QueryProcessException;
+import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
+import org.apache.iotdb.commons.exception.SemanticException;
+import org.apache.iotdb.commons.partition.DataPartition;
+import org.apache.iotdb.commons.partition.DataPartitionQueryParam;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.common.MPPQueryContext;
+import org.apache.iotdb.db.queryengine.common.schematree.MeasurementSchemaInfo;
+import org.apache.iotdb.db.queryengine.plan.analyze.AnalyzeUtils.DataPartitionQueryFunc;
+import org.apache.iotdb.db.queryengine.plan.analyze.ClusterPartitionFetcher;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache.TreeDeviceSchemaCacheManager;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertTabletStatement;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Remembers the shapes (device, measurements and data types) of the insertTablet requests of one
+ * session. Collectors usually send tablets of the same shape again and again, so the validated
+ * schema and the data partition of a shape are reused by the following requests of the same shape,
+ * until any cached schema is invalidated or the partition cache changes.
+ *
+ * <p>Only the shapes without logical views and failed measurements are remembered.
+ */
+public class InsertTabletShapeCache {
+
+  private final Map<ShapeKey, ValidatedShape> shapes;
+
+  private InsertTabletShapeCache(int maxSize) {
+    this.shapes =
+        new LinkedHashMap<ShapeKey, ValidatedShape>(maxSize, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<ShapeKey, ValidatedShape> eldest) {
+            return size() > maxSize;
+          }
+        };
+  }
+
+  /**
+   * @return null if the shapes of insertTablet are not remembered
+   */
+  public static InsertTabletShapeCache create() {
+    int maxSize = IoTDBDescriptor.getInstance().getConfig().getInsertTabletShapeCacheSize();
+    return maxSize > 0 ? new InsertTabletShapeCache(maxSize) : null;
+  }
+
+  /**
+   * Look up the shape of an insertTablet statement which is not validated yet. The versions of the
+   * caches are captured here, so that any invalidation during the validation makes the validated
+   * shape stale.
+   */
+  public Lookup lookup(InsertTabletStatement statement) {
+    ShapeKey key = new ShapeKey(statement);
+    ValidatedShape validatedShape;
+    synchronized (shapes) {
+      validatedShape = shapes.get(key);
+    }
+    return new Lookup(
+        key,
+        validatedShape,
+        TreeDeviceSchemaCacheManager.getInstance().getSchemaVersion(),
+        ClusterPartitionFetcher.getInstance().getPartitionCacheVersion());
+  }
+
+  public class Lookup {
+
+    private final ShapeKey key;
+    private final ValidatedShape validatedShape;
+    private final long schemaVersion;
+    private final long partitionVersion;
+
+    private Lookup(
+        ShapeKey key, ValidatedShape validatedShape, long schemaVersion, long partitionVersion) {
+      this.key = key;
+      this.validatedShape = validatedShape;
+      this.schemaVersion = schemaVersion;
+      this.partitionVersion = partitionVersion;
+    }
+
+    /**
+     * Apply the validated schema of the shape to the statement, or run the schema validation if
+     * the shape is unknown or stale.
+     */
+    public void validateSchema(
+        InsertTabletStatement statement, MPPQueryContext context, Runnable schemaValidation) {
+      if (validatedShape == null || !validatedShape.applySchema(statement, context)) {
+        schemaValidation.run();
+      }
+    }
+
+    /** Reuse the data partition of the shape if the time partitions are the same. */
+    public DataPartition queryDataPartition(
+        List<DataPartitionQueryParam> dataPartitionQueryParams,
+        String userName,
+        DataPartitionQueryFunc partitionQueryFunc) {
+      if (validatedShape != null
+          && validatedShape.dataPartition != null
+          && validatedShape.partitionVersion
+              == ClusterPartitionFetcher.getInstance().getPartitionCacheVersion()
+          && dataPartitionQueryParams.size() == 1
+          && validatedShape.timePartitionSlots.equals(
+              dataPartitionQueryParams.get(0).getTimePartitionSlotList())) {
+        return validatedShape.dataPartition;
+      }
+      return partitionQueryFunc.queryDataPartition(dataPartitionQueryParams, userName);
+    }
+
+    /** Remember the shape after the statement is successfully analyzed. */
+    public void update(InsertTabletStatement statement, DataPartition dataPartition) {
+      if (statement.hasFailedMeasurements() || statement.hasLogicalViewNeedProcess()) {
+        return;
+      }
+      MeasurementSchema[] measurementSchemas = statement.getMeasurementSchemas();
+      if (measurementSchemas == null
+          || measurementSchemas.length != key.measurements.length
+          || Arrays.asList(measurementSchemas).contains(null)) {
+        return;
+      }
+      ValidatedShape newShape =
+          new ValidatedShape(
+              statement.isAligned(),
+              measurementSchemas.clone(),
+              schemaVersion,
+              dataPartition == null || dataPartition.isEmpty() ? null : dataPartition,
+              statement.getTimePartitionSlots(),
+              partitionVersion);
+      synchronized (shapes) {
+        shapes.put(key, newShape);
+      }
+    }
+  }
+
+  private static class ValidatedShape {
+
+    private final boolean isAligned;
+    private final MeasurementSchema[] measurementSchemas;
+    private final long schemaVersion;
+
+    private final DataPartition dataPartition;
+    private final List<TTimePartitionSlot> timePartitionSlots;
+    private final long partitionVersion;
+
+    private ValidatedShape(
+        boolean isAligned,
+        MeasurementSchema[] measurementSchemas,
+        long schemaVersion,
+        DataPartition dataPartition,
+        List<TTimePartitionSlot> timePartitionSlots,
+        long partitionVersion) {
+      this.isAligned = isAligned;
+      this.measurementSchemas = measurementSchemas;
+      this.schemaVersion = schemaVersion;
+      this.dataPartition = dataPartition;
+      this.timePartitionSlots = timePartitionSlots;
+      this.partitionVersion = partitionVersion;
+    }
+
+    /**
+     * @return false if the cached schema may have been invalidated since the shape is validated
+     */
+    private boolean applySchema(InsertTabletStatement statement, MPPQueryContext context) {
+      TreeDeviceSchemaCacheManager schemaCache = TreeDeviceSchemaCacheManager.getInstance();
+      // the same as the schema fetcher, the invalidation of schema waits for the validation
+      schemaCache.takeReadLock();
+      try {
+        if (schemaCache.getSchemaVersion() != schemaVersion) {
+          return false;
+        }
+        statement.validateDeviceSchema(isAligned);
+        String[] measurements = statement.getMeasurements();
+        for (int i = 0; i < measurementSchemas.length; i++) {
+          statement.validateMeasurementSchema(
+              i,
+              new MeasurementSchemaInfo(measurements[i], measurementSchemas[i], null, null, null));
+        }
+        statement.updateAfterSchemaValidation(context);
+        return true;
+      } catch (QueryProcessException e) {
+        throw new SemanticException(e.getMessage());
+      } finally {
+        schemaCache.releaseReadLock();
+      }
+    }
+  }
+
+  private static class ShapeKey {
+
+    private final PartialPath devicePath;
+    private final String[] measurements;
+    private final TSDataType[] dataTypes;
+    private final boolean isAligned;
+
+    private ShapeKey(InsertTabletStatement statement) {
+      // the data types of the statement are changed by the validation
+      this.devicePath = statement.getDevicePath();
+      this.measurements = statement.getMeasurements().clone();
+      this.dataTypes = statement.getDataTypes().clone();
+      this.isAligned = statement.isAligned();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      ShapeKey that = (ShapeKey) o;
+      return isAligned == that.isAligned
+          && Objects.equals(devicePath, that.devicePath)
+          && Arrays.equals(measurements, that.measurements)
+          && Arrays.equals(dataTypes, that.dataTypes);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = Objects.hash(devicePath, isAligned);
+      result = 31 * result + Arrays.hashCode(measurements);
+      return 31 * result + Arrays.hashCode(dataTypes);
+    }
+  }
+}
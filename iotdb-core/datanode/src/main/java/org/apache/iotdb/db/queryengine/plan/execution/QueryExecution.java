@@ -42,6 +42,8 @@ import org.apache.iotdb.db.queryengine.metric.QueryPlanCostMetricSet;
 import org.apache.iotdb.db.queryengine.plan.Coordinator;
 import org.apache.iotdb.db.queryengine.plan.analyze.IAnalysis;
 import org.apache.iotdb.db.queryengine.plan.analyze.QueryType;
+import org.apache.iotdb.db.queryengine.plan.execution.cache.QueryResultCache;
+import org.apache.iotdb.db.queryengine.plan.execution.memory.CachedResultSourceHandle;
 import org.apache.iotdb.db.queryengine.plan.execution.memory.MemorySourceHandle;
 import org.apache.iotdb.db.queryengine.plan.planner.IPlanner;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.DistributedQueryPlan;
@@ -49,6 +51,9 @@ import org.apache.iotdb.db.queryengine.plan.planner.plan.FragmentInstance;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.LogicalQueryPlan;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeUtil;
 import org.apache.iotdb.db.queryengine.plan.scheduler.IScheduler;
+import org.apache.iotdb.db.queryengine.trace.QueryTrace;
+import org.apache.iotdb.db.queryengine.trace.QueryTraceSpan;
+import org.apache.iotdb.db.queryengine.trace.QueryTracer;
 import org.apache.iotdb.db.utils.SetThreadName;
 import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceId;
 import org.apache.iotdb.rpc.RpcUtils;
@@ -107,6 +112,9 @@ public class QueryExecution implements IQueryExecution {
   // used for cleaning resultHandle up exactly once
   private final AtomicBoolean resultHandleCleanUp;
 
+  // records the returned result for the QueryResultCache, null if the result will not be cached
+  private QueryResultCache.ResultRecorder resultRecorder;
+
   private final AtomicBoolean stopped;
 
   // cost time in ns of finished rpc
@@ -128,6 +136,9 @@ public class QueryExecution implements IQueryExecution {
   public QueryExecution(IPlanner planner, MPPQueryContext context, ExecutorService executor) {
     this.context = context;
     this.planner = planner;
+    if (QueryTracer.sample()) {
+      context.setQueryTrace(new QueryTrace(context.getQueryId().getId()));
+    }
     planner.beginAnalysisAttempt();
     try {
       this.analysis = analyze(context);
@@ -162,6 +173,7 @@ public class QueryExecution implements IQueryExecution {
             // Each resource closes only when its fragmentInstanceUsageCount reaches zero,
             // preventing a premature close raced with late-scheduled FragmentInstances.
             context.releaseExternalTsFileQueryResources();
+            finishQueryTrace(state);
             this.stop(cause);
           }
         });
@@ -215,7 +227,18 @@ public class QueryExecution implements IQueryExecution {
       return;
     }
 
+    if (tryServeFromQueryResultCache()) {
+      LOGGER.debug(DataNodeQueryMessages.SKIP_EXECUTE_BY_QUERY_RESULT_CACHE);
+      stateMachine.transitionToRunning();
+      finishAnalysisAttemptForCurrentState();
+      return;
+    }
+
     doDistributedPlan();
+    if (resultRecorder != null && !QueryResultCache.isReadFromLocalReplicas(distributedPlan)) {
+      // the captured versions are those of the local leaders, which the query does not read
+      resultRecorder = null;
+    }
 
     stateMachine.transitionToPlanned();
     if (context.isQuery()) {
@@ -240,6 +263,31 @@ public class QueryExecution implements IQueryExecution {
     finishAnalysisAttemptForCurrentState();
   }
 
+  /**
+   * Serve the query from the {@link QueryResultCache} if the regions it reads are unchanged since
+   * the result was cached, otherwise prepare to record the result of this execution.
+   *
+   * @return true if the result handle is served by the cache
+   */
+  private boolean tryServeFromQueryResultCache() {
+    QueryResultCache queryResultCache = QueryResultCache.getInstance();
+    if (!queryResultCache.isEnabled()) {
+      return false;
+    }
+    QueryResultCache.CacheableQuery cacheableQuery =
+        queryResultCache.getCacheableQuery(context, analysis);
+    if (cacheableQuery == null) {
+      return false;
+    }
+    List<ByteBuffer> cachedResult = queryResultCache.getResult(cacheableQuery);
+    if (cachedResult != null) {
+      resultHandle = new CachedResultSourceHandle(cachedResult);
+      return true;
+    }
+    resultRecorder = queryResultCache.newRecorder(cacheableQuery);
+    return false;
+  }
+
   private void checkTimeOutForQuery() {
     // only check query operation's timeout because we will never limit write operation's execution
     // time
@@ -317,18 +365,33 @@ public class QueryExecution implements IQueryExecution {
 
   // Analyze the statement in QueryContext. Generate the analysis this query need
   private IAnalysis analyze(MPPQueryContext context) {
-    return planner.analyze(context);
+    QueryTraceSpan span = startTraceSpan(QueryTrace.ANALYZE);
+    try {
+      return planner.analyze(context);
+    } finally {
+      endTraceSpan(span);
+    }
   }
 
   private void schedule() {
     final long startTime = System.nanoTime();
-    this.scheduler = planner.doSchedule(analysis, distributedPlan, context, stateMachine);
+    QueryTraceSpan span = startTraceSpan(QueryTrace.SCHEDULE);
+    try {
+      this.scheduler = planner.doSchedule(analysis, distributedPlan, context, stateMachine);
+    } finally {
+      endTraceSpan(span);
+    }
     PERFORMANCE_OVERVIEW_METRICS.recordScheduleCost(System.nanoTime() - startTime);
   }
 
   // Use LogicalPlanner to do the logical query plan and logical optimization
   public void doLogicalPlan() {
-    this.logicalPlan = planner.doLogicalPlan(analysis, context);
+    QueryTraceSpan span = startTraceSpan(QueryTrace.LOGICAL_PLAN);
+    try {
+      this.logicalPlan = planner.doLogicalPlan(analysis, context);
+    } finally {
+      endTraceSpan(span);
+    }
     if (isQuery() && LOGGER.isDebugEnabled()) {
       LOGGER.debug(
           DataNodeQueryMessages.LOGICAL_PLAN_IS_ARG,
@@ -340,7 +403,12 @@ public class QueryExecution implements IQueryExecution {
 
   // Generate the distributed plan and split it into fragments
   public void doDistributedPlan() {
-    this.distributedPlan = planner.doDistributionPlan(analysis, logicalPlan, context);
+    QueryTraceSpan span = startTraceSpan(QueryTrace.DISTRIBUTION_PLAN);
+    try {
+      this.distributedPlan = planner.doDistributionPlan(analysis, logicalPlan, context);
+    } finally {
+      endTraceSpan(span);
+    }
 
     // if is this Statement is ShowQueryStatement, set its instances to the highest priority, so
     // that the sub-tasks of the ShowQueries instances could be executed first.
@@ -348,6 +416,14 @@ public class QueryExecution implements IQueryExecution {
       distributedPlan.getInstances().forEach(instance -> instance.setHighestPriority(true));
     }
 
+    // propagate the trace to the fragment instances, which will be traced on their DataNodes
+    QueryTrace queryTrace = context.getQueryTrace();
+    if (queryTrace != null) {
+      distributedPlan
+          .getInstances()
+          .forEach(instance -> instance.setTraceParentSpanId(queryTrace.getRootSpanId()));
+    }
+
     if (LOGGER.isDebugEnabled() && isQuery()) {
       LOGGER.debug(
           DataNodeQueryMessages
@@ -417,6 +493,34 @@ public class QueryExecution implements IQueryExecution {
   public void stopAndCleanup(Throwable t) {
     stop(t);
     releaseResource(t);
+    finishQueryTrace(stateMachine.getState());
+  }
+
+  private QueryTraceSpan startTraceSpan(String name) {
+    QueryTrace queryTrace = context.getQueryTrace();
+    return queryTrace == null ? null : queryTrace.startSpan(name);
+  }
+
+  private static void endTraceSpan(QueryTraceSpan span) {
+    if (span != null) {
+      span.end();
+    }
+  }
+
+  private void finishQueryTrace(QueryState state) {
+    QueryTrace queryTrace = context.getQueryTrace();
+    if (queryTrace == null) {
+      return;
+    }
+    QueryTraceSpan rootSpan = queryTrace.getRootSpan();
+    rootSpan.setAttribute("state", state.toString());
+    rootSpan.setAttribute("statement", context.getSql());
+    if (context.getSession() != null) {
+      rootSpan.setAttribute("user", context.getSession().getUserName());
+    }
+    rootSpan.setAttribute("fetch_schema_cost_ns", context.getFetchSchemaCost());
+    rootSpan.setAttribute("fetch_partition_cost_ns", context.getFetchPartitionCost());
+    queryTrace.finish(context.isQuery());
   }
 
   /** Release the resources that current QueryExecution hold with a specified exception */
@@ -499,6 +603,7 @@ public class QueryExecution implements IQueryExecution {
           }
         } else if (resultHandle.isFinished()) {
           LOGGER.debug(DataNodeQueryMessages.RESULT_HANDLE_FINISHED);
+          finishRecordingIfFinished();
           stateMachine.transitionToFinished();
           return Optional.empty();
         }
@@ -508,8 +613,11 @@ public class QueryExecution implements IQueryExecution {
           ListenableFuture<?> blocked = resultHandle.isBlocked();
           blocked.get();
         } finally {
-          QUERY_EXECUTION_METRIC_SET.recordExecutionCost(
-              WAIT_FOR_RESULT, System.nanoTime() - startTime);
+          long waitForResultTime = System.nanoTime() - startTime;
+          QUERY_EXECUTION_METRIC_SET.recordExecutionCost(WAIT_FOR_RESULT, waitForResultTime);
+          if (context.getQueryTrace() != null) {
+            context.getQueryTrace().addWaitForResultTime(waitForResultTime);
+          }
         }
 
         if (!resultHandle.isFinished()) {
@@ -520,6 +628,7 @@ public class QueryExecution implements IQueryExecution {
           }
           return Optional.of(res);
         } else {
+          finishRecordingIfFinished();
           return Optional.empty();
         }
       } catch (ExecutionException | CancellationException e) {
@@ -534,6 +643,7 @@ public class QueryExecution implements IQueryExecution {
   }
 
   private void dealWithException(Throwable t) throws IoTDBException {
+    resultRecorder = null;
     t = getRootCause(t);
     stateMachine.transitionToFailed(t);
     TSStatus status = stateMachine.getFailureStatus();
@@ -564,7 +674,12 @@ public class QueryExecution implements IQueryExecution {
   }
 
   private TsBlock getDeserializedTsBlock() {
-    return resultHandle.receive();
+    TsBlock tsBlock = resultHandle.receive();
+    if (resultRecorder != null && tsBlock != null) {
+      resultRecorder.record(tsBlock);
+    }
+    finishRecordingIfFinished();
+    return tsBlock;
   }
 
   @Override
@@ -573,7 +688,21 @@ public class QueryExecution implements IQueryExecution {
   }
 
   private ByteBuffer getSerializedTsBlock() throws IoTDBException {
-    return resultHandle.getSerializedTsBlock();
+    ByteBuffer serializedTsBlock = resultHandle.getSerializedTsBlock();
+    if (resultRecorder != null && serializedTsBlock != null) {
+      resultRecorder.record(serializedTsBlock);
+    }
+    finishRecordingIfFinished();
+    return serializedTsBlock;
+  }
+
+  private void finishRecordingIfFinished() {
+    if (resultRecorder != null && resultHandle.isFinished()) {
+      if (QueryResultCache.isReadFromLocalReplicas(distributedPlan)) {
+        resultRecorder.finish();
+      }
+      resultRecorder = null;
+    }
   }
 
   /**
@@ -0,0 +1,541 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.execution.cache;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
+import org.apache.iotdb.commons.consensus.DataRegionId;
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.memory.IMemoryBlock;
+import org.apache.iotdb.commons.partition.DataPartition;
+import org.apache.iotdb.commons.queryengine.plan.relational.metadata.QualifiedObjectName;
+import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.CurrentTime;
+import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.FunctionCall;
+import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.Query;
+import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.TableFunctionInvocation;
+import org.apache.iotdb.commons.queryengine.plan.udf.BuiltinTimeSeriesGeneratingFunction;
+import org.apache.iotdb.commons.schema.table.TsTable;
+import org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory;
+import org.apache.iotdb.commons.schema.table.column.TsTableColumnSchema;
+import org.apache.iotdb.commons.udf.builtin.relational.TableBuiltinAggregationFunction;
+import org.apache.iotdb.commons.udf.builtin.relational.TableBuiltinScalarFunction;
+import org.apache.iotdb.commons.udf.builtin.relational.TableBuiltinWindowFunction;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.consensus.DataRegionConsensusImpl;
+import org.apache.iotdb.db.queryengine.common.MPPQueryContext;
+import org.apache.iotdb.db.queryengine.common.header.DatasetHeader;
+import org.apache.iotdb.db.queryengine.plan.Coordinator;
+import org.apache.iotdb.db.queryengine.plan.analyze.Analysis;
+import org.apache.iotdb.db.queryengine.plan.analyze.IAnalysis;
+import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.DataNodeTTLCache;
+import org.apache.iotdb.db.queryengine.plan.expression.Expression;
+import org.apache.iotdb.db.queryengine.plan.expression.multi.FunctionExpression;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.DistributedQueryPlan;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.FragmentInstance;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.DefaultTraversalVisitor;
+import org.apache.iotdb.db.queryengine.plan.statement.component.ResultColumn;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.QueryStatement;
+import org.apache.iotdb.db.schemaengine.table.DataNodeTableCache;
+import org.apache.iotdb.db.storageengine.StorageEngine;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.google.common.collect.ImmutableSet;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.column.TsBlockSerde;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caches the serialized results of repeated read-only queries on the coordinator.
+ *
+ * <p>A result is keyed on the normalized SQL together with the session attributes that affect its
+ * meaning, and is valid as long as the data versions of all the data regions it read are
+ * unchanged. Writes, deletions and loads advance the version of a region while flush and
+ * compaction do not, so a dashboard repeatedly querying sealed history keeps hitting the cache.
+ *
+ * <p>The versions only tell the data of the leader replicas. A follower lags its leader, so a query
+ * is cached only if every data region it reads has its leader on this node and is read from it.
+ * Attributes of the table model are stored in the schema regions and TTL expires data relative to
+ * the current time, neither of which advances the data versions, so queries reading attributes or
+ * data under a TTL are not cached. The memory of the cached results is taken from the coordinator
+ * memory block and released on eviction.
+ */
+public class QueryResultCache {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  /** The built-in time series generating functions whose results change without any write. */
+  private static final Set<String> NON_DETERMINISTIC_TREE_FUNCTIONS =
+      ImmutableSet.of(
+          BuiltinTimeSeriesGeneratingFunction.EQUAL_SIZE_BUCKET_RANDOM_SAMPLE.getFunctionName(),
+          BuiltinTimeSeriesGeneratingFunction.FORECAST.getFunctionName());
+
+  /** A single result may take at most this fraction of the cache. */
+  private static final int MAX_ENTRY_SIZE_DIVISOR = 8;
+
+  private static final long ENTRY_INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(Entry.class);
+
+  private static final TsBlockSerde serde = new TsBlockSerde();
+
+  private final long maxEntrySizeInBytes;
+
+  private final IMemoryBlock memoryBlock;
+
+  private final Cache<Key, Entry> cache;
+
+  private QueryResultCache() {
+    this(
+        CONFIG.getQueryResultCacheSizeInBytes(),
+        CONFIG.getQueryResultCacheExpireTimeInMs(),
+        Coordinator.getCoordinatorMemoryBlock());
+  }
+
+  @TestOnly
+  QueryResultCache(long cacheSizeInBytes, long expireTimeInMs, IMemoryBlock memoryBlock) {
+    this.maxEntrySizeInBytes = cacheSizeInBytes / MAX_ENTRY_SIZE_DIVISOR;
+    this.memoryBlock = memoryBlock;
+    this.cache =
+        cacheSizeInBytes <= 0
+            ? null
+            : Caffeine.newBuilder()
+                .maximumWeight(cacheSizeInBytes)
+                .weigher((Weigher<Key, Entry>) (key, entry) -> (int) entry.sizeInBytes)
+                .expireAfterWrite(expireTimeInMs, TimeUnit.MILLISECONDS)
+                .removalListener(
+                    (RemovalListener<Key, Entry>)
+                        (key, entry, cause) -> {
+                          if (entry != null) {
+                            memoryBlock.release(entry.sizeInBytes);
+                          }
+                        })
+                .build();
+  }
+
+  public static QueryResultCache getInstance() {
+    return QueryResultCacheHolder.INSTANCE;
+  }
+
+  public boolean isEnabled() {
+    return cache != null;
+  }
+
+  /**
+   * Check whether the result of the analyzed and logically planned query can be cached, and
+   * capture the data versions of the regions it reads. The versions must be captured before the
+   * query is scheduled, so that a write racing with the execution invalidates the result.
+   *
+   * @return null if the query can not be cached
+   */
+  public CacheableQuery getCacheableQuery(MPPQueryContext context, IAnalysis analysis) {
+    if (!isEnabled()
+        || !context.isQuery()
+        || !context.isUserQuery()
+        || context.isDebug()
+        || context.getSql() == null
+        || !isReadOnlyQuery(analysis)
+        || !isDeterministicQuery(analysis)
+        || !isValidatedByDataVersions(analysis)) {
+      return null;
+    }
+    String sql = context.getSql().trim().replaceAll("\\s+", " ");
+    Map<Integer, Long> regionVersions = getRegionVersions(analysis.getDataPartitionInfo());
+    if (regionVersions == null) {
+      return null;
+    }
+    return newCacheableQuery(
+        context.getSession().getSqlDialect().name(),
+        context.getSession().getDatabaseName().orElse(null),
+        context.getSession().getUserName(),
+        context.getZoneId().getId(),
+        sql,
+        regionVersions,
+        analysis.getRespDatasetHeader());
+  }
+
+  static CacheableQuery newCacheableQuery(
+      String sqlDialect,
+      String database,
+      String user,
+      String zoneId,
+      String sql,
+      Map<Integer, Long> regionVersions,
+      DatasetHeader datasetHeader) {
+    return new CacheableQuery(
+        new Key(sqlDialect, database, user, zoneId, sql), regionVersions, datasetHeader);
+  }
+
+  private static boolean isReadOnlyQuery(IAnalysis analysis) {
+    if (analysis instanceof Analysis) {
+      Object statement = ((Analysis) analysis).getTreeStatement();
+      return statement instanceof QueryStatement && !((QueryStatement) statement).isSelectInto();
+    }
+    return analysis
+            instanceof org.apache.iotdb.db.queryengine.plan.relational.analyzer.Analysis
+        && ((org.apache.iotdb.db.queryengine.plan.relational.analyzer.Analysis) analysis)
+                .getStatement()
+            instanceof Query;
+  }
+
+  /**
+   * Check whether the result of the query changes only with the data it reads. This is decided
+   * from the analyzed statement rather than the SQL text: now() is folded into a constant by the
+   * parsers, which mark the statement instead, and any function other than the deterministic
+   * built-in ones, e.g. a UDF or a table function, may return different results for the same data.
+   */
+  static boolean isDeterministicQuery(IAnalysis analysis) {
+    if (analysis instanceof Analysis) {
+      QueryStatement statement = (QueryStatement) ((Analysis) analysis).getTreeStatement();
+      if (statement.isUseCurrentTime() || statement.hasModelInference()) {
+        return false;
+      }
+      for (ResultColumn resultColumn : statement.getSelectComponent().getResultColumns()) {
+        if (!isDeterministic(resultColumn.getExpression())) {
+          return false;
+        }
+      }
+      return (statement.getWhereCondition() == null
+              || isDeterministic(statement.getWhereCondition().getPredicate()))
+          && (statement.getHavingCondition() == null
+              || isDeterministic(statement.getHavingCondition().getPredicate()));
+    }
+    Query query =
+        (Query)
+            ((org.apache.iotdb.db.queryengine.plan.relational.analyzer.Analysis) analysis)
+                .getStatement();
+    if (query.isUseCurrentTime()) {
+      return false;
+    }
+    AtomicBoolean nonDeterministic = new AtomicBoolean(false);
+    new NonDeterministicExpressionFinder().process(query, nonDeterministic);
+    return !nonDeterministic.get();
+  }
+
+  private static boolean isDeterministic(Expression expression) {
+    if (expression instanceof FunctionExpression) {
+      FunctionExpression functionExpression = (FunctionExpression) expression;
+      if (!functionExpression.isBuiltInAggregationFunctionExpression()
+          && !functionExpression.isBuiltInScalarFunctionExpression()) {
+        String functionName = functionExpression.getFunctionName().toUpperCase(Locale.ENGLISH);
+        if (!BuiltinTimeSeriesGeneratingFunction.getNativeFunctionNames().contains(functionName)
+            || NON_DETERMINISTIC_TREE_FUNCTIONS.contains(functionName)) {
+          return false;
+        }
+      }
+    }
+    for (Expression child : expression.getExpressions()) {
+      if (!isDeterministic(child)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Finds the expressions and relations of a table model query whose results may vary. */
+  private static class NonDeterministicExpressionFinder
+      extends DefaultTraversalVisitor<AtomicBoolean> {
+
+    @Override
+    public Void visitCurrentTime(CurrentTime node, AtomicBoolean nonDeterministic) {
+      nonDeterministic.set(true);
+      return null;
+    }
+
+    @Override
+    public Void visitFunctionCall(FunctionCall node, AtomicBoolean nonDeterministic) {
+      String functionName = node.getName().getSuffix().toLowerCase(Locale.ENGLISH);
+      if (!TableBuiltinScalarFunction.getBuiltInScalarFunctionName().contains(functionName)
+          && !TableBuiltinAggregationFunction.getBuiltInAggregateFunctionName()
+              .contains(functionName)
+          && !TableBuiltinWindowFunction.getBuiltInWindowFunctionName().contains(functionName)) {
+        nonDeterministic.set(true);
+        return null;
+      }
+      return super.visitFunctionCall(node, nonDeterministic);
+    }
+
+    @Override
+    public Void visitTableFunctionInvocation(
+        TableFunctionInvocation node, AtomicBoolean nonDeterministic) {
+      nonDeterministic.set(true);
+      return null;
+    }
+  }
+
+  /**
+   * Check whether the data versions are enough to validate the result of a table model query. The
+   * attributes of a device are updated in the schema region, and the rows of a table with a TTL
+   * expire as time goes by, without advancing the data version of any data region.
+   */
+  static boolean isValidatedByDataVersions(IAnalysis analysis) {
+    if (analysis instanceof Analysis) {
+      // TTL of the tree model is checked per data region
+      return true;
+    }
+    org.apache.iotdb.db.queryengine.plan.relational.analyzer.Analysis tableAnalysis =
+        (org.apache.iotdb.db.queryengine.plan.relational.analyzer.Analysis) analysis;
+    for (QualifiedObjectName tableName : tableAnalysis.getTableNames()) {
+      TsTable table =
+          DataNodeTableCache.getInstance()
+              .getTable(tableName.getDatabaseName(), tableName.getObjectName(), false);
+      if (table == null || table.getCachedTableTTL() != Long.MAX_VALUE) {
+        return false;
+      }
+      for (String columnName : tableAnalysis.getUsedColumns(tableName)) {
+        TsTableColumnSchema columnSchema = table.getColumnSchema(columnName);
+        if (columnSchema != null
+            && columnSchema.getColumnCategory() == TsTableColumnCategory.ATTRIBUTE) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return null if the query reads no data region, or any of the regions does not have its leader
+   *     on this node, or has data under a TTL of the tree model
+   */
+  private static Map<Integer, Long> getRegionVersions(DataPartition dataPartition) {
+    if (dataPartition == null) {
+      return null;
+    }
+    Map<Integer, Long> regionVersions = new TreeMap<>();
+    for (TRegionReplicaSet replicaSet : dataPartition.getAllReplicaSets()) {
+      if (replicaSet.getRegionId() == null) {
+        return null;
+      }
+      DataRegionId dataRegionId = new DataRegionId(replicaSet.getRegionId().getId());
+      DataRegion dataRegion = StorageEngine.getInstance().getDataRegion(dataRegionId);
+      if (dataRegion == null
+          || !DataRegionConsensusImpl.getInstance().isLeaderReady(dataRegionId)
+          || (!dataRegion.isTableModel() && mayHaveTTL(dataRegion.getDatabaseName()))) {
+        return null;
+      }
+      regionVersions.put(replicaSet.getRegionId().getId(), dataRegion.getDataVersion());
+    }
+    return regionVersions.isEmpty() ? null : regionVersions;
+  }
+
+  private static boolean mayHaveTTL(String treeDatabase) {
+    try {
+      return DataNodeTTLCache.getInstance().dataInDatabaseMayHaveTTL(treeDatabase);
+    } catch (IllegalPathException e) {
+      return true;
+    }
+  }
+
+  /**
+   * Check whether all the data regions of the distributed plan are read from the replicas on this
+   * node, whose versions were captured. The host of a fragment instance may change when its
+   * dispatch is retried, so this is checked again before the result is cached.
+   */
+  public static boolean isReadFromLocalReplicas(DistributedQueryPlan distributedPlan) {
+    if (distributedPlan == null) {
+      return false;
+    }
+    for (FragmentInstance instance : distributedPlan.getInstances()) {
+      TRegionReplicaSet replicaSet = instance.getRegionReplicaSet();
+      if (!instance.getExecutorType().isStorageExecutor()
+          || replicaSet == null
+          || replicaSet.getRegionId() == null
+          || replicaSet.getRegionId().getType() != TConsensusGroupType.DataRegion) {
+        continue;
+      }
+      if (instance.getHostDataNode() == null
+          || instance.getHostDataNode().getDataNodeId() != CONFIG.getDataNodeId()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the serialized TsBlocks of the result, or null if there is no valid cached result
+   */
+  public List<ByteBuffer> getResult(CacheableQuery query) {
+    Entry entry = cache.getIfPresent(query.key);
+    if (entry == null) {
+      return null;
+    }
+    if (!entry.regionVersions.equals(query.regionVersions)
+        || !entry.datasetHeader.equals(query.datasetHeader)
+        || !Objects.equals(
+            entry.datasetHeader.getColumnIndex2TsBlockColumnIndexList(),
+            query.datasetHeader.getColumnIndex2TsBlockColumnIndexList())) {
+      cache.asMap().remove(query.key, entry);
+      return null;
+    }
+    return entry.results;
+  }
+
+  public ResultRecorder newRecorder(CacheableQuery query) {
+    return new ResultRecorder(query);
+  }
+
+  /** Collects the result batches returned to the client and caches them once all are returned. */
+  public class ResultRecorder {
+
+    private final CacheableQuery query;
+    private List<ByteBuffer> results = new ArrayList<>();
+    private long sizeInBytes = ENTRY_INSTANCE_SIZE;
+
+    private ResultRecorder(CacheableQuery query) {
+      this.query = query;
+    }
+
+    public void record(TsBlock tsBlock) {
+      if (results == null) {
+        return;
+      }
+      try {
+        record(serde.serialize(tsBlock));
+      } catch (IOException e) {
+        results = null;
+      }
+    }
+
+    public void record(ByteBuffer serializedTsBlock) {
+      if (results == null) {
+        return;
+      }
+      sizeInBytes += serializedTsBlock.remaining();
+      if (sizeInBytes > maxEntrySizeInBytes) {
+        results = null;
+        return;
+      }
+      // the buffer may be reused by the exchange layer after it is returned
+      ByteBuffer copy = ByteBuffer.allocate(serializedTsBlock.remaining());
+      copy.put(serializedTsBlock.duplicate());
+      copy.flip();
+      results.add(copy);
+    }
+
+    /** Called once the whole result has been returned to the client. */
+    public void finish() {
+      if (results == null || !memoryBlock.allocate(sizeInBytes)) {
+        results = null;
+        return;
+      }
+      cache.put(
+          query.key,
+          new Entry(
+              query.regionVersions,
+              query.datasetHeader,
+              Collections.unmodifiableList(results),
+              sizeInBytes));
+      results = null;
+    }
+  }
+
+  /** A query whose result can be cached, with the data versions captured before execution. */
+  public static class CacheableQuery {
+
+    private final Key key;
+    private final Map<Integer, Long> regionVersions;
+    private final DatasetHeader datasetHeader;
+
+    private CacheableQuery(
+        Key key, Map<Integer, Long> regionVersions, DatasetHeader datasetHeader) {
+      this.key = key;
+      this.regionVersions = regionVersions;
+      this.datasetHeader = datasetHeader;
+    }
+  }
+
+  private static class Key {
+
+    private final String sqlDialect;
+    private final String database;
+    private final String user;
+    private final String zoneId;
+    private final String sql;
+
+    private Key(String sqlDialect, String database, String user, String zoneId, String sql) {
+      this.sqlDialect = sqlDialect;
+      this.database = database;
+      this.user = user;
+      this.zoneId = zoneId;
+      this.sql = sql;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key that = (Key) o;
+      return sqlDialect.equals(that.sqlDialect)
+          && Objects.equals(database, that.database)
+          && Objects.equals(user, that.user)
+          && zoneId.equals(that.zoneId)
+          && sql.equals(that.sql);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(sqlDialect, database, user, zoneId, sql);
+    }
+  }
+
+  private static class Entry {
+
+    private final Map<Integer, Long> regionVersions;
+    private final DatasetHeader datasetHeader;
+    private final List<ByteBuffer> results;
+    private final long sizeInBytes;
+
+    private Entry(
+        Map<Integer, Long> regionVersions,
+        DatasetHeader datasetHeader,
+        List<ByteBuffer> results,
+        long sizeInBytes) {
+      this.regionVersions = regionVersions;
+      this.datasetHeader = datasetHeader;
+      this.results = results;
+      this.sizeInBytes = sizeInBytes;
+    }
+  }
+
+  private static class QueryResultCacheHolder {
+    private static final QueryResultCache INSTANCE = new QueryResultCache();
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.execution.memory;
+
+import org.apache.iotdb.db.queryengine.execution.exchange.source.ISourceHandle;
+import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceId;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.column.TsBlockSerde;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+
+/** Replays the serialized TsBlocks of a query result taken from the query result cache. */
+public class CachedResultSourceHandle implements ISourceHandle {
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(CachedResultSourceHandle.class);
+
+  private static final TsBlockSerde serde = new TsBlockSerde();
+
+  private final List<ByteBuffer> results;
+  private int index = 0;
+
+  public CachedResultSourceHandle(List<ByteBuffer> results) {
+    this.results = results;
+  }
+
+  @Override
+  public TFragmentInstanceId getLocalFragmentInstanceId() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public String getLocalPlanNodeId() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public long getBufferRetainedSizeInBytes() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public synchronized TsBlock receive() {
+    return serde.deserialize(results.get(index++).duplicate());
+  }
+
+  @Override
+  public synchronized ByteBuffer getSerializedTsBlock() {
+    // the cached buffers are shared by all the queries hitting the same entry
+    return results.get(index++).duplicate();
+  }
+
+  @Override
+  public synchronized boolean isFinished() {
+    return index >= results.size();
+  }
+
+  @Override
+  public ListenableFuture<?> isBlocked() {
+    return immediateFuture(null);
+  }
+
+  @Override
+  public boolean isAborted() {
+    return false;
+  }
+
+  @Override
+  public void abort() {
+    // do nothing
+  }
+
+  @Override
+  public void abort(Throwable t) {
+    abort();
+  }
+
+  @Override
+  public void close() {
+    // do nothing
+  }
+
+  @Override
+  public void setMaxBytesCanReserve(long maxBytesCanReserve) {
+    // do nothing
+  }
+
+  @Override
+  public long ramBytesUsed() {
+    return INSTANCE_SIZE;
+  }
+}
@@ -371,6 +371,9 @@ public class ASTVisitor extends IoTDBSqlParserBaseVisitor<Statement> {
 
   private boolean lastLevelUseWildcard = false;
 
+  // whether now() has been evaluated into a constant
+  private boolean useCurrentTime = false;
+
   public static final String SERVICE_MANAGEMENT_NOT_SUPPORTED =
       "Service management SQLs are not supported now!";
 
@@ -1789,6 +1792,7 @@ public class ASTVisitor extends IoTDBSqlParserBaseVisitor<Statement> {
 
     queryStatement.setUseWildcard(useWildcard);
     queryStatement.setLastLevelUseWildcard(lastLevelUseWildcard);
+    queryStatement.setUseCurrentTime(useCurrentTime);
     return queryStatement;
   }
 
@@ -2578,6 +2582,7 @@ public class ASTVisitor extends IoTDBSqlParserBaseVisitor<Statement> {
       throw new SemanticException(DataNodeQueryMessages.INPUT_TIMESTAMP_CANNOT_BE_EMPTY);
     }
     if (timestampStr.equalsIgnoreCase(SqlConstant.NOW_FUNC)) {
+      useCurrentTime = true;
       return CommonDateTimeUtils.currentTime();
     }
     try {
@@ -2592,6 +2597,13 @@ public class ASTVisitor extends IoTDBSqlParserBaseVisitor<Statement> {
     }
   }
 
+  private long parseDateTimeFormat(String timestampStr, long currentTime) {
+    if (SqlConstant.NOW_FUNC.equalsIgnoreCase(timestampStr)) {
+      useCurrentTime = true;
+    }
+    return parseDateTimeFormat(timestampStr, currentTime, zoneId);
+  }
+
   public static long parseDateTimeFormat(String timestampStr, long currentTime, ZoneId zoneId) {
     if (timestampStr == null || timestampStr.trim().isEmpty()) {
       throw new SemanticException(DataNodeQueryMessages.INPUT_TIMESTAMP_CANNOT_BE_EMPTY);
@@ -3657,7 +3669,7 @@ public class ASTVisitor extends IoTDBSqlParserBaseVisitor<Statement> {
 
   private Long parseDateExpression(IoTDBSqlParser.DateExpressionContext ctx, long currentTime) {
     long time;
-    time = parseDateTimeFormat(ctx.getChild(0).getText(), currentTime, zoneId);
+    time = parseDateTimeFormat(ctx.getChild(0).getText(), currentTime);
     for (int i = 1; i < ctx.getChildCount(); i = i + 2) {
       if ("+".equals(ctx.getChild(i).getText())) {
         time +=
@@ -3688,7 +3700,7 @@ public class ASTVisitor extends IoTDBSqlParserBaseVisitor<Statement> {
     } else if (ctx.dateExpression() != null) {
       return parseDateExpression(ctx.dateExpression(), currentTime);
     } else {
-      return parseDateTimeFormat(ctx.datetimeLiteral().getText(), currentTime, zoneId);
+      return parseDateTimeFormat(ctx.datetimeLiteral().getText(), currentTime);
     }
   }
 
@@ -22,6 +22,7 @@ package org.apache.iotdb.db.queryengine.plan.planner;
 import org.apache.iotdb.calc.execution.filter.TopKRuntimeFilter;
 import org.apache.iotdb.calc.execution.operator.CommonOperatorContext;
 import org.apache.iotdb.calc.execution.operator.Operator;
+import org.apache.iotdb.calc.execution.operator.process.CollectOperator;
 import org.apache.iotdb.calc.execution.operator.process.FilterAndProjectOperator;
 import org.apache.iotdb.calc.execution.operator.process.LimitOperator;
 import org.apache.iotdb.calc.execution.operator.process.OffsetOperator;
@@ -67,7 +68,9 @@ import org.apache.iotdb.db.queryengine.execution.exchange.MPPDataExchangeManager
 import org.apache.iotdb.db.queryengine.execution.exchange.MPPDataExchangeService;
 import org.apache.iotdb.db.queryengine.execution.exchange.sink.DownStreamChannelIndex;
 import org.apache.iotdb.db.queryengine.execution.exchange.sink.DownStreamChannelLocation;
+import org.apache.iotdb.db.queryengine.execution.exchange.sink.ISinkChannel;
 import org.apache.iotdb.db.queryengine.execution.exchange.sink.ISinkHandle;
+import org.apache.iotdb.db.queryengine.execution.exchange.sink.LocalSinkChannel;
 import org.apache.iotdb.db.queryengine.execution.exchange.sink.ShuffleSinkHandle;
 import org.apache.iotdb.db.queryengine.execution.exchange.source.ISourceHandle;
 import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceManager;
@@ -107,7 +110,9 @@ import org.apache.iotdb.db.queryengine.execution.operator.source.relational.Tree
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.TreeAlignedDeviceViewScanOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.TreeNonAlignedDeviceViewAggregationScanOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.TreeToTableViewAdaptorOperator;
+import org.apache.iotdb.db.queryengine.execution.schedule.DriverScheduler;
 import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.DataNodeTTLCache;
+import org.apache.iotdb.db.queryengine.plan.planner.memory.PipelineMemoryEstimator;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanVisitor;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.metadata.read.CountSchemaMergeNode;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.sink.IdentitySinkNode;
@@ -177,12 +182,14 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.Set;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -1233,6 +1240,20 @@ public class DataNodeTableOperatorGenerator
   @Override
   public Operator visitDeviceTableScan(
       DeviceTableScanNode node, LocalExecutionPlanContext context) {
+    List<DeviceTableScanNode> splitNodes = splitScanByDevices(node, context);
+    if (splitNodes.size() > 1) {
+      return constructParallelScanOperator(
+          node,
+          constructTableScanOperator(splitNodes.get(0), context),
+          splitNodes,
+          this::constructTableScanOperator,
+          context);
+    }
+    return constructTableScanOperator(node, context);
+  }
+
+  private Operator constructTableScanOperator(
+      DeviceTableScanNode node, LocalExecutionPlanContext context) {
     TopKRuntimeFilter topKRuntimeFilter = resolveTopKRuntimeFilterForDeviceScan(node, context);
 
     AbstractTableScanOperator.AbstractTableScanOperatorParameter parameter =
@@ -1253,6 +1274,116 @@ public class DataNodeTableOperatorGenerator
     return tableScanOperator;
   }
 
+  /**
+   * Split the device entries of a scan over one region into contiguous groups, each of which is
+   * scanned by its own pipeline. The number of groups is limited by the degree of parallelism, the
+   * idle query threads and the number of devices, a single group is returned if the scan should
+   * not be split.
+   */
+  @SuppressWarnings("unchecked")
+  private <T extends DeviceTableScanNode> List<T> splitScanByDevices(
+      T node, LocalExecutionPlanContext context) {
+    int minDevicesPerPipeline =
+        IoTDBDescriptor.getInstance().getConfig().getMinDevicesPerTableScanPipeline();
+    int deviceCount = node.getDeviceEntries().size();
+    // limit, offset and top-k runtime filter are shared by all the devices of the scan
+    if (minDevicesPerPipeline <= 0
+        || context.getDegreeOfParallelism() <= 1
+        || deviceCount < 2 * minDevicesPerPipeline
+        || node.getPushDownLimit() > 0
+        || node.getPushDownOffset() > 0
+        || node.getTopKRuntimeFilterSourceId() != null) {
+      return Collections.singletonList(node);
+    }
+    int pipelineNum =
+        getTableScanPipelineNum(
+            deviceCount,
+            minDevicesPerPipeline,
+            context.getDegreeOfParallelism(),
+            DriverScheduler.getInstance().getIdleWorkerThreadNum());
+    if (pipelineNum <= 1) {
+      return Collections.singletonList(node);
+    }
+
+    List<T> splitNodes = new ArrayList<>(pipelineNum);
+    for (int i = 0; i < pipelineNum; i++) {
+      T splitNode = (T) node.clone();
+      splitNode.setDeviceEntries(
+          new ArrayList<>(
+              node.getDeviceEntries()
+                  .subList(deviceCount * i / pipelineNum, deviceCount * (i + 1) / pipelineNum)));
+      splitNodes.add(splitNode);
+    }
+    return splitNodes;
+  }
+
+  static int getTableScanPipelineNum(
+      int deviceCount,
+      int minDevicesPerPipeline,
+      int degreeOfParallelism,
+      int idleWorkerThreadNum) {
+    return Math.min(
+        Math.min(
+            degreeOfParallelism,
+            // the current pipeline always runs, so it doesn't need an idle thread
+            idleWorkerThreadNum + 1),
+        deviceCount / minDevicesPerPipeline);
+  }
+
+  /**
+   * The first split is scanned in current pipeline by {@code firstScanOperator}, each of the others
+   * is scanned in a new pipeline feeding a local exchange. The results are collected in the order
+   * of splits, so the output is the same as scanning all the devices in one operator.
+   */
+  private <T extends DeviceTableScanNode> Operator constructParallelScanOperator(
+      T node,
+      Operator firstScanOperator,
+      List<T> splitNodes,
+      BiFunction<T, LocalExecutionPlanContext, Operator> scanOperatorConstructor,
+      LocalExecutionPlanContext context) {
+    List<Operator> children = new ArrayList<>(splitNodes.size());
+    children.add(firstScanOperator);
+    List<PipelineMemoryEstimator> childPipelineMemoryEstimators = new ArrayList<>();
+    for (int i = 1; i < splitNodes.size(); i++) {
+      T splitNode = splitNodes.get(i);
+      LocalExecutionPlanContext subContext = context.createSubContext();
+      subContext.setDegreeOfParallelism(1);
+      Operator scanOperator = scanOperatorConstructor.apply(splitNode, subContext);
+      ISinkChannel localSinkChannel =
+          MPP_DATA_EXCHANGE_MANAGER.createLocalSinkChannelForPipeline(
+              subContext.getDriverContext(), splitNode.getPlanNodeId().getId());
+      subContext.setISink(localSinkChannel);
+      subContext.addPipelineDriverFactory(scanOperator, subContext.getDriverContext(), 0);
+      // the split nodes share the same plan node id, so the estimators are registered after all
+      // the pipelines are created, otherwise they will be taken as the children of each other
+      childPipelineMemoryEstimators.add(
+          subContext.constructPipelineMemoryEstimator(scanOperator, null, splitNode, -1));
+
+      ExchangeOperator exchangeOperator =
+          new ExchangeOperator(
+              context
+                  .getDriverContext()
+                  .addOperatorContext(
+                      context.getNextOperatorId(), null, ExchangeOperator.class.getSimpleName()),
+              MPP_DATA_EXCHANGE_MANAGER.createLocalSourceHandleForPipeline(
+                  ((LocalSinkChannel) localSinkChannel).getSharedTsBlockQueue(),
+                  context.getDriverContext()),
+              splitNode.getPlanNodeId(),
+              scanOperator.calculateMaxReturnSize());
+      context.addExchangeOperator(exchangeOperator);
+      context.addExchangeSumNum(1);
+      children.add(exchangeOperator);
+    }
+    context
+        .getParentPlanNodeIdToMemoryEstimator()
+        .computeIfAbsent(node.getPlanNodeId(), k -> new LinkedList<>())
+        .addAll(childPipelineMemoryEstimators);
+
+    OperatorContext operatorContext =
+        addOperatorContext(context, node.getPlanNodeId(), CollectOperator.class.getSimpleName());
+    return new CollectOperator(operatorContext, children);
+  }
+
   @Override
   public Operator visitExternalTsFileScan(
       ExternalTsFileScanNode node, LocalExecutionPlanContext context) {
@@ -1770,20 +1901,45 @@ public class DataNodeTableOperatorGenerator
     if (optimizeType != OptimizeType.NOOP) {
       return constructLastQueryAggTableScanOperator(
           node, parameter, optimizeType == OptimizeType.LAST_ROW, context);
-    } else {
-      DefaultAggTableScanOperator aggTableScanOperator = new DefaultAggTableScanOperator(parameter);
+    }
 
-      context.getInstanceContext().collectTable(node.getQualifiedObjectName().getObjectName());
-      addSource(
-          aggTableScanOperator,
-          context,
+    // the result of each device is output separately, so the devices can be scanned in parallel
+    List<AggregationTableScanNode> splitNodes = splitScanByDevices(node, context);
+    if (splitNodes.size() > 1) {
+      AggregationTableScanNode firstSplitNode = splitNodes.get(0);
+      parameter.setDeviceEntries(firstSplitNode.getDeviceEntries());
+      return constructParallelScanOperator(
           node,
-          parameter.getMeasurementColumnNames(),
-          parameter.getMeasurementSchemas(),
-          parameter.getAllSensors(),
-          AggregationTableScanNode.class.getSimpleName());
-      return aggTableScanOperator;
+          constructDefaultAggTableScanOperator(firstSplitNode, parameter, context),
+          splitNodes,
+          this::constructDefaultAggTableScanOperator,
+          context);
     }
+    return constructDefaultAggTableScanOperator(node, parameter, context);
+  }
+
+  private Operator constructDefaultAggTableScanOperator(
+      AggregationTableScanNode node, LocalExecutionPlanContext context) {
+    return constructDefaultAggTableScanOperator(
+        node, constructAbstractAggTableScanOperatorParameter(node, context), context);
+  }
+
+  private Operator constructDefaultAggTableScanOperator(
+      AggregationTableScanNode node,
+      AbstractAggTableScanOperator.AbstractAggTableScanOperatorParameter parameter,
+      LocalExecutionPlanContext context) {
+    DefaultAggTableScanOperator aggTableScanOperator = new DefaultAggTableScanOperator(parameter);
+
+    context.getInstanceContext().collectTable(node.getQualifiedObjectName().getObjectName());
+    addSource(
+        aggTableScanOperator,
+        context,
+        node,
+        parameter.getMeasurementColumnNames(),
+        parameter.getMeasurementSchemas(),
+        parameter.getAllSensors(),
+        AggregationTableScanNode.class.getSimpleName());
+    return aggTableScanOperator;
   }
 
   @Override
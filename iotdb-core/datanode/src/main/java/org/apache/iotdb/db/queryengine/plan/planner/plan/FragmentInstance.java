@@ -33,6 +33,7 @@ import org.apache.iotdb.db.i18n.DataNodeQueryMessages;
 import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
 import org.apache.iotdb.db.queryengine.plan.analyze.QueryType;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeUtil;
+import org.apache.iotdb.db.queryengine.trace.QueryTraceSpan;
 
 import org.apache.tsfile.utils.PublicBAOS;
 import org.apache.tsfile.utils.ReadWriteIOUtils;
@@ -83,6 +84,9 @@ public class FragmentInstance implements IConsensusRequest {
   private final boolean debug;
   private final boolean verbose;
 
+  // the span id of the traced query on its coordinator, NO_PARENT_SPAN_ID if not traced
+  private long traceParentSpanId = QueryTraceSpan.NO_PARENT_SPAN_ID;
+
   // We can add some more params for a specific FragmentInstance
   // So that we can make different FragmentInstance owns different data range.
 
@@ -198,6 +202,14 @@ public class FragmentInstance implements IConsensusRequest {
     isHighestPriority = highestPriority;
   }
 
+  public long getTraceParentSpanId() {
+    return traceParentSpanId;
+  }
+
+  public void setTraceParentSpanId(long traceParentSpanId) {
+    this.traceParentSpanId = traceParentSpanId;
+  }
+
   public TimePredicate getGlobalTimePredicate() {
     return globalTimePredicate;
   }
@@ -269,6 +281,10 @@ public class FragmentInstance implements IConsensusRequest {
         hasHostDataNode ? ThriftCommonsSerDeUtils.deserializeTDataNodeLocation(buffer) : null;
     fragmentInstance.isExplainAnalyze = ReadWriteIOUtils.readBool(buffer);
     fragmentInstance.setHighestPriority(ReadWriteIOUtils.readBool(buffer));
+    // compatible with the instances sent by the DataNodes without query tracing
+    if (buffer.hasRemaining()) {
+      fragmentInstance.traceParentSpanId = ReadWriteIOUtils.readLong(buffer);
+    }
     return fragmentInstance;
   }
 
@@ -296,6 +312,7 @@ public class FragmentInstance implements IConsensusRequest {
       }
       ReadWriteIOUtils.write(isExplainAnalyze, outputStream);
       ReadWriteIOUtils.write(isHighestPriority, outputStream);
+      ReadWriteIOUtils.write(traceParentSpanId, outputStream);
       return ByteBuffer.wrap(publicBAOS.getBuf(), 0, publicBAOS.size());
     } catch (IOException e) {
       LOGGER.error(
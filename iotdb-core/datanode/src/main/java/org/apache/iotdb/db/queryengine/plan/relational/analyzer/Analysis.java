@@ -273,6 +273,117 @@ public class Analysis implements IAnalysis {
                 parameters, DataNodeQueryMessages.EXCEPTION_PARAMETERS_IS_NULL_418C7892));
   }
 
+  /**
+   * Copy the result of analysis for another execution of the same statement, bound to the
+   * parameter values of that execution. The state of one execution, i.e. the data partition, the
+   * fail status, the redirect nodes and whether the query can finish early, is not copied.
+   *
+   * @param parameters the literal values of the parameters, each of the same type as the value
+   *     analyzed for the parameter
+   */
+  public Analysis copyForExecution(Map<NodeRef<Parameter>, Expression> parameters) {
+    Analysis copy = new Analysis(root, parameters);
+    copy.databaseName = databaseName;
+    copy.needSetHighestPriority = needSetHighestPriority;
+    copy.updateType = updateType;
+    copy.namedQueries.putAll(namedQueries);
+    copy.with = with;
+    copy.expandableNamedQueries.putAll(expandableNamedQueries);
+    copy.expandableBaseScopes.putAll(expandableBaseScopes);
+    copy.implicitFromScopes.putAll(implicitFromScopes);
+    copy.scopes.putAll(scopes);
+    copy.columnReferences.putAll(columnReferences);
+    tableColumnReferences.forEach(
+        (accessControlInfo, references) -> {
+          Map<QualifiedObjectName, Set<String>> copiedReferences = new LinkedHashMap<>();
+          references.forEach(
+              (tableName, columns) -> copiedReferences.put(tableName, new HashSet<>(columns)));
+          copy.tableColumnReferences.put(accessControlInfo, copiedReferences);
+        });
+    copy.labels.putAll(labels);
+    copy.ranges.putAll(ranges);
+    copy.undefinedLabels.putAll(undefinedLabels);
+    copy.patternFunctionAnalysis.putAll(patternFunctionAnalysis);
+    copy.patternRecognitionFunctionCalls.addAll(patternRecognitionFunctionCalls);
+    copy.patternNavigationFunctions.addAll(patternNavigationFunctions);
+    copy.resolvedLabels.putAll(resolvedLabels);
+    copy.subsets.putAll(subsets);
+    copy.fill.putAll(fill);
+    copy.offset.putAll(offset);
+    copy.limit.putAll(limit);
+    copy.selectAllResultFields.putAll(selectAllResultFields);
+    copy.containsSelectDistinct = containsSelectDistinct;
+    copy.joins.putAll(joins);
+    copy.joinUsing.putAll(joinUsing);
+    copy.subQueries.putAll(subQueries);
+    copy.predicateCoercions.putAll(predicateCoercions);
+    copy.tables.putAll(tables);
+    copy.types.putAll(types);
+    copy.coercions.putAll(coercions);
+    copy.typeOnlyCoercions.addAll(typeOnlyCoercions);
+    copy.sortKeyCoercionsForFrameBoundCalculation.putAll(sortKeyCoercionsForFrameBoundCalculation);
+    copy.sortKeyCoercionsForFrameBoundComparison.putAll(sortKeyCoercionsForFrameBoundComparison);
+    copy.frameBoundCalculations.putAll(frameBoundCalculations);
+    copy.relationCoercions.putAll(relationCoercions);
+    copy.resolvedFunctions.putAll(resolvedFunctions);
+    copy.aggregates.putAll(aggregates);
+    copy.orderByAggregates.putAll(orderByAggregates);
+    copy.groupingSets.putAll(groupingSets);
+    copy.where.putAll(where);
+    copy.having.putAll(having);
+    copy.gapFill.putAll(gapFill);
+    copy.gapFillGroupingKeys.putAll(gapFillGroupingKeys);
+    copy.orderByExpressions.putAll(orderByExpressions);
+    copy.redundantOrderBy.addAll(redundantOrderBy);
+    copy.selectExpressions.putAll(selectExpressions);
+    copy.originColumnDetails.putAll(originColumnDetails);
+    copy.fieldLineage.putAll(fieldLineage);
+    copy.relationNames.putAll(relationNames);
+    copy.aliasedRelations.addAll(aliasedRelations);
+    copy.tableFunctionAnalyses.putAll(tableFunctionAnalyses);
+    tableColumnSchemas.forEach(
+        (tableName, columnSchemas) ->
+            copy.tableColumnSchemas.put(tableName, new LinkedHashMap<>(columnSchemas)));
+    copy.windowDefinitions.putAll(windowDefinitions);
+    copy.windows.putAll(windows);
+    copy.windowFunctions.putAll(windowFunctions);
+    copy.orderByWindowFunctions.putAll(orderByWindowFunctions);
+    copy.insert = insert;
+    copy.schemaPartition = schemaPartition;
+    copy.respDatasetHeader =
+        respDatasetHeader == null
+            ? null
+            : new DatasetHeader(
+                respDatasetHeader.getColumnHeaders(), respDatasetHeader.isIgnoreTimestamp());
+    copy.hasValueFilter = hasValueFilter;
+    copy.hasSortNode = hasSortNode;
+    copy.isQuery = isQuery;
+    copy.sqlParser = sqlParser;
+    // the new values are typed and coerced the same as the analyzed values they replace
+    this.parameters.forEach(
+        (parameter, analyzedValue) -> {
+          Expression value = parameters.get(parameter);
+          if (value != null && value != analyzedValue) {
+            copy.rebindParameterValue(analyzedValue, value);
+          }
+        });
+    return copy;
+  }
+
+  private void rebindParameterValue(Expression analyzedValue, Expression value) {
+    NodeRef<Expression> analyzedRef = NodeRef.of(analyzedValue);
+    NodeRef<Expression> ref = NodeRef.of(value);
+    if (types.containsKey(analyzedRef)) {
+      types.put(ref, types.get(analyzedRef));
+    }
+    if (coercions.containsKey(analyzedRef)) {
+      coercions.put(ref, coercions.get(analyzedRef));
+    }
+    if (typeOnlyCoercions.contains(analyzedRef)) {
+      typeOnlyCoercions.add(ref);
+    }
+  }
+
   public void updateNeedSetHighestPriority(QualifiedObjectName tableName) {
     if (needSetHighestPriority) {
       return;
@@ -713,6 +824,10 @@ public class Analysis implements IAnalysis {
         .collect(toImmutableList());
   }
 
+  public Set<QualifiedObjectName> getTableNames() {
+    return tables.values().stream().map(TableEntry::getName).collect(toImmutableSet());
+  }
+
   public void registerTable(Table table, Optional<TableSchema> handle, QualifiedObjectName name) {
     tables.put(NodeRef.of(table), new TableEntry(handle, name));
   }
@@ -63,6 +63,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
@@ -109,6 +110,9 @@ public class TableDeviceSchemaCache {
 
   private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock(false);
 
+  /** Increased whenever the cached tree schema may be invalidated, eviction is not counted. */
+  private final AtomicLong treeSchemaVersion = new AtomicLong(0);
+
   private final IMemoryBlock memoryBlock;
 
   private TableDeviceSchemaCache() {
@@ -562,6 +566,7 @@ public class TableDeviceSchemaCache {
   // WARNING: This is not guaranteed to affect table model's cache
   void invalidateCache(
       final @Nonnull PartialPath devicePath, final boolean isMultiLevelWildcardMeasurement) {
+    treeSchemaVersion.incrementAndGet();
     if (!devicePath.hasWildcard()) {
       final IDeviceID deviceID = devicePath.getIDeviceID();
       dualKeyCache.invalidate(new TableId(null, deviceID.getTableName()), deviceID);
@@ -653,6 +658,7 @@ public class TableDeviceSchemaCache {
   public void invalidate(final @Nonnull String database) {
     readWriteLock.writeLock().lock();
     try {
+      treeSchemaVersion.incrementAndGet();
       if (PathUtils.isTableModelDatabase(database)) {
         dualKeyCache.invalidate(tableId -> tableId.belongTo(database), deviceID -> true);
       } else {
@@ -776,6 +782,7 @@ public class TableDeviceSchemaCache {
   public void invalidateTreeSchema() {
     readWriteLock.writeLock().lock();
     try {
+      treeSchemaVersion.incrementAndGet();
       dualKeyCache.update(
           tableId -> true, deviceID -> true, entry -> -entry.invalidateTreeSchema());
     } finally {
@@ -783,9 +790,14 @@ public class TableDeviceSchemaCache {
     }
   }
 
+  public long getTreeSchemaVersion() {
+    return treeSchemaVersion.get();
+  }
+
   public void invalidateAll() {
     readWriteLock.writeLock().lock();
     try {
+      treeSchemaVersion.incrementAndGet();
       dualKeyCache.invalidateAll();
     } finally {
       readWriteLock.writeLock().unlock();
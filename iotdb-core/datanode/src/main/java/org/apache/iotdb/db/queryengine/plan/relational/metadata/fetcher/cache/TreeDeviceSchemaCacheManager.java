@@ -433,6 +433,14 @@ public class TreeDeviceSchemaCacheManager {
     tableDeviceSchemaCache.invalidateAll();
   }
 
+  /**
+   * The version of the cached tree schema, which changes whenever any cached schema may be
+   * invalidated by schema modifications.
+   */
+  public long getSchemaVersion() {
+    return tableDeviceSchemaCache.getTreeSchemaVersion();
+  }
+
   private static class WrappedSchemaInfo implements IMeasurementSchemaInfo {
     private final IMeasurementSchema schema;
 
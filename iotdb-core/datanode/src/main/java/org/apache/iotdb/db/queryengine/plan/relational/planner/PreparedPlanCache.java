@@ -0,0 +1,287 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.queryengine.plan.relational.planner;
+
+import org.apache.iotdb.commons.queryengine.plan.relational.analyzer.NodeRef;
+import org.apache.iotdb.commons.queryengine.plan.relational.metadata.QualifiedObjectName;
+import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.ExistsPredicate;
+import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.Expression;
+import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.Limit;
+import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.Literal;
+import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.LongLiteral;
+import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.Offset;
+import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.Parameter;
+import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.Query;
+import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.Statement;
+import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.SubqueryExpression;
+import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.With;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.common.MPPQueryContext;
+import org.apache.iotdb.db.queryengine.plan.analyze.QueryType;
+import org.apache.iotdb.db.queryengine.plan.relational.analyzer.Analysis;
+import org.apache.iotdb.db.queryengine.plan.relational.security.AccessControl;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.DefaultTraversalVisitor;
+import org.apache.iotdb.db.schemaengine.table.DataNodeTableCache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caches the analysis of a prepared statement of the table model, keyed on the shape of the
+ * statement, i.e. the types of its parameters, so that executing the statement again with other
+ * values of the same types skips analysis. The parameters of LIMIT and OFFSET are evaluated
+ * during analysis, so their values are part of the key.
+ *
+ * <p>The logical plan is not cached: the devices, their attributes and the data partitions are
+ * resolved from the parameter values by the predicate pushdown, so each execution plans again with
+ * its own copy of the analysis bound to its values and fetches them again. A cached analysis is
+ * dropped once the table schemas change after it starts analyzing. Statements whose analysis
+ * depends on the data (subqueries and CTEs materialized during planning) are never cached.
+ */
+public class PreparedPlanCache {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private final Cache<Key, CachedAnalysis> cache;
+
+  // ids of the parameters evaluated as row counts of LIMIT and OFFSET during analysis
+  private final Set<Integer> rowCountParameterIds;
+
+  PreparedPlanCache(int maxSize, Statement statement) {
+    this.cache = Caffeine.newBuilder().maximumSize(maxSize).build();
+    this.rowCountParameterIds = new HashSet<>();
+    new RowCountParameterFinder().process(statement, rowCountParameterIds);
+  }
+
+  /**
+   * @return null if the cache is disabled or the analysis of the statement can not be reused
+   */
+  public static PreparedPlanCache create(Statement statement) {
+    if (CONFIG.getPreparedStatementPlanCacheSize() <= 0 || !isCacheable(statement)) {
+      return null;
+    }
+    return new PreparedPlanCache(CONFIG.getPreparedStatementPlanCacheSize(), statement);
+  }
+
+  private static boolean isCacheable(Statement statement) {
+    if (!(statement instanceof Query)) {
+      return false;
+    }
+    AtomicBoolean dataDependent = new AtomicBoolean(false);
+    new DataDependentExpressionFinder().process(statement, dataDependent);
+    return !dataDependent.get();
+  }
+
+  /** Capture the version of the table schemas that an analysis starting now depends on. */
+  public static long captureTableVersion() {
+    return DataNodeTableCache.getInstance().getInstanceVersion();
+  }
+
+  /**
+   * @return null if there is no valid analysis for the shape of the parameters
+   */
+  public CachedAnalysis get(MPPQueryContext context, List<Expression> parameters) {
+    Key key = newKey(context, parameters);
+    if (key == null) {
+      return null;
+    }
+    CachedAnalysis cachedAnalysis = cache.getIfPresent(key);
+    if (cachedAnalysis == null) {
+      return null;
+    }
+    if (cachedAnalysis.tableVersion != captureTableVersion()) {
+      cache.asMap().remove(key, cachedAnalysis);
+      return null;
+    }
+    return cachedAnalysis;
+  }
+
+  /**
+   * Cache the analysis of a successfully analyzed query, before it is modified by planning.
+   *
+   * @param tableVersion the version of the table schemas captured before the query is analyzed
+   */
+  public void put(
+      MPPQueryContext context, List<Expression> parameters, Analysis analysis, long tableVersion) {
+    if (!context.isQuery() || analysis.isFailed() || analysis.isFinishQueryAfterAnalyze()) {
+      return;
+    }
+    Key key = newKey(context, parameters);
+    if (key == null) {
+      return;
+    }
+    cache.put(
+        key,
+        new CachedAnalysis(
+            // the analysis keeps being used by the current execution
+            analysis.copyForExecution(analysis.getParameters()),
+            context.getQueryType(),
+            tableVersion));
+  }
+
+  public void invalidate(MPPQueryContext context, List<Expression> parameters) {
+    Key key = newKey(context, parameters);
+    if (key != null) {
+      cache.invalidate(key);
+    }
+  }
+
+  /**
+   * @return null if the analysis for the parameters can not be reused by other values
+   */
+  private Key newKey(MPPQueryContext context, List<Expression> parameters) {
+    List<Object> parameterShapes = new ArrayList<>(parameters.size());
+    for (int i = 0; i < parameters.size(); i++) {
+      Expression value = parameters.get(i);
+      if (!(value instanceof Literal)) {
+        return null;
+      }
+      if (rowCountParameterIds.contains(i)) {
+        parameterShapes.add(value);
+      } else if (value instanceof LongLiteral) {
+        // the analyzer types an integer literal by its range
+        long parsedValue = ((LongLiteral) value).getParsedValue();
+        parameterShapes.add(parsedValue >= Integer.MIN_VALUE && parsedValue <= Integer.MAX_VALUE);
+      } else {
+        parameterShapes.add(value.getClass());
+      }
+    }
+    return new Key(context, parameterShapes);
+  }
+
+  public static class CachedAnalysis {
+
+    private final Analysis analysis;
+    private final QueryType queryType;
+    private final long tableVersion;
+
+    private CachedAnalysis(Analysis analysis, QueryType queryType, long tableVersion) {
+      this.analysis = analysis;
+      this.queryType = queryType;
+      this.tableVersion = tableVersion;
+    }
+
+    /**
+     * Each execution gets its own copy of the analysis bound to its parameter values, since the
+     * analysis is modified by the planning.
+     */
+    public Analysis copyAnalysis(Map<NodeRef<Parameter>, Expression> parameters) {
+      return analysis.copyForExecution(parameters);
+    }
+
+    /** The privileges may be revoked since the query is analyzed, so they are checked again. */
+    public void checkAccess(MPPQueryContext context, AccessControl accessControl) {
+      for (QualifiedObjectName tableName : analysis.getTableNames()) {
+        accessControl.checkCanSelectFromTable(
+            context.getSession().getUserName(), tableName, context);
+      }
+    }
+
+    /** Restore the state of analysis into the context of a new execution. */
+    public void restore(MPPQueryContext context) {
+      context.setQueryType(queryType);
+    }
+  }
+
+  private static class Key {
+
+    private final String database;
+    private final String user;
+    private final String zoneId;
+    private final List<Object> parameterShapes;
+
+    private Key(MPPQueryContext context, List<Object> parameterShapes) {
+      this.database = context.getSession().getDatabaseName().orElse(null);
+      this.user = context.getSession().getUserName();
+      this.zoneId = context.getZoneId().getId();
+      this.parameterShapes = parameterShapes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return Objects.equals(database, key.database)
+          && Objects.equals(user, key.user)
+          && zoneId.equals(key.zoneId)
+          && parameterShapes.equals(key.parameterShapes);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(database, user, zoneId, parameterShapes);
+    }
+  }
+
+  /** Finds the expressions which are evaluated against the data when the query is planned. */
+  private static class DataDependentExpressionFinder
+      extends DefaultTraversalVisitor<AtomicBoolean> {
+
+    @Override
+    public Void visitSubqueryExpression(SubqueryExpression node, AtomicBoolean dataDependent) {
+      dataDependent.set(true);
+      return null;
+    }
+
+    @Override
+    public Void visitExists(ExistsPredicate node, AtomicBoolean dataDependent) {
+      dataDependent.set(true);
+      return null;
+    }
+
+    @Override
+    public Void visitWith(With node, AtomicBoolean dataDependent) {
+      dataDependent.set(true);
+      return null;
+    }
+  }
+
+  private static class RowCountParameterFinder extends DefaultTraversalVisitor<Set<Integer>> {
+
+    @Override
+    public Void visitLimit(Limit node, Set<Integer> rowCountParameterIds) {
+      if (node.getRowCount() instanceof Parameter) {
+        rowCountParameterIds.add(((Parameter) node.getRowCount()).getId());
+      }
+      return super.visitLimit(node, rowCountParameterIds);
+    }
+
+    @Override
+    public Void visitOffset(Offset node, Set<Integer> rowCountParameterIds) {
+      if (node.getRowCount() instanceof Parameter) {
+        rowCountParameterIds.add(((Parameter) node.getRowCount()).getId());
+      }
+      return super.visitOffset(node, rowCountParameterIds);
+    }
+  }
+}
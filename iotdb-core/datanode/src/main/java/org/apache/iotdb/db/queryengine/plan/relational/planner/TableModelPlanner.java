@@ -96,6 +96,10 @@ public class TableModelPlanner implements IPlanner {
   private final Map<NodeRef<Parameter>, Expression> parameterLookup;
   private final TypeManager typeManager;
 
+  // Cached analyses of the executed prepared statement, null if not executing a cacheable one
+  private final PreparedPlanCache planCache;
+  private boolean analyzed = false;
+
   public TableModelPlanner(
       final Statement statement,
       final SqlParser sqlParser,
@@ -112,7 +116,8 @@ public class TableModelPlanner implements IPlanner {
       final DataNodeLocationSupplierFactory.DataNodeLocationSupplier dataNodeLocationSupplier,
       final List<Expression> parameters,
       final Map<NodeRef<Parameter>, Expression> parameterLookup,
-      final TypeManager typeManager) {
+      final TypeManager typeManager,
+      final PreparedPlanCache planCache) {
     this.statement = statement;
     this.sqlParser = sqlParser;
     this.metadata = metadata;
@@ -127,19 +132,42 @@ public class TableModelPlanner implements IPlanner {
     this.parameters = parameters;
     this.parameterLookup = parameterLookup;
     this.typeManager = typeManager;
+    this.planCache = planCache;
   }
 
   @Override
   public IAnalysis analyze(final MPPQueryContext context) {
-    return new Analyzer(
-            context,
-            context.getSession(),
-            new StatementAnalyzerFactory(metadata, sqlParser, accessControl, typeManager),
-            parameters,
-            parameterLookup,
-            statementRewrite,
-            warningCollector)
-        .analyze(statement);
+    long tableVersion = 0;
+    if (planCache != null) {
+      PreparedPlanCache.CachedAnalysis cachedAnalysis = null;
+      if (analyzed) {
+        // the cached analysis may be the cause of the retry
+        planCache.invalidate(context, parameters);
+      } else {
+        cachedAnalysis = planCache.get(context, parameters);
+      }
+      analyzed = true;
+      if (cachedAnalysis != null) {
+        cachedAnalysis.checkAccess(context, accessControl);
+        cachedAnalysis.restore(context);
+        return cachedAnalysis.copyAnalysis(parameterLookup);
+      }
+      tableVersion = PreparedPlanCache.captureTableVersion();
+    }
+    final Analysis analysis =
+        new Analyzer(
+                context,
+                context.getSession(),
+                new StatementAnalyzerFactory(metadata, sqlParser, accessControl, typeManager),
+                parameters,
+                parameterLookup,
+                statementRewrite,
+                warningCollector)
+            .analyze(statement);
+    if (planCache != null) {
+      planCache.put(context, parameters, analysis, tableVersion);
+    }
+    return analysis;
   }
 
   @Override
@@ -322,6 +322,7 @@ import static java.util.stream.Collectors.toList;
 import static org.apache.iotdb.calc.utils.constant.SqlConstant.APPROX_COUNT_DISTINCT;
 import static org.apache.iotdb.calc.utils.constant.SqlConstant.APPROX_MOST_FREQUENT;
 import static org.apache.iotdb.calc.utils.constant.SqlConstant.APPROX_PERCENTILE;
+import static org.apache.iotdb.calc.utils.constant.SqlConstant.NOW_FUNC;
 import static org.apache.iotdb.calc.utils.constant.SqlConstant.PERCENTILE;
 import static org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.AnchorPattern.Type.PARTITION_END;
 import static org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.AnchorPattern.Type.PARTITION_START;
@@ -359,6 +360,9 @@ public class AstBuilder extends RelationalSqlBaseVisitor<Node> {
 
   private int parameterPosition;
 
+  // whether now() has been evaluated into a literal
+  private boolean useCurrentTime = false;
+
   @Nullable private final NodeLocation baseLocation;
 
   private final ZoneId zoneId;
@@ -2367,14 +2371,17 @@ public class AstBuilder extends RelationalSqlBaseVisitor<Node> {
   public Node visitQuery(RelationalSqlParser.QueryContext ctx) {
     Query body = (Query) visit(ctx.queryNoWith());
 
-    return new Query(
-        getLocation(ctx),
-        visitIfPresent(ctx.with(), With.class),
-        body.getQueryBody(),
-        body.getFill(),
-        body.getOrderBy(),
-        body.getOffset(),
-        body.getLimit());
+    Query query =
+        new Query(
+            getLocation(ctx),
+            visitIfPresent(ctx.with(), With.class),
+            body.getQueryBody(),
+            body.getFill(),
+            body.getOrderBy(),
+            body.getOffset(),
+            body.getLimit());
+    query.setUseCurrentTime(useCurrentTime);
+    return query;
   }
 
   @Override
@@ -3535,7 +3542,7 @@ public class AstBuilder extends RelationalSqlBaseVisitor<Node> {
   private Long parseDateExpression(
       RelationalSqlParser.DateExpressionContext ctx, long currentTime) {
     long time;
-    time = parseDateTimeFormat(ctx.getChild(0).getText(), currentTime, zoneId);
+    time = parseDateTime(ctx.getChild(0).getText(), currentTime);
     for (int i = 1; i < ctx.getChildCount(); i = i + 2) {
       if ("+".equals(ctx.getChild(i).getText())) {
         time +=
@@ -4034,8 +4041,15 @@ public class AstBuilder extends RelationalSqlBaseVisitor<Node> {
     return new LongLiteral(
         getLocation(ctx),
         String.valueOf(
-            parseDateTimeFormat(
-                ctx.getChild(0).getText(), CommonDateTimeUtils.currentTime(), zoneId)));
+            parseDateTime(ctx.getChild(0).getText(), CommonDateTimeUtils.currentTime())));
+  }
+
+  /** Parses a datetime literal or now(), which marks the statement as depending on the time. */
+  private long parseDateTime(String timestampStr, long currentTime) {
+    if (NOW_FUNC.equalsIgnoreCase(timestampStr)) {
+      useCurrentTime = true;
+    }
+    return parseDateTimeFormat(timestampStr, currentTime, zoneId);
   }
 
   @Override
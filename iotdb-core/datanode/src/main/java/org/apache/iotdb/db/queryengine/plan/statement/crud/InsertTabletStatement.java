@@ -37,6 +37,7 @@ import org.apache.iotdb.db.pipe.resource.memory.InsertNodeMemoryEstimator;
 import org.apache.iotdb.db.queryengine.common.MPPQueryContext;
 import org.apache.iotdb.db.queryengine.common.schematree.IMeasurementSchemaInfo;
 import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.DataNodeDevicePathCache;
+import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.InsertTabletShapeCache;
 import org.apache.iotdb.db.queryengine.plan.analyze.schema.ISchemaValidation;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertTabletNode;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.RelationalInsertTabletNode;
@@ -106,6 +107,9 @@ public class InsertTabletStatement extends InsertBaseStatement implements ISchem
    */
   protected boolean[] measurementIsAligned;
 
+  /** The shapes of the session sending this tablet, null if not remembered. */
+  private InsertTabletShapeCache shapeCache;
+
   public InsertTabletStatement() {
     super();
     statementType = StatementType.BATCH_INSERT;
@@ -213,6 +217,14 @@ public class InsertTabletStatement extends InsertBaseStatement implements ISchem
     return rowCount;
   }
 
+  public InsertTabletShapeCache getShapeCache() {
+    return shapeCache;
+  }
+
+  public void setShapeCache(InsertTabletShapeCache shapeCache) {
+    this.shapeCache = shapeCache;
+  }
+
   public void setRowCount(int rowCount) {
     this.rowCount = rowCount;
   }
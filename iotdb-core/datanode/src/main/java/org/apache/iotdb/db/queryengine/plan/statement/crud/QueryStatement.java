@@ -127,6 +127,10 @@ public class QueryStatement extends AuthorityInformationStatement {
   // can use statistics to skip
   private boolean lastLevelUseWildcard = false;
 
+  // whether now() was evaluated into a constant while parsing, the result then depends on the
+  // time the query is issued
+  private boolean useCurrentTime = false;
+
   // used in limit/offset push down optimizer, if the result set is empty after pushing down in
   // ASTVisitor,
   // we can skip the query
@@ -574,6 +578,14 @@ public class QueryStatement extends AuthorityInformationStatement {
     this.lastLevelUseWildcard = lastLevelUseWildcard;
   }
 
+  public boolean isUseCurrentTime() {
+    return useCurrentTime;
+  }
+
+  public void setUseCurrentTime(boolean useCurrentTime) {
+    this.useCurrentTime = useCurrentTime;
+  }
+
   public static final String RAW_AGGREGATION_HYBRID_QUERY_ERROR_MSG =
       "Raw data and aggregation hybrid query is not supported.";
 
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.trace;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The spans of a sampled query on its coordinator. All the stages are children of the root span,
+ * whose id is also sent to the fragment instances as their parent span id.
+ */
+public class QueryTrace {
+
+  public static final String QUERY = "query";
+  public static final String ANALYZE = "analyze";
+  public static final String LOGICAL_PLAN = "logical_plan";
+  public static final String DISTRIBUTION_PLAN = "distribution_plan";
+  public static final String SCHEDULE = "schedule";
+  public static final String FRAGMENT_INSTANCE = "fragment_instance";
+
+  private final QueryTraceSpan rootSpan;
+  private final List<QueryTraceSpan> childSpans = new ArrayList<>();
+
+  private final AtomicLong waitForResultTimeInNs = new AtomicLong();
+  private final AtomicBoolean finished = new AtomicBoolean(false);
+
+  public QueryTrace(String queryId) {
+    this.rootSpan = new QueryTraceSpan(queryId, QueryTraceSpan.NO_PARENT_SPAN_ID, QUERY);
+  }
+
+  public QueryTraceSpan getRootSpan() {
+    return rootSpan;
+  }
+
+  public long getRootSpanId() {
+    return rootSpan.getSpanId();
+  }
+
+  public synchronized QueryTraceSpan startSpan(String name) {
+    QueryTraceSpan span = new QueryTraceSpan(rootSpan.getQueryId(), rootSpan.getSpanId(), name);
+    childSpans.add(span);
+    return span;
+  }
+
+  /** The time that the client RPC waits for the result of the root fragment instance. */
+  public void addWaitForResultTime(long timeInNs) {
+    waitForResultTimeInNs.addAndGet(timeInNs);
+  }
+
+  /**
+   * End the query and hand over all its spans to {@link QueryTracer}, only the first invocation
+   * takes effect.
+   *
+   * @param record false to drop the spans, e.g. for the non-query statements
+   */
+  public void finish(boolean record) {
+    if (!finished.compareAndSet(false, true)) {
+      return;
+    }
+    rootSpan.setAttribute("wait_for_result_ns", waitForResultTimeInNs.get());
+    rootSpan.end();
+    if (!record) {
+      return;
+    }
+    List<QueryTraceSpan> spans;
+    synchronized (this) {
+      spans = new ArrayList<>(childSpans.size() + 1);
+      spans.add(rootSpan);
+      for (QueryTraceSpan span : childSpans) {
+        // the stage is interrupted by an exception
+        span.end();
+        spans.add(span);
+      }
+    }
+    QueryTracer.getInstance().record(spans);
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.trace;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.db.i18n.DataNodeQueryMessages;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Appends the finished spans to a local file in the OTLP/JSON format, one ExportTraceServiceRequest
+ * per line, which is the format read by the file receiver of OpenTelemetry Collector. The file is
+ * rotated once when it exceeds {@link #MAX_FILE_SIZE_IN_BYTES}.
+ */
+class QueryTraceExporter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(QueryTraceExporter.class);
+
+  private static final long MAX_FILE_SIZE_IN_BYTES = 256 * 1024 * 1024L;
+
+  private static final int MAX_PENDING_SPAN_NUM = 100_000;
+
+  private static final String SERVICE_NAME = "iotdb-datanode";
+  private static final String SCOPE_NAME = "org.apache.iotdb.query";
+  private static final int SPAN_KIND_INTERNAL = 1;
+
+  private static final Gson GSON = new Gson();
+
+  private final File file;
+  private final File rotatedFile;
+
+  private final ExecutorService exportExecutor;
+
+  private final AtomicInteger pendingSpanNum = new AtomicInteger();
+
+  QueryTraceExporter(String exportDir) {
+    String fileName = "query-trace-" + QueryId.getDataNodeId() + ".json";
+    this.file = new File(exportDir, fileName);
+    this.rotatedFile = new File(exportDir, fileName + ".1");
+    this.exportExecutor =
+        IoTDBThreadPoolFactory.newSingleThreadExecutor(ThreadName.QUERY_TRACE_EXPORT.getName());
+  }
+
+  void export(Collection<QueryTraceSpan> spans) {
+    int spanNum = spans.size();
+    if (pendingSpanNum.addAndGet(spanNum) > MAX_PENDING_SPAN_NUM) {
+      pendingSpanNum.addAndGet(-spanNum);
+      LOGGER.warn(DataNodeQueryMessages.QUERY_TRACE_SPANS_DROPPED, spanNum);
+      return;
+    }
+    List<QueryTraceSpan> copiedSpans = new ArrayList<>(spans);
+    try {
+      exportExecutor.submit(
+          () -> {
+            try {
+              write(toOtlpJson(copiedSpans));
+            } finally {
+              pendingSpanNum.addAndGet(-spanNum);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      pendingSpanNum.addAndGet(-spanNum);
+    }
+  }
+
+  private void write(String line) {
+    try {
+      if (!file.exists()) {
+        Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+      } else if (file.length() > MAX_FILE_SIZE_IN_BYTES) {
+        Files.move(file.toPath(), rotatedFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+      try (BufferedWriter writer =
+          Files.newBufferedWriter(
+              file.toPath(),
+              StandardCharsets.UTF_8,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.APPEND)) {
+        writer.write(line);
+        writer.newLine();
+      }
+    } catch (IOException e) {
+      LOGGER.warn(DataNodeQueryMessages.FAILED_TO_EXPORT_QUERY_TRACE_SPANS, file, e);
+    }
+  }
+
+  static String toOtlpJson(Collection<QueryTraceSpan> spans) {
+    JsonArray spanArray = new JsonArray();
+    for (QueryTraceSpan span : spans) {
+      spanArray.add(toOtlpSpan(span));
+    }
+    JsonObject scope = new JsonObject();
+    scope.addProperty("name", SCOPE_NAME);
+    JsonObject scopeSpans = new JsonObject();
+    scopeSpans.add("scope", scope);
+    scopeSpans.add("spans", spanArray);
+    JsonArray scopeSpansArray = new JsonArray();
+    scopeSpansArray.add(scopeSpans);
+
+    JsonArray resourceAttributes = new JsonArray();
+    resourceAttributes.add(toOtlpAttribute("service.name", SERVICE_NAME));
+    resourceAttributes.add(toOtlpAttribute("iotdb.datanode_id", QueryId.getDataNodeId()));
+    JsonObject resource = new JsonObject();
+    resource.add("attributes", resourceAttributes);
+
+    JsonObject resourceSpans = new JsonObject();
+    resourceSpans.add("resource", resource);
+    resourceSpans.add("scopeSpans", scopeSpansArray);
+    JsonArray resourceSpansArray = new JsonArray();
+    resourceSpansArray.add(resourceSpans);
+    JsonObject request = new JsonObject();
+    request.add("resourceSpans", resourceSpansArray);
+    return GSON.toJson(request);
+  }
+
+  private static JsonObject toOtlpSpan(QueryTraceSpan span) {
+    JsonObject result = new JsonObject();
+    result.addProperty("traceId", toTraceId(span.getQueryId()));
+    result.addProperty("spanId", QueryTraceSpan.toHexSpanId(span.getSpanId()));
+    if (span.getParentSpanId() != QueryTraceSpan.NO_PARENT_SPAN_ID) {
+      result.addProperty("parentSpanId", QueryTraceSpan.toHexSpanId(span.getParentSpanId()));
+    }
+    result.addProperty("name", span.getName());
+    result.addProperty("kind", SPAN_KIND_INTERNAL);
+    // 64-bit integers are encoded as strings in OTLP/JSON
+    result.addProperty("startTimeUnixNano", String.valueOf(span.getStartTimeInNs()));
+    result.addProperty("endTimeUnixNano", String.valueOf(span.getEndTimeInNs()));
+    JsonArray attributes = new JsonArray();
+    attributes.add(toOtlpAttribute("iotdb.query_id", span.getQueryId()));
+    for (Map.Entry<String, Object> entry : span.getAttributes().entrySet()) {
+      attributes.add(toOtlpAttribute(entry.getKey(), entry.getValue()));
+    }
+    result.add("attributes", attributes);
+    return result;
+  }
+
+  private static JsonObject toOtlpAttribute(String key, Object value) {
+    JsonObject anyValue = new JsonObject();
+    if (value instanceof Boolean) {
+      anyValue.addProperty("boolValue", (Boolean) value);
+    } else if (value instanceof Float || value instanceof Double) {
+      anyValue.addProperty("doubleValue", (Number) value);
+    } else if (value instanceof Number) {
+      anyValue.addProperty("intValue", String.valueOf(((Number) value).longValue()));
+    } else {
+      anyValue.addProperty("stringValue", String.valueOf(value));
+    }
+    JsonObject attribute = new JsonObject();
+    attribute.addProperty("key", key);
+    attribute.add("value", anyValue);
+    return attribute;
+  }
+
+  /** OpenTelemetry requires a 16-byte trace id, so it is derived from the query id. */
+  static String toTraceId(String queryId) {
+    UUID uuid = UUID.nameUUIDFromBytes(queryId.getBytes(StandardCharsets.UTF_8));
+    return String.format(
+        "%016x%016x", uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.trace;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A timed stage of a traced query, e.g. the planning on the coordinator or the execution of a
+ * fragment instance on a DataNode. The spans of one query share the query id as their trace id.
+ */
+public class QueryTraceSpan {
+
+  public static final long NO_PARENT_SPAN_ID = 0;
+
+  private final String queryId;
+  private final long spanId;
+  private final long parentSpanId;
+  private final String name;
+
+  /** Wall clock start time in nanoseconds since epoch. */
+  private final long startTimeInNs;
+
+  /** Used to measure the duration with a monotonic clock. */
+  private final long startNanoTime;
+
+  private volatile long endTimeInNs = -1;
+
+  private final Map<String, Object> attributes = new LinkedHashMap<>();
+
+  public QueryTraceSpan(String queryId, long parentSpanId, String name) {
+    this.queryId = queryId;
+    this.spanId = nextSpanId();
+    this.parentSpanId = parentSpanId;
+    this.name = name;
+    this.startTimeInNs = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+    this.startNanoTime = System.nanoTime();
+  }
+
+  private static long nextSpanId() {
+    long spanId;
+    do {
+      spanId = ThreadLocalRandom.current().nextLong();
+    } while (spanId == NO_PARENT_SPAN_ID);
+    return spanId;
+  }
+
+  /** The value should be a String, a Number or a Boolean. */
+  public synchronized void setAttribute(String key, Object value) {
+    if (value != null) {
+      attributes.put(key, value);
+    }
+  }
+
+  public void end() {
+    if (endTimeInNs < 0) {
+      endTimeInNs = startTimeInNs + (System.nanoTime() - startNanoTime);
+    }
+  }
+
+  public boolean isEnded() {
+    return endTimeInNs >= 0;
+  }
+
+  public String getQueryId() {
+    return queryId;
+  }
+
+  public long getSpanId() {
+    return spanId;
+  }
+
+  public long getParentSpanId() {
+    return parentSpanId;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getStartTimeInNs() {
+    return startTimeInNs;
+  }
+
+  public long getEndTimeInNs() {
+    return endTimeInNs;
+  }
+
+  public long getDurationInNs() {
+    return isEnded() ? endTimeInNs - startTimeInNs : System.nanoTime() - startNanoTime;
+  }
+
+  public synchronized Map<String, Object> getAttributes() {
+    return Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+  }
+
+  public static String toHexSpanId(long spanId) {
+    return String.format("%016x", spanId);
+  }
+}
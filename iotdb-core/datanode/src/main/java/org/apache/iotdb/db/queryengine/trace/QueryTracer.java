@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.trace;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Entry of query tracing on each DataNode. It decides whether a query is sampled, retains the
+ * latest finished spans for {@code information_schema.query_traces} and forwards them to the
+ * exporter if configured.
+ */
+public class QueryTracer {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private final int maxRetainedSpanNum;
+
+  private final ArrayDeque<QueryTraceSpan> retainedSpans;
+
+  private final QueryTraceExporter exporter;
+
+  private QueryTracer() {
+    this.maxRetainedSpanNum = Math.max(0, CONFIG.getQueryTraceRetainedSpanNum());
+    this.retainedSpans = new ArrayDeque<>(Math.min(maxRetainedSpanNum, 1024));
+    String exportDir = CONFIG.getQueryTraceExportDir();
+    this.exporter = exportDir.isEmpty() ? null : new QueryTraceExporter(exportDir);
+  }
+
+  public static QueryTracer getInstance() {
+    return QueryTracerHolder.INSTANCE;
+  }
+
+  /** Decide whether a new query should be traced, it is only a volatile read when disabled. */
+  public static boolean sample() {
+    double ratio = CONFIG.getQueryTraceSampleRatio();
+    return ratio > 0 && (ratio >= 1 || ThreadLocalRandom.current().nextDouble() < ratio);
+  }
+
+  public void record(QueryTraceSpan span) {
+    record(Collections.singletonList(span));
+  }
+
+  public void record(Collection<QueryTraceSpan> spans) {
+    if (maxRetainedSpanNum > 0) {
+      synchronized (retainedSpans) {
+        for (QueryTraceSpan span : spans) {
+          if (retainedSpans.size() == maxRetainedSpanNum) {
+            retainedSpans.pollFirst();
+          }
+          retainedSpans.addLast(span);
+        }
+      }
+    }
+    if (exporter != null) {
+      exporter.export(spans);
+    }
+  }
+
+  public List<QueryTraceSpan> getRetainedSpans() {
+    synchronized (retainedSpans) {
+      return new ArrayList<>(retainedSpans);
+    }
+  }
+
+  @TestOnly
+  public void clear() {
+    synchronized (retainedSpans) {
+      retainedSpans.clear();
+    }
+  }
+
+  private static class QueryTracerHolder {
+    private static final QueryTracer INSTANCE = new QueryTracer();
+  }
+}
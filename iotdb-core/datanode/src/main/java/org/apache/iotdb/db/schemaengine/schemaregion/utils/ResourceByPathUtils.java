@@ -117,7 +117,8 @@ public abstract class ResourceByPathUtils {
    * Prepare the TVList references for the query. We remember TVLists' row count here and determine
    * whether the TVLists needs sorting later during operator execution based on it. It need not
    * protect sorted list. Sorted list is changed in the handover process of inserting, which holds
-   * the data region write lock. At this moment, query thread holds the data region read lock.
+   * the data region write lock. At this moment, query thread holds the data region read lock. The
+   * queries sealing the working TVList replace the sorted list instead of modifying it.
    *
    * @param context query context
    * @param memChunk writable memchunk
@@ -136,6 +137,15 @@ public abstract class ResourceByPathUtils {
       copyTimeFilter = globalTimeFilter.copy();
     }
 
+    if (isWorkMemTable
+        && IoTDBDescriptor.getInstance().getConfig().isEnableMemTableSnapshotRead()) {
+      // The unsorted working TVList is sealed as an immutable segment and sorted once in
+      // background, instead of being cloned or sorted in place while the writers append to it.
+      // The writers seal a sorted working TVList being read before making it unsorted. A working
+      // TVList below the seal threshold is left to the clone path below.
+      memChunk.sealUnsortedWorkingTVList();
+    }
+
     Map<TVList, Integer> tvListQueryMap = new LinkedHashMap<>();
     // immutable sorted lists
     for (TVList tvList : memChunk.getSortedList()) {
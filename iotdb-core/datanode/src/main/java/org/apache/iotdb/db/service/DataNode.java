@@ -79,6 +79,7 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.conf.IoTDBStartCheck;
 import org.apache.iotdb.db.consensus.DataRegionConsensusImpl;
 import org.apache.iotdb.db.consensus.SchemaRegionConsensusImpl;
+import org.apache.iotdb.db.cq.IncrementalContinuousQueryManager;
 import org.apache.iotdb.db.i18n.DataNodeMiscMessages;
 import org.apache.iotdb.db.i18n.DataNodeSchemaMessages;
 import org.apache.iotdb.db.pipe.agent.PipeDataNodeAgent;
@@ -946,6 +947,9 @@ public class DataNode extends ServerCommandLine implements DataNodeMBean {
 
     // Start GRASS Service
     registerManager.register(GeneralRegionAttributeSecurityService.getInstance());
+
+    // Maintain the eligible continuous queries incrementally
+    registerManager.register(IncrementalContinuousQueryManager.getInstance());
   }
 
   /** Set up RPC and protocols after DataNode is available */
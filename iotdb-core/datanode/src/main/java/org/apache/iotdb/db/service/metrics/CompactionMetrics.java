@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.service.metrics;
 
+import org.apache.iotdb.commons.service.metric.MetricService;
 import org.apache.iotdb.commons.service.metric.enums.Metric;
 import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.CompactionTaskStatus;
@@ -47,6 +48,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToDoubleFunction;
 
 public class CompactionMetrics implements IMetricSet {
   private static final String NOT_ALIGNED = "not_aligned";
@@ -246,6 +248,38 @@ public class CompactionMetrics implements IMetricSet {
     deserializeResourceCounter.inc(byteNum);
   }
 
+  public Counter createDiskReadCounter(String dataDir) {
+    return MetricService.getInstance()
+        .getOrCreateCounter(
+            Metric.DATA_READ.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.TYPE.toString(),
+            "disk",
+            Tag.NAME.toString(),
+            dataDir);
+  }
+
+  public Counter createDiskBackoffTimeCounter(String dataDir) {
+    return MetricService.getInstance()
+        .getOrCreateCounter(
+            Metric.COMPACTION_DISK_BACKOFF_TIME.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            dataDir);
+  }
+
+  public <T> void createDiskReadLatencyGauge(
+      String dataDir, T obj, ToDoubleFunction<T> readLatencyFunction) {
+    MetricService.getInstance()
+        .createAutoGauge(
+            Metric.COMPACTION_DISK_READ_LATENCY.toString(),
+            MetricLevel.IMPORTANT,
+            obj,
+            readLatencyFunction,
+            Tag.NAME.toString(),
+            dataDir);
+  }
+
   // endregion
 
   // region compaction summary info
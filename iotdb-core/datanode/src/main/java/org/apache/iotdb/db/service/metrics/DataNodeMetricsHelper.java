@@ -41,6 +41,7 @@ import org.apache.iotdb.db.queryengine.metric.QueryRelatedResourceMetricSet;
 import org.apache.iotdb.db.queryengine.metric.QueryResourceMetricSet;
 import org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet;
 import org.apache.iotdb.db.service.metrics.memory.GlobalMemoryMetrics;
+import org.apache.iotdb.db.storageengine.dataregion.migration.TierMigrationMetrics;
 import org.apache.iotdb.db.storageengine.load.metrics.ActiveLoadingFilesNumberMetricsSet;
 import org.apache.iotdb.db.storageengine.load.metrics.ActiveLoadingFilesSizeMetricsSet;
 import org.apache.iotdb.db.storageengine.load.metrics.LoadTsFileCostMetricsSet;
@@ -67,6 +68,7 @@ public class DataNodeMetricsHelper {
     metricService.addMetricSet(new LogbackMetrics());
     metricService.addMetricSet(FileMetrics.getInstance());
     metricService.addMetricSet(CompactionMetrics.getInstance());
+    metricService.addMetricSet(TierMigrationMetrics.getInstance());
     metricService.addMetricSet(new ProcessMetrics());
     metricService.addMetricSet(new DiskMetrics(IoTDBConstant.DN_ROLE));
     metricService.addMetricSet(new NetMetrics(IoTDBConstant.DN_ROLE));
@@ -449,6 +449,7 @@ public class WritingMetrics implements IMetricSet {
   public static final String WAL_FLUSH_MEMTABLE_COUNT = "wal_flush_memtable_count";
   public static final String MANUAL_FLUSH_MEMTABLE_COUNT = "manual_flush_memtable_count";
   public static final String MEM_CONTROL_FLUSH_MEMTABLE_COUNT = "mem_control_flush_memtable_count";
+  public static final String COALESCED_FLUSH_MEMTABLE_COUNT = "coalesced_flush_memtable_count";
   public static final String BLOCKED_OPERATION_NUM = "blocked_operation_num";
 
   private Gauge flushThreholdGauge = DoNothingMetricManager.DO_NOTHING_GAUGE;
@@ -460,6 +461,7 @@ public class WritingMetrics implements IMetricSet {
   private Counter timedFlushMemtableCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
   private Counter manualFlushMemtableCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
   private Counter memControlFlushMemtableCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+  private Counter coalescedFlushMemtableCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
 
   private Histogram avgPointHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
 
@@ -477,6 +479,7 @@ public class WritingMetrics implements IMetricSet {
     timedFlushMemtableCounter = createTimedFlushMemTableCounterMetrics();
     manualFlushMemtableCounter = createManualFlushMemTableCounterMetrics();
     memControlFlushMemtableCounter = createMemControlFlushMemTableCounterMetrics();
+    coalescedFlushMemtableCounter = createCoalescedFlushMemTableCounterMetrics();
 
     flushThreholdGauge =
         MetricService.getInstance()
@@ -521,6 +524,7 @@ public class WritingMetrics implements IMetricSet {
     removeWalFlushMemTableCounterMetrics();
     removeManualFlushMemTableCounterMetrics();
     removeMemControlFlushMemTableCounterMetrics();
+    removeCoalescedFlushMemTableCounterMetrics();
     MetricService.getInstance()
         .remove(
             MetricType.GAUGE,
@@ -663,6 +667,15 @@ public class WritingMetrics implements IMetricSet {
             MEM_CONTROL_FLUSH_MEMTABLE_COUNT);
   }
 
+  public Counter createCoalescedFlushMemTableCounterMetrics() {
+    return MetricService.getInstance()
+        .getOrCreateCounter(
+            Metric.FLUSH_MEMTABLE_COUNT.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.TYPE.toString(),
+            COALESCED_FLUSH_MEMTABLE_COUNT);
+  }
+
   public void createActiveMemtableCounterMetrics(DataRegionId dataRegionId) {
     MetricService.getInstance()
         .getOrCreateCounter(
@@ -713,6 +726,15 @@ public class WritingMetrics implements IMetricSet {
             MEM_CONTROL_FLUSH_MEMTABLE_COUNT);
   }
 
+  public void removeCoalescedFlushMemTableCounterMetrics() {
+    MetricService.getInstance()
+        .remove(
+            MetricType.COUNTER,
+            Metric.FLUSH_MEMTABLE_COUNT.toString(),
+            Tag.TYPE.toString(),
+            COALESCED_FLUSH_MEMTABLE_COUNT);
+  }
+
   public void removeActiveMemtableCounterMetrics(DataRegionId dataRegionId) {
     MetricService.getInstance()
         .remove(
@@ -1007,6 +1029,10 @@ public class WritingMetrics implements IMetricSet {
     memControlFlushMemtableCounter.inc(number);
   }
 
+  public void recordCoalescedFlushMemTableCount(int number) {
+    coalescedFlushMemtableCounter.inc(number);
+  }
+
   public void recordActiveMemTableCount(String dataRegionId, int number) {
     MetricService.getInstance()
         .count(
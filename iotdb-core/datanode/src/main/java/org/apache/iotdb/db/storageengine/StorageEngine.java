@@ -38,6 +38,7 @@ import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.exception.ShutdownException;
 import org.apache.iotdb.commons.exception.StartupException;
 import org.apache.iotdb.commons.file.SystemFileFactory;
+import org.apache.iotdb.commons.pipe.receiver.PipeReceiverResumableFileManager;
 import org.apache.iotdb.commons.schema.ttl.TTLCache;
 import org.apache.iotdb.commons.service.IService;
 import org.apache.iotdb.commons.service.ServiceType;
@@ -70,11 +71,13 @@ import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.repair.RepairLogger;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.repair.UnsortedFileRepairTaskScheduler;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleTaskManager;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils.PartitionQueryStatistics;
 import org.apache.iotdb.db.storageengine.dataregion.flush.CloseFileListener;
 import org.apache.iotdb.db.storageengine.dataregion.flush.CompressionRatio;
 import org.apache.iotdb.db.storageengine.dataregion.flush.FlushListener;
 import org.apache.iotdb.db.storageengine.dataregion.flush.TsFileFlushPolicy;
 import org.apache.iotdb.db.storageengine.dataregion.flush.TsFileFlushPolicy.DirectFlushPolicy;
+import org.apache.iotdb.db.storageengine.dataregion.migration.TierMigrationManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.WALManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.exception.WALException;
 import org.apache.iotdb.db.storageengine.dataregion.wal.recover.WALRecoverManager;
@@ -158,6 +161,7 @@ public class StorageEngine implements IService {
 
   private ScheduledExecutorService seqMemtableTimedFlushCheckThread;
   private ScheduledExecutorService unseqMemtableTimedFlushCheckThread;
+  private ScheduledExecutorService tierMigrationCheckThread;
 
   private final TsFileFlushPolicy fileFlushPolicy = new DirectFlushPolicy();
 
@@ -373,6 +377,19 @@ public class StorageEngine implements IService {
           TimeUnit.MILLISECONDS);
       LOGGER.info(StorageEngineMessages.UNSEQ_MEMTABLE_FLUSH_CHECK_THREAD_STARTED);
     }
+    // migrate TsFiles across storage tiers
+    if (TierMigrationManager.getInstance().isEnabled()) {
+      tierMigrationCheckThread =
+          IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+              ThreadName.TIER_MIGRATION.getName());
+      ScheduledExecutorUtil.safelyScheduleWithFixedDelay(
+          tierMigrationCheckThread,
+          this::migrateTsFilesAcrossTiers,
+          CONFIG.getTierMigrationCheckIntervalInMs(),
+          CONFIG.getTierMigrationCheckIntervalInMs(),
+          TimeUnit.MILLISECONDS);
+      LOGGER.info(StorageEngineMessages.TIER_MIGRATION_CHECK_THREAD_STARTED);
+    }
   }
 
   private void timedFlushSeqMemTable() {
@@ -391,6 +408,12 @@ public class StorageEngine implements IService {
     }
   }
 
+  private void migrateTsFilesAcrossTiers() {
+    if (isReadyForNonReadWriteFunctions()) {
+      TierMigrationManager.getInstance().migrate(dataRegionMap.values());
+    }
+  }
+
   private void asyncRecoverTsFileResource() {
     List<Future<Void>> futures = new LinkedList<>();
     long startRecoverTime = System.currentTimeMillis();
@@ -439,6 +462,7 @@ public class StorageEngine implements IService {
         seqMemtableTimedFlushCheckThread, ThreadName.TIMED_FLUSH_SEQ_MEMTABLE);
     ThreadUtils.stopThreadPool(
         unseqMemtableTimedFlushCheckThread, ThreadName.TIMED_FLUSH_UNSEQ_MEMTABLE);
+    ThreadUtils.stopThreadPool(tierMigrationCheckThread, ThreadName.TIER_MIGRATION);
     if (cachedThreadPool != null) {
       cachedThreadPool.shutdownNow();
     }
@@ -460,6 +484,7 @@ public class StorageEngine implements IService {
     }
     shutdownTimedService(seqMemtableTimedFlushCheckThread, "SeqMemtableTimedFlushCheckThread");
     shutdownTimedService(unseqMemtableTimedFlushCheckThread, "UnseqMemtableTimedFlushCheckThread");
+    shutdownTimedService(tierMigrationCheckThread, "TierMigrationCheckThread");
     cachedThreadPool.shutdownNow();
     dataRegionMap.clear();
   }
@@ -873,6 +898,7 @@ public class StorageEngine implements IService {
         FileMetrics.getInstance()
             .deleteRegion(region.getDatabaseName(), region.getDataRegionIdString());
         CompressionRatio.getInstance().removeDataRegionRatio(String.valueOf(regionId.getId()));
+        PartitionQueryStatistics.getInstance().removeDataRegion(region.getDataRegionIdString());
         LOGGER.info(StorageEngineMessages.REMOVED_DATA_REGION, regionId);
       } catch (Exception e) {
         LOGGER.error(
@@ -959,6 +985,7 @@ public class StorageEngine implements IService {
       WRITING_METRICS.removeActiveMemtableCounterMetrics(regionId);
       FileMetrics.getInstance()
           .deleteRegion(oldRegion.getDatabaseName(), oldRegion.getDataRegionIdString());
+      PartitionQueryStatistics.getInstance().removeDataRegion(oldRegion.getDataRegionIdString());
     }
 
     DataRegion newRegion = newRegionSupplier.get();
@@ -1008,6 +1035,8 @@ public class StorageEngine implements IService {
         DataNodeTTLCache.getInstance().setTTLForTree(pathWithWildcard, ttl);
       }
     }
+    // The files loaded by the pipe receivers may be expired by the new TTL
+    PipeReceiverResumableFileManager.getInstance().invalidateReceivedDigests();
     return RpcUtils.getStatus(TSStatusCode.SUCCESS_STATUS);
   }
 
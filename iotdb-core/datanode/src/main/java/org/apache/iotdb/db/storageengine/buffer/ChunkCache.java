@@ -30,6 +30,7 @@ import org.apache.iotdb.db.i18n.StorageEngineMessages;
 import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
 import org.apache.iotdb.db.queryengine.metric.ChunkCacheMetrics;
 import org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet;
+import org.apache.iotdb.db.storageengine.dataregion.migration.TsFileAccessTracker;
 import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
 
@@ -313,6 +314,9 @@ public class ChunkCache {
       long startTime = System.nanoTime();
       try {
         cacheMiss = true;
+        if (!externalTsFile && key.closed) {
+          TsFileAccessTracker.getInstance().recordRead(key.tsFileID);
+        }
         TsFileSequenceReader reader =
             FileReaderManager.getInstance()
                 .get(key.getFilePath(), key.tsFileID, key.closed, ioSizeRecorder, externalTsFile);
@@ -35,6 +35,7 @@ import org.apache.iotdb.commons.exception.MetadataLeaseFencedException.LeaseFenc
 import org.apache.iotdb.commons.file.SystemFileFactory;
 import org.apache.iotdb.commons.path.IFullPath;
 import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.commons.pipe.receiver.PipeReceiverResumableFileManager;
 import org.apache.iotdb.commons.queryengine.plan.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.commons.queryengine.utils.DateTimeUtils;
 import org.apache.iotdb.commons.schema.SchemaConstant;
@@ -60,6 +61,7 @@ import org.apache.iotdb.consensus.iot.IoTConsensusServerImpl;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.consensus.DataRegionConsensusImpl;
+import org.apache.iotdb.db.cq.IncrementalContinuousQueryManager;
 import org.apache.iotdb.db.exception.BatchProcessException;
 import org.apache.iotdb.db.exception.DataRegionException;
 import org.apache.iotdb.db.exception.DataTypeInconsistentException;
@@ -115,6 +117,7 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.Compacti
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduler;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils.PartitionQueryStatistics;
 import org.apache.iotdb.db.storageengine.dataregion.flush.CloseFileListener;
 import org.apache.iotdb.db.storageengine.dataregion.flush.FlushListener;
 import org.apache.iotdb.db.storageengine.dataregion.flush.FlushStatus;
@@ -122,6 +125,7 @@ import org.apache.iotdb.db.storageengine.dataregion.flush.TsFileFlushPolicy;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.IMemTable;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.TsFileProcessor;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.TsFileProcessorInfo;
+import org.apache.iotdb.db.storageengine.dataregion.migration.TierMigrationTask;
 import org.apache.iotdb.db.storageengine.dataregion.modification.ModEntry;
 import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFile;
 import org.apache.iotdb.db.storageengine.dataregion.modification.TableDeletionEntry;
@@ -139,6 +143,7 @@ import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.generator.TsFileNameGenerator;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.rollup.RollupIndex;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ArrayDeviceTimeIndex;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.FileTimeIndex;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.FileTimeIndexCacheRecorder;
@@ -370,6 +375,12 @@ public class DataRegion implements IDataRegionForQuery {
    */
   private String insertWriteLockHolder = "";
 
+  /**
+   * Advanced after every write, deletion, load or unload which may change the query results of this
+   * region. Flush and compaction only reorganize the data, so they keep the version unchanged.
+   */
+  private final AtomicLong dataVersion = new AtomicLong(0);
+
   private volatile long directBufferMemoryCost = 0;
 
   private final AtomicBoolean isCompactionSelecting = new AtomicBoolean(false);
@@ -850,6 +861,7 @@ public class DataRegion implements IDataRegionForQuery {
       throws IOException, DataRegionException {
     // "{partition id}/{tsfile name}" -> tsfile file, remove duplicate files in one time partition
     Map<String, File> tsFilePartitionPath2File = new HashMap<>();
+    List<File> partitionFolders = new ArrayList<>();
     for (String baseDir : folders) {
       File fileFolder =
           fsFactory.getFile(baseDir + File.separator + databaseName, dataRegionIdString);
@@ -870,17 +882,42 @@ public class DataRegion implements IDataRegionForQuery {
             // some TsFileResource may be being persisted when the system crashed, try recovering
             // such resources
             continueFailedRenames(partitionFolder, TEMP_SUFFIX);
+            partitionFolders.add(partitionFolder);
+            // the copies of an interrupted tier migration are useless, except the resource files
+            // which are needed to recover the committed migrations
+            for (File migratingFile :
+                fsFactory.listFilesBySuffix(
+                    partitionFolder.getAbsolutePath(), TierMigrationTask.MIGRATING_SUFFIX)) {
+              String migratingFileName = migratingFile.getName();
+              if (!migratingFileName.endsWith(TierMigrationTask.MIGRATING_RESOURCE_SUFFIX)) {
+                Files.deleteIfExists(migratingFile.toPath());
+              }
+            }
             String partitionName = partitionFolder.getName();
             File[] tsFilesInThisFolder =
                 fsFactory.listFilesBySuffix(partitionFolder.getAbsolutePath(), TSFILE_SUFFIX);
             for (File f : tsFilesInThisFolder) {
               String tsFilePartitionPath = partitionName + File.separator + f.getName();
+              File duplicatedFile = tsFilePartitionPath2File.get(tsFilePartitionPath);
+              if (duplicatedFile != null) {
+                // the system crashed during the tier migration of the file
+                File redundantFile = TierMigrationTask.recover(duplicatedFile, f);
+                if (redundantFile != null) {
+                  logger.warn(
+                      StorageEngineMessages.DELETE_PARTIAL_FILE_OF_TIER_MIGRATION, redundantFile);
+                  TierMigrationTask.deleteCopy(redundantFile);
+                  if (redundantFile == f) {
+                    continue;
+                  }
+                }
+              }
               tsFilePartitionPath2File.put(tsFilePartitionPath, f);
             }
           }
         }
       }
     }
+    deleteLeftFilesOfTierMigration(partitionFolders, tsFilePartitionPath2File);
 
     List<File> sortedFiles = new ArrayList<>(tsFilePartitionPath2File.values());
     sortedFiles.sort(this::compareFileName);
@@ -896,6 +933,36 @@ public class DataRegion implements IDataRegionForQuery {
     return ret;
   }
 
+  /**
+   * Delete the mod files and the rollup indexes left in the source tier by the interrupted tier
+   * migrations, whose TsFiles have been moved to another tier, and the resource files of the
+   * migrations not committed.
+   */
+  private void deleteLeftFilesOfTierMigration(
+      List<File> partitionFolders, Map<String, File> tsFilePartitionPath2File) throws IOException {
+    for (File partitionFolder : partitionFolders) {
+      for (File migratingResourceFile :
+          fsFactory.listFilesBySuffix(
+              partitionFolder.getAbsolutePath(), TierMigrationTask.MIGRATING_RESOURCE_SUFFIX)) {
+        logger.warn(
+            StorageEngineMessages.DELETE_PARTIAL_FILE_OF_TIER_MIGRATION, migratingResourceFile);
+        Files.deleteIfExists(migratingResourceFile.toPath());
+      }
+      for (String suffix : new String[] {ModificationFile.FILE_SUFFIX, RollupIndex.FILE_SUFFIX}) {
+        for (File file : fsFactory.listFilesBySuffix(partitionFolder.getAbsolutePath(), suffix)) {
+          String tsFileName =
+              file.getName().substring(0, file.getName().length() - suffix.length());
+          if (tsFilePartitionPath2File.containsKey(
+                  partitionFolder.getName() + File.separator + tsFileName)
+              && !fsFactory.getFile(partitionFolder.getPath(), tsFileName).exists()) {
+            logger.warn(StorageEngineMessages.DELETE_PARTIAL_FILE_OF_TIER_MIGRATION, file);
+            Files.deleteIfExists(file.toPath());
+          }
+        }
+      }
+    }
+  }
+
   private void continueFailedRenames(File fileFolder, String suffix) throws IOException {
     File[] files = fsFactory.listFilesBySuffix(fileFolder.getAbsolutePath(), suffix);
     if (files != null) {
@@ -1231,7 +1298,7 @@ public class DataRegion implements IDataRegionForQuery {
 
       // check memtable size and may asyncTryToFlush the work memtable
       if (tsFileProcessor != null && tsFileProcessor.shouldFlush()) {
-        fileFlushPolicy.apply(this, tsFileProcessor, tsFileProcessor.isSequence());
+        flushFullMemTable(tsFileProcessor);
       }
       if (CommonDescriptor.getInstance().getConfig().isLastCacheEnable()
           && (!insertRowNode.isGeneratedByRemoteConsensusLeader())) {
@@ -1242,6 +1309,7 @@ public class DataRegion implements IDataRegionForQuery {
             System.nanoTime() - startTime);
       }
     } finally {
+      advanceDataVersion();
       writeUnlock();
     }
   }
@@ -1448,6 +1516,7 @@ public class DataRegion implements IDataRegionForQuery {
         throw new BatchProcessException(results);
       }
     } finally {
+      advanceDataVersion();
       writeUnlock();
     }
   }
@@ -1637,7 +1706,7 @@ public class DataRegion implements IDataRegionForQuery {
 
     // check memtable size and may async try to flush the work memtable
     if (tsFileProcessor.shouldFlush()) {
-      fileFlushPolicy.apply(this, tsFileProcessor, sequence);
+      flushFullMemTable(tsFileProcessor);
     }
     return true;
   }
@@ -1867,7 +1936,7 @@ public class DataRegion implements IDataRegionForQuery {
         for (TsFileProcessor tsFileProcessor : executionResult.insertedProcessors) {
           // check memtable size and may asyncTryToFlush the work memtable
           if (tsFileProcessor.shouldFlush()) {
-            fileFlushPolicy.apply(this, tsFileProcessor, tsFileProcessor.isSequence());
+            flushFullMemTable(tsFileProcessor);
           }
         }
       } catch (WriteProcessException e) {
@@ -2110,13 +2179,33 @@ public class DataRegion implements IDataRegionForQuery {
     try {
       // check memtable size and may asyncTryToFlush the work memtable
       if (tsFileProcessor.shouldFlush()) {
-        fileFlushPolicy.apply(this, tsFileProcessor, tsFileProcessor.isSequence());
+        flushFullMemTable(tsFileProcessor);
       }
     } finally {
       writeUnlock();
     }
   }
 
+  /**
+   * Flush the working memtable which is full or chosen by memory control. An unsequence file
+   * smaller than unseq_flush_coalesce_file_size_in_byte is kept open, so that the following flushes
+   * of its time partition are appended to it instead of creating small unsequence files. Such a
+   * file is closed by the timed unsequence flush once idle, so it is only kept open when the timed
+   * unsequence flush is enabled. Other files are closed by the flush policy.
+   */
+  private void flushFullMemTable(TsFileProcessor tsFileProcessor) {
+    long coalesceFileSize = config.getUnseqFlushCoalesceFileSize();
+    if (!tsFileProcessor.isSequence()
+        && coalesceFileSize > 0
+        && config.isEnableTimedFlushUnseqMemtable()
+        && tsFileProcessor.getEstimatedTsFileSize() < coalesceFileSize) {
+      tsFileProcessor.asyncFlushAndKeepOpen();
+      WritingMetrics.getInstance().recordCoalescedFlushMemTableCount(1);
+    } else {
+      fileFlushPolicy.apply(this, tsFileProcessor, tsFileProcessor.isSequence());
+    }
+  }
+
   protected TsFileProcessor getOrCreateTsFileProcessor(long timeRangeId, boolean sequence)
       throws WriteProcessException {
     TsFileProcessor tsFileProcessor = null;
@@ -2396,6 +2485,7 @@ public class DataRegion implements IDataRegionForQuery {
           e);
       Thread.currentThread().interrupt();
     } finally {
+      advanceDataVersion();
       writeUnlock();
     }
   }
@@ -2500,7 +2590,12 @@ public class DataRegion implements IDataRegionForQuery {
       long timeLowerBound = System.currentTimeMillis() - config.getUnseqMemtableFlushInterval();
 
       for (TsFileProcessor tsFileProcessor : tsFileProcessors) {
-        if (tsFileProcessor.getWorkMemTableUpdateTime() < timeLowerBound) {
+        // a file kept open by the coalesced flushes has no working memtable when it goes idle
+        long updateTime =
+            tsFileProcessor.getWorkMemTableUpdateTime() == Long.MAX_VALUE
+                ? tsFileProcessor.getLastMemTableFlushTime()
+                : tsFileProcessor.getWorkMemTableUpdateTime();
+        if (updateTime < timeLowerBound) {
           logger.info(
               StorageEngineMessages
                   .STORAGE_LOG_EXCEED_UNSEQUENCE_MEMTABLE_FLUSH_INTERVAL_SO_FLUSH_WORKING_BADB0B75,
@@ -2714,6 +2809,8 @@ public class DataRegion implements IDataRegionForQuery {
             SEQUENCE_TSFILE, satisfiedSeqResourceList.size());
         QUERY_RESOURCE_METRIC_SET.recordQueryResourceNum(
             UNSEQUENCE_TSFILE, satisfiedUnSeqResourceList.size());
+        PartitionQueryStatistics.getInstance()
+            .recordQuery(dataRegionIdString, satisfiedSeqResourceList, satisfiedUnSeqResourceList);
         return new QueryDataSource(
             satisfiedSeqResourceList, satisfiedUnSeqResourceList, databaseName);
       } catch (MetadataException e) {
@@ -3168,6 +3265,8 @@ public class DataRegion implements IDataRegionForQuery {
     } catch (Exception e) {
       throw new IOException(e);
     } finally {
+      advanceDataVersion();
+      invalidatePipeReceivedFileDigests();
       if (!hasReleasedLock) {
         writeUnlock();
       }
@@ -3279,6 +3378,8 @@ public class DataRegion implements IDataRegionForQuery {
     } catch (Exception e) {
       throw new IOException(e);
     } finally {
+      advanceDataVersion();
+      invalidatePipeReceivedFileDigests();
       if (!hasReleasedLock) {
         writeUnlock();
       }
@@ -3334,6 +3435,8 @@ public class DataRegion implements IDataRegionForQuery {
     } catch (Exception e) {
       throw new IOException(e);
     } finally {
+      advanceDataVersion();
+      invalidatePipeReceivedFileDigests();
       if (!releasedLock) {
         writeUnlock();
       }
@@ -3938,7 +4041,7 @@ public class DataRegion implements IDataRegionForQuery {
       int[] submitCountOfTimePartitions = executeInsertionCompaction(timePartitions, context);
 
       // schedule the other compactions
-      for (int i = 0; i < timePartitions.size(); i++) {
+      for (int i : getCompactionScheduleOrder(timePartitions)) {
         boolean skipOtherCompactionSchedule =
             submitCountOfTimePartitions[i] > 0
                 && !config
@@ -3969,6 +4072,29 @@ public class DataRegion implements IDataRegionForQuery {
     return context.getSubmitCompactionTaskNum();
   }
 
+  /**
+   * The order to schedule the time partitions, as indexes of timePartitions. With query aware
+   * compaction enabled, the partitions whose queries read the most extra files are scheduled first
+   * so that they take the candidate slots, otherwise it is the order of timePartitions.
+   */
+  List<Integer> getCompactionScheduleOrder(List<Long> timePartitions) {
+    List<Integer> order = new ArrayList<>(timePartitions.size());
+    for (int i = 0; i < timePartitions.size(); i++) {
+      order.add(i);
+    }
+    PartitionQueryStatistics statistics = PartitionQueryStatistics.getInstance();
+    if (statistics.isEnabled()) {
+      statistics.prune(dataRegionIdString, timePartitions);
+      double[] scores = new double[timePartitions.size()];
+      for (int i = 0; i < timePartitions.size(); i++) {
+        scores[i] = statistics.getQueryCostScore(dataRegionIdString, timePartitions.get(i));
+      }
+      // the sort is stable, partitions never queried keep the order from largest to smallest
+      order.sort((i1, i2) -> Double.compare(scores[i2], scores[i1]));
+    }
+    return order;
+  }
+
   /** Schedule settle compaction for ttl check. */
   public int executeTTLCheck() throws InterruptedException {
     while (!isCompactionSelecting.compareAndSet(false, true)) {
@@ -4310,6 +4436,8 @@ public class DataRegion implements IDataRegionForQuery {
       }
 
       onTsFileLoaded(newTsFileResource, isFromConsensus, lastReader);
+      IncrementalContinuousQueryManager.getInstance()
+          .onTsFileLoaded(dataRegionId, newTsFileResource);
       if (isGeneratedByPipe) {
         logger.debug(StorageEngineMessages.TSFILE_LOADED_IN_UNSEQ_LIST, newFileName);
       } else {
@@ -4325,6 +4453,7 @@ public class DataRegion implements IDataRegionForQuery {
     } catch (Exception e) {
       throw new LoadFileException(e);
     } finally {
+      advanceDataVersion();
       writeUnlock();
       if (lastReader != null) {
         try {
@@ -4714,6 +4843,7 @@ public class DataRegion implements IDataRegionForQuery {
         }
       }
     } finally {
+      advanceDataVersion();
       writeUnlock();
     }
     return unloadedTsFileResource;
@@ -4871,7 +5001,7 @@ public class DataRegion implements IDataRegionForQuery {
           for (TsFileProcessor tsFileProcessor : executionResult.insertedProcessors) {
             // check memtable size and may asyncTryToFlush the work memtable
             if (tsFileProcessor.shouldFlush()) {
-              fileFlushPolicy.apply(this, tsFileProcessor, tsFileProcessor.isSequence());
+              flushFullMemTable(tsFileProcessor);
             }
           }
         } catch (WriteProcessException e) {
@@ -4889,6 +5019,7 @@ public class DataRegion implements IDataRegionForQuery {
             System.nanoTime() - startTime);
       }
     } finally {
+      advanceDataVersion();
       writeUnlock();
     }
     if (!insertRowsOfOneDeviceNode.getResults().isEmpty()) {
@@ -4976,6 +5107,7 @@ public class DataRegion implements IDataRegionForQuery {
         throw new BatchProcessException(StorageEngineMessages.PARTIAL_FAILED_INSERTING_ROWS);
       }
     } finally {
+      advanceDataVersion();
       writeUnlock();
     }
   }
@@ -5048,6 +5180,7 @@ public class DataRegion implements IDataRegionForQuery {
       updateTsFileProcessorMetric(insertMultiTabletsNode, infoForMetrics);
 
     } finally {
+      advanceDataVersion();
       writeUnlock();
     }
 
@@ -5211,6 +5344,20 @@ public class DataRegion implements IDataRegionForQuery {
     return insertWriteLockHolder;
   }
 
+  /** The version of the visible data, see {@link #dataVersion}. */
+  public long getDataVersion() {
+    return dataVersion.get();
+  }
+
+  private void advanceDataVersion() {
+    dataVersion.incrementAndGet();
+  }
+
+  /** Files loaded by the pipe receivers may be partly deleted and should be received again. */
+  private static void invalidatePipeReceivedFileDigests() {
+    PipeReceiverResumableFileManager.getInstance().invalidateReceivedDigests();
+  }
+
   public boolean isDeleted() {
     return deleted;
   }
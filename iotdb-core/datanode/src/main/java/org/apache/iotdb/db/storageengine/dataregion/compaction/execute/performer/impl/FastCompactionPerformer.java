@@ -40,6 +40,7 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.Com
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.CompactionUtils;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.MultiTsFileDeviceIterator;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.writer.AbstractCompactionWriter;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.writer.AbstractInnerCompactionWriter;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.writer.FastCrossCompactionWriter;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.writer.FastInnerCompactionWriter;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
@@ -65,9 +66,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -172,50 +175,14 @@ public class FastCompactionPerformer
       compactionWriter.setSchemaForAllTargetFile(schemas);
       readModification(seqFiles);
       readModification(unseqFiles);
-      while (deviceIterator.hasNextDevice()) {
-        checkThreadInterrupted();
-        Pair<IDeviceID, Boolean> deviceInfo = deviceIterator.nextDevice();
-        IDeviceID device = deviceInfo.left;
-        boolean isAligned = deviceInfo.right;
-        // sort the resources by the start time of current device from old to new, and remove
-        // resource that does not contain the current device. Notice: when the level of time index
-        // is file, there will be a false positive judgment problem, that is, the device does not
-        // actually exist but the judgment return device being existed.
-        sortedSourceFiles.addAll(seqFiles);
-        sortedSourceFiles.addAll(unseqFiles);
-        boolean isTreeModel = !isAligned || device.getTableName().startsWith("root.");
-        long ttl = deviceIterator.getTTLForCurrentDevice();
-        sortedSourceFiles.removeIf(x -> x.definitelyNotContains(device));
-        // checked above
-        //noinspection OptionalGetWithoutIsPresent
-        sortedSourceFiles.sort(Comparator.comparingLong(x -> x.getStartTime(device).get()));
-        ModEntry ttlDeletion = null;
-        if (ttl != Long.MAX_VALUE) {
-          ttlDeletion =
-              CompactionUtils.convertTtlToDeletion(
-                  device, deviceIterator.getTimeLowerBoundForCurrentDevice());
-        }
-        compactionWriter.setTTLDeletion(ttlDeletion);
-
-        if (sortedSourceFiles.isEmpty()) {
-          // device is out of dated in all source files
-          continue;
-        }
-
-        compactionWriter.startChunkGroup(device, isAligned);
-
-        if (isAligned) {
-          compactAlignedSeries(device, deviceIterator, compactionWriter, isTreeModel);
-        } else {
-          compactNonAlignedSeries(device, deviceIterator, compactionWriter);
+      ParallelAlignedDeviceCompactor parallelAlignedDeviceCompactor =
+          createParallelAlignedDeviceCompactor(compactionWriter);
+      try {
+        compactDevices(deviceIterator, compactionWriter, parallelAlignedDeviceCompactor);
+      } finally {
+        if (parallelAlignedDeviceCompactor != null) {
+          parallelAlignedDeviceCompactor.abort();
         }
-
-        compactionWriter.endChunkGroup();
-        // check whether to flush chunk metadata or not
-        compactionWriter.checkAndMayFlushChunkMetadata();
-        // Add temp file metrics
-        subTaskSummary.setTemporaryFileSize(compactionWriter.getWriterSize());
-        sortedSourceFiles.clear();
       }
       compactionWriter.endFile();
       CompactionUtils.updatePlanIndexes(targetFiles, seqFiles, unseqFiles);
@@ -228,6 +195,73 @@ public class FastCompactionPerformer
     }
   }
 
+  private void compactDevices(
+      MultiTsFileDeviceIterator deviceIterator,
+      AbstractCompactionWriter compactionWriter,
+      ParallelAlignedDeviceCompactor parallelAlignedDeviceCompactor)
+      throws Exception {
+    while (deviceIterator.hasNextDevice()) {
+      checkThreadInterrupted();
+      Pair<IDeviceID, Boolean> deviceInfo = deviceIterator.nextDevice();
+      IDeviceID device = deviceInfo.left;
+      boolean isAligned = deviceInfo.right;
+      // sort the resources by the start time of current device from old to new, and remove
+      // resource that does not contain the current device. Notice: when the level of time index
+      // is file, there will be a false positive judgment problem, that is, the device does not
+      // actually exist but the judgment return device being existed.
+      sortedSourceFiles.addAll(seqFiles);
+      sortedSourceFiles.addAll(unseqFiles);
+      boolean isTreeModel = !isAligned || device.getTableName().startsWith("root.");
+      long ttl = deviceIterator.getTTLForCurrentDevice();
+      sortedSourceFiles.removeIf(x -> x.definitelyNotContains(device));
+      // checked above
+      //noinspection OptionalGetWithoutIsPresent
+      sortedSourceFiles.sort(Comparator.comparingLong(x -> x.getStartTime(device).get()));
+      ModEntry ttlDeletion = null;
+      if (ttl != Long.MAX_VALUE) {
+        ttlDeletion =
+            CompactionUtils.convertTtlToDeletion(
+                device, deviceIterator.getTimeLowerBoundForCurrentDevice());
+      }
+
+      if (sortedSourceFiles.isEmpty()) {
+        // device is out of dated in all source files
+        continue;
+      }
+
+      if (isAligned && parallelAlignedDeviceCompactor != null) {
+        parallelAlignedDeviceCompactor.submit(
+            device, deviceIterator, ttlDeletion, sortedSourceFiles, isTreeModel);
+        // the list is held by the sub task of the device
+        sortedSourceFiles = new ArrayList<>();
+        continue;
+      }
+      if (parallelAlignedDeviceCompactor != null) {
+        // keep the order of devices in the target file
+        parallelAlignedDeviceCompactor.finishAll();
+      }
+      compactionWriter.setTTLDeletion(ttlDeletion);
+
+      compactionWriter.startChunkGroup(device, isAligned);
+
+      if (isAligned) {
+        compactAlignedSeries(device, deviceIterator, compactionWriter, isTreeModel);
+      } else {
+        compactNonAlignedSeries(device, deviceIterator, compactionWriter);
+      }
+
+      compactionWriter.endChunkGroup();
+      // check whether to flush chunk metadata or not
+      compactionWriter.checkAndMayFlushChunkMetadata();
+      // Add temp file metrics
+      subTaskSummary.setTemporaryFileSize(compactionWriter.getWriterSize());
+      sortedSourceFiles.clear();
+    }
+    if (parallelAlignedDeviceCompactor != null) {
+      parallelAlignedDeviceCompactor.finishAll();
+    }
+  }
+
   private void compactAlignedSeries(
       IDeviceID deviceId,
       MultiTsFileDeviceIterator deviceIterator,
@@ -240,18 +274,7 @@ public class FastCompactionPerformer
         new LinkedHashMap<>();
     List<IMeasurementSchema> measurementSchemas = new ArrayList<>();
 
-    // Get all value measurements and their schemas of the current device. Also get start offset and
-    // end offset of each timeseries metadata, in order to facilitate the reading of chunkMetadata
-    // directly by this offset later. Instead of deserializing chunk metadata later, we need to
-    // deserialize chunk metadata here to get the schemas of all value measurements, because we
-    // should get schemas of all value measurement to startMeasurement() and compaction process is
-    // to read a batch of overlapped files each time, and we cannot make sure if the first batch of
-    // overlapped tsfiles contain all the value measurements.
-    for (Map.Entry<String, Pair<MeasurementSchema, Map<TsFileResource, Pair<Long, Long>>>> entry :
-        deviceIterator.getTimeseriesSchemaAndMetadataOffsetOfCurrentDevice().entrySet()) {
-      measurementSchemas.add(entry.getValue().left);
-      timeseriesMetadataOffsetMap.put(entry.getKey(), entry.getValue().right);
-    }
+    collectAlignedSeries(deviceIterator, timeseriesMetadataOffsetMap, measurementSchemas);
     // current device may be ignored by some conditions
     if (measurementSchemas.isEmpty()) {
       return;
@@ -267,11 +290,31 @@ public class FastCompactionPerformer
             measurementSchemas,
             deviceId,
             taskSummary,
-            ignoreAllNullRows)
+            ignoreAllNullRows,
+            0)
         .call();
     subTaskSummary.increase(taskSummary);
   }
 
+  private void collectAlignedSeries(
+      MultiTsFileDeviceIterator deviceIterator,
+      Map<String, Map<TsFileResource, Pair<Long, Long>>> timeseriesMetadataOffsetMap,
+      List<IMeasurementSchema> measurementSchemas)
+      throws IOException {
+    // Get all value measurements and their schemas of the current device. Also get start offset and
+    // end offset of each timeseries metadata, in order to facilitate the reading of chunkMetadata
+    // directly by this offset later. Instead of deserializing chunk metadata later, we need to
+    // deserialize chunk metadata here to get the schemas of all value measurements, because we
+    // should get schemas of all value measurement to startMeasurement() and compaction process is
+    // to read a batch of overlapped files each time, and we cannot make sure if the first batch of
+    // overlapped tsfiles contain all the value measurements.
+    for (Map.Entry<String, Pair<MeasurementSchema, Map<TsFileResource, Pair<Long, Long>>>> entry :
+        deviceIterator.getTimeseriesSchemaAndMetadataOffsetOfCurrentDevice().entrySet()) {
+      measurementSchemas.add(entry.getValue().left);
+      timeseriesMetadataOffsetMap.put(entry.getKey(), entry.getValue().right);
+    }
+  }
+
   private void compactNonAlignedSeries(
       IDeviceID deviceID,
       MultiTsFileDeviceIterator deviceIterator,
@@ -322,18 +365,8 @@ public class FastCompactionPerformer
     // wait for all sub tasks to finish
     for (int i = 0; i < subTaskNums; i++) {
       try {
-        futures.get(i).get();
+        waitSubTask(futures.get(i));
         subTaskSummary.increase(taskSummaryList.get(i));
-      } catch (ExecutionException e) {
-        Throwable cause = e.getCause();
-        if (cause instanceof CompactionLastTimeCheckFailedException) {
-          throw (CompactionLastTimeCheckFailedException) cause;
-        } else if (cause instanceof StopReadTsFileByInterruptException) {
-          throw (StopReadTsFileByInterruptException) cause;
-        } else if (cause instanceof ChunkTypeInconsistentException) {
-          throw (ChunkTypeInconsistentException) cause;
-        }
-        throw new IOException(StorageEngineMessages.SUB_COMPACTION_TASK_MEET_ERRORS, e);
       } catch (InterruptedException e) {
         abortAllSubTasks(futures);
         throw e;
@@ -341,6 +374,36 @@ public class FastCompactionPerformer
     }
   }
 
+  private void waitSubTask(Future<Void> future) throws IOException, InterruptedException {
+    try {
+      future.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof CompactionLastTimeCheckFailedException) {
+        throw (CompactionLastTimeCheckFailedException) cause;
+      } else if (cause instanceof StopReadTsFileByInterruptException) {
+        throw (StopReadTsFileByInterruptException) cause;
+      } else if (cause instanceof ChunkTypeInconsistentException) {
+        throw (ChunkTypeInconsistentException) cause;
+      }
+      throw new IOException(StorageEngineMessages.SUB_COMPACTION_TASK_MEET_ERRORS, e);
+    }
+  }
+
+  private ParallelAlignedDeviceCompactor createParallelAlignedDeviceCompactor(
+      AbstractCompactionWriter compactionWriter) {
+    if (isCrossCompaction
+        || !IoTDBDescriptor.getInstance().getConfig().isEnableParallelAlignedDeviceCompaction()
+        || !(compactionWriter instanceof AbstractInnerCompactionWriter)) {
+      return null;
+    }
+    int parallelism = Math.min(SUB_TASK_NUM, compactionWriter.getSubTaskNum());
+    return parallelism > 1
+        ? new ParallelAlignedDeviceCompactor(
+            (AbstractInnerCompactionWriter) compactionWriter, parallelism)
+        : null;
+  }
+
   private void abortAllSubTasks(List<Future<Void>> futures) {
     for (Future<Void> future : futures) {
       future.cancel(true);
@@ -401,6 +464,126 @@ public class FastCompactionPerformer
     this.seqFiles = unseqFiles;
   }
 
+  /**
+   * Compacts the aligned devices of inner space compaction in parallel. Each device is compacted by
+   * a sub task, which waits for the chunk group of its device before writing chunks into the target
+   * file, so the devices are still written in order. At most parallelism devices are compacted at
+   * the same time, which is counted in by {@link FastCompactionInnerCompactionEstimator}.
+   */
+  private class ParallelAlignedDeviceCompactor {
+
+    private final AbstractInnerCompactionWriter compactionWriter;
+
+    private final int parallelism;
+
+    // sub tasks in the order of devices
+    private final Deque<AlignedDeviceSubTask> runningSubTasks = new ArrayDeque<>();
+
+    private ParallelAlignedDeviceCompactor(
+        AbstractInnerCompactionWriter compactionWriter, int parallelism) {
+      this.compactionWriter = compactionWriter;
+      this.parallelism = parallelism;
+    }
+
+    private void submit(
+        IDeviceID deviceId,
+        MultiTsFileDeviceIterator deviceIterator,
+        ModEntry ttlDeletion,
+        List<TsFileResource> sortedSourceFiles,
+        boolean ignoreAllNullRows)
+        throws Exception {
+      Map<String, Map<TsFileResource, Pair<Long, Long>>> timeseriesMetadataOffsetMap =
+          new LinkedHashMap<>();
+      List<IMeasurementSchema> measurementSchemas = new ArrayList<>();
+      collectAlignedSeries(deviceIterator, timeseriesMetadataOffsetMap, measurementSchemas);
+      // current device may be ignored by some conditions
+      if (measurementSchemas.isEmpty()) {
+        return;
+      }
+
+      int subTaskId;
+      if (runningSubTasks.size() == parallelism) {
+        subTaskId = finishFirst().subTaskId;
+      } else {
+        if (runningSubTasks.isEmpty()) {
+          compactionWriter.setWritableSubTaskId(AbstractInnerCompactionWriter.NO_SUB_TASK_WRITABLE);
+        }
+        // sub tasks are only finished by finishAll() before the queue is full
+        subTaskId = runningSubTasks.size();
+      }
+      compactionWriter.setDeviceOfSubTask(deviceId, ttlDeletion, subTaskId);
+      FastCompactionTaskSummary taskSummary = new FastCompactionTaskSummary();
+      Future<Void> future =
+          CompactionTaskManager.getInstance()
+              .submitSubTask(
+                  new FastCompactionPerformerSubTask(
+                      compactionWriter,
+                      timeseriesMetadataOffsetMap,
+                      readerCacheMap,
+                      modificationCache,
+                      sortedSourceFiles,
+                      measurementSchemas,
+                      deviceId,
+                      taskSummary,
+                      ignoreAllNullRows,
+                      subTaskId));
+      runningSubTasks.add(new AlignedDeviceSubTask(deviceId, subTaskId, future, taskSummary));
+    }
+
+    /** Write the chunk group of the first device, the sub task of it is removed when finished. */
+    private AlignedDeviceSubTask finishFirst() throws Exception {
+      AlignedDeviceSubTask subTask = runningSubTasks.peek();
+      compactionWriter.startChunkGroup(subTask.deviceId, true);
+      compactionWriter.setWritableSubTaskId(subTask.subTaskId);
+      waitSubTask(subTask.future);
+      compactionWriter.setWritableSubTaskId(AbstractInnerCompactionWriter.NO_SUB_TASK_WRITABLE);
+      runningSubTasks.poll();
+      subTaskSummary.increase(subTask.taskSummary);
+
+      compactionWriter.endChunkGroup();
+      // check whether to flush chunk metadata or not
+      compactionWriter.checkAndMayFlushChunkMetadata();
+      // Add temp file metrics
+      subTaskSummary.setTemporaryFileSize(compactionWriter.getWriterSize());
+      return subTask;
+    }
+
+    private void finishAll() throws Exception {
+      while (!runningSubTasks.isEmpty()) {
+        finishFirst();
+      }
+      compactionWriter.setWritableSubTaskId(AbstractInnerCompactionWriter.ALL_SUB_TASKS_WRITABLE);
+    }
+
+    /** Cancel the unfinished sub tasks, which may be waiting for their chunk groups. */
+    private void abort() {
+      List<Future<Void>> futures = new ArrayList<>(runningSubTasks.size());
+      for (AlignedDeviceSubTask subTask : runningSubTasks) {
+        futures.add(subTask.future);
+      }
+      abortAllSubTasks(futures);
+      runningSubTasks.clear();
+    }
+  }
+
+  private static class AlignedDeviceSubTask {
+    private final IDeviceID deviceId;
+    private final int subTaskId;
+    private final Future<Void> future;
+    private final FastCompactionTaskSummary taskSummary;
+
+    private AlignedDeviceSubTask(
+        IDeviceID deviceId,
+        int subTaskId,
+        Future<Void> future,
+        FastCompactionTaskSummary taskSummary) {
+      this.deviceId = deviceId;
+      this.subTaskId = subTaskId;
+      this.future = future;
+      this.taskSummary = taskSummary;
+    }
+  }
+
   private void readModification(List<TsFileResource> resources) {
     for (TsFileResource resource : resources) {
       if (resource.getTotalModSizeInByte() == 0) {
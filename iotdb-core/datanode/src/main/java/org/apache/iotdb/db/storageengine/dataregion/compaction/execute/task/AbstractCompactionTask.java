@@ -37,6 +37,7 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log.TsFileIdentifier;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.repair.RepairDataFileScanUtil;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils.PartitionQueryStatistics;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileRepairStatus;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
@@ -86,6 +87,9 @@ public abstract class AbstractCompactionTask {
   private boolean fileHandleAcquired = false;
   protected long compactionConfigVersion = Long.MAX_VALUE;
 
+  /** The query read amplification of the time partition when this task is selected. */
+  protected final double queryCostScore;
+
   protected AbstractCompactionTask(
       String storageGroupName,
       String dataRegionId,
@@ -97,6 +101,8 @@ public abstract class AbstractCompactionTask {
     this.timePartition = timePartition;
     this.tsFileManager = tsFileManager;
     this.serialId = serialId;
+    this.queryCostScore =
+        PartitionQueryStatistics.getInstance().getQueryCostScore(dataRegionId, timePartition);
   }
 
   public abstract List<TsFileResource> getAllSourceTsFiles();
@@ -259,6 +265,10 @@ public abstract class AbstractCompactionTask {
     return timePartition;
   }
 
+  public double getQueryCostScore() {
+    return queryCostScore;
+  }
+
   public abstract boolean equalsOtherTask(AbstractCompactionTask otherTask);
 
   public void transitSourceFilesToMerging() throws FileCannotTransitToCompactingException {
@@ -45,6 +45,7 @@ import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.generator.TsFileNameGenerator;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.rollup.RollupIndexManager;
 import org.apache.iotdb.db.storageengine.dataregion.utils.tableDiskUsageIndex.TableDiskUsageIndex;
 
 import org.apache.tsfile.common.constant.TsFileConstant;
@@ -422,6 +423,7 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
     for (TsFileResource targetTsFileResource : filesView.targetFilesInLog) {
       if (!targetTsFileResource.isDeleted()) {
         CompactionUtils.addFilesToFileMetrics(targetTsFileResource);
+        RollupIndexManager.getInstance().generate(targetTsFileResource);
       } else {
         // target resource is empty after compaction, then delete it
         compactionLogger.logEmptyTargetFile(targetTsFileResource);
@@ -35,6 +35,7 @@ import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.generator.TsFileNameGenerator;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.rollup.RollupIndexManager;
 import org.apache.iotdb.db.storageengine.dataregion.utils.tableDiskUsageIndex.TableDiskUsageIndex;
 
 import java.io.File;
@@ -170,6 +171,7 @@ public class InsertionCrossSpaceCompactionTask extends AbstractCompactionTask {
 
       TableDiskUsageIndex.getInstance()
           .write(storageGroupName, unseqFileToInsert.getTsFileID(), targetFile.getTsFileID());
+      RollupIndexManager.getInstance().generate(targetFile);
 
       double costTime = (System.currentTimeMillis() - startTime) / 1000.0d;
       LOGGER.info(
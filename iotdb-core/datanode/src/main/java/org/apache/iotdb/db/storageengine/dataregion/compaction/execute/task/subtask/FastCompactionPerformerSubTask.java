@@ -140,9 +140,10 @@ public class FastCompactionPerformerSubTask implements Callable<Void> {
       List<IMeasurementSchema> measurementSchemas,
       IDeviceID deviceId,
       FastCompactionTaskSummary summary,
-      boolean ignoreAllNullRows) {
+      boolean ignoreAllNullRows,
+      int subTaskId) {
     this.compactionWriter = compactionWriter;
-    this.subTaskId = 0;
+    this.subTaskId = subTaskId;
     this.timeseriesMetadataOffsetMap = timeseriesMetadataOffsetMap;
     this.isAligned = true;
     this.deviceId = deviceId;
@@ -482,7 +482,7 @@ public abstract class SeriesCompactionExecutor {
         allModifications,
         deviceId,
         measurement,
-        compactionWriter.getTTLLowerBoundForCurrentDevice());
+        compactionWriter.getTTLLowerBoundForCurrentDevice(subTaskId));
   }
 
   @SuppressWarnings("squid:S3776")
@@ -52,6 +52,7 @@ import org.apache.tsfile.write.schema.Schema;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.List;
 
 public abstract class AbstractCompactionWriter implements AutoCloseable {
@@ -118,7 +119,14 @@ public abstract class AbstractCompactionWriter implements AutoCloseable {
 
   protected String[] measurementId = new String[subTaskNum];
 
-  protected ModEntry ttlDeletionForCurrentDevice;
+  // Each sub task has the TTL deletion of the device it compacts, devices of different sub tasks
+  // differ when aligned devices are compacted in parallel.
+  // The index of the array corresponds to subTaskId.
+  protected ModEntry[] ttlDeletions = new ModEntry[subTaskNum];
+
+  // Device compacted by each sub task when aligned devices are compacted in parallel, null means
+  // the current device of the writer.
+  protected IDeviceID[] deviceIdOfSubTasks = new IDeviceID[subTaskNum];
 
   private EncryptParameter encryptParameter;
 
@@ -129,11 +137,22 @@ public abstract class AbstractCompactionWriter implements AutoCloseable {
   public abstract void endChunkGroup() throws IOException;
 
   public void setTTLDeletion(ModEntry ttlDeletion) {
-    this.ttlDeletionForCurrentDevice = ttlDeletion;
+    Arrays.fill(ttlDeletions, ttlDeletion);
+    Arrays.fill(deviceIdOfSubTasks, null);
+  }
+
+  /** Set the device compacted by the sub task, used when devices are compacted in parallel. */
+  public void setDeviceOfSubTask(IDeviceID deviceId, ModEntry ttlDeletion, int subTaskId) {
+    ttlDeletions[subTaskId] = ttlDeletion;
+    deviceIdOfSubTasks[subTaskId] = deviceId;
+  }
+
+  public ModEntry getTTLLowerBoundForCurrentDevice(int subTaskId) {
+    return ttlDeletions[subTaskId];
   }
 
-  public ModEntry getTTLLowerBoundForCurrentDevice() {
-    return ttlDeletionForCurrentDevice;
+  public int getSubTaskNum() {
+    return subTaskNum;
   }
 
   public void startMeasurement(String measurement, IChunkWriter chunkWriter, int subTaskId) {
@@ -479,8 +498,10 @@ public abstract class AbstractCompactionWriter implements AutoCloseable {
 
   protected void checkPreviousTimestamp(long currentWritingTimestamp, int subTaskId) {
     if (lastTimeSet[subTaskId] && currentWritingTimestamp <= lastTime[subTaskId]) {
+      IDeviceID currentDeviceId =
+          deviceIdOfSubTasks[subTaskId] == null ? deviceId : deviceIdOfSubTasks[subTaskId];
       throw new CompactionLastTimeCheckFailedException(
-          deviceId.toString() + IoTDBConstant.PATH_SEPARATOR + measurementId[subTaskId],
+          currentDeviceId.toString() + IoTDBConstant.PATH_SEPARATOR + measurementId[subTaskId],
           currentWritingTimestamp,
           lastTime[subTaskId]);
     }
@@ -30,9 +30,14 @@ import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 import org.apache.iotdb.db.utils.EncryptDBUtils;
 
 import org.apache.tsfile.encrypt.EncryptParameter;
+import org.apache.tsfile.exception.StopReadTsFileByInterruptException;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IChunkMetadata;
 import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.read.TimeValuePair;
+import org.apache.tsfile.read.common.Chunk;
 import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.write.chunk.IChunkWriter;
 import org.apache.tsfile.write.schema.Schema;
 
 import java.io.IOException;
@@ -40,6 +45,12 @@ import java.util.Collections;
 import java.util.List;
 
 public abstract class AbstractInnerCompactionWriter extends AbstractCompactionWriter {
+  /** Every sub task can write chunks into the target file. */
+  public static final int ALL_SUB_TASKS_WRITABLE = -1;
+
+  /** No sub task can write chunks into the target file. */
+  public static final int NO_SUB_TASK_WRITABLE = -2;
+
   protected CompactionTsFileWriter fileWriter;
   protected List<TsFileResource> targetResources;
   protected int currentFileIndex;
@@ -47,6 +58,11 @@ public abstract class AbstractInnerCompactionWriter extends AbstractCompactionWr
   protected List<Schema> schemas;
   protected EncryptParameter encryptParameter;
 
+  // When aligned devices are compacted in parallel, only the sub task compacting the device of the
+  // current chunk group can write chunks into the target file, the others wait for their turn.
+  private final Object writableSubTaskLock = new Object();
+  private int writableSubTaskId = ALL_SUB_TASKS_WRITABLE;
+
   protected final long memoryBudgetForFileWriter =
       (long)
           ((double) SystemInfo.getInstance().getMemorySizeForCompaction()
@@ -139,6 +155,61 @@ public abstract class AbstractInnerCompactionWriter extends AbstractCompactionWr
     sealChunk(fileWriter, chunkWriters[subTaskId], subTaskId);
   }
 
+  /**
+   * Set the sub task which can write chunks into the target file, or {@link
+   * #ALL_SUB_TASKS_WRITABLE} / {@link #NO_SUB_TASK_WRITABLE}.
+   */
+  public void setWritableSubTaskId(int subTaskId) {
+    synchronized (writableSubTaskLock) {
+      writableSubTaskId = subTaskId;
+      writableSubTaskLock.notifyAll();
+    }
+  }
+
+  private void waitUntilWritable(int subTaskId) {
+    synchronized (writableSubTaskLock) {
+      while (writableSubTaskId != ALL_SUB_TASKS_WRITABLE && writableSubTaskId != subTaskId) {
+        try {
+          writableSubTaskLock.wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new StopReadTsFileByInterruptException();
+        }
+      }
+    }
+  }
+
+  @Override
+  protected void sealChunk(
+      CompactionTsFileWriter targetWriter, IChunkWriter chunkWriter, int subTaskId)
+      throws IOException {
+    waitUntilWritable(subTaskId);
+    // the target file may be rolled while waiting, so use the current file writer
+    super.sealChunk(fileWriter, chunkWriter, subTaskId);
+  }
+
+  @Override
+  protected void flushNonAlignedChunkToFileWriter(
+      CompactionTsFileWriter targetWriter, Chunk chunk, ChunkMetadata chunkMetadata, int subTaskId)
+      throws IOException {
+    waitUntilWritable(subTaskId);
+    super.flushNonAlignedChunkToFileWriter(fileWriter, chunk, chunkMetadata, subTaskId);
+  }
+
+  @Override
+  protected void flushAlignedChunkToFileWriter(
+      CompactionTsFileWriter targetWriter,
+      Chunk timeChunk,
+      IChunkMetadata timeChunkMetadata,
+      List<Chunk> valueChunks,
+      List<IChunkMetadata> valueChunkMetadatas,
+      int subTaskId)
+      throws IOException {
+    waitUntilWritable(subTaskId);
+    super.flushAlignedChunkToFileWriter(
+        fileWriter, timeChunk, timeChunkMetadata, valueChunks, valueChunkMetadatas, subTaskId);
+  }
+
   @Override
   public void write(TimeValuePair timeValuePair, int subTaskId) throws IOException {
     checkPreviousTimestamp(timeValuePair.getTimestamp(), subTaskId);
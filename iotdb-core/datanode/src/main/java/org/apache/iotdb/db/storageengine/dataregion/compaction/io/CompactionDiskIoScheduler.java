@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.io;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.service.metrics.CompactionMetrics;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
+import org.apache.iotdb.metrics.type.Counter;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.apache.tsfile.exception.StopReadTsFileByInterruptException;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules the reads of compaction by the data dir they hit. Besides the global limits of {@link
+ * CompactionTaskManager}, each data dir has its own token bucket, so that the compaction of one
+ * disk can not take the read bandwidth of the whole node. The average read latency of each data
+ * dir is tracked, a disk busy with queries serves the compaction reads slowly, and the compaction
+ * reads of it back off until the latency drops below the threshold.
+ */
+public class CompactionDiskIoScheduler {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  /** A TsFile is placed in data_dir/{sequence|unsequence}/database/region/partition/. */
+  private static final int DATA_DIR_DEPTH = 5;
+
+  private static final long MAX_BACKOFF_TIME_IN_MS = 1000;
+
+  /** The weight of a new sample in the average read latency. */
+  private static final double LATENCY_SMOOTHING_FACTOR = 0.2;
+
+  private final Map<String, DiskIoState> diskIoStates = new ConcurrentHashMap<>();
+
+  private CompactionDiskIoScheduler() {}
+
+  public static CompactionDiskIoScheduler getInstance() {
+    return CompactionDiskIoSchedulerHolder.INSTANCE;
+  }
+
+  public DiskIoState getDiskIoState(String tsFilePath) {
+    return diskIoStates.computeIfAbsent(getDataDir(tsFilePath), DiskIoState::new);
+  }
+
+  static String getDataDir(String tsFilePath) {
+    File dir = new File(tsFilePath).getAbsoluteFile();
+    for (int i = 0; i < DATA_DIR_DEPTH && dir.getParentFile() != null; i++) {
+      dir = dir.getParentFile();
+    }
+    return dir.getPath();
+  }
+
+  @TestOnly
+  public void clear() {
+    diskIoStates.clear();
+  }
+
+  /** The read limit and the read latency of one data dir. */
+  public static class DiskIoState {
+
+    private final String dataDir;
+
+    /** null if the read throughput of the data dir is not limited. */
+    private final RateLimiter readRateLimiter;
+
+    private final long backoffLatencyThresholdInMs;
+
+    private volatile double avgReadLatencyInMs = 0;
+
+    private final Counter readCounter;
+    private final Counter backoffTimeCounter;
+
+    private DiskIoState(String dataDir) {
+      this.dataDir = dataDir;
+      int throughputMbPerSec = CONFIG.getCompactionReadThroughputMbPerSecPerDisk();
+      this.readRateLimiter =
+          throughputMbPerSec <= 0 ? null : RateLimiter.create(throughputMbPerSec * 1024.0 * 1024.0);
+      this.backoffLatencyThresholdInMs = CONFIG.getCompactionReadBackoffLatencyThresholdInMs();
+      this.readCounter = CompactionMetrics.getInstance().createDiskReadCounter(dataDir);
+      this.backoffTimeCounter =
+          CompactionMetrics.getInstance().createDiskBackoffTimeCounter(dataDir);
+      CompactionMetrics.getInstance()
+          .createDiskReadLatencyGauge(dataDir, this, DiskIoState::getAvgReadLatencyInMs);
+    }
+
+    public String getDataDir() {
+      return dataDir;
+    }
+
+    /** Acquire the permits of reading the given bytes from this data dir. */
+    public void acquireRead(int readDataSize) throws IOException {
+      CompactionTaskManager.getInstance().getCompactionReadOperationRateLimiter().acquire(1);
+      if (readDataSize <= 0) {
+        return;
+      }
+      CompactionTaskManager.getInstance().getCompactionReadRateLimiter().acquire(readDataSize);
+      if (readRateLimiter != null) {
+        readRateLimiter.acquire(readDataSize);
+      }
+      backOffIfBusy();
+    }
+
+    private void backOffIfBusy() throws IOException {
+      double latency = avgReadLatencyInMs;
+      if (backoffLatencyThresholdInMs <= 0 || latency <= backoffLatencyThresholdInMs) {
+        return;
+      }
+      long backoffTime = Math.min((long) latency, MAX_BACKOFF_TIME_IN_MS);
+      try {
+        TimeUnit.MILLISECONDS.sleep(backoffTime);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new StopReadTsFileByInterruptException();
+      }
+      backoffTimeCounter.inc(backoffTime);
+    }
+
+    /** Record a finished read of this data dir. */
+    public void recordRead(long readDataSize, long costTimeInNanos) {
+      if (readDataSize <= 0) {
+        return;
+      }
+      readCounter.inc(readDataSize);
+      double latency = costTimeInNanos / 1_000_000.0;
+      avgReadLatencyInMs =
+          avgReadLatencyInMs * (1 - LATENCY_SMOOTHING_FACTOR) + latency * LATENCY_SMOOTHING_FACTOR;
+    }
+
+    public double getAvgReadLatencyInMs() {
+      return avgReadLatencyInMs;
+    }
+  }
+
+  private static class CompactionDiskIoSchedulerHolder {
+    private static final CompactionDiskIoScheduler INSTANCE = new CompactionDiskIoScheduler();
+  }
+}
@@ -19,8 +19,9 @@
 
 package org.apache.iotdb.db.storageengine.dataregion.compaction.io;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.service.metrics.CompactionMetrics;
-import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.io.CompactionDiskIoScheduler.DiskIoState;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionIoDataType;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionType;
 
@@ -30,10 +31,26 @@ import org.apache.tsfile.read.reader.TsFileInput;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
-
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The input of the TsFiles read by compaction. The reads are limited and recorded per data dir by
+ * {@link CompactionDiskIoScheduler}, and the small positional reads are served from a sequential
+ * read-ahead buffer, so that the disk sees a few large reads instead of many small ones. Each
+ * thread reading the file, e.g. each sub task of a compaction, has its own read-ahead buffer, so
+ * that the sub tasks reading different series do not evict each other's buffer.
+ */
 public class CompactionTsFileInput implements TsFileInput {
+  private final int readAheadSize =
+      IoTDBDescriptor.getInstance().getConfig().getCompactionReadAheadSize();
+
   private final TsFileInput tsFileInput;
 
+  private final DiskIoState diskIoState;
+
+  private final Map<Thread, ReadAheadBuffer> readAheadBuffers = new ConcurrentHashMap<>();
+
   private long metadataOffset = -1;
 
   /** The type of compaction running. */
@@ -45,6 +62,8 @@ public class CompactionTsFileInput implements TsFileInput {
   public CompactionTsFileInput(CompactionType compactionType, TsFileInput tsFileInput) {
     this.compactionType = compactionType;
     this.tsFileInput = tsFileInput;
+    this.diskIoState =
+        CompactionDiskIoScheduler.getInstance().getDiskIoState(tsFileInput.getFilePath());
   }
 
   public void setMetadataOffset(long metadataOffset) {
@@ -100,7 +119,9 @@ public class CompactionTsFileInput implements TsFileInput {
   @Override
   public int read(ByteBuffer dst) throws IOException {
     acquireReadDataSizeWithCompactionReadRateLimiter(dst.remaining());
+    long startTime = System.nanoTime();
     int readSize = tsFileInput.read(dst);
+    diskIoState.recordRead(readSize, System.nanoTime() - startTime);
     updateMetrics(position(), readSize);
     if (Thread.currentThread().isInterrupted()) {
       throw new StopReadTsFileByInterruptException();
@@ -110,12 +131,56 @@ public class CompactionTsFileInput implements TsFileInput {
 
   @Override
   public int read(ByteBuffer dst, long position) throws IOException {
+    if (dst.remaining() < readAheadSize) {
+      return readWithReadAhead(dst, position);
+    }
     acquireReadDataSizeWithCompactionReadRateLimiter(dst.remaining());
+    long startTime = System.nanoTime();
     int readSize = tsFileInput.read(dst, position);
+    diskIoState.recordRead(readSize, System.nanoTime() - startTime);
+    updateMetrics(position, readSize);
+    if (Thread.currentThread().isInterrupted()) {
+      throw new StopReadTsFileByInterruptException();
+    }
+    return readSize;
+  }
+
+  private int readWithReadAhead(ByteBuffer dst, long position) throws IOException {
+    ReadAheadBuffer readAheadBuffer =
+        readAheadBuffers.computeIfAbsent(
+            Thread.currentThread(), thread -> new ReadAheadBuffer(readAheadSize));
+    if (!readAheadBuffer.contains(position, dst.remaining())) {
+      int readSize = fillReadAheadBuffer(readAheadBuffer, position);
+      if (readSize <= 0) {
+        return readSize;
+      }
+    }
+    int offset = (int) (position - readAheadBuffer.position);
+    int length = Math.min(dst.remaining(), readAheadBuffer.buffer.limit() - offset);
+    ByteBuffer buffered = readAheadBuffer.buffer.duplicate();
+    buffered.position(offset);
+    buffered.limit(offset + length);
+    dst.put(buffered);
+    return length;
+  }
+
+  private int fillReadAheadBuffer(ReadAheadBuffer readAheadBuffer, long position)
+      throws IOException {
+    ByteBuffer buffer = readAheadBuffer.buffer;
+    buffer.clear();
+    readAheadBuffer.position = -1;
+    acquireReadDataSizeWithCompactionReadRateLimiter(buffer.capacity());
+    long startTime = System.nanoTime();
+    int readSize = tsFileInput.read(buffer, position);
+    diskIoState.recordRead(readSize, System.nanoTime() - startTime);
     updateMetrics(position, readSize);
     if (Thread.currentThread().isInterrupted()) {
       throw new StopReadTsFileByInterruptException();
     }
+    buffer.flip();
+    if (readSize > 0) {
+      readAheadBuffer.position = position;
+    }
     return readSize;
   }
 
@@ -126,6 +191,7 @@ public class CompactionTsFileInput implements TsFileInput {
 
   @Override
   public void close() throws IOException {
+    readAheadBuffers.clear();
     tsFileInput.close();
   }
 
@@ -134,9 +200,9 @@ public class CompactionTsFileInput implements TsFileInput {
     return tsFileInput.getFilePath();
   }
 
-  private void acquireReadDataSizeWithCompactionReadRateLimiter(int readDataSize) {
-    CompactionTaskManager.getInstance().getCompactionReadOperationRateLimiter().acquire(1);
-    CompactionTaskManager.getInstance().getCompactionReadRateLimiter().acquire(readDataSize);
+  private void acquireReadDataSizeWithCompactionReadRateLimiter(int readDataSize)
+      throws IOException {
+    diskIoState.acquireRead(readDataSize);
   }
 
   private void updateMetrics(long position, long totalSize) {
@@ -219,4 +285,21 @@ public class CompactionTsFileInput implements TsFileInput {
       return inputStream.markSupported();
     }
   }
+
+  /** The bytes read ahead by one thread. */
+  private static class ReadAheadBuffer {
+
+    private final ByteBuffer buffer;
+
+    /** The file position of the first byte in the buffer, -1 if nothing is buffered. */
+    private long position = -1;
+
+    private ReadAheadBuffer(int size) {
+      this.buffer = ByteBuffer.allocate(size);
+    }
+
+    private boolean contains(long start, int length) {
+      return position >= 0 && start >= position && start + length <= position + buffer.limit();
+    }
+  }
 }
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.comparator;
+
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.AbstractCompactionTask;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.CrossSpaceCompactionTask;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.InnerSpaceCompactionTask;
+
+/**
+ * Prefers the tasks of the time partitions whose queries read the most extra files, see {@link
+ * AbstractCompactionTask#getQueryCostScore()}. Tasks with similar scores are ordered as in {@link
+ * DefaultCompactionTaskComparatorImpl}.
+ */
+public class QueryAwareCompactionTaskComparatorImpl extends DefaultCompactionTaskComparatorImpl {
+
+  @Override
+  public int compareInnerSpaceCompactionTask(
+      InnerSpaceCompactionTask o1, InnerSpaceCompactionTask o2) {
+    int result = compareQueryCostScore(o1, o2);
+    return result != 0 ? result : super.compareInnerSpaceCompactionTask(o1, o2);
+  }
+
+  @Override
+  public int compareCrossSpaceCompactionTask(
+      CrossSpaceCompactionTask o1, CrossSpaceCompactionTask o2) {
+    int result = compareQueryCostScore(o1, o2);
+    return result != 0 ? result : super.compareCrossSpaceCompactionTask(o1, o2);
+  }
+
+  private int compareQueryCostScore(AbstractCompactionTask o1, AbstractCompactionTask o2) {
+    // if the query cost score of the two tasks differs by more than 10%,
+    // we prefer to execute the task with higher score
+    double score1 = o1.getQueryCostScore();
+    double score2 = o2.getQueryCostScore();
+    if (10 * Math.abs(score1 - score2) > Math.max(score1, score2)) {
+      return Double.compare(score2, score1);
+    }
+    return 0;
+  }
+}
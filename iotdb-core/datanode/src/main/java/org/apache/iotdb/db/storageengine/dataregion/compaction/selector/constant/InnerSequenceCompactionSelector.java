@@ -23,13 +23,15 @@ import org.apache.iotdb.db.i18n.StorageEngineMessages;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleContext;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.IInnerSeqSpaceSelector;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.NewSizeTieredCompactionSelector;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.QueryAwareSizeTieredCompactionSelector;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.SizeTieredCompactionSelector;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
 
 @SuppressWarnings("squid:S6548")
 public enum InnerSequenceCompactionSelector {
   SIZE_TIERED_SINGLE_TARGET,
-  SIZE_TIERED_MULTI_TARGET;
+  SIZE_TIERED_MULTI_TARGET,
+  SIZE_TIERED_QUERY_AWARE;
 
   public static InnerSequenceCompactionSelector getInnerSequenceCompactionSelector(String name) {
     if (SIZE_TIERED_SINGLE_TARGET.toString().equalsIgnoreCase(name)) {
@@ -38,6 +40,9 @@ public enum InnerSequenceCompactionSelector {
     if (SIZE_TIERED_MULTI_TARGET.toString().equalsIgnoreCase(name)) {
       return SIZE_TIERED_MULTI_TARGET;
     }
+    if (SIZE_TIERED_QUERY_AWARE.toString().equalsIgnoreCase(name)) {
+      return SIZE_TIERED_QUERY_AWARE;
+    }
     throw new IllegalCompactionSelectorNameException(
         StorageEngineMessages.ILLEGAL_COMPACTION_SELECTOR + name);
   }
@@ -50,6 +55,9 @@ public enum InnerSequenceCompactionSelector {
       TsFileManager tsFileManager,
       CompactionScheduleContext context) {
     switch (this) {
+      case SIZE_TIERED_QUERY_AWARE:
+        return new QueryAwareSizeTieredCompactionSelector(
+            storageGroupName, dataRegionId, timePartition, true, tsFileManager, context);
       case SIZE_TIERED_MULTI_TARGET:
         return new NewSizeTieredCompactionSelector(
             storageGroupName, dataRegionId, timePartition, true, tsFileManager, context);
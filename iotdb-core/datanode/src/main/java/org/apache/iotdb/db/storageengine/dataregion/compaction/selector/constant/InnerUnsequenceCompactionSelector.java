@@ -23,13 +23,15 @@ import org.apache.iotdb.db.i18n.StorageEngineMessages;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleContext;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.IInnerUnseqSpaceSelector;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.NewSizeTieredCompactionSelector;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.QueryAwareSizeTieredCompactionSelector;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.SizeTieredCompactionSelector;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
 
 @SuppressWarnings("squid:S6548")
 public enum InnerUnsequenceCompactionSelector {
   SIZE_TIERED_SINGLE_TARGET,
-  SIZE_TIERED_MULTI_TARGET;
+  SIZE_TIERED_MULTI_TARGET,
+  SIZE_TIERED_QUERY_AWARE;
 
   public static InnerUnsequenceCompactionSelector getInnerUnsequenceCompactionSelector(
       String name) {
@@ -39,6 +41,9 @@ public enum InnerUnsequenceCompactionSelector {
     if (SIZE_TIERED_MULTI_TARGET.toString().equalsIgnoreCase(name)) {
       return SIZE_TIERED_MULTI_TARGET;
     }
+    if (SIZE_TIERED_QUERY_AWARE.toString().equalsIgnoreCase(name)) {
+      return SIZE_TIERED_QUERY_AWARE;
+    }
     throw new IllegalCompactionSelectorNameException(
         StorageEngineMessages.ILLEGAL_COMPACTION_SELECTOR + name);
   }
@@ -51,6 +56,9 @@ public enum InnerUnsequenceCompactionSelector {
       TsFileManager tsFileManager,
       CompactionScheduleContext context) {
     switch (this) {
+      case SIZE_TIERED_QUERY_AWARE:
+        return new QueryAwareSizeTieredCompactionSelector(
+            storageGroupName, dataRegionId, timePartition, false, tsFileManager, context);
       case SIZE_TIERED_MULTI_TARGET:
         return new NewSizeTieredCompactionSelector(
             storageGroupName, dataRegionId, timePartition, false, tsFileManager, context);
@@ -57,6 +57,7 @@ public abstract class AbstractCrossSpaceEstimator extends AbstractCompactionEsti
       CompactionTaskInfo taskInfo = calculatingCompactionTaskInfo(resources);
       cost += calculatingMetadataMemoryCost(taskInfo);
       cost += calculatingDataMemoryCost(taskInfo);
+      cost += CompactionEstimateUtils.estimateReadAheadMemoryCost(resources.size());
     } finally {
       CompactionEstimateUtils.releaseReadLock(resources);
     }
@@ -59,6 +59,7 @@ public abstract class AbstractInnerSpaceEstimator extends AbstractCompactionEsti
       CompactionTaskInfo taskInfo = calculatingCompactionTaskInfo(resources);
       cost = calculatingMetadataMemoryCost(taskInfo);
       cost += calculatingDataMemoryCost(taskInfo);
+      cost += CompactionEstimateUtils.estimateReadAheadMemoryCost(resources.size());
     } finally {
       CompactionEstimateUtils.releaseReadLock(resources);
     }
@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.storageengine.dataregion.compaction.selector.estimator;
 
 import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.i18n.StorageEngineMessages;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.exception.CompactionSourceFileDeletedException;
@@ -65,6 +66,8 @@ public class CompactionEstimateUtils {
    *
    * <p>max chunk num of one device in this tsfile
    *
+   * <p>aligned device num in this tsfile
+   *
    * @throws IOException if io errors occurred
    */
   static FileInfo calculateFileInfo(TsFileSequenceReader reader) throws IOException {
@@ -72,6 +75,7 @@ public class CompactionEstimateUtils {
     int maxChunkNum = 0;
     int maxAlignedSeriesNumInDevice = -1;
     int maxDeviceChunkNum = 0;
+    int alignedDeviceNum = 0;
     long maxMemCostToReadAlignedSeriesMetadata = 0;
     long maxMemCostToReadNonAlignedSeriesMetadata = 0;
     TsFileDeviceIterator deviceIterator = reader.getAllDevicesIteratorWithIsAligned();
@@ -143,6 +147,7 @@ public class CompactionEstimateUtils {
         }
       }
       if (isAlignedDevice) {
+        alignedDeviceNum++;
         maxAlignedSeriesNumInDevice =
             Math.max(maxAlignedSeriesNumInDevice, alignedSeriesNumInDevice);
       }
@@ -156,11 +161,23 @@ public class CompactionEstimateUtils {
         maxChunkNum,
         maxAlignedSeriesNumInDevice,
         maxDeviceChunkNum,
+        alignedDeviceNum,
         averageChunkMetadataSize,
         maxMemCostToReadAlignedSeriesMetadata,
         maxMemCostToReadNonAlignedSeriesMetadata);
   }
 
+  /**
+   * The read-ahead buffers of the source file readers, one buffer for each source file and each sub
+   * task reading it.
+   */
+  static long estimateReadAheadMemoryCost(int sourceFileNum) {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    return (long) sourceFileNum
+        * Math.max(1, config.getSubCompactionTaskNum())
+        * Math.max(0, config.getCompactionReadAheadSize());
+  }
+
   static CompactionTaskMetadataInfo collectMetadataInfoFromDisk(
       List<TsFileResource> resources, CompactionType taskType) throws IOException {
     CompactionEstimateUtils.addReadLock(resources);
@@ -30,6 +30,7 @@ public class CompactionTaskInfo {
   private long maxChunkMetadataSize = 0;
   private int maxChunkMetadataNumInDevice = 0;
   private int maxChunkMetadataNumInSeries = 0;
+  private int alignedDeviceNum = 0;
   private long modificationFileSize = 0;
   private long totalFileSize = 0;
   private long totalChunkNum = 0;
@@ -50,6 +51,7 @@ public class CompactionTaskInfo {
           Math.max(maxChunkMetadataNumInDevice, fileInfo.maxDeviceChunkNum);
       maxChunkMetadataSize = Math.max(maxChunkMetadataSize, fileInfo.averageChunkMetadataSize);
       totalChunkNum += fileInfo.totalChunkNum;
+      alignedDeviceNum += fileInfo.alignedDeviceNum;
     }
   }
 
@@ -73,6 +75,11 @@ public class CompactionTaskInfo {
     return maxConcurrentSeriesNum;
   }
 
+  /** The sum of the aligned device num of each file, an upper bound of the distinct devices. */
+  public int getAlignedDeviceNum() {
+    return alignedDeviceNum;
+  }
+
   public long getModificationFileSize() {
     return modificationFileSize;
   }
@@ -65,9 +65,10 @@ public class FastCompactionInnerCompactionEstimator extends AbstractInnerSpaceEs
     long maxConcurrentSeriesNum =
         Math.max(
             config.getSubCompactionTaskNum(),
-            Math.min(
-                batchSize <= 0 ? Integer.MAX_VALUE : batchSize,
-                taskInfo.getMaxConcurrentSeriesNum()));
+            Math.min(getAlignedDeviceParallelism(), Math.max(1, taskInfo.getAlignedDeviceNum()))
+                * Math.min(
+                    batchSize <= 0 ? Integer.MAX_VALUE : batchSize,
+                    taskInfo.getMaxConcurrentSeriesNum()));
     long averageChunkSize = taskInfo.getTotalFileSize() / taskInfo.getTotalChunkNum();
 
     long maxConcurrentSeriesSizeOfTotalFiles =
@@ -100,7 +101,10 @@ public class FastCompactionInnerCompactionEstimator extends AbstractInnerSpaceEs
     CompactionTaskMetadataInfo metadataInfo =
         CompactionEstimateUtils.collectMetadataInfoFromCachedFileInfo(
             resources, roughInfoMap, true);
-    int maxConcurrentSeriesNum = metadataInfo.getMaxConcurrentSeriesNum(true);
+    long maxConcurrentSeriesNum = metadataInfo.getMaxConcurrentSeriesNum(true);
+    if (metadataInfo.hasAlignedSeries) {
+      maxConcurrentSeriesNum *= getAlignedDeviceParallelism();
+    }
     long maxChunkSize = config.getTargetChunkSize();
     long maxPageSize = tsFileConfig.getPageSizeInByte();
     int maxOverlapFileNum = calculatingMaxOverlapFileNumInSubCompactionTask(context, resources);
@@ -111,6 +115,13 @@ public class FastCompactionInnerCompactionEstimator extends AbstractInnerSpaceEs
         + metadataInfo.metadataMemCost;
   }
 
+  /** The number of aligned devices compacted at the same time, see FastCompactionPerformer. */
+  private long getAlignedDeviceParallelism() {
+    return config.isEnableParallelAlignedDeviceCompaction()
+        ? Math.max(1, config.getSubCompactionTaskNum())
+        : 1;
+  }
+
   @Override
   protected int calculatingMaxOverlapFileNumInSubCompactionTask(
       @Nullable CompactionScheduleContext context, List<TsFileResource> resources)
@@ -48,6 +48,9 @@ public class FileInfo {
   @SuppressWarnings("squid:S1068")
   int maxDeviceChunkNum = 0;
 
+  // aligned device num in this tsfile
+  int alignedDeviceNum = 0;
+
   long averageChunkMetadataSize = 0;
 
   long maxMemToReadAlignedSeries;
@@ -58,6 +61,7 @@ public class FileInfo {
       int maxSeriesChunkNum,
       int maxAlignedSeriesNumInDevice,
       int maxDeviceChunkNum,
+      int alignedDeviceNum,
       long averageChunkMetadataSize,
       long maxMemToReadAlignedSeries,
       long maxMemToReadNonAlignedSeries) {
@@ -65,6 +69,7 @@ public class FileInfo {
     this.maxSeriesChunkNum = maxSeriesChunkNum;
     this.maxAlignedSeriesNumInDevice = maxAlignedSeriesNumInDevice;
     this.maxDeviceChunkNum = maxDeviceChunkNum;
+    this.alignedDeviceNum = alignedDeviceNum;
     this.averageChunkMetadataSize = averageChunkMetadataSize;
     this.maxMemToReadAlignedSeries = maxMemToReadAlignedSeries;
     this.maxMemToReadNonAlignedSeries = maxMemToReadNonAlignedSeries;
@@ -55,7 +55,7 @@ public class NewSizeTieredCompactionSelector extends SizeTieredCompactionSelecto
   private final long totalFileNumUpperBound;
   // When the number of selected files exceeds this value, the conditions for constructing a
   // compaction task are met.
-  private final int totalFileNumLowerBound;
+  protected int totalFileNumLowerBound;
   private final long singleFileSizeThreshold;
   private final int maxLevelGap;
   private boolean isActiveTimePartition;
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl;
+
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.InnerSpaceCompactionTask;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleContext;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils.PartitionQueryStatistics;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import java.util.List;
+
+/**
+ * A {@link NewSizeTieredCompactionSelector} which also looks at the queries on the time partition.
+ * When the recent queries of an active partition read many files, the partition is compacted once
+ * half of inner_compaction_candidate_file_num files are accumulated, instead of waiting for all of
+ * them, because every merged file saves a file read for each of these queries.
+ */
+public class QueryAwareSizeTieredCompactionSelector extends NewSizeTieredCompactionSelector {
+
+  /** The decayed query count since which the partition is considered as queried. */
+  private static final double MIN_QUERY_COUNT = 10;
+
+  public QueryAwareSizeTieredCompactionSelector(
+      String storageGroupName,
+      String dataRegionId,
+      long timePartition,
+      boolean sequence,
+      TsFileManager tsFileManager,
+      CompactionScheduleContext context) {
+    super(storageGroupName, dataRegionId, timePartition, sequence, tsFileManager, context);
+  }
+
+  @Override
+  public List<InnerSpaceCompactionTask> selectInnerSpaceTask(List<TsFileResource> tsFileResources) {
+    int relaxedFileNumLowerBound = Math.max(2, config.getInnerCompactionCandidateFileNum() / 2);
+    if (isFragmentedForQueries(relaxedFileNumLowerBound)) {
+      totalFileNumLowerBound = relaxedFileNumLowerBound;
+    }
+    return super.selectInnerSpaceTask(tsFileResources);
+  }
+
+  private boolean isFragmentedForQueries(int fileNumThreshold) {
+    PartitionQueryStatistics statistics = PartitionQueryStatistics.getInstance();
+    return statistics.getQueryCount(dataRegionId, timePartition) >= MIN_QUERY_COUNT
+        && statistics.getAvgFileNumPerQuery(dataRegionId, timePartition) >= fileNumThreshold;
+  }
+}
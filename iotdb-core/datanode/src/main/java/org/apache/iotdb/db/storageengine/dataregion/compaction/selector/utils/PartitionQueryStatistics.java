@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The read amplification of the queries on each time partition, i.e. how many TsFiles of the
+ * partition a query has to read. The statistics decay with a half-life of one hour, so they follow
+ * the current workload. Compaction uses them to spend its budget on the partitions where merging
+ * files saves the queries the most file reads.
+ */
+public class PartitionQueryStatistics {
+
+  private static final long HALF_LIFE_IN_MS = 60 * 60 * 1000L;
+
+  /** The statistics decayed below this query count, about ten idle hours, are dropped. */
+  private static final double MIN_QUERY_COUNT = 0.001;
+
+  /** data region id -> time partition -> statistics */
+  private final Map<String, Map<Long, AccessStatistics>> regionStatistics =
+      new ConcurrentHashMap<>();
+
+  private PartitionQueryStatistics() {}
+
+  public static PartitionQueryStatistics getInstance() {
+    return PartitionQueryStatisticsHolder.INSTANCE;
+  }
+
+  public boolean isEnabled() {
+    return IoTDBDescriptor.getInstance().getConfig().isEnableQueryAwareCompaction();
+  }
+
+  /** Record the files of each time partition read by one query of a data region. */
+  public void recordQuery(
+      String dataRegionId, List<TsFileResource> seqResources, List<TsFileResource> unseqResources) {
+    if (!isEnabled() || (seqResources.isEmpty() && unseqResources.isEmpty())) {
+      return;
+    }
+    Map<Long, Integer> fileNumOfPartitions = new HashMap<>();
+    for (TsFileResource resource : seqResources) {
+      fileNumOfPartitions.merge(resource.getTimePartition(), 1, Integer::sum);
+    }
+    for (TsFileResource resource : unseqResources) {
+      fileNumOfPartitions.merge(resource.getTimePartition(), 1, Integer::sum);
+    }
+    long currentTime = System.currentTimeMillis();
+    Map<Long, AccessStatistics> partitionStatistics =
+        regionStatistics.computeIfAbsent(dataRegionId, k -> new ConcurrentHashMap<>());
+    for (Map.Entry<Long, Integer> entry : fileNumOfPartitions.entrySet()) {
+      partitionStatistics
+          .computeIfAbsent(entry.getKey(), k -> new AccessStatistics())
+          .record(entry.getValue(), currentTime);
+    }
+  }
+
+  /**
+   * The files read by the recent queries of the partition beyond one file per query, which is the
+   * number of file reads a full compaction of the partition would save.
+   */
+  public double getQueryCostScore(String dataRegionId, long timePartition) {
+    AccessStatistics statistics = getStatistics(dataRegionId, timePartition);
+    return statistics == null ? 0 : statistics.getExtraFileNum(System.currentTimeMillis());
+  }
+
+  /** The decayed number of the recent queries on the partition. */
+  public double getQueryCount(String dataRegionId, long timePartition) {
+    AccessStatistics statistics = getStatistics(dataRegionId, timePartition);
+    return statistics == null ? 0 : statistics.getQueryCount(System.currentTimeMillis());
+  }
+
+  /** The average number of files read by the recent queries on the partition. */
+  public double getAvgFileNumPerQuery(String dataRegionId, long timePartition) {
+    AccessStatistics statistics = getStatistics(dataRegionId, timePartition);
+    return statistics == null ? 0 : statistics.getAvgFileNum();
+  }
+
+  private AccessStatistics getStatistics(String dataRegionId, long timePartition) {
+    if (dataRegionId == null) {
+      return null;
+    }
+    Map<Long, AccessStatistics> partitionStatistics = regionStatistics.get(dataRegionId);
+    return partitionStatistics == null ? null : partitionStatistics.get(timePartition);
+  }
+
+  /**
+   * Drop the statistics of the partitions of the data region which no longer exist, e.g. deleted or
+   * expired by TTL, and of the partitions not queried for a long time.
+   */
+  public void prune(String dataRegionId, Collection<Long> timePartitions) {
+    Map<Long, AccessStatistics> partitionStatistics = regionStatistics.get(dataRegionId);
+    if (partitionStatistics == null) {
+      return;
+    }
+    Set<Long> existingTimePartitions = new HashSet<>(timePartitions);
+    long currentTime = System.currentTimeMillis();
+    partitionStatistics
+        .entrySet()
+        .removeIf(
+            entry ->
+                !existingTimePartitions.contains(entry.getKey())
+                    || entry.getValue().getQueryCount(currentTime) < MIN_QUERY_COUNT);
+  }
+
+  public void removeDataRegion(String dataRegionId) {
+    regionStatistics.remove(dataRegionId);
+  }
+
+  @TestOnly
+  public void clear() {
+    regionStatistics.clear();
+  }
+
+  private static class AccessStatistics {
+
+    private double queryCount = 0;
+    private double fileNum = 0;
+    private long lastUpdateTime = System.currentTimeMillis();
+
+    private synchronized void record(int queriedFileNum, long currentTime) {
+      decay(currentTime);
+      queryCount += 1;
+      fileNum += queriedFileNum;
+    }
+
+    private synchronized double getQueryCount(long currentTime) {
+      decay(currentTime);
+      return queryCount;
+    }
+
+    private synchronized double getExtraFileNum(long currentTime) {
+      decay(currentTime);
+      return fileNum - queryCount;
+    }
+
+    private synchronized double getAvgFileNum() {
+      return queryCount == 0 ? 0 : fileNum / queryCount;
+    }
+
+    private void decay(long currentTime) {
+      if (currentTime <= lastUpdateTime) {
+        return;
+      }
+      double factor = Math.pow(0.5, (double) (currentTime - lastUpdateTime) / HALF_LIFE_IN_MS);
+      queryCount *= factor;
+      fileNum *= factor;
+      lastUpdateTime = currentTime;
+    }
+  }
+
+  private static class PartitionQueryStatisticsHolder {
+    private static final PartitionQueryStatistics INSTANCE = new PartitionQueryStatistics();
+  }
+}
@@ -155,6 +155,11 @@ public abstract class AbstractMemTable implements IMemTable {
     return memTableMap;
   }
 
+  /** Whether the handed over TVLists of this memtable are sorted by {@link MemTableSorter}. */
+  protected boolean isSortInBackground() {
+    return false;
+  }
+
   /**
    * Create this MemChunk if it's not exist.
    *
@@ -169,7 +174,8 @@ public abstract class AbstractMemTable implements IMemTable {
             deviceId,
             k ->
                 new WritableMemChunkGroup(
-                    EncryptDBUtils.getSecondEncryptParamFromDatabase(database)));
+                    EncryptDBUtils.getSecondEncryptParamFromDatabase(database),
+                    isSortInBackground()));
     for (IMeasurementSchema schema : schemaList) {
       if (schema != null && !memChunkGroup.contains(schema.getMeasurementName())) {
         seriesNumber++;
@@ -187,7 +193,8 @@ public abstract class AbstractMemTable implements IMemTable {
             deviceId,
             k -> {
               seriesNumber += filteredSchemaList.size();
-              return new AlignedWritableMemChunkGroup(filteredSchemaList, k.isTableModel());
+              return new AlignedWritableMemChunkGroup(
+                  filteredSchemaList, k.isTableModel(), isSortInBackground());
             });
     for (IMeasurementSchema schema : schemaList) {
       if (schema != null && !memChunkGroup.contains(schema.getMeasurementName())) {
@@ -22,6 +22,8 @@ package org.apache.iotdb.db.storageengine.dataregion.memtable;
 import org.apache.iotdb.calc.exception.MemoryNotEnoughException;
 import org.apache.iotdb.calc.plan.planner.memory.MemoryReservationManager;
 import org.apache.iotdb.common.rpc.thrift.TSStatus;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.i18n.StorageEngineMessages;
 import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
@@ -53,6 +55,49 @@ public abstract class AbstractWritableMemChunk implements IWritableMemChunk {
 
   protected TVList workingListForFlush;
 
+  /**
+   * Whether the working TVList can be sealed as an immutable segment for the snapshot read. The
+   * small working TVLists are not sealed, so that frequent queries or out-of-order writes do not
+   * pile up tiny segments in the memtable.
+   */
+  protected static boolean canSealForSnapshotRead(TVList list) {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    return config.isEnableMemTableSnapshotRead()
+        && list.rowCount() >= config.getMemTableSnapshotReadSealThreshold();
+  }
+
+  /**
+   * Whether the working TVList should be sealed before appending the rows. A sorted working TVList
+   * read by queries is never made unsorted, otherwise sorting it in place later would reorder the
+   * prefix these queries are reading. It is sealed as an immutable segment instead.
+   */
+  protected static boolean needSealBeforeAppend(TVList list, long[] times, int start, int end) {
+    if (start >= end || !list.isSorted() || !canSealForSnapshotRead(list)) {
+      return false;
+    }
+    boolean outOfOrder = times[start] < list.getMaxTime();
+    for (int i = start + 1; i < end && !outOfOrder; i++) {
+      outOfOrder = times[i] < times[i - 1];
+    }
+    return outOfOrder && isReadByQueries(list);
+  }
+
+  protected static boolean needSealBeforeAppend(TVList list, long time) {
+    return list.isSorted()
+        && time < list.getMaxTime()
+        && canSealForSnapshotRead(list)
+        && isReadByQueries(list);
+  }
+
+  private static boolean isReadByQueries(TVList list) {
+    list.lockQueryList();
+    try {
+      return !list.getQueryContextSet().isEmpty();
+    } finally {
+      list.unlockQueryList();
+    }
+  }
+
   /**
    * Release the TVList if there is no query on it. Otherwise, it should set the first query as the
    * owner. TVList is released until all queries finish. If it throws memory-not-enough exception
@@ -110,6 +155,8 @@ public abstract class AbstractWritableMemChunk implements IWritableMemChunk {
   }
 
   private void tryReleaseTvList(TVList tvList) {
+    // the arrays must not be released while the list is sorted in background
+    MemTableSorter.awaitSort(tvList);
     long tvListRamSize = tvList.calculateRamSize().getRamSize();
     tvList.lockQueryList();
     try {
@@ -69,13 +69,18 @@ public class AlignedWritableMemChunk extends AbstractWritableMemChunk {
   private List<TSDataType> dataTypes;
   private final List<IMeasurementSchema> schemaList;
   // Note: Use AbstractWritableMemChunk.workingListForFlush instead of list in FlushTask
-  private AlignedTVList list;
-  private List<AlignedTVList> sortedList;
+  // volatile since a query may seal the working TVList under the read lock of the data region
+  private volatile AlignedTVList list;
+  // copy-on-write, the queries may iterate it while another query seals the working TVList
+  private volatile List<AlignedTVList> sortedList;
   private long sortedRowCount = 0;
   private final boolean ignoreAllNullRows;
 
   private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
-  private final int TVLIST_SORT_THRESHOLD = CONFIG.getTvListSortThreshold();
+  private int tvListSortThreshold = CONFIG.getTvListSortThreshold();
+
+  // sort the handed over TVLists by MemTableSorter instead of the writer thread
+  private boolean sortInBackground = false;
 
   private static final String UNSUPPORTED_TYPE = DataNodeMiscMessages.UNSUPPORTED_DATA_TYPE;
 
@@ -102,6 +107,18 @@ public class AlignedWritableMemChunk extends AbstractWritableMemChunk {
     this.encryptParameter = encryptParameter;
   }
 
+  public AlignedWritableMemChunk(
+      List<IMeasurementSchema> schemaList,
+      boolean isTableModel,
+      EncryptParameter encryptParameter,
+      boolean sortInBackground) {
+    this(schemaList, isTableModel, encryptParameter);
+    this.sortInBackground = sortInBackground;
+    if (sortInBackground && tvListSortThreshold == 0) {
+      this.tvListSortThreshold = CONFIG.getBackgroundSortMemTableHandoverThreshold();
+    }
+  }
+
   private AlignedWritableMemChunk(
       List<IMeasurementSchema> schemaList, AlignedTVList list, boolean isTableModel) {
     this(schemaList, list, isTableModel, EncryptUtils.getEncryptParameter());
@@ -220,7 +237,11 @@ public class AlignedWritableMemChunk extends AbstractWritableMemChunk {
 
   protected void handoverAlignedTvList() {
     if (!list.isSorted()) {
-      list.sort();
+      if (sortInBackground) {
+        MemTableSorter.getInstance().submit(list);
+      } else {
+        list.sort();
+      }
     }
     sortedList.add(list);
     this.sortedRowCount += list.rowCount();
@@ -228,13 +249,36 @@ public class AlignedWritableMemChunk extends AbstractWritableMemChunk {
     this.dataTypes = list.getTsDataTypes();
   }
 
+  @Override
+  public synchronized void sealUnsortedWorkingTVList() {
+    if (!list.isSorted() && canSealForSnapshotRead(list)) {
+      sealWorkingTVList();
+    }
+  }
+
+  /** Seal the working TVList without sorting it, unlike {@link #handoverAlignedTvList()}. */
+  private void sealWorkingTVList() {
+    if (!list.isSorted()) {
+      MemTableSorter.getInstance().submit(list);
+    }
+    List<AlignedTVList> newSortedList = new ArrayList<>(sortedList);
+    newSortedList.add(list);
+    this.sortedList = newSortedList;
+    this.sortedRowCount += list.rowCount();
+    this.list = AlignedTVList.newAlignedList(new ArrayList<>(dataTypes));
+    this.dataTypes = list.getTsDataTypes();
+  }
+
   @Override
   public void writeAlignedPoints(
       long insertTime, Object[] objectValue, List<IMeasurementSchema> schemaList) {
+    if (needSealBeforeAppend(list, insertTime)) {
+      sealWorkingTVList();
+    }
     Object[] reorderedValue =
         checkAndReorderColumnValuesInInsertPlan(schemaList, objectValue, null).left;
     putAlignedRow(insertTime, reorderedValue);
-    if (TVLIST_SORT_THRESHOLD > 0 && list.rowCount() >= TVLIST_SORT_THRESHOLD) {
+    if (tvListSortThreshold > 0 && list.rowCount() >= tvListSortThreshold) {
       handoverAlignedTvList();
     }
   }
@@ -248,12 +292,15 @@ public class AlignedWritableMemChunk extends AbstractWritableMemChunk {
       int start,
       int end,
       TSStatus[] results) {
+    if (needSealBeforeAppend(list, times, start, end)) {
+      sealWorkingTVList();
+    }
     Pair<Object[], BitMap[]> pair =
         checkAndReorderColumnValuesInInsertPlan(schemaList, valueList, bitMaps);
     Object[] reorderedColumnValues = pair.left;
     BitMap[] reorderedBitMaps = pair.right;
     putAlignedTablet(times, reorderedColumnValues, reorderedBitMaps, start, end, results);
-    if (TVLIST_SORT_THRESHOLD > 0 && list.rowCount() >= TVLIST_SORT_THRESHOLD) {
+    if (tvListSortThreshold > 0 && list.rowCount() >= tvListSortThreshold) {
       handoverAlignedTvList();
     }
   }
@@ -302,6 +349,7 @@ public class AlignedWritableMemChunk extends AbstractWritableMemChunk {
       List<BitMap> bitMaps,
       boolean ignoreAllNullRows,
       Filter globalTimeFilter) {
+    sortPendingLists();
     BitMap columnHasNonNullValue = new BitMap(schemaList.size());
     AtomicInteger hasNonNullValueColumnCount = new AtomicInteger(0);
     Map<Long, BitMap> timestampWithBitmap = new TreeMap<>();
@@ -1010,7 +1058,7 @@ public class AlignedWritableMemChunk extends AbstractWritableMemChunk {
             encodeInfo.maxNumberOfPointsInChunk,
             (encodeInfo.targetChunkSize / getAvgPointSizeOfLargestColumn()));
 
-    if (TVLIST_SORT_THRESHOLD == 0) {
+    if (tvListSortThreshold == 0 && sortedList.isEmpty()) {
       encodeWorkingAlignedTVList(
           ioTaskQueue, encodeInfo.maxNumberOfPointsInChunk, encodeInfo.maxNumberOfPointsInPage);
       return;
@@ -1021,6 +1069,7 @@ public class AlignedWritableMemChunk extends AbstractWritableMemChunk {
       return;
     }
 
+    sortPendingLists();
     AlignedChunkWriterImpl alignedChunkWriter =
         new AlignedChunkWriterImpl(activeSchemaList, encryptParameter);
 
@@ -1143,6 +1192,7 @@ public class AlignedWritableMemChunk extends AbstractWritableMemChunk {
 
   @Override
   public void serializeToWAL(IWALByteBufferView buffer) {
+    sortPendingLists();
     WALWriteUtils.write(schemaList.size(), buffer);
     for (IMeasurementSchema schema : schemaList) {
       buffer.put(serializeSchemaToWALBytes(schema));
@@ -1208,6 +1258,10 @@ public class AlignedWritableMemChunk extends AbstractWritableMemChunk {
     return sortedList;
   }
 
+  private void sortPendingLists() {
+    MemTableSorter.sortPendingLists(sortedList);
+  }
+
   public List<Integer> buildColumnIndexList(List<IMeasurementSchema> schemaList) {
     List<Integer> columnIndexList = new ArrayList<>();
     for (IMeasurementSchema requiredMeasurementSchema : schemaList) {
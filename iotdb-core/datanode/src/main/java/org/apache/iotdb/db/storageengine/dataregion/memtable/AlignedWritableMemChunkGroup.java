@@ -28,6 +28,7 @@ import org.apache.iotdb.db.storageengine.dataregion.modification.ModEntry;
 import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.IWALByteBufferView;
 
 import org.apache.tsfile.encrypt.EncryptParameter;
+import org.apache.tsfile.encrypt.EncryptUtils;
 import org.apache.tsfile.utils.BitMap;
 import org.apache.tsfile.utils.Pair;
 import org.apache.tsfile.write.schema.IMeasurementSchema;
@@ -50,6 +51,13 @@ public class AlignedWritableMemChunkGroup implements IWritableMemChunkGroup {
     memChunk = new AlignedWritableMemChunk(schemaList, isTableModel);
   }
 
+  public AlignedWritableMemChunkGroup(
+      List<IMeasurementSchema> schemaList, boolean isTableModel, boolean sortInBackground) {
+    memChunk =
+        new AlignedWritableMemChunk(
+            schemaList, isTableModel, EncryptUtils.getEncryptParameter(), sortInBackground);
+  }
+
   @TestOnly
   public AlignedWritableMemChunkGroup(
       AlignedWritableMemChunk memChunk, List<IMeasurementSchema> schemaList, boolean isTableModel) {
@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.memtable;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The memtable for the databases with heavy out-of-order writes. The working TVLists of its chunks
+ * are handed over without sorting and sorted by {@link MemTableSorter}, so the writers never sort
+ * under the insert lock of the data region.
+ *
+ * <p>The writes to a data region are still serialized by its insert lock like {@link
+ * PrimitiveMemTable}, only the sorting of out-of-order data is moved off their critical section.
+ */
+public class BackgroundSortMemTable extends AbstractMemTable {
+
+  public BackgroundSortMemTable(String database, String dataRegionId) {
+    super(database, dataRegionId);
+  }
+
+  public BackgroundSortMemTable(
+      String database, String dataRegionId, Map<IDeviceID, IWritableMemChunkGroup> memTableMap) {
+    super(database, dataRegionId, memTableMap);
+  }
+
+  @Override
+  public IMemTable copy() {
+    Map<IDeviceID, IWritableMemChunkGroup> newMap = new HashMap<>(getMemTableMap());
+
+    return new BackgroundSortMemTable(getDatabase(), getDataRegionId(), newMap);
+  }
+
+  @Override
+  protected boolean isSortInBackground() {
+    return true;
+  }
+
+  @Override
+  public boolean isSignalMemTable() {
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return "BackgroundSortMemTable{planIndex=["
+        + getMinPlanIndex()
+        + ","
+        + getMaxPlanIndex()
+        + "]}";
+  }
+}
@@ -131,6 +131,14 @@ public interface IWritableMemChunk extends WALEntryValue {
 
   void setWorkingTVList(TVList list);
 
+  /**
+   * Seal the working TVList as an immutable segment if it is not sorted and not smaller than the
+   * seal threshold, it is sorted by {@link MemTableSorter} and the writers append to a new working
+   * TVList. Called by the queries on the working memtable, which hold the read lock of the data
+   * region.
+   */
+  void sealUnsortedWorkingTVList();
+
   void setEncryptParameter(EncryptParameter encryptParameter);
 
   TVList initWorkingListForFlushIfNecessary(
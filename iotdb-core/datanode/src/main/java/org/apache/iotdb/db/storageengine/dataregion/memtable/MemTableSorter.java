@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.memtable;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.i18n.StorageEngineMessages;
+import org.apache.iotdb.db.utils.datastructure.TVList;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Sorts the TVLists handed over by the chunks of {@link BackgroundSortMemTable}, and the working
+ * TVLists sealed by the queries, in background, so that the writers only append. A handed over list
+ * may be read before it is sorted, in which case the reader sorts it by itself: {@link
+ * TVList#sort()} is synchronized and does nothing on a sorted list.
+ */
+public class MemTableSorter {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MemTableSorter.class);
+
+  // the lists whose background sort is not finished, a list must not be released while it is sorted
+  private static final Map<TVList, Future<?>> PENDING_SORTS = new ConcurrentHashMap<>();
+
+  private final ExecutorService sortExecutor;
+
+  private MemTableSorter() {
+    this.sortExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            IoTDBDescriptor.getInstance().getConfig().getMemTableSortThreadCount(),
+            ThreadName.MEMTABLE_SORT.getName());
+  }
+
+  public static MemTableSorter getInstance() {
+    return MemTableSorterHolder.INSTANCE;
+  }
+
+  /** Sort the handed over TVList in background, or in place if the sorter is shut down. */
+  public void submit(TVList tvList) {
+    FutureTask<Void> sortTask = new FutureTask<>(() -> sort(tvList), null);
+    PENDING_SORTS.put(tvList, sortTask);
+    try {
+      sortExecutor.execute(sortTask);
+    } catch (RejectedExecutionException e) {
+      sortTask.run();
+    }
+  }
+
+  private static void sort(TVList tvList) {
+    try {
+      tvList.sort();
+    } catch (Exception e) {
+      LOGGER.warn(StorageEngineMessages.FAILED_TO_SORT_TVLIST_IN_BACKGROUND, e);
+    } finally {
+      PENDING_SORTS.remove(tvList);
+    }
+  }
+
+  /**
+   * Wait until the background sort of the list, if any, is finished. Must be called before the
+   * arrays of a list are released, otherwise they may be reused by other lists while being sorted.
+   */
+  public static void awaitSort(TVList tvList) {
+    Future<?> sortTask = PENDING_SORTS.get(tvList);
+    if (sortTask == null) {
+      return;
+    }
+    try {
+      Uninterruptibles.getUninterruptibly(sortTask);
+    } catch (ExecutionException e) {
+      // logged by the sort task
+    }
+  }
+
+  @TestOnly
+  static boolean isSortPending(TVList tvList) {
+    return PENDING_SORTS.containsKey(tvList);
+  }
+
+  /**
+   * Sort the handed over TVLists which are not sorted by the background threads yet. Must be called
+   * before reading the lists by their raw arrays, e.g. encoding or serializing them.
+   */
+  public static void sortPendingLists(List<? extends TVList> tvLists) {
+    for (TVList tvList : tvLists) {
+      if (!tvList.isSorted()) {
+        tvList.sort();
+      }
+    }
+  }
+
+  private static class MemTableSorterHolder {
+    private static final MemTableSorter INSTANCE = new MemTableSorter();
+  }
+}
@@ -66,6 +66,7 @@ import org.apache.iotdb.db.storageengine.dataregion.read.filescan.impl.DiskAlign
 import org.apache.iotdb.db.storageengine.dataregion.read.filescan.impl.DiskChunkHandleImpl;
 import org.apache.iotdb.db.storageengine.dataregion.read.filescan.impl.UnclosedFileScanHandleImpl;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.rollup.RollupIndexManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.FileTimeIndexCacheRecorder;
 import org.apache.iotdb.db.storageengine.dataregion.utils.SharedTimeDataBuffer;
 import org.apache.iotdb.db.storageengine.dataregion.utils.tableDiskUsageIndex.TableDiskUsageIndex;
@@ -178,6 +179,12 @@ public class TsFileProcessor {
   /** Working memtable. */
   private IMemTable workMemTable;
 
+  /**
+   * The time when the last memtable is put into the flushing list, Long.MAX_VALUE if no memtable
+   * has been flushed.
+   */
+  private volatile long lastMemTableFlushTime = Long.MAX_VALUE;
+
   /** This callback is called before the workMemtable is added into the flushingMemTables. */
   private final DataRegion.UpdateEndTimeCallBack updateLatestFlushTimeCallback;
 
@@ -1675,6 +1682,19 @@ public class TsFileProcessor {
 
   /** Put the working memtable into flushing list and set the working memtable to null */
   public void asyncFlush() {
+    asyncFlush(true);
+  }
+
+  /**
+   * Put the working memtable into flushing list and set the working memtable to null. Unlike {@link
+   * #asyncFlush()}, the close future is not set, so the following writes go to a new working
+   * memtable of the same file and the file can still be closed by {@link #asyncClose()}.
+   */
+  public void asyncFlushAndKeepOpen() {
+    asyncFlush(false);
+  }
+
+  private void asyncFlush(boolean setCloseFuture) {
     flushQueryLock.writeLock().lock();
     logFlushQueryWriteLocked();
     try {
@@ -1684,7 +1704,10 @@ public class TsFileProcessor {
       logger.info(
           StorageEngineMessages.STORAGE_LOG_ASYNC_FLUSH_A_MEMTABLE_TO_TSFILE_00ED383A,
           tsFileResource.getTsFile().getAbsolutePath());
-      closeFuture = addAMemtableIntoFlushingList(workMemTable);
+      Future<?> future = addAMemtableIntoFlushingList(workMemTable);
+      if (setCloseFuture) {
+        closeFuture = future;
+      }
     } catch (Exception e) {
       logger.error(
           StorageEngineMessages.STORAGE_LOG_ADD_A_MEMTABLE_INTO_FLUSHING_LIST_FAILED_30FA8E58,
@@ -1723,6 +1746,7 @@ public class TsFileProcessor {
 
     long lastWorkMemtableFlushTime = System.currentTimeMillis();
     updateLatestFlushTimeCallback.call(this, lastTimeForEachDevice, lastWorkMemtableFlushTime);
+    lastMemTableFlushTime = lastWorkMemtableFlushTime;
 
     SystemInfo.getInstance().addFlushingMemTableCost(tobeFlushed.getTVListsRamCost());
     flushingMemTables.addLast(tobeFlushed);
@@ -2077,6 +2101,7 @@ public class TsFileProcessor {
             tsFileResource.getDatabaseName(),
             tsFileResource.getTsFileID(),
             writer.getTableSizeMap());
+    RollupIndexManager.getInstance().generate(tsFileResource);
     if (logger.isDebugEnabled()) {
       logger.debug(StorageEngineMessages.ENDED_FILE, tsFileResource);
     }
@@ -2609,6 +2634,28 @@ public class TsFileProcessor {
     return workMemTable != null ? workMemTable.getTVListsRamCost() : 0;
   }
 
+  public int getWorkMemTableSeriesNumber() {
+    return workMemTable != null ? workMemTable.getSeriesNumber() : 0;
+  }
+
+  /**
+   * The size of the file after its flushing memtables are written. The memory of a flushing
+   * memtable is counted as its flushed size, which overestimates rather than underestimates the
+   * file while a flush is running.
+   */
+  public long getEstimatedTsFileSize() {
+    long size = tsFileResource.getTsFileSize();
+    for (IMemTable flushingMemTable : flushingMemTables) {
+      size += flushingMemTable.memSize();
+    }
+    return size;
+  }
+
+  /** Return Long.MAX_VALUE if no memtable has been flushed */
+  public long getLastMemTableFlushTime() {
+    return lastMemTableFlushTime;
+  }
+
   /** Return Long.MAX_VALUE if workMemTable is null */
   public long getWorkMemTableCreatedTime() {
     return workMemTable != null ? workMemTable.getCreatedTime() : Long.MAX_VALUE;
@@ -61,15 +61,20 @@ public class WritableMemChunk extends AbstractWritableMemChunk {
 
   private IMeasurementSchema schema;
   // Note: Use AbstractWritableMemChunk.workingListForFlush instead of list in FlushTask
-  private TVList list;
-  private List<TVList> sortedList;
+  // volatile since a query may seal the working TVList under the read lock of the data region
+  private volatile TVList list;
+  // copy-on-write, the queries may iterate it while another query seals the working TVList
+  private volatile List<TVList> sortedList;
   private long sortedRowCount = 0;
   private static final String UNSUPPORTED_TYPE = DataNodeMiscMessages.UNSUPPORTED_DATA_TYPE;
 
   private static final Logger LOGGER = LoggerFactory.getLogger(WritableMemChunk.class);
 
   private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
-  private final int TVLIST_SORT_THRESHOLD = CONFIG.getTvListSortThreshold();
+  private int tvListSortThreshold = CONFIG.getTvListSortThreshold();
+
+  // sort the handed over TVLists by MemTableSorter instead of the writer thread
+  private boolean sortInBackground = false;
 
   private EncryptParameter encryptParameter;
 
@@ -88,21 +93,56 @@ public class WritableMemChunk extends AbstractWritableMemChunk {
     this.encryptParameter = encryptParameter;
   }
 
+  public WritableMemChunk(
+      IMeasurementSchema schema, EncryptParameter encryptParameter, boolean sortInBackground) {
+    this(schema, encryptParameter);
+    this.sortInBackground = sortInBackground;
+    if (sortInBackground && tvListSortThreshold == 0) {
+      this.tvListSortThreshold = CONFIG.getBackgroundSortMemTableHandoverThreshold();
+    }
+  }
+
   private WritableMemChunk() {
     this.encryptParameter = EncryptUtils.getEncryptParameter();
   }
 
   protected void handoverTvList() {
     if (!list.isSorted()) {
-      list.sort();
+      if (sortInBackground) {
+        MemTableSorter.getInstance().submit(list);
+      } else {
+        list.sort();
+      }
     }
     sortedList.add(list);
     this.sortedRowCount += list.rowCount();
     this.list = TVList.newList(schema.getType());
   }
 
+  @Override
+  public synchronized void sealUnsortedWorkingTVList() {
+    if (!list.isSorted() && canSealForSnapshotRead(list)) {
+      sealWorkingTVList();
+    }
+  }
+
+  /** Seal the working TVList without sorting it, unlike {@link #handoverTvList()}. */
+  private void sealWorkingTVList() {
+    if (!list.isSorted()) {
+      MemTableSorter.getInstance().submit(list);
+    }
+    List<TVList> newSortedList = new ArrayList<>(sortedList);
+    newSortedList.add(list);
+    this.sortedList = newSortedList;
+    this.sortedRowCount += list.rowCount();
+    this.list = TVList.newList(schema.getType());
+  }
+
   @Override
   public void writeNonAlignedPoint(long insertTime, Object objectValue) {
+    if (needSealBeforeAppend(list, insertTime)) {
+      sealWorkingTVList();
+    }
     switch (schema.getType()) {
       case BOOLEAN:
         putBoolean(insertTime, (boolean) objectValue);
@@ -129,7 +169,7 @@ public class WritableMemChunk extends AbstractWritableMemChunk {
       default:
         throw new UnSupportedDataTypeException(UNSUPPORTED_TYPE + schema.getType().name());
     }
-    if (TVLIST_SORT_THRESHOLD > 0 && list.rowCount() >= TVLIST_SORT_THRESHOLD) {
+    if (tvListSortThreshold > 0 && list.rowCount() >= tvListSortThreshold) {
       handoverTvList();
     }
   }
@@ -143,6 +183,9 @@ public class WritableMemChunk extends AbstractWritableMemChunk {
   @Override
   public void writeNonAlignedTablet(
       long[] times, Object valueList, BitMap bitMap, TSDataType dataType, int start, int end) {
+    if (needSealBeforeAppend(list, times, start, end)) {
+      sealWorkingTVList();
+    }
     switch (dataType) {
       case BOOLEAN:
         boolean[] boolValues = (boolean[]) valueList;
@@ -176,7 +219,7 @@ public class WritableMemChunk extends AbstractWritableMemChunk {
       default:
         throw new UnSupportedDataTypeException(UNSUPPORTED_TYPE + dataType.name());
     }
-    if (TVLIST_SORT_THRESHOLD > 0 && list.rowCount() >= TVLIST_SORT_THRESHOLD) {
+    if (tvListSortThreshold > 0 && list.rowCount() >= tvListSortThreshold) {
       handoverTvList();
     }
   }
@@ -348,6 +391,7 @@ public class WritableMemChunk extends AbstractWritableMemChunk {
 
   @Override
   public String toString() {
+    sortPendingLists();
     TimeValuePair firstTvPair = null;
     TimeValuePair lastTvPair = null;
     int size = 0;
@@ -472,12 +516,13 @@ public class WritableMemChunk extends AbstractWritableMemChunk {
 
   @Override
   public void encode(BlockingQueue<Object> ioTaskQueue, BatchEncodeInfo encodeInfo, long[] times) {
-    if (TVLIST_SORT_THRESHOLD == 0) {
+    if (tvListSortThreshold == 0 && sortedList.isEmpty()) {
       encodeWorkingTVList(
           ioTaskQueue, encodeInfo.maxNumberOfPointsInChunk, encodeInfo.targetChunkSize);
       return;
     }
 
+    sortPendingLists();
     ChunkWriterImpl chunkWriterImpl = createIChunkWriter();
     if (sortedList.isEmpty()) {
       encodeInfo.lastIterator = true;
@@ -537,6 +582,7 @@ public class WritableMemChunk extends AbstractWritableMemChunk {
 
   @Override
   public void serializeToWAL(IWALByteBufferView buffer) {
+    sortPendingLists();
     buffer.put(serializeSchemaToWALBytes(schema));
     buffer.putInt(sortedList.size());
     for (TVList tvList : sortedList) {
@@ -571,8 +617,13 @@ public class WritableMemChunk extends AbstractWritableMemChunk {
     return sortedList;
   }
 
+  private void sortPendingLists() {
+    MemTableSorter.sortPendingLists(sortedList);
+  }
+
   public Optional<Long> getAnySatisfiedTimestamp(
       List<TimeRange> deletionList, Filter globalTimeFilter) {
+    sortPendingLists();
     Optional<Long> anySatisfiedTimestamp =
         getAnySatisfiedTimestamp(list, deletionList, globalTimeFilter);
     if (anySatisfiedTimestamp.isPresent()) {
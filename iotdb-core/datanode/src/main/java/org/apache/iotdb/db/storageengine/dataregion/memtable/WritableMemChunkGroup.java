@@ -45,6 +45,7 @@ public class WritableMemChunkGroup implements IWritableMemChunkGroup {
 
   private Map<String, IWritableMemChunk> memChunkMap;
   private EncryptParameter encryptParameter;
+  private boolean sortInBackground = false;
 
   public WritableMemChunkGroup() {
     memChunkMap = new HashMap<>();
@@ -56,6 +57,11 @@ public class WritableMemChunkGroup implements IWritableMemChunkGroup {
     this.encryptParameter = encryptParameter;
   }
 
+  public WritableMemChunkGroup(EncryptParameter encryptParameter, boolean sortInBackground) {
+    this(encryptParameter);
+    this.sortInBackground = sortInBackground;
+  }
+
   @Override
   public void writeTablet(
       long[] times,
@@ -82,7 +88,8 @@ public class WritableMemChunkGroup implements IWritableMemChunkGroup {
 
   private IWritableMemChunk createMemChunkIfNotExistAndGet(IMeasurementSchema schema) {
     return memChunkMap.computeIfAbsent(
-        schema.getMeasurementName(), k -> new WritableMemChunk(schema, encryptParameter));
+        schema.getMeasurementName(),
+        k -> new WritableMemChunk(schema, encryptParameter, sortInBackground));
   }
 
   @Override
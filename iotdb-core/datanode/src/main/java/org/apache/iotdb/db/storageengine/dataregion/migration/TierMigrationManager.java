@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.migration;
+
+import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.commons.exception.DiskSpaceInsufficientException;
+import org.apache.iotdb.commons.utils.CommonDateTimeUtils;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.i18n.StorageEngineMessages;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
+import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.apache.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.tsfile.utils.FSUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Migrates the closed TsFiles across the storage tiers of the data directories. In every round, a
+ * file which is read frequently is promoted to the upper tier, and a file which is not read any
+ * more is moved to the lower tier after its data outlives the TTL of the current tier. The files
+ * are migrated one by one in the caller thread, and the copies are throttled like compaction.
+ */
+public class TierMigrationManager {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TierMigrationManager.class);
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private final RateLimiter rateLimiter =
+      RateLimiter.create(CONFIG.getTierMigrationThroughputMbPerSec() * 1024.0 * 1024.0);
+
+  private TierMigrationManager() {
+    TsFileAccessTracker.getInstance().setEnabled(isEnabled());
+  }
+
+  public static TierMigrationManager getInstance() {
+    return TierMigrationManagerHolder.INSTANCE;
+  }
+
+  public boolean isEnabled() {
+    return CONFIG.isEnableTierMigration() && TierManager.getInstance().getTiersNum() > 1;
+  }
+
+  /** Select the TsFiles to migrate from the data regions and migrate them. */
+  public void migrate(Collection<DataRegion> dataRegions) {
+    List<MigrationCandidate> promotions = new ArrayList<>();
+    List<MigrationCandidate> demotions = new ArrayList<>();
+    long currentTime = CommonDateTimeUtils.currentTime();
+    for (DataRegion dataRegion : dataRegions) {
+      if (dataRegion == null || dataRegion.isDeleted()) {
+        continue;
+      }
+      for (boolean sequence : new boolean[] {true, false}) {
+        for (TsFileResource resource : dataRegion.getTsFileManager().getTsFileList(sequence)) {
+          selectCandidate(resource, currentTime, promotions, demotions);
+        }
+      }
+    }
+    // the reads before this round have been taken into account
+    TsFileAccessTracker.getInstance().decay();
+
+    // the hottest files are promoted first, and the oldest files are moved down first
+    promotions.sort(
+        Comparator.comparingLong((MigrationCandidate candidate) -> candidate.readCount)
+            .reversed());
+    demotions.sort(Comparator.comparingLong(candidate -> candidate.resource.getFileEndTime()));
+    for (List<MigrationCandidate> candidates : Arrays.asList(promotions, demotions)) {
+      for (MigrationCandidate candidate : candidates) {
+        if (Thread.currentThread().isInterrupted()) {
+          return;
+        }
+        migrate(candidate.resource, candidate.targetTierLevel);
+      }
+    }
+  }
+
+  private void selectCandidate(
+      TsFileResource resource,
+      long currentTime,
+      List<MigrationCandidate> promotions,
+      List<MigrationCandidate> demotions) {
+    if (resource.getStatus() != TsFileResourceStatus.NORMAL
+        || !FSUtils.isLocal(resource.getTsFilePath())
+        || resource.onRemote()) {
+      return;
+    }
+    int tierLevel = resource.getTierLevel();
+    long readCount = TsFileAccessTracker.getInstance().getReadCount(resource.getTsFileID());
+    if (readCount >= CONFIG.getTierMigrationHotFileReadThreshold()) {
+      if (tierLevel > 0) {
+        promotions.add(new MigrationCandidate(resource, tierLevel - 1, readCount));
+      }
+    } else if (readCount == 0
+        && tierLevel < TierManager.getInstance().getTiersNum() - 1
+        && outlivesTierTTL(resource, tierLevel, currentTime)) {
+      demotions.add(new MigrationCandidate(resource, tierLevel + 1, readCount));
+    }
+  }
+
+  private boolean outlivesTierTTL(TsFileResource resource, int tierLevel, long currentTime) {
+    long[] tierTTLInMs = CommonDescriptor.getInstance().getConfig().getTierTTLInMs();
+    if (tierLevel >= tierTTLInMs.length || tierTTLInMs[tierLevel] == Long.MAX_VALUE) {
+      return false;
+    }
+    long tierTTL =
+        CommonDateTimeUtils.convertMilliTimeWithPrecision(
+            tierTTLInMs[tierLevel],
+            CommonDescriptor.getInstance().getConfig().getTimestampPrecision());
+    return resource.getFileEndTime() < currentTime - tierTTL;
+  }
+
+  private void migrate(TsFileResource resource, int targetTierLevel) {
+    // take the file over like a compaction task, so that it is not selected by compaction
+    if (!resource.transformStatus(TsFileResourceStatus.COMPACTION_CANDIDATE)) {
+      return;
+    }
+    int sourceTierLevel = resource.getTierLevel();
+    File sourceFile = resource.getTsFile();
+    try {
+      if (!resource.transformStatus(TsFileResourceStatus.COMPACTING)) {
+        return;
+      }
+      String targetFolder =
+          TierManager.getInstance().getNextFolderForTsFile(targetTierLevel, resource.isSeq());
+      if (!FSUtils.isLocal(targetFolder)) {
+        return;
+      }
+      long startTime = System.currentTimeMillis();
+      long fileSize = resource.getTsFileSize();
+      File targetFile = getTargetFile(sourceFile, targetFolder);
+      if (new TierMigrationTask(resource, targetFile, targetTierLevel, rateLimiter).migrate()) {
+        TierMigrationMetrics.getInstance()
+            .recordMigration(sourceTierLevel, targetTierLevel, fileSize);
+        LOGGER.info(
+            StorageEngineMessages.TSFILE_MIGRATED_ACROSS_TIERS,
+            sourceFile,
+            sourceTierLevel,
+            targetTierLevel,
+            System.currentTimeMillis() - startTime);
+      }
+    } catch (DiskSpaceInsufficientException e) {
+      LOGGER.warn(StorageEngineMessages.NO_SPACE_FOR_TIER_MIGRATION, targetTierLevel, sourceFile);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      LOGGER.warn(
+          StorageEngineMessages.FAILED_TO_MIGRATE_TSFILE,
+          sourceFile,
+          sourceTierLevel,
+          targetTierLevel,
+          e);
+    } finally {
+      resource.setStatus(TsFileResourceStatus.NORMAL);
+    }
+  }
+
+  /** The target keeps the same database, data region and time partition directories. */
+  private static File getTargetFile(File sourceFile, String targetFolder) {
+    File partitionDir = sourceFile.getParentFile();
+    File dataRegionDir = partitionDir.getParentFile();
+    File databaseDir = dataRegionDir.getParentFile();
+    return FSFactoryProducer.getFSFactory()
+        .getFile(
+            targetFolder
+                + File.separator
+                + databaseDir.getName()
+                + File.separator
+                + dataRegionDir.getName()
+                + File.separator
+                + partitionDir.getName(),
+            sourceFile.getName());
+  }
+
+  private static class MigrationCandidate {
+
+    private final TsFileResource resource;
+    private final int targetTierLevel;
+    private final long readCount;
+
+    private MigrationCandidate(TsFileResource resource, int targetTierLevel, long readCount) {
+      this.resource = resource;
+      this.targetTierLevel = targetTierLevel;
+      this.readCount = readCount;
+    }
+  }
+
+  private static class TierMigrationManagerHolder {
+    private static final TierMigrationManager INSTANCE = new TierMigrationManager();
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.migration;
+
+import org.apache.iotdb.commons.service.metric.enums.Metric;
+import org.apache.iotdb.commons.service.metric.enums.Tag;
+import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
+import org.apache.iotdb.metrics.AbstractMetricService;
+import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.type.Counter;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.metrics.utils.MetricType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** The bytes and files moved across storage tiers, tagged by the direction and the target tier. */
+public class TierMigrationMetrics implements IMetricSet {
+
+  private static final String PROMOTE = "promote";
+  private static final String DEMOTE = "demote";
+  private static final String[] TYPES = {PROMOTE, DEMOTE};
+
+  // target tier level -> Counter[promote, demote]
+  private final Map<Integer, Counter[]> dataMovedCounters = new ConcurrentHashMap<>();
+  private final Map<Integer, Counter[]> fileCountCounters = new ConcurrentHashMap<>();
+
+  private TierMigrationMetrics() {}
+
+  public static TierMigrationMetrics getInstance() {
+    return TierMigrationMetricsHolder.INSTANCE;
+  }
+
+  public void recordMigration(int sourceTierLevel, int targetTierLevel, long bytes) {
+    Counter[] dataMoved = dataMovedCounters.get(targetTierLevel);
+    Counter[] fileCount = fileCountCounters.get(targetTierLevel);
+    if (dataMoved == null || fileCount == null) {
+      return;
+    }
+    int typeIndex = targetTierLevel < sourceTierLevel ? 0 : 1;
+    dataMoved[typeIndex].inc(bytes);
+    fileCount[typeIndex].inc();
+  }
+
+  @Override
+  public void bindTo(AbstractMetricService metricService) {
+    for (int tierLevel = 0; tierLevel < TierManager.getInstance().getTiersNum(); tierLevel++) {
+      Counter[] dataMoved = new Counter[TYPES.length];
+      Counter[] fileCount = new Counter[TYPES.length];
+      for (int i = 0; i < TYPES.length; i++) {
+        dataMoved[i] =
+            metricService.getOrCreateCounter(
+                Metric.TIER_MIGRATION_DATA_MOVED.toString(),
+                MetricLevel.IMPORTANT,
+                Tag.TYPE.toString(),
+                TYPES[i],
+                Tag.LEVEL.toString(),
+                String.valueOf(tierLevel));
+        fileCount[i] =
+            metricService.getOrCreateCounter(
+                Metric.TIER_MIGRATION_FILE_COUNT.toString(),
+                MetricLevel.IMPORTANT,
+                Tag.TYPE.toString(),
+                TYPES[i],
+                Tag.LEVEL.toString(),
+                String.valueOf(tierLevel));
+      }
+      dataMovedCounters.put(tierLevel, dataMoved);
+      fileCountCounters.put(tierLevel, fileCount);
+    }
+  }
+
+  @Override
+  public void unbindFrom(AbstractMetricService metricService) {
+    for (int tierLevel : dataMovedCounters.keySet()) {
+      for (String type : TYPES) {
+        metricService.remove(
+            MetricType.COUNTER,
+            Metric.TIER_MIGRATION_DATA_MOVED.toString(),
+            Tag.TYPE.toString(),
+            type,
+            Tag.LEVEL.toString(),
+            String.valueOf(tierLevel));
+        metricService.remove(
+            MetricType.COUNTER,
+            Metric.TIER_MIGRATION_FILE_COUNT.toString(),
+            Tag.TYPE.toString(),
+            type,
+            Tag.LEVEL.toString(),
+            String.valueOf(tierLevel));
+      }
+    }
+    dataMovedCounters.clear();
+    fileCountCounters.clear();
+  }
+
+  private static class TierMigrationMetricsHolder {
+    private static final TierMigrationMetrics INSTANCE = new TierMigrationMetrics();
+  }
+}
@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.migration;
+
+import org.apache.iotdb.db.i18n.StorageEngineMessages;
+import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFile;
+import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.rollup.RollupIndex;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.rollup.RollupIndexManager;
+import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves a closed TsFile to the directory of another storage tier. The TsFile, its resource file and
+ * its rollup index are copied with throttling while the queries are still reading the source. Then
+ * the resource is switched to the copy under its write lock, which is only taken when no query
+ * holds a reference of the file, so every query reads either the source or the target as a whole.
+ */
+public class TierMigrationTask {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TierMigrationTask.class);
+
+  public static final String MIGRATING_SUFFIX = ".migrating";
+
+  public static final String MIGRATING_RESOURCE_SUFFIX =
+      TsFileResource.RESOURCE_SUFFIX + MIGRATING_SUFFIX;
+
+  private static final long COPY_BLOCK_SIZE = 1024 * 1024L;
+
+  private static final long SWITCH_LOCK_TIMEOUT_IN_MS = 60_000L;
+
+  private static final long SWITCH_LOCK_RETRY_INTERVAL_IN_MS = 100L;
+
+  private final TsFileResource resource;
+  private final File targetFile;
+  private final int targetTierLevel;
+  private final RateLimiter rateLimiter;
+
+  public TierMigrationTask(
+      TsFileResource resource, File targetFile, int targetTierLevel, RateLimiter rateLimiter) {
+    this.resource = resource;
+    this.targetFile = targetFile;
+    this.targetTierLevel = targetTierLevel;
+    this.rateLimiter = rateLimiter;
+  }
+
+  /**
+   * The caller should have set the resource to COMPACTING, so that it is not selected by compaction
+   * during the migration.
+   *
+   * <p>The resource file of the source is deleted before the resource file of the target is moved
+   * in place, which commits the migration. So if the system crashes during the migration, at most
+   * one copy has the resource file and the recovery keeps it. If none has, the migration has been
+   * committed and the recovery moves the resource file of the target in place.
+   *
+   * @return false if the file is deleted, or it is read by queries for too long to be switched
+   */
+  public boolean migrate() throws IOException, InterruptedException {
+    File sourceFile = resource.getTsFile();
+    File sourceResourceFile = new File(sourceFile.getPath() + TsFileResource.RESOURCE_SUFFIX);
+    File sourceRollupIndexFile = RollupIndex.getRollupIndexFile(sourceFile);
+    ModificationFile sourceModFile = resource.getExclusiveModFile();
+
+    File targetResourceFile = new File(targetFile.getPath() + TsFileResource.RESOURCE_SUFFIX);
+    File targetRollupIndexFile = RollupIndex.getRollupIndexFile(targetFile);
+    List<File> targetFiles = Arrays.asList(targetFile, targetRollupIndexFile, targetResourceFile);
+
+    ModificationFile targetModFile = null;
+    boolean committed = false;
+    try {
+      Files.createDirectories(targetFile.getParentFile().toPath());
+      copy(sourceFile, getMigratingFile(targetFile));
+      boolean hasRollupIndex = sourceRollupIndexFile.exists();
+      if (hasRollupIndex) {
+        copy(sourceRollupIndexFile, getMigratingFile(targetRollupIndexFile));
+      }
+      if (!tryWriteLock()) {
+        LOGGER.info(StorageEngineMessages.SKIP_MIGRATING_TSFILE_READ_BY_QUERIES, sourceFile);
+        return false;
+      }
+      try {
+        if (resource.isDeleted()) {
+          return false;
+        }
+        moveInPlace(targetFile);
+        if (hasRollupIndex) {
+          moveInPlace(targetRollupIndexFile);
+        }
+        targetModFile = resource.copyModFileForMigration(targetFile);
+        // the resource file may be updated during the copy of the TsFile, so it is copied here
+        copy(sourceResourceFile, getMigratingFile(targetResourceFile));
+        Files.delete(sourceResourceFile.toPath());
+        // from now on, the recovery keeps the target even if the switch fails
+        committed = true;
+        moveInPlace(targetResourceFile);
+        // no query holds the file now, the cached reader of the source can be closed safely
+        FileReaderManager.getInstance().closeFileAndRemoveReader(resource.getTsFileID());
+        resource.switchToMigratedFile(targetFile, targetModFile, targetTierLevel);
+      } finally {
+        resource.writeUnlock();
+      }
+    } finally {
+      if (!committed) {
+        if (targetModFile != null) {
+          sourceModFile.setCascadeFile(null);
+          targetModFile.remove();
+        }
+        for (File file : targetFiles) {
+          deleteQuietly(getMigratingFile(file));
+          deleteQuietly(file);
+        }
+      }
+    }
+
+    deleteQuietly(sourceFile);
+    RollupIndexManager.getInstance().remove(sourceFile);
+    // the deletions still holding the source mod file are only written to the target from now on
+    sourceModFile.remove();
+    return true;
+  }
+
+  /**
+   * Recover the interrupted migration of a TsFile which has a copy in two tiers, and return the
+   * redundant copy. The copy with the resource file is kept. If none has it, the migration has been
+   * committed and the resource file of the target is moved in place.
+   *
+   * @return the copy to delete, or null if the copies are not left by a migration
+   */
+  public static File recover(File copy1, File copy2) throws IOException {
+    boolean copy1Sealed = hasResourceFile(copy1);
+    if (copy1Sealed != hasResourceFile(copy2)) {
+      // the target is a partial copy, or the source is partially deleted
+      return copy1Sealed ? copy2 : copy1;
+    }
+    if (copy1Sealed) {
+      // both copies are complete, keep the one on the upper tier
+      TierManager tierManager = TierManager.getInstance();
+      return tierManager.getFileTierLevel(copy1) <= tierManager.getFileTierLevel(copy2)
+          ? copy2
+          : copy1;
+    }
+    for (File copy : new File[] {copy1, copy2}) {
+      File resourceFile = new File(copy.getPath() + TsFileResource.RESOURCE_SUFFIX);
+      File migratingResourceFile = getMigratingFile(resourceFile);
+      if (migratingResourceFile.exists()) {
+        Files.move(migratingResourceFile.toPath(), resourceFile.toPath());
+        return copy == copy1 ? copy2 : copy1;
+      }
+    }
+    return null;
+  }
+
+  /** Delete a copy of the TsFile with its resource file, mod file and rollup index. */
+  public static void deleteCopy(File tsFile) throws IOException {
+    Files.deleteIfExists(tsFile.toPath());
+    for (String suffix :
+        new String[] {
+          TsFileResource.RESOURCE_SUFFIX,
+          MIGRATING_RESOURCE_SUFFIX,
+          ModificationFile.FILE_SUFFIX,
+          RollupIndex.FILE_SUFFIX
+        }) {
+      Files.deleteIfExists(new File(tsFile.getPath() + suffix).toPath());
+    }
+  }
+
+  private static boolean hasResourceFile(File tsFile) {
+    return new File(tsFile.getPath() + TsFileResource.RESOURCE_SUFFIX).exists();
+  }
+
+  private static void moveInPlace(File targetFile) throws IOException {
+    Files.move(
+        getMigratingFile(targetFile).toPath(),
+        targetFile.toPath(),
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private void copy(File source, File target) throws IOException {
+    try (FileChannel sourceChannel = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+        FileChannel targetChannel =
+            FileChannel.open(
+                target.toPath(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+      long size = sourceChannel.size();
+      long position = 0;
+      while (position < size) {
+        long length = Math.min(COPY_BLOCK_SIZE, size - position);
+        rateLimiter.acquire((int) length);
+        position += sourceChannel.transferTo(position, length, targetChannel);
+      }
+      targetChannel.force(true);
+    }
+  }
+
+  private boolean tryWriteLock() throws InterruptedException {
+    long deadline = System.currentTimeMillis() + SWITCH_LOCK_TIMEOUT_IN_MS;
+    while (!resource.tryWriteLock()) {
+      if (System.currentTimeMillis() >= deadline) {
+        return false;
+      }
+      TimeUnit.MILLISECONDS.sleep(SWITCH_LOCK_RETRY_INTERVAL_IN_MS);
+    }
+    return true;
+  }
+
+  private static File getMigratingFile(File targetFile) {
+    return new File(targetFile.getPath() + MIGRATING_SUFFIX);
+  }
+
+  private static void deleteQuietly(File file) {
+    try {
+      Files.deleteIfExists(file.toPath());
+    } catch (IOException e) {
+      LOGGER.warn(StorageEngineMessages.FAILED_TO_DELETE_FILE_OF_TIER_MIGRATION, file, e);
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.migration;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.storageengine.buffer.ChunkCache;
+import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the reads of the TsFiles for the tier migration. A read is recorded when the {@link
+ * FileReaderManager} opens a reader of the file or a chunk of the file misses the {@link
+ * ChunkCache}. The counts are halved in every round of the migration check, so they reflect the
+ * recent read frequency, and the files which are not read any more are forgotten.
+ */
+public class TsFileAccessTracker {
+
+  private final Map<TsFileID, AtomicLong> readCounts = new ConcurrentHashMap<>();
+
+  private volatile boolean enabled = false;
+
+  private TsFileAccessTracker() {}
+
+  public static TsFileAccessTracker getInstance() {
+    return TsFileAccessTrackerHolder.INSTANCE;
+  }
+
+  void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public void recordRead(TsFileID tsFileID) {
+    if (enabled) {
+      readCounts.computeIfAbsent(tsFileID, k -> new AtomicLong()).incrementAndGet();
+    }
+  }
+
+  public long getReadCount(TsFileID tsFileID) {
+    AtomicLong readCount = readCounts.get(tsFileID);
+    return readCount == null ? 0 : readCount.get();
+  }
+
+  /** Halve the read counts, the files whose count drops to zero are removed. */
+  public void decay() {
+    readCounts.values().removeIf(readCount -> readCount.updateAndGet(count -> count >> 1) == 0);
+  }
+
+  @TestOnly
+  public void clear() {
+    readCounts.clear();
+  }
+
+  private static class TsFileAccessTrackerHolder {
+    private static final TsFileAccessTracker INSTANCE = new TsFileAccessTracker();
+  }
+}
@@ -21,6 +21,7 @@ package org.apache.iotdb.db.storageengine.dataregion.read.control;
 
 import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.i18n.StorageEngineMessages;
+import org.apache.iotdb.db.storageengine.dataregion.migration.TsFileAccessTracker;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.utils.EncryptDBUtils;
@@ -184,6 +185,7 @@ public class FileReaderManager {
                 filePath,
                 ioSizeRecorder,
                 EncryptDBUtils.getFirstEncryptParamFromTSFilePath(filePath));
+        TsFileAccessTracker.getInstance().recordRead(tsFileID);
       }
       readerMap.put(tsFileID, tsFileReader);
       return tsFileReader;
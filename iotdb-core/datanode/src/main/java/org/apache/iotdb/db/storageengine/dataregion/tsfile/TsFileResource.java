@@ -45,6 +45,7 @@ import org.apache.iotdb.db.storageengine.dataregion.modification.v1.Deletion;
 import org.apache.iotdb.db.storageengine.dataregion.modification.v1.Modification;
 import org.apache.iotdb.db.storageengine.dataregion.modification.v1.ModificationFileV1;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.generator.TsFileNameGenerator;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.rollup.RollupIndexManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ArrayDeviceTimeIndex;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.FileTimeIndex;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.ITimeIndex;
@@ -76,6 +77,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -452,6 +455,43 @@ public class TsFileResource implements PersistentResource, Cloneable {
     }
   }
 
+  /**
+   * Copy the exclusive mod file beside the copy of this TsFile on another storage tier. The
+   * deletions written to this resource afterwards are also written to the target, until the source
+   * mod file is removed after the migration.
+   */
+  public ModificationFile copyModFileForMigration(File targetTsFile) throws IOException {
+    ModificationFile sourceModFile = getExclusiveModFile();
+    File targetModsFile = ModificationFile.getExclusiveMods(targetTsFile);
+    sourceModFile.writeLock();
+    try {
+      if (sourceModFile.exists()) {
+        Files.copy(
+            sourceModFile.getFile().toPath(),
+            targetModsFile.toPath(),
+            StandardCopyOption.REPLACE_EXISTING);
+      } else {
+        Files.deleteIfExists(targetModsFile.toPath());
+      }
+      ModificationFile targetModFile = new ModificationFile(targetModsFile, true);
+      sourceModFile.setCascadeFile(Collections.singleton(targetModFile));
+      return targetModFile;
+    } finally {
+      sourceModFile.writeUnlock();
+    }
+  }
+
+  /**
+   * Switch this resource to the copy of its TsFile on another storage tier, the caller should hold
+   * the write lock.
+   */
+  public void switchToMigratedFile(
+      File targetTsFile, ModificationFile targetModFile, int targetTierLevel) {
+    setExclusiveModFile(targetModFile);
+    setFile(targetTsFile);
+    tierLevel.set(targetTierLevel);
+  }
+
   public boolean compactionModFileExists() {
     return getCompactionModFile().exists();
   }
@@ -893,6 +933,7 @@ public class TsFileResource implements PersistentResource, Cloneable {
       LOGGER.error(StorageEngineMessages.TSFILE_CANNOT_BE_DELETED, file, e.getMessage());
       return false;
     }
+    RollupIndexManager.getInstance().remove(file);
     if (!removeResourceFile()) {
       return false;
     }
@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.tsfile.rollup;
+
+import org.apache.iotdb.db.i18n.StorageEngineMessages;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.StringArrayDeviceID;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.utils.RamUsageEstimator;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pre-aggregated statistics of one sealed TsFile. For every series, the data is split into buckets
+ * of a fixed interval aligned to the epoch, and the statistics (count/sum/min/max/first/last) of
+ * each non-empty bucket are kept, so that a GROUP BY TIME window made of whole buckets can be
+ * answered without decoding any page.
+ *
+ * <p>The time column of an aligned device is recorded as the series with the empty measurement
+ * name, the same as in the TsFile.
+ */
+public class RollupIndex {
+
+  public static final String FILE_SUFFIX = ".rollup";
+
+  public static final String TIME_COLUMN = "";
+
+  private static final byte VERSION = 1;
+
+  /** Placeholder of the files without rollup index, it never matches any time range. */
+  public static final RollupIndex EMPTY = new RollupIndex(0);
+
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(RollupIndex.class);
+
+  private final long interval;
+
+  private final Map<IDeviceID, Map<String, SeriesRollup>> deviceSeriesRollupMap = new HashMap<>();
+
+  public RollupIndex(long interval) {
+    this.interval = interval;
+  }
+
+  public static File getRollupIndexFile(File tsFile) {
+    return new File(tsFile.getPath() + FILE_SUFFIX);
+  }
+
+  public long getInterval() {
+    return interval;
+  }
+
+  public boolean isEmpty() {
+    return deviceSeriesRollupMap.isEmpty();
+  }
+
+  /** Whether the time range [startTime, endTime] consists of whole buckets of this index. */
+  public boolean isAligned(long startTime, long endTime) {
+    return interval > 0
+        && !isEmpty()
+        && endTime >= startTime
+        && Math.floorMod(startTime, interval) == 0
+        && endTime != Long.MAX_VALUE
+        && Math.floorMod(endTime + 1, interval) == 0;
+  }
+
+  public long getBucketStartTime(long time) {
+    return Math.floorDiv(time, interval) * interval;
+  }
+
+  public void putSeriesRollup(IDeviceID deviceID, String measurement, SeriesRollup rollup) {
+    deviceSeriesRollupMap.computeIfAbsent(deviceID, k -> new HashMap<>()).put(measurement, rollup);
+  }
+
+  public SeriesRollup getSeriesRollup(IDeviceID deviceID, String measurement) {
+    Map<String, SeriesRollup> seriesRollupMap = deviceSeriesRollupMap.get(deviceID);
+    return seriesRollupMap == null ? null : seriesRollupMap.get(measurement);
+  }
+
+  public long getRetainedSizeInBytes() {
+    long size = INSTANCE_SIZE;
+    for (Map.Entry<IDeviceID, Map<String, SeriesRollup>> entry :
+        deviceSeriesRollupMap.entrySet()) {
+      size += entry.getKey().ramBytesUsed();
+      for (Map.Entry<String, SeriesRollup> seriesEntry : entry.getValue().entrySet()) {
+        size +=
+            RamUsageEstimator.sizeOf(seriesEntry.getKey())
+                + seriesEntry.getValue().getRetainedSizeInBytes();
+      }
+    }
+    return size;
+  }
+
+  public void serialize(OutputStream stream) throws IOException {
+    ReadWriteIOUtils.write(VERSION, stream);
+    ReadWriteIOUtils.write(interval, stream);
+    ReadWriteIOUtils.write(deviceSeriesRollupMap.size(), stream);
+    for (Map.Entry<IDeviceID, Map<String, SeriesRollup>> entry :
+        deviceSeriesRollupMap.entrySet()) {
+      entry.getKey().serialize(stream);
+      ReadWriteIOUtils.write(entry.getValue().size(), stream);
+      for (Map.Entry<String, SeriesRollup> seriesEntry : entry.getValue().entrySet()) {
+        ReadWriteIOUtils.write(seriesEntry.getKey(), stream);
+        seriesEntry.getValue().serialize(stream);
+      }
+    }
+  }
+
+  public static RollupIndex deserialize(InputStream stream) throws IOException {
+    byte version = ReadWriteIOUtils.readByte(stream);
+    if (version != VERSION) {
+      throw new IOException(
+          String.format(StorageEngineMessages.UNSUPPORTED_ROLLUP_INDEX_VERSION, version));
+    }
+    RollupIndex rollupIndex = new RollupIndex(ReadWriteIOUtils.readLong(stream));
+    int deviceNum = ReadWriteIOUtils.readInt(stream);
+    for (int i = 0; i < deviceNum; i++) {
+      IDeviceID deviceID = StringArrayDeviceID.deserialize(stream);
+      int seriesNum = ReadWriteIOUtils.readInt(stream);
+      for (int j = 0; j < seriesNum; j++) {
+        String measurement = ReadWriteIOUtils.readString(stream);
+        rollupIndex.putSeriesRollup(deviceID, measurement, SeriesRollup.deserialize(stream));
+      }
+    }
+    return rollupIndex;
+  }
+
+  /** The non-empty buckets of one series, sorted by the start time of the bucket. */
+  public static class SeriesRollup {
+
+    private static final long INSTANCE_SIZE =
+        RamUsageEstimator.shallowSizeOfInstance(SeriesRollup.class);
+
+    private final TSDataType dataType;
+    private final long[] bucketStartTimes;
+    private final Statistics<? extends Serializable>[] bucketStatistics;
+
+    public SeriesRollup(
+        TSDataType dataType,
+        long[] bucketStartTimes,
+        Statistics<? extends Serializable>[] bucketStatistics) {
+      this.dataType = dataType;
+      this.bucketStartTimes = bucketStartTimes;
+      this.bucketStatistics = bucketStatistics;
+    }
+
+    public TSDataType getDataType() {
+      return dataType;
+    }
+
+    public int getBucketCount() {
+      return bucketStartTimes.length;
+    }
+
+    /**
+     * Merge the buckets starting in [startTime, endTime].
+     *
+     * @return null if there is no data in the time range
+     */
+    public Statistics<? extends Serializable> merge(long startTime, long endTime) {
+      int index = Arrays.binarySearch(bucketStartTimes, startTime);
+      if (index < 0) {
+        index = -index - 1;
+      }
+      Statistics<? extends Serializable> result = null;
+      for (; index < bucketStartTimes.length && bucketStartTimes[index] <= endTime; index++) {
+        if (result == null) {
+          result = Statistics.getStatsByType(dataType);
+        }
+        result.mergeStatistics(bucketStatistics[index]);
+      }
+      return result;
+    }
+
+    public long getRetainedSizeInBytes() {
+      long size =
+          INSTANCE_SIZE
+              + RamUsageEstimator.sizeOf(bucketStartTimes)
+              + RamUsageEstimator.shallowSizeOf(bucketStatistics);
+      for (Statistics<? extends Serializable> statistics : bucketStatistics) {
+        size += statistics.getRetainedSizeInBytes();
+      }
+      return size;
+    }
+
+    private void serialize(OutputStream stream) throws IOException {
+      ReadWriteIOUtils.write(dataType.serialize(), stream);
+      ReadWriteIOUtils.write(bucketStartTimes.length, stream);
+      for (int i = 0; i < bucketStartTimes.length; i++) {
+        ReadWriteIOUtils.write(bucketStartTimes[i], stream);
+        bucketStatistics[i].serialize(stream);
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SeriesRollup deserialize(InputStream stream) throws IOException {
+      TSDataType dataType = TSDataType.deserialize(ReadWriteIOUtils.readByte(stream));
+      int bucketNum = ReadWriteIOUtils.readInt(stream);
+      long[] bucketStartTimes = new long[bucketNum];
+      Statistics<? extends Serializable>[] bucketStatistics = new Statistics[bucketNum];
+      for (int i = 0; i < bucketNum; i++) {
+        bucketStartTimes[i] = ReadWriteIOUtils.readLong(stream);
+        bucketStatistics[i] = Statistics.deserialize(stream, dataType);
+      }
+      return new SeriesRollup(dataType, bucketStartTimes, bucketStatistics);
+    }
+  }
+}
@@ -0,0 +1,346 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.tsfile.rollup;
+
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.rollup.RollupIndex.SeriesRollup;
+import org.apache.iotdb.db.utils.EncryptDBUtils;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.AbstractAlignedChunkMetadata;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.file.metadata.statistics.TimeStatistics;
+import org.apache.tsfile.read.TsFileDeviceIterator;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.read.common.BatchData;
+import org.apache.tsfile.read.common.Chunk;
+import org.apache.tsfile.read.reader.IPageReader;
+import org.apache.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.tsfile.read.reader.chunk.TableChunkReader;
+import org.apache.tsfile.utils.Pair;
+import org.apache.tsfile.utils.TsPrimitiveType;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Builds the {@link RollupIndex} of a sealed TsFile. Chunks and pages lying in a single bucket are
+ * rolled up from their statistics directly, only the pages crossing bucket boundaries are decoded.
+ * This holds for both non-aligned and aligned series.
+ */
+public class RollupIndexGenerator {
+
+  private final File tsFile;
+  private final long interval;
+
+  public RollupIndexGenerator(File tsFile, long interval) {
+    this.tsFile = tsFile;
+    this.interval = interval;
+  }
+
+  public static boolean isSupportedDataType(TSDataType dataType) {
+    switch (dataType) {
+      case BOOLEAN:
+      case INT32:
+      case INT64:
+      case FLOAT:
+      case DOUBLE:
+      case DATE:
+      case TIMESTAMP:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  public RollupIndex generate() throws IOException {
+    RollupIndex rollupIndex = new RollupIndex(interval);
+    try (TsFileSequenceReader reader =
+        new TsFileSequenceReader(
+            tsFile.getPath(),
+            EncryptDBUtils.getFirstEncryptParamFromTSFilePath(tsFile.getAbsolutePath()))) {
+      TsFileDeviceIterator deviceIterator = reader.getAllDevicesIteratorWithIsAligned();
+      while (deviceIterator.hasNext()) {
+        Pair<IDeviceID, Boolean> deviceIsAlignedPair = deviceIterator.next();
+        IDeviceID deviceID = deviceIsAlignedPair.getLeft();
+        if (Boolean.TRUE.equals(deviceIsAlignedPair.getRight())) {
+          rollupAlignedDevice(reader, rollupIndex, deviceID);
+        } else {
+          rollupNonAlignedDevice(reader, rollupIndex, deviceIterator, deviceID);
+        }
+      }
+    }
+    return rollupIndex;
+  }
+
+  private void rollupNonAlignedDevice(
+      TsFileSequenceReader reader,
+      RollupIndex rollupIndex,
+      TsFileDeviceIterator deviceIterator,
+      IDeviceID deviceID)
+      throws IOException {
+    List<TimeseriesMetadata> timeseriesMetadataList = new ArrayList<>();
+    reader.getDeviceTimeseriesMetadata(
+        timeseriesMetadataList,
+        deviceIterator.getFirstMeasurementNodeOfCurrentDevice(),
+        Collections.emptySet(),
+        true,
+        null);
+    for (TimeseriesMetadata timeseriesMetadata : timeseriesMetadataList) {
+      TSDataType dataType = timeseriesMetadata.getTsDataType();
+      if (!isSupportedDataType(dataType)) {
+        continue;
+      }
+      BucketBuilder bucketBuilder = new BucketBuilder(dataType);
+      for (IChunkMetadata chunkMetadata : timeseriesMetadata.getChunkMetadataList()) {
+        Statistics<? extends Serializable> chunkStatistics = chunkMetadata.getStatistics();
+        long chunkBucketStartTime = rollupIndex.getBucketStartTime(chunkStatistics.getStartTime());
+        if (chunkBucketStartTime == rollupIndex.getBucketStartTime(chunkStatistics.getEndTime())) {
+          bucketBuilder.getBucket(chunkBucketStartTime).mergeStatistics(chunkStatistics);
+          continue;
+        }
+        Chunk chunk = reader.readMemChunk((ChunkMetadata) chunkMetadata);
+        for (IPageReader pageReader : new ChunkReader(chunk).loadPageReaderList()) {
+          Statistics<? extends Serializable> pageStatistics = pageReader.getStatistics();
+          long bucketStartTime = rollupIndex.getBucketStartTime(pageStatistics.getStartTime());
+          if (bucketStartTime == rollupIndex.getBucketStartTime(pageStatistics.getEndTime())) {
+            bucketBuilder.getBucket(bucketStartTime).mergeStatistics(pageStatistics);
+            continue;
+          }
+          BatchData batchData = pageReader.getAllSatisfiedPageData();
+          while (batchData.hasCurrent()) {
+            long time = batchData.currentTime();
+            updateStatistics(
+                bucketBuilder.getBucket(rollupIndex.getBucketStartTime(time)),
+                dataType,
+                time,
+                batchData);
+            batchData.next();
+          }
+        }
+      }
+      rollupIndex.putSeriesRollup(
+          deviceID, timeseriesMetadata.getMeasurementId(), bucketBuilder.build());
+    }
+  }
+
+  private void rollupAlignedDevice(
+      TsFileSequenceReader reader, RollupIndex rollupIndex, IDeviceID deviceID)
+      throws IOException {
+    BucketBuilder timeBucketBuilder = new BucketBuilder(TSDataType.VECTOR);
+    Map<String, BucketBuilder> valueBucketBuilders = new HashMap<>();
+    for (AbstractAlignedChunkMetadata alignedChunkMetadata :
+        reader.getAlignedChunkMetadata(deviceID, false)) {
+      List<IChunkMetadata> valueChunkMetadataList = new ArrayList<>();
+      for (IChunkMetadata valueChunkMetadata : alignedChunkMetadata.getValueChunkMetadataList()) {
+        if (valueChunkMetadata != null && isSupportedDataType(valueChunkMetadata.getDataType())) {
+          valueChunkMetadataList.add(valueChunkMetadata);
+        }
+      }
+      Statistics<? extends Serializable> chunkTimeStatistics =
+          alignedChunkMetadata.getTimeStatistics();
+      long chunkBucketStartTime =
+          rollupIndex.getBucketStartTime(chunkTimeStatistics.getStartTime());
+      if (chunkBucketStartTime
+          == rollupIndex.getBucketStartTime(chunkTimeStatistics.getEndTime())) {
+        if (timeBucketBuilder != null) {
+          timeBucketBuilder.getBucket(chunkBucketStartTime).mergeStatistics(chunkTimeStatistics);
+        }
+        for (IChunkMetadata valueChunkMetadata : valueChunkMetadataList) {
+          getValueBucketBuilder(
+                  valueBucketBuilders,
+                  valueChunkMetadata.getMeasurementUid(),
+                  valueChunkMetadata.getDataType())
+              .getBucket(chunkBucketStartTime)
+              .mergeStatistics(valueChunkMetadata.getStatistics());
+        }
+        continue;
+      }
+      if (valueChunkMetadataList.isEmpty()) {
+        // rows of this chunk can not be counted without decoding a value column, so the time
+        // column of this device is left out of the rollup index
+        timeBucketBuilder = null;
+        continue;
+      }
+
+      List<String> measurements = new ArrayList<>();
+      List<TSDataType> dataTypes = new ArrayList<>();
+      List<Chunk> valueChunks = new ArrayList<>();
+      for (IChunkMetadata valueChunkMetadata : valueChunkMetadataList) {
+        measurements.add(valueChunkMetadata.getMeasurementUid());
+        dataTypes.add(valueChunkMetadata.getDataType());
+        valueChunks.add(reader.readMemChunk((ChunkMetadata) valueChunkMetadata));
+      }
+      Chunk timeChunk =
+          reader.readMemChunk((ChunkMetadata) alignedChunkMetadata.getTimeChunkMetadata());
+      // use TableChunkReader so that the rows with all null values will not be skipped
+      TableChunkReader chunkReader = new TableChunkReader(timeChunk, valueChunks, null);
+      for (IPageReader pageReader : chunkReader.loadPageReaderList()) {
+        Statistics<? extends Serializable> pageTimeStatistics = pageReader.getTimeStatistics();
+        long pageBucketStartTime =
+            rollupIndex.getBucketStartTime(pageTimeStatistics.getStartTime());
+        if (pageBucketStartTime
+            == rollupIndex.getBucketStartTime(pageTimeStatistics.getEndTime())) {
+          if (timeBucketBuilder != null) {
+            timeBucketBuilder.getBucket(pageBucketStartTime).mergeStatistics(pageTimeStatistics);
+          }
+          for (int i = 0; i < measurements.size(); i++) {
+            Optional<Statistics<? extends Serializable>> pageValueStatistics =
+                pageReader.getMeasurementStatistics(i);
+            if (pageValueStatistics.isPresent()) {
+              getValueBucketBuilder(valueBucketBuilders, measurements.get(i), dataTypes.get(i))
+                  .getBucket(pageBucketStartTime)
+                  .mergeStatistics(pageValueStatistics.get());
+            }
+          }
+          continue;
+        }
+        BatchData batchData = pageReader.getAllSatisfiedPageData();
+        while (batchData.hasCurrent()) {
+          long time = batchData.currentTime();
+          long bucketStartTime = rollupIndex.getBucketStartTime(time);
+          if (timeBucketBuilder != null) {
+            ((TimeStatistics) timeBucketBuilder.getBucket(bucketStartTime)).update(time);
+          }
+          TsPrimitiveType[] vector = batchData.getVector();
+          for (int i = 0; i < vector.length; i++) {
+            if (vector[i] == null) {
+              continue;
+            }
+            TSDataType dataType = dataTypes.get(i);
+            updateStatistics(
+                getValueBucketBuilder(valueBucketBuilders, measurements.get(i), dataType)
+                    .getBucket(bucketStartTime),
+                dataType,
+                time,
+                vector[i]);
+          }
+          batchData.next();
+        }
+      }
+    }
+    if (timeBucketBuilder == null) {
+      return;
+    }
+    rollupIndex.putSeriesRollup(deviceID, RollupIndex.TIME_COLUMN, timeBucketBuilder.build());
+    for (Map.Entry<String, BucketBuilder> entry : valueBucketBuilders.entrySet()) {
+      rollupIndex.putSeriesRollup(deviceID, entry.getKey(), entry.getValue().build());
+    }
+  }
+
+  private static BucketBuilder getValueBucketBuilder(
+      Map<String, BucketBuilder> valueBucketBuilders, String measurement, TSDataType dataType) {
+    return valueBucketBuilders.computeIfAbsent(measurement, k -> new BucketBuilder(dataType));
+  }
+
+  private static void updateStatistics(
+      Statistics<? extends Serializable> statistics,
+      TSDataType dataType,
+      long time,
+      BatchData batchData) {
+    switch (dataType) {
+      case BOOLEAN:
+        statistics.update(time, batchData.getBoolean());
+        break;
+      case INT32:
+      case DATE:
+        statistics.update(time, batchData.getInt());
+        break;
+      case INT64:
+      case TIMESTAMP:
+        statistics.update(time, batchData.getLong());
+        break;
+      case FLOAT:
+        statistics.update(time, batchData.getFloat());
+        break;
+      case DOUBLE:
+        statistics.update(time, batchData.getDouble());
+        break;
+      default:
+        throw new UnsupportedOperationException(dataType.name());
+    }
+  }
+
+  private static void updateStatistics(
+      Statistics<? extends Serializable> statistics,
+      TSDataType dataType,
+      long time,
+      TsPrimitiveType value) {
+    switch (dataType) {
+      case BOOLEAN:
+        statistics.update(time, value.getBoolean());
+        break;
+      case INT32:
+      case DATE:
+        statistics.update(time, value.getInt());
+        break;
+      case INT64:
+      case TIMESTAMP:
+        statistics.update(time, value.getLong());
+        break;
+      case FLOAT:
+        statistics.update(time, value.getFloat());
+        break;
+      case DOUBLE:
+        statistics.update(time, value.getDouble());
+        break;
+      default:
+        throw new UnsupportedOperationException(dataType.name());
+    }
+  }
+
+  private static class BucketBuilder {
+
+    private final TSDataType dataType;
+    private final TreeMap<Long, Statistics<? extends Serializable>> buckets = new TreeMap<>();
+
+    private BucketBuilder(TSDataType dataType) {
+      this.dataType = dataType;
+    }
+
+    private Statistics<? extends Serializable> getBucket(long bucketStartTime) {
+      return buckets.computeIfAbsent(bucketStartTime, k -> Statistics.getStatsByType(dataType));
+    }
+
+    @SuppressWarnings("unchecked")
+    private SeriesRollup build() {
+      long[] bucketStartTimes = new long[buckets.size()];
+      Statistics<? extends Serializable>[] bucketStatistics = new Statistics[buckets.size()];
+      int index = 0;
+      for (Map.Entry<Long, Statistics<? extends Serializable>> entry : buckets.entrySet()) {
+        bucketStartTimes[index] = entry.getKey();
+        bucketStatistics[index] = entry.getValue();
+        index++;
+      }
+      return new SeriesRollup(dataType, bucketStartTimes, bucketStatistics);
+    }
+  }
+}
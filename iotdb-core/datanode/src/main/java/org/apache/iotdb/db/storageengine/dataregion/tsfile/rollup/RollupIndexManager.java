@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.tsfile.rollup;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.commons.utils.CommonDateTimeUtils;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.i18n.StorageEngineMessages;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Generates the rollup index of sequence TsFiles after they are sealed by flush or compaction, and
+ * caches the loaded indexes for the aggregation scan. The generation is asynchronous, a file whose
+ * index is not ready yet is simply scanned as usual.
+ */
+public class RollupIndexManager {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RollupIndexManager.class);
+
+  private static final long MAX_CACHE_SIZE_IN_BYTES = 32 * 1024 * 1024L;
+
+  private static final String TEMP_SUFFIX = ".tmp";
+
+  /** Rollup interval in the timestamp precision, non-positive value means disabled. */
+  private final long interval;
+
+  private final Cache<String, RollupIndex> cache;
+
+  private final ExecutorService generateExecutor;
+
+  private RollupIndexManager() {
+    long intervalInMs = IoTDBDescriptor.getInstance().getConfig().getRollupIndexIntervalInMs();
+    this.interval =
+        intervalInMs <= 0
+            ? 0
+            : CommonDateTimeUtils.convertMilliTimeWithPrecision(
+                intervalInMs, CommonDescriptor.getInstance().getConfig().getTimestampPrecision());
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumWeight(MAX_CACHE_SIZE_IN_BYTES)
+            .weigher(
+                (Weigher<String, RollupIndex>)
+                    (path, rollupIndex) -> (int) rollupIndex.getRetainedSizeInBytes())
+            .build();
+    this.generateExecutor =
+        isEnabled()
+            ? IoTDBThreadPoolFactory.newSingleThreadExecutor(
+                ThreadName.ROLLUP_INDEX_GENERATE.getName())
+            : null;
+  }
+
+  public static RollupIndexManager getInstance() {
+    return RollupIndexManagerHolder.INSTANCE;
+  }
+
+  public boolean isEnabled() {
+    return interval > 0;
+  }
+
+  /** Generate the rollup index of a sealed sequence file in background. */
+  public void generate(TsFileResource resource) {
+    if (!isEnabled() || !resource.isSeq()) {
+      return;
+    }
+    try {
+      generateExecutor.submit(() -> generateSync(resource));
+    } catch (RejectedExecutionException e) {
+      LOGGER.warn(StorageEngineMessages.FAILED_TO_GENERATE_ROLLUP_INDEX, resource.getTsFile(), e);
+    }
+  }
+
+  void generateSync(TsFileResource resource) {
+    if (resource.isDeleted()) {
+      return;
+    }
+    File tsFile = resource.getTsFile();
+    File rollupIndexFile = RollupIndex.getRollupIndexFile(tsFile);
+    File tempFile = new File(rollupIndexFile.getPath() + TEMP_SUFFIX);
+    try {
+      RollupIndex rollupIndex = new RollupIndexGenerator(tsFile, interval).generate();
+      try (OutputStream outputStream =
+          new BufferedOutputStream(new FileOutputStream(tempFile))) {
+        rollupIndex.serialize(outputStream);
+      }
+      Files.move(
+          tempFile.toPath(), rollupIndexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      cache.invalidate(tsFile.getPath());
+      if (resource.isDeleted()) {
+        // the file may be removed by compaction while generating
+        remove(tsFile);
+      }
+    } catch (Exception e) {
+      // the source file may be deleted
+      if (resource.tsFileExists()) {
+        LOGGER.warn(StorageEngineMessages.FAILED_TO_GENERATE_ROLLUP_INDEX, tsFile, e);
+      }
+      try {
+        Files.deleteIfExists(tempFile.toPath());
+      } catch (IOException ignored) {
+        // the temp file will be overwritten by the next generation
+      }
+    }
+  }
+
+  /**
+   * Get the rollup index of a closed sequence file.
+   *
+   * @return {@link RollupIndex#EMPTY} if the index is disabled or not generated
+   */
+  public RollupIndex getRollupIndex(TsFileResource resource) {
+    if (!isEnabled() || !resource.isSeq() || !resource.isClosed()) {
+      return RollupIndex.EMPTY;
+    }
+    return cache.get(resource.getTsFilePath(), this::load);
+  }
+
+  private RollupIndex load(String tsFilePath) {
+    File rollupIndexFile = RollupIndex.getRollupIndexFile(new File(tsFilePath));
+    if (!rollupIndexFile.exists()) {
+      return RollupIndex.EMPTY;
+    }
+    try (InputStream inputStream =
+        new BufferedInputStream(new FileInputStream(rollupIndexFile))) {
+      return RollupIndex.deserialize(inputStream);
+    } catch (IOException e) {
+      LOGGER.warn(StorageEngineMessages.FAILED_TO_LOAD_ROLLUP_INDEX, rollupIndexFile, e);
+      return RollupIndex.EMPTY;
+    }
+  }
+
+  /** Remove the rollup index of a TsFile which is going to be deleted. */
+  public void remove(File tsFile) {
+    cache.invalidate(tsFile.getPath());
+    File rollupIndexFile = RollupIndex.getRollupIndexFile(tsFile);
+    try {
+      Files.deleteIfExists(rollupIndexFile.toPath());
+    } catch (IOException e) {
+      LOGGER.warn(StorageEngineMessages.FAILED_TO_DELETE_ROLLUP_INDEX, rollupIndexFile, e);
+    }
+  }
+
+  @TestOnly
+  public void clear() {
+    cache.invalidateAll();
+  }
+
+  private static class RollupIndexManagerHolder {
+    private static final RollupIndexManager INSTANCE = new RollupIndexManager();
+  }
+}
@@ -20,13 +20,18 @@
 package org.apache.iotdb.db.storageengine.load.splitter;
 
 import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.commons.utils.TimePartitionUtils;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.load.LoadFileException;
+import org.apache.iotdb.db.exception.load.LoadRuntimeOutOfMemoryException;
 import org.apache.iotdb.db.i18n.StorageEngineMessages;
 import org.apache.iotdb.db.storageengine.dataregion.modification.ModEntry;
 import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFile;
+import org.apache.iotdb.db.storageengine.load.memory.LoadTsFileMemoryBlock;
+import org.apache.iotdb.db.storageengine.load.memory.LoadTsFileMemoryManager;
 
 import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.common.conf.TSFileDescriptor;
@@ -56,29 +61,42 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 public class TsFileSplitter {
   private static final Logger logger = LoggerFactory.getLogger(TsFileSplitter.class);
 
   private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
 
+  /** The minimal size of a chunk group range which is split by one thread. */
+  private static final long MIN_SPLIT_RANGE_SIZE_IN_BYTES = 32 * 1024 * 1024L;
+
+  /** The max size of the split data buffered for a chunk group range before it is consumed. */
+  private static final long SPLIT_RANGE_BUFFER_SIZE_IN_BYTES = 16 * 1024 * 1024L;
+
   private final File tsFile;
   private final TsFileDataConsumer consumer;
-  private Map<Long, IChunkMetadata> offset2ChunkMetadata = new HashMap<>();
-  private List<ModEntry> deletions = new ArrayList<>();
+  private final int parallelism;
+  private final long minSplitRangeSizeInBytes;
+  private final Map<Long, IChunkMetadata> offset2ChunkMetadata;
+  private final List<ModEntry> deletions;
   private Map<Integer, List<AlignedChunkData>> pageIndex2ChunkData = new HashMap<>();
   private Map<Integer, long[]> pageIndex2Times = new HashMap<>();
   private boolean isTimeChunkNeedDecode = true;
   private IDeviceID curDevice = null;
   private boolean isAligned;
   private int timeChunkIndexOfCurrentValueColumn = 0;
-  private Set<TTimePartitionSlot> timePartitionSlots = new HashSet<>();
+  private final Set<TTimePartitionSlot> timePartitionSlots;
 
   // Maintain the number of times the chunk of each measurement appears.
   private Map<String, Integer> valueColumn2TimeChunkIndex = new HashMap<>();
@@ -90,8 +108,34 @@ public class TsFileSplitter {
   private List<Boolean> isTimeChunkNeedDecodeList = new ArrayList<>();
 
   public TsFileSplitter(File tsFile, TsFileDataConsumer consumer) {
+    this(tsFile, consumer, CONFIG.getLoadTsFileSplitParallelism(), MIN_SPLIT_RANGE_SIZE_IN_BYTES);
+  }
+
+  /**
+   * @param parallelism the number of chunk group ranges split concurrently, 1 means splitting the
+   *     file sequentially
+   * @param minSplitRangeSizeInBytes the minimal size of a chunk group range
+   */
+  TsFileSplitter(
+      File tsFile, TsFileDataConsumer consumer, int parallelism, long minSplitRangeSizeInBytes) {
     this.tsFile = tsFile;
     this.consumer = consumer;
+    this.parallelism = parallelism;
+    this.minSplitRangeSizeInBytes = minSplitRangeSizeInBytes;
+    this.offset2ChunkMetadata = new HashMap<>();
+    this.deletions = new ArrayList<>();
+    this.timePartitionSlots = ConcurrentHashMap.newKeySet();
+  }
+
+  /** Splitter of one chunk group range, sharing the file level context with its parent. */
+  private TsFileSplitter(TsFileSplitter parent, TsFileDataConsumer consumer) {
+    this.tsFile = parent.tsFile;
+    this.consumer = consumer;
+    this.parallelism = 1;
+    this.minSplitRangeSizeInBytes = parent.minSplitRangeSizeInBytes;
+    this.offset2ChunkMetadata = parent.offset2ChunkMetadata;
+    this.deletions = parent.deletions;
+    this.timePartitionSlots = parent.timePartitionSlots;
   }
 
   @SuppressWarnings({"squid:S3776", "squid:S6541"})
@@ -111,47 +155,210 @@ public class TsFileSplitter {
 
       reader.position((long) TSFileConfig.MAGIC_STRING.getBytes().length + 1);
       getChunkMetadata(reader, offset2ChunkMetadata);
-      byte marker;
-      // It should be noted that time chunk and its corresponding value chunk are not necessarily
-      // consecutive in the file.
-      // Therefore, every time after consuming a set of AlignedChunkData, we still need to retain
-      // some structural information
-      // for the corresponding value chunk that may appear later.
-      while ((marker = reader.readMarker()) != MetaMarker.SEPARATOR) {
-        switch (marker) {
-          case MetaMarker.CHUNK_HEADER:
-          case MetaMarker.TIME_CHUNK_HEADER:
-          case MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER:
-          case MetaMarker.ONLY_ONE_PAGE_TIME_CHUNK_HEADER:
-            processTimeChunkOrNonAlignedChunk(reader, marker);
-            if (isAligned) {
-              storeTimeChunkContext();
-            }
-            break;
-          case MetaMarker.VALUE_CHUNK_HEADER:
-          case MetaMarker.ONLY_ONE_PAGE_VALUE_CHUNK_HEADER:
-            processValueChunk(reader, marker);
-            break;
-          case MetaMarker.CHUNK_GROUP_HEADER:
-            ChunkGroupHeader chunkGroupHeader = reader.readChunkGroupHeader();
-            curDevice = chunkGroupHeader.getDeviceID();
-            pageIndex2ChunkDataList = new ArrayList<>();
-            pageIndex2TimesList = new ArrayList<>();
-            isTimeChunkNeedDecodeList = new ArrayList<>();
-            valueColumn2TimeChunkIndex = new HashMap<>();
-            timeChunkIndexOfCurrentValueColumn = 0;
-            break;
-          case MetaMarker.OPERATION_INDEX_RANGE:
-            reader.readPlanIndex();
-            break;
-          default:
-            MetaMarker.handleUnexpectedMarker(marker);
+      final long dataStartOffset = reader.position();
+      if (parallelism <= 1
+          || tsFile.length() < 2 * minSplitRangeSizeInBytes
+          || !splitChunkGroupsInParallel(planSplitRanges(reader, dataStartOffset))) {
+        reader.position(dataStartOffset);
+        splitChunkGroups(reader, Long.MAX_VALUE);
+      }
+      handleModification(deletions);
+    }
+  }
+
+  /** Split the chunk groups from the current position of the reader until endOffset. */
+  private void splitChunkGroups(TsFileSequenceReader reader, long endOffset)
+      throws IOException, LoadFileException {
+    byte marker;
+    // It should be noted that time chunk and its corresponding value chunk are not necessarily
+    // consecutive in the file.
+    // Therefore, every time after consuming a set of AlignedChunkData, we still need to retain
+    // some structural information
+    // for the corresponding value chunk that may appear later.
+    while (reader.position() < endOffset
+        && (marker = reader.readMarker()) != MetaMarker.SEPARATOR) {
+      switch (marker) {
+        case MetaMarker.CHUNK_HEADER:
+        case MetaMarker.TIME_CHUNK_HEADER:
+        case MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER:
+        case MetaMarker.ONLY_ONE_PAGE_TIME_CHUNK_HEADER:
+          processTimeChunkOrNonAlignedChunk(reader, marker);
+          if (isAligned) {
+            storeTimeChunkContext();
+          }
+          break;
+        case MetaMarker.VALUE_CHUNK_HEADER:
+        case MetaMarker.ONLY_ONE_PAGE_VALUE_CHUNK_HEADER:
+          processValueChunk(reader, marker);
+          break;
+        case MetaMarker.CHUNK_GROUP_HEADER:
+          ChunkGroupHeader chunkGroupHeader = reader.readChunkGroupHeader();
+          curDevice = chunkGroupHeader.getDeviceID();
+          pageIndex2ChunkDataList = new ArrayList<>();
+          pageIndex2TimesList = new ArrayList<>();
+          isTimeChunkNeedDecodeList = new ArrayList<>();
+          valueColumn2TimeChunkIndex = new HashMap<>();
+          timeChunkIndexOfCurrentValueColumn = 0;
+          break;
+        case MetaMarker.OPERATION_INDEX_RANGE:
+          reader.readPlanIndex();
+          break;
+        default:
+          MetaMarker.handleUnexpectedMarker(marker);
+      }
+    }
+
+    consumeAllAlignedChunkData(reader.position(), pageIndex2ChunkData);
+  }
+
+  /**
+   * Divide the data zone into ranges of whole chunk groups by scanning the chunk headers only.
+   *
+   * @return the start offsets of the ranges, followed by the end offset of the data zone
+   */
+  private List<Long> planSplitRanges(TsFileSequenceReader reader, long dataStartOffset)
+      throws IOException {
+    final long targetRangeSize =
+        Math.max(minSplitRangeSizeInBytes, tsFile.length() / (parallelism * 4L));
+    final List<Long> rangeOffsets = new ArrayList<>();
+    rangeOffsets.add(dataStartOffset);
+    long lastRangeOffset = dataStartOffset;
+    byte marker;
+    while ((marker = reader.readMarker()) != MetaMarker.SEPARATOR) {
+      final long markerOffset = reader.position() - Byte.BYTES;
+      switch (marker) {
+        case MetaMarker.CHUNK_HEADER:
+        case MetaMarker.TIME_CHUNK_HEADER:
+        case MetaMarker.ONLY_ONE_PAGE_CHUNK_HEADER:
+        case MetaMarker.ONLY_ONE_PAGE_TIME_CHUNK_HEADER:
+        case MetaMarker.VALUE_CHUNK_HEADER:
+        case MetaMarker.ONLY_ONE_PAGE_VALUE_CHUNK_HEADER:
+          final ChunkHeader header = reader.readChunkHeader(marker);
+          reader.position(reader.position() + header.getDataSize());
+          break;
+        case MetaMarker.CHUNK_GROUP_HEADER:
+          if (markerOffset - lastRangeOffset >= targetRangeSize) {
+            rangeOffsets.add(markerOffset);
+            lastRangeOffset = markerOffset;
+          }
+          reader.readChunkGroupHeader();
+          break;
+        case MetaMarker.OPERATION_INDEX_RANGE:
+          reader.readPlanIndex();
+          break;
+        default:
+          MetaMarker.handleUnexpectedMarker(marker);
+      }
+    }
+    rangeOffsets.add(reader.position() - Byte.BYTES);
+    return rangeOffsets;
+  }
+
+  /**
+   * Split the chunk group ranges concurrently and consume the split data in the file order. At
+   * most {@link #parallelism} ranges are in flight, each of which buffers no more than {@link
+   * #SPLIT_RANGE_BUFFER_SIZE_IN_BYTES} of split data.
+   *
+   * @return false if the ranges are not split, i.e., there is only one range or the memory is not
+   *     enough
+   */
+  private boolean splitChunkGroupsInParallel(List<Long> rangeOffsets)
+      throws IOException, LoadFileException {
+    final int rangeNum = rangeOffsets.size() - 1;
+    if (rangeNum <= 1) {
+      return false;
+    }
+
+    final long memorySizeInBytes =
+        Math.min(rangeNum, parallelism) * SPLIT_RANGE_BUFFER_SIZE_IN_BYTES;
+    final LoadTsFileMemoryBlock memoryBlock;
+    try {
+      memoryBlock = LoadTsFileMemoryManager.getInstance().allocateMemoryBlock(memorySizeInBytes);
+    } catch (LoadRuntimeOutOfMemoryException e) {
+      logger.info(
+          StorageEngineMessages.LOAD_FALLBACK_TO_SPLIT_TSFILE_SEQUENTIALLY,
+          tsFile.getPath(),
+          e.getMessage());
+      return false;
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug(StorageEngineMessages.LOAD_SPLIT_TSFILE_IN_PARALLEL, tsFile.getPath(), rangeNum);
+    }
+
+    final List<SplitRangeBuffer> buffers = new ArrayList<>(rangeNum);
+    final List<Future<?>> futures = new ArrayList<>(rangeNum);
+    try {
+      for (int i = 0; i < rangeNum; i++) {
+        // the ranges are submitted in the file order to a FIFO pool, so the range being consumed
+        // is always running or finished
+        while (buffers.size() < rangeNum && buffers.size() < i + parallelism) {
+          final int rangeIndex = buffers.size();
+          final SplitRangeBuffer buffer =
+              new SplitRangeBuffer(SPLIT_RANGE_BUFFER_SIZE_IN_BYTES, memoryBlock);
+          buffers.add(buffer);
+          futures.add(
+              SplitterPoolHolder.INSTANCE.submit(
+                  () ->
+                      splitRange(
+                          rangeOffsets.get(rangeIndex), rangeOffsets.get(rangeIndex + 1), buffer)));
+        }
+
+        final SplitRangeBuffer buffer = buffers.get(i);
+        TsFileData tsFileData;
+        while ((tsFileData = buffer.take()) != null) {
+          if (Boolean.FALSE.equals(consumer.apply(tsFileData))) {
+            throw new IllegalStateException(
+                String.format(
+                    StorageEngineMessages.CONSUME_SPLIT_TSFILE_DATA_ERROR,
+                    tsFile.getPath(),
+                    rangeOffsets.get(i),
+                    tsFileData));
+          }
         }
+        rethrowFailure(buffer.getFailure());
       }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LoadFileException(e);
+    } finally {
+      buffers.forEach(SplitRangeBuffer::close);
+      futures.forEach(future -> future.cancel(false));
+      memoryBlock.close();
+    }
+    return true;
+  }
 
-      consumeAllAlignedChunkData(reader.position(), pageIndex2ChunkData);
-      handleModification(deletions);
+  @SuppressWarnings("squid:S1181") // any failure of the range should be passed to the consumer
+  private void splitRange(long startOffset, long endOffset, SplitRangeBuffer buffer) {
+    Throwable failure = null;
+    try (TsFileSequenceReader reader =
+        new TsFileSequenceReader(new BufferedTsFileInput(tsFile.toPath()), true, false, null)) {
+      reader.position(startOffset);
+      new TsFileSplitter(this, buffer::put).splitChunkGroups(reader, endOffset);
+    } catch (Throwable t) {
+      failure = t;
+    } finally {
+      buffer.finish(failure);
+    }
+  }
+
+  private static void rethrowFailure(Throwable failure) throws IOException, LoadFileException {
+    if (failure == null) {
+      return;
+    }
+    if (failure instanceof IOException) {
+      throw (IOException) failure;
+    }
+    if (failure instanceof LoadFileException) {
+      throw (LoadFileException) failure;
+    }
+    if (failure instanceof RuntimeException) {
+      throw (RuntimeException) failure;
+    }
+    if (failure instanceof Error) {
+      throw (Error) failure;
     }
+    throw new LoadFileException((Exception) failure);
   }
 
   private void processTimeChunkOrNonAlignedChunk(TsFileSequenceReader reader, byte marker)
@@ -605,6 +812,98 @@ public class TsFileSplitter {
         times); // should be origin time, so recording satisfied length is necessary
   }
 
+  /**
+   * The split data of one chunk group range, produced by a splitter thread and consumed by the
+   * loading thread. The producer is blocked if the buffered data exceeds the capacity, while one
+   * piece of data is always accepted so that a large chunk can not block the range forever.
+   */
+  private static class SplitRangeBuffer {
+
+    private final Deque<TsFileData> queue = new ArrayDeque<>();
+    private final long capacityInBytes;
+    private final LoadTsFileMemoryBlock memoryBlock;
+    private long sizeInBytes = 0;
+    private boolean isFinished = false;
+    private boolean isClosed = false;
+    private Throwable failure;
+
+    private SplitRangeBuffer(long capacityInBytes, LoadTsFileMemoryBlock memoryBlock) {
+      this.capacityInBytes = capacityInBytes;
+      this.memoryBlock = memoryBlock;
+    }
+
+    /**
+     * @return false if the buffer is closed by the consumer or the producer is interrupted
+     */
+    private synchronized boolean put(TsFileData tsFileData) {
+      final long dataSize = tsFileData.getDataSize();
+      try {
+        while (!isClosed && !queue.isEmpty() && sizeInBytes + dataSize > capacityInBytes) {
+          wait();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+      if (isClosed) {
+        return false;
+      }
+      queue.add(tsFileData);
+      sizeInBytes += dataSize;
+      memoryBlock.addMemoryUsage(dataSize);
+      notifyAll();
+      return true;
+    }
+
+    /**
+     * @return null if all the data of the range has been taken
+     */
+    private synchronized TsFileData take() throws InterruptedException {
+      while (queue.isEmpty() && !isFinished) {
+        wait();
+      }
+      final TsFileData tsFileData = queue.poll();
+      if (tsFileData != null) {
+        sizeInBytes -= tsFileData.getDataSize();
+        memoryBlock.reduceMemoryUsage(tsFileData.getDataSize());
+        notifyAll();
+      }
+      return tsFileData;
+    }
+
+    private synchronized void finish(Throwable failure) {
+      this.failure = failure;
+      isFinished = true;
+      notifyAll();
+    }
+
+    private synchronized Throwable getFailure() {
+      return failure;
+    }
+
+    private synchronized void close() {
+      if (isClosed) {
+        return;
+      }
+      isClosed = true;
+      memoryBlock.reduceMemoryUsage(sizeInBytes);
+      sizeInBytes = 0;
+      queue.clear();
+      notifyAll();
+    }
+  }
+
+  private static class SplitterPoolHolder {
+    private static final ExecutorService INSTANCE =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            CONFIG.getLoadTsFileSplitParallelism(),
+            ThreadName.LOAD_TSFILE_SPLITTER_POOL.getName());
+
+    private SplitterPoolHolder() {
+      // do nothing
+    }
+  }
+
   @FunctionalInterface
   public interface TsFileDataConsumer {
     boolean apply(TsFileData tsFileData) throws LoadFileException;
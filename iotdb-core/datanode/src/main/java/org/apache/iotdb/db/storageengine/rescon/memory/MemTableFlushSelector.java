@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.rescon.memory;
+
+import org.apache.iotdb.db.storageengine.dataregion.memtable.TsFileProcessor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Orders the working memtables of all the data regions for the memory control flush. With the
+ * cost based selection, a memtable is ranked by the memory it frees divided by the cost of flushing
+ * it: a fixed cost of sealing one TsFile plus the metadata written for every series. A memtable of
+ * an unsequence file pays the fixed cost twice as the file is rewritten by the compaction later. A
+ * region holding many late time partitions thus flushes its large memtables first instead of
+ * scattering its small ones into small files.
+ */
+public class MemTableFlushSelector {
+
+  /** Cost of sealing a TsFile, expressed in bytes of memtable memory. */
+  static final long TSFILE_FLUSH_COST = 1024 * 1024L;
+
+  /** Cost of the chunk and timeseries metadata of one series, in bytes of memtable memory. */
+  static final long SERIES_FLUSH_COST = 4 * 1024L;
+
+  private final boolean costBased;
+
+  public MemTableFlushSelector(boolean costBased) {
+    this.costBased = costBased;
+  }
+
+  /**
+   * Order the processors whose working memtable is not empty, the one to flush first comes first.
+   * The memory costs are read once, so the order is stable while the memtables keep growing.
+   */
+  public List<FlushCandidate> order(Collection<TsFileProcessor> tsFileProcessors) {
+    List<FlushCandidate> candidates = new ArrayList<>(tsFileProcessors.size());
+    for (TsFileProcessor tsFileProcessor : tsFileProcessors) {
+      long ramCost = tsFileProcessor.getWorkMemTableRamCost();
+      if (ramCost <= 0) {
+        continue;
+      }
+      double score =
+          costBased
+              ? getFlushBenefit(
+                  ramCost,
+                  tsFileProcessor.getWorkMemTableSeriesNumber(),
+                  tsFileProcessor.isSequence())
+              : ramCost;
+      candidates.add(new FlushCandidate(tsFileProcessor, ramCost, score));
+    }
+    candidates.sort(Comparator.comparingDouble(FlushCandidate::getScore).reversed());
+    return candidates;
+  }
+
+  static double getFlushBenefit(long ramCost, int seriesNumber, boolean sequence) {
+    long flushCost = (sequence ? 1 : 2) * TSFILE_FLUSH_COST + seriesNumber * SERIES_FLUSH_COST;
+    return (double) ramCost / flushCost;
+  }
+
+  public static class FlushCandidate {
+
+    private final TsFileProcessor tsFileProcessor;
+    private final long ramCost;
+    private final double score;
+
+    private FlushCandidate(TsFileProcessor tsFileProcessor, long ramCost, double score) {
+      this.tsFileProcessor = tsFileProcessor;
+      this.ramCost = ramCost;
+      this.score = score;
+    }
+
+    public TsFileProcessor getTsFileProcessor() {
+      return tsFileProcessor;
+    }
+
+    public long getRamCost() {
+      return ramCost;
+    }
+
+    public double getScore() {
+      return score;
+    }
+  }
+}
@@ -19,6 +19,8 @@
 
 package org.apache.iotdb.db.storageengine.rescon.memory;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.memtable.BackgroundSortMemTable;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.IMemTable;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.PrimitiveMemTable;
 
@@ -33,6 +35,12 @@ public class MemTableManager {
 
   public synchronized IMemTable getAvailableMemTable(String storageGroup, String dataRegionId) {
     currentMemtableNumber++;
+    if (IoTDBDescriptor.getInstance()
+        .getConfig()
+        .getBackgroundSortMemTableDatabases()
+        .contains(storageGroup)) {
+      return new BackgroundSortMemTable(storageGroup, dataRegionId);
+    }
     return new PrimitiveMemTable(storageGroup, dataRegionId);
   }
 
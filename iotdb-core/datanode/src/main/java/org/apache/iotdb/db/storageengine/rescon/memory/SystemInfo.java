@@ -35,13 +35,16 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.Compacti
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.exception.CompactionFileCountExceededException;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.exception.CompactionMemoryNotEnoughException;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.TsFileProcessor;
+import org.apache.iotdb.db.storageengine.rescon.memory.MemTableFlushSelector.FlushCandidate;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -75,6 +78,8 @@ public class SystemInfo {
 
   private final ExecutorService flushTaskSubmitThreadPool =
       IoTDBThreadPoolFactory.newSingleThreadExecutor(ThreadName.FLUSH_TASK_SUBMIT.getName());
+  private final MemTableFlushSelector memTableFlushSelector =
+      new MemTableFlushSelector(config.isEnableCostBasedFlushSelection());
   private double FLUSH_THRESHOLD = memorySizeForMemtable * config.getFlushProportion();
   private double REJECT_THRESHOLD = memorySizeForMemtable * memoryConfig.getRejectProportion();
 
@@ -423,37 +428,36 @@ public class SystemInfo {
   }
 
   /**
-   * Order all working memtables in system by memory cost of actual data points in memtable. Mark
-   * the top K TSPs as to be flushed, so that after flushing the K TSPs, the memory cost should be
-   * less than FLUSH_THRESHOLD
+   * Order all working memtables in system by {@link MemTableFlushSelector}. Mark the top K TSPs as
+   * to be flushed, so that after flushing the K TSPs, the memory cost should be less than
+   * FLUSH_THRESHOLD
    */
   private boolean chooseMemTablesToMarkFlush(TsFileProcessor currentTsFileProcessor) {
     // If invoke flush by replaying logs, do not flush now!
     if (reportedStorageGroupMemCostMap.isEmpty()) {
       return false;
     }
-    PriorityQueue<TsFileProcessor> allTsFileProcessors =
-        new PriorityQueue<>(
-            (o1, o2) -> Long.compare(o2.getWorkMemTableRamCost(), o1.getWorkMemTableRamCost()));
+    List<TsFileProcessor> allTsFileProcessors = new ArrayList<>();
     for (DataRegionInfo dataRegionInfo : reportedStorageGroupMemCostMap.keySet()) {
       allTsFileProcessors.addAll(dataRegionInfo.getAllReportedTsp());
     }
+    Iterator<FlushCandidate> candidates =
+        memTableFlushSelector.order(allTsFileProcessors).iterator();
     boolean isCurrentTsFileProcessorSelected = false;
     long memCost = 0;
     long activeMemSize = totalStorageGroupMemCost - flushingMemTablesCost;
     while (activeMemSize - memCost > FLUSH_THRESHOLD) {
-      if (allTsFileProcessors.isEmpty()
-          || allTsFileProcessors.peek().getWorkMemTableRamCost() == 0) {
+      if (!candidates.hasNext()) {
         return false;
       }
-      TsFileProcessor selectedTsFileProcessor = allTsFileProcessors.peek();
-      memCost += selectedTsFileProcessor.getWorkMemTableRamCost();
+      FlushCandidate candidate = candidates.next();
+      TsFileProcessor selectedTsFileProcessor = candidate.getTsFileProcessor();
+      memCost += candidate.getRamCost();
       selectedTsFileProcessor.setWorkMemTableShouldFlush();
       flushTaskSubmitThreadPool.submit(selectedTsFileProcessor::submitAFlushTask);
       if (selectedTsFileProcessor == currentTsFileProcessor) {
         isCurrentTsFileProcessorSelected = true;
       }
-      allTsFileProcessors.poll();
     }
     return isCurrentTsFileProcessorSelected;
   }
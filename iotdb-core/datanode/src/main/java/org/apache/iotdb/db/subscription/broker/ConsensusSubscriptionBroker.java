@@ -41,6 +41,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -156,7 +158,11 @@ public class ConsensusSubscriptionBroker implements ISubscriptionBroker {
                 ? topicProgress.getRegionProgress().get(regionIdStr)
                 : null;
 
-        final SubscriptionEvent event = consensusQueue.poll(consumerId, regionProgress);
+        final SubscriptionEvent event =
+            consensusQueue.poll(
+                consumerId,
+                regionProgress,
+                ownershipSnapshot.getOwnedPartitions(regionIdStr, consumerId));
         if (Objects.isNull(event)) {
           continue;
         }
@@ -480,16 +486,24 @@ public class ConsensusSubscriptionBroker implements ISubscriptionBroker {
             .map(q -> q.getConsensusGroupId().toString())
             .sorted()
             .collect(Collectors.toList());
+    final Map<String, Integer> partitionCountByRegionId = new HashMap<>();
+    for (final ConsensusPrefetchingQueue queue : queues) {
+      if (!queue.isClosed()) {
+        partitionCountByRegionId.put(
+            queue.getConsensusGroupId().toString(), queue.getPartitionCount());
+      }
+    }
 
     final TopicOwnershipSnapshot existingSnapshot = topicOwnershipSnapshots.get(topicName);
     if (Objects.nonNull(existingSnapshot)
         && existingSnapshot.hasSameConsumers(sortedConsumers)
-        && existingSnapshot.hasSameRegions(activeRegionIds)) {
+        && existingSnapshot.hasSameRegions(activeRegionIds)
+        && existingSnapshot.hasSamePartitionCounts(partitionCountByRegionId)) {
       return existingSnapshot;
     }
 
     final TopicOwnershipSnapshot refreshedSnapshot =
-        TopicOwnershipSnapshot.create(sortedConsumers, activeRegionIds);
+        TopicOwnershipSnapshot.create(sortedConsumers, activeRegionIds, partitionCountByRegionId);
     topicOwnershipSnapshots.put(topicName, refreshedSnapshot);
     LOGGER.debug(
         DataNodePipeMessages
@@ -514,8 +528,7 @@ public class ConsensusSubscriptionBroker implements ISubscriptionBroker {
       if (queue.isClosed()) {
         continue;
       }
-      if (consumerId.equals(
-          ownershipSnapshot.getOwnerConsumerId(queue.getConsensusGroupId().toString()))) {
+      if (ownershipSnapshot.ownsAnyPartition(queue.getConsensusGroupId().toString(), consumerId)) {
         assignedQueues.add(queue);
       }
     }
@@ -795,42 +808,65 @@ public class ConsensusSubscriptionBroker implements ISubscriptionBroker {
         brokerId);
   }
 
+  /**
+   * Assigns the partitions of the active regions to the active consumers of a topic. Partition p of
+   * a region is owned by the consumer at (hash(region) + p) mod consumerCount, so that the
+   * partitions of one region are spread over the consumers and a region which is not partitioned
+   * is owned by a single consumer as a whole.
+   */
   private static final class TopicOwnershipSnapshot {
 
     private final List<String> activeConsumers;
     private final List<String> activeRegionIds;
-    private final Map<String, String> ownerByRegionId;
+    private final Map<String, Integer> partitionCountByRegionId;
+    private final Map<String, Map<String, Set<Integer>>> ownedPartitionsByRegionId;
     private final int generation;
 
     private TopicOwnershipSnapshot(
         final List<String> activeConsumers,
         final List<String> activeRegionIds,
-        final Map<String, String> ownerByRegionId,
+        final Map<String, Integer> partitionCountByRegionId,
+        final Map<String, Map<String, Set<Integer>>> ownedPartitionsByRegionId,
         final int generation) {
       this.activeConsumers = activeConsumers;
       this.activeRegionIds = activeRegionIds;
-      this.ownerByRegionId = ownerByRegionId;
+      this.partitionCountByRegionId = partitionCountByRegionId;
+      this.ownedPartitionsByRegionId = ownedPartitionsByRegionId;
       this.generation = generation;
     }
 
     private static TopicOwnershipSnapshot create(
-        final List<String> activeConsumers, final List<String> activeRegionIds) {
+        final List<String> activeConsumers,
+        final List<String> activeRegionIds,
+        final Map<String, Integer> partitionCountByRegionId) {
       if (activeConsumers.isEmpty() || activeRegionIds.isEmpty()) {
         return new TopicOwnershipSnapshot(
-            Collections.emptyList(), Collections.emptyList(), Collections.emptyMap(), 0);
+            Collections.emptyList(),
+            Collections.emptyList(),
+            Collections.emptyMap(),
+            Collections.emptyMap(),
+            0);
       }
 
-      final Map<String, String> ownerByRegionId = new ConcurrentHashMap<>();
+      final Map<String, Map<String, Set<Integer>>> ownedPartitionsByRegionId = new HashMap<>();
       final int consumerCount = activeConsumers.size();
       for (final String regionId : activeRegionIds) {
-        final int ownerIdx = Math.floorMod(regionId.hashCode(), consumerCount);
-        ownerByRegionId.put(regionId, activeConsumers.get(ownerIdx));
+        final int partitionCount = partitionCountByRegionId.getOrDefault(regionId, 1);
+        final Map<String, Set<Integer>> ownedPartitionsByConsumer = new HashMap<>();
+        for (int partition = 0; partition < partitionCount; partition++) {
+          final int ownerIdx = Math.floorMod(regionId.hashCode() + partition, consumerCount);
+          ownedPartitionsByConsumer
+              .computeIfAbsent(activeConsumers.get(ownerIdx), ignored -> new HashSet<>())
+              .add(partition);
+        }
+        ownedPartitionsByRegionId.put(regionId, ownedPartitionsByConsumer);
       }
       return new TopicOwnershipSnapshot(
           Collections.unmodifiableList(new ArrayList<>(activeConsumers)),
           Collections.unmodifiableList(new ArrayList<>(activeRegionIds)),
-          Collections.unmodifiableMap(ownerByRegionId),
-          ownerByRegionId.hashCode());
+          Collections.unmodifiableMap(new HashMap<>(partitionCountByRegionId)),
+          Collections.unmodifiableMap(ownedPartitionsByRegionId),
+          ownedPartitionsByRegionId.hashCode());
     }
 
     private boolean isEmpty() {
@@ -845,8 +881,30 @@ public class ConsensusSubscriptionBroker implements ISubscriptionBroker {
       return activeRegionIds.equals(regionIds);
     }
 
-    private String getOwnerConsumerId(final String regionId) {
-      return ownerByRegionId.get(regionId);
+    private boolean hasSamePartitionCounts(final Map<String, Integer> partitionCounts) {
+      return partitionCountByRegionId.equals(partitionCounts);
+    }
+
+    private boolean ownsAnyPartition(final String regionId, final String consumerId) {
+      final Map<String, Set<Integer>> ownedPartitionsByConsumer =
+          ownedPartitionsByRegionId.get(regionId);
+      return Objects.nonNull(ownedPartitionsByConsumer)
+          && ownedPartitionsByConsumer.containsKey(consumerId);
+    }
+
+    /**
+     * @return the partitions of the region owned by the consumer, null if the region is not
+     *     partitioned
+     */
+    private Set<Integer> getOwnedPartitions(final String regionId, final String consumerId) {
+      if (partitionCountByRegionId.getOrDefault(regionId, 1) <= 1) {
+        return null;
+      }
+      final Map<String, Set<Integer>> ownedPartitionsByConsumer =
+          ownedPartitionsByRegionId.get(regionId);
+      return Objects.isNull(ownedPartitionsByConsumer)
+          ? Collections.emptySet()
+          : ownedPartitionsByConsumer.getOrDefault(consumerId, Collections.emptySet());
     }
 
     private int getGeneration() {
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.subscription.broker.consensus;
+
+import org.apache.iotdb.db.subscription.event.SubscriptionEvent;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Snapshot of the in-flight events of a partitioned region stream, taken by a partitioned poll to
+ * decide which events may be handed out to a consumer.
+ *
+ * <p>The events of a partition are handed out in commit order to one consumer at a time. When the
+ * ownership of a partition moves to another consumer while events of the partition are still in
+ * flight at the previous owner, the partition is fenced: the new owner gets nothing of it until
+ * these events are committed, or recycled back into the prefetching queue after they timed out,
+ * where they are ordered before the later events of the partition again.
+ */
+final class ConsensusPartitionFence {
+
+  private final Map<Integer, Set<String>> holdersByPartition = new HashMap<>();
+  private boolean crossPartitionInFlight = false;
+
+  /** Records an uncommitted event of the partition which is in flight at the consumer. */
+  void track(final String consumerId, final int partition) {
+    if (partition == SubscriptionEvent.CROSS_PARTITION) {
+      crossPartitionInFlight = true;
+      return;
+    }
+    holdersByPartition.computeIfAbsent(partition, ignored -> new HashSet<>()).add(consumerId);
+  }
+
+  boolean isEmpty() {
+    return !crossPartitionInFlight && holdersByPartition.isEmpty();
+  }
+
+  /** A cross-partition event in flight holds back every partition until it is committed. */
+  boolean hasCrossPartitionInFlight() {
+    return crossPartitionInFlight;
+  }
+
+  /**
+   * @param ownedPartitions the partitions assigned to the consumer, null means all partitions
+   * @return whether an event of the partition may be handed out to the consumer
+   */
+  boolean admits(final int partition, final String consumerId, final Set<Integer> ownedPartitions) {
+    if (crossPartitionInFlight) {
+      return false;
+    }
+    if (partition == SubscriptionEvent.CROSS_PARTITION) {
+      return holdersByPartition.isEmpty();
+    }
+    if (Objects.nonNull(ownedPartitions) && !ownedPartitions.contains(partition)) {
+      return false;
+    }
+    final Set<String> holders = holdersByPartition.get(partition);
+    return Objects.isNull(holders) || (holders.size() == 1 && holders.contains(consumerId));
+  }
+}
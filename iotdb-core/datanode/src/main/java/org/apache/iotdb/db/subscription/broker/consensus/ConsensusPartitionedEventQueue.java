@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.subscription.broker.consensus;
+
+import org.apache.iotdb.db.subscription.event.SubscriptionEvent;
+import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionPollResponseType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * The prefetching queue of a consensus region stream, kept as one priority queue per partition so
+ * that a partitioned poll only looks at the heads of the partitions instead of the whole queue.
+ *
+ * <p>The events spanning several partitions are kept in their own queue under {@link
+ * SubscriptionEvent#CROSS_PARTITION}, and the metadata events (currently WATERMARK) in another one.
+ * A cross-partition event is a barrier: the events of the partitions ordered after it are not
+ * handed out before it, and it is not handed out before the events of the partitions ordered
+ * before it. An unpartitioned poll hands out the events in commit order across all the queues.
+ */
+final class ConsensusPartitionedEventQueue {
+
+  private static final int METADATA_PARTITION = Integer.MIN_VALUE;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+
+  // Guarded by the lock
+  private final Map<Integer, PriorityQueue<SubscriptionEvent>> queuesByPartition = new HashMap<>();
+
+  private volatile int size = 0;
+
+  void add(final SubscriptionEvent event) {
+    lock.lock();
+    try {
+      queuesByPartition
+          .computeIfAbsent(partitionOf(event), ignored -> new PriorityQueue<>())
+          .add(event);
+      size++;
+      notEmpty.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  boolean remove(final SubscriptionEvent event) {
+    lock.lock();
+    try {
+      final int partition = partitionOf(event);
+      final PriorityQueue<SubscriptionEvent> queue = queuesByPartition.get(partition);
+      if (Objects.isNull(queue) || !queue.remove(event)) {
+        return false;
+      }
+      if (queue.isEmpty()) {
+        queuesByPartition.remove(partition);
+      }
+      size--;
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Retrieves and removes the first event in commit order across all the partitions, waiting up to
+   * the timeout if the queue is empty.
+   */
+  SubscriptionEvent poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (size == 0) {
+        if (nanos <= 0) {
+          return null;
+        }
+        nanos = notEmpty.awaitNanos(nanos);
+      }
+      return removeHead(firstHead(partition -> true));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Retrieves and removes the next event of the admitted partitions which may be handed out: a
+   * metadata event first, otherwise the first event of the admitted partitions ordered before the
+   * first cross-partition event, otherwise the first cross-partition event if it is admitted and
+   * no event of any partition is ordered before it.
+   *
+   * <p>The admission is taken and the event is handed out under the lock, so that the events
+   * handed out by concurrent polls are seen by the admission of the next one.
+   *
+   * @param admission supplies whether an event of the partition may be handed out, called with
+   *     {@link SubscriptionEvent#CROSS_PARTITION} for the cross-partition events
+   * @param handOut called with the removed event, returns false if it is not handed out, in which
+   *     case the next event is polled with a new admission
+   * @return null if there is no such event
+   */
+  SubscriptionEvent pollPartitioned(
+      final Supplier<IntPredicate> admission, final Predicate<SubscriptionEvent> handOut) {
+    lock.lock();
+    try {
+      while (size > 0) {
+        final SubscriptionEvent event = removeHead(firstAdmitted(admission));
+        if (Objects.isNull(event) || handOut.test(event)) {
+          return event;
+        }
+      }
+      return null;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private SubscriptionEvent firstAdmitted(final Supplier<IntPredicate> admission) {
+    final SubscriptionEvent metadataEvent = peek(METADATA_PARTITION);
+    if (Objects.nonNull(metadataEvent)) {
+      return metadataEvent;
+    }
+
+    final IntPredicate admitted = admission.get();
+    final SubscriptionEvent barrier = peek(SubscriptionEvent.CROSS_PARTITION);
+    final SubscriptionEvent candidate =
+        firstHead(
+            partition ->
+                partition != SubscriptionEvent.CROSS_PARTITION && admitted.test(partition));
+    if (Objects.nonNull(candidate)
+        && (Objects.isNull(barrier) || candidate.compareTo(barrier) < 0)) {
+      return candidate;
+    }
+    if (Objects.isNull(barrier) || !admitted.test(SubscriptionEvent.CROSS_PARTITION)) {
+      return null;
+    }
+    return firstHead(partition -> true) == barrier ? barrier : null;
+  }
+
+  int size() {
+    return size;
+  }
+
+  /** Performs the action on a snapshot of the queued events, without holding the lock. */
+  void forEach(final Consumer<SubscriptionEvent> action) {
+    final List<SubscriptionEvent> events = new ArrayList<>(size);
+    lock.lock();
+    try {
+      queuesByPartition.values().forEach(events::addAll);
+    } finally {
+      lock.unlock();
+    }
+    events.forEach(action);
+  }
+
+  void clear() {
+    lock.lock();
+    try {
+      queuesByPartition.clear();
+      size = 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private SubscriptionEvent peek(final int partition) {
+    final PriorityQueue<SubscriptionEvent> queue = queuesByPartition.get(partition);
+    return Objects.isNull(queue) ? null : queue.peek();
+  }
+
+  private SubscriptionEvent firstHead(final IntPredicate partitionFilter) {
+    SubscriptionEvent first = null;
+    for (final Map.Entry<Integer, PriorityQueue<SubscriptionEvent>> entry :
+        queuesByPartition.entrySet()) {
+      if (!partitionFilter.test(entry.getKey())) {
+        continue;
+      }
+      final SubscriptionEvent head = entry.getValue().peek();
+      if (Objects.nonNull(head) && (Objects.isNull(first) || head.compareTo(first) < 0)) {
+        first = head;
+      }
+    }
+    return first;
+  }
+
+  private SubscriptionEvent removeHead(final SubscriptionEvent head) {
+    if (Objects.isNull(head)) {
+      return null;
+    }
+    final int partition = partitionOf(head);
+    final PriorityQueue<SubscriptionEvent> queue = queuesByPartition.get(partition);
+    queue.poll();
+    if (queue.isEmpty()) {
+      queuesByPartition.remove(partition);
+    }
+    size--;
+    return head;
+  }
+
+  private static int partitionOf(final SubscriptionEvent event) {
+    return event.getCurrentResponse().getResponseType()
+            == SubscriptionPollResponseType.WATERMARK.getType()
+        ? METADATA_PARTITION
+        : event.getPartition();
+  }
+}
@@ -61,6 +61,7 @@ import org.apache.iotdb.rpc.subscription.payload.poll.WatermarkPayload;
 import org.apache.iotdb.rpc.subscription.payload.poll.WriterId;
 import org.apache.iotdb.rpc.subscription.payload.poll.WriterProgress;
 
+import org.apache.tsfile.enums.ColumnCategory;
 import org.apache.tsfile.utils.Pair;
 import org.apache.tsfile.write.record.Tablet;
 import org.slf4j.Logger;
@@ -71,6 +72,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -83,7 +85,6 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingDeque;
-import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -131,10 +132,17 @@ public class ConsensusPrefetchingQueue {
   /** Internal WAL reader cursor used only for local replay positioning and deduplication. */
   private final AtomicLong nextExpectedSearchIndex;
 
-  private final PriorityBlockingQueue<SubscriptionEvent> prefetchingQueue;
+  private final ConsensusPartitionedEventQueue prefetchingQueue;
 
   private final Map<InFlightEventKey, SubscriptionEvent> inFlightEvents;
 
+  /**
+   * Number of partitions the region stream is split into by device, so that several consumers of
+   * the group can consume one region in parallel while the data of each device is still delivered
+   * in order.
+   */
+  private final int partitionCount;
+
   /** Tablet memory retained by queued and in-flight events, keyed by event identity. */
   private final Map<SubscriptionEvent, Long> retainedBytesByEvent = new ConcurrentHashMap<>();
 
@@ -495,8 +503,10 @@ public class ConsensusPrefetchingQueue {
     this.seekGeneration = new AtomicLong(0);
     this.nextExpectedSearchIndex = new AtomicLong(tailStartSearchIndex);
 
-    this.prefetchingQueue = new PriorityBlockingQueue<>();
+    this.prefetchingQueue = new ConsensusPartitionedEventQueue();
     this.inFlightEvents = new ConcurrentHashMap<>();
+    this.partitionCount =
+        SubscriptionConfig.getInstance().getSubscriptionConsensusPartitionsPerRegion();
     this.observedSeekGeneration = seekGeneration.get();
 
     // Register pending queue early so we don't miss real-time writes
@@ -672,6 +682,17 @@ public class ConsensusPrefetchingQueue {
   }
 
   public SubscriptionEvent poll(final String consumerId, final RegionProgress regionProgress) {
+    return poll(consumerId, regionProgress, null);
+  }
+
+  /**
+   * @param ownedPartitions the partitions assigned to the consumer, null means all partitions. It
+   *     is ignored if the region stream is not partitioned.
+   */
+  public SubscriptionEvent poll(
+      final String consumerId,
+      final RegionProgress regionProgress,
+      final Set<Integer> ownedPartitions) {
     if (!retryPendingRuntimeActivation()) {
       return null;
     }
@@ -686,7 +707,10 @@ public class ConsensusPrefetchingQueue {
       if (pendingSeekRequest != null) {
         return null;
       }
-      final SubscriptionEvent event = pollInternal(consumerId);
+      final SubscriptionEvent event =
+          partitionCount > 1
+              ? pollPartitionedInternal(consumerId, ownedPartitions)
+              : pollInternal(consumerId);
       if (Objects.nonNull(event) && prefetchingQueue.size() < MAX_PREFETCHING_QUEUE_SIZE) {
         requestPrefetch();
       } else if (Objects.isNull(event) && shouldRecoverPrefetchBindingAfterEmptyPoll()) {
@@ -1258,6 +1282,130 @@ public class ConsensusPrefetchingQueue {
     return null;
   }
 
+  /**
+   * Polls the first event of the partitions owned by the consumer. The events of a partition are
+   * handed out in commit order, and an event spanning several partitions is a barrier, which is
+   * handed out only when nothing else of the region is in flight and holds back the events behind
+   * it until it is committed. A partition whose events are still in flight at another consumer,
+   * e.g. its previous owner before a rebalance, is fenced until they are committed or recycled,
+   * see {@link ConsensusPartitionFence}. Only the heads of the partitions are looked at, see
+   * {@link ConsensusPartitionedEventQueue}.
+   */
+  private SubscriptionEvent pollPartitionedInternal(
+      final String consumerId, final Set<Integer> ownedPartitions) {
+    // partitions whose head is not pollable, which are skipped for the rest of this poll
+    final Set<Integer> skippedPartitions = new HashSet<>();
+    return prefetchingQueue.pollPartitioned(
+        () -> {
+          final ConsensusPartitionFence fence = snapshotPartitionFence();
+          return partition ->
+              !fence.hasCrossPartitionInFlight()
+                  && !skippedPartitions.contains(partition)
+                  && fence.admits(partition, consumerId, ownedPartitions);
+        },
+        event -> handOutPartitionedEvent(event, consumerId, skippedPartitions));
+  }
+
+  /** Called under the lock of the prefetching queue with the event taken out of it. */
+  private boolean handOutPartitionedEvent(
+      final SubscriptionEvent event,
+      final String consumerId,
+      final Set<Integer> skippedPartitions) {
+    // Metadata events (currently WATERMARK) are fire-and-forget
+    if (event.getCurrentResponse().getResponseType()
+        == SubscriptionPollResponseType.WATERMARK.getType()) {
+      return true;
+    }
+
+    if (event.isCommitted()) {
+      LOGGER.warn(
+          DataNodePipeMessages
+              .PIPE_LOG_CONSENSUSPREFETCHINGQUEUE_POLL_COMMITTED_EVENT_BROKEN_INVARIANT_E478FA3C,
+          this,
+          event);
+      cleanUpEvent(event, false);
+      return false;
+    }
+
+    if (!event.pollable()) {
+      LOGGER.warn(
+          DataNodePipeMessages
+              .PIPE_LOG_CONSENSUSPREFETCHINGQUEUE_POLL_NON_POLLABLE_EVENT_BROKEN_E9551325,
+          this,
+          event);
+      event.nack();
+      prefetchingQueue.add(event);
+      skippedPartitions.add(event.getPartition());
+      return false;
+    }
+
+    event.recordLastPolledTimestamp();
+    inFlightEvents.put(new InFlightEventKey(consumerId, event.getCommitContext()), event);
+    event.recordLastPolledConsumerId(consumerId);
+    return true;
+  }
+
+  private ConsensusPartitionFence snapshotPartitionFence() {
+    final ConsensusPartitionFence fence = new ConsensusPartitionFence();
+    for (final Map.Entry<InFlightEventKey, SubscriptionEvent> entry : inFlightEvents.entrySet()) {
+      if (!entry.getValue().isCommitted()) {
+        fence.track(entry.getKey().consumerId, entry.getValue().getPartition());
+      }
+    }
+    return fence;
+  }
+
+  private int computePartition(final List<Tablet> tablets) {
+    return computePartition(tablets, partitionCount);
+  }
+
+  /**
+   * Partitions the tablets by device, so that the rows of a device, which may be written by any
+   * table or tree insertion, always go to the same partition.
+   *
+   * @return the partition shared by the devices of all the rows, or {@link
+   *     SubscriptionEvent#CROSS_PARTITION} if they belong to different partitions
+   */
+  static int computePartition(final List<Tablet> tablets, final int partitionCount) {
+    if (partitionCount <= 1) {
+      return 0;
+    }
+    int partition = SubscriptionEvent.CROSS_PARTITION;
+    for (final Tablet tablet : tablets) {
+      if (tablet.getRowSize() == 0) {
+        continue;
+      }
+      final int tabletPartition = computeTabletPartition(tablet, partitionCount);
+      if (tabletPartition == SubscriptionEvent.CROSS_PARTITION
+          || (partition != SubscriptionEvent.CROSS_PARTITION && partition != tabletPartition)) {
+        return SubscriptionEvent.CROSS_PARTITION;
+      }
+      partition = tabletPartition;
+    }
+    return partition;
+  }
+
+  private static int computeTabletPartition(final Tablet tablet, final int partitionCount) {
+    if (Objects.isNull(tablet.getColumnTypes())
+        || !tablet.getColumnTypes().contains(ColumnCategory.TAG)) {
+      // a tree tablet, or a table tablet without tags, holds the rows of a single device
+      return Math.floorMod(Objects.hashCode(tablet.getDeviceId()), partitionCount);
+    }
+    int partition = SubscriptionEvent.CROSS_PARTITION;
+    for (int row = 0; row < tablet.getRowSize(); row++) {
+      final int rowPartition = Math.floorMod(tablet.getDeviceID(row).hashCode(), partitionCount);
+      if (partition != SubscriptionEvent.CROSS_PARTITION && partition != rowPartition) {
+        return SubscriptionEvent.CROSS_PARTITION;
+      }
+      partition = rowPartition;
+    }
+    return partition;
+  }
+
+  public int getPartitionCount() {
+    return partitionCount;
+  }
+
   public SubscriptionEvent pollTablets(
       final String consumerId, final SubscriptionCommitContext commitContext, final int offset) {
     acquireReadLock();
@@ -2042,6 +2190,7 @@ public class ConsensusPrefetchingQueue {
       final long startSearchIndex,
       final long endSearchIndex,
       final long commitLocalSeq,
+      final int partition,
       final long retainedBytes,
       final long expectedSeekGeneration) {
     if (seekGeneration.get() != expectedSeekGeneration) {
@@ -2084,6 +2233,8 @@ public class ConsensusPrefetchingQueue {
                 .isTimeSelected(),
             getTimeSelectedByTable(converter.getDatabaseName(), tablets));
 
+    event.setPartition(partition);
+
     // Install the ownership record before exposing the event to concurrent poll/ack threads.
     retainEventMemory(event, retainedBytes);
     prefetchingQueue.add(event);
@@ -2381,6 +2532,7 @@ public class ConsensusPrefetchingQueue {
       final DeliveryBatchState batchState,
       final WriterBufferedEntry entry,
       final long entryEstimatedBytes,
+      final int entryPartition,
       final int maxEntries,
       final int maxTablets,
       final long maxBatchBytes) {
@@ -2394,10 +2546,17 @@ public class ConsensusPrefetchingQueue {
     // SubscriptionCommitContext and RegionProgress remain per-writer.
     final boolean writerChanged =
         !batchState.isEmpty() && batchState.writerNodeId != entry.getWriterNodeId();
+    // Keep the entries of different partitions apart, otherwise most batches would span several
+    // partitions and be delivered as barriers.
+    final boolean partitionChanged =
+        partitionCount > 1
+            && !batchState.isEmpty()
+            && batchState.partition != entryPartition;
     return !(wouldExceedEntryLimit
         || wouldExceedTabletLimit
         || wouldExceedByteLimit
-        || writerChanged);
+        || writerChanged
+        || partitionChanged);
   }
 
   private boolean drainRealtimeWriters(
@@ -2455,13 +2614,20 @@ public class ConsensusPrefetchingQueue {
       }
 
       final long entryEstimatedBytes = writerHead.getEstimatedBytes();
+      final int entryPartition = computePartition(writerHead.getTablets());
       if (!canAppendWriterEntry(
-          batchState, writerHead, entryEstimatedBytes, maxEntries, maxTablets, maxBatchBytes)) {
+          batchState,
+          writerHead,
+          entryEstimatedBytes,
+          entryPartition,
+          maxEntries,
+          maxTablets,
+          maxBatchBytes)) {
         return true;
       }
 
       removeHeadAction.accept(frontier.writerNodeId, writerHead);
-      batchState.append(writerHead, entryEstimatedBytes, trackLingerTime);
+      batchState.append(writerHead, entryEstimatedBytes, trackLingerTime, entryPartition);
     }
   }
 
@@ -2480,6 +2646,7 @@ public class ConsensusPrefetchingQueue {
             entry.getSearchIndex(),
             entry.getSearchIndex(),
             entry.getLocalSeq(),
+            SubscriptionEvent.CROSS_PARTITION,
             0L,
             expectedSeekGeneration);
     resetBatchWriterProgress();
@@ -2494,6 +2661,7 @@ public class ConsensusPrefetchingQueue {
         batchState.startSearchIndex,
         batchState.endSearchIndex,
         batchState.lastLocalSeq,
+        batchState.partition,
         batchState.estimatedBytes,
         expectedSeekGeneration)) {
       return false;
@@ -3895,6 +4063,7 @@ public class ConsensusPrefetchingQueue {
     result.put("isClosed", String.valueOf(isClosed));
     result.put("isActive", String.valueOf(isActive));
     result.put("orderMode", orderMode);
+    result.put("partitionCount", String.valueOf(partitionCount));
     result.put("preferredWriterNodeId", String.valueOf(preferredWriterNodeId));
     result.put("activeWriterCount", String.valueOf(activeWriterNodeIds.size()));
     result.put("runtimeActiveWriterCount", String.valueOf(runtimeActiveWriterNodeIds.size()));
@@ -3966,6 +4135,7 @@ public class ConsensusPrefetchingQueue {
     private long physicalTime;
     private int writerNodeId;
     private long lastLocalSeq;
+    private int partition;
     private volatile int entryCount;
 
     private DeliveryBatchState() {
@@ -3983,12 +4153,16 @@ public class ConsensusPrefetchingQueue {
     private void append(
         final WriterBufferedEntry entry,
         final long entryEstimatedBytes,
-        final boolean trackLingerTime) {
+        final boolean trackLingerTime,
+        final int entryPartition) {
       if (tablets.isEmpty()) {
         if (trackLingerTime) {
           firstTabletTimeMs = System.currentTimeMillis();
         }
         writerNodeId = entry.getWriterNodeId();
+        partition = entryPartition;
+      } else if (partition != entryPartition) {
+        partition = SubscriptionEvent.CROSS_PARTITION;
       }
       if (entry.getSearchIndex() >= 0) {
         if (startSearchIndex < 0) {
@@ -4013,6 +4187,7 @@ public class ConsensusPrefetchingQueue {
       physicalTime = 0L;
       lastLocalSeq = -1L;
       writerNodeId = -1;
+      partition = SubscriptionEvent.CROSS_PARTITION;
       entryCount = 0;
     }
   }
@@ -37,6 +37,7 @@ import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionPollPayload;
 import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionPollResponse;
 
 import org.apache.thrift.annotation.Nullable;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,12 +57,18 @@ public class SubscriptionEvent implements Comparable<SubscriptionEvent> {
 
   private static final long INVALID_TIMESTAMP = -1;
 
+  /** Partition of the events which are not bound to a single partition of the region stream. */
+  public static final int CROSS_PARTITION = -1;
+
   private final SubscriptionPipeEvents pipeEvents;
   private final SubscriptionEventResponse<CachedSubscriptionPollResponse> response;
   private final SubscriptionCommitContext commitContext;
 
   // lastPolledConsumerId is not used as a criterion for determining pollability
   private volatile String lastPolledConsumerId = null;
+
+  // the partition of the consensus region stream, only used by partitioned consumption
+  private volatile int partition = CROSS_PARTITION;
   private final AtomicLong lastPolledTimestamp = new AtomicLong(INVALID_TIMESTAMP);
   private final AtomicLong committedTimestamp = new AtomicLong(INVALID_TIMESTAMP);
 
@@ -292,6 +299,14 @@ public class SubscriptionEvent implements Comparable<SubscriptionEvent> {
     return lastPolledConsumerId;
   }
 
+  public void setPartition(final int partition) {
+    this.partition = partition;
+  }
+
+  public int getPartition() {
+    return partition;
+  }
+
   //////////////////////////// prefetch & fetch ////////////////////////////
 
   public void prefetchRemainingResponses() {
@@ -316,6 +331,11 @@ public class SubscriptionEvent implements Comparable<SubscriptionEvent> {
     return response.getCurrentResponseByteBuffer();
   }
 
+  public ByteBuffer getCurrentResponseByteBuffer(final CompressionType compressionType)
+      throws IOException {
+    return response.getCurrentResponseByteBuffer(compressionType);
+  }
+
   public void invalidateCurrentResponseByteBuffer() {
     response.invalidateCurrentResponseByteBuffer();
   }
@@ -23,16 +23,38 @@ import org.apache.iotdb.db.pipe.resource.memory.PipeFixedMemoryBlock;
 import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionCommitContext;
 import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionPollPayload;
 import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionPollResponse;
+import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionPollResponseType;
+
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.utils.PublicBAOS;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 public class CachedSubscriptionPollResponse extends SubscriptionPollResponse {
 
+  /**
+   * Serialization buffers shared by the prefetching and the rpc threads. The pool and the size of
+   * each pooled buffer are both bounded, so that the retained memory stays small however many
+   * threads serialize responses. A buffer grown beyond the limit by an oversized response is
+   * dropped after use.
+   */
+  private static final int MAX_POOLED_SERIALIZATION_BUFFER_COUNT = 4;
+
+  private static final int MAX_POOLED_SERIALIZATION_BUFFER_SIZE_IN_BYTES = 4 * 1024 * 1024;
+
+  private static final BlockingQueue<PublicBAOS> SERIALIZATION_BUFFER_POOL =
+      new ArrayBlockingQueue<>(MAX_POOLED_SERIALIZATION_BUFFER_COUNT);
+
   private volatile ByteBuffer byteBuffer; // cached serialized response
 
+  // compression type asked by the consumer polling the response, only applied to tablets
+  private volatile CompressionType compressionType = CompressionType.UNCOMPRESSED;
+
   private volatile PipeFixedMemoryBlock memoryBlock;
 
   public CachedSubscriptionPollResponse(
@@ -76,6 +98,18 @@ public class CachedSubscriptionPollResponse extends SubscriptionPollResponse {
     return byteBuffer;
   }
 
+  public CompressionType getCompressionType() {
+    return compressionType;
+  }
+
+  /**
+   * The compressed bytes are cached in place of the serialized response, so the cached bytes
+   * should be invalidated before the compression type is changed.
+   */
+  public void setCompressionType(final CompressionType compressionType) {
+    this.compressionType = compressionType;
+  }
+
   public void invalidateByteBuffer() {
     // maybe friendly for gc
     byteBuffer = null;
@@ -93,9 +127,25 @@ public class CachedSubscriptionPollResponse extends SubscriptionPollResponse {
   }
 
   private ByteBuffer serialize() throws IOException {
-    return Objects.nonNull(byteBuffer)
-        ? byteBuffer
-        : (byteBuffer = SubscriptionPollResponse.serialize(this));
+    if (Objects.nonNull(byteBuffer)) {
+      return byteBuffer;
+    }
+
+    final PublicBAOS pooledBuffer = SERIALIZATION_BUFFER_POOL.poll();
+    final PublicBAOS serializationBuffer =
+        Objects.nonNull(pooledBuffer) ? pooledBuffer : new PublicBAOS();
+    try {
+      final ByteBuffer serializedResponse =
+          SubscriptionPollResponse.serialize(this, serializationBuffer);
+      return byteBuffer =
+          getResponseType() == SubscriptionPollResponseType.TABLETS.getType()
+              ? SubscriptionPollResponse.compress(serializedResponse, compressionType)
+              : serializedResponse;
+    } finally {
+      if (serializationBuffer.getBuf().length <= MAX_POOLED_SERIALIZATION_BUFFER_SIZE_IN_BYTES) {
+        SERIALIZATION_BUFFER_POOL.offer(serializationBuffer);
+      }
+    }
   }
 
   /////////////////////////////// stringify ///////////////////////////////
@@ -113,6 +163,7 @@ public class CachedSubscriptionPollResponse extends SubscriptionPollResponse {
         Objects.isNull(byteBuffer)
             ? "<unknown>"
             : String.valueOf(byteBuffer.limit() - byteBuffer.position()));
+    coreReportMessage.put("compressionType", compressionType.toString());
     coreReportMessage.put(
         "memoryBlock", Objects.isNull(memoryBlock) ? "<unknown>" : memoryBlock.toString());
     return coreReportMessage;
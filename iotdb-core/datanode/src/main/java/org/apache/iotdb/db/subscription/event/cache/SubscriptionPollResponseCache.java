@@ -29,6 +29,7 @@ import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionPollResponse;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.github.benmanes.caffeine.cache.Weigher;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,6 +64,21 @@ public class SubscriptionPollResponseCache {
     }
   }
 
+  /**
+   * Serialize the response compressed by the given type. The compressed bytes are cached and
+   * weighed in place of the serialized response, so that they are compressed only once unless a
+   * consumer of the same group asks for another compression type.
+   */
+  public ByteBuffer serialize(
+      final CachedSubscriptionPollResponse response, final CompressionType compressionType)
+      throws IOException {
+    if (Objects.nonNull(response) && response.getCompressionType() != compressionType) {
+      invalidate(response);
+      response.setCompressionType(compressionType);
+    }
+    return serialize(response);
+  }
+
   public Optional<ByteBuffer> trySerialize(final CachedSubscriptionPollResponse response) {
     try {
       if (Objects.isNull(response)) {
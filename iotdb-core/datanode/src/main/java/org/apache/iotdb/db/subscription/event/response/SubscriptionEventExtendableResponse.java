@@ -22,6 +22,8 @@ package org.apache.iotdb.db.subscription.event.response;
 import org.apache.iotdb.db.subscription.event.cache.CachedSubscriptionPollResponse;
 import org.apache.iotdb.db.subscription.event.cache.SubscriptionPollResponseCache;
 
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Deque;
@@ -58,11 +60,19 @@ public abstract class SubscriptionEventExtendableResponse
 
   @Override
   public void trySerializeRemainingResponses() {
+    // the remaining responses are compressed the same way as the current one in advance
+    final CachedSubscriptionPollResponse currentResponse = getCurrentResponse();
     responses.stream()
         .skip(1)
         .filter(response -> Objects.isNull(response.getByteBuffer()))
         .findFirst()
-        .ifPresent(response -> SubscriptionPollResponseCache.getInstance().trySerialize(response));
+        .ifPresent(
+            response -> {
+              if (Objects.nonNull(currentResponse)) {
+                response.setCompressionType(currentResponse.getCompressionType());
+              }
+              SubscriptionPollResponseCache.getInstance().trySerialize(response);
+            });
   }
 
   @Override
@@ -70,6 +80,13 @@ public abstract class SubscriptionEventExtendableResponse
     return SubscriptionPollResponseCache.getInstance().serialize(getCurrentResponse());
   }
 
+  @Override
+  public ByteBuffer getCurrentResponseByteBuffer(final CompressionType compressionType)
+      throws IOException {
+    return SubscriptionPollResponseCache.getInstance()
+        .serialize(getCurrentResponse(), compressionType);
+  }
+
   @Override
   public void invalidateCurrentResponseByteBuffer() {
     SubscriptionPollResponseCache.getInstance().invalidate(getCurrentResponse());
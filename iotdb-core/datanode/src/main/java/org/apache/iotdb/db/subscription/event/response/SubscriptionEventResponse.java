@@ -19,6 +19,8 @@
 
 package org.apache.iotdb.db.subscription.event.response;
 
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+
 import java.io.IOException;
 import java.nio.ByteBuffer;
 
@@ -41,6 +43,9 @@ public interface SubscriptionEventResponse<E> {
 
   ByteBuffer getCurrentResponseByteBuffer() throws IOException;
 
+  ByteBuffer getCurrentResponseByteBuffer(final CompressionType compressionType)
+      throws IOException;
+
   void invalidateCurrentResponseByteBuffer();
 
   /////////////////////////////// lifecycle ///////////////////////////////
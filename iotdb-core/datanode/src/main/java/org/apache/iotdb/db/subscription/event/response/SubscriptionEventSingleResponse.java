@@ -27,6 +27,8 @@ import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionPollPayload;
 import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionPollResponse;
 import org.apache.iotdb.rpc.subscription.payload.poll.TerminationPayload;
 
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.HashMap;
@@ -104,6 +106,12 @@ public class SubscriptionEventSingleResponse
     return SubscriptionPollResponseCache.getInstance().serialize(response);
   }
 
+  @Override
+  public ByteBuffer getCurrentResponseByteBuffer(final CompressionType compressionType)
+      throws IOException {
+    return SubscriptionPollResponseCache.getInstance().serialize(response, compressionType);
+  }
+
   @Override
   public void invalidateCurrentResponseByteBuffer() {
     SubscriptionPollResponseCache.getInstance().invalidate(response);
@@ -85,6 +85,7 @@ import org.apache.iotdb.service.rpc.thrift.TPipeSubscribeResp;
 import org.apache.iotdb.session.subscription.util.PollTimer;
 
 import org.apache.thrift.TException;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -643,10 +644,13 @@ public class SubscriptionReceiverV1 implements SubscriptionReceiver {
                   }
 
                   try {
-                    final ByteBuffer byteBuffer = event.getCurrentResponseByteBuffer();
+                    final ByteBuffer byteBuffer =
+                        event.getCurrentResponseByteBuffer(
+                            getCompressionType(consumerConfig, response));
 
                     // payload size control
-                    final long size = event.getCurrentResponseSize();
+                    // refer to org.apache.thrift.protocol.TBinaryProtocol.writeBinary
+                    final long size = byteBuffer.limit() - byteBuffer.position();
                     if (totalSize.get() + size > maxBytes) {
                       throw new SubscriptionPayloadExceedException(
                           String.format(
@@ -724,6 +728,18 @@ public class SubscriptionReceiverV1 implements SubscriptionReceiver {
             .collect(Collectors.toList()));
   }
 
+  /**
+   * Tablets are compressed for the consumers asking for it. The compressed bytes are cached in
+   * place of the serialized response, and are compressed again only if a consumer of the same
+   * group asks for another compression type.
+   */
+  private static CompressionType getCompressionType(
+      final ConsumerConfig consumerConfig, final SubscriptionPollResponse response) {
+    return response.getResponseType() == SubscriptionPollResponseType.TABLETS.getType()
+        ? consumerConfig.getCompressionType()
+        : CompressionType.UNCOMPRESSED;
+  }
+
   private List<SubscriptionEvent> handlePipeSubscribePollRequest(
       final ConsumerConfig consumerConfig,
       final PollPayload messagePayload,
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.cq;
+
+import org.apache.iotdb.commons.cq.CQState;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.confignode.rpc.thrift.TCQEntry;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertRowNode;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowStatement;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+public class IncrementalContinuousQueryTest {
+
+  private static final String QUERY_BODY =
+      "select count(s1), avg(s1) into root.backup.d1(c, a) from root.sg.d1 group by(10s)";
+
+  private static TCQEntry createEntry(String queryBody) {
+    String sql = "create cq cq1 begin " + queryBody + " end";
+    return new TCQEntry("cq1", sql, CQState.ACTIVE.getType())
+        .setQueryBody(queryBody)
+        .setEveryInterval(10_000)
+        .setBoundaryTime(0)
+        .setStartTimeOffset(20_000)
+        .setEndTimeOffset(0)
+        .setZoneId("UTC")
+        .setUsername("root");
+  }
+
+  private static InsertRowNode createInsertRowNode(long time, int value) throws Exception {
+    return new InsertRowNode(
+        new PlanNodeId("1"),
+        new PartialPath("root.sg.d1"),
+        false,
+        new String[] {"s1"},
+        new TSDataType[] {TSDataType.INT32},
+        time,
+        new Object[] {value},
+        false);
+  }
+
+  @Test
+  public void testEligibility() {
+    Assert.assertNotNull(IncrementalContinuousQuery.tryCreate(createEntry(QUERY_BODY)));
+    Assert.assertNull(
+        IncrementalContinuousQuery.tryCreate(
+            createEntry(
+                "select count(s1) into root.backup.d1(c) from root.sg.d1 where s1 > 0"
+                    + " group by(10s)")));
+    Assert.assertNull(
+        IncrementalContinuousQuery.tryCreate(
+            createEntry("select count(s1) into root.backup.d1(c) from root.sg.* group by(10s)")));
+    Assert.assertNull(
+        IncrementalContinuousQuery.tryCreate(
+            createEntry("select count(s1) into root.backup.d1(c) from root.sg.d1 group by(3s)")));
+  }
+
+  @Test
+  public void testFoldAndCollect() throws Exception {
+    IncrementalContinuousQuery query =
+        IncrementalContinuousQuery.tryCreate(createEntry(QUERY_BODY));
+    Assert.assertNotNull(query);
+
+    query.fold(1, createInsertRowNode(100_500, 1), 100_000);
+    query.fold(1, createInsertRowNode(101_000, 3), 100_000);
+    Assert.assertTrue(query.collectResults(Collections.singleton(1), 105_000).isEmpty());
+
+    List<InsertRowStatement> results = query.collectResults(Collections.singleton(1), 110_000);
+    Assert.assertEquals(1, results.size());
+    InsertRowStatement result = results.get(0);
+    Assert.assertEquals("root.backup.d1", result.getDevicePath().getFullPath());
+    Assert.assertEquals(100_000, result.getTime());
+    Assert.assertArrayEquals(new String[] {"c", "a"}, result.getMeasurements());
+    Assert.assertArrayEquals(new Object[] {2L, 2.0}, result.getValues());
+
+    // not changed since the last collection
+    Assert.assertTrue(query.collectResults(Collections.singleton(1), 110_000).isEmpty());
+    // the partial results of the regions not led any more are dropped
+    query.fold(1, createInsertRowNode(102_000, 5), 110_000);
+    Assert.assertTrue(query.collectResults(Collections.emptySet(), 110_000).isEmpty());
+  }
+
+  @Test
+  public void testWindowsToQuery() throws Exception {
+    IncrementalContinuousQuery query =
+        IncrementalContinuousQuery.tryCreate(createEntry(QUERY_BODY));
+    Assert.assertNotNull(query);
+
+    // the region may hold points of the window written before the state is created
+    query.fold(1, createInsertRowNode(95_000, 1), 100_000);
+    query.markWindowsToQuery(101_000, 101_000, 100_000);
+    Assert.assertTrue(query.collectResults(Collections.singleton(1), 110_000).isEmpty());
+
+    List<long[]> timeRanges = query.pollTimeRangesToQuery(110_000);
+    Assert.assertEquals(1, timeRanges.size());
+    Assert.assertArrayEquals(new long[] {90_000, 110_000}, timeRanges.get(0));
+    Assert.assertTrue(query.pollTimeRangesToQuery(110_000).isEmpty());
+  }
+
+  @Test
+  public void testOverwrittenPoint() throws Exception {
+    IncrementalContinuousQuery query =
+        IncrementalContinuousQuery.tryCreate(createEntry(QUERY_BODY));
+    Assert.assertNotNull(query);
+
+    query.fold(1, createInsertRowNode(100_500, 1), 100_000);
+    query.fold(1, createInsertRowNode(101_000, 3), 100_000);
+    // written again with the same timestamp, e.g. by a retry of the client
+    query.fold(1, createInsertRowNode(101_000, 3), 100_000);
+    // the window is not written from the partial results counting the point twice
+    Assert.assertTrue(query.collectResults(Collections.singleton(1), 110_000).isEmpty());
+    List<long[]> timeRanges = query.pollTimeRangesToQuery(110_000);
+    Assert.assertEquals(1, timeRanges.size());
+    Assert.assertArrayEquals(new long[] {100_000, 110_000}, timeRanges.get(0));
+
+    // a point earlier than the folded ones may overwrite one of them as well
+    query.fold(1, createInsertRowNode(111_000, 1), 110_000);
+    query.fold(1, createInsertRowNode(110_500, 2), 110_000);
+    Assert.assertTrue(query.collectResults(Collections.singleton(1), 120_000).isEmpty());
+    timeRanges = query.pollTimeRangesToQuery(120_000);
+    Assert.assertEquals(1, timeRanges.size());
+    Assert.assertArrayEquals(new long[] {110_000, 120_000}, timeRanges.get(0));
+  }
+}
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.pipe.event.common.tsfile.rewriter;
+
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.pipe.datastructure.pattern.IoTDBTreePattern;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.read.TsFileSequenceReader;
+import org.apache.tsfile.write.TsFileWriter;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TsFileChunkPassthroughRewriterTest {
+
+  private static final int ROWS_PER_CHUNK = 100;
+  private static final int CHUNK_COUNT = 3;
+
+  private final File sourceTsFile = new File("passthrough-source.tsfile");
+  private final File targetTsFile = new File("passthrough-target.tsfile");
+
+  @After
+  public void tearDown() {
+    sourceTsFile.delete();
+    targetTsFile.delete();
+  }
+
+  @Test
+  public void testNonAlignedChunksCopiedAndBoundaryChunkDecoded() throws Exception {
+    writeSourceTsFile(false);
+
+    final TsFileChunkPassthroughRewriter rewriter =
+        new TsFileChunkPassthroughRewriter(
+            sourceTsFile,
+            false,
+            new IoTDBTreePattern("root.sg.d1.s1"),
+            100,
+            249,
+            targetTsFile);
+    final TsFileResource resource = rewriter.rewrite();
+
+    Assert.assertNotNull(resource);
+    // [0, 99] is skipped, [100, 199] is copied and [200, 299] is decoded
+    Assert.assertEquals(1, rewriter.getCopiedChunkCount());
+    Assert.assertEquals(1, rewriter.getDecodedChunkCount());
+    Assert.assertEquals(100, resource.getFileStartTime());
+    Assert.assertEquals(249, resource.getFileEndTime());
+
+    final Map<String, Long> pointCounts = countPoints(targetTsFile);
+    Assert.assertEquals(1, pointCounts.size());
+    Assert.assertEquals(150L, (long) pointCounts.get("root.sg.d1.s1"));
+  }
+
+  @Test
+  public void testAlignedChunksCopiedWithAllColumnsSelected() throws Exception {
+    writeSourceTsFile(true, true);
+
+    final TsFileChunkPassthroughRewriter rewriter =
+        new TsFileChunkPassthroughRewriter(
+            sourceTsFile,
+            false,
+            new IoTDBTreePattern("root.sg.d1.**"),
+            Long.MIN_VALUE,
+            Long.MAX_VALUE,
+            targetTsFile);
+    Assert.assertNotNull(rewriter.rewrite());
+    Assert.assertEquals(CHUNK_COUNT, rewriter.getCopiedChunkCount());
+    Assert.assertEquals(0, rewriter.getDecodedChunkCount());
+
+    final Map<String, Long> pointCounts = countPoints(targetTsFile);
+    Assert.assertEquals(3, pointCounts.size());
+    Assert.assertEquals((long) ROWS_PER_CHUNK * CHUNK_COUNT, (long) pointCounts.get("root.sg.d1."));
+    Assert.assertEquals(
+        (long) ROWS_PER_CHUNK * CHUNK_COUNT, (long) pointCounts.get("root.sg.d1.s1"));
+    Assert.assertEquals(
+        (long) ROWS_PER_CHUNK * CHUNK_COUNT / 2, (long) pointCounts.get("root.sg.d1.s2"));
+  }
+
+  @Test
+  public void testAlignedChunksDecodedWithSomeColumnsSelected() throws Exception {
+    writeSourceTsFile(true, true);
+
+    final TsFileChunkPassthroughRewriter rewriter =
+        new TsFileChunkPassthroughRewriter(
+            sourceTsFile,
+            false,
+            new IoTDBTreePattern("root.sg.d1.s2"),
+            Long.MIN_VALUE,
+            Long.MAX_VALUE,
+            targetTsFile);
+    Assert.assertNotNull(rewriter.rewrite());
+    Assert.assertEquals(0, rewriter.getCopiedChunkCount());
+    Assert.assertEquals(CHUNK_COUNT, rewriter.getDecodedChunkCount());
+
+    // the rows only having values in s1 are not kept as all-null rows
+    final Map<String, Long> pointCounts = countPoints(targetTsFile);
+    Assert.assertEquals(2, pointCounts.size());
+    Assert.assertEquals(
+        (long) ROWS_PER_CHUNK * CHUNK_COUNT / 2, (long) pointCounts.get("root.sg.d1."));
+    Assert.assertEquals(
+        (long) ROWS_PER_CHUNK * CHUNK_COUNT / 2, (long) pointCounts.get("root.sg.d1.s2"));
+  }
+
+  @Test
+  public void testAlignedBoundaryChunkDecoded() throws Exception {
+    writeSourceTsFile(true);
+
+    final TsFileChunkPassthroughRewriter rewriter =
+        new TsFileChunkPassthroughRewriter(
+            sourceTsFile, false, new IoTDBTreePattern("root.sg.**"), 50, 199, targetTsFile);
+    Assert.assertNotNull(rewriter.rewrite());
+    // for each device, [0, 99] is decoded, [100, 199] is copied and [200, 299] is skipped
+    Assert.assertEquals(2, rewriter.getCopiedChunkCount());
+    Assert.assertEquals(2, rewriter.getDecodedChunkCount());
+
+    final Map<String, Long> pointCounts = countPoints(targetTsFile);
+    Assert.assertEquals(150L, (long) pointCounts.get("root.sg.d1.s1"));
+    Assert.assertEquals(150L, (long) pointCounts.get("root.sg.d1.s2"));
+    Assert.assertEquals(150L, (long) pointCounts.get("root.sg.d2.s1"));
+  }
+
+  @Test
+  public void testNothingLeftAfterFiltering() throws Exception {
+    writeSourceTsFile(false);
+
+    final TsFileChunkPassthroughRewriter rewriter =
+        new TsFileChunkPassthroughRewriter(
+            sourceTsFile,
+            false,
+            new IoTDBTreePattern("root.sg.d3.**"),
+            Long.MIN_VALUE,
+            Long.MAX_VALUE,
+            targetTsFile);
+    Assert.assertNull(rewriter.rewrite());
+    Assert.assertFalse(targetTsFile.exists());
+  }
+
+  private void writeSourceTsFile(final boolean isAligned) throws Exception {
+    writeSourceTsFile(isAligned, false);
+  }
+
+  /** @param isS2Sparse if true, s2 only has values at the even timestamps */
+  private void writeSourceTsFile(final boolean isAligned, final boolean isS2Sparse)
+      throws Exception {
+    final List<IMeasurementSchema> schemaList =
+        Arrays.asList(
+            new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.PLAIN, CompressionType.LZ4),
+            new MeasurementSchema("s2", TSDataType.DOUBLE, TSEncoding.PLAIN, CompressionType.LZ4));
+    try (final TsFileWriter writer = new TsFileWriter(sourceTsFile)) {
+      for (final String device : Arrays.asList("root.sg.d1", "root.sg.d2")) {
+        if (isAligned) {
+          writer.registerAlignedTimeseries(new PartialPath(device), schemaList);
+        } else {
+          writer.registerTimeseries(new PartialPath(device), schemaList);
+        }
+      }
+      for (int chunk = 0; chunk < CHUNK_COUNT; ++chunk) {
+        for (final String device : Arrays.asList("root.sg.d1", "root.sg.d2")) {
+          final Tablet tablet = new Tablet(device, schemaList, ROWS_PER_CHUNK);
+          for (int row = 0; row < ROWS_PER_CHUNK; ++row) {
+            final long time = (long) chunk * ROWS_PER_CHUNK + row;
+            tablet.addTimestamp(row, time);
+            tablet.addValue("s1", row, time);
+            if (!isS2Sparse || time % 2 == 0) {
+              tablet.addValue("s2", row, (double) time);
+            }
+          }
+          if (isAligned) {
+            writer.writeAligned(tablet);
+          } else {
+            writer.writeTree(tablet);
+          }
+        }
+        writer.flush();
+      }
+    }
+  }
+
+  private static Map<String, Long> countPoints(final File tsFile) throws IOException {
+    final Map<String, Long> pointCounts = new HashMap<>();
+    try (final TsFileSequenceReader reader = new TsFileSequenceReader(tsFile.getPath())) {
+      for (final Map.Entry<IDeviceID, List<TimeseriesMetadata>> entry :
+          reader.getAllTimeseriesMetadata(false).entrySet()) {
+        for (final TimeseriesMetadata timeseriesMetadata : entry.getValue()) {
+          pointCounts.put(
+              entry.getKey() + "." + timeseriesMetadata.getMeasurementId(),
+              timeseriesMetadata.getStatistics().getCount());
+        }
+      }
+    }
+    return pointCounts;
+  }
+}
@@ -41,10 +41,12 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -178,6 +180,79 @@ public class CachedSchemaPatternMatcherTest {
     future.get();
   }
 
+  @Test
+  public void testIndexedMatchConsistentWithPatterns() throws Exception {
+    for (final String pattern :
+        Arrays.asList(
+            "root", "root.db", "root.db1", "root.db1.d", "root.db1.d1.s", "root.db2.", "root.d")) {
+      extractors.add(createSource(PipeSourceConstant.EXTRACTOR_PATTERN_KEY, pattern));
+    }
+    for (final String path :
+        Arrays.asList(
+            "root.**",
+            "root.db1.**",
+            "root.db1.d1.s1",
+            "root.db*.d1.**",
+            "root.*.d2.*",
+            "root.db2.d1*.**",
+            "root.**.s1",
+            "root.db3.d1.s1.**")) {
+      extractors.add(createSource(PipeSourceConstant.EXTRACTOR_PATH_KEY, path));
+    }
+    extractors.forEach(matcher::register);
+
+    final List<String> devices =
+        Arrays.asList(
+            "root",
+            "root.db",
+            "root.db1",
+            "root.db10",
+            "root.db1.d1",
+            "root.db1.d10",
+            "root.db1.d1.x",
+            "root.db2.d1",
+            "root.db2.d2",
+            "root.db3.d2",
+            "root.db3");
+    assertMatchedSources(devices);
+
+    // The index shall be updated when the sources are deregistered
+    final List<PipeRealtimeDataRegionSource> deregisteredExtractors = new ArrayList<>();
+    for (int i = 0; i < extractors.size(); i += 2) {
+      deregisteredExtractors.add(extractors.get(i));
+    }
+    deregisteredExtractors.forEach(matcher::deregister);
+    extractors.removeAll(deregisteredExtractors);
+    assertMatchedSources(devices);
+  }
+
+  private void assertMatchedSources(final List<String> devices) {
+    for (final String device : devices) {
+      final IDeviceID deviceID = new StringArrayDeviceID(device);
+      final Set<PipeRealtimeDataRegionSource> expected =
+          extractors.stream()
+              .filter(extractor -> extractor.getTreePattern().overlapWithDevice(deviceID))
+              .collect(Collectors.toSet());
+      Assert.assertEquals(
+          device,
+          expected,
+          matcher
+              .match(
+                  new MockedPipeRealtimeEvent(
+                      null, null, Collections.singletonMap(deviceID, new String[0])))
+              .getLeft());
+    }
+  }
+
+  private static PipeRealtimeDataRegionSource createSource(final String key, final String value)
+      throws Exception {
+    final PipeRealtimeDataRegionSource source = new PipeRealtimeDataRegionFakeSource();
+    source.customize(
+        new PipeParameters(new HashMap<>(Collections.singletonMap(key, value))),
+        new PipeTaskRuntimeConfiguration(new PipeTaskSourceRuntimeEnvironment("1", 1, 1, null)));
+    return source;
+  }
+
   public static class PipeRealtimeDataRegionFakeSource extends PipeRealtimeDataRegionSource {
 
     public PipeRealtimeDataRegionFakeSource() {
@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.aggregation;
+
+import org.apache.iotdb.calc.execution.operator.source.relational.aggregation.AggregationMask;
+import org.apache.iotdb.calc.execution.operator.source.relational.aggregation.UserDefinedAggregateFunctionAccumulator;
+import org.apache.iotdb.calc.execution.operator.source.relational.aggregation.grouped.GroupedUserDefinedAggregateAccumulator;
+import org.apache.iotdb.udf.api.IoTDBLocal;
+import org.apache.iotdb.udf.api.State;
+import org.apache.iotdb.udf.api.customizer.analysis.AggregateFunctionAnalysis;
+import org.apache.iotdb.udf.api.customizer.parameter.FunctionArguments;
+import org.apache.iotdb.udf.api.relational.AggregateFunction;
+import org.apache.iotdb.udf.api.relational.access.Record;
+import org.apache.iotdb.udf.api.utils.ResultValue;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.column.IntColumnBuilder;
+import org.apache.tsfile.read.common.block.column.LongColumnBuilder;
+import org.apache.tsfile.read.common.type.TypeFactory;
+import org.apache.tsfile.utils.BytesUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.mockito.Mockito.mock;
+
+public class UserDefinedAggregateAccumulatorTest {
+
+  private static final int[] INPUT = new int[] {1, 2, 3, 4};
+
+  private static final int[] GROUP_IDS = new int[] {0, 1, 0, 1};
+
+  @Test
+  public void testRowBased() {
+    SumFunction function = new SumFunction(false);
+    Assert.assertEquals(10, evaluate(function, AggregationMask.createSelectAll(INPUT.length)));
+    Assert.assertEquals(4, evaluate(function, selectPositions(0, 2)));
+    Assert.assertEquals(0, function.batchCount);
+  }
+
+  @Test
+  public void testBatch() {
+    SumFunction function = new SumFunction(true);
+    Assert.assertEquals(10, evaluate(function, AggregationMask.createSelectAll(INPUT.length)));
+    Assert.assertEquals(4, evaluate(function, selectPositions(0, 2)));
+    Assert.assertEquals(0, evaluate(function, AggregationMask.createSelectNone(INPUT.length)));
+    Assert.assertEquals(2, function.batchCount);
+  }
+
+  @Test
+  public void testDefaultBatchNotImplemented() {
+    try {
+      new SumFunction(false).addInput(new SumState(), new Column[] {createColumn()}, null, 1);
+      Assert.fail();
+    } catch (UnsupportedOperationException ignored) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testDefaultGroupedBatch() {
+    // the grouped batch method is not overridden, the rows are added one by one by default
+    SumFunction function = new SumFunction(true);
+    long[] result = evaluateGrouped(function, AggregationMask.createSelectAll(INPUT.length));
+    Assert.assertArrayEquals(new long[] {4, 6}, result);
+    Assert.assertEquals(INPUT.length, function.batchCount);
+
+    result = evaluateGrouped(function, selectPositions(1, 2));
+    Assert.assertArrayEquals(new long[] {3, 2}, result);
+  }
+
+  @Test
+  public void testOverriddenGroupedBatch() {
+    GroupedSumFunction function = new GroupedSumFunction();
+    long[] result = evaluateGrouped(function, AggregationMask.createSelectAll(INPUT.length));
+    Assert.assertArrayEquals(new long[] {4, 6}, result);
+    result = evaluateGrouped(function, selectPositions(1, 2));
+    Assert.assertArrayEquals(new long[] {3, 2}, result);
+    Assert.assertEquals(2, function.groupedBatchCount);
+    Assert.assertEquals(0, function.batchCount);
+  }
+
+  private static long evaluate(SumFunction function, AggregationMask mask) {
+    FunctionArguments arguments = createArguments();
+    UserDefinedAggregateFunctionAccumulator accumulator =
+        new UserDefinedAggregateFunctionAccumulator(
+            function.analyze(arguments),
+            function,
+            arguments,
+            Collections.singletonList(TypeFactory.getType(TSDataType.INT32)),
+            mock(IoTDBLocal.class));
+    accumulator.addInput(new Column[] {createColumn()}, mask);
+    ColumnBuilder builder = new LongColumnBuilder(null, 1);
+    accumulator.evaluateFinal(builder);
+    return builder.build().getLong(0);
+  }
+
+  private static long[] evaluateGrouped(SumFunction function, AggregationMask mask) {
+    FunctionArguments arguments = createArguments();
+    GroupedUserDefinedAggregateAccumulator accumulator =
+        new GroupedUserDefinedAggregateAccumulator(
+            function.analyze(arguments),
+            function,
+            arguments,
+            Collections.singletonList(TypeFactory.getType(TSDataType.INT32)),
+            mock(IoTDBLocal.class));
+    accumulator.setGroupCount(2);
+    accumulator.addInput(GROUP_IDS, new Column[] {createColumn()}, mask);
+    ColumnBuilder builder = new LongColumnBuilder(null, 2);
+    accumulator.evaluateFinal(0, builder);
+    accumulator.evaluateFinal(1, builder);
+    Column result = builder.build();
+    return new long[] {result.getLong(0), result.getLong(1)};
+  }
+
+  private static AggregationMask selectPositions(int... positions) {
+    return AggregationMask.createSelectedPositions(INPUT.length, positions, positions.length);
+  }
+
+  private static Column createColumn() {
+    IntColumnBuilder builder = new IntColumnBuilder(null, INPUT.length);
+    for (int value : INPUT) {
+      builder.writeInt(value);
+    }
+    return builder.build();
+  }
+
+  private static FunctionArguments createArguments() {
+    return new FunctionArguments(
+        Collections.singletonList(org.apache.iotdb.udf.api.type.Type.INT32),
+        Collections.emptyMap());
+  }
+
+  private static class SumState implements State {
+
+    private long sum;
+
+    @Override
+    public void reset() {
+      sum = 0;
+    }
+
+    @Override
+    public byte[] serialize() {
+      return BytesUtils.longToBytes(sum);
+    }
+
+    @Override
+    public void deserialize(byte[] bytes) {
+      sum = BytesUtils.bytesToLong(bytes);
+    }
+  }
+
+  private static class SumFunction implements AggregateFunction {
+
+    private final boolean batchInput;
+    protected int batchCount = 0;
+
+    private SumFunction(boolean batchInput) {
+      this.batchInput = batchInput;
+    }
+
+    @Override
+    public AggregateFunctionAnalysis analyze(FunctionArguments arguments) {
+      return new AggregateFunctionAnalysis.Builder()
+          .outputDataType(org.apache.iotdb.udf.api.type.Type.INT64)
+          .batchInput(batchInput)
+          .build();
+    }
+
+    @Override
+    public State createState() {
+      return new SumState();
+    }
+
+    @Override
+    public void addInput(State state, Record input) {
+      if (!input.isNull(0)) {
+        ((SumState) state).sum += input.getInt(0);
+      }
+    }
+
+    @Override
+    public void addInput(
+        State state, Column[] columns, int[] selectedPositions, int selectedPositionCount) {
+      if (!batchInput) {
+        AggregateFunction.super.addInput(state, columns, selectedPositions, selectedPositionCount);
+      }
+      batchCount++;
+      for (int i = 0; i < selectedPositionCount; i++) {
+        int position = selectedPositions == null ? i : selectedPositions[i];
+        if (!columns[0].isNull(position)) {
+          ((SumState) state).sum += columns[0].getInt(position);
+        }
+      }
+    }
+
+    @Override
+    public void combineState(State state, State rhs) {
+      ((SumState) state).sum += ((SumState) rhs).sum;
+    }
+
+    @Override
+    public void outputFinal(State state, ResultValue resultValue) {
+      resultValue.setLong(((SumState) state).sum);
+    }
+  }
+
+  private static class GroupedSumFunction extends SumFunction {
+
+    private int groupedBatchCount = 0;
+
+    private GroupedSumFunction() {
+      super(true);
+    }
+
+    @Override
+    public void addInput(
+        State[] states, Column[] columns, int[] selectedPositions, int selectedPositionCount) {
+      groupedBatchCount++;
+      for (int i = 0; i < selectedPositionCount; i++) {
+        int position = selectedPositions == null ? i : selectedPositions[i];
+        ((SumState) states[position]).sum += columns[0].getInt(position);
+      }
+    }
+  }
+}
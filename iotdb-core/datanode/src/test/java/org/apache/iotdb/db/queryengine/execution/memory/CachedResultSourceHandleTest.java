@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.memory;
+
+import org.apache.iotdb.db.queryengine.plan.execution.memory.CachedResultSourceHandle;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.TsBlockSerde;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class CachedResultSourceHandleTest {
+
+  @Test
+  public void testReplayResult() throws IOException {
+    TsBlockSerde serde = new TsBlockSerde();
+    ByteBuffer first = serde.serialize(buildTsBlock(1L, 1));
+    ByteBuffer second = serde.serialize(buildTsBlock(2L, 2));
+    CachedResultSourceHandle sourceHandle =
+        new CachedResultSourceHandle(Arrays.asList(first, second));
+
+    Assert.assertFalse(sourceHandle.isFinished());
+    Assert.assertTrue(sourceHandle.isBlocked().isDone());
+    TsBlock result = sourceHandle.receive();
+    Assert.assertEquals(1L, result.getTimeByIndex(0));
+    Assert.assertEquals(1, result.getColumn(0).getInt(0));
+    Assert.assertFalse(sourceHandle.isFinished());
+    ByteBuffer serializedResult = sourceHandle.getSerializedTsBlock();
+    Assert.assertEquals(2L, serde.deserialize(serializedResult).getTimeByIndex(0));
+    Assert.assertTrue(sourceHandle.isFinished());
+
+    // the cached buffers must stay readable for the following queries
+    Assert.assertEquals(0, first.position());
+    Assert.assertEquals(0, second.position());
+  }
+
+  private static TsBlock buildTsBlock(long time, int value) {
+    TsBlockBuilder builder = new TsBlockBuilder(Collections.singletonList(TSDataType.INT32));
+    builder.getTimeColumnBuilder().writeLong(time);
+    builder.getColumnBuilder(0).writeInt(value);
+    builder.declarePosition();
+    return builder.build();
+  }
+}
@@ -530,6 +530,53 @@ public class DefaultDriverSchedulerTest {
     }
   }
 
+  @Test
+  public void testIdleWorkerThreadNum() throws InterruptedException {
+    IMPPDataExchangeManager mockMPPDataExchangeManager =
+        Mockito.mock(IMPPDataExchangeManager.class);
+    manager.setBlockManager(mockMPPDataExchangeManager);
+    ITaskScheduler defaultScheduler = manager.getScheduler();
+    DriverTaskHandle driverTaskHandle =
+        new DriverTaskHandle(
+            1,
+            (MultilevelPriorityQueue) manager.getReadyQueue(),
+            OptionalInt.of(Integer.MAX_VALUE));
+    QueryId queryId = new QueryId("test");
+    FragmentInstanceId instanceId =
+        new FragmentInstanceId(new PlanFragmentId(queryId, 0), "inst-0");
+    FragmentInstanceStateMachine stateMachine =
+        new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+    FragmentInstanceContext fragmentInstanceContext =
+        createFragmentInstanceContext(instanceId, stateMachine);
+    DriverTask[] tasks = new DriverTask[2];
+    for (int i = 0; i < tasks.length; i++) {
+      IDriver mockDriver = Mockito.mock(IDriver.class);
+      Mockito.when(mockDriver.getDriverTaskId()).thenReturn(new DriverTaskId(instanceId, i));
+      Mockito.when(mockDriver.getDriverContext())
+          .thenReturn(new DriverContext(fragmentInstanceContext, i));
+      tasks[i] =
+          new DriverTask(mockDriver, 100L, DriverTaskStatus.READY, driverTaskHandle, 0, false);
+    }
+    int workerThreadNum = manager.getIdleWorkerThreadNum();
+
+    manager.getReadyQueue().push(tasks[0]);
+    manager.getReadyQueue().push(tasks[1]);
+    Assert.assertEquals(Math.max(0, workerThreadNum - 2), manager.getIdleWorkerThreadNum());
+
+    // a running task still occupies its worker thread after leaving the ready queue
+    DriverTask runningTask = manager.getReadyQueue().poll();
+    Assert.assertTrue(defaultScheduler.readyToRunning(runningTask));
+    Assert.assertEquals(Math.max(0, workerThreadNum - 2), manager.getIdleWorkerThreadNum());
+
+    ExecutionContext context = new ExecutionContext();
+    context.setTimeSlice(new Duration(1, TimeUnit.SECONDS));
+    context.setCpuDuration(new CpuTimer.CpuDuration());
+    defaultScheduler.runningToBlocked(runningTask, context);
+    Assert.assertEquals(Math.max(0, workerThreadNum - 1), manager.getIdleWorkerThreadNum());
+    clear();
+    Assert.assertEquals(workerThreadNum, manager.getIdleWorkerThreadNum());
+  }
+
   private void clear() {
     manager.getQueryMap().clear();
     manager.getBlockedTasks().clear();
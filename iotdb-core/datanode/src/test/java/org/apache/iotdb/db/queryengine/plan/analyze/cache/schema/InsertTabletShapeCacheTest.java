@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.analyze.cache.schema;
+
+import org.apache.iotdb.commons.partition.DataPartition;
+import org.apache.iotdb.commons.partition.DataPartitionQueryParam;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.schema.view.LogicalViewSchema;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.common.MPPQueryContext;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.common.schematree.IMeasurementSchemaInfo;
+import org.apache.iotdb.db.queryengine.common.schematree.MeasurementSchemaInfo;
+import org.apache.iotdb.db.queryengine.plan.analyze.ClusterPartitionFetcher;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache.TreeDeviceSchemaCacheManager;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertTabletStatement;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class InsertTabletShapeCacheTest {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private static final String[] MEASUREMENTS = new String[] {"s1", "s2"};
+  private static final TSDataType[] DATA_TYPES =
+      new TSDataType[] {TSDataType.INT64, TSDataType.DOUBLE};
+
+  private final MPPQueryContext context = new MPPQueryContext(new QueryId("shape_cache"));
+  private final DataPartition dataPartition = Mockito.mock(DataPartition.class);
+
+  private int originalCacheSize;
+  private InsertTabletShapeCache shapeCache;
+
+  private final AtomicInteger schemaValidationCount = new AtomicInteger();
+  private final AtomicInteger partitionQueryCount = new AtomicInteger();
+
+  @Before
+  public void setUp() {
+    originalCacheSize = CONFIG.getInsertTabletShapeCacheSize();
+    CONFIG.setInsertTabletShapeCacheSize(16);
+    shapeCache = InsertTabletShapeCache.create();
+    Assert.assertNotNull(shapeCache);
+  }
+
+  @After
+  public void tearDown() {
+    CONFIG.setInsertTabletShapeCacheSize(originalCacheSize);
+  }
+
+  @Test
+  public void testDisabledByDefault() {
+    CONFIG.setInsertTabletShapeCacheSize(0);
+    Assert.assertNull(InsertTabletShapeCache.create());
+  }
+
+  @Test
+  public void testHit() throws Exception {
+    InsertTabletStatement first = newStatement();
+    insert(first, false);
+    Assert.assertEquals(1, schemaValidationCount.get());
+    Assert.assertEquals(1, partitionQueryCount.get());
+
+    InsertTabletStatement second = newStatement();
+    Assert.assertSame(dataPartition, insert(second, false));
+    // neither the schema validation nor the partition query is done again
+    Assert.assertEquals(1, schemaValidationCount.get());
+    Assert.assertEquals(1, partitionQueryCount.get());
+    Assert.assertArrayEquals(first.getMeasurementSchemas(), second.getMeasurementSchemas());
+
+    // another shape
+    InsertTabletStatement third = newStatement();
+    third.setDevicePath(new PartialPath("root.sg.d2"));
+    insert(third, false);
+    Assert.assertEquals(2, schemaValidationCount.get());
+  }
+
+  @Test
+  public void testInvalidatedBySchemaVersion() throws Exception {
+    insert(newStatement(), false);
+    TreeDeviceSchemaCacheManager.getInstance().invalidateAll();
+
+    insert(newStatement(), false);
+    Assert.assertEquals(2, schemaValidationCount.get());
+    Assert.assertEquals(2, partitionQueryCount.get());
+  }
+
+  @Test
+  public void testInvalidatedByPartitionVersion() throws Exception {
+    insert(newStatement(), false);
+    ClusterPartitionFetcher.getInstance().invalidAllCache();
+
+    insert(newStatement(), false);
+    // the schema is still valid, only the partition is queried again
+    Assert.assertEquals(1, schemaValidationCount.get());
+    Assert.assertEquals(2, partitionQueryCount.get());
+  }
+
+  @Test
+  public void testFailedMeasurementNotRemembered() throws Exception {
+    InsertTabletStatement statement = newStatement();
+    InsertTabletShapeCache.Lookup lookup = shapeCache.lookup(statement);
+    lookup.validateSchema(statement, context, () -> validateSchema(statement, false));
+    statement.markFailedMeasurement(1, new Exception("failed"));
+    lookup.update(statement, dataPartition);
+
+    insert(newStatement(), false);
+    Assert.assertEquals(2, schemaValidationCount.get());
+  }
+
+  @Test
+  public void testLogicalViewNotRemembered() throws Exception {
+    insert(newStatement(), true);
+    insert(newStatement(), true);
+    Assert.assertEquals(2, schemaValidationCount.get());
+  }
+
+  private InsertTabletStatement newStatement() throws Exception {
+    InsertTabletStatement statement = new InsertTabletStatement();
+    statement.setDevicePath(new PartialPath("root.sg.d1"));
+    statement.setTimes(new long[] {1L, 2L});
+    statement.setRowCount(2);
+    statement.setMeasurements(MEASUREMENTS.clone());
+    statement.setDataTypes(DATA_TYPES.clone());
+    statement.setColumns(new Object[] {new long[] {1L, 2L}, new double[] {1.0, 2.0}});
+    return statement;
+  }
+
+  /** The same steps as the analysis of insertTablet with the shape cache. */
+  private DataPartition insert(InsertTabletStatement statement, boolean logicalView) {
+    InsertTabletShapeCache.Lookup lookup = shapeCache.lookup(statement);
+    lookup.validateSchema(statement, context, () -> validateSchema(statement, logicalView));
+    List<DataPartitionQueryParam> params =
+        Collections.singletonList(
+            new DataPartitionQueryParam(
+                statement.getDevicePath().getIDeviceID(), statement.getTimePartitionSlots()));
+    DataPartition result =
+        lookup.queryDataPartition(
+            params,
+            "root",
+            (dataPartitionQueryParams, userName) -> {
+              partitionQueryCount.incrementAndGet();
+              return dataPartition;
+            });
+    lookup.update(statement, result);
+    return result;
+  }
+
+  private void validateSchema(InsertTabletStatement statement, boolean logicalView) {
+    schemaValidationCount.incrementAndGet();
+    statement.validateDeviceSchema(false);
+    for (int i = 0; i < MEASUREMENTS.length; i++) {
+      IMeasurementSchemaInfo schemaInfo;
+      if (logicalView && i == 0) {
+        schemaInfo = Mockito.mock(IMeasurementSchemaInfo.class);
+        Mockito.when(schemaInfo.isLogicalView()).thenReturn(true);
+        Mockito.when(schemaInfo.getSchemaAsLogicalViewSchema())
+            .thenReturn(Mockito.mock(LogicalViewSchema.class));
+      } else {
+        schemaInfo =
+            new MeasurementSchemaInfo(
+                MEASUREMENTS[i],
+                new MeasurementSchema(MEASUREMENTS[i], DATA_TYPES[i]),
+                null,
+                null,
+                null);
+      }
+      statement.validateMeasurementSchema(i, schemaInfo);
+    }
+  }
+}
@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.execution.cache;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.common.rpc.thrift.TDataNodeLocation;
+import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
+import org.apache.iotdb.commons.memory.IMemoryBlock;
+import org.apache.iotdb.commons.memory.MemoryBlockType;
+import org.apache.iotdb.commons.memory.MemoryManager;
+import org.apache.iotdb.commons.partition.StorageExecutor;
+import org.apache.iotdb.commons.queryengine.plan.relational.metadata.QualifiedObjectName;
+import org.apache.iotdb.commons.queryengine.plan.relational.security.Identity;
+import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.QualifiedName;
+import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.Table;
+import org.apache.iotdb.commons.schema.table.TsTable;
+import org.apache.iotdb.commons.schema.table.column.AttributeColumnSchema;
+import org.apache.iotdb.commons.schema.table.column.FieldColumnSchema;
+import org.apache.iotdb.commons.schema.table.column.TagColumnSchema;
+import org.apache.iotdb.commons.schema.table.column.TimeColumnSchema;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.protocol.session.InternalClientSession;
+import org.apache.iotdb.db.queryengine.common.header.DatasetHeader;
+import org.apache.iotdb.db.queryengine.plan.analyze.Analysis;
+import org.apache.iotdb.db.queryengine.plan.execution.cache.QueryResultCache.CacheableQuery;
+import org.apache.iotdb.db.queryengine.plan.execution.cache.QueryResultCache.ResultRecorder;
+import org.apache.iotdb.db.queryengine.plan.parser.StatementGenerator;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.DistributedQueryPlan;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.FragmentInstance;
+import org.apache.iotdb.db.queryengine.plan.relational.security.AccessControl;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.parser.SqlParser;
+import org.apache.iotdb.db.schemaengine.table.DataNodeTableCache;
+
+import com.google.common.collect.ImmutableListMultimap;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.nio.ByteBuffer;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class QueryResultCacheTest {
+
+  private static final String SQL = "select s1 from root.sg.d1";
+
+  private IMemoryBlock memoryBlock;
+  private QueryResultCache cache;
+
+  @Before
+  public void setUp() {
+    memoryBlock =
+        new MemoryManager(1 << 20).exactAllocate("QueryResultCacheTest", MemoryBlockType.DYNAMIC);
+    cache = new QueryResultCache(1 << 20, 60_000L, memoryBlock);
+  }
+
+  @Test
+  public void testHit() {
+    Map<Integer, Long> regionVersions = new HashMap<>();
+    regionVersions.put(1, 3L);
+    regionVersions.put(2, 5L);
+    ByteBuffer result = ByteBuffer.wrap(new byte[] {1, 2, 3});
+    record(newQuery(regionVersions), result);
+
+    List<ByteBuffer> cached = cache.getResult(newQuery(new HashMap<>(regionVersions)));
+    assertEquals(Collections.singletonList(result), cached);
+    assertTrue(memoryBlock.getUsedMemoryInBytes() > 0);
+  }
+
+  @Test
+  public void testInvalidatedByRegionVersion() {
+    Map<Integer, Long> regionVersions = new HashMap<>();
+    regionVersions.put(1, 3L);
+    regionVersions.put(2, 5L);
+    record(newQuery(regionVersions), ByteBuffer.wrap(new byte[] {1, 2, 3}));
+
+    // a write to one of the regions read by the query advances its version
+    Map<Integer, Long> advanced = new HashMap<>(regionVersions);
+    advanced.put(2, 6L);
+    assertNull(cache.getResult(newQuery(advanced)));
+    // the stale entry is dropped and its memory released
+    assertNull(cache.getResult(newQuery(regionVersions)));
+    assertEquals(0, memoryBlock.getUsedMemoryInBytes());
+  }
+
+  @Test
+  public void testTreeModelDeterminism() {
+    assertTrue(isDeterministicTreeQuery("select s1 from root.sg.d1 where time > 100"));
+    assertTrue(isDeterministicTreeQuery("select count(s1), abs(s1) from root.sg.d1"));
+    assertTrue(isDeterministicTreeQuery("select diff(s1) from root.sg.d1"));
+
+    assertFalse(isDeterministicTreeQuery("select s1 from root.sg.d1 where time > now() - 1d"));
+    assertFalse(isDeterministicTreeQuery("select s1 from root.sg.d1 where time > now () - 1d"));
+    assertFalse(isDeterministicTreeQuery("select s1 from root.sg.d1 where time > NoW() - 1d"));
+    assertFalse(
+        isDeterministicTreeQuery(
+            "select s1 from root.sg.d1 /* last day */ where time >= now() - 1d"));
+    assertFalse(isDeterministicTreeQuery("select my_udf(s1) from root.sg.d1"));
+    assertFalse(
+        isDeterministicTreeQuery(
+            "select equal_size_bucket_random_sample(s1, 'proportion'='0.1') from root.sg.d1"));
+  }
+
+  @Test
+  public void testTableModelDeterminism() {
+    assertTrue(isDeterministicTableQuery("select s1 from t1 where time > 100"));
+    assertTrue(isDeterministicTableQuery("select count(s1), abs(s1) from t1 group by s1"));
+
+    assertFalse(isDeterministicTableQuery("select s1 from t1 where time > now() - 1d"));
+    assertFalse(isDeterministicTableQuery("select s1 from t1 where time > now ( ) - 1d"));
+    assertFalse(isDeterministicTableQuery("select s1 from t1 where time > NoW() - 1d"));
+    assertFalse(isDeterministicTableQuery("select now(), s1 from t1"));
+    assertFalse(isDeterministicTableQuery("select my_udf(s1) from t1"));
+  }
+
+  @Test
+  public void testTableAttributesAndTTLAreNotValidatedByDataVersions() {
+    String database = "query_result_cache_db";
+    DataNodeTableCache.getInstance().preUpdateTable(database, newTable("t1"), null);
+    DataNodeTableCache.getInstance().commitUpdateTable(database, "t1", null);
+    TsTable tableWithTTL = newTable("t2");
+    tableWithTTL.addProp(TsTable.TTL_PROPERTY, "3600000");
+    DataNodeTableCache.getInstance().preUpdateTable(database, tableWithTTL, null);
+    DataNodeTableCache.getInstance().commitUpdateTable(database, "t2", null);
+    try {
+      assertTrue(
+          QueryResultCache.isValidatedByDataVersions(newTableAnalysis(database, "t1", "s1")));
+      // attributes are updated in the schema region
+      assertFalse(
+          QueryResultCache.isValidatedByDataVersions(newTableAnalysis(database, "t1", "attr1")));
+      // the rows of t2 expire without any write
+      assertFalse(
+          QueryResultCache.isValidatedByDataVersions(newTableAnalysis(database, "t2", "s1")));
+      // the table is unknown to this node
+      assertFalse(
+          QueryResultCache.isValidatedByDataVersions(newTableAnalysis(database, "t3", "s1")));
+    } finally {
+      DataNodeTableCache.getInstance().invalid(database);
+    }
+  }
+
+  @Test
+  public void testReadFromLocalReplicas() {
+    int localDataNodeId = IoTDBDescriptor.getInstance().getConfig().getDataNodeId();
+    FragmentInstance localDataRegion =
+        newFragmentInstance(TConsensusGroupType.DataRegion, localDataNodeId);
+    FragmentInstance remoteDataRegion =
+        newFragmentInstance(TConsensusGroupType.DataRegion, localDataNodeId + 1);
+    FragmentInstance remoteSchemaRegion =
+        newFragmentInstance(TConsensusGroupType.SchemaRegion, localDataNodeId + 1);
+
+    assertTrue(
+        QueryResultCache.isReadFromLocalReplicas(
+            new DistributedQueryPlan(null, Arrays.asList(localDataRegion, remoteSchemaRegion))));
+    assertFalse(
+        QueryResultCache.isReadFromLocalReplicas(
+            new DistributedQueryPlan(null, Arrays.asList(localDataRegion, remoteDataRegion))));
+    assertFalse(QueryResultCache.isReadFromLocalReplicas(null));
+  }
+
+  private static TsTable newTable(String tableName) {
+    TsTable table = new TsTable(tableName);
+    table.addColumnSchema(new TimeColumnSchema("time", TSDataType.INT64));
+    table.addColumnSchema(new TagColumnSchema("tag1", TSDataType.STRING));
+    table.addColumnSchema(new AttributeColumnSchema("attr1", TSDataType.STRING));
+    table.addColumnSchema(
+        new FieldColumnSchema("s1", TSDataType.INT32, TSEncoding.RLE, CompressionType.LZ4));
+    return table;
+  }
+
+  private static org.apache.iotdb.db.queryengine.plan.relational.analyzer.Analysis
+      newTableAnalysis(String database, String tableName, String columnName) {
+    org.apache.iotdb.db.queryengine.plan.relational.analyzer.Analysis analysis =
+        new org.apache.iotdb.db.queryengine.plan.relational.analyzer.Analysis(
+            null, Collections.emptyMap());
+    QualifiedObjectName name = new QualifiedObjectName(database, tableName);
+    analysis.registerTable(new Table(QualifiedName.of(tableName)), Optional.empty(), name);
+    analysis.addTableColumnReferences(
+        Mockito.mock(AccessControl.class),
+        new Identity("root"),
+        ImmutableListMultimap.of(name, columnName));
+    return analysis;
+  }
+
+  private static FragmentInstance newFragmentInstance(
+      TConsensusGroupType regionType, int hostDataNodeId) {
+    FragmentInstance instance = Mockito.mock(FragmentInstance.class);
+    TRegionReplicaSet replicaSet =
+        new TRegionReplicaSet(new TConsensusGroupId(regionType, 1), Collections.emptyList());
+    Mockito.when(instance.getExecutorType()).thenReturn(new StorageExecutor(replicaSet));
+    Mockito.when(instance.getRegionReplicaSet()).thenReturn(replicaSet);
+    Mockito.when(instance.getHostDataNode())
+        .thenReturn(new TDataNodeLocation().setDataNodeId(hostDataNodeId));
+    return instance;
+  }
+
+  private CacheableQuery newQuery(Map<Integer, Long> regionVersions) {
+    return QueryResultCache.newCacheableQuery(
+        "TREE", null, "root", "UTC", SQL, regionVersions, DatasetHeader.EMPTY_HEADER);
+  }
+
+  private void record(CacheableQuery query, ByteBuffer result) {
+    ResultRecorder recorder = cache.newRecorder(query);
+    recorder.record(result);
+    recorder.finish();
+  }
+
+  private static boolean isDeterministicTreeQuery(String sql) {
+    Analysis analysis = new Analysis();
+    analysis.setRealStatement(StatementGenerator.createStatement(sql, ZoneId.systemDefault()));
+    return QueryResultCache.isDeterministicQuery(analysis);
+  }
+
+  private static boolean isDeterministicTableQuery(String sql) {
+    return QueryResultCache.isDeterministicQuery(
+        new org.apache.iotdb.db.queryengine.plan.relational.analyzer.Analysis(
+            new SqlParser()
+                .createStatement(sql, ZoneId.systemDefault(), new InternalClientSession("test")),
+            Collections.emptyMap()));
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.planner;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DataNodeTableOperatorGeneratorTest {
+
+  @Test
+  public void testTableScanPipelineNum() {
+    // limited by the number of devices
+    Assert.assertEquals(
+        2, DataNodeTableOperatorGenerator.getTableScanPipelineNum(2_500, 1_000, 8, 8));
+    Assert.assertEquals(
+        1, DataNodeTableOperatorGenerator.getTableScanPipelineNum(1_999, 1_000, 8, 8));
+    // limited by the degree of parallelism
+    Assert.assertEquals(
+        4, DataNodeTableOperatorGenerator.getTableScanPipelineNum(100_000, 1_000, 4, 8));
+    // limited by the idle worker threads, the current pipeline doesn't need one
+    Assert.assertEquals(
+        3, DataNodeTableOperatorGenerator.getTableScanPipelineNum(100_000, 1_000, 8, 2));
+    Assert.assertEquals(
+        1, DataNodeTableOperatorGenerator.getTableScanPipelineNum(100_000, 1_000, 8, 0));
+  }
+}
@@ -89,6 +89,7 @@ public class PlanTester {
             case "queries":
             case "current_queries":
             case "queries_costs_histogram":
+            case "query_traces":
               return ImmutableList.of(
                   genDataNodeLocation(1, "192.0.1.1"), genDataNodeLocation(2, "192.0.1.2"));
             default:
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.queryengine.plan.relational.planner;
+
+import org.apache.iotdb.commons.queryengine.common.SessionInfo;
+import org.apache.iotdb.commons.queryengine.common.SqlDialect;
+import org.apache.iotdb.commons.queryengine.plan.relational.analyzer.NodeRef;
+import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.Expression;
+import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.Literal;
+import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.LongLiteral;
+import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.Parameter;
+import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.Statement;
+import org.apache.iotdb.commons.queryengine.plan.relational.sql.ast.StringLiteral;
+import org.apache.iotdb.commons.queryengine.plan.relational.type.InternalTypeManager;
+import org.apache.iotdb.db.protocol.session.IClientSession;
+import org.apache.iotdb.db.queryengine.common.MPPQueryContext;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.plan.relational.analyzer.Analysis;
+import org.apache.iotdb.db.queryengine.plan.relational.analyzer.Analyzer;
+import org.apache.iotdb.db.queryengine.plan.relational.analyzer.StatementAnalyzerFactory;
+import org.apache.iotdb.db.queryengine.plan.relational.analyzer.TestMetadata;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.Metadata;
+import org.apache.iotdb.db.queryengine.plan.relational.security.AllowAllAccessControl;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ParameterExtractor;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.parser.SqlParser;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.rewrite.StatementRewriteFactory;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.iotdb.db.queryengine.execution.warnings.WarningCollector.NOOP;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+
+public class PreparedPlanCacheTest {
+
+  private static final String SQL = "select tag1, s1 from table1 where tag1 = ? limit ?";
+
+  private final SessionInfo session =
+      new SessionInfo(0, "test", ZoneId.systemDefault(), "testdb", SqlDialect.TABLE);
+  private final SqlParser sqlParser = new SqlParser();
+
+  private Metadata metadata;
+  private Statement statement;
+  private MPPQueryContext context;
+  private List<Expression> parameters;
+  private Analysis analysis;
+
+  @Before
+  public void setUp() {
+    metadata = Mockito.spy(new TestMetadata());
+    IClientSession clientSession = Mockito.mock(IClientSession.class);
+    Mockito.when(clientSession.getDatabaseName()).thenReturn("testdb");
+    statement = sqlParser.createStatement(SQL, ZoneId.systemDefault(), clientSession);
+    context = newContext("prepared_0");
+    parameters = Arrays.asList(new StringLiteral("d1"), new LongLiteral("10"));
+    analysis = analyze(context, parameters);
+    Assert.assertTrue(context.isQuery());
+  }
+
+  private MPPQueryContext newContext(String queryId) {
+    return new MPPQueryContext(SQL, new QueryId(queryId), session, null, null);
+  }
+
+  private Map<NodeRef<Parameter>, Expression> bind(List<Expression> values) {
+    return ParameterExtractor.bindParameters(
+        statement, Arrays.asList(values.toArray(new Literal[0])));
+  }
+
+  private Analysis analyze(MPPQueryContext queryContext, List<Expression> values) {
+    return new Analyzer(
+            queryContext,
+            session,
+            new StatementAnalyzerFactory(
+                metadata, sqlParser, new AllowAllAccessControl(), new InternalTypeManager()),
+            values,
+            bind(values),
+            new StatementRewriteFactory().getStatementRewrite(),
+            NOOP)
+        .analyze(statement);
+  }
+
+  @Test
+  public void testAnalysisIsReusedForOtherValuesOfTheSameTypes() {
+    PreparedPlanCache cache = new PreparedPlanCache(16, statement);
+    cache.put(context, parameters, analysis, PreparedPlanCache.captureTableVersion());
+    Mockito.clearInvocations(metadata);
+
+    for (int i = 1; i <= 2; i++) {
+      List<Expression> values =
+          Arrays.asList(new StringLiteral("d" + (i + 1)), new LongLiteral("10"));
+      MPPQueryContext hitContext = newContext("prepared_" + i);
+      PreparedPlanCache.CachedAnalysis cachedAnalysis = cache.get(hitContext, values);
+      Assert.assertNotNull(cachedAnalysis);
+      cachedAnalysis.restore(hitContext);
+      Assert.assertTrue(hitContext.isQuery());
+
+      Map<NodeRef<Parameter>, Expression> lookup = bind(values);
+      Analysis hitAnalysis = cachedAnalysis.copyAnalysis(lookup);
+      Assert.assertNotSame(analysis, hitAnalysis);
+      Assert.assertEquals(lookup, hitAnalysis.getParameters());
+      Assert.assertEquals(
+          analysis.getType(parameters.get(0)), hitAnalysis.getType(values.get(0)));
+
+      // the devices and the data partitions are resolved again from the new values
+      new TableLogicalPlanner(hitContext, metadata, session, new SymbolAllocator(), NOOP)
+          .plan(hitAnalysis);
+      Mockito.verify(metadata, times(i)).indexScan(any(), any(), any(), any());
+      Assert.assertNotNull(hitAnalysis.getDataPartitionInfo());
+    }
+  }
+
+  @Test
+  public void testHitGetsItsOwnAnalysis() {
+    PreparedPlanCache cache = new PreparedPlanCache(16, statement);
+    cache.put(context, parameters, analysis, PreparedPlanCache.captureTableVersion());
+    // the execution which put the analysis keeps planning with it
+    analysis.setFinishQueryAfterAnalyze();
+
+    PreparedPlanCache.CachedAnalysis cachedAnalysis =
+        cache.get(newContext("prepared_1"), parameters);
+    Assert.assertNotNull(cachedAnalysis);
+    Analysis first = cachedAnalysis.copyAnalysis(bind(parameters));
+    Analysis second = cachedAnalysis.copyAnalysis(bind(parameters));
+    Assert.assertNotSame(first, second);
+    Assert.assertFalse(first.isFinishQueryAfterAnalyze());
+    Assert.assertNotSame(analysis.getRespDatasetHeader(), first.getRespDatasetHeader());
+
+    // the state of one execution is not seen by the others
+    first.setFinishQueryAfterAnalyze();
+    Assert.assertFalse(second.isFinishQueryAfterAnalyze());
+    Assert.assertFalse(cachedAnalysis.copyAnalysis(bind(parameters)).isFinishQueryAfterAnalyze());
+  }
+
+  @Test
+  public void testKeyedOnParameterTypesAndRowCounts() {
+    PreparedPlanCache cache = new PreparedPlanCache(16, statement);
+    cache.put(context, parameters, analysis, PreparedPlanCache.captureTableVersion());
+
+    // a value of another type is analyzed with other types and coercions
+    Assert.assertNull(
+        cache.get(
+            newContext("prepared_1"), Arrays.asList(new LongLiteral("1"), new LongLiteral("10"))));
+    // the row count of LIMIT is evaluated during analysis
+    Assert.assertNull(
+        cache.get(
+            newContext("prepared_2"),
+            Arrays.asList(new StringLiteral("d1"), new LongLiteral("5"))));
+    Assert.assertNotNull(
+        cache.get(
+            newContext("prepared_3"),
+            Arrays.asList(new StringLiteral("d9"), new LongLiteral("10"))));
+  }
+
+  @Test
+  public void testMiss() {
+    PreparedPlanCache cache = new PreparedPlanCache(16, statement);
+    cache.put(context, parameters, analysis, PreparedPlanCache.captureTableVersion() - 1);
+    // the table schemas changed after the analysis started
+    Assert.assertNull(cache.get(newContext("prepared_1"), parameters));
+
+    cache.put(context, parameters, analysis, PreparedPlanCache.captureTableVersion());
+    Assert.assertNotNull(cache.get(newContext("prepared_2"), parameters));
+
+    cache.invalidate(context, parameters);
+    Assert.assertNull(cache.get(newContext("prepared_3"), parameters));
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.trace;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class QueryTraceTest {
+
+  @Before
+  public void setUp() {
+    QueryTracer.getInstance().clear();
+  }
+
+  @After
+  public void tearDown() {
+    QueryTracer.getInstance().clear();
+  }
+
+  @Test
+  public void testFinishRecordsAllSpans() {
+    QueryTrace trace = new QueryTrace("20240101_000000_00001_1");
+    QueryTraceSpan analyzeSpan = trace.startSpan(QueryTrace.ANALYZE);
+    analyzeSpan.end();
+    // not ended because of an exception
+    trace.startSpan(QueryTrace.SCHEDULE);
+    trace.addWaitForResultTime(10);
+    trace.addWaitForResultTime(5);
+
+    trace.finish(true);
+    // only the first invocation takes effect
+    trace.finish(true);
+
+    List<QueryTraceSpan> spans = QueryTracer.getInstance().getRetainedSpans();
+    Assert.assertEquals(3, spans.size());
+    QueryTraceSpan rootSpan = spans.get(0);
+    Assert.assertEquals(QueryTrace.QUERY, rootSpan.getName());
+    Assert.assertEquals(QueryTraceSpan.NO_PARENT_SPAN_ID, rootSpan.getParentSpanId());
+    Assert.assertEquals(15L, rootSpan.getAttributes().get("wait_for_result_ns"));
+    for (QueryTraceSpan span : spans) {
+      Assert.assertTrue(span.isEnded());
+      Assert.assertEquals("20240101_000000_00001_1", span.getQueryId());
+      Assert.assertTrue(span.getDurationInNs() >= 0);
+    }
+    Assert.assertEquals(rootSpan.getSpanId(), spans.get(1).getParentSpanId());
+    Assert.assertEquals(rootSpan.getSpanId(), spans.get(2).getParentSpanId());
+  }
+
+  @Test
+  public void testFinishWithoutRecord() {
+    QueryTrace trace = new QueryTrace("20240101_000000_00002_1");
+    trace.startSpan(QueryTrace.ANALYZE).end();
+    trace.finish(false);
+    Assert.assertTrue(trace.getRootSpan().isEnded());
+    Assert.assertTrue(QueryTracer.getInstance().getRetainedSpans().isEmpty());
+  }
+
+  @Test
+  public void testOtlpJson() {
+    QueryTrace trace = new QueryTrace("20240101_000000_00003_1");
+    QueryTraceSpan span = trace.startSpan(QueryTrace.LOGICAL_PLAN);
+    span.setAttribute("rows", 3L);
+    span.setAttribute("ratio", 0.5);
+    span.setAttribute("cached", true);
+    span.setAttribute("ignored", null);
+    span.end();
+    trace.getRootSpan().end();
+
+    JsonObject request =
+        JsonParser.parseString(
+                QueryTraceExporter.toOtlpJson(Arrays.asList(trace.getRootSpan(), span)))
+            .getAsJsonObject();
+    JsonArray spans =
+        request
+            .getAsJsonArray("resourceSpans")
+            .get(0)
+            .getAsJsonObject()
+            .getAsJsonArray("scopeSpans")
+            .get(0)
+            .getAsJsonObject()
+            .getAsJsonArray("spans");
+    Assert.assertEquals(2, spans.size());
+
+    JsonObject rootSpan = spans.get(0).getAsJsonObject();
+    JsonObject childSpan = spans.get(1).getAsJsonObject();
+    String traceId = QueryTraceExporter.toTraceId("20240101_000000_00003_1");
+    Assert.assertEquals(32, traceId.length());
+    Assert.assertEquals(traceId, rootSpan.get("traceId").getAsString());
+    Assert.assertEquals(traceId, childSpan.get("traceId").getAsString());
+    Assert.assertFalse(rootSpan.has("parentSpanId"));
+    Assert.assertEquals(
+        rootSpan.get("spanId").getAsString(), childSpan.get("parentSpanId").getAsString());
+    Assert.assertEquals(16, childSpan.get("spanId").getAsString().length());
+    Assert.assertEquals(
+        String.valueOf(span.getEndTimeInNs()), childSpan.get("endTimeUnixNano").getAsString());
+
+    // iotdb.query_id, rows, ratio and cached
+    JsonArray attributes = childSpan.getAsJsonArray("attributes");
+    Assert.assertEquals(4, attributes.size());
+    Assert.assertEquals("3", getAttributeValue(attributes, 1).get("intValue").getAsString());
+    Assert.assertEquals(
+        0.5, getAttributeValue(attributes, 2).get("doubleValue").getAsDouble(), 0);
+    Assert.assertTrue(getAttributeValue(attributes, 3).get("boolValue").getAsBoolean());
+  }
+
+  private static JsonObject getAttributeValue(JsonArray attributes, int index) {
+    return attributes.get(index).getAsJsonObject().getAsJsonObject("value");
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.transformation.dag.column.fused;
+
+import org.apache.iotdb.calc.transformation.dag.column.ColumnTransformer;
+import org.apache.iotdb.calc.transformation.dag.column.binary.ArithmeticAdditionColumnTransformer;
+import org.apache.iotdb.calc.transformation.dag.column.binary.ArithmeticDivisionColumnTransformer;
+import org.apache.iotdb.calc.transformation.dag.column.binary.ArithmeticMultiplicationColumnTransformer;
+import org.apache.iotdb.calc.transformation.dag.column.binary.CompareGreaterThanColumnTransformer;
+import org.apache.iotdb.calc.transformation.dag.column.fused.FusedColumnKernel;
+import org.apache.iotdb.calc.transformation.dag.column.leaf.ConstantColumnTransformer;
+import org.apache.iotdb.calc.transformation.dag.column.leaf.IdentityColumnTransformer;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.DoubleColumn;
+import org.apache.tsfile.read.common.block.column.TimeColumnBuilder;
+import org.apache.tsfile.read.common.type.Type;
+import org.apache.tsfile.read.common.type.TypeFactory;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+public class FusedColumnKernelTest {
+
+  private static final Type INT32 = TypeFactory.getType(TSDataType.INT32);
+  private static final Type DOUBLE = TypeFactory.getType(TSDataType.DOUBLE);
+  private static final Type BOOLEAN = TypeFactory.getType(TSDataType.BOOLEAN);
+
+  private static final int POSITION_COUNT = 5;
+
+  private static final int[] A = new int[] {10, 20, 30, 40, 7};
+  // null at position 1
+  private static final double[] B = new double[] {1.5, 0, 60.5, -3, 2};
+  private static final int[] C = new int[] {1, 2, 3, 0, 2};
+
+  private TsBlock tsBlock;
+
+  @Before
+  public void setUp() {
+    TsBlockBuilder builder =
+        new TsBlockBuilder(
+            POSITION_COUNT, Arrays.asList(TSDataType.INT32, TSDataType.DOUBLE, TSDataType.INT32));
+    TimeColumnBuilder timeColumnBuilder = builder.getTimeColumnBuilder();
+    ColumnBuilder[] valueColumnBuilders = builder.getValueColumnBuilders();
+    for (int i = 0; i < POSITION_COUNT; i++) {
+      timeColumnBuilder.writeLong(i);
+      valueColumnBuilders[0].writeInt(A[i]);
+      if (i == 1) {
+        valueColumnBuilders[1].appendNull();
+      } else {
+        valueColumnBuilders[1].writeDouble(B[i]);
+      }
+      valueColumnBuilders[2].writeInt(C[i]);
+      builder.declarePosition();
+    }
+    tsBlock = builder.build();
+  }
+
+  private IdentityColumnTransformer identity(Type type, int index) {
+    IdentityColumnTransformer transformer = new IdentityColumnTransformer(type, index);
+    transformer.addReferenceCount();
+    transformer.initFromTsBlock(tsBlock);
+    return transformer;
+  }
+
+  private ConstantColumnTransformer constant(double value) {
+    ConstantColumnTransformer transformer =
+        new ConstantColumnTransformer(
+            DOUBLE, new DoubleColumn(1, Optional.empty(), new double[] {value}));
+    transformer.addReferenceCount();
+    transformer.initFromTsBlock(tsBlock);
+    return transformer;
+  }
+
+  private static <T extends ColumnTransformer> T referenced(T transformer) {
+    transformer.addReferenceCount();
+    return transformer;
+  }
+
+  // (a * 0.1 + b) / c > 5
+  private ColumnTransformer buildFilter() {
+    ColumnTransformer multiplication =
+        referenced(
+            new ArithmeticMultiplicationColumnTransformer(
+                DOUBLE, identity(INT32, 0), constant(0.1)));
+    ColumnTransformer addition =
+        referenced(
+            new ArithmeticAdditionColumnTransformer(DOUBLE, multiplication, identity(DOUBLE, 1)));
+    ColumnTransformer division =
+        referenced(new ArithmeticDivisionColumnTransformer(DOUBLE, addition, identity(INT32, 2)));
+    return referenced(new CompareGreaterThanColumnTransformer(BOOLEAN, division, constant(5)));
+  }
+
+  @Test
+  public void testFusedFilter() {
+    ColumnTransformer filter = buildFilter();
+    Assert.assertNotNull(FusedColumnKernel.compile(filter));
+
+    filter.tryEvaluate();
+    Column result = filter.getColumn();
+    Assert.assertEquals(POSITION_COUNT, result.getPositionCount());
+    for (int i = 0; i < POSITION_COUNT; i++) {
+      if (i == 1) {
+        Assert.assertTrue(result.isNull(i));
+        continue;
+      }
+      double value = (A[i] * 0.1 + B[i]) / C[i];
+      Assert.assertFalse(result.isNull(i));
+      Assert.assertEquals(!Double.isNaN(value) && value > 5, result.getBoolean(i));
+    }
+  }
+
+  @Test
+  public void testFusedFilterWithSelection() {
+    ColumnTransformer filter = buildFilter();
+    boolean[] selection = new boolean[] {true, true, false, true, true};
+    filter.evaluateWithSelection(selection);
+    Column result = filter.getColumn();
+    Assert.assertTrue(result.isNull(1));
+    Assert.assertTrue(result.isNull(2));
+    Assert.assertFalse(result.getBoolean(0));
+    Assert.assertTrue(result.getBoolean(3));
+    Assert.assertFalse(result.getBoolean(4));
+  }
+
+  @Test
+  public void testIntermediateResultKeepsItsType() {
+    // (a / c) * c, the division is truncated as an INT32 column
+    ColumnTransformer division =
+        referenced(
+            new ArithmeticDivisionColumnTransformer(INT32, identity(INT32, 0), identity(INT32, 2)));
+    ColumnTransformer multiplication =
+        referenced(
+            new ArithmeticMultiplicationColumnTransformer(INT32, division, identity(INT32, 2)));
+
+    multiplication.tryEvaluate();
+    Column result = multiplication.getColumn();
+    Assert.assertEquals(30, result.getInt(2));
+    Assert.assertEquals(6, result.getInt(4));
+    Assert.assertEquals(0, result.getInt(3));
+  }
+
+  @Test
+  public void testSharedSubtreeIsNotFused() {
+    ColumnTransformer shared =
+        new ArithmeticMultiplicationColumnTransformer(DOUBLE, identity(INT32, 0), constant(0.1));
+    shared.addReferenceCount();
+    shared.addReferenceCount();
+    ColumnTransformer addition =
+        referenced(new ArithmeticAdditionColumnTransformer(DOUBLE, shared, identity(DOUBLE, 1)));
+    // only one operator left after the shared subtree is taken as an input
+    Assert.assertNull(FusedColumnKernel.compile(addition));
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.transformation.dag.column.udf;
+
+import org.apache.iotdb.calc.execution.relational.ColumnTransformerBuilder;
+import org.apache.iotdb.calc.transformation.dag.column.ColumnTransformer;
+import org.apache.iotdb.calc.transformation.dag.column.leaf.IdentityColumnTransformer;
+import org.apache.iotdb.calc.transformation.dag.column.udf.UserDefineScalarFunctionTransformer;
+import org.apache.iotdb.udf.api.IoTDBLocal;
+import org.apache.iotdb.udf.api.customizer.analysis.ScalarFunctionAnalysis;
+import org.apache.iotdb.udf.api.customizer.parameter.FunctionArguments;
+import org.apache.iotdb.udf.api.relational.ScalarFunction;
+import org.apache.iotdb.udf.api.relational.access.Record;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.type.Type;
+import org.apache.tsfile.read.common.type.TypeFactory;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static org.mockito.Mockito.mock;
+
+public class UserDefineScalarFunctionTransformerTest {
+
+  private static final Type INT32 = TypeFactory.getType(TSDataType.INT32);
+
+  private static final int[] INPUT = new int[] {1, 2, 3, 4};
+
+  private static final boolean[] SELECTION = new boolean[] {true, false, true, false};
+
+  private TsBlock tsBlock;
+
+  @Before
+  public void setUp() {
+    TsBlockBuilder builder =
+        new TsBlockBuilder(INPUT.length, Collections.singletonList(TSDataType.INT32));
+    for (int i = 0; i < INPUT.length; i++) {
+      builder.getTimeColumnBuilder().writeLong(i);
+      builder.getColumnBuilder(0).writeInt(INPUT[i]);
+      builder.declarePosition();
+    }
+    tsBlock = builder.build();
+  }
+
+  @Test
+  public void testRowBased() {
+    Column result = evaluate(new PlusOneFunction(), false, null);
+    for (int i = 0; i < INPUT.length; i++) {
+      Assert.assertEquals(INPUT[i] + 1, result.getInt(i));
+    }
+  }
+
+  @Test
+  public void testRowBasedWithSelection() {
+    Column result = evaluate(new PlusOneFunction(), false, SELECTION);
+    checkSelectedResult(result, 1);
+  }
+
+  @Test
+  public void testBatch() {
+    BatchPlusTenFunction function = new BatchPlusTenFunction();
+    Column result = evaluate(function, true, null);
+    Assert.assertEquals(1, function.batchCount);
+    for (int i = 0; i < INPUT.length; i++) {
+      Assert.assertEquals(INPUT[i] + 10, result.getInt(i));
+    }
+  }
+
+  @Test
+  public void testBatchWithSelection() {
+    BatchPlusTenFunction function = new BatchPlusTenFunction();
+    Column result = evaluate(function, true, SELECTION);
+    Assert.assertEquals(1, function.batchCount);
+    checkSelectedResult(result, 10);
+  }
+
+  @Test
+  public void testDefaultBatchNotImplemented() {
+    try {
+      evaluate(new PlusOneFunction(), true, null);
+      Assert.fail();
+    } catch (RuntimeException e) {
+      Assert.assertTrue(e.getCause() instanceof UnsupportedOperationException);
+    }
+  }
+
+  private void checkSelectedResult(Column result, int delta) {
+    Assert.assertEquals(INPUT.length, result.getPositionCount());
+    for (int i = 0; i < INPUT.length; i++) {
+      if (SELECTION[i]) {
+        Assert.assertFalse(result.isNull(i));
+        Assert.assertEquals(INPUT[i] + delta, result.getInt(i));
+      } else {
+        Assert.assertTrue(result.isNull(i));
+      }
+    }
+  }
+
+  private Column evaluate(ScalarFunction function, boolean batchEvaluable, boolean[] selection) {
+    IdentityColumnTransformer operand = new IdentityColumnTransformer(INT32, 0);
+    operand.addReferenceCount();
+    operand.initFromTsBlock(tsBlock);
+    UserDefineScalarFunctionTransformer transformer =
+        new UserDefineScalarFunctionTransformer(
+            INT32,
+            function,
+            Collections.<ColumnTransformer>singletonList(operand),
+            new FunctionArguments(
+                Collections.singletonList(org.apache.iotdb.udf.api.type.Type.INT32),
+                Collections.emptyMap()),
+            batchEvaluable,
+            createContext());
+    transformer.addReferenceCount();
+    try {
+      if (selection == null) {
+        transformer.evaluate();
+      } else {
+        transformer.evaluateWithSelection(selection);
+      }
+      return transformer.getColumn();
+    } finally {
+      transformer.close();
+    }
+  }
+
+  private static ColumnTransformerBuilder.Context createContext() {
+    return new ColumnTransformerBuilder.Context(
+        null,
+        new ArrayList<>(),
+        Collections.emptyMap(),
+        Collections.emptyMap(),
+        Collections.emptyMap(),
+        new ArrayList<>(),
+        new ArrayList<>(),
+        0,
+        null,
+        null,
+        null,
+        "fragment",
+        "query",
+        Long.MAX_VALUE,
+        (sessionInfo, fragmentInstanceId, outerGlobalQueryId, outerQueryDeadlineMs) ->
+            mock(IoTDBLocal.class));
+  }
+
+  private static class PlusOneFunction implements ScalarFunction {
+
+    @Override
+    public ScalarFunctionAnalysis analyze(FunctionArguments arguments) {
+      return new ScalarFunctionAnalysis.Builder()
+          .outputDataType(org.apache.iotdb.udf.api.type.Type.INT32)
+          .build();
+    }
+
+    @Override
+    public Object evaluate(Record input) {
+      return input.isNull(0) ? null : input.getInt(0) + 1;
+    }
+  }
+
+  private static class BatchPlusTenFunction extends PlusOneFunction {
+
+    private int batchCount = 0;
+
+    @Override
+    public ScalarFunctionAnalysis analyze(FunctionArguments arguments) {
+      return new ScalarFunctionAnalysis.Builder()
+          .outputDataType(org.apache.iotdb.udf.api.type.Type.INT32)
+          .batchEvaluable(true)
+          .build();
+    }
+
+    @Override
+    public Object evaluate(Record input) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void evaluate(Column[] columns, boolean[] selection, ColumnBuilder builder) {
+      batchCount++;
+      Column column = columns[0];
+      for (int i = 0; i < column.getPositionCount(); i++) {
+        if ((selection != null && !selection[i]) || column.isNull(i)) {
+          builder.appendNull();
+        } else {
+          builder.writeInt(column.getInt(i) + 10);
+        }
+      }
+    }
+  }
+}
@@ -64,6 +64,7 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.log
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.constant.InnerSequenceCompactionSelector;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.constant.InnerUnsequenceCompactionSelector;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils.PartitionQueryStatistics;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.utils.CompactionConfigRestorer;
 import org.apache.iotdb.db.storageengine.dataregion.flush.FlushManager;
 import org.apache.iotdb.db.storageengine.dataregion.flush.TsFileFlushPolicy;
@@ -115,6 +116,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 
 import static org.apache.iotdb.db.queryengine.plan.statement.StatementTestUtils.genInsertRowNode;
 import static org.apache.iotdb.db.queryengine.plan.statement.StatementTestUtils.genInsertTabletNode;
@@ -1753,6 +1755,151 @@ public class DataRegionTest {
     config.setUnseqMemtableFlushInterval(preFLushInterval);
   }
 
+  @Test
+  public void testCoalesceSmallUnseqFlush()
+      throws IllegalPathException, InterruptedException, WriteProcessException {
+    long prevCoalesceFileSize = config.getUnseqFlushCoalesceFileSize();
+    config.setUnseqFlushCoalesceFileSize(16 * 1024 * 1024L);
+    try {
+      insertRecord(10000);
+      dataRegion.syncCloseAllWorkingTsFileProcessors();
+
+      insertRecord(1);
+      TsFileProcessor tsFileProcessor =
+          dataRegion.getWorkUnsequenceTsFileProcessors().iterator().next();
+      tsFileProcessor.setWorkMemTableShouldFlush();
+      insertRecord(2);
+      waitUntil(() -> tsFileProcessor.getFlushingMemTableSize() == 0);
+
+      // the memtable is flushed without closing the file
+      Assert.assertNull(tsFileProcessor.getWorkMemTable());
+      Assert.assertNull(tsFileProcessor.getCloseFuture());
+      Assert.assertFalse(tsFileProcessor.getTsFileResource().isClosed());
+
+      // the following writes of the time partition are appended to the same file
+      insertRecord(3);
+      Assert.assertEquals(1, dataRegion.getWorkUnsequenceTsFileProcessors().size());
+      Assert.assertSame(
+          tsFileProcessor, dataRegion.getWorkUnsequenceTsFileProcessors().iterator().next());
+      Assert.assertNotNull(tsFileProcessor.getWorkMemTable());
+
+      dataRegion.syncCloseAllWorkingTsFileProcessors();
+      Assert.assertTrue(tsFileProcessor.getTsFileResource().isClosed());
+      Assert.assertEquals(1, dataRegion.getTsFileManager().getTsFileList(false).size());
+    } finally {
+      config.setUnseqFlushCoalesceFileSize(prevCoalesceFileSize);
+    }
+  }
+
+  @Test
+  public void testTimedFlushClosesIdleCoalescedUnseqFile()
+      throws IllegalPathException, InterruptedException, WriteProcessException {
+    long prevCoalesceFileSize = config.getUnseqFlushCoalesceFileSize();
+    boolean prevEnableTimedFlushUnseqMemtable = config.isEnableTimedFlushUnseqMemtable();
+    long prevFlushInterval = config.getUnseqMemtableFlushInterval();
+    config.setUnseqFlushCoalesceFileSize(16 * 1024 * 1024L);
+    config.setEnableTimedFlushUnseqMemtable(true);
+    try {
+      insertRecord(10000);
+      dataRegion.syncCloseAllWorkingTsFileProcessors();
+
+      insertRecord(1);
+      TsFileProcessor tsFileProcessor =
+          dataRegion.getWorkUnsequenceTsFileProcessors().iterator().next();
+      tsFileProcessor.setWorkMemTableShouldFlush();
+      insertRecord(2);
+      waitUntil(() -> tsFileProcessor.getFlushingMemTableSize() == 0);
+      Assert.assertNull(tsFileProcessor.getWorkMemTable());
+
+      // not idle for long enough
+      config.setUnseqMemtableFlushInterval(60 * 60 * 1000L);
+      dataRegion.timedFlushUnseqMemTable();
+      Assert.assertFalse(tsFileProcessor.getTsFileResource().isClosed());
+      Assert.assertEquals(1, dataRegion.getWorkUnsequenceTsFileProcessors().size());
+
+      // the file without working memtable is closed once idle
+      config.setUnseqMemtableFlushInterval(5);
+      Thread.sleep(50);
+      dataRegion.timedFlushUnseqMemTable();
+      waitUntil(() -> tsFileProcessor.getTsFileResource().isClosed());
+      Assert.assertTrue(dataRegion.getWorkUnsequenceTsFileProcessors().isEmpty());
+    } finally {
+      config.setUnseqFlushCoalesceFileSize(prevCoalesceFileSize);
+      config.setEnableTimedFlushUnseqMemtable(prevEnableTimedFlushUnseqMemtable);
+      config.setUnseqMemtableFlushInterval(prevFlushInterval);
+    }
+  }
+
+  @Test
+  public void testFullUnseqMemTableClosesFileByDefault()
+      throws IllegalPathException, InterruptedException, WriteProcessException {
+    insertRecord(10000);
+    dataRegion.syncCloseAllWorkingTsFileProcessors();
+
+    insertRecord(1);
+    TsFileProcessor tsFileProcessor =
+        dataRegion.getWorkUnsequenceTsFileProcessors().iterator().next();
+    tsFileProcessor.setWorkMemTableShouldFlush();
+    insertRecord(2);
+    waitUntil(() -> tsFileProcessor.getTsFileResource().isClosed());
+    Assert.assertTrue(dataRegion.getWorkUnsequenceTsFileProcessors().isEmpty());
+  }
+
+  @Test
+  public void testCompactionScheduleOrderOfQueriedPartitions() {
+    boolean prevEnableQueryAwareCompaction = config.isEnableQueryAwareCompaction();
+    PartitionQueryStatistics statistics = PartitionQueryStatistics.getInstance();
+    try {
+      List<Long> timePartitions = Arrays.asList(3L, 2L, 1L);
+      config.setEnableQueryAwareCompaction(false);
+      Assert.assertEquals(
+          Arrays.asList(0, 1, 2), dataRegion.getCompactionScheduleOrder(timePartitions));
+
+      config.setEnableQueryAwareCompaction(true);
+      String dataRegionId = dataRegion.getDataRegionIdString();
+      // partition 1 is read with 4 files per query, partition 2 with 2 files per query
+      for (int i = 0; i < 10; i++) {
+        statistics.recordQuery(dataRegionId, mockResources(1, 4), Collections.emptyList());
+        statistics.recordQuery(dataRegionId, mockResources(2, 2), Collections.emptyList());
+      }
+      Assert.assertEquals(
+          Arrays.asList(2, 1, 0), dataRegion.getCompactionScheduleOrder(timePartitions));
+
+      // the statistics of the partitions no longer existing are dropped
+      Assert.assertEquals(
+          Arrays.asList(1, 0), dataRegion.getCompactionScheduleOrder(Arrays.asList(3L, 2L)));
+      Assert.assertEquals(0, statistics.getQueryCount(dataRegionId, 1), 0.0);
+      Assert.assertTrue(statistics.getQueryCount(dataRegionId, 2) > 0);
+    } finally {
+      config.setEnableQueryAwareCompaction(prevEnableQueryAwareCompaction);
+      statistics.clear();
+    }
+  }
+
+  private static List<TsFileResource> mockResources(long timePartition, int num) {
+    List<TsFileResource> resources = new ArrayList<>();
+    for (int i = 0; i < num; i++) {
+      TsFileResource resource = Mockito.mock(TsFileResource.class);
+      Mockito.when(resource.getTimePartition()).thenReturn(timePartition);
+      resources.add(resource);
+    }
+    return resources;
+  }
+
+  private void insertRecord(long time) throws IllegalPathException, WriteProcessException {
+    TSRecord record = new TSRecord(deviceId, time);
+    record.addTuple(DataPoint.getDataPoint(TSDataType.INT32, measurementId, String.valueOf(time)));
+    dataRegion.insert(buildInsertRowNodeByTSRecord(record));
+  }
+
+  private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 60 * 1000L;
+    while (!condition.getAsBoolean()) {
+      Assert.assertTrue(System.currentTimeMillis() < deadline);
+      Thread.sleep(10);
+    }
+  }
+
   /**
    * Totally 5 tsfiles<br>
    * file 0, file 2 and file 4 has d0 ~ d1, time range is 0 ~ 99, 200 ~ 299, 400 ~ 499<br>
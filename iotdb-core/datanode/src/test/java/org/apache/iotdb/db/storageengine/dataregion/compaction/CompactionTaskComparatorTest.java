@@ -31,7 +31,9 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.Inne
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.SettleCompactionTask;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.comparator.DefaultCompactionTaskComparatorImpl;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.comparator.QueryAwareCompactionTaskComparatorImpl;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionPriority;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils.PartitionQueryStatistics;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.utils.CompactionConfigRestorer;
 import org.apache.iotdb.db.storageengine.dataregion.modification.TreeDeletionEntry;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
@@ -73,6 +75,7 @@ public class CompactionTaskComparatorTest {
   @After
   public void tearDown() {
     new CompactionConfigRestorer().restoreCompactionConfig();
+    PartitionQueryStatistics.getInstance().clear();
   }
 
   /** Test comparation of tasks with different avg file size */
@@ -490,6 +493,45 @@ public class CompactionTaskComparatorTest {
         candidateCompactionTaskQueue.take().getCompactionTaskType(), CompactionTaskType.INNER_SEQ);
   }
 
+  @Test
+  public void testCompareByQueryCostScore() throws InterruptedException {
+    // queries on partition 3 read 5 files each, queries on partition 7 read 3 files each
+    recordQueries(3, 5);
+    recordQueries(7, 3);
+    List<TsFileResource> resources = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      resources.add(new FakedTsFileResource(new File(String.format("%d-%d-0-0.tsfile", i, i)), 10));
+    }
+    FixedPriorityBlockingQueue<AbstractCompactionTask> candidateCompactionTaskQueue =
+        new FixedPriorityBlockingQueue<>(
+            IoTDBDescriptor.getInstance().getConfig().getCandidateCompactionTaskQueueSize(),
+            new QueryAwareCompactionTaskComparatorImpl());
+    for (int i = 0; i < 10; i++) {
+      candidateCompactionTaskQueue.put(
+          new FakedInnerSpaceCompactionTask("fakeSg", i, tsFileManager, true, resources, 0));
+    }
+
+    // partitions without queries are still ordered from largest to smallest
+    long[] expectedTimePartitions = new long[] {3, 7, 9, 8, 6, 5, 4, 2, 1, 0};
+    for (long expectedTimePartition : expectedTimePartitions) {
+      Assert.assertEquals(
+          expectedTimePartition, candidateCompactionTaskQueue.take().getTimePartition());
+    }
+  }
+
+  private void recordQueries(long timePartition, int fileNumPerQuery) {
+    List<TsFileResource> resources = new ArrayList<>();
+    for (int i = 0; i < fileNumPerQuery; i++) {
+      TsFileResource resource = Mockito.mock(TsFileResource.class);
+      Mockito.when(resource.getTimePartition()).thenReturn(timePartition);
+      resources.add(resource);
+    }
+    for (int i = 0; i < 10; i++) {
+      PartitionQueryStatistics.getInstance()
+          .recordQuery(tsFileManager.getDataRegionId(), resources, Collections.emptyList());
+    }
+  }
+
   private static class FakedInnerSpaceCompactionTask extends InnerSpaceCompactionTask {
 
     public FakedInnerSpaceCompactionTask(
@@ -21,6 +21,8 @@ package org.apache.iotdb.db.storageengine.dataregion.compaction.inner;
 
 import org.apache.iotdb.commons.path.AlignedFullPath;
 import org.apache.iotdb.commons.path.IFullPath;
+import org.apache.iotdb.commons.path.NonAlignedFullPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.storageengine.buffer.ChunkCache;
 import org.apache.iotdb.db.storageengine.buffer.TimeSeriesMetadataCache;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.TestUtilsForAlignedSeries;
@@ -42,6 +44,8 @@ import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.external.commons.io.FileUtils;
 import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.read.TimeValuePair;
+import org.apache.tsfile.read.TsFileDeviceIterator;
+import org.apache.tsfile.read.TsFileSequenceReader;
 import org.apache.tsfile.utils.Pair;
 import org.apache.tsfile.write.schema.IMeasurementSchema;
 import org.apache.tsfile.write.schema.MeasurementSchema;
@@ -52,6 +56,7 @@ import org.junit.Test;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -650,4 +655,86 @@ public class FastCompactionPerformerAlignedTest {
             fullPaths, Collections.singletonList(targetResource), new ArrayList<>());
     CompactionCheckerUtils.validDataByValueList(originData, compactedData);
   }
+
+  @Test
+  public void testParallelAlignedDeviceCompaction() throws Exception {
+    IoTDBDescriptor.getInstance().getConfig().setEnableParallelAlignedDeviceCompaction(true);
+    // non aligned devices in the middle force the parallel aligned devices to be drained
+    List<String> devices = new ArrayList<>();
+    boolean[] aligned = new boolean[12];
+    for (int i = 0; i < aligned.length; ++i) {
+      devices.add(storageGroup + ".d" + (char) ('a' + i));
+      aligned[i] = i != 5 && i != 6;
+    }
+    List<IMeasurementSchema> schemas = new ArrayList<>();
+    schemas.add(new MeasurementSchema("s0", TSDataType.DOUBLE));
+    schemas.add(new MeasurementSchema("s1", TSDataType.INT64));
+    schemas.add(new MeasurementSchema("s2", TSDataType.TEXT));
+
+    TestUtilsForAlignedSeries.registerTimeSeries(
+        storageGroup,
+        devices.toArray(new String[] {}),
+        schemas.toArray(new IMeasurementSchema[] {}),
+        aligned);
+
+    boolean[] randomNull = new boolean[aligned.length];
+    Arrays.fill(randomNull, true);
+    int timeInterval = 500;
+    List<TsFileResource> resources = new ArrayList<>();
+    for (int i = 1; i < 11; i++) {
+      TsFileResource resource =
+          new TsFileResource(new File(dataDirectory, String.format("%d-%d-0-0.tsfile", i, i)));
+      TestUtilsForAlignedSeries.writeTsFile(
+          devices.toArray(new String[] {}),
+          schemas.toArray(new IMeasurementSchema[0]),
+          resource,
+          aligned,
+          timeInterval * i,
+          timeInterval * (i + 1),
+          randomNull);
+      resources.add(resource);
+    }
+    TsFileResource targetResource =
+        TsFileNameGenerator.getInnerCompactionTargetFileResource(resources, true);
+    List<IFullPath> fullPaths = new ArrayList<>();
+    List<String> measurementIds = new ArrayList<>();
+    schemas.forEach(e -> measurementIds.add(e.getMeasurementName()));
+    for (int i = 0; i < devices.size(); i++) {
+      IDeviceID deviceID = IDeviceID.Factory.DEFAULT_FACTORY.create(devices.get(i));
+      if (aligned[i]) {
+        fullPaths.add(new AlignedFullPath(deviceID, measurementIds, schemas));
+      } else {
+        for (IMeasurementSchema schema : schemas) {
+          fullPaths.add(new NonAlignedFullPath(deviceID, schema));
+        }
+      }
+    }
+    Map<IFullPath, List<TimeValuePair>> originData =
+        CompactionCheckerUtils.getDataByQuery(fullPaths, resources, new ArrayList<>());
+    FastCompactionTaskSummary summary = new FastCompactionTaskSummary();
+    performer.setSourceFiles(resources);
+    performer.setTargetFiles(Collections.singletonList(targetResource));
+    performer.setSummary(summary);
+    performer.perform();
+    CompactionUtils.moveTargetFile(
+        Collections.singletonList(targetResource), CompactionTaskType.INNER_SEQ, storageGroup);
+
+    List<IDeviceID> compactedDevices = new ArrayList<>();
+    try (TsFileSequenceReader reader =
+        new TsFileSequenceReader(targetResource.getTsFilePath())) {
+      TsFileDeviceIterator deviceIterator = reader.getAllDevicesIteratorWithIsAligned();
+      while (deviceIterator.hasNext()) {
+        compactedDevices.add(deviceIterator.next().getLeft());
+      }
+    }
+    Assert.assertEquals(devices.size(), compactedDevices.size());
+    for (int i = 0; i < devices.size(); i++) {
+      Assert.assertEquals(
+          IDeviceID.Factory.DEFAULT_FACTORY.create(devices.get(i)), compactedDevices.get(i));
+    }
+    Map<IFullPath, List<TimeValuePair>> compactedData =
+        CompactionCheckerUtils.getDataByQuery(
+            fullPaths, Collections.singletonList(targetResource), new ArrayList<>());
+    CompactionCheckerUtils.validDataByValueList(originData, compactedData);
+  }
 }
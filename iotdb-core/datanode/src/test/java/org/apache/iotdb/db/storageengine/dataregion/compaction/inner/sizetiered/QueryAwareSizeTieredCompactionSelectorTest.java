@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.storageengine.dataregion.compaction.inner.sizetiered;
+
+import org.apache.iotdb.commons.exception.MetadataException;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.AbstractCompactionTest;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.InnerSpaceCompactionTask;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleContext;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.QueryAwareSizeTieredCompactionSelector;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils.PartitionQueryStatistics;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.read.common.TimeRange;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+public class QueryAwareSizeTieredCompactionSelectorTest extends AbstractCompactionTest {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private final int defaultFileNumLowerBound = CONFIG.getInnerCompactionCandidateFileNum();
+  private final boolean defaultEnableQueryAwareCompaction = CONFIG.isEnableQueryAwareCompaction();
+
+  @Before
+  public void setUp()
+      throws IOException, WriteProcessException, MetadataException, InterruptedException {
+    super.setUp();
+    CONFIG.setInnerCompactionCandidateFileNum(16);
+    CONFIG.setEnableQueryAwareCompaction(true);
+  }
+
+  @After
+  public void tearDown() throws IOException, StorageEngineException {
+    super.tearDown();
+    CONFIG.setInnerCompactionCandidateFileNum(defaultFileNumLowerBound);
+    CONFIG.setEnableQueryAwareCompaction(defaultEnableQueryAwareCompaction);
+    PartitionQueryStatistics.getInstance().clear();
+  }
+
+  /** 10 files of an active partition, fewer than inner_compaction_candidate_file_num. */
+  private void generateFilesOfActivePartition() throws IOException {
+    for (int i = 0; i < 10; i++) {
+      long fileTimestamp = i == 9 ? System.currentTimeMillis() : i;
+      seqResources.add(
+          generateSingleNonAlignedSeriesFile(
+              String.format("%d-%d-0-0.tsfile", fileTimestamp, i),
+              new TimeRange[] {new TimeRange(100 * i + 1, 100 * (i + 1))},
+              true,
+              "d" + i));
+    }
+  }
+
+  private List<InnerSpaceCompactionTask> select() {
+    QueryAwareSizeTieredCompactionSelector selector =
+        new QueryAwareSizeTieredCompactionSelector(
+            COMPACTION_TEST_SG,
+            "0",
+            seqResources.get(0).getTimePartition(),
+            true,
+            tsFileManager,
+            new CompactionScheduleContext());
+    return selector.selectInnerSpaceTask(seqResources);
+  }
+
+  private void recordQueries(int queryNum, List<TsFileResource> queriedFiles) {
+    for (int i = 0; i < queryNum; i++) {
+      PartitionQueryStatistics.getInstance()
+          .recordQuery("0", queriedFiles, Collections.emptyList());
+    }
+  }
+
+  @Test
+  public void testWaitForCandidateFilesWithoutQueries() throws IOException {
+    generateFilesOfActivePartition();
+    Assert.assertTrue(select().isEmpty());
+  }
+
+  @Test
+  public void testSelectFragmentedPartitionOfQueries() throws IOException {
+    generateFilesOfActivePartition();
+    // the query count decays from the moment it is recorded
+    recordQueries(12, seqResources);
+
+    List<InnerSpaceCompactionTask> tasks = select();
+    Assert.assertEquals(1, tasks.size());
+    Assert.assertEquals(10, tasks.get(0).getSelectedTsFileResourceList().size());
+  }
+
+  @Test
+  public void testSkipPartitionOfFewQueriesOrFewFiles() throws IOException {
+    generateFilesOfActivePartition();
+    // too few queries
+    recordQueries(5, seqResources);
+    Assert.assertTrue(select().isEmpty());
+
+    // enough queries, but each reads fewer than half of the candidate file num
+    PartitionQueryStatistics.getInstance().clear();
+    recordQueries(12, seqResources.subList(0, 4));
+    Assert.assertTrue(select().isEmpty());
+  }
+
+  @Test
+  public void testNoStatisticsWhenDisabled() throws IOException {
+    CONFIG.setEnableQueryAwareCompaction(false);
+    generateFilesOfActivePartition();
+    recordQueries(12, seqResources);
+    Assert.assertTrue(select().isEmpty());
+  }
+}
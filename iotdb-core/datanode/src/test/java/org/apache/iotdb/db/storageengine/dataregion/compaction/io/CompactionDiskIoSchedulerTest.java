@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.io;
+
+import org.apache.iotdb.db.storageengine.dataregion.compaction.io.CompactionDiskIoScheduler.DiskIoState;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompactionDiskIoSchedulerTest {
+
+  private static final String DATA_DIR_1 = new File("target/data1").getAbsolutePath();
+  private static final String DATA_DIR_2 = new File("target/data2").getAbsolutePath();
+
+  @After
+  public void tearDown() {
+    CompactionDiskIoScheduler.getInstance().clear();
+  }
+
+  private static String getTsFilePath(String dataDir, String fileName) {
+    return dataDir
+        + File.separator
+        + "sequence"
+        + File.separator
+        + "root.db"
+        + File.separator
+        + "1"
+        + File.separator
+        + "0"
+        + File.separator
+        + fileName;
+  }
+
+  @Test
+  public void testDiskIoStateOfDataDir() {
+    CompactionDiskIoScheduler scheduler = CompactionDiskIoScheduler.getInstance();
+    DiskIoState state1 = scheduler.getDiskIoState(getTsFilePath(DATA_DIR_1, "1-1-0-0.tsfile"));
+    DiskIoState state2 = scheduler.getDiskIoState(getTsFilePath(DATA_DIR_1, "2-2-0-0.tsfile"));
+    DiskIoState state3 = scheduler.getDiskIoState(getTsFilePath(DATA_DIR_2, "3-3-0-0.tsfile"));
+    assertEquals(DATA_DIR_1, state1.getDataDir());
+    assertSame(state1, state2);
+    assertNotSame(state1, state3);
+    assertEquals(DATA_DIR_2, state3.getDataDir());
+  }
+
+  @Test
+  public void testAverageReadLatency() {
+    DiskIoState state =
+        CompactionDiskIoScheduler.getInstance()
+            .getDiskIoState(getTsFilePath(DATA_DIR_1, "1-1-0-0.tsfile"));
+    state.recordRead(1024, 10_000_000L);
+    double latency = state.getAvgReadLatencyInMs();
+    assertTrue(latency > 0 && latency < 10);
+    // empty reads are not sampled
+    state.recordRead(-1, 100_000_000L);
+    assertEquals(latency, state.getAvgReadLatencyInMs(), 0.0);
+    for (int i = 0; i < 100; i++) {
+      state.recordRead(1024, 10_000_000L);
+    }
+    assertEquals(10, state.getAvgReadLatencyInMs(), 0.01);
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.storageengine.dataregion.compaction.io;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionType;
+
+import org.apache.tsfile.read.reader.TsFileInput;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class CompactionTsFileInputTest {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+  private static final int READ_AHEAD_SIZE = 16;
+  private static final int FILE_SIZE = 40;
+
+  private final byte[] data = new byte[FILE_SIZE];
+  private int readAheadSize;
+  private TsFileInput tsFileInput;
+
+  @Before
+  public void setUp() throws IOException {
+    readAheadSize = CONFIG.getCompactionReadAheadSize();
+    CONFIG.setCompactionReadAheadSize(READ_AHEAD_SIZE);
+    for (int i = 0; i < FILE_SIZE; i++) {
+      data[i] = (byte) i;
+    }
+    tsFileInput = Mockito.mock(TsFileInput.class);
+    Mockito.when(tsFileInput.getFilePath())
+        .thenReturn(new File("target/data/sequence/root.db/1/0/1-1-0-0.tsfile").getPath());
+    Mockito.when(tsFileInput.read(Mockito.any(ByteBuffer.class), Mockito.anyLong()))
+        .thenAnswer(
+            invocation -> {
+              ByteBuffer dst = invocation.getArgument(0);
+              long position = invocation.getArgument(1);
+              if (position >= FILE_SIZE) {
+                return -1;
+              }
+              int length = (int) Math.min(dst.remaining(), FILE_SIZE - position);
+              dst.put(data, (int) position, length);
+              return length;
+            });
+  }
+
+  @After
+  public void tearDown() {
+    CONFIG.setCompactionReadAheadSize(readAheadSize);
+    CompactionDiskIoScheduler.getInstance().clear();
+  }
+
+  private static int read(CompactionTsFileInput input, byte[] dst, long position)
+      throws IOException {
+    return input.read(ByteBuffer.wrap(dst), position);
+  }
+
+  private void assertBytes(byte[] actual, long position, int length) {
+    for (int i = 0; i < length; i++) {
+      Assert.assertEquals(data[(int) position + i], actual[i]);
+    }
+  }
+
+  private void verifyUnderlyingReads(int times) throws IOException {
+    Mockito.verify(tsFileInput, Mockito.times(times))
+        .read(Mockito.any(ByteBuffer.class), Mockito.anyLong());
+  }
+
+  @Test
+  public void testReadAheadOffset() throws IOException {
+    CompactionTsFileInput input = new CompactionTsFileInput(CompactionType.INNER_SEQ, tsFileInput);
+    byte[] dst = new byte[4];
+
+    Assert.assertEquals(4, read(input, dst, 2));
+    assertBytes(dst, 2, 4);
+    verifyUnderlyingReads(1);
+
+    // served from the buffer holding [2, 18)
+    Assert.assertEquals(4, read(input, dst, 10));
+    assertBytes(dst, 10, 4);
+    Assert.assertEquals(4, read(input, dst, 14));
+    assertBytes(dst, 14, 4);
+    verifyUnderlyingReads(1);
+
+    // beyond the buffer or before it, the buffer is refilled from the read position
+    Assert.assertEquals(4, read(input, dst, 16));
+    assertBytes(dst, 16, 4);
+    verifyUnderlyingReads(2);
+    Assert.assertEquals(4, read(input, dst, 0));
+    assertBytes(dst, 0, 4);
+    verifyUnderlyingReads(3);
+
+    // large reads bypass the buffer
+    byte[] large = new byte[READ_AHEAD_SIZE];
+    Assert.assertEquals(READ_AHEAD_SIZE, read(input, large, 1));
+    assertBytes(large, 1, READ_AHEAD_SIZE);
+    verifyUnderlyingReads(4);
+  }
+
+  @Test
+  public void testReadAheadAtEndOfFile() throws IOException {
+    CompactionTsFileInput input = new CompactionTsFileInput(CompactionType.INNER_SEQ, tsFileInput);
+    byte[] dst = new byte[8];
+
+    // the buffer is only filled up to the end of the file
+    Assert.assertEquals(8, read(input, dst, 28));
+    assertBytes(dst, 28, 8);
+    Assert.assertEquals(4, read(input, dst, 36));
+    assertBytes(dst, 36, 4);
+
+    Assert.assertEquals(-1, read(input, dst, FILE_SIZE));
+    Assert.assertEquals(-1, read(input, dst, FILE_SIZE + 10));
+  }
+
+  @Test
+  public void testReadAheadBufferPerThread() throws Exception {
+    CompactionTsFileInput input = new CompactionTsFileInput(CompactionType.INNER_SEQ, tsFileInput);
+    byte[] dst = new byte[4];
+    Assert.assertEquals(4, read(input, dst, 0));
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<Integer> readSize = executor.submit(() -> read(input, new byte[4], 20));
+      Assert.assertEquals(4, (int) readSize.get());
+    } finally {
+      executor.shutdownNow();
+    }
+    verifyUnderlyingReads(2);
+
+    // the read of the other thread does not evict the buffer of this thread
+    Assert.assertEquals(4, read(input, dst, 4));
+    assertBytes(dst, 4, 4);
+    verifyUnderlyingReads(2);
+  }
+
+  @Test
+  public void testReadAheadDisabled() throws IOException {
+    CONFIG.setCompactionReadAheadSize(0);
+    CompactionTsFileInput input = new CompactionTsFileInput(CompactionType.INNER_SEQ, tsFileInput);
+    byte[] dst = new byte[4];
+    Assert.assertEquals(4, read(input, dst, 0));
+    Assert.assertEquals(4, read(input, dst, 4));
+    assertBytes(dst, 4, 4);
+    verifyUnderlyingReads(2);
+  }
+}
@@ -46,6 +46,7 @@ public class CompactionConfigRestorer {
   private int concurrentCompactionThread = 10;
   private long compactionScheduleIntervalInMs = 60000L;
   private int compactionWriteThroughputMbPerSec = 8;
+  private boolean enableParallelAlignedDeviceCompaction = false;
 
   private CrossCompactionPerformer oldCrossPerformer =
       IoTDBDescriptor.getInstance().getConfig().getCrossCompactionPerformer();
@@ -77,6 +78,7 @@ public class CompactionConfigRestorer {
     config.setCompactionThreadCount(concurrentCompactionThread);
     config.setCompactionScheduleIntervalInMs(compactionScheduleIntervalInMs);
     config.setCompactionWriteThroughputMbPerSec(compactionWriteThroughputMbPerSec);
+    config.setEnableParallelAlignedDeviceCompaction(enableParallelAlignedDeviceCompaction);
     config.setCrossCompactionPerformer(oldCrossPerformer);
     config.setInnerSeqCompactionPerformer(oldInnerSeqPerformer);
     config.setInnerUnseqCompactionPerformer(oldInnerUnseqPerformer);
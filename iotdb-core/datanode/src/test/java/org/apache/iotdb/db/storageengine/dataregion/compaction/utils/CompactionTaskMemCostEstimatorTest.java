@@ -120,6 +120,47 @@ public class CompactionTaskMemCostEstimatorTest extends AbstractCompactionTest {
     Assert.assertTrue(cost > 0);
   }
 
+  @Test
+  public void testEstimateParallelAlignedDeviceCompaction() throws IOException {
+    // the aligned devices compacted at the same time are bounded by the devices of the task
+    seqResources.add(createFileWithAlignedDevices(1));
+    Assert.assertEquals(
+        estimateWithParallelAlignedDeviceCompaction(false),
+        estimateWithParallelAlignedDeviceCompaction(true));
+
+    seqResources.clear();
+    seqResources.add(createFileWithAlignedDevices(4));
+    Assert.assertTrue(
+        estimateWithParallelAlignedDeviceCompaction(true)
+            > estimateWithParallelAlignedDeviceCompaction(false));
+  }
+
+  private long estimateWithParallelAlignedDeviceCompaction(boolean enabled) throws IOException {
+    IoTDBDescriptor.getInstance().getConfig().setEnableParallelAlignedDeviceCompaction(enabled);
+    return new FastCompactionInnerCompactionEstimator().estimateInnerCompactionMemory(seqResources);
+  }
+
+  private TsFileResource createFileWithAlignedDevices(int deviceNum) throws IOException {
+    TsFileResource resource = createEmptyFileAndResource(true);
+    try (CompactionTestFileWriter writer = new CompactionTestFileWriter(resource)) {
+      List<String> measurements = new ArrayList<>();
+      for (int j = 0; j < 10; j++) {
+        measurements.add("s" + j);
+      }
+      for (int i = 0; i < deviceNum; i++) {
+        writer.startChunkGroup("d" + i);
+        writer.generateSimpleAlignedSeriesToCurrentDevice(
+            measurements,
+            new TimeRange[] {new TimeRange(0, 10000)},
+            TSEncoding.PLAIN,
+            CompressionType.UNCOMPRESSED);
+        writer.endChunkGroup();
+      }
+      writer.endFile();
+    }
+    return resource;
+  }
+
   @Test
   public void testRoughEstimate() throws IOException {
     boolean cacheEnabled = AbstractCompactionEstimator.isGlobalFileInfoCacheEnabled();
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.memtable;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.utils.datastructure.TVList;
+
+import org.apache.tsfile.encrypt.EncryptUtils;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+public class BackgroundSortMemTableTest {
+
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private int defaultTvListSortThreshold;
+  private int defaultHandoverThreshold;
+
+  @Before
+  public void setUp() {
+    defaultTvListSortThreshold = config.getTvListSortThreshold();
+    defaultHandoverThreshold = config.getBackgroundSortMemTableHandoverThreshold();
+    config.setTVListSortThreshold(0);
+    config.setBackgroundSortMemTableHandoverThreshold(100);
+  }
+
+  @After
+  public void tearDown() {
+    config.setTVListSortThreshold(defaultTvListSortThreshold);
+    config.setBackgroundSortMemTableHandoverThreshold(defaultHandoverThreshold);
+  }
+
+  @Test
+  public void testHandoverWithoutSortingOnWriter() {
+    WritableMemChunk memChunk =
+        new WritableMemChunk(
+            new MeasurementSchema("s1", TSDataType.INT64),
+            EncryptUtils.getEncryptParameter(),
+            true);
+    for (long time = 1000; time > 0; time--) {
+      memChunk.writeNonAlignedPoint(time, time);
+    }
+
+    List<TVList> sortedList = memChunk.getSortedList();
+    Assert.assertEquals(10, sortedList.size());
+    Assert.assertEquals(1000, memChunk.rowCount());
+    Assert.assertEquals(1, memChunk.getMinTime());
+    Assert.assertEquals(1000, memChunk.getMaxTime());
+
+    MemTableSorter.sortPendingLists(sortedList);
+    for (TVList tvList : sortedList) {
+      Assert.assertTrue(tvList.isSorted());
+      for (int i = 1; i < tvList.rowCount(); i++) {
+        Assert.assertTrue(tvList.getTime(i - 1) <= tvList.getTime(i));
+      }
+    }
+  }
+
+  @Test
+  public void testReleaseWaitsForBackgroundSort() {
+    WritableMemChunk memChunk =
+        new WritableMemChunk(
+            new MeasurementSchema("s1", TSDataType.INT64),
+            EncryptUtils.getEncryptParameter(),
+            true);
+    for (long time = 1000; time > 0; time--) {
+      memChunk.writeNonAlignedPoint(time, time);
+    }
+    List<TVList> sortedList = new ArrayList<>(memChunk.getSortedList());
+
+    memChunk.release();
+    for (TVList tvList : sortedList) {
+      Assert.assertFalse(MemTableSorter.isSortPending(tvList));
+      Assert.assertEquals(0, tvList.rowCount());
+    }
+  }
+
+  @Test
+  public void testCopy() {
+    BackgroundSortMemTable memTable = new BackgroundSortMemTable("root.test", "1");
+    Assert.assertTrue(memTable.getMemTableMap() instanceof HashMap);
+
+    IMemTable copy = memTable.copy();
+    Assert.assertTrue(copy instanceof BackgroundSortMemTable);
+    Assert.assertTrue(copy.getMemTableMap() instanceof HashMap);
+    Assert.assertEquals("root.test", copy.getDatabase());
+  }
+}
@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.memtable;
+
+import org.apache.iotdb.calc.exception.QueryProcessException;
+import org.apache.iotdb.commons.path.AlignedFullPath;
+import org.apache.iotdb.commons.path.NonAlignedFullPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
+import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
+import org.apache.iotdb.db.schemaengine.schemaregion.utils.ResourceByPathUtils;
+import org.apache.iotdb.db.utils.datastructure.AlignedTVList;
+import org.apache.iotdb.db.utils.datastructure.MemPointIterator;
+import org.apache.iotdb.db.utils.datastructure.TVList;
+
+import org.apache.tsfile.encrypt.EncryptUtils;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.StringArrayDeviceID;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class WritableMemChunkSealTest {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+  private static final int SEAL_THRESHOLD = 8;
+
+  private final IDeviceID deviceID = new StringArrayDeviceID("root.test.d1");
+
+  private boolean enableSnapshotRead;
+  private int sealThreshold;
+
+  @Before
+  public void setUp() {
+    enableSnapshotRead = CONFIG.isEnableMemTableSnapshotRead();
+    sealThreshold = CONFIG.getMemTableSnapshotReadSealThreshold();
+    CONFIG.setEnableMemTableSnapshotRead(true);
+    CONFIG.setMemTableSnapshotReadSealThreshold(SEAL_THRESHOLD);
+  }
+
+  @After
+  public void tearDown() {
+    CONFIG.setEnableMemTableSnapshotRead(enableSnapshotRead);
+    CONFIG.setMemTableSnapshotReadSealThreshold(sealThreshold);
+  }
+
+  private WritableMemChunk createMemChunk() {
+    return new WritableMemChunk(
+        new MeasurementSchema("s1", TSDataType.INT64), EncryptUtils.getEncryptParameter());
+  }
+
+  @Test
+  public void testSealQueriedListBeforeOutOfOrderWrite() {
+    WritableMemChunk memChunk = createMemChunk();
+    for (long time = 1; time <= 10; time++) {
+      memChunk.writeNonAlignedPoint(time, time);
+    }
+    TVList queriedList = memChunk.getWorkingTVList();
+    queriedList.getQueryContextSet().add(new QueryContext(false, false));
+
+    // in-order writes are appended to the list being read
+    memChunk.writeNonAlignedPoint(11L, 11L);
+    Assert.assertSame(queriedList, memChunk.getWorkingTVList());
+
+    memChunk.writeNonAlignedPoint(5L, 5L);
+    Assert.assertNotSame(queriedList, memChunk.getWorkingTVList());
+    Assert.assertTrue(queriedList.isSorted());
+    Assert.assertEquals(11, queriedList.rowCount());
+    Assert.assertEquals(1, memChunk.getSortedList().size());
+    Assert.assertEquals(12, memChunk.rowCount());
+  }
+
+  @Test
+  public void testSealUnsortedWorkingTVList() {
+    WritableMemChunk memChunk = createMemChunk();
+    for (long time = 10; time > 0; time--) {
+      memChunk.writeNonAlignedPoint(time, time);
+    }
+    TVList unsortedList = memChunk.getWorkingTVList();
+
+    memChunk.sealUnsortedWorkingTVList();
+    Assert.assertNotSame(unsortedList, memChunk.getWorkingTVList());
+    Assert.assertEquals(1, memChunk.getSortedList().size());
+    Assert.assertEquals(10, memChunk.rowCount());
+
+    MemTableSorter.sortPendingLists(memChunk.getSortedList());
+    Assert.assertTrue(unsortedList.isSorted());
+
+    // the sorted working TVList is kept
+    memChunk.writeNonAlignedPoint(11L, 11L);
+    memChunk.sealUnsortedWorkingTVList();
+    Assert.assertEquals(1, memChunk.getSortedList().size());
+    Assert.assertEquals(11, memChunk.rowCount());
+  }
+
+  @Test
+  public void testSmallWorkingTVListNotSealed() {
+    WritableMemChunk memChunk = createMemChunk();
+    for (long time = SEAL_THRESHOLD - 1; time > 0; time--) {
+      memChunk.writeNonAlignedPoint(time, time);
+    }
+    TVList unsortedList = memChunk.getWorkingTVList();
+
+    memChunk.sealUnsortedWorkingTVList();
+    Assert.assertSame(unsortedList, memChunk.getWorkingTVList());
+    Assert.assertTrue(memChunk.getSortedList().isEmpty());
+
+    // a small sorted working TVList being read is made unsorted as before
+    WritableMemChunk queriedMemChunk = createMemChunk();
+    for (long time = 1; time < SEAL_THRESHOLD; time++) {
+      queriedMemChunk.writeNonAlignedPoint(time, time);
+    }
+    TVList queriedList = queriedMemChunk.getWorkingTVList();
+    queriedList.getQueryContextSet().add(new QueryContext(false, false));
+    queriedMemChunk.writeNonAlignedPoint(0L, 0L);
+    Assert.assertSame(queriedList, queriedMemChunk.getWorkingTVList());
+    Assert.assertTrue(queriedMemChunk.getSortedList().isEmpty());
+  }
+
+  @Test
+  public void testNotSealedWhenDisabled() {
+    CONFIG.setEnableMemTableSnapshotRead(false);
+    WritableMemChunk memChunk = createMemChunk();
+    for (long time = 10; time > 0; time--) {
+      memChunk.writeNonAlignedPoint(time, time);
+    }
+    TVList unsortedList = memChunk.getWorkingTVList();
+
+    memChunk.sealUnsortedWorkingTVList();
+    Assert.assertSame(unsortedList, memChunk.getWorkingTVList());
+    Assert.assertTrue(memChunk.getSortedList().isEmpty());
+  }
+
+  @Test
+  public void testSealAlignedUnsortedWorkingTVList() {
+    List<IMeasurementSchema> schemaList =
+        Arrays.asList(
+            new MeasurementSchema("s1", TSDataType.INT64),
+            new MeasurementSchema("s2", TSDataType.INT64));
+    AlignedWritableMemChunk memChunk = new AlignedWritableMemChunk(schemaList, false);
+    for (long time = 10; time > 0; time--) {
+      memChunk.writeAlignedPoints(time, new Object[] {time, time}, schemaList);
+    }
+    AlignedTVList unsortedList = memChunk.getWorkingTVList();
+
+    memChunk.sealUnsortedWorkingTVList();
+    Assert.assertNotSame(unsortedList, memChunk.getWorkingTVList());
+    Assert.assertEquals(1, memChunk.getSortedList().size());
+    Assert.assertEquals(10, memChunk.rowCount());
+
+    MemTableSorter.sortPendingLists(memChunk.getSortedList());
+    Assert.assertTrue(unsortedList.isSorted());
+
+    // the sorted working TVList being read is sealed before an out-of-order write
+    for (long time = 11; time <= 20; time++) {
+      memChunk.writeAlignedPoints(time, new Object[] {time, time}, schemaList);
+    }
+    AlignedTVList queriedList = memChunk.getWorkingTVList();
+    queriedList.getQueryContextSet().add(new QueryContext(false, false));
+    memChunk.writeAlignedPoints(15L, new Object[] {15L, 15L}, schemaList);
+    Assert.assertNotSame(queriedList, memChunk.getWorkingTVList());
+    Assert.assertTrue(queriedList.isSorted());
+    Assert.assertEquals(10, queriedList.rowCount());
+    Assert.assertEquals(2, memChunk.getSortedList().size());
+    Assert.assertEquals(21, memChunk.rowCount());
+  }
+
+  @Test
+  public void testQuerySealsUnsortedWorkingTVList() throws QueryProcessException, IOException {
+    PrimitiveMemTable memTable = new PrimitiveMemTable("root.test", "0");
+    MeasurementSchema schema = new MeasurementSchema("s1", TSDataType.INT64);
+    List<IMeasurementSchema> schemaList = Collections.singletonList(schema);
+    for (long time = 10; time > 0; time--) {
+      memTable.write(deviceID, schemaList, time, new Object[] {time});
+    }
+    IWritableMemChunk memChunk = memTable.getWritableMemChunk(deviceID, "s1");
+    TVList unsortedList = memChunk.getWorkingTVList();
+
+    ReadOnlyMemChunk readOnlyMemChunk =
+        ResourceByPathUtils.getResourceInstance(new NonAlignedFullPath(deviceID, schema))
+            .getReadOnlyMemChunkFromMemTable(
+                new QueryContext(1, false), memTable, null, Long.MIN_VALUE, null);
+    Assert.assertNotSame(unsortedList, memChunk.getWorkingTVList());
+    Assert.assertEquals(Collections.singletonList(unsortedList), memChunk.getSortedList());
+    Assert.assertEquals(
+        Integer.valueOf(10), readOnlyMemChunk.getTvListQueryMap().get(unsortedList));
+
+    // the rows written after the query are invisible to it
+    memTable.write(deviceID, schemaList, 0L, new Object[] {0L});
+    readOnlyMemChunk.sortTvLists();
+    assertAscendingTimes(readOnlyMemChunk.createMemPointIterator(Ordering.ASC, null), 1, 10);
+  }
+
+  @Test
+  public void testQueryKeepsSmallWorkingTVList() throws QueryProcessException, IOException {
+    PrimitiveMemTable memTable = new PrimitiveMemTable("root.test", "0");
+    MeasurementSchema schema = new MeasurementSchema("s1", TSDataType.INT64);
+    List<IMeasurementSchema> schemaList = Collections.singletonList(schema);
+    for (long time = SEAL_THRESHOLD - 1; time > 0; time--) {
+      memTable.write(deviceID, schemaList, time, new Object[] {time});
+    }
+    IWritableMemChunk memChunk = memTable.getWritableMemChunk(deviceID, "s1");
+    TVList unsortedList = memChunk.getWorkingTVList();
+
+    ReadOnlyMemChunk readOnlyMemChunk =
+        ResourceByPathUtils.getResourceInstance(new NonAlignedFullPath(deviceID, schema))
+            .getReadOnlyMemChunkFromMemTable(
+                new QueryContext(1, false), memTable, null, Long.MIN_VALUE, null);
+    Assert.assertSame(unsortedList, memChunk.getWorkingTVList());
+    Assert.assertTrue(memChunk.getSortedList().isEmpty());
+    readOnlyMemChunk.sortTvLists();
+    assertAscendingTimes(
+        readOnlyMemChunk.createMemPointIterator(Ordering.ASC, null), 1, SEAL_THRESHOLD - 1);
+  }
+
+  @Test
+  public void testAlignedQuerySealsUnsortedWorkingTVList()
+      throws QueryProcessException, IOException {
+    PrimitiveMemTable memTable = new PrimitiveMemTable("root.test", "0");
+    List<IMeasurementSchema> schemaList =
+        Arrays.asList(
+            new MeasurementSchema("s1", TSDataType.INT64),
+            new MeasurementSchema("s2", TSDataType.INT64));
+    for (long time = 10; time > 0; time--) {
+      memTable.writeAlignedRow(deviceID, schemaList, time, new Object[] {time, time});
+    }
+    IWritableMemChunk memChunk = memTable.getWritableMemChunk(deviceID, "");
+    TVList unsortedList = memChunk.getWorkingTVList();
+
+    AlignedReadOnlyMemChunk readOnlyMemChunk =
+        (AlignedReadOnlyMemChunk)
+            ResourceByPathUtils.getResourceInstance(
+                    new AlignedFullPath(deviceID, Arrays.asList("s1", "s2"), schemaList))
+                .getReadOnlyMemChunkFromMemTable(
+                    new QueryContext(1, false), memTable, null, Long.MIN_VALUE, null);
+    Assert.assertNotSame(unsortedList, memChunk.getWorkingTVList());
+    Assert.assertEquals(Collections.singletonList(unsortedList), memChunk.getSortedList());
+    Assert.assertEquals(
+        Integer.valueOf(10), readOnlyMemChunk.getAligendTvListQueryMap().get(unsortedList));
+
+    memTable.writeAlignedRow(deviceID, schemaList, 0L, new Object[] {0L, 0L});
+    readOnlyMemChunk.sortTvLists();
+    assertAscendingTimes(readOnlyMemChunk.createMemPointIterator(Ordering.ASC, null), 1, 10);
+  }
+
+  private void assertAscendingTimes(MemPointIterator iterator, long from, long to)
+      throws IOException {
+    for (long time = from; time <= to; time++) {
+      Assert.assertTrue(iterator.hasNextTimeValuePair());
+      Assert.assertEquals(time, iterator.nextTimeValuePair().getTimestamp());
+    }
+    Assert.assertFalse(iterator.hasNextTimeValuePair());
+  }
+}
@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.migration;
+
+import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.commons.utils.FileUtils;
+import org.apache.iotdb.db.storageengine.dataregion.modification.ModEntry;
+import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFile;
+import org.apache.iotdb.db.storageengine.dataregion.modification.TreeDeletionEntry;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.apache.tsfile.enums.TSDataType;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+public class TierMigrationTaskTest {
+
+  private static final String TSFILE_NAME = "1-1-0-0.tsfile";
+
+  private File tempDir;
+  private File sourceFile;
+  private File targetFile;
+  private TsFileResource resource;
+
+  @Before
+  public void setUp() throws Exception {
+    tempDir = Files.createTempDirectory("tier-migration").toFile();
+    sourceFile = getTsFile("tier0");
+    targetFile = getTsFile("tier1");
+    Assert.assertTrue(sourceFile.getParentFile().mkdirs());
+    Files.write(sourceFile.toPath(), "tsfile".getBytes(StandardCharsets.UTF_8));
+    Files.write(
+        new File(sourceFile.getPath() + TsFileResource.RESOURCE_SUFFIX).toPath(),
+        "resource".getBytes(StandardCharsets.UTF_8));
+    resource = new TsFileResource(sourceFile);
+    resource.setStatusForTest(TsFileResourceStatus.COMPACTING);
+    resource.getExclusiveModFile().write(newDeletion(0, 10));
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    resource.getExclusiveModFile().close();
+    FileUtils.deleteFileOrDirectory(tempDir);
+  }
+
+  @Test
+  public void testMigrate() throws Exception {
+    ModificationFile sourceModFile = resource.getExclusiveModFile();
+    File sourceModsFile = sourceModFile.getFile();
+
+    Assert.assertTrue(newTask().migrate());
+
+    Assert.assertEquals(targetFile, resource.getTsFile());
+    Assert.assertEquals(1, resource.getTierLevel());
+    Assert.assertArrayEquals(
+        "tsfile".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(targetFile.toPath()));
+    Assert.assertTrue(new File(targetFile.getPath() + TsFileResource.RESOURCE_SUFFIX).exists());
+    Assert.assertFalse(
+        new File(targetFile.getPath() + TierMigrationTask.MIGRATING_SUFFIX).exists());
+    Assert.assertFalse(sourceFile.exists());
+    Assert.assertFalse(new File(sourceFile.getPath() + TsFileResource.RESOURCE_SUFFIX).exists());
+    Assert.assertFalse(sourceModsFile.exists());
+
+    // the deletion written through the source mod file by a concurrent writer is not lost
+    sourceModFile.write(newDeletion(20, 30));
+    ModificationFile targetModFile = resource.getExclusiveModFile();
+    Assert.assertEquals(ModificationFile.getExclusiveMods(targetFile), targetModFile.getFile());
+    List<ModEntry> mods = targetModFile.getAllMods();
+    Assert.assertEquals(2, mods.size());
+  }
+
+  @Test
+  public void testMigrateDeletedFile() throws Exception {
+    resource.setStatusForTest(TsFileResourceStatus.DELETED);
+
+    Assert.assertFalse(newTask().migrate());
+
+    Assert.assertEquals(sourceFile, resource.getTsFile());
+    Assert.assertEquals(0, resource.getTierLevel());
+    Assert.assertTrue(sourceFile.exists());
+    Assert.assertTrue(resource.getExclusiveModFile().exists());
+    File[] leftFiles = targetFile.getParentFile().listFiles();
+    Assert.assertTrue(leftFiles == null || leftFiles.length == 0);
+  }
+
+  @Test
+  public void testRecoverUncommittedMigration() throws Exception {
+    // crashed after the target is copied, but before the resource file of the source is deleted
+    createCopy(targetFile, TierMigrationTask.MIGRATING_RESOURCE_SUFFIX);
+
+    Assert.assertEquals(targetFile, TierMigrationTask.recover(sourceFile, targetFile));
+    TierMigrationTask.deleteCopy(targetFile);
+
+    Assert.assertTrue(new File(sourceFile.getPath() + TsFileResource.RESOURCE_SUFFIX).exists());
+    File[] leftFiles = targetFile.getParentFile().listFiles();
+    Assert.assertTrue(leftFiles == null || leftFiles.length == 0);
+  }
+
+  @Test
+  public void testRecoverCommittedMigration() throws Exception {
+    // crashed after the resource file of the source is deleted, but before the one of the target
+    // is moved in place
+    createCopy(targetFile, TierMigrationTask.MIGRATING_RESOURCE_SUFFIX);
+    Files.delete(new File(sourceFile.getPath() + TsFileResource.RESOURCE_SUFFIX).toPath());
+
+    Assert.assertEquals(sourceFile, TierMigrationTask.recover(sourceFile, targetFile));
+    Assert.assertTrue(new File(targetFile.getPath() + TsFileResource.RESOURCE_SUFFIX).exists());
+    Assert.assertFalse(
+        new File(targetFile.getPath() + TierMigrationTask.MIGRATING_RESOURCE_SUFFIX).exists());
+
+    File sourceModsFile = resource.getExclusiveModFile().getFile();
+    resource.getExclusiveModFile().close();
+    TierMigrationTask.deleteCopy(sourceFile);
+    Assert.assertFalse(sourceFile.exists());
+    Assert.assertFalse(sourceModsFile.exists());
+    Assert.assertTrue(targetFile.exists());
+  }
+
+  @Test
+  public void testRecoverCompleteCopies() throws Exception {
+    createCopy(targetFile, TsFileResource.RESOURCE_SUFFIX);
+
+    // both copies are on the same tier here, so the first one is kept
+    Assert.assertEquals(targetFile, TierMigrationTask.recover(sourceFile, targetFile));
+  }
+
+  @Test
+  public void testRecoverUnsealedCopies() throws Exception {
+    createCopy(targetFile, "");
+    Files.delete(new File(sourceFile.getPath() + TsFileResource.RESOURCE_SUFFIX).toPath());
+
+    Assert.assertNull(TierMigrationTask.recover(sourceFile, targetFile));
+  }
+
+  private void createCopy(File tsFile, String resourceSuffix) throws Exception {
+    Assert.assertTrue(tsFile.getParentFile().mkdirs());
+    Files.write(tsFile.toPath(), "tsfile".getBytes(StandardCharsets.UTF_8));
+    Files.write(
+        ModificationFile.getExclusiveMods(tsFile).toPath(),
+        "mods".getBytes(StandardCharsets.UTF_8));
+    if (!resourceSuffix.isEmpty()) {
+      Files.write(
+          new File(tsFile.getPath() + resourceSuffix).toPath(),
+          "resource".getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  private TierMigrationTask newTask() {
+    return new TierMigrationTask(resource, targetFile, 1, RateLimiter.create(Double.MAX_VALUE));
+  }
+
+  private File getTsFile(String tierDir) {
+    return new File(
+        tempDir,
+        tierDir
+            + File.separator
+            + "sequence"
+            + File.separator
+            + "root.sg"
+            + File.separator
+            + "0"
+            + File.separator
+            + "0"
+            + File.separator
+            + TSFILE_NAME);
+  }
+
+  private static TreeDeletionEntry newDeletion(long startTime, long endTime) throws Exception {
+    return new TreeDeletionEntry(
+        new MeasurementPath("root.sg.d.s", TSDataType.INT64), startTime, endTime);
+  }
+}
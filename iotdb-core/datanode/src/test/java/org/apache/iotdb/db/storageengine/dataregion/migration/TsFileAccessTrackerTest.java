@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.migration;
+
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TsFileAccessTrackerTest {
+
+  private final TsFileAccessTracker tracker = TsFileAccessTracker.getInstance();
+
+  @Before
+  public void setUp() {
+    tracker.setEnabled(true);
+  }
+
+  @After
+  public void tearDown() {
+    tracker.clear();
+    tracker.setEnabled(false);
+  }
+
+  @Test
+  public void testRecordAndDecay() {
+    TsFileID hotFile = new TsFileID(0, 0, 1, 1, 0);
+    TsFileID coldFile = new TsFileID(0, 0, 2, 2, 0);
+    for (int i = 0; i < 8; i++) {
+      tracker.recordRead(hotFile);
+    }
+    tracker.recordRead(coldFile);
+    Assert.assertEquals(8, tracker.getReadCount(hotFile));
+    Assert.assertEquals(1, tracker.getReadCount(coldFile));
+
+    tracker.decay();
+    Assert.assertEquals(4, tracker.getReadCount(hotFile));
+    Assert.assertEquals(0, tracker.getReadCount(coldFile));
+
+    tracker.setEnabled(false);
+    tracker.recordRead(hotFile);
+    Assert.assertEquals(4, tracker.getReadCount(hotFile));
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.tsfile.rollup;
+
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.rollup.RollupIndex.SeriesRollup;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.write.TsFileWriter;
+import org.apache.tsfile.write.record.Tablet;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+public class RollupIndexTest {
+
+  private static final long INTERVAL = 100;
+
+  private File tsFile;
+
+  @Before
+  public void setUp() throws Exception {
+    tsFile = Files.createTempFile("rollup", ".tsfile").toFile();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    Files.deleteIfExists(tsFile.toPath());
+  }
+
+  @Test
+  public void testIsAligned() {
+    RollupIndex rollupIndex = new RollupIndex(INTERVAL);
+    Assert.assertFalse(rollupIndex.isAligned(0, 99));
+
+    rollupIndex.putSeriesRollup(
+        IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d"),
+        "s",
+        new SeriesRollup(TSDataType.INT64, new long[0], new Statistics[0]));
+    Assert.assertTrue(rollupIndex.isAligned(0, 99));
+    Assert.assertTrue(rollupIndex.isAligned(-200, 299));
+    Assert.assertFalse(rollupIndex.isAligned(0, 98));
+    Assert.assertFalse(rollupIndex.isAligned(1, 99));
+    Assert.assertFalse(rollupIndex.isAligned(0, Long.MAX_VALUE));
+
+    Assert.assertEquals(-100, rollupIndex.getBucketStartTime(-1));
+    Assert.assertEquals(100, rollupIndex.getBucketStartTime(199));
+  }
+
+  @Test
+  public void testGenerateNonAligned() throws Exception {
+    List<IMeasurementSchema> schemaList =
+        Arrays.asList(
+            new MeasurementSchema("s1", TSDataType.INT64),
+            new MeasurementSchema("s2", TSDataType.TEXT));
+    Tablet tablet = new Tablet("root.sg.d", schemaList, 1000);
+    for (int row = 0; row < 1000; row++) {
+      tablet.addTimestamp(row, row);
+      tablet.addValue("s1", row, (long) row);
+      tablet.addValue("s2", row, String.valueOf(row));
+    }
+    try (TsFileWriter writer = new TsFileWriter(tsFile)) {
+      writer.registerTimeseries(new PartialPath("root.sg.d"), schemaList);
+      writer.writeTree(tablet);
+    }
+
+    RollupIndex rollupIndex = serializeAndDeserialize(generate());
+    IDeviceID deviceID = IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d");
+    Assert.assertNull(rollupIndex.getSeriesRollup(deviceID, "s2"));
+
+    SeriesRollup seriesRollup = rollupIndex.getSeriesRollup(deviceID, "s1");
+    Assert.assertEquals(TSDataType.INT64, seriesRollup.getDataType());
+    Assert.assertEquals(10, seriesRollup.getBucketCount());
+    checkStatistics(seriesRollup.merge(100, 199), 100, 199);
+    checkStatistics(seriesRollup.merge(200, 499), 200, 499);
+    Assert.assertNull(seriesRollup.merge(1000, 1999));
+  }
+
+  @Test
+  public void testGenerateAligned() throws Exception {
+    List<IMeasurementSchema> schemaList =
+        Arrays.asList(
+            new MeasurementSchema("s1", TSDataType.INT64),
+            new MeasurementSchema("s2", TSDataType.INT64));
+    Tablet tablet = new Tablet("root.sg.d", schemaList, 1000);
+    for (int row = 0; row < 1000; row++) {
+      tablet.addTimestamp(row, row);
+      tablet.addValue("s1", row, (long) row);
+      // s2 only has value in the first 500 rows
+      if (row < 500) {
+        tablet.addValue("s2", row, (long) row);
+      }
+    }
+    try (TsFileWriter writer = new TsFileWriter(tsFile)) {
+      writer.registerAlignedTimeseries(new PartialPath("root.sg.d"), schemaList);
+      writer.writeAligned(tablet);
+    }
+
+    RollupIndex rollupIndex = serializeAndDeserialize(generate());
+    IDeviceID deviceID = IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg.d");
+
+    SeriesRollup timeRollup = rollupIndex.getSeriesRollup(deviceID, RollupIndex.TIME_COLUMN);
+    Assert.assertEquals(10, timeRollup.getBucketCount());
+    Statistics<? extends Serializable> timeStatistics = timeRollup.merge(400, 599);
+    Assert.assertEquals(200, timeStatistics.getCount());
+    Assert.assertEquals(400, timeStatistics.getStartTime());
+    Assert.assertEquals(599, timeStatistics.getEndTime());
+
+    checkStatistics(rollupIndex.getSeriesRollup(deviceID, "s1").merge(400, 599), 400, 599);
+    SeriesRollup s2Rollup = rollupIndex.getSeriesRollup(deviceID, "s2");
+    Assert.assertEquals(5, s2Rollup.getBucketCount());
+    checkStatistics(s2Rollup.merge(400, 599), 400, 499);
+  }
+
+  private RollupIndex generate() throws Exception {
+    return new RollupIndexGenerator(tsFile, INTERVAL).generate();
+  }
+
+  private static RollupIndex serializeAndDeserialize(RollupIndex rollupIndex) throws Exception {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    rollupIndex.serialize(outputStream);
+    RollupIndex result =
+        RollupIndex.deserialize(new ByteArrayInputStream(outputStream.toByteArray()));
+    Assert.assertEquals(rollupIndex.getInterval(), result.getInterval());
+    return result;
+  }
+
+  private static void checkStatistics(
+      Statistics<? extends Serializable> statistics, long startTime, long endTime) {
+    Assert.assertEquals(endTime - startTime + 1, statistics.getCount());
+    Assert.assertEquals(startTime, statistics.getStartTime());
+    Assert.assertEquals(endTime, statistics.getEndTime());
+    Assert.assertEquals(startTime, ((Number) statistics.getMinValue()).longValue());
+    Assert.assertEquals(endTime, ((Number) statistics.getMaxValue()).longValue());
+    Assert.assertEquals(
+        (startTime + endTime) * (endTime - startTime + 1) / 2,
+        (long) statistics.getSumDoubleValue());
+  }
+}
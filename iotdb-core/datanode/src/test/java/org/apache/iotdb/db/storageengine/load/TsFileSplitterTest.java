@@ -201,6 +201,93 @@ public class TsFileSplitterTest {
     }
   }
 
+  @Test
+  public void testSplitInParallelKeepsFileOrder() throws Exception {
+    final File sourceTsFile = new File("split-in-parallel-source.tsfile");
+
+    try {
+      writeTreeTsFileWithMultiChunkGroups(sourceTsFile, 8);
+
+      final List<byte[]> sequentialResult = splitAndSerialize(sourceTsFile, 1);
+      final List<byte[]> parallelResult = splitAndSerialize(sourceTsFile, 3);
+      Assert.assertFalse(sequentialResult.isEmpty());
+      Assert.assertEquals(sequentialResult.size(), parallelResult.size());
+      for (int i = 0; i < sequentialResult.size(); i++) {
+        Assert.assertArrayEquals(sequentialResult.get(i), parallelResult.get(i));
+      }
+    } finally {
+      if (sourceTsFile.exists()) {
+        Assert.assertTrue(sourceTsFile.delete());
+      }
+    }
+  }
+
+  private List<byte[]> splitAndSerialize(final File tsFile, final int parallelism)
+      throws Exception {
+    final List<byte[]> result = new ArrayList<>();
+    // every chunk group forms a range when the minimal range size is 1 byte
+    new TsFileSplitter(
+            tsFile,
+            tsFileData -> {
+              final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+              try (final DataOutputStream dataOutputStream =
+                  new DataOutputStream(byteArrayOutputStream)) {
+                tsFileData.serialize(dataOutputStream);
+              } catch (final IOException e) {
+                return false;
+              }
+              result.add(byteArrayOutputStream.toByteArray());
+              return true;
+            },
+            parallelism,
+            1)
+        .splitTsFileByDataPartition();
+    return result;
+  }
+
+  private void writeTreeTsFileWithMultiChunkGroups(final File tsFile, final int deviceNum)
+      throws Exception {
+    if (tsFile.exists()) {
+      Assert.assertTrue(tsFile.delete());
+    }
+
+    // the data of each chunk crosses two time partitions so that the pages are decoded
+    final long[] times = new long[] {1, 2, 3, 604_800_001L, 604_800_002L};
+    final List<IMeasurementSchema> schemaList =
+        Arrays.asList(
+            new MeasurementSchema("s1", TSDataType.INT64),
+            new MeasurementSchema("s2", TSDataType.DOUBLE));
+    try (final TsFileIOWriter writer = new TsFileIOWriter(tsFile)) {
+      for (int i = 0; i < deviceNum; i++) {
+        final IDeviceID deviceID = new PlainDeviceID("root.sg.d" + i);
+        writer.startChunkGroup(deviceID);
+        if (i % 2 == 0) {
+          for (final IMeasurementSchema schema : schemaList) {
+            final ChunkWriterImpl chunkWriter = new ChunkWriterImpl(schema);
+            for (final long time : times) {
+              if (schema.getType() == TSDataType.INT64) {
+                chunkWriter.write(time, time * i);
+              } else {
+                chunkWriter.write(time, time * 0.5 + i);
+              }
+            }
+            chunkWriter.writeToFileWriter(writer);
+          }
+        } else {
+          final AlignedChunkWriterImpl chunkWriter = new AlignedChunkWriterImpl(schemaList);
+          for (final long time : times) {
+            chunkWriter.getTimeChunkWriter().write(time);
+            chunkWriter.getValueChunkWriterByIndex(0).write(time, time * i, false);
+            chunkWriter.getValueChunkWriterByIndex(1).write(time, time * 0.5 + i, time == 2);
+          }
+          chunkWriter.writeToFileWriter(writer);
+        }
+        writer.endChunkGroup();
+      }
+      writer.endFile();
+    }
+  }
+
   private void writeTableTsFileWithTimeOnlyChunk(final File tsFile, final IDeviceID deviceID)
       throws Exception {
     if (tsFile.exists()) {
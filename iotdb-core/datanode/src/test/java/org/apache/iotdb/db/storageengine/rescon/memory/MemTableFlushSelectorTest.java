@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.rescon.memory;
+
+import org.apache.iotdb.db.storageengine.dataregion.memtable.TsFileProcessor;
+import org.apache.iotdb.db.storageengine.rescon.memory.MemTableFlushSelector.FlushCandidate;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MemTableFlushSelectorTest {
+
+  private static TsFileProcessor mockProcessor(long ramCost, int seriesNumber, boolean sequence) {
+    TsFileProcessor tsFileProcessor = Mockito.mock(TsFileProcessor.class);
+    Mockito.when(tsFileProcessor.getWorkMemTableRamCost()).thenReturn(ramCost);
+    Mockito.when(tsFileProcessor.getWorkMemTableSeriesNumber()).thenReturn(seriesNumber);
+    Mockito.when(tsFileProcessor.isSequence()).thenReturn(sequence);
+    return tsFileProcessor;
+  }
+
+  @Test
+  public void testOrderByMemorySize() {
+    TsFileProcessor small = mockProcessor(1024 * 1024L, 1, true);
+    TsFileProcessor large = mockProcessor(4 * 1024 * 1024L, 10000, false);
+    TsFileProcessor empty = mockProcessor(0, 0, true);
+
+    List<FlushCandidate> candidates =
+        new MemTableFlushSelector(false).order(Arrays.asList(small, empty, large));
+    assertEquals(2, candidates.size());
+    assertSame(large, candidates.get(0).getTsFileProcessor());
+    assertSame(small, candidates.get(1).getTsFileProcessor());
+  }
+
+  @Test
+  public void testOrderByFlushBenefit() {
+    // few series holding much data
+    TsFileProcessor dense = mockProcessor(2 * 1024 * 1024L, 10, true);
+    // many series holding little data each, e.g. late data scattered in a time partition
+    TsFileProcessor sparse = mockProcessor(4 * 1024 * 1024L, 10000, false);
+    TsFileProcessor empty = mockProcessor(0, 0, false);
+
+    List<FlushCandidate> candidates =
+        new MemTableFlushSelector(true).order(Arrays.asList(sparse, empty, dense));
+    assertEquals(2, candidates.size());
+    assertSame(dense, candidates.get(0).getTsFileProcessor());
+    assertSame(sparse, candidates.get(1).getTsFileProcessor());
+    assertEquals(4 * 1024 * 1024L, candidates.get(1).getRamCost());
+  }
+
+  @Test
+  public void testUnsequenceFlushCostsMore() {
+    assertTrue(
+        MemTableFlushSelector.getFlushBenefit(1024 * 1024L, 100, true)
+            > MemTableFlushSelector.getFlushBenefit(1024 * 1024L, 100, false));
+  }
+}
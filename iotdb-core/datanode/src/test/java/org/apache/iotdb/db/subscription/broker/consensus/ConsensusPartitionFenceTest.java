@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.subscription.broker.consensus;
+
+import org.apache.iotdb.db.subscription.event.SubscriptionEvent;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ConsensusPartitionFenceTest {
+
+  private static final int CROSS = SubscriptionEvent.CROSS_PARTITION;
+
+  @Test
+  public void testOnlyOwnedPartitionsAreAdmitted() {
+    final ConsensusPartitionFence fence = new ConsensusPartitionFence();
+    final Set<Integer> owned = new HashSet<>(Collections.singletonList(1));
+
+    assertTrue(fence.isEmpty());
+    assertTrue(fence.admits(1, "a", owned));
+    assertFalse(fence.admits(0, "a", owned));
+    assertFalse(fence.admits(2, "a", owned));
+    // null means all partitions, used when the region is not partitioned
+    assertTrue(fence.admits(2, "a", null));
+  }
+
+  @Test
+  public void testOwnerKeepsPollingItsPartitionInOrder() {
+    final ConsensusPartitionFence fence = new ConsensusPartitionFence();
+    fence.track("a", 1);
+    fence.track("a", 1);
+
+    assertFalse(fence.isEmpty());
+    assertTrue(fence.admits(1, "a", Collections.singleton(1)));
+    assertTrue(fence.admits(0, "b", Collections.singleton(0)));
+  }
+
+  @Test
+  public void testPartitionIsFencedAfterOwnershipMoves() {
+    // consumer a polled an event of partition 1, then the partition was reassigned to b
+    final ConsensusPartitionFence inFlightAtPreviousOwner = new ConsensusPartitionFence();
+    inFlightAtPreviousOwner.track("a", 1);
+
+    assertFalse(inFlightAtPreviousOwner.admits(1, "b", Collections.singleton(1)));
+    assertTrue(inFlightAtPreviousOwner.admits(0, "b", Collections.singleton(0)));
+
+    // the event of a was committed or recycled, so the next snapshot no longer tracks it
+    final ConsensusPartitionFence drained = new ConsensusPartitionFence();
+    assertTrue(drained.admits(1, "b", Collections.singleton(1)));
+  }
+
+  @Test
+  public void testPartitionHeldBySeveralConsumersIsFenced() {
+    final ConsensusPartitionFence fence = new ConsensusPartitionFence();
+    fence.track("a", 1);
+    fence.track("b", 1);
+
+    assertFalse(fence.admits(1, "a", null));
+    assertFalse(fence.admits(1, "b", null));
+  }
+
+  @Test
+  public void testCrossPartitionEventIsBarrier() {
+    final ConsensusPartitionFence idle = new ConsensusPartitionFence();
+    assertTrue(idle.admits(CROSS, "a", Collections.singleton(0)));
+
+    final ConsensusPartitionFence busy = new ConsensusPartitionFence();
+    busy.track("b", 1);
+    assertFalse(busy.admits(CROSS, "a", Collections.singleton(0)));
+    assertFalse(busy.admits(CROSS, "b", Collections.singleton(1)));
+
+    final ConsensusPartitionFence barrierInFlight = new ConsensusPartitionFence();
+    barrierInFlight.track("a", CROSS);
+    assertFalse(barrierInFlight.isEmpty());
+    assertTrue(barrierInFlight.hasCrossPartitionInFlight());
+    assertFalse(barrierInFlight.admits(0, "a", null));
+    assertFalse(barrierInFlight.admits(1, "b", null));
+    assertFalse(barrierInFlight.admits(CROSS, "a", null));
+  }
+}
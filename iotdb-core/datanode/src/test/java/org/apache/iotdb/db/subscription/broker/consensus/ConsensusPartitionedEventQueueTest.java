@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.subscription.broker.consensus;
+
+import org.apache.iotdb.db.subscription.event.SubscriptionEvent;
+import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionCommitContext;
+import org.apache.iotdb.rpc.subscription.payload.poll.SubscriptionPollResponseType;
+import org.apache.iotdb.rpc.subscription.payload.poll.TabletsPayload;
+import org.apache.iotdb.rpc.subscription.payload.poll.WatermarkPayload;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ConsensusPartitionedEventQueueTest {
+
+  private static final int CROSS = SubscriptionEvent.CROSS_PARTITION;
+
+  @Test
+  public void testPartitionsArePolledIndependentlyInOrder() {
+    final ConsensusPartitionedEventQueue queue = new ConsensusPartitionedEventQueue();
+    final SubscriptionEvent first0 = tabletsEvent(1, 0);
+    final SubscriptionEvent first1 = tabletsEvent(2, 1);
+    final SubscriptionEvent second0 = tabletsEvent(3, 0);
+    queue.add(second0);
+    queue.add(first1);
+    queue.add(first0);
+
+    // the events of partition 0 do not hold back partition 1
+    assertSame(first1, pollPartitioned(queue, 1));
+    assertNull(pollPartitioned(queue, 1));
+    assertSame(first0, pollPartitioned(queue, 0));
+    assertSame(second0, pollPartitioned(queue, 0));
+    assertEquals(0, queue.size());
+  }
+
+  @Test
+  public void testCrossPartitionEventIsBarrier() {
+    final ConsensusPartitionedEventQueue queue = new ConsensusPartitionedEventQueue();
+    final SubscriptionEvent before = tabletsEvent(1, 0);
+    final SubscriptionEvent barrier = tabletsEvent(2, CROSS);
+    final SubscriptionEvent after = tabletsEvent(3, 1);
+    queue.add(after);
+    queue.add(barrier);
+    queue.add(before);
+
+    // neither the barrier nor the events behind it pass the events before it
+    assertNull(pollPartitioned(queue, 1, CROSS));
+    assertSame(before, pollPartitioned(queue, 0));
+    assertNull(pollPartitioned(queue, 1));
+    assertSame(barrier, pollPartitioned(queue, 1, CROSS));
+    assertSame(after, pollPartitioned(queue, 1));
+  }
+
+  @Test
+  public void testMetadataEventIsPolledFirst() {
+    final ConsensusPartitionedEventQueue queue = new ConsensusPartitionedEventQueue();
+    final SubscriptionEvent data = tabletsEvent(1, 0);
+    final SubscriptionEvent watermark =
+        new SubscriptionEvent(
+            SubscriptionPollResponseType.WATERMARK.getType(),
+            new WatermarkPayload(42L, 1),
+            commitContext(2));
+    queue.add(data);
+    queue.add(watermark);
+
+    assertSame(watermark, pollPartitioned(queue));
+    assertSame(data, pollPartitioned(queue, 0));
+  }
+
+  @Test
+  public void testRejectedEventIsSkipped() {
+    final ConsensusPartitionedEventQueue queue = new ConsensusPartitionedEventQueue();
+    final SubscriptionEvent rejected = tabletsEvent(1, 0);
+    final SubscriptionEvent next = tabletsEvent(2, 1);
+    queue.add(rejected);
+    queue.add(next);
+
+    final Set<Integer> skippedPartitions = new HashSet<>();
+    final SubscriptionEvent polled =
+        queue.pollPartitioned(
+            () -> partition -> !skippedPartitions.contains(partition),
+            event -> {
+              if (event == rejected) {
+                queue.add(event);
+                skippedPartitions.add(event.getPartition());
+                return false;
+              }
+              return true;
+            });
+
+    assertSame(next, polled);
+    assertEquals(1, queue.size());
+  }
+
+  @Test
+  public void testQueuedEventIsRemovedWhileOtherPartitionsArePolled() {
+    final ConsensusPartitionedEventQueue queue = new ConsensusPartitionedEventQueue();
+    final SubscriptionEvent polled = tabletsEvent(1, 0);
+    final SubscriptionEvent queued = tabletsEvent(2, 1);
+    queue.add(polled);
+    queue.add(queued);
+
+    assertSame(polled, pollPartitioned(queue, 0));
+    assertTrue(queue.remove(queued));
+    assertFalse(queue.remove(queued));
+    assertFalse(queue.remove(polled));
+    assertEquals(0, queue.size());
+  }
+
+  @Test
+  public void testUnpartitionedPollFollowsCommitOrder() throws InterruptedException {
+    final ConsensusPartitionedEventQueue queue = new ConsensusPartitionedEventQueue();
+    final SubscriptionEvent first = tabletsEvent(1, 1);
+    final SubscriptionEvent second = tabletsEvent(2, CROSS);
+    final SubscriptionEvent third = tabletsEvent(3, 0);
+    queue.add(third);
+    queue.add(second);
+    queue.add(first);
+
+    assertSame(first, queue.poll(0, TimeUnit.MILLISECONDS));
+    assertSame(second, queue.poll(0, TimeUnit.MILLISECONDS));
+    assertSame(third, queue.poll(0, TimeUnit.MILLISECONDS));
+    assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+  }
+
+  private static SubscriptionEvent pollPartitioned(
+      final ConsensusPartitionedEventQueue queue, final Integer... admittedPartitions) {
+    final Set<Integer> admitted = new HashSet<>(Arrays.asList(admittedPartitions));
+    final IntPredicate admission = admitted::contains;
+    return queue.pollPartitioned(() -> admission, event -> true);
+  }
+
+  private static SubscriptionEvent tabletsEvent(final long seq, final int partition) {
+    final SubscriptionEvent event =
+        new SubscriptionEvent(
+            SubscriptionPollResponseType.TABLETS.getType(),
+            new TabletsPayload(Collections.emptyList(), -1),
+            commitContext(seq));
+    event.setPartition(partition);
+    return event;
+  }
+
+  private static SubscriptionCommitContext commitContext(final long seq) {
+    return new SubscriptionCommitContext(1, 0, "topic", "cg", seq, "1", seq);
+  }
+}
@@ -70,6 +70,7 @@ import java.util.function.BooleanSupplier;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
@@ -1715,6 +1716,39 @@ public class ConsensusPrefetchingQueueTest {
     }
   }
 
+  @Test
+  public void testTabletsArePartitionedByDevice() {
+    final int partitionCount = Integer.MAX_VALUE;
+    final Tablet d1 = createTablet("d1", "d1");
+    final Tablet d2 = createTablet("d2", "d2");
+    final int d1Partition = Math.floorMod(d1.getDeviceID(0).hashCode(), partitionCount);
+    final int d2Partition = Math.floorMod(d2.getDeviceID(0).hashCode(), partitionCount);
+    assertNotEquals(d1Partition, d2Partition);
+
+    // the devices of one table are partitioned apart
+    assertEquals(
+        d1Partition,
+        ConsensusPrefetchingQueue.computePartition(Arrays.asList(d1, d1), partitionCount));
+    assertEquals(
+        d2Partition,
+        ConsensusPrefetchingQueue.computePartition(Collections.singletonList(d2), partitionCount));
+    assertEquals(
+        SubscriptionEvent.CROSS_PARTITION,
+        ConsensusPrefetchingQueue.computePartition(Arrays.asList(d1, d2), partitionCount));
+    assertEquals(
+        SubscriptionEvent.CROSS_PARTITION,
+        ConsensusPrefetchingQueue.computePartition(
+            Collections.singletonList(createTablet("d1", "d2")), partitionCount));
+
+    // a table without tags is a single device
+    assertEquals(
+        Math.floorMod("wide_table".hashCode(), partitionCount),
+        ConsensusPrefetchingQueue.computePartition(
+            Collections.singletonList(createWideTablet(2, 2)), partitionCount));
+
+    assertEquals(0, ConsensusPrefetchingQueue.computePartition(Arrays.asList(d1, d2), 1));
+  }
+
   @SuppressWarnings("unchecked")
   private static BlockingQueue<IndexedConsensusRequest> pendingEntries(
       final ConsensusPrefetchingQueue queue) throws Exception {
@@ -1753,14 +1787,20 @@ public class ConsensusPrefetchingQueueTest {
   }
 
   private static Tablet createTablet() {
+    return createTablet("d1");
+  }
+
+  private static Tablet createTablet(final String... devices) {
     final List<String> columnNames = Arrays.asList("device", "temperature");
     final List<TSDataType> dataTypes = Arrays.asList(TSDataType.STRING, TSDataType.DOUBLE);
     final List<ColumnCategory> categories = Arrays.asList(ColumnCategory.TAG, ColumnCategory.FIELD);
-    final Tablet tablet = new Tablet("sensors", columnNames, dataTypes, categories, 1);
-    tablet.addTimestamp(0, 1L);
-    tablet.addValue(0, 0, "d1");
-    tablet.addValue(0, 1, 36.5);
-    tablet.setRowSize(1);
+    final Tablet tablet = new Tablet("sensors", columnNames, dataTypes, categories, devices.length);
+    for (int row = 0; row < devices.length; row++) {
+      tablet.addTimestamp(row, row + 1L);
+      tablet.addValue(row, 0, devices[row]);
+      tablet.addValue(row, 1, 36.5);
+    }
+    tablet.setRowSize(devices.length);
     return tablet;
   }
 
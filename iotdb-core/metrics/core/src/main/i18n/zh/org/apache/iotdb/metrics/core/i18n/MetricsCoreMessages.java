@@ -39,6 +39,5 @@ public final class MetricsCoreMessages {
   // ---------------------------------------------------------------------------
   // Additional auto-collected messages
   // ---------------------------------------------------------------------------
-  public static final String LOG_DETECTED_ERROR_TAKING_SNAPSHOT_MAY_CAUSE_MISS_DURING_RECORDING_2BAE49C4 = "获取快照时检测到错误，可能导致本次记录缺失。";
 
 }
@@ -35,47 +35,13 @@ import org.apache.iotdb.metrics.type.Timer;
 import org.apache.iotdb.metrics.utils.MetricInfo;
 import org.apache.iotdb.metrics.utils.MetricType;
 
-import io.micrometer.core.instrument.Clock;
-import io.micrometer.core.instrument.cumulative.CumulativeDistributionSummary;
-import io.micrometer.core.instrument.cumulative.CumulativeTimer;
-import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
-import io.micrometer.core.instrument.distribution.pause.NoPauseDetector;
-import io.micrometer.core.instrument.distribution.pause.PauseDetector;
-import io.micrometer.core.instrument.simple.SimpleConfig;
-
 import java.util.Objects;
-import java.util.concurrent.TimeUnit;
 import java.util.function.ToDoubleFunction;
 
 public class IoTDBMetricManager extends AbstractMetricManager {
 
-  /** The clock which is used in Metric system */
-  private final Clock clock = Clock.SYSTEM;
-
-  /** The histogram config which is used to create IoTDBTimer and IoTDBHistogram */
-  private final DistributionStatisticConfig IoTDBDistributionStatisticConfig;
-
   private IoTDBMetricManager() {
-    SimpleConfig config = SimpleConfig.DEFAULT;
-    // set default distribution config
-    DistributionStatisticConfig defaultHistogramConfig =
-        DistributionStatisticConfig.builder()
-            .expiry(config.step())
-            .build()
-            .merge(DistributionStatisticConfig.DEFAULT);
-
-    // merge default config with IoTDB's config
-    DistributionStatisticConfig distributionStatisticConfig =
-        DistributionStatisticConfig.builder()
-            .percentiles(0.5, 0.99)
-            .bufferLength(2)
-            .build()
-            .merge(defaultHistogramConfig);
-
-    // set expiry and get final IoTDB's histogram config
-    this.IoTDBDistributionStatisticConfig =
-        distributionStatisticConfig.merge(
-            DistributionStatisticConfig.builder().expiry(config.step()).build());
+    // empty constructor
   }
 
   @Override
@@ -94,12 +60,7 @@ public class IoTDBMetricManager extends AbstractMetricManager {
 
   @Override
   public Histogram createHistogram() {
-    // create distributionSummary
-    io.micrometer.core.instrument.DistributionSummary distributionSummary =
-        new CumulativeDistributionSummary(
-            null, clock, IoTDBDistributionStatisticConfig, 1.0, false);
-
-    return new IoTDBHistogram(distributionSummary);
+    return new IoTDBHistogram();
   }
 
   @Override
@@ -109,13 +70,7 @@ public class IoTDBMetricManager extends AbstractMetricManager {
 
   @Override
   public Timer createTimer() {
-    // set pauseDetector
-    PauseDetector pauseDetector = new NoPauseDetector();
-
-    io.micrometer.core.instrument.Timer timer =
-        new CumulativeTimer(
-            null, clock, IoTDBDistributionStatisticConfig, pauseDetector, TimeUnit.SECONDS, false);
-    return new IoTDBTimer(timer);
+    return new IoTDBTimer();
   }
 
   @Override
@@ -19,15 +19,20 @@
 
 package org.apache.iotdb.metrics.core.type;
 
+import org.apache.iotdb.metrics.core.utils.IoTDBHistogramRecorder;
 import org.apache.iotdb.metrics.type.Histogram;
 import org.apache.iotdb.metrics.utils.AbstractMetricMBean;
 
 public class IoTDBHistogram extends AbstractMetricMBean implements Histogram, IoTDBHistogramMBean {
 
-  io.micrometer.core.instrument.DistributionSummary distributionSummary;
+  private final IoTDBHistogramRecorder recorder;
 
-  public IoTDBHistogram(io.micrometer.core.instrument.DistributionSummary distributionSummary) {
-    this.distributionSummary = distributionSummary;
+  public IoTDBHistogram() {
+    this(new IoTDBHistogramRecorder());
+  }
+
+  public IoTDBHistogram(IoTDBHistogramRecorder recorder) {
+    this.recorder = recorder;
   }
 
   @Override
@@ -57,16 +62,16 @@ public class IoTDBHistogram extends AbstractMetricMBean implements Histogram, Io
 
   @Override
   public void update(long value) {
-    distributionSummary.record(value);
+    recorder.record(value);
   }
 
   @Override
   public long getCount() {
-    return distributionSummary.count();
+    return recorder.getCount();
   }
 
   @Override
   public org.apache.iotdb.metrics.type.HistogramSnapshot takeSnapshot() {
-    return new IoTDBHistogramSnapshot(distributionSummary);
+    return new IoTDBHistogramSnapshot(recorder.takeSnapshot());
   }
 }
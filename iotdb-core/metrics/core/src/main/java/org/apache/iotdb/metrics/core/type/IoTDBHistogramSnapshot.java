@@ -19,55 +19,42 @@
 
 package org.apache.iotdb.metrics.core.type;
 
+import org.apache.iotdb.metrics.core.utils.IoTDBHistogramRecorder;
 import org.apache.iotdb.metrics.type.HistogramSnapshot;
 
 import javax.management.ObjectName;
 
 public class IoTDBHistogramSnapshot implements HistogramSnapshot {
 
-  io.micrometer.core.instrument.DistributionSummary distributionSummary;
-  io.micrometer.core.instrument.distribution.HistogramSnapshot histogramSnapshot;
+  private final IoTDBHistogramRecorder.Snapshot snapshot;
 
-  public IoTDBHistogramSnapshot(
-      io.micrometer.core.instrument.DistributionSummary distributionSummary) {
-    this.distributionSummary = distributionSummary;
-    this.histogramSnapshot = distributionSummary.takeSnapshot();
+  public IoTDBHistogramSnapshot(IoTDBHistogramRecorder.Snapshot snapshot) {
+    this.snapshot = snapshot;
   }
 
   @Override
   public double getValue(double quantile) {
-    int prevIndex = 0;
-    for (int i = 0; i < this.histogramSnapshot.percentileValues().length; i++) {
-      if (this.histogramSnapshot.percentileValues()[i].percentile() <= quantile) {
-        prevIndex = i;
-      }
-      if (this.histogramSnapshot.percentileValues()[i].percentile() >= quantile) {
-        // Find the value of the first matching or most suitable insertion position
-        break;
-      }
-    }
-
-    return this.histogramSnapshot.percentileValues()[prevIndex].value();
+    return snapshot.getValue(quantile);
   }
 
   @Override
   public double getSum() {
-    return this.distributionSummary.totalAmount();
+    return snapshot.getSum();
   }
 
   @Override
   public int size() {
-    return this.histogramSnapshot.percentileValues().length;
+    return (int) Math.min(Integer.MAX_VALUE, snapshot.getWindowCount());
   }
 
   @Override
   public double getMax() {
-    return this.histogramSnapshot.max();
+    return snapshot.getWindowMax();
   }
 
   @Override
   public double getMean() {
-    return this.histogramSnapshot.mean();
+    return snapshot.getMean();
   }
 
   @Override
@@ -19,80 +19,71 @@
 
 package org.apache.iotdb.metrics.core.type;
 
-import org.apache.iotdb.metrics.core.i18n.MetricsCoreMessages;
+import org.apache.iotdb.metrics.core.utils.IoTDBHistogramRecorder;
 import org.apache.iotdb.metrics.type.HistogramSnapshot;
 import org.apache.iotdb.metrics.type.Timer;
 import org.apache.iotdb.metrics.utils.AbstractMetricMBean;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 public class IoTDBTimer extends AbstractMetricMBean implements Timer, IoTDBTimerMBean {
 
-  private static final Logger LOGGER = LoggerFactory.getLogger(IoTDBTimer.class);
-  io.micrometer.core.instrument.Timer timer;
+  /** The time unit of the snapshot values. */
+  private static final TimeUnit BASE_TIME_UNIT = TimeUnit.SECONDS;
+
+  /** Records the durations in nanoseconds. */
+  private final IoTDBHistogramRecorder recorder;
+
+  public IoTDBTimer() {
+    this(new IoTDBHistogramRecorder());
+  }
 
-  public IoTDBTimer(io.micrometer.core.instrument.Timer timer) {
-    this.timer = timer;
+  public IoTDBTimer(IoTDBHistogramRecorder recorder) {
+    this.recorder = recorder;
   }
 
   @Override
   public void update(long duration, TimeUnit unit) {
-    timer.record(duration, unit);
+    recorder.record(unit.toNanos(duration));
   }
 
   @Override
   public HistogramSnapshot takeSnapshot() {
-    try {
-      return new IoTDBTimerHistogramSnapshot(timer);
-    } catch (ArrayIndexOutOfBoundsException e) {
-      LOGGER.warn(
-          MetricsCoreMessages
-              .LOG_DETECTED_ERROR_TAKING_SNAPSHOT_MAY_CAUSE_MISS_DURING_RECORDING_2BAE49C4,
-          e);
-      return null;
-    }
+    return new IoTDBTimerHistogramSnapshot(recorder.takeSnapshot(), BASE_TIME_UNIT);
   }
 
   @Override
   public double getSum() {
-    return Optional.ofNullable(takeSnapshot()).map(HistogramSnapshot::getSum).orElse(0.0);
+    return takeSnapshot().getSum();
   }
 
   @Override
   public double getMax() {
-    return Optional.ofNullable(takeSnapshot()).map(HistogramSnapshot::getMax).orElse(0.0);
+    return takeSnapshot().getMax();
   }
 
   @Override
   public double getMean() {
-    return Optional.ofNullable(takeSnapshot()).map(HistogramSnapshot::getMean).orElse(0.0);
+    return takeSnapshot().getMean();
   }
 
   @Override
   public int getSize() {
-    return Optional.ofNullable(takeSnapshot()).map(HistogramSnapshot::size).orElse(0);
+    return takeSnapshot().size();
   }
 
   @Override
   public double get50thPercentile() {
-    return Optional.ofNullable(takeSnapshot())
-        .map(histogramSnapshot -> histogramSnapshot.getValue(0.5))
-        .orElse(0.0);
+    return takeSnapshot().getValue(0.5);
   }
 
   @Override
   public double get99thPercentile() {
-    return Optional.ofNullable(takeSnapshot())
-        .map(histogramSnapshot -> histogramSnapshot.getValue(0.99))
-        .orElse(0.0);
+    return takeSnapshot().getValue(0.99);
   }
 
   @Override
   public long getCount() {
-    return timer.count();
+    return recorder.getCount();
   }
 }
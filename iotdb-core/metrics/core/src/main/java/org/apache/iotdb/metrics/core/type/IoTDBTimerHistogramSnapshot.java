@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.metrics.core.type;
 
+import org.apache.iotdb.metrics.core.utils.IoTDBHistogramRecorder;
 import org.apache.iotdb.metrics.type.HistogramSnapshot;
 
 import javax.management.ObjectName;
@@ -28,50 +29,38 @@ import java.util.concurrent.TimeUnit;
 /** This implementation is just for a timer as it needs the TimeUnit to convert from nanoseconds. */
 public class IoTDBTimerHistogramSnapshot implements HistogramSnapshot {
 
-  io.micrometer.core.instrument.Timer timer;
-  io.micrometer.core.instrument.distribution.HistogramSnapshot histogramSnapshot;
-  private final TimeUnit baseTimeUnit;
+  private final IoTDBHistogramRecorder.Snapshot snapshot;
+  private final double nanosPerBaseTimeUnit;
 
-  public IoTDBTimerHistogramSnapshot(io.micrometer.core.instrument.Timer timer) {
-    this.timer = timer;
-    this.histogramSnapshot = timer.takeSnapshot();
-    this.baseTimeUnit = timer.baseTimeUnit();
+  public IoTDBTimerHistogramSnapshot(
+      IoTDBHistogramRecorder.Snapshot snapshot, TimeUnit baseTimeUnit) {
+    this.snapshot = snapshot;
+    this.nanosPerBaseTimeUnit = baseTimeUnit.toNanos(1);
   }
 
   @Override
   public double getValue(double quantile) {
-    int prevIndex = 0;
-    for (int i = 0; i < this.histogramSnapshot.percentileValues().length; i++) {
-      if (this.histogramSnapshot.percentileValues()[i].percentile() <= quantile) {
-        prevIndex = i;
-      }
-      if (this.histogramSnapshot.percentileValues()[i].percentile() >= quantile) {
-        // Find the value of the first matching or most suitable insertion position
-        break;
-      }
-    }
-
-    return this.histogramSnapshot.percentileValues()[prevIndex].value(baseTimeUnit);
+    return snapshot.getValue(quantile) / nanosPerBaseTimeUnit;
   }
 
   @Override
   public double getSum() {
-    return this.timer.totalTime(baseTimeUnit);
+    return snapshot.getSum() / nanosPerBaseTimeUnit;
   }
 
   @Override
   public int size() {
-    return this.histogramSnapshot.percentileValues().length;
+    return (int) Math.min(Integer.MAX_VALUE, snapshot.getWindowCount());
   }
 
   @Override
   public double getMax() {
-    return this.histogramSnapshot.max(baseTimeUnit);
+    return snapshot.getWindowMax() / nanosPerBaseTimeUnit;
   }
 
   @Override
   public double getMean() {
-    return this.histogramSnapshot.mean(baseTimeUnit);
+    return snapshot.getMean() / nanosPerBaseTimeUnit;
   }
 
   @Override
@@ -0,0 +1,308 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.metrics.core.utils;
+
+import com.codahale.metrics.Clock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free recorder of non-negative long values, which backs IoTDBHistogram and IoTDBTimer.
+ *
+ * <p>The values are counted in log-linear buckets like HdrHistogram: values below {@link
+ * #SUB_BUCKET_COUNT} are counted exactly, and larger ones keep their {@link #SUB_BUCKET_BITS}
+ * highest bits, so the relative error of a quantile is below 1/{@link #SUB_BUCKET_HALF_COUNT}.
+ *
+ * <p>The bucket counts are striped by thread like {@link LongAdder}: only one stripe is used at
+ * first, and the used stripes are doubled up to {@link #MAX_STRIPE_NUM} when concurrent updates
+ * conflict. A stripe is allocated when it is first updated, and the stripes are merged only when a
+ * snapshot is taken. To report recent quantiles, the bucket counts are kept in two windows which
+ * are rotated by the snapshot once per {@link #WINDOW_STEP_MS}. The expired window is cleared and
+ * reused as the current one, so the stripes are not allocated again. The count, sum and max are
+ * cumulative.
+ */
+public class IoTDBHistogramRecorder {
+
+  static final int SUB_BUCKET_BITS = 6;
+  static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+
+  /** Values not less than 2^MAX_VALUE_BITS (about 9.7 hours in nanoseconds) share a bucket. */
+  static final int MAX_VALUE_BITS = 45;
+
+  static final long MAX_BUCKETED_VALUE = (1L << MAX_VALUE_BITS) - 1;
+  static final int BUCKET_NUM = getBucketIndex(MAX_BUCKETED_VALUE) + 1;
+
+  static final long WINDOW_STEP_MS = TimeUnit.MINUTES.toMillis(1);
+
+  static final int MAX_STRIPE_NUM =
+      Math.min(8, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  private volatile Window currentWindow = new Window();
+  private Window previousWindow = new Window();
+  private long lastRotateTime;
+
+  private final Clock clock;
+
+  public IoTDBHistogramRecorder() {
+    this(Clock.defaultClock());
+  }
+
+  public IoTDBHistogramRecorder(Clock clock) {
+    this.clock = clock;
+    this.lastRotateTime = clock.getTime();
+  }
+
+  /** Record a value, negative values are recorded as 0. */
+  public void record(long value) {
+    if (value < 0) {
+      value = 0;
+    }
+    count.increment();
+    sum.add(value);
+    // most updates do not change the max, so read it before CAS
+    if (value > max.get()) {
+      max.accumulateAndGet(value, Math::max);
+    }
+    currentWindow.record(getBucketIndex(Math.min(value, MAX_BUCKETED_VALUE)));
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public long getSum() {
+    return sum.sum();
+  }
+
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Merge the stripes of the recent two windows into a snapshot, and rotate the windows if the
+   * current one has lasted for a step.
+   */
+  public synchronized Snapshot takeSnapshot() {
+    long now = clock.getTime();
+    if (now - lastRotateTime >= WINDOW_STEP_MS) {
+      // a late update of a thread still holding the expired window is counted in the new window
+      Window expiredWindow = previousWindow;
+      expiredWindow.clear();
+      previousWindow = currentWindow;
+      currentWindow = expiredWindow;
+      lastRotateTime = now;
+    }
+    long[] bucketCounts = new long[BUCKET_NUM];
+    // read the cumulative values first, so that the window is never larger than the count
+    long cumulativeCount = count.sum();
+    long cumulativeSum = sum.sum();
+    long cumulativeMax = max.get();
+    previousWindow.mergeTo(bucketCounts);
+    currentWindow.mergeTo(bucketCounts);
+    return new Snapshot(bucketCounts, cumulativeCount, cumulativeSum, cumulativeMax);
+  }
+
+  static int getBucketIndex(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    int highestBit = 63 - Long.numberOfLeadingZeros(value);
+    int shift = highestBit - SUB_BUCKET_BITS + 1;
+    return (shift + 1) * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift) - SUB_BUCKET_HALF_COUNT;
+  }
+
+  static long getBucketLowestValue(int bucketIndex) {
+    if (bucketIndex < SUB_BUCKET_COUNT) {
+      return bucketIndex;
+    }
+    int shift = bucketIndex / SUB_BUCKET_HALF_COUNT - 1;
+    long subBucket = bucketIndex % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+    return subBucket << shift;
+  }
+
+  static long getBucketHighestValue(int bucketIndex) {
+    if (bucketIndex == BUCKET_NUM - 1) {
+      return Long.MAX_VALUE;
+    }
+    return getBucketLowestValue(bucketIndex + 1) - 1;
+  }
+
+  private static int getStripeHash() {
+    long id = Thread.currentThread().getId();
+    // spread the sequential thread ids
+    id *= 0x9E3779B97F4A7C15L;
+    return (int) (id ^ (id >>> 32));
+  }
+
+  /** The number of the allocated stripes of both windows. */
+  int getAllocatedStripeNum() {
+    return currentWindow.getAllocatedStripeNum() + previousWindow.getAllocatedStripeNum();
+  }
+
+  private static class Window {
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes =
+        new AtomicReferenceArray<>(MAX_STRIPE_NUM);
+
+    /** The number of the stripes in use, always a power of 2. */
+    private final AtomicInteger stripeNum = new AtomicInteger(1);
+
+    private void record(int bucketIndex) {
+      int currentStripeNum = stripeNum.get();
+      AtomicLongArray stripe = getStripe(getStripeHash() & (currentStripeNum - 1));
+      long bucketCount = stripe.get(bucketIndex);
+      if (!stripe.compareAndSet(bucketIndex, bucketCount, bucketCount + 1)) {
+        // another thread is updating the same stripe, spread the threads to more stripes
+        if (currentStripeNum < MAX_STRIPE_NUM) {
+          stripeNum.compareAndSet(currentStripeNum, currentStripeNum << 1);
+        }
+        stripe.incrementAndGet(bucketIndex);
+      }
+    }
+
+    private AtomicLongArray getStripe(int index) {
+      AtomicLongArray stripe = stripes.get(index);
+      if (stripe == null) {
+        stripe = new AtomicLongArray(BUCKET_NUM);
+        if (!stripes.compareAndSet(index, null, stripe)) {
+          stripe = stripes.get(index);
+        }
+      }
+      return stripe;
+    }
+
+    private void clear() {
+      for (int i = 0; i < MAX_STRIPE_NUM; i++) {
+        AtomicLongArray stripe = stripes.get(i);
+        if (stripe == null) {
+          continue;
+        }
+        for (int j = 0; j < BUCKET_NUM; j++) {
+          stripe.set(j, 0);
+        }
+      }
+    }
+
+    private void mergeTo(long[] bucketCounts) {
+      for (int i = 0; i < MAX_STRIPE_NUM; i++) {
+        AtomicLongArray stripe = stripes.get(i);
+        if (stripe == null) {
+          continue;
+        }
+        for (int j = 0; j < BUCKET_NUM; j++) {
+          bucketCounts[j] += stripe.get(j);
+        }
+      }
+    }
+
+    private int getAllocatedStripeNum() {
+      int allocatedStripeNum = 0;
+      for (int i = 0; i < MAX_STRIPE_NUM; i++) {
+        if (stripes.get(i) != null) {
+          allocatedStripeNum++;
+        }
+      }
+      return allocatedStripeNum;
+    }
+  }
+
+  /** The merged buckets of the recent windows and the cumulative count, sum and max. */
+  public static class Snapshot {
+
+    private final long[] bucketCounts;
+    private final long windowCount;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    private Snapshot(long[] bucketCounts, long count, long sum, long max) {
+      this.bucketCounts = bucketCounts;
+      long total = 0;
+      for (long bucketCount : bucketCounts) {
+        total += bucketCount;
+      }
+      this.windowCount = total;
+      this.count = count;
+      this.sum = sum;
+      this.max = max;
+    }
+
+    /** The number of values in the recent windows. */
+    public long getWindowCount() {
+      return windowCount;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public long getSum() {
+      return sum;
+    }
+
+    public double getMean() {
+      return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /** The max value in the recent windows, or 0 if no value is recorded in them. */
+    public long getWindowMax() {
+      for (int i = BUCKET_NUM - 1; i >= 0; i--) {
+        if (bucketCounts[i] > 0) {
+          return Math.min(getBucketHighestValue(i), max);
+        }
+      }
+      return 0;
+    }
+
+    /**
+     * The value at the quantile of the recent windows, the middle of its bucket is returned.
+     *
+     * @param quantile in [0, 1]
+     */
+    public double getValue(double quantile) {
+      if (windowCount == 0) {
+        return 0;
+      }
+      long rank = Math.max(1, (long) Math.ceil(quantile * windowCount));
+      long accumulatedCount = 0;
+      for (int i = 0; i < BUCKET_NUM; i++) {
+        accumulatedCount += bucketCounts[i];
+        if (accumulatedCount >= rank) {
+          long lowestValue = getBucketLowestValue(i);
+          long highestValue = Math.min(getBucketHighestValue(i), max);
+          return lowestValue >= highestValue
+              ? lowestValue
+              : lowestValue + (highestValue - lowestValue) / 2.0;
+        }
+      }
+      return getWindowMax();
+    }
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.metrics.core.utils;
+
+import com.codahale.metrics.Clock;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+public class IoTDBHistogramRecorderTest {
+
+  @Test
+  public void testBucketIndex() {
+    for (long value = 0; value < 100_000; value++) {
+      checkBucket(value);
+    }
+    for (long value = 1; value <= IoTDBHistogramRecorder.MAX_BUCKETED_VALUE; value *= 3) {
+      checkBucket(value);
+      checkBucket(value - 1);
+      checkBucket(value + 1);
+    }
+    Assert.assertEquals(
+        IoTDBHistogramRecorder.BUCKET_NUM - 1,
+        IoTDBHistogramRecorder.getBucketIndex(IoTDBHistogramRecorder.MAX_BUCKETED_VALUE));
+  }
+
+  private void checkBucket(long value) {
+    int index = IoTDBHistogramRecorder.getBucketIndex(value);
+    Assert.assertTrue(IoTDBHistogramRecorder.getBucketLowestValue(index) <= value);
+    Assert.assertTrue(IoTDBHistogramRecorder.getBucketHighestValue(index) >= value);
+  }
+
+  @Test
+  public void testQuantile() {
+    IoTDBHistogramRecorder recorder = new IoTDBHistogramRecorder();
+    for (long value = 1; value <= 100_000; value++) {
+      recorder.record(value);
+    }
+    recorder.record(-1);
+    IoTDBHistogramRecorder.Snapshot snapshot = recorder.takeSnapshot();
+    Assert.assertEquals(100_001, snapshot.getCount());
+    Assert.assertEquals(100_001, snapshot.getWindowCount());
+    Assert.assertEquals(5_000_050_000L, snapshot.getSum());
+    Assert.assertEquals(100_000, snapshot.getWindowMax());
+    double maxRelativeError = 1.0 / IoTDBHistogramRecorder.SUB_BUCKET_HALF_COUNT;
+    Assert.assertEquals(50_000, snapshot.getValue(0.5), 50_000 * maxRelativeError);
+    Assert.assertEquals(99_000, snapshot.getValue(0.99), 99_000 * maxRelativeError);
+    Assert.assertEquals(99_900, snapshot.getValue(0.999), 99_900 * maxRelativeError);
+    Assert.assertEquals(0, snapshot.getValue(0), 0);
+    Assert.assertTrue(snapshot.getValue(1) <= 100_000);
+  }
+
+  @Test
+  public void testWindowRotation() {
+    ManualClock clock = new ManualClock();
+    IoTDBHistogramRecorder recorder = new IoTDBHistogramRecorder(clock);
+    recorder.record(10);
+    Assert.assertEquals(10, recorder.takeSnapshot().getValue(0.99), 0);
+
+    // the values of the previous window are still reported
+    clock.time += IoTDBHistogramRecorder.WINDOW_STEP_MS;
+    Assert.assertEquals(1, recorder.takeSnapshot().getWindowCount());
+    recorder.record(20);
+    IoTDBHistogramRecorder.Snapshot snapshot = recorder.takeSnapshot();
+    Assert.assertEquals(2, snapshot.getWindowCount());
+    Assert.assertEquals(20, snapshot.getWindowMax());
+
+    // the first window expires, but the count, sum and max are cumulative
+    clock.time += IoTDBHistogramRecorder.WINDOW_STEP_MS;
+    snapshot = recorder.takeSnapshot();
+    Assert.assertEquals(1, snapshot.getWindowCount());
+    Assert.assertEquals(20, snapshot.getValue(0.5), 0);
+    clock.time += IoTDBHistogramRecorder.WINDOW_STEP_MS;
+    snapshot = recorder.takeSnapshot();
+    Assert.assertEquals(0, snapshot.getWindowCount());
+    Assert.assertEquals(0, snapshot.getValue(0.99), 0);
+    Assert.assertEquals(0, snapshot.getWindowMax());
+    Assert.assertEquals(2, snapshot.getCount());
+    Assert.assertEquals(30, snapshot.getSum());
+    Assert.assertEquals(20, recorder.getMax());
+  }
+
+  @Test
+  public void testConcurrentRecord() throws InterruptedException {
+    IoTDBHistogramRecorder recorder = new IoTDBHistogramRecorder();
+    int threadNum = 8;
+    int recordNum = 100_000;
+    CountDownLatch startLatch = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < threadNum; i++) {
+      Thread thread =
+          new Thread(
+              () -> {
+                try {
+                  startLatch.await();
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                  return;
+                }
+                for (int j = 0; j < recordNum; j++) {
+                  recorder.record(j % 100);
+                }
+              });
+      thread.start();
+      threads.add(thread);
+    }
+    startLatch.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    IoTDBHistogramRecorder.Snapshot snapshot = recorder.takeSnapshot();
+    Assert.assertEquals((long) threadNum * recordNum, snapshot.getCount());
+    Assert.assertEquals((long) threadNum * recordNum, snapshot.getWindowCount());
+    Assert.assertEquals(99, snapshot.getWindowMax());
+    Assert.assertEquals(49, snapshot.getValue(0.5), 0);
+  }
+
+  @Test
+  public void testStripeAllocation() throws InterruptedException {
+    ManualClock clock = new ManualClock();
+    IoTDBHistogramRecorder recorder = new IoTDBHistogramRecorder(clock);
+    Assert.assertEquals(0, recorder.getAllocatedStripeNum());
+    recorder.record(1);
+    Assert.assertEquals(1, recorder.getAllocatedStripeNum());
+
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 16; i++) {
+      Thread thread =
+          new Thread(
+              () -> {
+                for (int j = 0; j < 100_000; j++) {
+                  recorder.record(j);
+                }
+              });
+      thread.start();
+      threads.add(thread);
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    int allocatedStripeNum = recorder.getAllocatedStripeNum();
+    Assert.assertTrue(allocatedStripeNum <= IoTDBHistogramRecorder.MAX_STRIPE_NUM);
+
+    // the expired window is cleared and reused instead of allocating new stripes
+    for (int i = 0; i < 3; i++) {
+      clock.time += IoTDBHistogramRecorder.WINDOW_STEP_MS;
+      recorder.takeSnapshot();
+      recorder.record(1);
+    }
+    Assert.assertTrue(recorder.getAllocatedStripeNum() <= allocatedStripeNum + 1);
+    Assert.assertEquals(1_600_001 + 3, recorder.takeSnapshot().getCount());
+  }
+
+  private static class ManualClock extends Clock {
+
+    private long time = 0;
+
+    @Override
+    public long getTick() {
+      return time * 1_000_000;
+    }
+
+    @Override
+    public long getTime() {
+      return time;
+    }
+  }
+}
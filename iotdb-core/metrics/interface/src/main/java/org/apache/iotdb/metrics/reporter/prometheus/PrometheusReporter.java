@@ -274,6 +274,8 @@ public class PrometheusReporter implements Reporter {
         name, addTags(tags, "quantile", "0.5"), snapshot.getValue(0.5));
     prometheusTextWriter.writeSample(
         name, addTags(tags, "quantile", "0.99"), snapshot.getValue(0.99));
+    prometheusTextWriter.writeSample(
+        name, addTags(tags, "quantile", "0.999"), snapshot.getValue(0.999));
   }
 
   private Map<String, String> addTags(Map<String, String> tags, String key, String value) {
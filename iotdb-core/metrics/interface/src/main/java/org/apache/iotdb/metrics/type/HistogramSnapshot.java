@@ -46,5 +46,6 @@ public interface HistogramSnapshot extends IMetric {
 
     result.put("p50", getValue(0.5));
     result.put("p99", getValue(0.99));
+    result.put("p999", getValue(0.999));
   }
 }
@@ -33,6 +33,12 @@ public final class PipeMessages {
       "PipeHardlinkTsFileDirName: {}";
   public static final String CONFIG_PIPE_FILE_RECEIVER_FSYNC_ENABLED =
       "PipeFileReceiverFsyncEnabled: {}";
+  public static final String CONFIG_PIPE_RECEIVER_RESUMABLE_FILE_MAX_COUNT =
+      "PipeReceiverResumableFileMaxCount: {}";
+  public static final String CONFIG_PIPE_RECEIVER_RECEIVED_FILE_DIGEST_CACHE_SIZE =
+      "PipeReceiverReceivedFileDigestCacheSize: {}";
+  public static final String CONFIG_PIPE_RECEIVER_RECEIVED_FILE_DIGEST_TTL_IN_MS =
+      "PipeReceiverReceivedFileDigestTtlInMs: {}";
   public static final String CONFIG_PIPE_DATA_STRUCTURE_TABLET_ROW_SIZE =
       "PipeDataStructureTabletRowSize: {}";
   public static final String CONFIG_PIPE_DATA_STRUCTURE_TABLET_SIZE_IN_BYTES =
@@ -101,6 +107,8 @@ public final class PipeMessages {
       "PipeSinkTransferTimeoutMs: {}";
   public static final String CONFIG_PIPE_SINK_READ_FILE_BUFFER_SIZE =
       "PipeSinkReadFileBufferSize: {}";
+  public static final String CONFIG_PIPE_SINK_TSFILE_DIGEST_NEGOTIATION_ENABLED =
+      "PipeSinkTsFileDigestNegotiationEnabled: {}";
   public static final String CONFIG_PIPE_SINK_READ_FILE_BUFFER_MEMORY_CONTROL_ENABLED =
       "PipeSinkReadFileBufferMemoryControlEnabled: {}";
   public static final String CONFIG_PIPE_SINK_RETRY_INTERVAL_MS =
@@ -123,6 +131,8 @@ public final class PipeMessages {
       "PipePipeRemainingInsertEventCountAverage: {}";
   public static final String CONFIG_PIPE_TSFILE_SCAN_PARSING_THRESHOLD =
       "PipeTsFileScanParsingThreshold(): {}";
+  public static final String CONFIG_PIPE_TSFILE_CHUNK_PASSTHROUGH_ENABLED =
+      "PipeTsFileChunkPassthroughEnabled: {}";
   public static final String CONFIG_PIPE_TRANSFER_TSFILE_SYNC = "PipeTransferTsFileSync: {}";
   public static final String CONFIG_PIPE_CHECK_ALL_SYNC_CLIENT_LIVE_TIME_INTERVAL_MS =
       "PipeCheckAllSyncClientLiveTimeIntervalMs: {}";
@@ -661,6 +671,25 @@ public final class PipeMessages {
       "Receiver id = {}: Failed to create receiver file dir {}.";
   public static final String RECEIVER_WRITING_FILE_CREATED =
       "Receiver id = {}: Writing file {} was created. Ready to write file pieces.";
+  public static final String RECEIVER_FILE_ALREADY_RECEIVED =
+      "Receiver id = {}: File {} with digest {} has been received before, skip transferring it.";
+  public static final String RECEIVER_FILE_TRANSFER_RESUMED =
+      "Receiver id = {}: Resumed the transfer of file {} with digest {} from offset {}.";
+  public static final String RECEIVER_FILE_STASHED_FOR_RESUMING =
+      "Receiver id = {}: Kept the partially received file {} ({} bytes) for resuming.";
+  public static final String RECEIVER_FAILED_STASH_FILE_FOR_RESUMING =
+      "Failed to keep the partially received file {} for resuming.";
+  public static final String RECEIVER_FAILED_LOAD_RECEIVED_FILE_DIGESTS =
+      "Failed to load the received file digests from {}, they are ignored.";
+  public static final String RECEIVER_FAILED_PERSIST_RECEIVED_FILE_DIGEST =
+      "Failed to persist the received file digest into {}.";
+  public static final String RECEIVER_RECEIVED_FILE_DIGESTS_INVALIDATED =
+      "Received file digests are invalidated since data is deleted or TTL is changed.";
+  public static final String RECEIVER_FAILED_NEGOTIATE_FILE_DIGEST =
+      "Receiver id = {}: Failed to negotiate the digest of file, req {}.";
+  public static final String ILLEGAL_FILE_DIGEST = "Illegal file digest %s.";
+  public static final String FAILED_TO_NEGOTIATE_FILE_DIGEST =
+      "Failed to negotiate the digest of file, because %s";
   public static final String RECEIVER_ILLEGAL_FILENAME =
       "Receiver id = %s: Illegal file name %s when checking writing file.";
   public static final String RECEIVER_PATH_TRAVERSAL =
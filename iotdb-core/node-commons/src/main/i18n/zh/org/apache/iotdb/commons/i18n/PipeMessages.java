@@ -32,6 +32,12 @@ public final class PipeMessages {
       "PipeHardlinkTsFileDirName: {}";
   public static final String CONFIG_PIPE_FILE_RECEIVER_FSYNC_ENABLED =
       "PipeFileReceiverFsyncEnabled: {}";
+  public static final String CONFIG_PIPE_RECEIVER_RESUMABLE_FILE_MAX_COUNT =
+      "PipeReceiverResumableFileMaxCount: {}";
+  public static final String CONFIG_PIPE_RECEIVER_RECEIVED_FILE_DIGEST_CACHE_SIZE =
+      "PipeReceiverReceivedFileDigestCacheSize: {}";
+  public static final String CONFIG_PIPE_RECEIVER_RECEIVED_FILE_DIGEST_TTL_IN_MS =
+      "PipeReceiverReceivedFileDigestTtlInMs: {}";
   public static final String CONFIG_PIPE_DATA_STRUCTURE_TABLET_ROW_SIZE =
       "PipeDataStructureTabletRowSize: {}";
   public static final String CONFIG_PIPE_DATA_STRUCTURE_TABLET_SIZE_IN_BYTES =
@@ -100,6 +106,8 @@ public final class PipeMessages {
       "PipeSinkTransferTimeoutMs: {}";
   public static final String CONFIG_PIPE_SINK_READ_FILE_BUFFER_SIZE =
       "PipeSinkReadFileBufferSize: {}";
+  public static final String CONFIG_PIPE_SINK_TSFILE_DIGEST_NEGOTIATION_ENABLED =
+      "PipeSinkTsFileDigestNegotiationEnabled: {}";
   public static final String CONFIG_PIPE_SINK_READ_FILE_BUFFER_MEMORY_CONTROL_ENABLED =
       "PipeSinkReadFileBufferMemoryControlEnabled: {}";
   public static final String CONFIG_PIPE_SINK_RETRY_INTERVAL_MS =
@@ -122,6 +130,8 @@ public final class PipeMessages {
       "PipePipeRemainingInsertEventCountAverage: {}";
   public static final String CONFIG_PIPE_TSFILE_SCAN_PARSING_THRESHOLD =
       "PipeTsFileScanParsingThreshold(): {}";
+  public static final String CONFIG_PIPE_TSFILE_CHUNK_PASSTHROUGH_ENABLED =
+      "PipeTsFileChunkPassthroughEnabled: {}";
   public static final String CONFIG_PIPE_TRANSFER_TSFILE_SYNC = "PipeTransferTsFileSync: {}";
   public static final String CONFIG_PIPE_CHECK_ALL_SYNC_CLIENT_LIVE_TIME_INTERVAL_MS =
       "PipeCheckAllSyncClientLiveTimeIntervalMs: {}";
@@ -639,6 +649,20 @@ public final class PipeMessages {
       "接收器 id = {}：创建接收文件目录 {} 失败。";
   public static final String RECEIVER_WRITING_FILE_CREATED =
       "接收器 id = {}：写入文件 {} 已创建。准备写入文件片段。";
+  public static final String RECEIVER_FILE_ALREADY_RECEIVED =
+      "接收器 id = {}：文件 {}（摘要 {}）此前已接收，跳过传输。";
+  public static final String RECEIVER_FILE_TRANSFER_RESUMED =
+      "接收器 id = {}：恢复文件 {}（摘要 {}）的传输，起始偏移量 {}。";
+  public static final String RECEIVER_FILE_STASHED_FOR_RESUMING =
+      "接收器 id = {}：保留了部分接收的文件 {}（{} 字节）用于断点续传。";
+  public static final String RECEIVER_FAILED_STASH_FILE_FOR_RESUMING = "保留部分接收的文件 {} 用于断点续传失败。";
+  public static final String RECEIVER_FAILED_LOAD_RECEIVED_FILE_DIGESTS = "从 {} 加载已接收文件摘要失败，已忽略。";
+  public static final String RECEIVER_FAILED_PERSIST_RECEIVED_FILE_DIGEST = "将已接收文件摘要持久化到 {} 失败。";
+  public static final String RECEIVER_RECEIVED_FILE_DIGESTS_INVALIDATED =
+      "由于数据被删除或 TTL 变更，已接收文件摘要已失效。";
+  public static final String RECEIVER_FAILED_NEGOTIATE_FILE_DIGEST = "接收器 id = {}：协商文件摘要失败，请求 {}。";
+  public static final String ILLEGAL_FILE_DIGEST = "非法的文件摘要 %s。";
+  public static final String FAILED_TO_NEGOTIATE_FILE_DIGEST = "协商文件摘要失败，原因：%s";
   public static final String RECEIVER_ILLEGAL_FILENAME =
       "接收器 id = %s：检查写入文件时遇到非法文件名 %s。";
   public static final String RECEIVER_PATH_TRAVERSAL =
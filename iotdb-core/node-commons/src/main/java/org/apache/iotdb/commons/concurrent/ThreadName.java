@@ -38,6 +38,7 @@ public enum ThreadName {
   FRAGMENT_INSTANCE_DISPATCH("Fragment-Instance-Dispatch"),
   DRIVER_TASK_SCHEDULER_NOTIFICATION("Driver-Task-Scheduler-Notification"),
   EXPIRED_QUERIES_INFO_CLEAR("Expired-Queries-Info-Clear"),
+  QUERY_TRACE_EXPORT("Query-Trace-Export"),
   // -------------------------- MPP --------------------------
   MPP_COORDINATOR_SCHEDULED_EXECUTOR("MPP-Coordinator-Scheduled-Executor"),
   MPP_DATA_EXCHANGE_TASK_EXECUTOR("MPP-Data-Exchange-Task-Executors"),
@@ -64,6 +65,7 @@ public enum ThreadName {
   FLUSH_TASK_SUBMIT("FlushTask-Submit-Pool"),
   TIMED_FLUSH_SEQ_MEMTABLE("Timed-Flush-Seq-Memtable"),
   TIMED_FLUSH_UNSEQ_MEMTABLE("Timed-Flush-Unseq-Memtable"),
+  MEMTABLE_SORT("MemTable-Sort"),
   // -------------------------- SchemaEngine --------------------------
   SCHEMA_REGION_RELEASE_PROCESSOR("SchemaRegion-Release-Task-Processor"),
   SCHEMA_REGION_RECOVER_TASK("SchemaRegion-Recover-Task"),
@@ -158,7 +160,9 @@ public enum ThreadName {
   PIPE_AIR_GAP_RECEIVER("Pipe-Air-Gap-Receiver"),
   PIPE_PARALLEL_EXECUTION_POOL("Pipe-Parallel-Execution-Pool"),
   PIPE_TERMINATE_EXECUTION_POOL("Pipe-Terminate-Execution-Pool"),
+  PIPE_TSFILE_REWRITE_POOL("Pipe-TsFile-Rewrite-Pool"),
   LOAD_DATATYPE_CONVERT_POOL("Load-Datatype-Convert-Pool"),
+  LOAD_TSFILE_SPLITTER_POOL("Load-TsFile-Splitter-Pool"),
   SUBSCRIPTION_EXECUTOR_POOL("Subscription-Executor-Pool"),
   SUBSCRIPTION_CONSENSUS_PREFETCH_EXECUTOR_POOL("Subscription-Consensus-Prefetch-Executor-Pool"),
   SUBSCRIPTION_CONSENSUS_PREFETCH_SCHEDULER("Subscription-Consensus-Prefetch-Scheduler"),
@@ -166,6 +170,7 @@ public enum ThreadName {
   SUBSCRIPTION_RUNTIME_META_SYNCER("Subscription-Runtime-Meta-Syncer"),
   WINDOW_EVALUATION_SERVICE("WindowEvaluationTaskPoolManager"),
   STATEFUL_TRIGGER_INFORMATION_UPDATER("Stateful-Trigger-Information-Updater"),
+  INCREMENTAL_CQ_MAINTAINER("Incremental-CQ-Maintainer"),
   MEMORY_PERIODICAL_JOB_EXECUTOR("Memory-Periodical-Job-Executor"),
   // -------------------------- JVM --------------------------
   // NOTICE: The thread name of jvm cannot be edited here!
@@ -209,6 +214,8 @@ public enum ThreadName {
   STORAGE_ENGINE_RECOVER_TRIGGER("StorageEngine-RecoverTrigger"),
   FILE_TIME_INDEX_RECORD("FileTimeIndexRecord"),
   TABLE_SIZE_INDEX_RECORD("TableSizeIndexRecord"),
+  ROLLUP_INDEX_GENERATE("RollupIndex-Generate"),
+  TIER_MIGRATION("Tier-Migration"),
   BINARY_ALLOCATOR_SAMPLE_EVICTOR("BinaryAllocator-SampleEvictor"),
   BINARY_ALLOCATOR_AUTO_RELEASER("BinaryAllocator-Auto-Releaser"),
   FIND_EARLIEST_TIME_SLOT_PARALLEL_POOL("FindEarliestTimeSlot-Parallel-Pool"),
@@ -227,7 +234,8 @@ public enum ThreadName {
               TIMED_QUERY_SQL_COUNT,
               FRAGMENT_INSTANCE_MANAGEMENT,
               FRAGMENT_INSTANCE_NOTIFICATION,
-              DRIVER_TASK_SCHEDULER_NOTIFICATION));
+              DRIVER_TASK_SCHEDULER_NOTIFICATION,
+              QUERY_TRACE_EXPORT));
   private static final Set<ThreadName> mppThreadNames =
       new HashSet<>(
           Arrays.asList(
@@ -254,7 +262,8 @@ public enum ThreadName {
               FLUSH_SUB_TASK,
               FLUSH_TASK_SUBMIT,
               TIMED_FLUSH_SEQ_MEMTABLE,
-              TIMED_FLUSH_UNSEQ_MEMTABLE));
+              TIMED_FLUSH_UNSEQ_MEMTABLE,
+              MEMTABLE_SORT));
   private static final Set<ThreadName> schemaEngineThreadNames =
       new HashSet<>(
           Arrays.asList(
@@ -324,13 +333,15 @@ public enum ThreadName {
               PIPE_RECEIVER_AIR_GAP_AGENT,
               PIPE_AIR_GAP_RECEIVER,
               PIPE_PARALLEL_EXECUTION_POOL,
+              PIPE_TSFILE_REWRITE_POOL,
               SUBSCRIPTION_EXECUTOR_POOL,
               SUBSCRIPTION_CONSENSUS_PREFETCH_EXECUTOR_POOL,
               SUBSCRIPTION_CONSENSUS_PREFETCH_SCHEDULER,
               SUBSCRIPTION_CONSENSUS_PROGRESS_BROADCASTER,
               SUBSCRIPTION_RUNTIME_META_SYNCER,
               WINDOW_EVALUATION_SERVICE,
-              STATEFUL_TRIGGER_INFORMATION_UPDATER));
+              STATEFUL_TRIGGER_INFORMATION_UPDATER,
+              INCREMENTAL_CQ_MAINTAINER));
 
   private static final Set<ThreadName> jvmThreadNames =
       new HashSet<>(
@@ -214,6 +214,10 @@ public class CommonConfig {
   private String pipeHardlinkTsFileDirName = "tsfile";
 
   private boolean pipeFileReceiverFsyncEnabled = true;
+  private volatile int pipeReceiverResumableFileMaxCount = 16;
+  // The max count of the received file digests kept for each pipe and region
+  private volatile int pipeReceiverReceivedFileDigestCacheSize = 10000;
+  private volatile long pipeReceiverReceivedFileDigestTtlInMs = 7 * 24 * 60 * 60 * 1000L;
 
   private int pipeRealTimeQueuePollTsFileThreshold = 10;
 
@@ -290,6 +294,7 @@ public class CommonConfig {
   private int pipeAirGapSinkTabletTimeoutMs = 60 * 1000; // 1 min
   private int pipeSinkTransferTimeoutMs = 15 * 60 * 1000; // 15 minutes
   private int pipeSinkReadFileBufferSize = 5242880; // 5MB
+  private volatile boolean pipeSinkTsFileDigestNegotiationEnabled = false;
   private boolean isPipeSinkReadFileBufferMemoryControlEnabled = false;
   private long pipeSinkRetryIntervalMs = 800L;
   private boolean pipeSinkRetryLocallyForConnectionError = true;
@@ -365,6 +370,7 @@ public class CommonConfig {
       PipeRateAverage.FIVE_MINUTES;
   private volatile double pipeRemainingInsertNodeCountEMAAlpha = 0.1;
   private volatile double pipeTsFileScanParsingThreshold = 0.05;
+  private volatile boolean pipeTsFileChunkPassthroughEnabled = false;
   private volatile double pipeDynamicMemoryHistoryWeight = 0.5;
   private volatile double pipeDynamicMemoryAdjustmentThreshold = 0.05;
   private volatile double pipeThresholdAllocationStrategyMaximumMemoryIncrementRatio = 0.1d;
@@ -437,6 +443,8 @@ public class CommonConfig {
 
   private boolean subscriptionConsensusLagBasedPriority = true;
 
+  private int subscriptionConsensusPartitionsPerRegion = 1;
+
   private int subscriptionConsensusPrefetchingQueueCapacity = 256;
 
   private boolean subscriptionConsensusWatermarkEnabled = false;
@@ -945,6 +953,52 @@ public class CommonConfig {
         ConfigMessages.CONFIG_SET_TO, "pipeFileReceiverFsyncEnabled", pipeFileReceiverFsyncEnabled);
   }
 
+  public int getPipeReceiverResumableFileMaxCount() {
+    return pipeReceiverResumableFileMaxCount;
+  }
+
+  public void setPipeReceiverResumableFileMaxCount(int pipeReceiverResumableFileMaxCount) {
+    if (this.pipeReceiverResumableFileMaxCount == pipeReceiverResumableFileMaxCount) {
+      return;
+    }
+    this.pipeReceiverResumableFileMaxCount = pipeReceiverResumableFileMaxCount;
+    logger.info(
+        ConfigMessages.CONFIG_SET_TO,
+        "pipeReceiverResumableFileMaxCount",
+        pipeReceiverResumableFileMaxCount);
+  }
+
+  public int getPipeReceiverReceivedFileDigestCacheSize() {
+    return pipeReceiverReceivedFileDigestCacheSize;
+  }
+
+  public void setPipeReceiverReceivedFileDigestCacheSize(
+      int pipeReceiverReceivedFileDigestCacheSize) {
+    if (this.pipeReceiverReceivedFileDigestCacheSize == pipeReceiverReceivedFileDigestCacheSize) {
+      return;
+    }
+    this.pipeReceiverReceivedFileDigestCacheSize = pipeReceiverReceivedFileDigestCacheSize;
+    logger.info(
+        ConfigMessages.CONFIG_SET_TO,
+        "pipeReceiverReceivedFileDigestCacheSize",
+        pipeReceiverReceivedFileDigestCacheSize);
+  }
+
+  public long getPipeReceiverReceivedFileDigestTtlInMs() {
+    return pipeReceiverReceivedFileDigestTtlInMs;
+  }
+
+  public void setPipeReceiverReceivedFileDigestTtlInMs(long pipeReceiverReceivedFileDigestTtlInMs) {
+    if (this.pipeReceiverReceivedFileDigestTtlInMs == pipeReceiverReceivedFileDigestTtlInMs) {
+      return;
+    }
+    this.pipeReceiverReceivedFileDigestTtlInMs = pipeReceiverReceivedFileDigestTtlInMs;
+    logger.info(
+        ConfigMessages.CONFIG_SET_TO,
+        "pipeReceiverReceivedFileDigestTtlInMs",
+        pipeReceiverReceivedFileDigestTtlInMs);
+  }
+
   public int getPipeDataStructureTabletRowSize() {
     return pipeDataStructureTabletRowSize;
   }
@@ -1266,6 +1320,22 @@ public class CommonConfig {
         ConfigMessages.CONFIG_SET_TO, "pipeSinkReadFileBufferSize", pipeSinkReadFileBufferSize);
   }
 
+  public boolean isPipeSinkTsFileDigestNegotiationEnabled() {
+    return pipeSinkTsFileDigestNegotiationEnabled;
+  }
+
+  public void setPipeSinkTsFileDigestNegotiationEnabled(
+      boolean pipeSinkTsFileDigestNegotiationEnabled) {
+    if (this.pipeSinkTsFileDigestNegotiationEnabled == pipeSinkTsFileDigestNegotiationEnabled) {
+      return;
+    }
+    this.pipeSinkTsFileDigestNegotiationEnabled = pipeSinkTsFileDigestNegotiationEnabled;
+    logger.info(
+        ConfigMessages.CONFIG_SET_TO,
+        "pipeSinkTsFileDigestNegotiationEnabled",
+        pipeSinkTsFileDigestNegotiationEnabled);
+  }
+
   public boolean isPipeSinkReadFileBufferMemoryControlEnabled() {
     return isPipeSinkReadFileBufferMemoryControlEnabled;
   }
@@ -2271,6 +2341,21 @@ public class CommonConfig {
         pipeTsFileScanParsingThreshold);
   }
 
+  public boolean isPipeTsFileChunkPassthroughEnabled() {
+    return pipeTsFileChunkPassthroughEnabled;
+  }
+
+  public void setPipeTsFileChunkPassthroughEnabled(boolean pipeTsFileChunkPassthroughEnabled) {
+    if (this.pipeTsFileChunkPassthroughEnabled == pipeTsFileChunkPassthroughEnabled) {
+      return;
+    }
+    this.pipeTsFileChunkPassthroughEnabled = pipeTsFileChunkPassthroughEnabled;
+    logger.info(
+        ConfigMessages.CONFIG_SET_TO,
+        "pipeTsFileChunkPassthroughEnabled",
+        pipeTsFileChunkPassthroughEnabled);
+  }
+
   public double getPipeDynamicMemoryHistoryWeight() {
     return pipeDynamicMemoryHistoryWeight;
   }
@@ -2845,6 +2930,15 @@ public class CommonConfig {
     this.subscriptionConsensusLagBasedPriority = subscriptionConsensusLagBasedPriority;
   }
 
+  public int getSubscriptionConsensusPartitionsPerRegion() {
+    return subscriptionConsensusPartitionsPerRegion;
+  }
+
+  public void setSubscriptionConsensusPartitionsPerRegion(
+      final int subscriptionConsensusPartitionsPerRegion) {
+    this.subscriptionConsensusPartitionsPerRegion = subscriptionConsensusPartitionsPerRegion;
+  }
+
   public int getSubscriptionConsensusPrefetchingQueueCapacity() {
     return subscriptionConsensusPrefetchingQueueCapacity;
   }
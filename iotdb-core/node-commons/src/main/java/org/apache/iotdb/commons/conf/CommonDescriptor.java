@@ -546,6 +546,11 @@ public class CommonDescriptor {
             properties.getProperty(
                 "subscription_consensus_lag_based_priority",
                 String.valueOf(config.isSubscriptionConsensusLagBasedPriority()))));
+    config.setSubscriptionConsensusPartitionsPerRegion(
+        Integer.parseInt(
+            properties.getProperty(
+                "subscription_consensus_partitions_per_region",
+                String.valueOf(config.getSubscriptionConsensusPartitionsPerRegion()))));
     config.setSubscriptionConsensusPrefetchingQueueCapacity(
         Integer.parseInt(
             properties.getProperty(
@@ -45,6 +45,18 @@ public class PipeConfig {
     return COMMON_CONFIG.getPipeFileReceiverFsyncEnabled();
   }
 
+  public int getPipeReceiverResumableFileMaxCount() {
+    return COMMON_CONFIG.getPipeReceiverResumableFileMaxCount();
+  }
+
+  public int getPipeReceiverReceivedFileDigestCacheSize() {
+    return COMMON_CONFIG.getPipeReceiverReceivedFileDigestCacheSize();
+  }
+
+  public long getPipeReceiverReceivedFileDigestTtlInMs() {
+    return COMMON_CONFIG.getPipeReceiverReceivedFileDigestTtlInMs();
+  }
+
   /////////////////////////////// Tablet ///////////////////////////////
 
   public int getPipeDataStructureTabletRowSize() {
@@ -196,6 +208,10 @@ public class PipeConfig {
     return COMMON_CONFIG.getPipeSinkReadFileBufferSize();
   }
 
+  public boolean isPipeSinkTsFileDigestNegotiationEnabled() {
+    return COMMON_CONFIG.isPipeSinkTsFileDigestNegotiationEnabled();
+  }
+
   public boolean isPipeSinkReadFileBufferMemoryControlEnabled() {
     return COMMON_CONFIG.isPipeSinkReadFileBufferMemoryControlEnabled();
   }
@@ -284,6 +300,10 @@ public class PipeConfig {
     return COMMON_CONFIG.getPipeTsFileScanParsingThreshold();
   }
 
+  public boolean isPipeTsFileChunkPassthroughEnabled() {
+    return COMMON_CONFIG.isPipeTsFileChunkPassthroughEnabled();
+  }
+
   public double getPipeDynamicMemoryHistoryWeight() {
     return COMMON_CONFIG.getPipeDynamicMemoryHistoryWeight();
   }
@@ -495,6 +515,15 @@ public class PipeConfig {
     LOGGER.info(PipeMessages.CONFIG_PIPE_HARDLINK_TSFILE_DIR_NAME, getPipeHardlinkTsFileDirName());
     LOGGER.info(
         PipeMessages.CONFIG_PIPE_FILE_RECEIVER_FSYNC_ENABLED, getPipeFileReceiverFsyncEnabled());
+    LOGGER.info(
+        PipeMessages.CONFIG_PIPE_RECEIVER_RESUMABLE_FILE_MAX_COUNT,
+        getPipeReceiverResumableFileMaxCount());
+    LOGGER.info(
+        PipeMessages.CONFIG_PIPE_RECEIVER_RECEIVED_FILE_DIGEST_CACHE_SIZE,
+        getPipeReceiverReceivedFileDigestCacheSize());
+    LOGGER.info(
+        PipeMessages.CONFIG_PIPE_RECEIVER_RECEIVED_FILE_DIGEST_TTL_IN_MS,
+        getPipeReceiverReceivedFileDigestTtlInMs());
 
     LOGGER.info(
         PipeMessages.CONFIG_PIPE_DATA_STRUCTURE_TABLET_ROW_SIZE,
@@ -577,6 +606,9 @@ public class PipeConfig {
     LOGGER.info(PipeMessages.CONFIG_PIPE_SINK_TRANSFER_TIMEOUT_MS, getPipeSinkTransferTimeoutMs());
     LOGGER.info(
         PipeMessages.CONFIG_PIPE_SINK_READ_FILE_BUFFER_SIZE, getPipeSinkReadFileBufferSize());
+    LOGGER.info(
+        PipeMessages.CONFIG_PIPE_SINK_TSFILE_DIGEST_NEGOTIATION_ENABLED,
+        isPipeSinkTsFileDigestNegotiationEnabled());
     LOGGER.info(
         PipeMessages.CONFIG_PIPE_SINK_READ_FILE_BUFFER_MEMORY_CONTROL_ENABLED,
         isPipeSinkReadFileBufferMemoryControlEnabled());
@@ -608,6 +640,9 @@ public class PipeConfig {
     LOGGER.info(
         PipeMessages.CONFIG_PIPE_TSFILE_SCAN_PARSING_THRESHOLD,
         getPipeTsFileScanParsingThreshold());
+    LOGGER.info(
+        PipeMessages.CONFIG_PIPE_TSFILE_CHUNK_PASSTHROUGH_ENABLED,
+        isPipeTsFileChunkPassthroughEnabled());
     LOGGER.info(PipeMessages.CONFIG_PIPE_TRANSFER_TSFILE_SYNC, isTransferTsFileSync());
     LOGGER.info(
         PipeMessages.CONFIG_PIPE_CHECK_ALL_SYNC_CLIENT_LIVE_TIME_INTERVAL_MS,
@@ -196,6 +196,21 @@ public class PipeDescriptor {
             properties.getProperty(
                 "pipe_file_receiver_fsync_enabled",
                 Boolean.toString(config.getPipeFileReceiverFsyncEnabled()))));
+    config.setPipeReceiverResumableFileMaxCount(
+        Integer.parseInt(
+            properties.getProperty(
+                "pipe_receiver_resumable_file_max_count",
+                String.valueOf(config.getPipeReceiverResumableFileMaxCount()))));
+    config.setPipeReceiverReceivedFileDigestCacheSize(
+        Integer.parseInt(
+            properties.getProperty(
+                "pipe_receiver_received_file_digest_cache_size",
+                String.valueOf(config.getPipeReceiverReceivedFileDigestCacheSize()))));
+    config.setPipeReceiverReceivedFileDigestTtlInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "pipe_receiver_received_file_digest_ttl_in_ms",
+                String.valueOf(config.getPipeReceiverReceivedFileDigestTtlInMs()))));
 
     config.setPipeDataStructureTabletRowSize(
         Integer.parseInt(
@@ -376,6 +391,11 @@ public class PipeDescriptor {
                     properties.getProperty(
                         "pipe_connector_read_file_buffer_size",
                         String.valueOf(config.getPipeSinkReadFileBufferSize())))));
+    config.setPipeSinkTsFileDigestNegotiationEnabled(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "pipe_sink_tsfile_digest_negotiation_enabled",
+                String.valueOf(config.isPipeSinkTsFileDigestNegotiationEnabled()))));
     config.setIsPipeSinkReadFileBufferMemoryControlEnabled(
         Boolean.parseBoolean(
             Optional.ofNullable(properties.getProperty("pipe_sink_read_file_buffer_memory_control"))
@@ -573,6 +593,11 @@ public class PipeDescriptor {
             properties.getProperty(
                 "pipe_tsfile_scan_parsing_threshold",
                 String.valueOf(config.getPipeTsFileScanParsingThreshold()))));
+    config.setPipeTsFileChunkPassthroughEnabled(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "pipe_tsfile_chunk_passthrough_enabled",
+                String.valueOf(config.isPipeTsFileChunkPassthroughEnabled()))));
 
     config.setPipeDynamicMemoryHistoryWeight(
         Double.parseDouble(
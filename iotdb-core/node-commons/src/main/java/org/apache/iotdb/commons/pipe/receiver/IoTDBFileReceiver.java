@@ -33,6 +33,7 @@ import org.apache.iotdb.commons.pipe.resource.log.PipeLogger;
 import org.apache.iotdb.commons.pipe.sink.payload.thrift.common.PipeTransferHandshakeConstant;
 import org.apache.iotdb.commons.pipe.sink.payload.thrift.request.IoTDBSinkRequestVersion;
 import org.apache.iotdb.commons.pipe.sink.payload.thrift.request.PipeRequestType;
+import org.apache.iotdb.commons.pipe.sink.payload.thrift.request.PipeTransferFileDigestReq;
 import org.apache.iotdb.commons.pipe.sink.payload.thrift.request.PipeTransferFilePieceReq;
 import org.apache.iotdb.commons.pipe.sink.payload.thrift.request.PipeTransferFileSealReqV1;
 import org.apache.iotdb.commons.pipe.sink.payload.thrift.request.PipeTransferFileSealReqV2;
@@ -53,7 +54,9 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -89,9 +92,17 @@ public abstract class IoTDBFileReceiver implements IoTDBReceiver {
   protected long lastSuccessfulLoginTime = Long.MIN_VALUE;
 
   private static final PipeConfig PIPE_CONFIG = PipeConfig.getInstance();
+  private static final PipeReceiverResumableFileManager RESUMABLE_FILE_MANAGER =
+      PipeReceiverResumableFileManager.getInstance();
 
   private File writingFile;
   private RandomAccessFile writingFileWriter;
+  // The content digest of the writing file negotiated with the sender, null if not negotiated
+  private String writingFileDigest;
+  // The scope of the writing file digest, see PipeReceiverResumableFileManager
+  private String writingFileDigestScope;
+  // Empty if the sender does not tell its cluster id in the handshake
+  private String senderClusterId = "";
 
   protected boolean shouldConvertDataTypeOnTypeMismatch =
       CONNECTOR_EXCEPTION_DATA_CONVERT_ON_TYPE_MISMATCH_DEFAULT_VALUE;
@@ -137,6 +148,7 @@ public abstract class IoTDBFileReceiver implements IoTDBReceiver {
 
     // Handshake restarts the transfer session. Reset the current writing state before recycling the
     // old receiver dir, otherwise the old file handle can survive across handshakes.
+    stashWritingFileIfResumable();
     resetCurrentWritingFileState();
 
     // Clear the original receiver file dir if exists
@@ -274,6 +286,8 @@ public abstract class IoTDBFileReceiver implements IoTDBReceiver {
       return new TPipeTransferResp(status);
     }
 
+    senderClusterId = clusterIdFromHandshakeRequest;
+
     // Reject to handshake if the request does not contain timestampPrecision.
     final String timestampPrecision =
         req.getParams().get(PipeTransferHandshakeConstant.HANDSHAKE_KEY_TIME_PRECISION);
@@ -513,6 +527,113 @@ public abstract class IoTDBFileReceiver implements IoTDBReceiver {
     return req.getFilePiece() == null ? 0 : req.getFilePiece().length;
   }
 
+  protected final TPipeTransferResp handleTransferFileDigest(final PipeTransferFileDigestReq req) {
+    try {
+      if (!PipeReceiverResumableFileManager.isValidDigest(req.getDigest())) {
+        final TSStatus status =
+            RpcUtils.getStatus(
+                TSStatusCode.PIPE_TRANSFER_FILE_ERROR,
+                String.format(PipeMessages.ILLEGAL_FILE_DIGEST, req.getDigest()));
+        PipeLogger.log(LOGGER::warn, status.getMessage());
+        return PipeTransferFilePieceResp.toTPipeTransferResp(
+            status, PipeTransferFilePieceResp.ERROR_END_OFFSET);
+      }
+
+      // The digests sent by different pipes and regions are kept apart
+      final String scope = senderClusterId + '_' + req.getScope();
+      if (RESUMABLE_FILE_MANAGER.isReceived(scope, req.getDigest())) {
+        LOGGER.info(
+            PipeMessages.RECEIVER_FILE_ALREADY_RECEIVED,
+            receiverId.get(),
+            req.getFileName(),
+            req.getDigest());
+        return PipeTransferFilePieceResp.toTPipeTransferResp(
+            RpcUtils.getStatus(TSStatusCode.PIPE_TRANSFER_FILE_ALREADY_RECEIVED),
+            req.getFileLength());
+      }
+
+      updateWritingFileIfNeeded(req.getFileName(), true);
+
+      if (writingFileDigest != null && !writingFileDigest.equals(req.getDigest())) {
+        // The file with the same name has different content, start over
+        org.apache.iotdb.commons.utils.FileUtils.truncateFile(writingFile, 0);
+        writingFileWriter.seek(0);
+      }
+      if (writingFileWriter.length() == 0) {
+        resumeWritingFileIfPossible(scope, req.getDigest(), req.getFileLength());
+      }
+      writingFileDigest = req.getDigest();
+      writingFileDigestScope = scope;
+
+      return PipeTransferFilePieceResp.toTPipeTransferResp(
+          RpcUtils.SUCCESS_STATUS, writingFileWriter.length());
+    } catch (final Exception e) {
+      PipeLogger.log(
+          LOGGER::warn,
+          e,
+          PipeMessages.RECEIVER_FAILED_NEGOTIATE_FILE_DIGEST,
+          receiverId.get(),
+          req);
+      final TSStatus status =
+          RpcUtils.getStatus(
+              TSStatusCode.PIPE_TRANSFER_FILE_ERROR,
+              String.format(PipeMessages.FAILED_TO_NEGOTIATE_FILE_DIGEST, e.getMessage()));
+      try {
+        return PipeTransferFilePieceResp.toTPipeTransferResp(
+            status, PipeTransferFilePieceResp.ERROR_END_OFFSET);
+      } catch (final Exception ex) {
+        return PipeTransferFilePieceResp.toTPipeTransferResp(status);
+      }
+    }
+  }
+
+  private void resumeWritingFileIfPossible(
+      final String scope, final String digest, final long fileLength) throws IOException {
+    final File resumableFile = RESUMABLE_FILE_MANAGER.take(scope, digest);
+    if (resumableFile == null) {
+      return;
+    }
+    if (resumableFile.length() > fileLength) {
+      deleteFile(resumableFile);
+      return;
+    }
+
+    writingFileWriter.close();
+    writingFileWriter = null;
+    Files.move(resumableFile.toPath(), writingFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    writingFileWriter = new RandomAccessFile(writingFile, "rw");
+    writingFileWriter.seek(writingFileWriter.length());
+    LOGGER.info(
+        PipeMessages.RECEIVER_FILE_TRANSFER_RESUMED,
+        receiverId.get(),
+        writingFile.getPath(),
+        digest,
+        writingFileWriter.length());
+  }
+
+  private void stashWritingFileIfResumable() {
+    final String digest = writingFileDigest;
+    writingFileDigest = null;
+    if (digest == null
+        || writingFile == null
+        || receiverFileDirWithIdSuffix.get() == null
+        || writingFile.length() == 0) {
+      return;
+    }
+
+    closeCurrentWritingFileWriter(false);
+    final long length = writingFile.length();
+    if (RESUMABLE_FILE_MANAGER.stash(
+        writingFileDigestScope, digest, writingFile, receiverFileDirWithIdSuffix.get())) {
+      LOGGER.info(
+          PipeMessages.RECEIVER_FILE_STASHED_FOR_RESUMING,
+          receiverId.get(),
+          writingFile.getPath(),
+          length);
+      writingFile = null;
+    }
+  }
+
   protected final void updateWritingFileIfNeeded(final String fileName, final boolean isSingleFile)
       throws IOException {
     if (isFileExistedAndNameCorrect(fileName)) {
@@ -525,6 +646,12 @@ public abstract class IoTDBFileReceiver implements IoTDBReceiver {
         fileName,
         writingFile == null ? "null" : writingFile.getPath());
 
+    if (isSingleFile) {
+      // The previous file is abandoned by the sender, keep it in case the transfer is resumed
+      stashWritingFileIfResumable();
+    }
+    writingFileDigest = null;
+
     closeCurrentWritingFileWriter(!isSingleFile);
     // If there are multiple files we can not delete the current file
     // instead they will be deleted after seal request
@@ -625,6 +752,7 @@ public abstract class IoTDBFileReceiver implements IoTDBReceiver {
   private void resetCurrentWritingFileState() {
     closeCurrentWritingFileWriter(false);
     writingFile = null;
+    writingFileDigest = null;
   }
 
   private void deleteFile(final File file) {
@@ -683,6 +811,8 @@ public abstract class IoTDBFileReceiver implements IoTDBReceiver {
 
       sealedWritingFile = writingFile;
       final String fileAbsolutePath = sealedWritingFile.getAbsolutePath();
+      final String sealedWritingFileDigest = writingFileDigest;
+      final String sealedWritingFileDigestScope = writingFileDigestScope;
 
       // Sync here is necessary to ensure that the data is written to the disk. Or data region may
       // load the file before the data is written to the disk and cause unexpected behavior after
@@ -704,10 +834,15 @@ public abstract class IoTDBFileReceiver implements IoTDBReceiver {
       // Clear the reference before loading so the next file transfer can not reuse the same path.
       // The loader owns cleanup after a successful load.
       writingFile = null;
+      writingFileDigest = null;
 
       final TSStatus status = loadFileV1(req, fileAbsolutePath);
       if (status.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
         shouldDeleteSealedFile = false;
+        if (sealedWritingFileDigest != null) {
+          RESUMABLE_FILE_MANAGER.markReceived(
+              sealedWritingFileDigestScope, sealedWritingFileDigest);
+        }
         LOGGER.debug(PipeMessages.RECEIVER_SEAL_FILE_SUCCESS, receiverId.get(), fileAbsolutePath);
       } else {
         PipeLogger.log(
@@ -808,6 +943,9 @@ public abstract class IoTDBFileReceiver implements IoTDBReceiver {
 
       // WritingFile will be deleted after load if no exception occurs
       writingFile = null;
+      final String sealedWritingFileDigest = writingFileDigest;
+      final String sealedWritingFileDigestScope = writingFileDigestScope;
+      writingFileDigest = null;
 
       final List<String> fileAbsolutePaths =
           files.stream()
@@ -816,6 +954,10 @@ public abstract class IoTDBFileReceiver implements IoTDBReceiver {
 
       final TSStatus status = loadFileV2(req, fileAbsolutePaths);
       if (status.getCode() == TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+        if (sealedWritingFileDigest != null) {
+          RESUMABLE_FILE_MANAGER.markReceived(
+              sealedWritingFileDigestScope, sealedWritingFileDigest);
+        }
         LOGGER.debug(PipeMessages.RECEIVER_SEAL_FILE_SUCCESS, receiverId.get(), fileAbsolutePaths);
       } else {
         PipeLogger.log(
@@ -953,6 +1095,10 @@ public abstract class IoTDBFileReceiver implements IoTDBReceiver {
 
   @Override
   public synchronized void handleExit() {
+    // Keep the partially received file so that the sender can resume the transfer from where it
+    // stopped after reconnecting
+    stashWritingFileIfResumable();
+
     if (writingFileWriter != null) {
       try {
         writingFileWriter.close();
@@ -0,0 +1,406 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.commons.pipe.receiver;
+
+import org.apache.iotdb.commons.i18n.PipeMessages;
+import org.apache.iotdb.commons.pipe.config.PipeConfig;
+import org.apache.iotdb.commons.utils.TestOnly;
+
+import org.apache.tsfile.external.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Tracks the content digests of the files which have been loaded by the file receivers, and keeps
+ * the partially received files of the broken transfers. With them a sender can skip a file the
+ * receiver already has, or resume an interrupted transfer from where it stopped after reconnecting
+ * instead of sending the whole file again.
+ *
+ * <p>The digests are kept per scope, which is the sender cluster, pipe and region the files come
+ * from, so a file sent by one pipe is never skipped for another. If the received digest dir is set,
+ * the digests of each scope are persisted into a file of the dir and survive restarts. A digest
+ * expires after {@link PipeConfig#getPipeReceiverReceivedFileDigestTtlInMs()}, and all the digests
+ * are dropped when the data on this node is deleted or its TTL is changed, because the loaded files
+ * may not be fully there any more.
+ *
+ * <p>The partially received files are moved into the {@link #RESUMABLE_FILE_DIR_NAME} dir under
+ * the receiver file base dir, which is cleaned when the node restarts.
+ */
+public class PipeReceiverResumableFileManager {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(PipeReceiverResumableFileManager.class);
+
+  private static final PipeConfig PIPE_CONFIG = PipeConfig.getInstance();
+
+  public static final String RESUMABLE_FILE_DIR_NAME = "resumable";
+
+  private static final String RECEIVED_DIGEST_FILE_SUFFIX = ".digest";
+  private static final String RECEIVED_DIGEST_FILE_TMP_SUFFIX = ".tmp";
+  private static final char RECEIVED_DIGEST_SEPARATOR = ' ';
+
+  // The digests of the least recently used scope are unloaded first, they are still on disk
+  private static final int MAX_LOADED_SCOPE_COUNT = 32;
+
+  // The digest is used as the file name of the resumable file, so only hex strings are accepted
+  private static final Pattern DIGEST_PATTERN = Pattern.compile("[0-9a-f]{16,128}");
+
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  // Null if the received digests are only kept in memory
+  private File receivedDigestDir;
+  // Whether there may be digest files in the received digest dir
+  private boolean hasPersistedDigests = false;
+
+  private final Map<String, ReceivedDigests> scopeId2ReceivedDigests =
+      new LinkedHashMap<String, ReceivedDigests>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, ReceivedDigests> eldest) {
+          return size() > MAX_LOADED_SCOPE_COUNT;
+        }
+      };
+
+  // Ordered by the stash time, the eldest one is evicted first
+  private final Map<String, File> resumableFiles = new LinkedHashMap<>();
+
+  public static boolean isValidDigest(final String digest) {
+    return digest != null && DIGEST_PATTERN.matcher(digest).matches();
+  }
+
+  /////////////////////////////// Received Digests ///////////////////////////////
+
+  /**
+   * Persist the received digests into the dir, and drop the persisted digests which have expired.
+   * The digests are only kept in memory if the dir is never set.
+   */
+  public synchronized void setReceivedDigestDir(final File receivedDigestDir) {
+    this.receivedDigestDir = receivedDigestDir;
+    scopeId2ReceivedDigests.clear();
+
+    final File[] digestFiles =
+        receivedDigestDir.listFiles(
+            (dir, name) ->
+                name.endsWith(RECEIVED_DIGEST_FILE_SUFFIX)
+                    || name.endsWith(RECEIVED_DIGEST_FILE_TMP_SUFFIX));
+    if (digestFiles == null) {
+      return;
+    }
+    for (final File digestFile : digestFiles) {
+      if (digestFile.getName().endsWith(RECEIVED_DIGEST_FILE_TMP_SUFFIX)
+          || isExpired(digestFile.lastModified(), System.currentTimeMillis())) {
+        FileUtils.deleteQuietly(digestFile);
+      } else {
+        hasPersistedDigests = true;
+      }
+    }
+  }
+
+  public synchronized boolean isReceived(final String scope, final String digest) {
+    return getReceivedDigests(getScopeId(scope)).contains(digest);
+  }
+
+  public synchronized void markReceived(final String scope, final String digest) {
+    final String scopeId = getScopeId(scope);
+    getReceivedDigests(scopeId).add(digest);
+    hasPersistedDigests |= receivedDigestDir != null;
+    // The file is loaded, there is nothing left to resume
+    final File resumableFile = resumableFiles.remove(getResumableFileName(scopeId, digest));
+    if (resumableFile != null) {
+      FileUtils.deleteQuietly(resumableFile);
+    }
+  }
+
+  /**
+   * Drop all the received digests, called when the data on this node is deleted or its TTL is
+   * changed, after which a file loaded before may not be fully there and should be received again.
+   */
+  public synchronized void invalidateReceivedDigests() {
+    if (scopeId2ReceivedDigests.isEmpty() && !hasPersistedDigests) {
+      return;
+    }
+    scopeId2ReceivedDigests.clear();
+    hasPersistedDigests = false;
+
+    final File[] digestFiles =
+        receivedDigestDir == null ? null : receivedDigestDir.listFiles(File::isFile);
+    if (digestFiles != null) {
+      for (final File digestFile : digestFiles) {
+        FileUtils.deleteQuietly(digestFile);
+      }
+    }
+    LOGGER.info(PipeMessages.RECEIVER_RECEIVED_FILE_DIGESTS_INVALIDATED);
+  }
+
+  private ReceivedDigests getReceivedDigests(final String scopeId) {
+    return scopeId2ReceivedDigests.computeIfAbsent(
+        scopeId,
+        id ->
+            new ReceivedDigests(
+                receivedDigestDir == null
+                    ? null
+                    : new File(receivedDigestDir, id + RECEIVED_DIGEST_FILE_SUFFIX)));
+  }
+
+  private static boolean isExpired(final long receivedTime, final long currentTime) {
+    final long ttlInMs = PIPE_CONFIG.getPipeReceiverReceivedFileDigestTtlInMs();
+    return ttlInMs > 0 && currentTime - receivedTime > ttlInMs;
+  }
+
+  /** The received digests of a scope, ordered by the received time. */
+  private static class ReceivedDigests {
+
+    private final File digestFile;
+    private final LinkedHashMap<String, Long> digest2ReceivedTime = new LinkedHashMap<>();
+    // The lines in the digest file, the file is rewritten when it has too many stale lines
+    private int persistedCount = 0;
+
+    private ReceivedDigests(final File digestFile) {
+      this.digestFile = digestFile;
+      if (digestFile != null && digestFile.exists()) {
+        load();
+      }
+    }
+
+    private void load() {
+      final List<String> lines;
+      try {
+        lines = Files.readAllLines(digestFile.toPath(), StandardCharsets.UTF_8);
+      } catch (final IOException e) {
+        LOGGER.warn(PipeMessages.RECEIVER_FAILED_LOAD_RECEIVED_FILE_DIGESTS, digestFile, e);
+        return;
+      }
+
+      final long currentTime = System.currentTimeMillis();
+      for (final String line : lines) {
+        final int separatorIndex = line.indexOf(RECEIVED_DIGEST_SEPARATOR);
+        if (separatorIndex < 0) {
+          // The tail of the file may be broken by a crash
+          continue;
+        }
+        final String digest = line.substring(0, separatorIndex);
+        final long receivedTime;
+        try {
+          receivedTime = Long.parseLong(line.substring(separatorIndex + 1));
+        } catch (final NumberFormatException e) {
+          continue;
+        }
+        if (isValidDigest(digest) && !isExpired(receivedTime, currentTime)) {
+          digest2ReceivedTime.remove(digest);
+          digest2ReceivedTime.put(digest, receivedTime);
+        }
+      }
+      evictIfNecessary();
+      persistedCount = lines.size();
+    }
+
+    private boolean contains(final String digest) {
+      final Long receivedTime = digest2ReceivedTime.get(digest);
+      if (receivedTime == null) {
+        return false;
+      }
+      if (isExpired(receivedTime, System.currentTimeMillis())) {
+        digest2ReceivedTime.remove(digest);
+        return false;
+      }
+      return true;
+    }
+
+    private void add(final String digest) {
+      final long receivedTime = System.currentTimeMillis();
+      digest2ReceivedTime.remove(digest);
+      digest2ReceivedTime.put(digest, receivedTime);
+      evictIfNecessary();
+
+      if (digestFile == null) {
+        return;
+      }
+      try {
+        if (persistedCount >= 2 * Math.max(digest2ReceivedTime.size(), 1)) {
+          rewrite();
+        } else {
+          append(digest, receivedTime);
+        }
+      } catch (final IOException e) {
+        // The digest is still kept in memory, only a restart may forget it
+        LOGGER.warn(PipeMessages.RECEIVER_FAILED_PERSIST_RECEIVED_FILE_DIGEST, digestFile, e);
+      }
+    }
+
+    private void evictIfNecessary() {
+      final int maxSize = PIPE_CONFIG.getPipeReceiverReceivedFileDigestCacheSize();
+      final Iterator<String> iterator = digest2ReceivedTime.keySet().iterator();
+      while (digest2ReceivedTime.size() > maxSize && iterator.hasNext()) {
+        iterator.next();
+        iterator.remove();
+      }
+    }
+
+    private void append(final String digest, final long receivedTime) throws IOException {
+      FileUtils.forceMkdir(digestFile.getParentFile());
+      try (final BufferedWriter writer =
+          Files.newBufferedWriter(
+              digestFile.toPath(),
+              StandardCharsets.UTF_8,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.APPEND)) {
+        writeLine(writer, digest, receivedTime);
+      }
+      persistedCount++;
+    }
+
+    private void rewrite() throws IOException {
+      FileUtils.forceMkdir(digestFile.getParentFile());
+      final File tmpFile = new File(digestFile.getPath() + RECEIVED_DIGEST_FILE_TMP_SUFFIX);
+      try (final BufferedWriter writer =
+          Files.newBufferedWriter(tmpFile.toPath(), StandardCharsets.UTF_8)) {
+        for (final Map.Entry<String, Long> entry : digest2ReceivedTime.entrySet()) {
+          writeLine(writer, entry.getKey(), entry.getValue());
+        }
+      }
+      Files.move(
+          tmpFile.toPath(),
+          digestFile.toPath(),
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      persistedCount = digest2ReceivedTime.size();
+    }
+
+    private static void writeLine(
+        final BufferedWriter writer, final String digest, final long receivedTime)
+        throws IOException {
+      writer.write(digest);
+      writer.write(RECEIVED_DIGEST_SEPARATOR);
+      writer.write(Long.toString(receivedTime));
+      writer.newLine();
+    }
+  }
+
+  /////////////////////////////// Resumable Files ///////////////////////////////
+
+  /**
+   * Move the partially received file into the resumable file dir.
+   *
+   * @return {@code true} if the file is kept, otherwise the caller should delete it as usual
+   */
+  public synchronized boolean stash(
+      final String scope, final String digest, final File file, final File receiverFileDir) {
+    final int maxCount = PIPE_CONFIG.getPipeReceiverResumableFileMaxCount();
+    final String scopeId = getScopeId(scope);
+    if (maxCount <= 0 || getReceivedDigests(scopeId).contains(digest)) {
+      return false;
+    }
+
+    final String resumableFileName = getResumableFileName(scopeId, digest);
+    final File resumableFileDir =
+        new File(receiverFileDir.getParentFile(), RESUMABLE_FILE_DIR_NAME);
+    final File resumableFile = new File(resumableFileDir, resumableFileName);
+    try {
+      FileUtils.forceMkdir(resumableFileDir);
+      Files.move(file.toPath(), resumableFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    } catch (final IOException e) {
+      LOGGER.warn(PipeMessages.RECEIVER_FAILED_STASH_FILE_FOR_RESUMING, file, e);
+      return false;
+    }
+
+    final File previousFile = resumableFiles.remove(resumableFileName);
+    if (previousFile != null && !previousFile.equals(resumableFile)) {
+      FileUtils.deleteQuietly(previousFile);
+    }
+    resumableFiles.put(resumableFileName, resumableFile);
+
+    final Iterator<Map.Entry<String, File>> iterator = resumableFiles.entrySet().iterator();
+    while (resumableFiles.size() > maxCount && iterator.hasNext()) {
+      FileUtils.deleteQuietly(iterator.next().getValue());
+      iterator.remove();
+    }
+    return true;
+  }
+
+  /**
+   * Take the partially received file of the digest in the scope away from the manager.
+   *
+   * @return {@code null} if there is no such file
+   */
+  public synchronized File take(final String scope, final String digest) {
+    final File resumableFile =
+        resumableFiles.remove(getResumableFileName(getScopeId(scope), digest));
+    return resumableFile != null && resumableFile.exists() ? resumableFile : null;
+  }
+
+  public static String getResumableFileName(final String scopeId, final String digest) {
+    return scopeId + '_' + digest;
+  }
+
+  /** The scope is given by the sender, it is hashed to be used as a file name. */
+  public static String getScopeId(final String scope) {
+    try {
+      final byte[] bytes =
+          MessageDigest.getInstance("SHA-256").digest(scope.getBytes(StandardCharsets.UTF_8));
+      final char[] hex = new char[bytes.length * 2];
+      for (int i = 0; i < bytes.length; i++) {
+        hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+        hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+      }
+      return new String(hex);
+    } catch (final NoSuchAlgorithmException e) {
+      // SHA-256 is supported by every JVM
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @TestOnly
+  public synchronized void clear() {
+    receivedDigestDir = null;
+    hasPersistedDigests = false;
+    scopeId2ReceivedDigests.clear();
+    resumableFiles.values().forEach(FileUtils::deleteQuietly);
+    resumableFiles.clear();
+  }
+
+  /////////////////////////////// Singleton ///////////////////////////////
+
+  private PipeReceiverResumableFileManager() {
+    // Singleton
+  }
+
+  public static PipeReceiverResumableFileManager getInstance() {
+    return PipeReceiverResumableFileManagerHolder.INSTANCE;
+  }
+
+  private static class PipeReceiverResumableFileManagerHolder {
+    private static final PipeReceiverResumableFileManager INSTANCE =
+        new PipeReceiverResumableFileManager();
+  }
+}
@@ -46,6 +46,8 @@ public enum PipeRequestType {
   TRANSFER_TABLET_BINARY_V2((short) 12),
   TRANSFER_TABLET_BATCH_V2((short) 13),
 
+  TRANSFER_TS_FILE_DIGEST((short) 14),
+
   // Schema region / Delete Data
   TRANSFER_PLAN_NODE((short) 100),
   TRANSFER_SCHEMA_SNAPSHOT_PIECE((short) 101),
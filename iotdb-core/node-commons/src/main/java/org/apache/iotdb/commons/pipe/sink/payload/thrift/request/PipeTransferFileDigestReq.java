@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.commons.pipe.sink.payload.thrift.request;
+
+import org.apache.iotdb.service.rpc.thrift.TPipeTransferReq;
+
+import org.apache.tsfile.utils.PublicBAOS;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Sent before the pieces of a file to negotiate where the transfer should start. The receiver
+ * answers with the offset it has already received of the file with the same content digest, or
+ * tells the sender that the file has been loaded before so that it can be skipped.
+ *
+ * <p>The scope tells the receiver which pipe and region the file comes from, the digests received
+ * from different scopes are kept apart. It is appended to the end of the body, and is empty if the
+ * request comes from a sender which does not send it.
+ */
+public abstract class PipeTransferFileDigestReq extends TPipeTransferReq {
+
+  private transient String fileName;
+  private transient long fileLength;
+  private transient String digest;
+  private transient String scope;
+
+  public final String getFileName() {
+    return fileName;
+  }
+
+  public final long getFileLength() {
+    return fileLength;
+  }
+
+  public final String getDigest() {
+    return digest;
+  }
+
+  public final String getScope() {
+    return scope;
+  }
+
+  protected abstract PipeRequestType getPlanType();
+
+  /////////////////////////////// Thrift ///////////////////////////////
+
+  protected PipeTransferFileDigestReq convertToTPipeTransferReq(
+      final String fileName, final long fileLength, final String digest, final String scope)
+      throws IOException {
+
+    this.fileName = fileName;
+    this.fileLength = fileLength;
+    this.digest = digest;
+    this.scope = scope;
+
+    this.version = IoTDBSinkRequestVersion.VERSION_1.getVersion();
+    this.type = getPlanType().getType();
+    try (final PublicBAOS byteArrayOutputStream = new PublicBAOS();
+        final DataOutputStream outputStream = new DataOutputStream(byteArrayOutputStream)) {
+      ReadWriteIOUtils.write(fileName, outputStream);
+      ReadWriteIOUtils.write(fileLength, outputStream);
+      ReadWriteIOUtils.write(digest, outputStream);
+      ReadWriteIOUtils.write(scope, outputStream);
+      this.body = ByteBuffer.wrap(byteArrayOutputStream.getBuf(), 0, byteArrayOutputStream.size());
+    }
+
+    return this;
+  }
+
+  public PipeTransferFileDigestReq translateFromTPipeTransferReq(final TPipeTransferReq req) {
+
+    fileName = ReadWriteIOUtils.readString(req.body);
+    fileLength = ReadWriteIOUtils.readLong(req.body);
+    digest = ReadWriteIOUtils.readString(req.body);
+    scope = req.body.hasRemaining() ? ReadWriteIOUtils.readString(req.body) : "";
+
+    version = req.version;
+    type = req.type;
+
+    return this;
+  }
+
+  /////////////////////////////// Object ///////////////////////////////
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    final PipeTransferFileDigestReq that = (PipeTransferFileDigestReq) obj;
+    return fileName.equals(that.fileName)
+        && fileLength == that.fileLength
+        && digest.equals(that.digest)
+        && Objects.equals(scope, that.scope)
+        && version == that.version
+        && type == that.type
+        && body.equals(that.body);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(fileName, fileLength, digest, scope, version, type, body);
+  }
+}
@@ -47,6 +47,9 @@ public class Query extends Statement {
   private boolean materialized = false;
   // whether this query has ever been executed
   private boolean isExecuted = false;
+  // whether now() was evaluated into a literal while parsing, the result then depends on the
+  // time the query is issued
+  private boolean useCurrentTime = false;
   // materialization has been executed successfully if cteDataStore is not null
   private CteDataStore cteDataStore = null;
 
@@ -127,6 +130,14 @@ public class Query extends Statement {
     isExecuted = executed;
   }
 
+  public boolean isUseCurrentTime() {
+    return useCurrentTime;
+  }
+
+  public void setUseCurrentTime(boolean useCurrentTime) {
+    this.useCurrentTime = useCurrentTime;
+  }
+
   public boolean isDone() {
     return cteDataStore != null;
   }
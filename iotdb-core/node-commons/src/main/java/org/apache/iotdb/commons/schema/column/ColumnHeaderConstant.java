@@ -246,6 +246,12 @@ public class ColumnHeaderConstant {
   public static final String BIN = "bin";
   public static final String NUMS = "nums";
 
+  // column names for query_traces
+  public static final String SPAN_ID = "span_id";
+  public static final String PARENT_SPAN_ID = "parent_span_id";
+  public static final String SPAN_NAME = "span_name";
+  public static final String SPAN_ATTRIBUTES = "attributes";
+
   public static final String TABLE_NAME_TABLE_MODEL = "table_name";
   public static final String TABLE_TYPE_TABLE_MODEL = "table_type";
   public static final String COLUMN_NAME_TABLE_MODEL = "column_name";
@@ -847,4 +853,10 @@ public class ColumnHeaderConstant {
           new ColumnHeader(TABLE_NAME_TABLE_MODEL, TSDataType.STRING),
           new ColumnHeader(TIME_COLUMN, TSDataType.STRING),
           new ColumnHeader(TAG_COLUMNS, TSDataType.STRING));
+
+  public static final List<ColumnHeader> COPY_TO_PARQUET_COLUMN_HEADERS =
+      ImmutableList.of(
+          new ColumnHeader(PATH.toLowerCase(), TSDataType.STRING),
+          new ColumnHeader(ROW_COUNT, TSDataType.INT64),
+          new ColumnHeader(SIZE_IN_BYTES_TABLE_MODEL, TSDataType.INT64));
 }
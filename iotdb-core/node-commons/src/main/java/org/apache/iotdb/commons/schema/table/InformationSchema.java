@@ -62,6 +62,7 @@ public class InformationSchema {
   public static final String CURRENT_QUERIES = "current_queries";
   public static final String QUERIES_COSTS_HISTOGRAM = "queries_costs_histogram";
   public static final String SERVICES = "services";
+  public static final String QUERY_TRACES = "query_traces";
 
   static {
     final TsTable queriesTable = new TsTable(QUERIES);
@@ -433,6 +434,28 @@ public class InformationSchema {
         new AttributeColumnSchema(ColumnHeaderConstant.STATE_TABLE_MODEL, TSDataType.STRING));
     servicesTable.removeColumnSchema(TsTable.TIME_COLUMN_NAME);
     schemaTables.put(SERVICES, servicesTable);
+
+    final TsTable queryTracesTable = new TsTable(QUERY_TRACES);
+    queryTracesTable.addColumnSchema(
+        new TagColumnSchema(ColumnHeaderConstant.QUERY_ID_TABLE_MODEL, TSDataType.STRING));
+    queryTracesTable.addColumnSchema(
+        new AttributeColumnSchema(ColumnHeaderConstant.SPAN_ID, TSDataType.STRING));
+    queryTracesTable.addColumnSchema(
+        new AttributeColumnSchema(ColumnHeaderConstant.PARENT_SPAN_ID, TSDataType.STRING));
+    queryTracesTable.addColumnSchema(
+        new AttributeColumnSchema(ColumnHeaderConstant.SPAN_NAME, TSDataType.STRING));
+    queryTracesTable.addColumnSchema(
+        new AttributeColumnSchema(ColumnHeaderConstant.DATA_NODE_ID_TABLE_MODEL, TSDataType.INT32));
+    queryTracesTable.addColumnSchema(
+        new AttributeColumnSchema(
+            ColumnHeaderConstant.START_TIME_TABLE_MODEL, TSDataType.TIMESTAMP));
+    queryTracesTable.addColumnSchema(
+        new AttributeColumnSchema(ColumnHeaderConstant.END_TIME_TABLE_MODEL, TSDataType.TIMESTAMP));
+    queryTracesTable.addColumnSchema(
+        new AttributeColumnSchema(ColumnHeaderConstant.COST_TIME, TSDataType.FLOAT));
+    queryTracesTable.addColumnSchema(
+        new AttributeColumnSchema(ColumnHeaderConstant.SPAN_ATTRIBUTES, TSDataType.STRING));
+    schemaTables.put(QUERY_TRACES, queryTracesTable);
   }
 
   static {
@@ -106,6 +106,11 @@ public enum Metric {
   COMPACTION_TASK_SELECTED_FILE("compaction_task_selected_file"),
   COMPACTION_TASK_SELECTED_FILE_SIZE("compaction_task_selected_file_size"),
   COMPACTION_SELECTION_CACHED_TIME_INDEX_SIZE("compaction_selection_cached_time_index_size"),
+  COMPACTION_DISK_READ_LATENCY("compaction_disk_read_latency"),
+  COMPACTION_DISK_BACKOFF_TIME("compaction_disk_backoff_time"),
+  // tier migration related
+  TIER_MIGRATION_DATA_MOVED("tier_migration_data_moved"),
+  TIER_MIGRATION_FILE_COUNT("tier_migration_file_count"),
   // schema engine related
   MEM("mem"),
   CACHE("cache"),
@@ -179,6 +179,10 @@ public class SubscriptionConfig {
     return COMMON_CONFIG.isSubscriptionConsensusLagBasedPriority();
   }
 
+  public int getSubscriptionConsensusPartitionsPerRegion() {
+    return Math.max(1, COMMON_CONFIG.getSubscriptionConsensusPartitionsPerRegion());
+  }
+
   public int getSubscriptionConsensusPrefetchingQueueCapacity() {
     return COMMON_CONFIG.getSubscriptionConsensusPrefetchingQueueCapacity();
   }
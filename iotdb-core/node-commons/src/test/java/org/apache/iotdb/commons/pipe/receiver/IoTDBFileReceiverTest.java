@@ -25,6 +25,7 @@ import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.exception.pipe.PipeRuntimeOutOfMemoryCriticalException;
 import org.apache.iotdb.commons.pipe.sink.payload.thrift.common.PipeTransferHandshakeConstant;
 import org.apache.iotdb.commons.pipe.sink.payload.thrift.request.PipeRequestType;
+import org.apache.iotdb.commons.pipe.sink.payload.thrift.request.PipeTransferFileDigestReq;
 import org.apache.iotdb.commons.pipe.sink.payload.thrift.request.PipeTransferFilePieceReq;
 import org.apache.iotdb.commons.pipe.sink.payload.thrift.request.PipeTransferFileSealReqV1;
 import org.apache.iotdb.commons.pipe.sink.payload.thrift.request.PipeTransferFileSealReqV2;
@@ -52,6 +53,8 @@ import java.util.Map;
 
 public class IoTDBFileReceiverTest {
 
+  private static final String DIGEST_SCOPE = "pipe_1_1";
+
   @Test
   public void testRejectPathTraversalFileName() throws Exception {
     final Path baseDir = Files.createTempDirectory("iotdb-file-receiver-test");
@@ -246,6 +249,151 @@ public class IoTDBFileReceiverTest {
     }
   }
 
+  @Test
+  public void testResumeFileTransferAndSkipReceivedFileByDigest() throws Exception {
+    final Path baseDir = Files.createTempDirectory("iotdb-file-receiver-test");
+    final String digest = "0123456789abcdef0123456789abcdef";
+    final DummyFileReceiver receiver = new DummyFileReceiver(baseDir.resolve("1").toFile());
+    final DummyFileReceiver resumedReceiver = new DummyFileReceiver(baseDir.resolve("2").toFile());
+    final DummyFileReceiver anotherReceiver = new DummyFileReceiver(baseDir.resolve("3").toFile());
+    try {
+      PipeTransferFilePieceResp resp =
+          PipeTransferFilePieceResp.fromTPipeTransferResp(
+              receiver.negotiateDigest("normal.tsfile", 6L, digest));
+      Assert.assertEquals(TSStatusCode.SUCCESS_STATUS.getStatusCode(), resp.getStatus().getCode());
+      Assert.assertEquals(0, resp.getEndWritingOffset());
+      receiver.writeFilePiece("normal.tsfile", 0, new byte[] {1, 2, 3});
+
+      // The connection is broken, the partially received file is kept
+      receiver.handleExit();
+      Assert.assertTrue(
+          baseDir
+              .resolve(PipeReceiverResumableFileManager.RESUMABLE_FILE_DIR_NAME)
+              .resolve(
+                  PipeReceiverResumableFileManager.getResumableFileName(
+                      PipeReceiverResumableFileManager.getScopeId("_" + DIGEST_SCOPE), digest))
+              .toFile()
+              .exists());
+
+      resp =
+          PipeTransferFilePieceResp.fromTPipeTransferResp(
+              resumedReceiver.negotiateDigest("normal.tsfile", 6L, digest));
+      Assert.assertEquals(TSStatusCode.SUCCESS_STATUS.getStatusCode(), resp.getStatus().getCode());
+      Assert.assertEquals(3, resp.getEndWritingOffset());
+
+      resp =
+          PipeTransferFilePieceResp.fromTPipeTransferResp(
+              resumedReceiver.writeFilePiece("normal.tsfile", 3, new byte[] {4, 5, 6}));
+      Assert.assertEquals(TSStatusCode.SUCCESS_STATUS.getStatusCode(), resp.getStatus().getCode());
+      Assert.assertEquals(6, resp.getEndWritingOffset());
+      Assert.assertArrayEquals(
+          new byte[] {1, 2, 3, 4, 5, 6},
+          Files.readAllBytes(resumedReceiver.getWritingFileInBaseDir("normal.tsfile").toPath()));
+      Assert.assertEquals(
+          TSStatusCode.SUCCESS_STATUS.getStatusCode(),
+          resumedReceiver.sealFileV1("normal.tsfile", 6L).getStatus().getCode());
+
+      // The file has been loaded, it can be skipped by any receiver
+      resp =
+          PipeTransferFilePieceResp.fromTPipeTransferResp(
+              anotherReceiver.negotiateDigest("normal.tsfile", 6L, digest));
+      Assert.assertEquals(
+          TSStatusCode.PIPE_TRANSFER_FILE_ALREADY_RECEIVED.getStatusCode(),
+          resp.getStatus().getCode());
+      Assert.assertFalse(anotherReceiver.getWritingFileInBaseDir("normal.tsfile").exists());
+    } finally {
+      resumedReceiver.handleExit();
+      anotherReceiver.handleExit();
+      PipeReceiverResumableFileManager.getInstance().clear();
+    }
+  }
+
+  @Test
+  public void testReceivedDigestIsScopedByPipeAndRegion() throws Exception {
+    final Path baseDir = Files.createTempDirectory("iotdb-file-receiver-test");
+    final String digest = "0123456789abcdef0123456789abcdef";
+    final DummyFileReceiver receiver = new DummyFileReceiver(baseDir.resolve("1").toFile());
+    final DummyFileReceiver anotherReceiver = new DummyFileReceiver(baseDir.resolve("2").toFile());
+    try {
+      receiver.negotiateDigest("normal.tsfile", 3L, digest);
+      receiver.writeFilePiece("normal.tsfile", 0, new byte[] {1, 2, 3});
+      Assert.assertEquals(
+          TSStatusCode.SUCCESS_STATUS.getStatusCode(),
+          receiver.sealFileV1("normal.tsfile", 3L).getStatus().getCode());
+
+      // The same file sent by another pipe must be received again
+      final PipeTransferFilePieceResp resp =
+          PipeTransferFilePieceResp.fromTPipeTransferResp(
+              anotherReceiver.negotiateDigest("normal.tsfile", 3L, digest, "pipe_2_1"));
+      Assert.assertEquals(TSStatusCode.SUCCESS_STATUS.getStatusCode(), resp.getStatus().getCode());
+      Assert.assertEquals(0, resp.getEndWritingOffset());
+    } finally {
+      receiver.handleExit();
+      anotherReceiver.handleExit();
+      PipeReceiverResumableFileManager.getInstance().clear();
+    }
+  }
+
+  @Test
+  public void testReceivedDigestIsPersistedAndInvalidated() throws Exception {
+    final Path digestDir = Files.createTempDirectory("iotdb-received-digest-test");
+    final String digest = "0123456789abcdef0123456789abcdef";
+    final PipeReceiverResumableFileManager manager = PipeReceiverResumableFileManager.getInstance();
+    try {
+      manager.setReceivedDigestDir(digestDir.toFile());
+      manager.markReceived(DIGEST_SCOPE, digest);
+      Assert.assertTrue(manager.isReceived(DIGEST_SCOPE, digest));
+      Assert.assertFalse(manager.isReceived("pipe_2_1", digest));
+
+      // Restart
+      manager.setReceivedDigestDir(digestDir.toFile());
+      Assert.assertTrue(manager.isReceived(DIGEST_SCOPE, digest));
+
+      // The data is deleted
+      manager.invalidateReceivedDigests();
+      Assert.assertFalse(manager.isReceived(DIGEST_SCOPE, digest));
+      manager.setReceivedDigestDir(digestDir.toFile());
+      Assert.assertFalse(manager.isReceived(DIGEST_SCOPE, digest));
+    } finally {
+      manager.clear();
+    }
+  }
+
+  @Test
+  public void testReceivedDigestExpires() throws Exception {
+    final String digest = "0123456789abcdef0123456789abcdef";
+    final PipeReceiverResumableFileManager manager = PipeReceiverResumableFileManager.getInstance();
+    final long originalTtlInMs =
+        CommonDescriptor.getInstance().getConfig().getPipeReceiverReceivedFileDigestTtlInMs();
+    try {
+      CommonDescriptor.getInstance().getConfig().setPipeReceiverReceivedFileDigestTtlInMs(1);
+      manager.markReceived(DIGEST_SCOPE, digest);
+      Thread.sleep(10);
+      Assert.assertFalse(manager.isReceived(DIGEST_SCOPE, digest));
+    } finally {
+      CommonDescriptor.getInstance()
+          .getConfig()
+          .setPipeReceiverReceivedFileDigestTtlInMs(originalTtlInMs);
+      manager.clear();
+    }
+  }
+
+  @Test
+  public void testRejectIllegalDigest() throws Exception {
+    final Path baseDir = Files.createTempDirectory("iotdb-file-receiver-test");
+    final DummyFileReceiver receiver = new DummyFileReceiver(baseDir.toFile());
+    try {
+      final TPipeTransferResp response =
+          receiver.negotiateDigest("normal.tsfile", 6L, "../outside.tsfile");
+
+      Assert.assertEquals(
+          TSStatusCode.PIPE_TRANSFER_FILE_ERROR.getStatusCode(), response.getStatus().getCode());
+      Assert.assertFalse(receiver.getWritingFileInBaseDir("normal.tsfile").exists());
+    } finally {
+      receiver.handleExit();
+    }
+  }
+
   private static class DummyFileReceiver extends IoTDBFileReceiver {
 
     private final File receiverFileBaseDir;
@@ -310,6 +458,18 @@ public class IoTDBFileReceiverTest {
           true);
     }
 
+    TPipeTransferResp negotiateDigest(
+        final String fileName, final long fileLength, final String digest) throws IOException {
+      return negotiateDigest(fileName, fileLength, digest, DIGEST_SCOPE);
+    }
+
+    TPipeTransferResp negotiateDigest(
+        final String fileName, final long fileLength, final String digest, final String scope)
+        throws IOException {
+      return handleTransferFileDigest(
+          DummyFileDigestReq.toTPipeTransferReq(fileName, fileLength, digest, scope));
+    }
+
     TPipeTransferResp sealFileV1(final String fileName, final long fileLength) throws IOException {
       return handleTransferFileSealV1(DummyFileSealReqV1.toTPipeTransferReq(fileName, fileLength));
     }
@@ -421,6 +581,21 @@ public class IoTDBFileReceiverTest {
     }
   }
 
+  private static class DummyFileDigestReq extends PipeTransferFileDigestReq {
+
+    static DummyFileDigestReq toTPipeTransferReq(
+        final String fileName, final long fileLength, final String digest, final String scope)
+        throws IOException {
+      return (DummyFileDigestReq)
+          new DummyFileDigestReq().convertToTPipeTransferReq(fileName, fileLength, digest, scope);
+    }
+
+    @Override
+    protected PipeRequestType getPlanType() {
+      return PipeRequestType.TRANSFER_TS_FILE_DIGEST;
+    }
+  }
+
   private static class DummyHandshakeReq extends PipeTransferHandshakeV1Req {
 
     static DummyHandshakeReq toTPipeTransferReq(final String timestampPrecision)
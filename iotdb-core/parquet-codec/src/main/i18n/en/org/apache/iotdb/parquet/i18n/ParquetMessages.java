@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.parquet.i18n;
+
+public final class ParquetMessages {
+
+  private ParquetMessages() {}
+
+  public static final String UNSUPPORTED_PARQUET_COMPRESSION_TYPE =
+      "Compression type %s is not supported by Parquet files";
+  public static final String UNSUPPORTED_PARQUET_CODEC = "Unsupported Parquet compression codec %s";
+  public static final String UNSUPPORTED_PARQUET_DATA_TYPE =
+      "Column %s of data type %s can not be written into Parquet files";
+  public static final String UNSUPPORTED_PARQUET_PHYSICAL_TYPE =
+      "Column %s has unsupported Parquet physical type %s";
+  public static final String CORRUPTED_PARQUET_FOOTER =
+      "The footer of the Parquet file is corrupted";
+  public static final String UNSUPPORTED_NESTED_PARQUET_COLUMN =
+      "Nested Parquet column %s is not supported";
+  public static final String UNSUPPORTED_EXTERNAL_PARQUET_COLUMN_CHUNK =
+      "Parquet column chunks stored in external file %s are not supported";
+  public static final String PARQUET_COLUMN_VALUE_COUNT_MISMATCH =
+      "Column %s has %s values while the row group has %s rows";
+  public static final String NULL_VALUE_OF_REQUIRED_PARQUET_COLUMN =
+      "Null value can not be written into the required column %s";
+  public static final String NOT_A_PARQUET_FILE = "%s is not a Parquet file";
+  public static final String UNSUPPORTED_PARQUET_ENCODING =
+      "Column %s uses unsupported Parquet encoding %s";
+  public static final String MISSING_PARQUET_DICTIONARY_PAGE =
+      "The dictionary page of column %s is missing";
+  public static final String CORRUPTED_PARQUET_PAGE = "A page of column %s is corrupted";
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.parquet.i18n;
+
+public final class ParquetMessages {
+
+  private ParquetMessages() {}
+
+  public static final String UNSUPPORTED_PARQUET_COMPRESSION_TYPE = "Parquet 文件不支持压缩类型 %s";
+  public static final String UNSUPPORTED_PARQUET_CODEC = "不支持的 Parquet 压缩编码 %s";
+  public static final String UNSUPPORTED_PARQUET_DATA_TYPE = "列 %s 的数据类型 %s 无法写入 Parquet 文件";
+  public static final String UNSUPPORTED_PARQUET_PHYSICAL_TYPE = "列 %s 的 Parquet 物理类型 %s 不受支持";
+  public static final String CORRUPTED_PARQUET_FOOTER = "Parquet 文件的 footer 已损坏";
+  public static final String UNSUPPORTED_NESTED_PARQUET_COLUMN = "不支持嵌套的 Parquet 列 %s";
+  public static final String UNSUPPORTED_EXTERNAL_PARQUET_COLUMN_CHUNK =
+      "不支持存储在外部文件 %s 中的 Parquet column chunk";
+  public static final String PARQUET_COLUMN_VALUE_COUNT_MISMATCH =
+      "列 %s 有 %s 个值，但 row group 有 %s 行";
+  public static final String NULL_VALUE_OF_REQUIRED_PARQUET_COLUMN = "空值无法写入非空列 %s";
+  public static final String NOT_A_PARQUET_FILE = "%s 不是 Parquet 文件";
+  public static final String UNSUPPORTED_PARQUET_ENCODING = "列 %s 使用了不支持的 Parquet 编码 %s";
+  public static final String MISSING_PARQUET_DICTIONARY_PAGE = "列 %s 缺少字典页";
+  public static final String CORRUPTED_PARQUET_PAGE = "列 %s 的数据页已损坏";
+}
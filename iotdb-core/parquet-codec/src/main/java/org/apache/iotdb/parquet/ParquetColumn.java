@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.parquet;
+
+import org.apache.iotdb.parquet.i18n.ParquetMessages;
+
+import org.apache.tsfile.enums.TSDataType;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.iotdb.parquet.ParquetConstant.CONVERTED_TYPE_DATE;
+import static org.apache.iotdb.parquet.ParquetConstant.CONVERTED_TYPE_ENUM;
+import static org.apache.iotdb.parquet.ParquetConstant.CONVERTED_TYPE_JSON;
+import static org.apache.iotdb.parquet.ParquetConstant.CONVERTED_TYPE_NONE;
+import static org.apache.iotdb.parquet.ParquetConstant.CONVERTED_TYPE_TIMESTAMP_MICROS;
+import static org.apache.iotdb.parquet.ParquetConstant.CONVERTED_TYPE_TIMESTAMP_MILLIS;
+import static org.apache.iotdb.parquet.ParquetConstant.CONVERTED_TYPE_UTF8;
+import static org.apache.iotdb.parquet.ParquetConstant.LOGICAL_TYPE_DATE;
+import static org.apache.iotdb.parquet.ParquetConstant.LOGICAL_TYPE_ENUM;
+import static org.apache.iotdb.parquet.ParquetConstant.LOGICAL_TYPE_JSON;
+import static org.apache.iotdb.parquet.ParquetConstant.LOGICAL_TYPE_STRING;
+import static org.apache.iotdb.parquet.ParquetConstant.LOGICAL_TYPE_TIMESTAMP;
+import static org.apache.iotdb.parquet.ParquetConstant.TYPE_BOOLEAN;
+import static org.apache.iotdb.parquet.ParquetConstant.TYPE_BYTE_ARRAY;
+import static org.apache.iotdb.parquet.ParquetConstant.TYPE_DOUBLE;
+import static org.apache.iotdb.parquet.ParquetConstant.TYPE_FIXED_LEN_BYTE_ARRAY;
+import static org.apache.iotdb.parquet.ParquetConstant.TYPE_FLOAT;
+import static org.apache.iotdb.parquet.ParquetConstant.TYPE_INT32;
+import static org.apache.iotdb.parquet.ParquetConstant.TYPE_INT64;
+import static org.apache.iotdb.parquet.ParquetConstant.TYPE_INT96;
+
+/**
+ * A leaf column of a flat Parquet schema and the {@link TSDataType} it is mapped to. TIMESTAMP
+ * columns carry the unit of their values, INT96 timestamps written by the legacy writers are read
+ * as nanoseconds.
+ */
+public class ParquetColumn {
+
+  private final String name;
+  private final TSDataType dataType;
+  private final boolean optional;
+  private final int physicalType;
+  private final int typeLength;
+  private final TimeUnit timeUnit;
+
+  private ParquetColumn(
+      final String name,
+      final TSDataType dataType,
+      final boolean optional,
+      final int physicalType,
+      final int typeLength,
+      final TimeUnit timeUnit) {
+    this.name = name;
+    this.dataType = dataType;
+    this.optional = optional;
+    this.physicalType = physicalType;
+    this.typeLength = typeLength;
+    this.timeUnit = timeUnit;
+  }
+
+  /**
+   * @param timeUnit the unit of the values if the data type is TIMESTAMP, ignored otherwise
+   */
+  public static ParquetColumn of(
+      final String name,
+      final TSDataType dataType,
+      final boolean optional,
+      final TimeUnit timeUnit)
+      throws IOException {
+    final int physicalType;
+    switch (dataType) {
+      case BOOLEAN:
+        physicalType = TYPE_BOOLEAN;
+        break;
+      case INT32:
+      case DATE:
+        physicalType = TYPE_INT32;
+        break;
+      case INT64:
+      case TIMESTAMP:
+        physicalType = TYPE_INT64;
+        break;
+      case FLOAT:
+        physicalType = TYPE_FLOAT;
+        break;
+      case DOUBLE:
+        physicalType = TYPE_DOUBLE;
+        break;
+      case TEXT:
+      case STRING:
+      case BLOB:
+        physicalType = TYPE_BYTE_ARRAY;
+        break;
+      default:
+        throw new IOException(
+            String.format(ParquetMessages.UNSUPPORTED_PARQUET_DATA_TYPE, name, dataType));
+    }
+    return new ParquetColumn(
+        name,
+        dataType,
+        optional,
+        physicalType,
+        0,
+        dataType == TSDataType.TIMESTAMP ? timeUnit : null);
+  }
+
+  /** Map a leaf of the file schema to a column, the logical type takes precedence. */
+  static ParquetColumn fromSchemaElement(
+      final String name,
+      final int physicalType,
+      final int typeLength,
+      final boolean optional,
+      final int convertedType,
+      final short logicalType,
+      final TimeUnit logicalTimeUnit)
+      throws IOException {
+    final TSDataType dataType;
+    TimeUnit timeUnit = null;
+    switch (physicalType) {
+      case TYPE_BOOLEAN:
+        dataType = TSDataType.BOOLEAN;
+        break;
+      case TYPE_INT32:
+        dataType =
+            logicalType == LOGICAL_TYPE_DATE || convertedType == CONVERTED_TYPE_DATE
+                ? TSDataType.DATE
+                : TSDataType.INT32;
+        break;
+      case TYPE_INT64:
+        if (logicalType == LOGICAL_TYPE_TIMESTAMP && logicalTimeUnit != null) {
+          timeUnit = logicalTimeUnit;
+        } else if (convertedType == CONVERTED_TYPE_TIMESTAMP_MILLIS) {
+          timeUnit = TimeUnit.MILLISECONDS;
+        } else if (convertedType == CONVERTED_TYPE_TIMESTAMP_MICROS) {
+          timeUnit = TimeUnit.MICROSECONDS;
+        }
+        dataType = timeUnit == null ? TSDataType.INT64 : TSDataType.TIMESTAMP;
+        break;
+      case TYPE_INT96:
+        dataType = TSDataType.TIMESTAMP;
+        timeUnit = TimeUnit.NANOSECONDS;
+        break;
+      case TYPE_FLOAT:
+        dataType = TSDataType.FLOAT;
+        break;
+      case TYPE_DOUBLE:
+        dataType = TSDataType.DOUBLE;
+        break;
+      case TYPE_BYTE_ARRAY:
+        dataType =
+            logicalType == LOGICAL_TYPE_STRING
+                    || logicalType == LOGICAL_TYPE_ENUM
+                    || logicalType == LOGICAL_TYPE_JSON
+                    || convertedType == CONVERTED_TYPE_UTF8
+                    || convertedType == CONVERTED_TYPE_ENUM
+                    || convertedType == CONVERTED_TYPE_JSON
+                ? TSDataType.STRING
+                : TSDataType.BLOB;
+        break;
+      case TYPE_FIXED_LEN_BYTE_ARRAY:
+        dataType = TSDataType.BLOB;
+        break;
+      default:
+        throw new IOException(
+            String.format(ParquetMessages.UNSUPPORTED_PARQUET_PHYSICAL_TYPE, name, physicalType));
+    }
+    return new ParquetColumn(name, dataType, optional, physicalType, typeLength, timeUnit);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  public boolean isOptional() {
+    return optional;
+  }
+
+  int getPhysicalType() {
+    return physicalType;
+  }
+
+  int getTypeLength() {
+    return typeLength;
+  }
+
+  /**
+   * @return the unit of the values of a TIMESTAMP column, null for the other types
+   */
+  public TimeUnit getTimeUnit() {
+    return timeUnit;
+  }
+
+  int getConvertedType() {
+    switch (dataType) {
+      case DATE:
+        return CONVERTED_TYPE_DATE;
+      case TEXT:
+      case STRING:
+        return CONVERTED_TYPE_UTF8;
+      case TIMESTAMP:
+        if (timeUnit == TimeUnit.MILLISECONDS) {
+          return CONVERTED_TYPE_TIMESTAMP_MILLIS;
+        }
+        return timeUnit == TimeUnit.MICROSECONDS
+            ? CONVERTED_TYPE_TIMESTAMP_MICROS
+            : CONVERTED_TYPE_NONE;
+      default:
+        return CONVERTED_TYPE_NONE;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ParquetColumn{"
+        + "name='"
+        + name
+        + "', dataType="
+        + dataType
+        + ", optional="
+        + optional
+        + ", timeUnit="
+        + timeUnit
+        + '}';
+  }
+}
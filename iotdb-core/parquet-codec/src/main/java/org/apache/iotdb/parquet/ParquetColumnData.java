@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.parquet;
+
+import org.apache.tsfile.utils.Binary;
+
+/**
+ * The decoded values of a column chunk. The values are kept in the array of the physical type:
+ * INT32 and DATE in ints, INT64 and TIMESTAMP (INT96 included) in longs, byte arrays in binaries.
+ */
+public class ParquetColumnData {
+
+  private final ParquetColumn column;
+  private final int size;
+
+  // null if there is no null value
+  private boolean[] isNull;
+
+  private boolean[] booleans;
+  private int[] ints;
+  private long[] longs;
+  private float[] floats;
+  private double[] doubles;
+  private Binary[] binaries;
+
+  ParquetColumnData(final ParquetColumn column, final int size) {
+    this.column = column;
+    this.size = size;
+    switch (column.getPhysicalType()) {
+      case ParquetConstant.TYPE_BOOLEAN:
+        booleans = new boolean[size];
+        break;
+      case ParquetConstant.TYPE_INT32:
+        ints = new int[size];
+        break;
+      case ParquetConstant.TYPE_INT64:
+      case ParquetConstant.TYPE_INT96:
+        longs = new long[size];
+        break;
+      case ParquetConstant.TYPE_FLOAT:
+        floats = new float[size];
+        break;
+      case ParquetConstant.TYPE_DOUBLE:
+        doubles = new double[size];
+        break;
+      default:
+        binaries = new Binary[size];
+        break;
+    }
+  }
+
+  public ParquetColumn getColumn() {
+    return column;
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public boolean isNull(final int index) {
+    return isNull != null && isNull[index];
+  }
+
+  public boolean getBoolean(final int index) {
+    return booleans[index];
+  }
+
+  public int getInt(final int index) {
+    return ints[index];
+  }
+
+  public long getLong(final int index) {
+    return longs[index];
+  }
+
+  public float getFloat(final int index) {
+    return floats[index];
+  }
+
+  public double getDouble(final int index) {
+    return doubles[index];
+  }
+
+  public Binary getBinary(final int index) {
+    return binaries[index];
+  }
+
+  void setNull(final int index) {
+    if (isNull == null) {
+      isNull = new boolean[size];
+    }
+    isNull[index] = true;
+  }
+
+  void setBoolean(final int index, final boolean value) {
+    booleans[index] = value;
+  }
+
+  void setInt(final int index, final int value) {
+    ints[index] = value;
+  }
+
+  void setLong(final int index, final long value) {
+    longs[index] = value;
+  }
+
+  void setFloat(final int index, final float value) {
+    floats[index] = value;
+  }
+
+  void setDouble(final int index, final double value) {
+    doubles[index] = value;
+  }
+
+  void setBinary(final int index, final Binary value) {
+    binaries[index] = value;
+  }
+
+  /** Copy a value of the dictionary, which is a column data of the same column. */
+  void copyFrom(final ParquetColumnData dictionary, final int dictionaryIndex, final int index) {
+    if (booleans != null) {
+      booleans[index] = dictionary.booleans[dictionaryIndex];
+    } else if (ints != null) {
+      ints[index] = dictionary.ints[dictionaryIndex];
+    } else if (longs != null) {
+      longs[index] = dictionary.longs[dictionaryIndex];
+    } else if (floats != null) {
+      floats[index] = dictionary.floats[dictionaryIndex];
+    } else if (doubles != null) {
+      doubles[index] = dictionary.doubles[dictionaryIndex];
+    } else {
+      binaries[index] = dictionary.binaries[dictionaryIndex];
+    }
+  }
+}
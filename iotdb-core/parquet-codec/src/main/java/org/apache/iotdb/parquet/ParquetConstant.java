@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.parquet;
+
+import org.apache.iotdb.parquet.i18n.ParquetMessages;
+
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/** Constants of the Apache Parquet file format, the values are the ones of parquet.thrift. */
+public class ParquetConstant {
+
+  public static final String FILE_SUFFIX = "parquet";
+
+  static final byte[] MAGIC = "PAR1".getBytes(StandardCharsets.US_ASCII);
+  static final int FORMAT_VERSION = 1;
+  static final String CREATED_BY = "Apache IoTDB";
+
+  // physical types
+  static final int TYPE_BOOLEAN = 0;
+  static final int TYPE_INT32 = 1;
+  static final int TYPE_INT64 = 2;
+  static final int TYPE_INT96 = 3;
+  static final int TYPE_FLOAT = 4;
+  static final int TYPE_DOUBLE = 5;
+  static final int TYPE_BYTE_ARRAY = 6;
+  static final int TYPE_FIXED_LEN_BYTE_ARRAY = 7;
+
+  // converted types, which are still written for the readers unaware of logical types
+  static final int CONVERTED_TYPE_NONE = -1;
+  static final int CONVERTED_TYPE_UTF8 = 0;
+  static final int CONVERTED_TYPE_ENUM = 4;
+  static final int CONVERTED_TYPE_DATE = 6;
+  static final int CONVERTED_TYPE_TIMESTAMP_MILLIS = 9;
+  static final int CONVERTED_TYPE_TIMESTAMP_MICROS = 10;
+  static final int CONVERTED_TYPE_JSON = 19;
+
+  // field ids of the LogicalType union
+  static final short LOGICAL_TYPE_STRING = 1;
+  static final short LOGICAL_TYPE_ENUM = 4;
+  static final short LOGICAL_TYPE_DATE = 6;
+  static final short LOGICAL_TYPE_TIMESTAMP = 8;
+  static final short LOGICAL_TYPE_JSON = 12;
+
+  // field ids of the TimeUnit union
+  static final short TIME_UNIT_MILLIS = 1;
+  static final short TIME_UNIT_MICROS = 2;
+  static final short TIME_UNIT_NANOS = 3;
+
+  // field repetition types
+  static final int REPETITION_REQUIRED = 0;
+  static final int REPETITION_OPTIONAL = 1;
+
+  // encodings
+  static final int ENCODING_PLAIN = 0;
+  static final int ENCODING_PLAIN_DICTIONARY = 2;
+  static final int ENCODING_RLE = 3;
+  static final int ENCODING_RLE_DICTIONARY = 8;
+
+  // page types
+  static final int PAGE_TYPE_DATA_PAGE = 0;
+  static final int PAGE_TYPE_DICTIONARY_PAGE = 2;
+  static final int PAGE_TYPE_DATA_PAGE_V2 = 3;
+
+  // compression codecs
+  static final int CODEC_UNCOMPRESSED = 0;
+  static final int CODEC_SNAPPY = 1;
+  static final int CODEC_GZIP = 2;
+  static final int CODEC_ZSTD = 6;
+  static final int CODEC_LZ4_RAW = 7;
+
+  private ParquetConstant() {
+    // constant class
+  }
+
+  /**
+   * Map a TsFile compression type to the Parquet codec with the same block format. The LZ4 of
+   * TsFile is the raw LZ4 block format, which is LZ4_RAW instead of the Hadoop framed LZ4 in
+   * Parquet.
+   */
+  static int toParquetCodec(final CompressionType compressionType) throws IOException {
+    switch (compressionType) {
+      case UNCOMPRESSED:
+        return CODEC_UNCOMPRESSED;
+      case SNAPPY:
+        return CODEC_SNAPPY;
+      case GZIP:
+        return CODEC_GZIP;
+      case ZSTD:
+        return CODEC_ZSTD;
+      case LZ4:
+        return CODEC_LZ4_RAW;
+      default:
+        throw new IOException(
+            String.format(ParquetMessages.UNSUPPORTED_PARQUET_COMPRESSION_TYPE, compressionType));
+    }
+  }
+
+  static CompressionType fromParquetCodec(final int codec) throws IOException {
+    switch (codec) {
+      case CODEC_UNCOMPRESSED:
+        return CompressionType.UNCOMPRESSED;
+      case CODEC_SNAPPY:
+        return CompressionType.SNAPPY;
+      case CODEC_GZIP:
+        return CompressionType.GZIP;
+      case CODEC_ZSTD:
+        return CompressionType.ZSTD;
+      case CODEC_LZ4_RAW:
+        return CompressionType.LZ4;
+      default:
+        throw new IOException(String.format(ParquetMessages.UNSUPPORTED_PARQUET_CODEC, codec));
+    }
+  }
+}
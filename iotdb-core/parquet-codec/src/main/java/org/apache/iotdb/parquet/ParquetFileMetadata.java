@@ -0,0 +1,783 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.parquet;
+
+import org.apache.iotdb.parquet.i18n.ParquetMessages;
+
+import org.apache.thrift.TConfiguration;
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.apache.thrift.protocol.TField;
+import org.apache.thrift.protocol.TList;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.protocol.TProtocolUtil;
+import org.apache.thrift.protocol.TStruct;
+import org.apache.thrift.protocol.TType;
+import org.apache.thrift.transport.TIOStreamTransport;
+import org.apache.thrift.transport.TMemoryInputTransport;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.iotdb.parquet.ParquetConstant.CONVERTED_TYPE_NONE;
+import static org.apache.iotdb.parquet.ParquetConstant.CREATED_BY;
+import static org.apache.iotdb.parquet.ParquetConstant.FORMAT_VERSION;
+import static org.apache.iotdb.parquet.ParquetConstant.LOGICAL_TYPE_DATE;
+import static org.apache.iotdb.parquet.ParquetConstant.LOGICAL_TYPE_STRING;
+import static org.apache.iotdb.parquet.ParquetConstant.LOGICAL_TYPE_TIMESTAMP;
+import static org.apache.iotdb.parquet.ParquetConstant.REPETITION_OPTIONAL;
+import static org.apache.iotdb.parquet.ParquetConstant.REPETITION_REQUIRED;
+import static org.apache.iotdb.parquet.ParquetConstant.TIME_UNIT_MICROS;
+import static org.apache.iotdb.parquet.ParquetConstant.TIME_UNIT_MILLIS;
+import static org.apache.iotdb.parquet.ParquetConstant.TIME_UNIT_NANOS;
+
+/**
+ * The footer (FileMetaData) of a Parquet file, (de)serialized with the thrift compact protocol.
+ * Only the fields needed for flat schemas are kept, the others are skipped when reading.
+ */
+public class ParquetFileMetadata {
+
+  private static final TStruct EMPTY_STRUCT = new TStruct("");
+
+  // the footer and the page headers are small, but the column chunk they are parsed from may not
+  private static final TConfiguration THRIFT_CONFIGURATION =
+      new TConfiguration(
+          Integer.MAX_VALUE,
+          TConfiguration.DEFAULT_MAX_FRAME_SIZE,
+          TConfiguration.DEFAULT_RECURSION_DEPTH);
+
+  private final List<ParquetColumn> columns;
+  private final List<RowGroupMetadata> rowGroups;
+
+  ParquetFileMetadata(final List<ParquetColumn> columns, final List<RowGroupMetadata> rowGroups) {
+    this.columns = columns;
+    this.rowGroups = rowGroups;
+  }
+
+  public List<ParquetColumn> getColumns() {
+    return columns;
+  }
+
+  public List<RowGroupMetadata> getRowGroups() {
+    return rowGroups;
+  }
+
+  public long getRowCount() {
+    long rowCount = 0;
+    for (final RowGroupMetadata rowGroup : rowGroups) {
+      rowCount += rowGroup.rowCount;
+    }
+    return rowCount;
+  }
+
+  /////////////////////////////// serialize ///////////////////////////////
+
+  void serialize(final OutputStream outputStream) throws IOException {
+    try {
+      final TProtocol protocol = new TCompactProtocol(new TIOStreamTransport(outputStream));
+      protocol.writeStructBegin(EMPTY_STRUCT);
+      writeI32Field(protocol, 1, FORMAT_VERSION);
+
+      protocol.writeFieldBegin(new TField("", TType.LIST, (short) 2));
+      protocol.writeListBegin(new TList(TType.STRUCT, columns.size() + 1));
+      // the root of the schema
+      protocol.writeStructBegin(EMPTY_STRUCT);
+      writeStringField(protocol, 4, "schema");
+      writeI32Field(protocol, 5, columns.size());
+      writeStructEnd(protocol);
+      for (final ParquetColumn column : columns) {
+        writeSchemaElement(protocol, column);
+      }
+      protocol.writeListEnd();
+      protocol.writeFieldEnd();
+
+      writeI64Field(protocol, 3, getRowCount());
+
+      protocol.writeFieldBegin(new TField("", TType.LIST, (short) 4));
+      protocol.writeListBegin(new TList(TType.STRUCT, rowGroups.size()));
+      for (final RowGroupMetadata rowGroup : rowGroups) {
+        rowGroup.serialize(protocol);
+      }
+      protocol.writeListEnd();
+      protocol.writeFieldEnd();
+
+      writeStringField(protocol, 6, CREATED_BY);
+
+      // column orders, the min/max statistics are written in the order defined by the type
+      protocol.writeFieldBegin(new TField("", TType.LIST, (short) 7));
+      protocol.writeListBegin(new TList(TType.STRUCT, columns.size()));
+      for (int i = 0; i < columns.size(); i++) {
+        protocol.writeStructBegin(EMPTY_STRUCT);
+        writeEmptyStructField(protocol, 1);
+        writeStructEnd(protocol);
+      }
+      protocol.writeListEnd();
+      protocol.writeFieldEnd();
+
+      writeStructEnd(protocol);
+    } catch (final TException e) {
+      throw new IOException(e);
+    }
+  }
+
+  private static void writeSchemaElement(final TProtocol protocol, final ParquetColumn column)
+      throws TException {
+    protocol.writeStructBegin(EMPTY_STRUCT);
+    writeI32Field(protocol, 1, column.getPhysicalType());
+    writeI32Field(
+        protocol, 3, column.isOptional() ? REPETITION_OPTIONAL : REPETITION_REQUIRED);
+    writeStringField(protocol, 4, column.getName());
+    if (column.getConvertedType() != CONVERTED_TYPE_NONE) {
+      writeI32Field(protocol, 6, column.getConvertedType());
+    }
+    switch (column.getDataType()) {
+      case TEXT:
+      case STRING:
+        protocol.writeFieldBegin(new TField("", TType.STRUCT, (short) 10));
+        protocol.writeStructBegin(EMPTY_STRUCT);
+        writeEmptyStructField(protocol, LOGICAL_TYPE_STRING);
+        writeStructEnd(protocol);
+        protocol.writeFieldEnd();
+        break;
+      case DATE:
+        protocol.writeFieldBegin(new TField("", TType.STRUCT, (short) 10));
+        protocol.writeStructBegin(EMPTY_STRUCT);
+        writeEmptyStructField(protocol, LOGICAL_TYPE_DATE);
+        writeStructEnd(protocol);
+        protocol.writeFieldEnd();
+        break;
+      case TIMESTAMP:
+        protocol.writeFieldBegin(new TField("", TType.STRUCT, (short) 10));
+        protocol.writeStructBegin(EMPTY_STRUCT);
+        protocol.writeFieldBegin(new TField("", TType.STRUCT, LOGICAL_TYPE_TIMESTAMP));
+        protocol.writeStructBegin(EMPTY_STRUCT);
+        writeBoolField(protocol, 1, true);
+        protocol.writeFieldBegin(new TField("", TType.STRUCT, (short) 2));
+        protocol.writeStructBegin(EMPTY_STRUCT);
+        writeEmptyStructField(protocol, toParquetTimeUnit(column.getTimeUnit()));
+        writeStructEnd(protocol);
+        protocol.writeFieldEnd();
+        writeStructEnd(protocol);
+        protocol.writeFieldEnd();
+        writeStructEnd(protocol);
+        protocol.writeFieldEnd();
+        break;
+      default:
+        break;
+    }
+    writeStructEnd(protocol);
+  }
+
+  private static short toParquetTimeUnit(final TimeUnit timeUnit) {
+    if (timeUnit == TimeUnit.MILLISECONDS) {
+      return TIME_UNIT_MILLIS;
+    }
+    return timeUnit == TimeUnit.MICROSECONDS ? TIME_UNIT_MICROS : TIME_UNIT_NANOS;
+  }
+
+  static void writeI32Field(final TProtocol protocol, final int id, final int value)
+      throws TException {
+    protocol.writeFieldBegin(new TField("", TType.I32, (short) id));
+    protocol.writeI32(value);
+    protocol.writeFieldEnd();
+  }
+
+  static void writeI64Field(final TProtocol protocol, final int id, final long value)
+      throws TException {
+    protocol.writeFieldBegin(new TField("", TType.I64, (short) id));
+    protocol.writeI64(value);
+    protocol.writeFieldEnd();
+  }
+
+  static void writeBoolField(final TProtocol protocol, final int id, final boolean value)
+      throws TException {
+    protocol.writeFieldBegin(new TField("", TType.BOOL, (short) id));
+    protocol.writeBool(value);
+    protocol.writeFieldEnd();
+  }
+
+  static void writeStringField(final TProtocol protocol, final int id, final String value)
+      throws TException {
+    protocol.writeFieldBegin(new TField("", TType.STRING, (short) id));
+    protocol.writeString(value);
+    protocol.writeFieldEnd();
+  }
+
+  static void writeBinaryField(final TProtocol protocol, final int id, final byte[] value)
+      throws TException {
+    protocol.writeFieldBegin(new TField("", TType.STRING, (short) id));
+    protocol.writeBinary(ByteBuffer.wrap(value));
+    protocol.writeFieldEnd();
+  }
+
+  static void writeEmptyStructField(final TProtocol protocol, final int id) throws TException {
+    protocol.writeFieldBegin(new TField("", TType.STRUCT, (short) id));
+    protocol.writeStructBegin(EMPTY_STRUCT);
+    writeStructEnd(protocol);
+    protocol.writeFieldEnd();
+  }
+
+  static void writeStructEnd(final TProtocol protocol) throws TException {
+    protocol.writeFieldStop();
+    protocol.writeStructEnd();
+  }
+
+  /////////////////////////////// deserialize ///////////////////////////////
+
+  static TMemoryInputTransport newInputTransport(
+      final byte[] buffer, final int offset, final int length) throws IOException {
+    try {
+      return new TMemoryInputTransport(THRIFT_CONFIGURATION, buffer, offset, length);
+    } catch (final TException e) {
+      throw new IOException(e);
+    }
+  }
+
+  static ParquetFileMetadata deserialize(final byte[] buffer) throws IOException {
+    final TProtocol protocol =
+        new TCompactProtocol(newInputTransport(buffer, 0, buffer.length));
+    final List<ParquetColumn> columns = new ArrayList<>();
+    final List<RowGroupMetadata> rowGroups = new ArrayList<>();
+    try {
+      protocol.readStructBegin();
+      while (true) {
+        final TField field = protocol.readFieldBegin();
+        if (field.type == TType.STOP) {
+          break;
+        }
+        if (field.id == 2 && field.type == TType.LIST) {
+          final TList list = protocol.readListBegin();
+          for (int i = 0; i < list.size; i++) {
+            final ParquetColumn column = readSchemaElement(protocol, i == 0);
+            if (column != null) {
+              columns.add(column);
+            }
+          }
+          protocol.readListEnd();
+        } else if (field.id == 4 && field.type == TType.LIST) {
+          final TList list = protocol.readListBegin();
+          for (int i = 0; i < list.size; i++) {
+            rowGroups.add(RowGroupMetadata.deserialize(protocol));
+          }
+          protocol.readListEnd();
+        } else {
+          TProtocolUtil.skip(protocol, field.type);
+        }
+        protocol.readFieldEnd();
+      }
+      protocol.readStructEnd();
+    } catch (final TException e) {
+      throw new IOException(e);
+    }
+    for (final RowGroupMetadata rowGroup : rowGroups) {
+      if (rowGroup.columnChunks.size() != columns.size()) {
+        throw new IOException(ParquetMessages.CORRUPTED_PARQUET_FOOTER);
+      }
+    }
+    return new ParquetFileMetadata(columns, rowGroups);
+  }
+
+  /**
+   * @return null for the root of the schema
+   */
+  private static ParquetColumn readSchemaElement(final TProtocol protocol, final boolean isRoot)
+      throws TException, IOException {
+    int physicalType = -1;
+    int typeLength = 0;
+    int repetition = REPETITION_REQUIRED;
+    String name = null;
+    int numChildren = 0;
+    int convertedType = CONVERTED_TYPE_NONE;
+    short logicalType = 0;
+    TimeUnit logicalTimeUnit = null;
+
+    protocol.readStructBegin();
+    while (true) {
+      final TField field = protocol.readFieldBegin();
+      if (field.type == TType.STOP) {
+        break;
+      }
+      switch (field.id) {
+        case 1:
+          physicalType = protocol.readI32();
+          break;
+        case 2:
+          typeLength = protocol.readI32();
+          break;
+        case 3:
+          repetition = protocol.readI32();
+          break;
+        case 4:
+          name = protocol.readString();
+          break;
+        case 5:
+          numChildren = protocol.readI32();
+          break;
+        case 6:
+          convertedType = protocol.readI32();
+          break;
+        case 10:
+          // LogicalType is a union, the id of the only field is the kind of the type
+          protocol.readStructBegin();
+          while (true) {
+            final TField typeField = protocol.readFieldBegin();
+            if (typeField.type == TType.STOP) {
+              break;
+            }
+            logicalType = typeField.id;
+            if (typeField.id == LOGICAL_TYPE_TIMESTAMP) {
+              logicalTimeUnit = readTimestampUnit(protocol);
+            } else {
+              TProtocolUtil.skip(protocol, typeField.type);
+            }
+            protocol.readFieldEnd();
+          }
+          protocol.readStructEnd();
+          break;
+        default:
+          TProtocolUtil.skip(protocol, field.type);
+          break;
+      }
+      protocol.readFieldEnd();
+    }
+    protocol.readStructEnd();
+
+    if (isRoot) {
+      return null;
+    }
+    if (numChildren > 0
+        || (repetition != REPETITION_REQUIRED && repetition != REPETITION_OPTIONAL)) {
+      throw new IOException(String.format(ParquetMessages.UNSUPPORTED_NESTED_PARQUET_COLUMN, name));
+    }
+    return ParquetColumn.fromSchemaElement(
+        name,
+        physicalType,
+        typeLength,
+        repetition == REPETITION_OPTIONAL,
+        convertedType,
+        logicalType,
+        logicalTimeUnit);
+  }
+
+  private static TimeUnit readTimestampUnit(final TProtocol protocol) throws TException {
+    TimeUnit timeUnit = null;
+    protocol.readStructBegin();
+    while (true) {
+      final TField field = protocol.readFieldBegin();
+      if (field.type == TType.STOP) {
+        break;
+      }
+      if (field.id == 2 && field.type == TType.STRUCT) {
+        protocol.readStructBegin();
+        while (true) {
+          final TField unitField = protocol.readFieldBegin();
+          if (unitField.type == TType.STOP) {
+            break;
+          }
+          if (unitField.id == TIME_UNIT_MILLIS) {
+            timeUnit = TimeUnit.MILLISECONDS;
+          } else if (unitField.id == TIME_UNIT_MICROS) {
+            timeUnit = TimeUnit.MICROSECONDS;
+          } else if (unitField.id == TIME_UNIT_NANOS) {
+            timeUnit = TimeUnit.NANOSECONDS;
+          }
+          TProtocolUtil.skip(protocol, unitField.type);
+          protocol.readFieldEnd();
+        }
+        protocol.readStructEnd();
+      } else {
+        TProtocolUtil.skip(protocol, field.type);
+      }
+      protocol.readFieldEnd();
+    }
+    protocol.readStructEnd();
+    return timeUnit;
+  }
+
+  /////////////////////////////// row group ///////////////////////////////
+
+  /** The metadata of a row group, the column chunks are in the order of the schema. */
+  public static class RowGroupMetadata {
+
+    private final long rowCount;
+    private final List<ColumnChunkMetadata> columnChunks;
+
+    RowGroupMetadata(final long rowCount, final List<ColumnChunkMetadata> columnChunks) {
+      this.rowCount = rowCount;
+      this.columnChunks = columnChunks;
+    }
+
+    public long getRowCount() {
+      return rowCount;
+    }
+
+    public ColumnChunkMetadata getColumnChunk(final int columnIndex) {
+      return columnChunks.get(columnIndex);
+    }
+
+    private void serialize(final TProtocol protocol) throws TException {
+      long totalUncompressedSize = 0;
+      long totalCompressedSize = 0;
+      for (final ColumnChunkMetadata columnChunk : columnChunks) {
+        totalUncompressedSize += columnChunk.totalUncompressedSize;
+        totalCompressedSize += columnChunk.totalCompressedSize;
+      }
+
+      protocol.writeStructBegin(EMPTY_STRUCT);
+      protocol.writeFieldBegin(new TField("", TType.LIST, (short) 1));
+      protocol.writeListBegin(new TList(TType.STRUCT, columnChunks.size()));
+      for (final ColumnChunkMetadata columnChunk : columnChunks) {
+        columnChunk.serialize(protocol);
+      }
+      protocol.writeListEnd();
+      protocol.writeFieldEnd();
+      writeI64Field(protocol, 2, totalUncompressedSize);
+      writeI64Field(protocol, 3, rowCount);
+      if (!columnChunks.isEmpty()) {
+        writeI64Field(protocol, 5, columnChunks.get(0).getStartOffset());
+      }
+      writeI64Field(protocol, 6, totalCompressedSize);
+      writeStructEnd(protocol);
+    }
+
+    private static RowGroupMetadata deserialize(final TProtocol protocol)
+        throws TException, IOException {
+      long rowCount = 0;
+      List<ColumnChunkMetadata> columnChunks = Collections.emptyList();
+      protocol.readStructBegin();
+      while (true) {
+        final TField field = protocol.readFieldBegin();
+        if (field.type == TType.STOP) {
+          break;
+        }
+        if (field.id == 1 && field.type == TType.LIST) {
+          final TList list = protocol.readListBegin();
+          columnChunks = new ArrayList<>(list.size);
+          for (int i = 0; i < list.size; i++) {
+            columnChunks.add(ColumnChunkMetadata.deserialize(protocol));
+          }
+          protocol.readListEnd();
+        } else if (field.id == 3) {
+          rowCount = protocol.readI64();
+        } else {
+          TProtocolUtil.skip(protocol, field.type);
+        }
+        protocol.readFieldEnd();
+      }
+      protocol.readStructEnd();
+      return new RowGroupMetadata(rowCount, columnChunks);
+    }
+  }
+
+  /////////////////////////////// column chunk ///////////////////////////////
+
+  /**
+   * The metadata of a column chunk. The statistics are the PLAIN encoded min/max values, null if
+   * they are absent.
+   */
+  public static class ColumnChunkMetadata {
+
+    private final int physicalType;
+    private final List<Integer> encodings;
+    private final String path;
+    private final int codec;
+    private final long valueCount;
+    private final long totalUncompressedSize;
+    private final long totalCompressedSize;
+    private final long dataPageOffset;
+    private final long dictionaryPageOffset;
+    private final long nullCount;
+    private final byte[] minValue;
+    private final byte[] maxValue;
+
+    @SuppressWarnings("squid:S107")
+    ColumnChunkMetadata(
+        final int physicalType,
+        final List<Integer> encodings,
+        final String path,
+        final int codec,
+        final long valueCount,
+        final long totalUncompressedSize,
+        final long totalCompressedSize,
+        final long dataPageOffset,
+        final long dictionaryPageOffset,
+        final long nullCount,
+        final byte[] minValue,
+        final byte[] maxValue) {
+      this.physicalType = physicalType;
+      this.encodings = encodings;
+      this.path = path;
+      this.codec = codec;
+      this.valueCount = valueCount;
+      this.totalUncompressedSize = totalUncompressedSize;
+      this.totalCompressedSize = totalCompressedSize;
+      this.dataPageOffset = dataPageOffset;
+      this.dictionaryPageOffset = dictionaryPageOffset;
+      this.nullCount = nullCount;
+      this.minValue = minValue;
+      this.maxValue = maxValue;
+    }
+
+    int getCodec() {
+      return codec;
+    }
+
+    public long getValueCount() {
+      return valueCount;
+    }
+
+    /** The offset of the first page, which is the dictionary page if there is one. */
+    long getStartOffset() {
+      // some writers set the dictionary page offset to 0 when there is no dictionary page
+      return dictionaryPageOffset > 0 && dictionaryPageOffset < dataPageOffset
+          ? dictionaryPageOffset
+          : dataPageOffset;
+    }
+
+    long getTotalCompressedSize() {
+      return totalCompressedSize;
+    }
+
+    /**
+     * @return the number of nulls, -1 if unknown
+     */
+    public long getNullCount() {
+      return nullCount;
+    }
+
+    public byte[] getMinValue() {
+      return minValue;
+    }
+
+    public byte[] getMaxValue() {
+      return maxValue;
+    }
+
+    private void serialize(final TProtocol protocol) throws TException {
+      protocol.writeStructBegin(EMPTY_STRUCT);
+      writeI64Field(protocol, 2, dataPageOffset);
+      protocol.writeFieldBegin(new TField("", TType.STRUCT, (short) 3));
+
+      protocol.writeStructBegin(EMPTY_STRUCT);
+      writeI32Field(protocol, 1, physicalType);
+      protocol.writeFieldBegin(new TField("", TType.LIST, (short) 2));
+      protocol.writeListBegin(new TList(TType.I32, encodings.size()));
+      for (final int encoding : encodings) {
+        protocol.writeI32(encoding);
+      }
+      protocol.writeListEnd();
+      protocol.writeFieldEnd();
+      protocol.writeFieldBegin(new TField("", TType.LIST, (short) 3));
+      protocol.writeListBegin(new TList(TType.STRING, 1));
+      protocol.writeString(path);
+      protocol.writeListEnd();
+      protocol.writeFieldEnd();
+      writeI32Field(protocol, 4, codec);
+      writeI64Field(protocol, 5, valueCount);
+      writeI64Field(protocol, 6, totalUncompressedSize);
+      writeI64Field(protocol, 7, totalCompressedSize);
+      writeI64Field(protocol, 9, dataPageOffset);
+      if (dictionaryPageOffset > 0) {
+        writeI64Field(protocol, 11, dictionaryPageOffset);
+      }
+      protocol.writeFieldBegin(new TField("", TType.STRUCT, (short) 12));
+      protocol.writeStructBegin(EMPTY_STRUCT);
+      writeI64Field(protocol, 3, nullCount);
+      if (maxValue != null && minValue != null) {
+        writeBinaryField(protocol, 5, maxValue);
+        writeBinaryField(protocol, 6, minValue);
+      }
+      writeStructEnd(protocol);
+      protocol.writeFieldEnd();
+      writeStructEnd(protocol);
+
+      protocol.writeFieldEnd();
+      writeStructEnd(protocol);
+    }
+
+    private static ColumnChunkMetadata deserialize(final TProtocol protocol)
+        throws TException, IOException {
+      ColumnChunkMetadata metadata = null;
+      protocol.readStructBegin();
+      while (true) {
+        final TField field = protocol.readFieldBegin();
+        if (field.type == TType.STOP) {
+          break;
+        }
+        if (field.id == 1 && field.type == TType.STRING) {
+          throw new IOException(
+              String.format(
+                  ParquetMessages.UNSUPPORTED_EXTERNAL_PARQUET_COLUMN_CHUNK,
+                  protocol.readString()));
+        } else if (field.id == 3 && field.type == TType.STRUCT) {
+          metadata = deserializeColumnMetaData(protocol);
+        } else {
+          TProtocolUtil.skip(protocol, field.type);
+        }
+        protocol.readFieldEnd();
+      }
+      protocol.readStructEnd();
+      if (metadata == null) {
+        throw new IOException(ParquetMessages.CORRUPTED_PARQUET_FOOTER);
+      }
+      return metadata;
+    }
+
+    private static ColumnChunkMetadata deserializeColumnMetaData(final TProtocol protocol)
+        throws TException {
+      int physicalType = -1;
+      final List<Integer> encodings = new ArrayList<>();
+      final StringBuilder path = new StringBuilder();
+      int codec = 0;
+      long valueCount = 0;
+      long totalUncompressedSize = 0;
+      long totalCompressedSize = 0;
+      long dataPageOffset = 0;
+      long dictionaryPageOffset = -1;
+      long nullCount = -1;
+      byte[] deprecatedMin = null;
+      byte[] deprecatedMax = null;
+      byte[] minValue = null;
+      byte[] maxValue = null;
+
+      protocol.readStructBegin();
+      while (true) {
+        final TField field = protocol.readFieldBegin();
+        if (field.type == TType.STOP) {
+          break;
+        }
+        switch (field.id) {
+          case 1:
+            physicalType = protocol.readI32();
+            break;
+          case 2:
+            {
+              final TList list = protocol.readListBegin();
+              for (int i = 0; i < list.size; i++) {
+                encodings.add(protocol.readI32());
+              }
+              protocol.readListEnd();
+              break;
+            }
+          case 3:
+            {
+              final TList list = protocol.readListBegin();
+              for (int i = 0; i < list.size; i++) {
+                if (i > 0) {
+                  path.append('.');
+                }
+                path.append(protocol.readString());
+              }
+              protocol.readListEnd();
+              break;
+            }
+          case 4:
+            codec = protocol.readI32();
+            break;
+          case 5:
+            valueCount = protocol.readI64();
+            break;
+          case 6:
+            totalUncompressedSize = protocol.readI64();
+            break;
+          case 7:
+            totalCompressedSize = protocol.readI64();
+            break;
+          case 9:
+            dataPageOffset = protocol.readI64();
+            break;
+          case 11:
+            dictionaryPageOffset = protocol.readI64();
+            break;
+          case 12:
+            protocol.readStructBegin();
+            while (true) {
+              final TField statisticsField = protocol.readFieldBegin();
+              if (statisticsField.type == TType.STOP) {
+                break;
+              }
+              switch (statisticsField.id) {
+                case 1:
+                  deprecatedMax = readBytes(protocol);
+                  break;
+                case 2:
+                  deprecatedMin = readBytes(protocol);
+                  break;
+                case 3:
+                  nullCount = protocol.readI64();
+                  break;
+                case 5:
+                  maxValue = readBytes(protocol);
+                  break;
+                case 6:
+                  minValue = readBytes(protocol);
+                  break;
+                default:
+                  TProtocolUtil.skip(protocol, statisticsField.type);
+                  break;
+              }
+              protocol.readFieldEnd();
+            }
+            protocol.readStructEnd();
+            break;
+          default:
+            TProtocolUtil.skip(protocol, field.type);
+            break;
+        }
+        protocol.readFieldEnd();
+      }
+      protocol.readStructEnd();
+
+      // the deprecated min/max were written in the signed order, which is only right for the
+      // numeric types
+      if ((minValue == null || maxValue == null)
+          && physicalType != ParquetConstant.TYPE_BYTE_ARRAY
+          && physicalType != ParquetConstant.TYPE_FIXED_LEN_BYTE_ARRAY) {
+        minValue = deprecatedMin;
+        maxValue = deprecatedMax;
+      }
+      return new ColumnChunkMetadata(
+          physicalType,
+          encodings,
+          path.toString(),
+          codec,
+          valueCount,
+          totalUncompressedSize,
+          totalCompressedSize,
+          dataPageOffset,
+          dictionaryPageOffset,
+          nullCount,
+          minValue,
+          maxValue);
+    }
+
+    private static byte[] readBytes(final TProtocol protocol) throws TException {
+      final ByteBuffer buffer = protocol.readBinary();
+      final byte[] bytes = new byte[buffer.remaining()];
+      buffer.get(bytes);
+      return bytes;
+    }
+  }
+}
@@ -0,0 +1,493 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.parquet;
+
+import org.apache.iotdb.parquet.ParquetFileMetadata.ColumnChunkMetadata;
+import org.apache.iotdb.parquet.ParquetFileMetadata.RowGroupMetadata;
+import org.apache.iotdb.parquet.i18n.ParquetMessages;
+
+import org.apache.tsfile.compress.IUnCompressor;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.utils.Binary;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.iotdb.parquet.ParquetConstant.ENCODING_PLAIN;
+import static org.apache.iotdb.parquet.ParquetConstant.ENCODING_PLAIN_DICTIONARY;
+import static org.apache.iotdb.parquet.ParquetConstant.ENCODING_RLE;
+import static org.apache.iotdb.parquet.ParquetConstant.ENCODING_RLE_DICTIONARY;
+import static org.apache.iotdb.parquet.ParquetConstant.MAGIC;
+import static org.apache.iotdb.parquet.ParquetConstant.TYPE_BOOLEAN;
+import static org.apache.iotdb.parquet.ParquetConstant.TYPE_BYTE_ARRAY;
+import static org.apache.iotdb.parquet.ParquetConstant.TYPE_DOUBLE;
+import static org.apache.iotdb.parquet.ParquetConstant.TYPE_FLOAT;
+import static org.apache.iotdb.parquet.ParquetConstant.TYPE_INT32;
+import static org.apache.iotdb.parquet.ParquetConstant.TYPE_INT64;
+import static org.apache.iotdb.parquet.ParquetConstant.TYPE_INT96;
+
+/**
+ * Reads a Parquet file of a flat schema row group by row group. Only the projected columns of a
+ * row group are read and decoded, and the row groups can be skipped by the min/max statistics of
+ * their column chunks before being read.
+ *
+ * <p>Data pages of both versions are supported, with the PLAIN and the dictionary encodings of the
+ * values, and all the codecs that TsFile also has (UNCOMPRESSED, SNAPPY, GZIP, ZSTD and LZ4_RAW).
+ */
+public class ParquetFileReader implements AutoCloseable {
+
+  private static final int FOOTER_TAIL_SIZE = Integer.BYTES + 4;
+
+  // days from the julian day 0 to 1970-01-01, used by the INT96 timestamps
+  private static final long JULIAN_DAY_OF_EPOCH = 2_440_588L;
+
+  private final File file;
+  private final RandomAccessFile input;
+  private final ParquetFileMetadata metadata;
+
+  public ParquetFileReader(final File file) throws IOException {
+    this.file = file;
+    this.input = new RandomAccessFile(file, "r");
+    try {
+      this.metadata = readMetadata();
+    } catch (final IOException e) {
+      input.close();
+      throw e;
+    }
+  }
+
+  private ParquetFileMetadata readMetadata() throws IOException {
+    final long fileLength = input.length();
+    if (fileLength < MAGIC.length + FOOTER_TAIL_SIZE) {
+      throw new IOException(String.format(ParquetMessages.NOT_A_PARQUET_FILE, file));
+    }
+    final byte[] tail = new byte[FOOTER_TAIL_SIZE];
+    input.seek(fileLength - FOOTER_TAIL_SIZE);
+    input.readFully(tail);
+    if (!Arrays.equals(Arrays.copyOfRange(tail, Integer.BYTES, tail.length), MAGIC)) {
+      throw new IOException(String.format(ParquetMessages.NOT_A_PARQUET_FILE, file));
+    }
+    final int footerLength = readIntLittleEndian(tail, 0);
+    if (footerLength <= 0 || footerLength > fileLength - MAGIC.length - FOOTER_TAIL_SIZE) {
+      throw new IOException(ParquetMessages.CORRUPTED_PARQUET_FOOTER);
+    }
+    final byte[] footer = new byte[footerLength];
+    input.seek(fileLength - FOOTER_TAIL_SIZE - footerLength);
+    input.readFully(footer);
+    return ParquetFileMetadata.deserialize(footer);
+  }
+
+  public List<ParquetColumn> getColumns() {
+    return metadata.getColumns();
+  }
+
+  public int getRowGroupCount() {
+    return metadata.getRowGroups().size();
+  }
+
+  public long getRowCount() {
+    return metadata.getRowCount();
+  }
+
+  /**
+   * Whether the INT64 or TIMESTAMP column of the row group may have values in [minValue,
+   * maxValue], according to the statistics of the column chunk. The values are in the unit of the
+   * column.
+   */
+  public boolean mayOverlap(
+      final int rowGroupIndex, final int columnIndex, final long minValue, final long maxValue) {
+    if (metadata.getColumns().get(columnIndex).getPhysicalType() != TYPE_INT64) {
+      return true;
+    }
+    final ColumnChunkMetadata columnChunk =
+        metadata.getRowGroups().get(rowGroupIndex).getColumnChunk(columnIndex);
+    final byte[] min = columnChunk.getMinValue();
+    final byte[] max = columnChunk.getMaxValue();
+    if (min == null || max == null || min.length != Long.BYTES || max.length != Long.BYTES) {
+      return true;
+    }
+    return readLongLittleEndian(min, 0) <= maxValue && readLongLittleEndian(max, 0) >= minValue;
+  }
+
+  /**
+   * Read and decode the column chunks of the given columns in a row group.
+   *
+   * @return the decoded column chunks, in the order of the given column indexes
+   */
+  public ParquetColumnData[] readRowGroup(final int rowGroupIndex, final int[] columnIndexes)
+      throws IOException {
+    final RowGroupMetadata rowGroup = metadata.getRowGroups().get(rowGroupIndex);
+    final ParquetColumnData[] result = new ParquetColumnData[columnIndexes.length];
+    for (int i = 0; i < columnIndexes.length; i++) {
+      result[i] =
+          readColumnChunk(
+              metadata.getColumns().get(columnIndexes[i]),
+              rowGroup.getColumnChunk(columnIndexes[i]),
+              (int) rowGroup.getRowCount());
+    }
+    return result;
+  }
+
+  private ParquetColumnData readColumnChunk(
+      final ParquetColumn column, final ColumnChunkMetadata columnChunk, final int rowCount)
+      throws IOException {
+    final byte[] chunk = new byte[(int) columnChunk.getTotalCompressedSize()];
+    input.seek(columnChunk.getStartOffset());
+    input.readFully(chunk);
+
+    final CompressionType compressionType =
+        ParquetConstant.fromParquetCodec(columnChunk.getCodec());
+    final IUnCompressor unCompressor = IUnCompressor.getUnCompressor(compressionType);
+    final ParquetColumnData data = new ParquetColumnData(column, rowCount);
+    ParquetColumnData dictionary = null;
+
+    int offset = 0;
+    int decodedCount = 0;
+    while (offset < chunk.length && decodedCount < rowCount) {
+      final ParquetPageHeader header =
+          ParquetPageHeader.deserialize(chunk, offset, chunk.length - offset);
+      final int bodyOffset = offset + header.getSerializedSize();
+      offset = bodyOffset + header.getCompressedSize();
+
+      if (header.isDictionaryPage()) {
+        final byte[] body =
+            uncompress(
+                unCompressor,
+                chunk,
+                bodyOffset,
+                header.getCompressedSize(),
+                header.getUncompressedSize());
+        dictionary = new ParquetColumnData(column, header.getValueCount());
+        decodePlain(body, 0, body.length, dictionary, 0, header.getValueCount(), null);
+      } else if (header.isDataPage()) {
+        final byte[] body =
+            uncompress(
+                unCompressor,
+                chunk,
+                bodyOffset,
+                header.getCompressedSize(),
+                header.getUncompressedSize());
+        int position = 0;
+        boolean[] isDefined = null;
+        if (column.isOptional()) {
+          if (header.getDefinitionLevelEncoding() != ENCODING_RLE) {
+            throw new IOException(
+                String.format(
+                    ParquetMessages.UNSUPPORTED_PARQUET_ENCODING,
+                    column.getName(),
+                    header.getDefinitionLevelEncoding()));
+          }
+          final int levelsLength = readIntLittleEndian(body, position);
+          position += Integer.BYTES;
+          isDefined =
+              decodeDefinitionLevels(
+                  body, position, position + levelsLength, header.getValueCount());
+          position += levelsLength;
+        }
+        decodeValues(
+            header, body, position, body.length, data, decodedCount, isDefined, dictionary);
+        decodedCount += header.getValueCount();
+      } else if (header.isDataPageV2()) {
+        final int levelsOffset = bodyOffset + header.getRepetitionLevelsByteLength();
+        final int valuesOffset = levelsOffset + header.getDefinitionLevelsByteLength();
+        final int valuesLength = offset - valuesOffset;
+        final boolean[] isDefined =
+            column.isOptional()
+                ? decodeDefinitionLevels(
+                    chunk, levelsOffset, valuesOffset, header.getValueCount())
+                : null;
+        final byte[] body =
+            header.isCompressed()
+                ? uncompress(
+                    unCompressor,
+                    chunk,
+                    valuesOffset,
+                    valuesLength,
+                    header.getUncompressedSize()
+                        - header.getRepetitionLevelsByteLength()
+                        - header.getDefinitionLevelsByteLength())
+                : Arrays.copyOfRange(chunk, valuesOffset, offset);
+        decodeValues(header, body, 0, body.length, data, decodedCount, isDefined, dictionary);
+        decodedCount += header.getValueCount();
+      }
+      // index pages are skipped
+    }
+    return data;
+  }
+
+  private static byte[] uncompress(
+      final IUnCompressor unCompressor,
+      final byte[] buffer,
+      final int offset,
+      final int length,
+      final int uncompressedLength)
+      throws IOException {
+    if (unCompressor.getCodecName() == CompressionType.UNCOMPRESSED) {
+      return Arrays.copyOfRange(buffer, offset, offset + length);
+    }
+    final byte[] uncompressed = new byte[uncompressedLength];
+    unCompressor.uncompress(buffer, offset, length, uncompressed, 0);
+    return uncompressed;
+  }
+
+  /** The definition levels of a flat optional column are 0 (null) or 1 (defined). */
+  private static boolean[] decodeDefinitionLevels(
+      final byte[] buffer, final int offset, final int end, final int valueCount) {
+    final boolean[] isDefined = new boolean[valueCount];
+    final HybridDecoder decoder = new HybridDecoder(buffer, offset, end, 1);
+    for (int i = 0; i < valueCount; i++) {
+      isDefined[i] = decoder.next() == 1;
+    }
+    return isDefined;
+  }
+
+  private void decodeValues(
+      final ParquetPageHeader header,
+      final byte[] buffer,
+      final int offset,
+      final int end,
+      final ParquetColumnData data,
+      final int dataOffset,
+      final boolean[] isDefined,
+      final ParquetColumnData dictionary)
+      throws IOException {
+    final ParquetColumn column = data.getColumn();
+    final int valueCount = header.getValueCount();
+    switch (header.getEncoding()) {
+      case ENCODING_PLAIN:
+        decodePlain(buffer, offset, end, data, dataOffset, valueCount, isDefined);
+        return;
+      case ENCODING_PLAIN_DICTIONARY:
+      case ENCODING_RLE_DICTIONARY:
+        {
+          if (dictionary == null) {
+            throw new IOException(
+                String.format(ParquetMessages.MISSING_PARQUET_DICTIONARY_PAGE, column));
+          }
+          // the bit width of the dictionary indexes is stored in the first byte
+          final HybridDecoder decoder =
+              new HybridDecoder(buffer, offset + 1, end, buffer[offset] & 0xFF);
+          for (int i = 0; i < valueCount; i++) {
+            if (isDefined != null && !isDefined[i]) {
+              data.setNull(dataOffset + i);
+            } else {
+              data.copyFrom(dictionary, decoder.next(), dataOffset + i);
+            }
+          }
+          return;
+        }
+      case ENCODING_RLE:
+        if (column.getPhysicalType() == TYPE_BOOLEAN) {
+          // length prefixed RLE/bit-packing hybrid with bit width 1
+          final HybridDecoder decoder = new HybridDecoder(buffer, offset + Integer.BYTES, end, 1);
+          for (int i = 0; i < valueCount; i++) {
+            if (isDefined != null && !isDefined[i]) {
+              data.setNull(dataOffset + i);
+            } else {
+              data.setBoolean(dataOffset + i, decoder.next() == 1);
+            }
+          }
+          return;
+        }
+        // fall through
+      default:
+        throw new IOException(
+            String.format(
+                ParquetMessages.UNSUPPORTED_PARQUET_ENCODING,
+                column.getName(),
+                header.getEncoding()));
+    }
+  }
+
+  private static void decodePlain(
+      final byte[] buffer,
+      final int offset,
+      final int end,
+      final ParquetColumnData data,
+      final int dataOffset,
+      final int valueCount,
+      final boolean[] isDefined)
+      throws IOException {
+    final ParquetColumn column = data.getColumn();
+    int position = offset;
+    int booleanIndex = 0;
+    for (int i = 0; i < valueCount; i++) {
+      final int index = dataOffset + i;
+      if (isDefined != null && !isDefined[i]) {
+        data.setNull(index);
+        continue;
+      }
+      switch (column.getPhysicalType()) {
+        case TYPE_BOOLEAN:
+          data.setBoolean(
+              index, ((buffer[position + (booleanIndex >> 3)] >> (booleanIndex & 7)) & 1) == 1);
+          booleanIndex++;
+          break;
+        case TYPE_INT32:
+          data.setInt(index, readIntLittleEndian(buffer, position));
+          position += Integer.BYTES;
+          break;
+        case TYPE_INT64:
+          data.setLong(index, readLongLittleEndian(buffer, position));
+          position += Long.BYTES;
+          break;
+        case TYPE_INT96:
+          {
+            final long nanosOfDay = readLongLittleEndian(buffer, position);
+            final long julianDay = readIntLittleEndian(buffer, position + Long.BYTES);
+            data.setLong(
+                index,
+                TimeUnit.DAYS.toNanos(julianDay - JULIAN_DAY_OF_EPOCH) + nanosOfDay);
+            position += Long.BYTES + Integer.BYTES;
+            break;
+          }
+        case TYPE_FLOAT:
+          data.setFloat(index, Float.intBitsToFloat(readIntLittleEndian(buffer, position)));
+          position += Integer.BYTES;
+          break;
+        case TYPE_DOUBLE:
+          data.setDouble(index, Double.longBitsToDouble(readLongLittleEndian(buffer, position)));
+          position += Long.BYTES;
+          break;
+        case TYPE_BYTE_ARRAY:
+          {
+            final int length = readIntLittleEndian(buffer, position);
+            position += Integer.BYTES;
+            data.setBinary(
+                index, new Binary(Arrays.copyOfRange(buffer, position, position + length)));
+            position += length;
+            break;
+          }
+        default:
+          // FIXED_LEN_BYTE_ARRAY
+          data.setBinary(
+              index,
+              new Binary(Arrays.copyOfRange(buffer, position, position + column.getTypeLength())));
+          position += column.getTypeLength();
+          break;
+      }
+      if (position > end) {
+        throw new IOException(
+            String.format(ParquetMessages.CORRUPTED_PARQUET_PAGE, column.getName()));
+      }
+    }
+  }
+
+  static int readIntLittleEndian(final byte[] buffer, final int offset) {
+    return (buffer[offset] & 0xFF)
+        | (buffer[offset + 1] & 0xFF) << 8
+        | (buffer[offset + 2] & 0xFF) << 16
+        | (buffer[offset + 3] & 0xFF) << 24;
+  }
+
+  static long readLongLittleEndian(final byte[] buffer, final int offset) {
+    return (readIntLittleEndian(buffer, offset) & 0xFFFFFFFFL)
+        | ((long) readIntLittleEndian(buffer, offset + Integer.BYTES)) << 32;
+  }
+
+  @Override
+  public void close() throws IOException {
+    input.close();
+  }
+
+  /** Decoder of the RLE/bit-packing hybrid encoding, used by the levels and dictionary indexes. */
+  private static class HybridDecoder {
+
+    private final byte[] buffer;
+    private final int end;
+    private final int bitWidth;
+    private int position;
+
+    private int remainingCount = 0;
+    private boolean isRleRun;
+    private int rleValue;
+    private int[] packedValues = new int[0];
+    private int packedIndex;
+
+    private HybridDecoder(
+        final byte[] buffer, final int offset, final int end, final int bitWidth) {
+      this.buffer = buffer;
+      this.position = offset;
+      this.end = end;
+      this.bitWidth = bitWidth;
+    }
+
+    private int next() {
+      if (remainingCount == 0) {
+        readRunHeader();
+      }
+      remainingCount--;
+      return isRleRun ? rleValue : packedValues[packedIndex++];
+    }
+
+    private void readRunHeader() {
+      final int header = readUnsignedVarInt();
+      if ((header & 1) == 0) {
+        isRleRun = true;
+        remainingCount = header >>> 1;
+        rleValue = 0;
+        final int valueBytes = (bitWidth + 7) / 8;
+        for (int i = 0; i < valueBytes; i++) {
+          rleValue |= readByte() << (i * 8);
+        }
+      } else {
+        isRleRun = false;
+        remainingCount = (header >>> 1) * 8;
+        if (packedValues.length < remainingCount) {
+          packedValues = new int[remainingCount];
+        }
+        packedIndex = 0;
+        final long mask = (1L << bitWidth) - 1;
+        long bits = 0;
+        int bitCount = 0;
+        for (int i = 0; i < remainingCount; i++) {
+          while (bitCount < bitWidth) {
+            bits |= ((long) readByte()) << bitCount;
+            bitCount += 8;
+          }
+          packedValues[i] = (int) (bits & mask);
+          bits >>>= bitWidth;
+          bitCount -= bitWidth;
+        }
+      }
+    }
+
+    private int readUnsignedVarInt() {
+      int value = 0;
+      int shift = 0;
+      int b;
+      do {
+        b = readByte();
+        value |= (b & 0x7F) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+      return value;
+    }
+
+    /** The padding of the last bit-packed run may be omitted, it is read as zeros. */
+    private int readByte() {
+      return position < end ? buffer[position++] & 0xFF : 0;
+    }
+  }
+}
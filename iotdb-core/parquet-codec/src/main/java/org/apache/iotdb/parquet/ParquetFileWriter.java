@@ -0,0 +1,431 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.parquet;
+
+import org.apache.iotdb.parquet.ParquetFileMetadata.ColumnChunkMetadata;
+import org.apache.iotdb.parquet.ParquetFileMetadata.RowGroupMetadata;
+import org.apache.iotdb.parquet.i18n.ParquetMessages;
+
+import org.apache.tsfile.compress.ICompressor;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.PublicBAOS;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.iotdb.parquet.ParquetConstant.ENCODING_PLAIN;
+import static org.apache.iotdb.parquet.ParquetConstant.ENCODING_RLE;
+import static org.apache.iotdb.parquet.ParquetConstant.MAGIC;
+import static org.apache.iotdb.parquet.ParquetConstant.TYPE_BOOLEAN;
+import static org.apache.iotdb.parquet.ParquetConstant.TYPE_DOUBLE;
+import static org.apache.iotdb.parquet.ParquetConstant.TYPE_FLOAT;
+import static org.apache.iotdb.parquet.ParquetConstant.TYPE_INT32;
+import static org.apache.iotdb.parquet.ParquetConstant.TYPE_INT64;
+
+/**
+ * Writes a Parquet file of a flat schema row group by row group, so that only the current row group
+ * is buffered in memory. The values are PLAIN encoded in data pages of version 1, the definition
+ * levels of the optional columns are RLE encoded, and the min/max statistics of the fixed width
+ * columns are kept for the readers to skip row groups.
+ *
+ * <p>Values are appended column by column through {@link #getColumnWriter(int)}, and {@link
+ * #endRows(int)} declares how many rows have been appended to every column.
+ */
+public class ParquetFileWriter implements AutoCloseable {
+
+  private static final int PAGE_SIZE_THRESHOLD_IN_BYTES = 1024 * 1024;
+
+  private final OutputStream outputStream;
+  private final List<ParquetColumn> columns;
+  private final ColumnWriter[] columnWriters;
+  private final ICompressor compressor;
+  private final int codec;
+
+  private final List<RowGroupMetadata> rowGroups = new ArrayList<>();
+  private long position = 0;
+  private long bufferedRowCount = 0;
+  private long writtenRowCount = 0;
+  private boolean closed = false;
+
+  public ParquetFileWriter(
+      final File file, final List<ParquetColumn> columns, final CompressionType compressionType)
+      throws IOException {
+    this.columns = columns;
+    this.columnWriters = new ColumnWriter[columns.size()];
+    for (int i = 0; i < columnWriters.length; i++) {
+      columnWriters[i] = new ColumnWriter(columns.get(i));
+    }
+    this.codec = ParquetConstant.toParquetCodec(compressionType);
+    this.compressor = ICompressor.getCompressor(compressionType);
+    this.outputStream = new BufferedOutputStream(new FileOutputStream(file));
+    writeBytes(MAGIC, 0, MAGIC.length);
+  }
+
+  public ColumnWriter getColumnWriter(final int columnIndex) {
+    return columnWriters[columnIndex];
+  }
+
+  /** Declare that the given number of rows have been appended to every column. */
+  public void endRows(final int rowCount) {
+    bufferedRowCount += rowCount;
+  }
+
+  /** The size of the buffered row group, the pages which are not sealed yet are not compressed. */
+  public long getBufferedSizeInBytes() {
+    long size = 0;
+    for (final ColumnWriter columnWriter : columnWriters) {
+      size += columnWriter.getBufferedSizeInBytes();
+    }
+    return size;
+  }
+
+  public long getRowCount() {
+    return writtenRowCount + bufferedRowCount;
+  }
+
+  /** Write the buffered rows as a row group. */
+  public void flushRowGroup() throws IOException {
+    if (bufferedRowCount == 0) {
+      return;
+    }
+    final List<ColumnChunkMetadata> columnChunks = new ArrayList<>(columnWriters.length);
+    for (final ColumnWriter columnWriter : columnWriters) {
+      if (columnWriter.chunkValueCount != bufferedRowCount) {
+        throw new IOException(
+            String.format(
+                ParquetMessages.PARQUET_COLUMN_VALUE_COUNT_MISMATCH,
+                columnWriter.column.getName(),
+                columnWriter.chunkValueCount,
+                bufferedRowCount));
+      }
+      columnChunks.add(columnWriter.writeChunk());
+    }
+    rowGroups.add(new RowGroupMetadata(bufferedRowCount, columnChunks));
+    writtenRowCount += bufferedRowCount;
+    bufferedRowCount = 0;
+  }
+
+  /** Flush the buffered rows and write the footer. */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      flushRowGroup();
+      final PublicBAOS footer = new PublicBAOS();
+      new ParquetFileMetadata(columns, rowGroups).serialize(footer);
+      writeBytes(footer.getBuf(), 0, footer.size());
+      final PublicBAOS tail = new PublicBAOS(Integer.BYTES + MAGIC.length);
+      writeIntLittleEndian(tail, footer.size());
+      tail.write(MAGIC);
+      writeBytes(tail.getBuf(), 0, tail.size());
+    } finally {
+      outputStream.close();
+    }
+  }
+
+  private void writeBytes(final byte[] bytes, final int offset, final int length)
+      throws IOException {
+    outputStream.write(bytes, offset, length);
+    position += length;
+  }
+
+  static void writeIntLittleEndian(final PublicBAOS outputStream, final int value) {
+    outputStream.write(value & 0xFF);
+    outputStream.write((value >>> 8) & 0xFF);
+    outputStream.write((value >>> 16) & 0xFF);
+    outputStream.write((value >>> 24) & 0xFF);
+  }
+
+  static void writeLongLittleEndian(final PublicBAOS outputStream, final long value) {
+    writeIntLittleEndian(outputStream, (int) value);
+    writeIntLittleEndian(outputStream, (int) (value >>> 32));
+  }
+
+  private static void writeUnsignedVarInt(final PublicBAOS outputStream, int value) {
+    while ((value & ~0x7F) != 0) {
+      outputStream.write((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    outputStream.write(value);
+  }
+
+  /** Buffers the column chunk of a column in the current row group. */
+  public class ColumnWriter {
+
+    private final ParquetColumn column;
+
+    // the page being written
+    private final PublicBAOS pageValues = new PublicBAOS();
+    private final PublicBAOS pageDefinitionLevels = new PublicBAOS();
+    private final PublicBAOS pageBuffer = new PublicBAOS();
+    private int pageValueCount = 0;
+    private int runDefinitionLevel = 0;
+    private int runLength = 0;
+    private int booleanBits = 0;
+    private int booleanBitCount = 0;
+
+    // the sealed pages of the column chunk
+    private final PublicBAOS chunk = new PublicBAOS();
+    private long chunkUncompressedSize = 0;
+    private long chunkValueCount = 0;
+    private long chunkNullCount = 0;
+
+    // statistics of the column chunk, the values of BOOLEAN, INT32 and INT64 columns are kept in
+    // the long fields, the ones of FLOAT and DOUBLE columns are kept in the double fields
+    private boolean hasStatistics = false;
+    private boolean isStatisticsValid = true;
+    private long minLong;
+    private long maxLong;
+    private double minDouble;
+    private double maxDouble;
+
+    private ColumnWriter(final ParquetColumn column) {
+      this.column = column;
+    }
+
+    public void writeNull() {
+      if (!column.isOptional()) {
+        throw new IllegalArgumentException(
+            String.format(ParquetMessages.NULL_VALUE_OF_REQUIRED_PARQUET_COLUMN, column));
+      }
+      writeDefinitionLevel(0);
+      chunkNullCount++;
+      endValue();
+    }
+
+    public void writeBoolean(final boolean value) {
+      writeDefinitionLevel(1);
+      if (value) {
+        booleanBits |= 1 << booleanBitCount;
+      }
+      if (++booleanBitCount == Byte.SIZE) {
+        flushBooleanBits();
+      }
+      updateStatistics(value ? 1 : 0);
+      endValue();
+    }
+
+    public void writeInt(final int value) {
+      writeDefinitionLevel(1);
+      writeIntLittleEndian(pageValues, value);
+      updateStatistics(value);
+      endValue();
+    }
+
+    public void writeLong(final long value) {
+      writeDefinitionLevel(1);
+      writeLongLittleEndian(pageValues, value);
+      updateStatistics(value);
+      endValue();
+    }
+
+    public void writeFloat(final float value) {
+      writeDefinitionLevel(1);
+      writeIntLittleEndian(pageValues, Float.floatToIntBits(value));
+      updateStatistics((double) value);
+      endValue();
+    }
+
+    public void writeDouble(final double value) {
+      writeDefinitionLevel(1);
+      writeLongLittleEndian(pageValues, Double.doubleToLongBits(value));
+      updateStatistics(value);
+      endValue();
+    }
+
+    public void writeBinary(final Binary value) {
+      writeDefinitionLevel(1);
+      writeIntLittleEndian(pageValues, value.getLength());
+      pageValues.write(value.getValues(), 0, value.getLength());
+      endValue();
+    }
+
+    private void writeDefinitionLevel(final int level) {
+      if (!column.isOptional()) {
+        return;
+      }
+      if (runLength > 0 && runDefinitionLevel != level) {
+        flushDefinitionLevelRun();
+      }
+      runDefinitionLevel = level;
+      runLength++;
+    }
+
+    private void flushDefinitionLevelRun() {
+      // a RLE run of the RLE/bit-packing hybrid encoding with bit width 1
+      writeUnsignedVarInt(pageDefinitionLevels, runLength << 1);
+      pageDefinitionLevels.write(runDefinitionLevel);
+      runLength = 0;
+    }
+
+    private void flushBooleanBits() {
+      pageValues.write(booleanBits);
+      booleanBits = 0;
+      booleanBitCount = 0;
+    }
+
+    private void updateStatistics(final long value) {
+      if (!hasStatistics) {
+        minLong = value;
+        maxLong = value;
+        hasStatistics = true;
+      } else {
+        minLong = Math.min(minLong, value);
+        maxLong = Math.max(maxLong, value);
+      }
+    }
+
+    private void updateStatistics(final double value) {
+      if (Double.isNaN(value)) {
+        // NaN has no defined order, the readers could not trust the min/max any more
+        isStatisticsValid = false;
+      } else if (!hasStatistics) {
+        minDouble = value;
+        maxDouble = value;
+        hasStatistics = true;
+      } else {
+        minDouble = Math.min(minDouble, value);
+        maxDouble = Math.max(maxDouble, value);
+      }
+    }
+
+    private void endValue() {
+      pageValueCount++;
+      chunkValueCount++;
+      if (pageValues.size() >= PAGE_SIZE_THRESHOLD_IN_BYTES) {
+        sealPage();
+      }
+    }
+
+    private long getBufferedSizeInBytes() {
+      return chunk.size() + pageValues.size() + pageDefinitionLevels.size();
+    }
+
+    private void sealPage() {
+      if (pageValueCount == 0) {
+        return;
+      }
+      if (booleanBitCount > 0) {
+        flushBooleanBits();
+      }
+      pageBuffer.reset();
+      if (column.isOptional()) {
+        if (runLength > 0) {
+          flushDefinitionLevelRun();
+        }
+        writeIntLittleEndian(pageBuffer, pageDefinitionLevels.size());
+        pageBuffer.write(pageDefinitionLevels.getBuf(), 0, pageDefinitionLevels.size());
+      }
+      pageBuffer.write(pageValues.getBuf(), 0, pageValues.size());
+
+      try {
+        final byte[] compressed = compressor.compress(pageBuffer.getBuf(), 0, pageBuffer.size());
+        final int chunkSizeBeforeHeader = chunk.size();
+        ParquetPageHeader.serializeDataPage(
+            chunk, pageBuffer.size(), compressed.length, pageValueCount);
+        chunkUncompressedSize += chunk.size() - chunkSizeBeforeHeader + pageBuffer.size();
+        chunk.write(compressed);
+      } catch (final IOException e) {
+        // the page is only written into memory here
+        throw new IllegalStateException(e);
+      }
+
+      pageValues.reset();
+      pageDefinitionLevels.reset();
+      pageValueCount = 0;
+    }
+
+    private ColumnChunkMetadata writeChunk() throws IOException {
+      sealPage();
+      final long dataPageOffset = position;
+      writeBytes(chunk.getBuf(), 0, chunk.size());
+
+      final ColumnChunkMetadata metadata =
+          new ColumnChunkMetadata(
+              column.getPhysicalType(),
+              column.isOptional()
+                  ? Arrays.asList(ENCODING_PLAIN, ENCODING_RLE)
+                  : Collections.singletonList(ENCODING_PLAIN),
+              column.getName(),
+              codec,
+              chunkValueCount,
+              chunkUncompressedSize,
+              chunk.size(),
+              dataPageOffset,
+              -1,
+              chunkNullCount,
+              hasStatistics && isStatisticsValid ? encodeStatistics(true) : null,
+              hasStatistics && isStatisticsValid ? encodeStatistics(false) : null);
+
+      chunk.reset();
+      chunkUncompressedSize = 0;
+      chunkValueCount = 0;
+      chunkNullCount = 0;
+      hasStatistics = false;
+      isStatisticsValid = true;
+      return metadata;
+    }
+
+    /** PLAIN encode the min or max value. */
+    private byte[] encodeStatistics(final boolean isMin) {
+      final PublicBAOS outputStream = new PublicBAOS(Long.BYTES);
+      switch (column.getPhysicalType()) {
+        case TYPE_BOOLEAN:
+          outputStream.write((int) (isMin ? minLong : maxLong));
+          break;
+        case TYPE_INT32:
+          writeIntLittleEndian(outputStream, (int) (isMin ? minLong : maxLong));
+          break;
+        case TYPE_INT64:
+          writeLongLittleEndian(outputStream, isMin ? minLong : maxLong);
+          break;
+        case TYPE_FLOAT:
+          writeIntLittleEndian(
+              outputStream, Float.floatToIntBits((float) signedZero(isMin)));
+          break;
+        case TYPE_DOUBLE:
+          writeLongLittleEndian(outputStream, Double.doubleToLongBits(signedZero(isMin)));
+          break;
+        default:
+          return null;
+      }
+      return outputStream.toByteArray();
+    }
+
+    /** A zero min is written as -0.0 and a zero max is written as +0.0, as the format requires. */
+    private double signedZero(final boolean isMin) {
+      if (isMin) {
+        return minDouble == 0.0d ? -0.0d : minDouble;
+      }
+      return maxDouble == 0.0d ? 0.0d : maxDouble;
+    }
+  }
+}
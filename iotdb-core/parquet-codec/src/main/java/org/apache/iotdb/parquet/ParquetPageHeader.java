@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.parquet;
+
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.apache.thrift.protocol.TField;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.protocol.TProtocolUtil;
+import org.apache.thrift.protocol.TStruct;
+import org.apache.thrift.protocol.TType;
+import org.apache.thrift.transport.TIOStreamTransport;
+import org.apache.thrift.transport.TMemoryInputTransport;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static org.apache.iotdb.parquet.ParquetConstant.ENCODING_PLAIN;
+import static org.apache.iotdb.parquet.ParquetConstant.ENCODING_RLE;
+import static org.apache.iotdb.parquet.ParquetConstant.PAGE_TYPE_DATA_PAGE;
+import static org.apache.iotdb.parquet.ParquetConstant.PAGE_TYPE_DATA_PAGE_V2;
+import static org.apache.iotdb.parquet.ParquetConstant.PAGE_TYPE_DICTIONARY_PAGE;
+import static org.apache.iotdb.parquet.ParquetFileMetadata.writeI32Field;
+import static org.apache.iotdb.parquet.ParquetFileMetadata.writeStructEnd;
+
+/** The header of a Parquet page, data pages of both versions and dictionary pages are read. */
+class ParquetPageHeader {
+
+  private static final TStruct EMPTY_STRUCT = new TStruct("");
+
+  private int type = -1;
+  private int uncompressedSize;
+  private int compressedSize;
+  private int valueCount;
+  private int encoding = ENCODING_PLAIN;
+  private int definitionLevelEncoding = ENCODING_RLE;
+
+  // only for data page v2, whose levels are never compressed
+  private int definitionLevelsByteLength;
+  private int repetitionLevelsByteLength;
+  private boolean compressed = true;
+
+  private int serializedSize;
+
+  /** Write the header of a PLAIN encoded data page of version 1 with RLE definition levels. */
+  static void serializeDataPage(
+      final OutputStream outputStream,
+      final int uncompressedSize,
+      final int compressedSize,
+      final int valueCount)
+      throws IOException {
+    try {
+      final TProtocol protocol = new TCompactProtocol(new TIOStreamTransport(outputStream));
+      protocol.writeStructBegin(EMPTY_STRUCT);
+      writeI32Field(protocol, 1, PAGE_TYPE_DATA_PAGE);
+      writeI32Field(protocol, 2, uncompressedSize);
+      writeI32Field(protocol, 3, compressedSize);
+      protocol.writeFieldBegin(new TField("", TType.STRUCT, (short) 5));
+      protocol.writeStructBegin(EMPTY_STRUCT);
+      writeI32Field(protocol, 1, valueCount);
+      writeI32Field(protocol, 2, ENCODING_PLAIN);
+      writeI32Field(protocol, 3, ENCODING_RLE);
+      writeI32Field(protocol, 4, ENCODING_RLE);
+      writeStructEnd(protocol);
+      protocol.writeFieldEnd();
+      writeStructEnd(protocol);
+    } catch (final TException e) {
+      throw new IOException(e);
+    }
+  }
+
+  static ParquetPageHeader deserialize(final byte[] buffer, final int offset, final int length)
+      throws IOException {
+    final TMemoryInputTransport transport =
+        ParquetFileMetadata.newInputTransport(buffer, offset, length);
+    final TProtocol protocol = new TCompactProtocol(transport);
+    final ParquetPageHeader header = new ParquetPageHeader();
+    try {
+      protocol.readStructBegin();
+      while (true) {
+        final TField field = protocol.readFieldBegin();
+        if (field.type == TType.STOP) {
+          break;
+        }
+        switch (field.id) {
+          case 1:
+            header.type = protocol.readI32();
+            break;
+          case 2:
+            header.uncompressedSize = protocol.readI32();
+            break;
+          case 3:
+            header.compressedSize = protocol.readI32();
+            break;
+          case 5:
+            header.readDataPageHeader(protocol);
+            break;
+          case 7:
+            header.readDictionaryPageHeader(protocol);
+            break;
+          case 8:
+            header.readDataPageHeaderV2(protocol);
+            break;
+          default:
+            TProtocolUtil.skip(protocol, field.type);
+            break;
+        }
+        protocol.readFieldEnd();
+      }
+      protocol.readStructEnd();
+    } catch (final TException e) {
+      throw new IOException(e);
+    }
+    header.serializedSize = transport.getBufferPosition() - offset;
+    return header;
+  }
+
+  private void readDataPageHeader(final TProtocol protocol) throws TException {
+    protocol.readStructBegin();
+    while (true) {
+      final TField field = protocol.readFieldBegin();
+      if (field.type == TType.STOP) {
+        break;
+      }
+      switch (field.id) {
+        case 1:
+          valueCount = protocol.readI32();
+          break;
+        case 2:
+          encoding = protocol.readI32();
+          break;
+        case 3:
+          definitionLevelEncoding = protocol.readI32();
+          break;
+        default:
+          TProtocolUtil.skip(protocol, field.type);
+          break;
+      }
+      protocol.readFieldEnd();
+    }
+    protocol.readStructEnd();
+  }
+
+  private void readDictionaryPageHeader(final TProtocol protocol) throws TException {
+    protocol.readStructBegin();
+    while (true) {
+      final TField field = protocol.readFieldBegin();
+      if (field.type == TType.STOP) {
+        break;
+      }
+      if (field.id == 1) {
+        valueCount = protocol.readI32();
+      } else if (field.id == 2) {
+        encoding = protocol.readI32();
+      } else {
+        TProtocolUtil.skip(protocol, field.type);
+      }
+      protocol.readFieldEnd();
+    }
+    protocol.readStructEnd();
+  }
+
+  private void readDataPageHeaderV2(final TProtocol protocol) throws TException {
+    protocol.readStructBegin();
+    while (true) {
+      final TField field = protocol.readFieldBegin();
+      if (field.type == TType.STOP) {
+        break;
+      }
+      switch (field.id) {
+        case 1:
+          valueCount = protocol.readI32();
+          break;
+        case 4:
+          encoding = protocol.readI32();
+          break;
+        case 5:
+          definitionLevelsByteLength = protocol.readI32();
+          break;
+        case 6:
+          repetitionLevelsByteLength = protocol.readI32();
+          break;
+        case 7:
+          compressed = protocol.readBool();
+          break;
+        default:
+          TProtocolUtil.skip(protocol, field.type);
+          break;
+      }
+      protocol.readFieldEnd();
+    }
+    protocol.readStructEnd();
+  }
+
+  boolean isDataPage() {
+    return type == PAGE_TYPE_DATA_PAGE;
+  }
+
+  boolean isDataPageV2() {
+    return type == PAGE_TYPE_DATA_PAGE_V2;
+  }
+
+  boolean isDictionaryPage() {
+    return type == PAGE_TYPE_DICTIONARY_PAGE;
+  }
+
+  int getUncompressedSize() {
+    return uncompressedSize;
+  }
+
+  int getCompressedSize() {
+    return compressedSize;
+  }
+
+  int getValueCount() {
+    return valueCount;
+  }
+
+  int getEncoding() {
+    return encoding;
+  }
+
+  int getDefinitionLevelEncoding() {
+    return definitionLevelEncoding;
+  }
+
+  int getDefinitionLevelsByteLength() {
+    return definitionLevelsByteLength;
+  }
+
+  int getRepetitionLevelsByteLength() {
+    return repetitionLevelsByteLength;
+  }
+
+  boolean isCompressed() {
+    return compressed;
+  }
+
+  /** The size of the header itself, only available for the deserialized headers. */
+  int getSerializedSize() {
+    return serializedSize;
+  }
+}
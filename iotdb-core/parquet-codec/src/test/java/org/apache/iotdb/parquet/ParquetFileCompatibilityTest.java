@@ -0,0 +1,366 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.parquet;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.utils.Binary;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks the Parquet codec against parquet-java: the files written by {@link ParquetFileWriter}
+ * are read by the parquet-java reader, and the files written by the parquet-java writer, with
+ * both data page versions and dictionary encoding, are read by {@link ParquetFileReader}.
+ */
+public class ParquetFileCompatibilityTest {
+
+  private static final int ROW_COUNT = 1000;
+
+  private static final MessageType SCHEMA =
+      MessageTypeParser.parseMessageType(
+          "message schema {\n"
+              + "  required int64 time (TIMESTAMP(MILLIS,true));\n"
+              + "  optional boolean s_boolean;\n"
+              + "  optional int32 s_int32;\n"
+              + "  optional int64 s_int64;\n"
+              + "  optional float s_float;\n"
+              + "  optional double s_double;\n"
+              + "  optional binary s_string (STRING);\n"
+              + "  optional binary s_blob;\n"
+              + "  optional int32 s_date (DATE);\n"
+              + "}");
+
+  private static final List<ParquetColumn> COLUMNS = createColumns();
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static List<ParquetColumn> createColumns() {
+    try {
+      return Arrays.asList(
+          ParquetColumn.of("time", TSDataType.TIMESTAMP, false, TimeUnit.MILLISECONDS),
+          ParquetColumn.of("s_boolean", TSDataType.BOOLEAN, true, null),
+          ParquetColumn.of("s_int32", TSDataType.INT32, true, null),
+          ParquetColumn.of("s_int64", TSDataType.INT64, true, null),
+          ParquetColumn.of("s_float", TSDataType.FLOAT, true, null),
+          ParquetColumn.of("s_double", TSDataType.DOUBLE, true, null),
+          ParquetColumn.of("s_string", TSDataType.STRING, true, null),
+          ParquetColumn.of("s_blob", TSDataType.BLOB, true, null),
+          ParquetColumn.of("s_date", TSDataType.DATE, true, null));
+    } catch (final IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Test
+  public void testParquetJavaReadsUncompressedFile() throws IOException {
+    testParquetJavaReads(CompressionType.UNCOMPRESSED);
+  }
+
+  @Test
+  public void testParquetJavaReadsGzipFile() throws IOException {
+    testParquetJavaReads(CompressionType.GZIP);
+  }
+
+  @Test
+  public void testReadParquetJavaFileWithV1Pages() throws IOException {
+    testReadParquetJavaFile(
+        ParquetProperties.WriterVersion.PARQUET_1_0, false, CompressionCodecName.UNCOMPRESSED);
+  }
+
+  @Test
+  public void testReadParquetJavaFileWithV1DictionaryPages() throws IOException {
+    testReadParquetJavaFile(
+        ParquetProperties.WriterVersion.PARQUET_1_0, true, CompressionCodecName.GZIP);
+  }
+
+  @Test
+  public void testReadParquetJavaFileWithV2DictionaryPages() throws IOException {
+    testReadParquetJavaFile(
+        ParquetProperties.WriterVersion.PARQUET_2_0, true, CompressionCodecName.GZIP);
+  }
+
+  private void testParquetJavaReads(final CompressionType compressionType) throws IOException {
+    final File file = new File(temporaryFolder.getRoot(), "iotdb." + ParquetConstant.FILE_SUFFIX);
+    try (final ParquetFileWriter writer = new ParquetFileWriter(file, COLUMNS, compressionType)) {
+      for (int row = 0; row < ROW_COUNT; row++) {
+        writer.getColumnWriter(0).writeLong(row);
+        for (int i = 1; i < COLUMNS.size(); i++) {
+          final ParquetFileWriter.ColumnWriter columnWriter = writer.getColumnWriter(i);
+          if (isNull(row, i)) {
+            columnWriter.writeNull();
+            continue;
+          }
+          switch (COLUMNS.get(i).getDataType()) {
+            case BOOLEAN:
+              columnWriter.writeBoolean(booleanValue(row));
+              break;
+            case INT32:
+            case DATE:
+              columnWriter.writeInt(intValue(row));
+              break;
+            case INT64:
+              columnWriter.writeLong(longValue(row));
+              break;
+            case FLOAT:
+              columnWriter.writeFloat(floatValue(row));
+              break;
+            case DOUBLE:
+              columnWriter.writeDouble(doubleValue(row));
+              break;
+            default:
+              columnWriter.writeBinary(
+                  new Binary(stringValue(row), TSFileConfig.STRING_CHARSET));
+              break;
+          }
+        }
+        writer.endRows(1);
+        if (row == ROW_COUNT / 2) {
+          writer.flushRowGroup();
+        }
+      }
+    }
+
+    final Configuration conf = new Configuration();
+    final Path path = new Path(file.getAbsolutePath());
+    try (final org.apache.parquet.hadoop.ParquetFileReader reader =
+        org.apache.parquet.hadoop.ParquetFileReader.open(HadoopInputFile.fromPath(path, conf))) {
+      final ParquetMetadata footer = reader.getFooter();
+      final MessageType schema = footer.getFileMetaData().getSchema();
+      Assert.assertEquals(COLUMNS.size(), schema.getFieldCount());
+      final PrimitiveType time = schema.getType("time").asPrimitiveType();
+      Assert.assertEquals(PrimitiveType.PrimitiveTypeName.INT64, time.getPrimitiveTypeName());
+      Assert.assertTrue(
+          time.getLogicalTypeAnnotation()
+              instanceof LogicalTypeAnnotation.TimestampLogicalTypeAnnotation);
+      Assert.assertEquals(
+          LogicalTypeAnnotation.stringType(),
+          schema.getType("s_string").getLogicalTypeAnnotation());
+      Assert.assertEquals(
+          LogicalTypeAnnotation.dateType(), schema.getType("s_date").getLogicalTypeAnnotation());
+
+      final List<BlockMetaData> rowGroups = footer.getBlocks();
+      Assert.assertEquals(2, rowGroups.size());
+      Assert.assertEquals(ROW_COUNT / 2 + 1, rowGroups.get(0).getRowCount());
+      final Statistics<?> timeStatistics = rowGroups.get(0).getColumns().get(0).getStatistics();
+      Assert.assertEquals(0L, timeStatistics.genericGetMin());
+      Assert.assertEquals((long) ROW_COUNT / 2, timeStatistics.genericGetMax());
+    }
+
+    try (final ParquetReader<Group> reader =
+        ParquetReader.builder(new GroupReadSupport(), path).withConf(conf).build()) {
+      int row = 0;
+      for (Group group = reader.read(); group != null; group = reader.read(), row++) {
+        Assert.assertEquals(row, group.getLong("time", 0));
+        for (int i = 1; i < COLUMNS.size(); i++) {
+          final String name = COLUMNS.get(i).getName();
+          Assert.assertEquals(isNull(row, i) ? 0 : 1, group.getFieldRepetitionCount(name));
+          if (isNull(row, i)) {
+            continue;
+          }
+          switch (COLUMNS.get(i).getDataType()) {
+            case BOOLEAN:
+              Assert.assertEquals(booleanValue(row), group.getBoolean(name, 0));
+              break;
+            case INT32:
+            case DATE:
+              Assert.assertEquals(intValue(row), group.getInteger(name, 0));
+              break;
+            case INT64:
+              Assert.assertEquals(longValue(row), group.getLong(name, 0));
+              break;
+            case FLOAT:
+              Assert.assertEquals(floatValue(row), group.getFloat(name, 0), 0);
+              break;
+            case DOUBLE:
+              Assert.assertEquals(doubleValue(row), group.getDouble(name, 0), 0);
+              break;
+            default:
+              Assert.assertEquals(stringValue(row), group.getBinary(name, 0).toStringUsingUTF8());
+              break;
+          }
+        }
+      }
+      Assert.assertEquals(ROW_COUNT, row);
+    }
+  }
+
+  private void testReadParquetJavaFile(
+      final ParquetProperties.WriterVersion writerVersion,
+      final boolean enableDictionary,
+      final CompressionCodecName codec)
+      throws IOException {
+    final File file =
+        new File(temporaryFolder.getRoot(), "parquet-java." + ParquetConstant.FILE_SUFFIX);
+    final SimpleGroupFactory groupFactory = new SimpleGroupFactory(SCHEMA);
+    try (final ParquetWriter<Group> writer =
+        ExampleParquetWriter.builder(new Path(file.getAbsolutePath()))
+            .withConf(new Configuration())
+            .withType(SCHEMA)
+            .withWriterVersion(writerVersion)
+            .withDictionaryEncoding(enableDictionary)
+            .withCompressionCodec(codec)
+            .withPageSize(4096)
+            .build()) {
+      for (int row = 0; row < ROW_COUNT; row++) {
+        final Group group = groupFactory.newGroup().append("time", (long) row);
+        for (int i = 1; i < COLUMNS.size(); i++) {
+          if (isNull(row, i)) {
+            continue;
+          }
+          final String name = COLUMNS.get(i).getName();
+          switch (COLUMNS.get(i).getDataType()) {
+            case BOOLEAN:
+              group.append(name, booleanValue(row));
+              break;
+            case INT32:
+            case DATE:
+              group.append(name, intValue(row));
+              break;
+            case INT64:
+              group.append(name, longValue(row));
+              break;
+            case FLOAT:
+              group.append(name, floatValue(row));
+              break;
+            case DOUBLE:
+              group.append(name, doubleValue(row));
+              break;
+            default:
+              group.append(name, stringValue(row));
+              break;
+          }
+        }
+        writer.write(group);
+      }
+    }
+
+    try (final ParquetFileReader reader = new ParquetFileReader(file)) {
+      Assert.assertEquals(ROW_COUNT, reader.getRowCount());
+      for (int i = 0; i < COLUMNS.size(); i++) {
+        final ParquetColumn column = reader.getColumns().get(i);
+        Assert.assertEquals(COLUMNS.get(i).getName(), column.getName());
+        Assert.assertEquals(COLUMNS.get(i).getDataType(), column.getDataType());
+        Assert.assertEquals(COLUMNS.get(i).isOptional(), column.isOptional());
+      }
+      Assert.assertEquals(TimeUnit.MILLISECONDS, reader.getColumns().get(0).getTimeUnit());
+
+      final int[] columnIndexes = new int[COLUMNS.size()];
+      for (int i = 0; i < columnIndexes.length; i++) {
+        columnIndexes[i] = i;
+      }
+      int row = 0;
+      for (int rowGroup = 0; rowGroup < reader.getRowGroupCount(); rowGroup++) {
+        final ParquetColumnData[] data = reader.readRowGroup(rowGroup, columnIndexes);
+        for (int index = 0; index < data[0].getSize(); index++, row++) {
+          Assert.assertEquals(row, data[0].getLong(index));
+          for (int i = 1; i < COLUMNS.size(); i++) {
+            Assert.assertEquals(isNull(row, i), data[i].isNull(index));
+            if (data[i].isNull(index)) {
+              continue;
+            }
+            switch (COLUMNS.get(i).getDataType()) {
+              case BOOLEAN:
+                Assert.assertEquals(booleanValue(row), data[i].getBoolean(index));
+                break;
+              case INT32:
+              case DATE:
+                Assert.assertEquals(intValue(row), data[i].getInt(index));
+                break;
+              case INT64:
+                Assert.assertEquals(longValue(row), data[i].getLong(index));
+                break;
+              case FLOAT:
+                Assert.assertEquals(floatValue(row), data[i].getFloat(index), 0);
+                break;
+              case DOUBLE:
+                Assert.assertEquals(doubleValue(row), data[i].getDouble(index), 0);
+                break;
+              default:
+                Assert.assertEquals(
+                    stringValue(row),
+                    data[i].getBinary(index).getStringValue(TSFileConfig.STRING_CHARSET));
+                break;
+            }
+          }
+        }
+      }
+      Assert.assertEquals(ROW_COUNT, row);
+    }
+  }
+
+  private static boolean isNull(final int row, final int columnIndex) {
+    return row % (columnIndex + 1) == 0;
+  }
+
+  private static boolean booleanValue(final int row) {
+    return row % 3 == 0;
+  }
+
+  // the values repeat, so that the parquet-java writer keeps the dictionary encoding, the V2
+  // fallback encodings (DELTA_*) are not supported by the reader
+
+  private static int intValue(final int row) {
+    return row % 10;
+  }
+
+  private static long longValue(final int row) {
+    return -(row % 10);
+  }
+
+  private static float floatValue(final int row) {
+    return (row % 10) / 2.0f;
+  }
+
+  private static double doubleValue(final int row) {
+    return (row % 10) / 4.0d;
+  }
+
+  private static String stringValue(final int row) {
+    return "v" + (row % 10);
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.parquet;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.utils.Binary;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class ParquetFileWriterReaderTest {
+
+  private File file;
+
+  @Before
+  public void setUp() throws IOException {
+    file = Files.createTempFile("parquet-test", "." + ParquetConstant.FILE_SUFFIX).toFile();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file.toPath());
+  }
+
+  @Test
+  public void testRoundTripUncompressed() throws IOException {
+    testRoundTrip(CompressionType.UNCOMPRESSED);
+  }
+
+  @Test
+  public void testRoundTripGzip() throws IOException {
+    testRoundTrip(CompressionType.GZIP);
+  }
+
+  private void testRoundTrip(final CompressionType compressionType) throws IOException {
+    final List<ParquetColumn> columns =
+        Arrays.asList(
+            ParquetColumn.of("time", TSDataType.TIMESTAMP, false, TimeUnit.MILLISECONDS),
+            ParquetColumn.of("s_boolean", TSDataType.BOOLEAN, true, null),
+            ParquetColumn.of("s_int32", TSDataType.INT32, true, null),
+            ParquetColumn.of("s_int64", TSDataType.INT64, true, null),
+            ParquetColumn.of("s_float", TSDataType.FLOAT, true, null),
+            ParquetColumn.of("s_double", TSDataType.DOUBLE, true, null),
+            ParquetColumn.of("s_string", TSDataType.STRING, true, null),
+            ParquetColumn.of("s_blob", TSDataType.BLOB, true, null),
+            ParquetColumn.of("s_date", TSDataType.DATE, true, null));
+    final int rowCount = 1000;
+    try (final ParquetFileWriter writer =
+        new ParquetFileWriter(file, columns, compressionType)) {
+      for (int row = 0; row < rowCount; row++) {
+        writer.getColumnWriter(0).writeLong(row);
+        for (int i = 1; i < columns.size(); i++) {
+          final ParquetFileWriter.ColumnWriter columnWriter = writer.getColumnWriter(i);
+          if (row % (i + 1) == 0) {
+            columnWriter.writeNull();
+            continue;
+          }
+          switch (columns.get(i).getDataType()) {
+            case BOOLEAN:
+              columnWriter.writeBoolean(row % 3 == 0);
+              break;
+            case INT32:
+            case DATE:
+              columnWriter.writeInt(row);
+              break;
+            case INT64:
+              columnWriter.writeLong(-row);
+              break;
+            case FLOAT:
+              columnWriter.writeFloat(row / 2.0f);
+              break;
+            case DOUBLE:
+              columnWriter.writeDouble(row / 4.0d);
+              break;
+            default:
+              columnWriter.writeBinary(new Binary("v" + row, TSFileConfig.STRING_CHARSET));
+              break;
+          }
+        }
+        writer.endRows(1);
+        if (row == rowCount / 2) {
+          writer.flushRowGroup();
+        }
+      }
+      Assert.assertEquals(rowCount, writer.getRowCount());
+    }
+
+    try (final ParquetFileReader reader = new ParquetFileReader(file)) {
+      Assert.assertEquals(rowCount, reader.getRowCount());
+      Assert.assertEquals(2, reader.getRowGroupCount());
+      for (int i = 0; i < columns.size(); i++) {
+        Assert.assertEquals(columns.get(i).getName(), reader.getColumns().get(i).getName());
+        Assert.assertEquals(
+            columns.get(i).getDataType(), reader.getColumns().get(i).getDataType());
+        Assert.assertEquals(columns.get(i).isOptional(), reader.getColumns().get(i).isOptional());
+      }
+      Assert.assertEquals(TimeUnit.MILLISECONDS, reader.getColumns().get(0).getTimeUnit());
+
+      final int[] columnIndexes = new int[columns.size()];
+      for (int i = 0; i < columnIndexes.length; i++) {
+        columnIndexes[i] = i;
+      }
+      int row = 0;
+      for (int rowGroup = 0; rowGroup < reader.getRowGroupCount(); rowGroup++) {
+        final ParquetColumnData[] data = reader.readRowGroup(rowGroup, columnIndexes);
+        for (int index = 0; index < data[0].getSize(); index++, row++) {
+          Assert.assertEquals(row, data[0].getLong(index));
+          for (int i = 1; i < columns.size(); i++) {
+            Assert.assertEquals(row % (i + 1) == 0, data[i].isNull(index));
+            if (data[i].isNull(index)) {
+              continue;
+            }
+            switch (columns.get(i).getDataType()) {
+              case BOOLEAN:
+                Assert.assertEquals(row % 3 == 0, data[i].getBoolean(index));
+                break;
+              case INT32:
+              case DATE:
+                Assert.assertEquals(row, data[i].getInt(index));
+                break;
+              case INT64:
+                Assert.assertEquals(-row, data[i].getLong(index));
+                break;
+              case FLOAT:
+                Assert.assertEquals(row / 2.0f, data[i].getFloat(index), 0);
+                break;
+              case DOUBLE:
+                Assert.assertEquals(row / 4.0d, data[i].getDouble(index), 0);
+                break;
+              default:
+                Assert.assertEquals(
+                    "v" + row,
+                    data[i].getBinary(index).getStringValue(TSFileConfig.STRING_CHARSET));
+                break;
+            }
+          }
+        }
+      }
+      Assert.assertEquals(rowCount, row);
+    }
+  }
+
+  @Test
+  public void testSkipRowGroupsByStatistics() throws IOException {
+    final List<ParquetColumn> columns =
+        Arrays.asList(
+            ParquetColumn.of("time", TSDataType.TIMESTAMP, false, TimeUnit.MICROSECONDS),
+            ParquetColumn.of("s1", TSDataType.DOUBLE, true, null));
+    try (final ParquetFileWriter writer =
+        new ParquetFileWriter(file, columns, CompressionType.UNCOMPRESSED)) {
+      for (int rowGroup = 0; rowGroup < 3; rowGroup++) {
+        for (int row = 0; row < 100; row++) {
+          writer.getColumnWriter(0).writeLong(rowGroup * 1000L + row);
+          writer.getColumnWriter(1).writeDouble(row);
+        }
+        writer.endRows(100);
+        writer.flushRowGroup();
+      }
+    }
+
+    try (final ParquetFileReader reader = new ParquetFileReader(file)) {
+      Assert.assertEquals(3, reader.getRowGroupCount());
+      Assert.assertEquals(TimeUnit.MICROSECONDS, reader.getColumns().get(0).getTimeUnit());
+      Assert.assertTrue(reader.mayOverlap(0, 0, 50, 500));
+      Assert.assertFalse(reader.mayOverlap(1, 0, 50, 500));
+      Assert.assertTrue(reader.mayOverlap(1, 0, 1099, 1500));
+      Assert.assertFalse(reader.mayOverlap(2, 0, 1100, 1999));
+      // statistics of the non INT64 columns are not used
+      Assert.assertTrue(reader.mayOverlap(2, 1, 1000, 2000));
+    }
+  }
+}
@@ -1126,6 +1126,14 @@ struct TCQEntry {
   1: required string cqId
   2: required string sql
   3: required byte state
+  // used by the DataNodes to maintain the CQ incrementally
+  4: optional string queryBody
+  5: optional i64 everyInterval
+  6: optional i64 boundaryTime
+  7: optional i64 startTimeOffset
+  8: optional i64 endTimeOffset
+  9: optional string zoneId
+  10: optional string username
 }
 
 struct TShowCQResp {
@@ -318,6 +318,8 @@ struct TDataNodeHeartbeatResp {
   16: optional list<double> pipeRemainingTimeList
   17: optional map<i32, i64> dataRegionRawDataSize
   18: optional list<i32> pipeDegradedStatusList
+  // the continuous queries maintained incrementally by the DataNode
+  19: optional set<string> incrementalCQIds
 }
 
 struct TPipeHeartbeatReq {
@@ -682,6 +684,8 @@ struct TExecuteCQ {
   5: required string zoneId
   6: required string cqId
   7: required string username
+  // whether every DataNode maintains the CQ incrementally, the execution can be skipped then
+  8: optional bool maintainedIncrementally
 }
 
 // ====================================================